@@ -0,0 +1,76 @@
+package com.xatkit.benchmark;
+
+import com.xatkit.core.platform.io.RuntimeEventProvider;
+import com.xatkit.dsl.DSL;
+import com.xatkit.dsl.intent.IntentDefinitionProvider;
+import com.xatkit.dsl.state.BodyStep;
+import com.xatkit.dsl.state.WhenStep;
+import com.xatkit.execution.ExecutionModel;
+import com.xatkit.intent.IntentDefinition;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.xatkit.dsl.DSL.any;
+import static com.xatkit.dsl.DSL.fallbackState;
+import static com.xatkit.dsl.DSL.intent;
+import static com.xatkit.dsl.DSL.intentIs;
+import static com.xatkit.dsl.DSL.state;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A bot model used by the benchmarks, parameterized by its number of intents.
+ * <p>
+ * The model contains {@code intentCount} intents named {@code Intent<i>} with the training sentence
+ * {@code "sentence number <i>"}, and a {@code Parameterized} intent with an {@code any} parameter matching
+ * {@code "my name is <value>"}. The {@code Init} state defines a transition to a dedicated state for each intent,
+ * and each of these states goes back to {@code Init}.
+ */
+public class BenchmarkModel {
+
+    /**
+     * The {@link ExecutionModel} of the bot.
+     */
+    @Getter
+    private final ExecutionModel executionModel;
+
+    /**
+     * The {@link IntentDefinition}s of the bot.
+     * <p>
+     * The last intent of the list is the {@code Parameterized} intent.
+     */
+    @Getter
+    private final List<IntentDefinition> intents = new ArrayList<>();
+
+    /**
+     * Creates a {@link BenchmarkModel} with the provided number of intents.
+     *
+     * @param intentCount the number of intents of the model (without the {@code Parameterized} intent)
+     */
+    public BenchmarkModel(int intentCount) {
+        List<IntentDefinitionProvider> intentProviders = new ArrayList<>();
+        for (int i = 0; i < intentCount; i++) {
+            intentProviders.add(intent("Intent" + i).trainingSentence("sentence number " + i));
+        }
+        intentProviders.add(intent("Parameterized")
+                .trainingSentence("my name is NAME")
+                .parameter("name").fromFragment("NAME").entity(any()));
+        val init = state("Init");
+        WhenStep transitions = init.next();
+        for (IntentDefinitionProvider intentProvider : intentProviders) {
+            intents.add(intentProvider.getIntentDefinition());
+            BodyStep target = state(intentProvider.getIntentDefinition().getName() + "State");
+            target.body(context -> context.getSession().put("visited", true))
+                    .next()
+                    .moveTo(init);
+            transitions = transitions.when(intentIs(intentProvider)).moveTo(target);
+        }
+        this.executionModel = DSL.model()
+                .listenTo(mock(RuntimeEventProvider.class))
+                .initState(init)
+                .defaultFallbackState(fallbackState().body(context -> context.getSession().put("fallback", true)))
+                .getExecutionModel();
+    }
+}
@@ -0,0 +1,91 @@
+package com.xatkit.benchmark;
+
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.core.recognition.embedded.EmbeddedIntentRecognitionProvider;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.RecognizedIntent;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link EmbeddedIntentRecognitionProvider#getIntent(String, StateContext)}.
+ * <p>
+ * The classifier is trained once per trial with the default configuration. Each invocation extracts the n-grams of
+ * the input and scores them against the intents accessible from the {@code Init} state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmbeddedIntentRecognitionProviderBenchmark {
+
+    /**
+     * The number of intents registered in the provider.
+     */
+    @Param({"10", "100", "1000"})
+    public int intentCount;
+
+    private EmbeddedIntentRecognitionProvider provider;
+
+    private StateContext context;
+
+    private String lastIntentInput;
+
+    private String lastIntentTypoInput;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IntentRecognitionProviderException {
+        BenchmarkModel model = new BenchmarkModel(intentCount);
+        provider = new EmbeddedIntentRecognitionProvider(new BaseConfiguration(), null);
+        for (IntentDefinition intentDefinition : model.getIntents()) {
+            provider.registerIntentDefinition(intentDefinition);
+        }
+        provider.trainMLEngine();
+        context = provider.createContext("benchmark");
+        context.setState(model.getExecutionModel().getInitState());
+        lastIntentInput = "sentence number " + (intentCount - 1);
+        lastIntentTypoInput = "sentense numbr " + (intentCount - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    @Benchmark
+    public RecognizedIntent getIntentLastIntent() throws IntentRecognitionProviderException {
+        return provider.getIntent(lastIntentInput, context);
+    }
+
+    @Benchmark
+    public RecognizedIntent getIntentLastIntentTypo() throws IntentRecognitionProviderException {
+        return provider.getIntent(lastIntentTypoInput, context);
+    }
+
+    @Benchmark
+    public RecognizedIntent getIntentWithParameter() throws IntentRecognitionProviderException {
+        return provider.getIntent("my name is Bob", context);
+    }
+
+    @Benchmark
+    public RecognizedIntent getIntentFallback() throws IntentRecognitionProviderException {
+        return provider.getIntent("this input does not match any intent", context);
+    }
+}
@@ -0,0 +1,76 @@
+package com.xatkit.benchmark;
+
+import com.xatkit.core.recognition.regex.RegExEntityMapper;
+import com.xatkit.intent.CustomEntityDefinition;
+import com.xatkit.intent.EntityDefinition;
+import com.xatkit.intent.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.xatkit.dsl.DSL.any;
+import static com.xatkit.dsl.DSL.mapping;
+
+/**
+ * Benchmarks the lookups of {@link com.xatkit.core.recognition.EntityMapper} (using the {@link RegExEntityMapper}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+    /**
+     * The number of custom entities registered in the mapper.
+     */
+    @Param({"10", "100", "1000"})
+    public int entityCount;
+
+    private RegExEntityMapper entityMapper;
+
+    private EntityDefinition baseEntity;
+
+    private CustomEntityDefinition customEntity;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entityMapper = new RegExEntityMapper();
+        for (int i = 0; i < entityCount; i++) {
+            CustomEntityDefinition entity = mapping("Entity" + i)
+                    .entry().value("value" + i)
+                    .entry().value("other" + i)
+                    .getEntity();
+            entityMapper.registerCustomEntityDefinition(entity);
+            customEntity = entity;
+        }
+        baseEntity = any().getReferredEntity();
+    }
+
+    @Benchmark
+    public String getMappingForEntityType() {
+        return entityMapper.getMappingFor(EntityType.ANY);
+    }
+
+    @Benchmark
+    public String getMappingForBaseEntity() {
+        return entityMapper.getMappingFor(baseEntity);
+    }
+
+    @Benchmark
+    public String getMappingForCustomEntity() {
+        return entityMapper.getMappingFor(customEntity);
+    }
+}
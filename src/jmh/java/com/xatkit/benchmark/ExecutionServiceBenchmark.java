@@ -0,0 +1,102 @@
+package com.xatkit.benchmark;
+
+import com.xatkit.core.ExecutionService;
+import com.xatkit.core.watchdog.WatchdogConfiguration;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ExecutionService#handleEventInstance(com.xatkit.intent.EventInstance, StateContext)}.
+ * <p>
+ * Each invocation handles a recognized intent in a context, and waits until the event has been processed (transition
+ * evaluation, body execution, and automated transition back to the {@code Init} state).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionServiceBenchmark {
+
+    /**
+     * The number of intents of the model (the {@code Init} state defines one transition per intent).
+     */
+    @Param({"10", "100", "1000"})
+    public int intentCount;
+
+    /**
+     * Whether the {@link com.xatkit.core.watchdog.ExecutionWatchdog} is enabled.
+     */
+    @Param({"true", "false"})
+    public boolean watchdog;
+
+    private ExecutionService executionService;
+
+    private StateContext context;
+
+    private RecognizedIntent matchedIntent;
+
+    private RecognizedIntent unmatchedIntent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkModel model = new BenchmarkModel(intentCount);
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(WatchdogConfiguration.ENABLED_KEY, watchdog);
+        executionService = new ExecutionService(model.getExecutionModel(), configuration);
+        context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("benchmark");
+        executionService.initContext(context);
+        /*
+         * Use the intent of the last transition: the matched transition is not the first one evaluated.
+         */
+        matchedIntent = createRecognizedIntent(model.getIntents().get(intentCount - 1));
+        IntentDefinition unmatchedDefinition = IntentFactory.eINSTANCE.createIntentDefinition();
+        unmatchedDefinition.setName("Unmatched");
+        unmatchedIntent = createRecognizedIntent(unmatchedDefinition);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executionService.shutdown();
+    }
+
+    @Benchmark
+    public void handleMatchedEvent() {
+        executionService.handleEventInstance(matchedIntent, context).join();
+    }
+
+    @Benchmark
+    public void handleUnmatchedEvent() {
+        executionService.handleEventInstance(unmatchedIntent, context).join();
+    }
+
+    private static RecognizedIntent createRecognizedIntent(IntentDefinition definition) {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(definition);
+        recognizedIntent.setMatchedInput("input");
+        recognizedIntent.setRecognitionConfidence(1);
+        return recognizedIntent;
+    }
+}
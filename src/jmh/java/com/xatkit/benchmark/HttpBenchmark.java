@@ -0,0 +1,118 @@
+package com.xatkit.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.xatkit.core.server.HttpEntityHelper;
+import com.xatkit.core.server.HttpHandler;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandlerFactory;
+import com.xatkit.core.server.XatkitServer;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.DefaultHttpResponseFactory;
+import org.apache.http.message.BasicHttpEntityEnclosingRequest;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link HttpHandler#handle(org.apache.http.HttpRequest, HttpResponse, HttpContext)} and the JSON
+ * conversions of {@link HttpEntityHelper}.
+ * <p>
+ * The requests are created in memory and handled without starting the {@link XatkitServer}: the benchmarks measure
+ * the request dispatching, the payload parsing, and the response serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpBenchmark {
+
+    /**
+     * The number of fields of the request payload.
+     */
+    @Param({"10", "100", "1000"})
+    public int payloadSize;
+
+    /**
+     * The number of REST endpoints registered in the server.
+     */
+    @Param({"10", "100"})
+    public int endpointCount;
+
+    private HttpHandler handler;
+
+    private JsonObject payload;
+
+    private HttpEntity payloadEntity;
+
+    private HttpContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        XatkitServer xatkitServer = new XatkitServer(new BaseConfiguration());
+        for (int i = 0; i < endpointCount; i++) {
+            xatkitServer.registerRestEndpoint(HttpMethod.POST, "/endpoint" + i,
+                    RestHandlerFactory.createJsonRestHandler((headers, params, content) -> content));
+        }
+        handler = new HttpHandler(xatkitServer);
+        payload = new JsonObject();
+        for (int i = 0; i < payloadSize; i++) {
+            payload.addProperty("field" + i, "value" + i);
+        }
+        /*
+         * The entities created by HttpEntityHelper wrap a stream that can only be consumed once, use a repeatable
+         * entity to parse the same payload in each invocation.
+         */
+        payloadEntity = new ByteArrayEntity(payload.toString().getBytes(StandardCharsets.UTF_8),
+                ContentType.APPLICATION_JSON);
+        context = new BasicHttpContext();
+    }
+
+    @Benchmark
+    public HttpResponse handleJsonRequest() {
+        BasicHttpEntityEnclosingRequest request = new BasicHttpEntityEnclosingRequest("POST",
+                "/endpoint" + (endpointCount - 1));
+        request.setEntity(HttpEntityHelper.createHttpEntity(payload));
+        HttpResponse response = DefaultHttpResponseFactory.INSTANCE.newHttpResponse(HttpVersion.HTTP_1_1,
+                HttpStatus.SC_OK, context);
+        handler.handle(request, response, context);
+        return response;
+    }
+
+    @Benchmark
+    public HttpEntity createHttpEntity() {
+        return HttpEntityHelper.createHttpEntity(payload);
+    }
+
+    @Benchmark
+    public JsonElement getJsonElementFromHttpEntity() {
+        return HttpEntityHelper.getJsonElementFromHttpEntity(payloadEntity);
+    }
+
+    @Benchmark
+    public JsonElement jsonRoundTrip() {
+        return HttpEntityHelper.getJsonElementFromHttpEntity(HttpEntityHelper.createHttpEntity(payload));
+    }
+}
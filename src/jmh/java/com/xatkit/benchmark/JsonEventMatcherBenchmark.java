@@ -0,0 +1,93 @@
+package com.xatkit.benchmark;
+
+import com.google.gson.JsonObject;
+import com.xatkit.core.platform.io.JsonEventMatcher;
+import com.xatkit.intent.EventInstance;
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.xatkit.dsl.DSL.event;
+
+/**
+ * Benchmarks {@link JsonEventMatcher#match(List, com.google.gson.JsonElement)}.
+ * <p>
+ * The matcher is configured with {@code eventCount} events matching the same header and different field values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonEventMatcherBenchmark {
+
+    /**
+     * The number of events registered in the matcher.
+     */
+    @Param({"10", "100", "1000"})
+    public int eventCount;
+
+    /**
+     * The number of fields of the matched payload.
+     */
+    @Param({"10", "100"})
+    public int payloadSize;
+
+    private JsonEventMatcher matcher;
+
+    private List<Header> headers;
+
+    private JsonObject matchedPayload;
+
+    private JsonObject unmatchedPayload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        matcher = new JsonEventMatcher();
+        JsonEventMatcher.HeaderValue headerValue = JsonEventMatcher.HeaderValue.of("X-Event", "webhook");
+        for (int i = 0; i < eventCount; i++) {
+            matcher.addMatchableEvent(headerValue, JsonEventMatcher.FieldValue.of("type", "event" + i),
+                    event("Event" + i).parameter("json").getEventDefinition());
+        }
+        headers = new ArrayList<>();
+        headers.add(new BasicHeader("Content-Type", "application/json"));
+        headers.add(new BasicHeader("X-Event", "webhook"));
+        matchedPayload = createPayload("event" + (eventCount - 1));
+        unmatchedPayload = createPayload("unknown");
+    }
+
+    @Benchmark
+    public EventInstance matchRegisteredEvent() {
+        return matcher.match(headers, matchedPayload);
+    }
+
+    @Benchmark
+    public EventInstance matchUnregisteredEvent() {
+        return matcher.match(headers, unmatchedPayload);
+    }
+
+    private JsonObject createPayload(String type) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("type", type);
+        for (int i = 0; i < payloadSize; i++) {
+            payload.addProperty("field" + i, "value" + i);
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,118 @@
+package com.xatkit.benchmark;
+
+import com.xatkit.core.recognition.processor.IntentPostProcessor;
+import com.xatkit.core.recognition.processor.RemoveEnglishStopWordsPostProcessor;
+import com.xatkit.core.recognition.processor.SpacePunctuationPreProcessor;
+import com.xatkit.core.recognition.processor.TrimParameterValuesPostProcessor;
+import com.xatkit.core.recognition.processor.TrimPunctuationPostProcessor;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link IntentPostProcessor}s and {@link com.xatkit.core.recognition.processor.InputPreProcessor}s
+ * that do not depend on external resources.
+ * <p>
+ * The processors relying on Stanford CoreNLP models ({@code IsEnglishYesNoQuestionPostProcessor},
+ * {@code EnglishSentimentPostProcessor}), OpenNLP models ({@code LanguageDetectionPostProcessor}), or remote APIs
+ * ({@code ToxicityPostProcessor}) are not benchmarked: their cost is dominated by the external resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessorBenchmark {
+
+    /**
+     * The post-processor to benchmark.
+     */
+    @Param({"TrimParameterValues", "TrimPunctuation", "RemoveEnglishStopWords"})
+    public String postProcessor;
+
+    /**
+     * The number of words of the processed input and parameter value.
+     */
+    @Param({"5", "50"})
+    public int wordCount;
+
+    private IntentPostProcessor processor;
+
+    private SpacePunctuationPreProcessor preProcessor;
+
+    private RecognizedIntent recognizedIntent;
+
+    private ContextParameterValue parameterValue;
+
+    private StateContext context;
+
+    private String input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (postProcessor) {
+            case "TrimParameterValues":
+                processor = new TrimParameterValuesPostProcessor();
+                break;
+            case "TrimPunctuation":
+                processor = new TrimPunctuationPostProcessor();
+                break;
+            case "RemoveEnglishStopWords":
+                processor = new RemoveEnglishStopWordsPostProcessor();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown post-processor " + postProcessor);
+        }
+        processor.init();
+        preProcessor = new SpacePunctuationPreProcessor();
+        StringBuilder sb = new StringBuilder(" ");
+        for (int i = 0; i < wordCount; i++) {
+            sb.append(i % 3 == 0 ? "the " : "word").append(i).append(i % 5 == 0 ? ", " : " ");
+        }
+        input = sb.append("?! ").toString();
+        List<IntentDefinition> intents = new BenchmarkModel(1).getIntents();
+        IntentDefinition intentDefinition = intents.get(intents.size() - 1);
+        recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(intentDefinition);
+        recognizedIntent.setMatchedInput(input);
+        parameterValue = IntentFactory.eINSTANCE.createContextParameterValue();
+        parameterValue.setContextParameter(intentDefinition.getParameters().get(0));
+        parameterValue.setValue(input);
+        recognizedIntent.getValues().add(parameterValue);
+        context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("benchmark");
+    }
+
+    @Benchmark
+    public RecognizedIntent postProcess() {
+        /*
+         * Reset the value: post-processors update the parameter values in place.
+         */
+        parameterValue.setValue(input);
+        return processor.process(recognizedIntent, context);
+    }
+
+    @Benchmark
+    public String spacePunctuationPreProcess() {
+        return preProcessor.process(input, context);
+    }
+}
@@ -0,0 +1,104 @@
+package com.xatkit.benchmark;
+
+import com.xatkit.core.recognition.IntentCandidate;
+import com.xatkit.intent.ContextParameter;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation of the per-message EMF objects with and without notification delivery.
+ * <p>
+ * The {@code candidates} benchmarks compare the creation of one {@link RecognizedIntent} per recognition candidate
+ * with the creation of lightweight {@link IntentCandidate}s where only the selected one is converted. Run the
+ * benchmarks with {@code -Djmh.args="TransientEObjectsBenchmark -prof gc"} to get the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransientEObjectsBenchmark {
+
+    /**
+     * Whether the created objects deliver notifications.
+     */
+    @Param({"true", "false"})
+    public boolean notifications;
+
+    /**
+     * The number of recognition candidates created for each message.
+     */
+    @Param({"1", "10"})
+    public int candidateCount;
+
+    private List<IntentDefinition> intents;
+
+    private IntentDefinition parameterizedIntent;
+
+    private ContextParameter parameter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        intents = new BenchmarkModel(candidateCount).getIntents();
+        parameterizedIntent = intents.get(intents.size() - 1);
+        parameter = parameterizedIntent.getParameters().get(0);
+        TransientEObjects.setNotificationsEnabled(notifications);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TransientEObjects.setNotificationsEnabled(true);
+    }
+
+    @Benchmark
+    public RecognizedIntent recognizedIntent() {
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+        recognizedIntent.setDefinition(parameterizedIntent);
+        recognizedIntent.setRecognitionConfidence(1);
+        recognizedIntent.setMatchedInput("my name is John");
+        recognizedIntent.getValues().add(TransientEObjects.createContextParameterValue(parameter, "John"));
+        return recognizedIntent;
+    }
+
+    @Benchmark
+    public void eagerCandidates(Blackhole blackhole) {
+        List<RecognizedIntent> candidates = new ArrayList<>(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            RecognizedIntent candidate = TransientEObjects.createRecognizedIntent();
+            candidate.setDefinition(intents.get(i));
+            candidate.setRecognitionConfidence(1f / (i + 1));
+            candidate.setMatchedInput("sentence number 0");
+            candidates.add(candidate);
+        }
+        blackhole.consume(candidates.get(0));
+    }
+
+    @Benchmark
+    public void lazyCandidates(Blackhole blackhole) {
+        List<IntentCandidate> candidates = new ArrayList<>(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            candidates.add(new IntentCandidate(intents.get(i), 1f / (i + 1), "sentence number 0"));
+        }
+        blackhole.consume(candidates.get(0).toRecognizedIntent());
+    }
+}
@@ -0,0 +1,71 @@
+package com.xatkit.core;
+
+import com.xatkit.execution.StateContext;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * An asynchronous body of a {@link com.xatkit.execution.State}.
+ * <p>
+ * Asynchronous bodies return a {@link CompletionStage} completed once their computation is done (e.g. when the
+ * response of an HTTP request has been received). The {@link ExecutionService} does not block its threads while
+ * waiting for the stage: the transitions of the {@link com.xatkit.execution.State} are evaluated once the stage is
+ * completed, and the other events of the same {@link StateContext} are processed after them.
+ * <p>
+ * This class implements {@link Consumer} to be stored as a regular body. Calling {@link #accept(StateContext)}
+ * executes the body and waits for its completion.
+ *
+ * @see com.xatkit.dsl.state.StateVar#asyncBody(Function)
+ * @see ExecutionService
+ */
+public class AsyncStateBody implements Consumer<StateContext> {
+
+    /**
+     * The function computing the body.
+     */
+    @Getter
+    private final Function<StateContext, ? extends CompletionStage<?>> function;
+
+    /**
+     * Creates an {@link AsyncStateBody} from the provided {@code function}.
+     *
+     * @param function the function computing the body
+     * @throws NullPointerException if the provided {@code function} is {@code null}
+     */
+    public AsyncStateBody(@NonNull Function<StateContext, ? extends CompletionStage<?>> function) {
+        this.function = function;
+    }
+
+    /**
+     * Executes the body with the provided {@code context}.
+     * <p>
+     * A {@code null} stage returned by the body is considered as completed.
+     *
+     * @param context the {@link StateContext} to execute the body with
+     * @return the {@link CompletableFuture} completed once the body has been computed
+     */
+    public CompletableFuture<?> applyAsync(@NonNull StateContext context) {
+        CompletionStage<?> stage = function.apply(context);
+        if (isNull(stage)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return stage.toCompletableFuture();
+    }
+
+    /**
+     * Executes the body with the provided {@code context} and waits for its completion.
+     *
+     * @param context the {@link StateContext} to execute the body with
+     */
+    @Override
+    public void accept(@NonNull StateContext context) {
+        this.applyAsync(context).join();
+    }
+}
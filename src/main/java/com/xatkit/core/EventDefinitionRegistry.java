@@ -6,11 +6,13 @@ import fr.inria.atlanmod.commons.log.Log;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import static java.util.Objects.nonNull;
+
 /**
  * A registry that stores {@link EventDefinition}s and provide utility methods to retrieve them.
  * <p>
@@ -20,17 +22,20 @@ public class EventDefinitionRegistry {
 
     /**
      * The {@link Map} used to store the {@link EventDefinition}s.
+     * <p>
+     * This map is concurrent: the events of the bot are registered while the platforms are starting, and platforms
+     * can register their own events or look up the registered ones in parallel.
      *
      * @see #registerEventDefinition(EventDefinition)
      * @see #clearEventDefinitions()
      */
-    private Map<String, EventDefinition> eventDefinitionMap;
+    private final Map<String, EventDefinition> eventDefinitionMap;
 
     /**
      * Constructs a new instance of the registry and initializes its {@link #eventDefinitionMap}.
      */
     public EventDefinitionRegistry() {
-        this.eventDefinitionMap = new HashMap<>();
+        this.eventDefinitionMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -40,10 +45,9 @@ public class EventDefinitionRegistry {
      */
     public void registerEventDefinition(EventDefinition eventDefinition) {
         String adaptedName = adaptEventName(eventDefinition.getName());
-        if (this.eventDefinitionMap.containsKey(adaptedName)) {
+        if (nonNull(this.eventDefinitionMap.put(adaptedName, eventDefinition))) {
             Log.warn("Another EventDefinition is stored with the key {0}, overriding it", adaptedName);
         }
-        this.eventDefinitionMap.put(adaptedName, eventDefinition);
     }
 
     /**
@@ -0,0 +1,209 @@
+package com.xatkit.core;
+
+import com.xatkit.execution.ExecutionModel;
+import com.xatkit.intent.ContextParameter;
+import com.xatkit.intent.CustomEntityDefinition;
+import com.xatkit.intent.EntityDefinition;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.IntentDefinition;
+import lombok.Getter;
+import lombok.NonNull;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The differences between the events accessed by two {@link ExecutionModel}s.
+ * <p>
+ * This class compares the {@link EventDefinition}s, {@link IntentDefinition}s, and {@link CustomEntityDefinition}s
+ * of two models by name, and computes the operations to apply to an
+ * {@link com.xatkit.core.recognition.IntentRecognitionProvider} to move from the old model to the new one. Elements
+ * with the same name are compared structurally (see {@link EcoreUtil#equals(org.eclipse.emf.ecore.EObject,
+ * org.eclipse.emf.ecore.EObject)}).
+ * <p>
+ * An {@link IntentDefinition} referring to a changed {@link CustomEntityDefinition} is considered as changed: it has
+ * to be deleted before its entity, and registered again once the new entity has been registered.
+ *
+ * @see ExecutionModelReloader
+ */
+public class ExecutionModelDiff {
+
+    /**
+     * The {@link IntentDefinition}s of the old model to delete.
+     * <p>
+     * This list contains the removed and changed intents.
+     */
+    @Getter
+    private final List<IntentDefinition> intentsToDelete = new ArrayList<>();
+
+    /**
+     * The {@link IntentDefinition}s of the new model to register.
+     * <p>
+     * This list contains the added and changed intents.
+     */
+    @Getter
+    private final List<IntentDefinition> intentsToRegister = new ArrayList<>();
+
+    /**
+     * The {@link CustomEntityDefinition}s of the old model to delete.
+     * <p>
+     * This list contains the removed and changed entities.
+     */
+    @Getter
+    private final List<CustomEntityDefinition> entitiesToDelete = new ArrayList<>();
+
+    /**
+     * The {@link CustomEntityDefinition}s of the new model to register.
+     * <p>
+     * This list contains the added and changed entities.
+     */
+    @Getter
+    private final List<CustomEntityDefinition> entitiesToRegister = new ArrayList<>();
+
+    /**
+     * The names of the {@link EventDefinition}s (including intents) that are not accessed by the new model.
+     */
+    @Getter
+    private final Set<String> removedEvents;
+
+    /**
+     * Computes the differences between the provided {@code oldModel} and {@code newModel}.
+     * <p>
+     * Both models must be consolidated.
+     *
+     * @param oldModel the {@link ExecutionModel} currently deployed
+     * @param newModel the {@link ExecutionModel} to deploy
+     * @throws NullPointerException if the provided {@code oldModel} or {@code newModel} is {@code null}
+     */
+    public ExecutionModelDiff(@NonNull ExecutionModel oldModel, @NonNull ExecutionModel newModel) {
+        Map<String, EventDefinition> oldEvents = getEventsByName(oldModel);
+        Map<String, EventDefinition> newEvents = getEventsByName(newModel);
+        Map<String, CustomEntityDefinition> oldEntities = getCustomEntitiesByName(oldEvents);
+        Map<String, CustomEntityDefinition> newEntities = getCustomEntitiesByName(newEvents);
+        List<String> changedEntities = new ArrayList<>();
+        oldEntities.forEach((name, oldEntity) -> {
+            CustomEntityDefinition newEntity = newEntities.get(name);
+            if (isNull(newEntity)) {
+                entitiesToDelete.add(oldEntity);
+            } else if (!EcoreUtil.equals(oldEntity, newEntity)) {
+                entitiesToDelete.add(oldEntity);
+                entitiesToRegister.add(newEntity);
+                changedEntities.add(name);
+            }
+        });
+        newEntities.forEach((name, newEntity) -> {
+            if (!oldEntities.containsKey(name)) {
+                entitiesToRegister.add(newEntity);
+            }
+        });
+        oldEvents.forEach((name, oldEvent) -> {
+            if (!(oldEvent instanceof IntentDefinition)) {
+                return;
+            }
+            EventDefinition newEvent = newEvents.get(name);
+            if (!(newEvent instanceof IntentDefinition)) {
+                intentsToDelete.add((IntentDefinition) oldEvent);
+            } else if (!EcoreUtil.equals(oldEvent, newEvent) || refersTo((IntentDefinition) oldEvent,
+                    changedEntities)) {
+                intentsToDelete.add((IntentDefinition) oldEvent);
+                intentsToRegister.add((IntentDefinition) newEvent);
+            }
+        });
+        newEvents.forEach((name, newEvent) -> {
+            if (newEvent instanceof IntentDefinition && !(oldEvents.get(name) instanceof IntentDefinition)) {
+                intentsToRegister.add((IntentDefinition) newEvent);
+            }
+        });
+        this.removedEvents = Collections.unmodifiableSet(oldEvents.keySet().stream()
+                .filter(name -> !newEvents.containsKey(name))
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Returns whether the models access the same intents and entities.
+     *
+     * @return {@code true} if the {@link com.xatkit.core.recognition.IntentRecognitionProvider} does not need to be
+     * updated, {@code false} otherwise
+     */
+    public boolean isIntentRecognitionUnchanged() {
+        return intentsToDelete.isEmpty() && intentsToRegister.isEmpty() && entitiesToDelete.isEmpty()
+                && entitiesToRegister.isEmpty();
+    }
+
+    /**
+     * Returns the {@link EventDefinition}s accessed by the provided {@code model} indexed by name.
+     *
+     * @param model the {@link ExecutionModel} to retrieve the events of
+     * @return the {@link EventDefinition}s indexed by name
+     */
+    private static Map<String, EventDefinition> getEventsByName(ExecutionModel model) {
+        Map<String, EventDefinition> result = new LinkedHashMap<>();
+        for (EventDefinition eventDefinition : model.getAllAccessedEvents()) {
+            result.put(eventDefinition.getName(), eventDefinition);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the {@link CustomEntityDefinition}s referred by the parameters of the provided {@code events} indexed
+     * by name.
+     *
+     * @param events the {@link EventDefinition}s to retrieve the entities of
+     * @return the {@link CustomEntityDefinition}s indexed by name
+     */
+    private static Map<String, CustomEntityDefinition> getCustomEntitiesByName(Map<String, EventDefinition> events) {
+        Map<String, CustomEntityDefinition> result = new LinkedHashMap<>();
+        for (EventDefinition eventDefinition : events.values()) {
+            if (eventDefinition instanceof IntentDefinition) {
+                for (ContextParameter parameter : eventDefinition.getParameters()) {
+                    EntityDefinition entity = getReferredEntity(parameter);
+                    if (entity instanceof CustomEntityDefinition) {
+                        result.putIfAbsent(entity.getName(), (CustomEntityDefinition) entity);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether the provided {@code intentDefinition} has a parameter referring to one of the provided {@code
+     * entityNames}.
+     *
+     * @param intentDefinition the {@link IntentDefinition} to check
+     * @param entityNames      the names of the entities
+     * @return {@code true} if the {@code intentDefinition} refers to one of the entities, {@code false} otherwise
+     */
+    private static boolean refersTo(IntentDefinition intentDefinition, List<String> entityNames) {
+        for (ContextParameter parameter : intentDefinition.getParameters()) {
+            EntityDefinition entity = getReferredEntity(parameter);
+            if (nonNull(entity) && entityNames.contains(entity.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the {@link EntityDefinition} referred by the provided {@code parameter}.
+     *
+     * @param parameter the {@link ContextParameter} to retrieve the entity of
+     * @return the referred {@link EntityDefinition}, or {@code null} if the {@code parameter} does not have an entity
+     */
+    private static @Nullable EntityDefinition getReferredEntity(ContextParameter parameter) {
+        if (isNull(parameter.getEntity())) {
+            return null;
+        }
+        return parameter.getEntity().getReferredEntity();
+    }
+}
@@ -0,0 +1,184 @@
+package com.xatkit.core;
+
+import com.xatkit.core.platform.RuntimePlatform;
+import com.xatkit.core.platform.io.RuntimeEventProvider;
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.execution.ExecutionModel;
+import com.xatkit.intent.CustomEntityDefinition;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.IntentDefinition;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+import java.util.concurrent.locks.Lock;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * Replaces the {@link ExecutionModel} of a running {@link XatkitBot}.
+ * <p>
+ * The reloader computes the {@link ExecutionModelDiff} between the deployed model and the new one, and only applies
+ * the required operations to the {@link IntentRecognitionProvider}: removed and changed intents (and custom entities)
+ * are deleted, added and changed ones are registered, and the provider is trained if needed. Unchanged intents are
+ * not registered again.
+ * <p>
+ * The operations are staged: they are applied in a single batch holding the write lock of
+ * {@link XatkitBot#getIntentRecognitionLock()}, so recognitions never see a partially updated provider (e.g. a
+ * changed intent that has been deleted but not registered again). Providers backed by a trained engine (e.g.
+ * NLP.js, or DialogFlow with
+ * {@link com.xatkit.core.recognition.dialogflow.DialogFlowConfiguration#ENABLE_BATCH_SYNC_KEY} enabled) only use the
+ * new intents once they are trained, and keep matching the deployed ones in the meantime.
+ * <p>
+ * The deployed model keeps handling the received events until the {@link IntentRecognitionProvider} has been
+ * trained. The new model is then swapped in the {@link ExecutionService}, which moves the live contexts to the
+ * {@link com.xatkit.execution.State}s with the same name (see
+ * {@link ExecutionService#updateModel(ExecutionModel, Iterable)}).
+ * <p>
+ * <b>Note</b>: the new model must use the platforms and providers of the deployed model (the reloader does not start
+ * new platforms). Intents and events are matched by name by the state machine, unchanged intents recognized by the
+ * provider can thus trigger the transitions of the new model.
+ */
+public class ExecutionModelReloader {
+
+    /**
+     * The {@link XatkitBot} to reload the model of.
+     */
+    private final XatkitBot xatkitBot;
+
+    /**
+     * Creates an {@link ExecutionModelReloader} for the provided {@code xatkitBot}.
+     *
+     * @param xatkitBot the {@link XatkitBot} to reload the model of
+     * @throws NullPointerException if the provided {@code xatkitBot} is {@code null}
+     */
+    public ExecutionModelReloader(@NonNull XatkitBot xatkitBot) {
+        this.xatkitBot = xatkitBot;
+    }
+
+    /**
+     * Deploys the provided {@code newModel} in place of the current model of the bot.
+     * <p>
+     * If an error occurs when updating the {@link IntentRecognitionProvider} the current model is kept, but the
+     * provider may be partially updated. Reloading the model again applies the missing operations.
+     *
+     * @param newModel the {@link ExecutionModel} to deploy
+     * @return the {@link ExecutionModelDiff} applied to the {@link IntentRecognitionProvider}
+     * @throws NullPointerException     if the provided {@code newModel} is {@code null}
+     * @throws IllegalArgumentException if the {@code newModel} does not listen to any event, or uses platforms or
+     *                                  providers that are not started
+     * @throws XatkitException          if an error occurred when updating the {@link IntentRecognitionProvider}
+     */
+    public ExecutionModelDiff reload(@NonNull ExecutionModel newModel) {
+        ExecutionModel currentModel = xatkitBot.getExecutionService().getModel();
+        newModel.consolidate();
+        checkArgument(!newModel.getUsedEvents().isEmpty(), "Cannot reload the model: the provided model does not "
+                + "listen to any %s", RuntimeEventProvider.class.getSimpleName());
+        for (Object platform : newModel.getUsedPlatforms()) {
+            checkArgument(currentModel.getUsedPlatforms().contains(platform), "Cannot reload the model: the %s %s is "
+                            + "not started, only the platforms of the deployed model can be used",
+                    RuntimePlatform.class.getSimpleName(), ((RuntimePlatform) platform).getName());
+        }
+        for (Object provider : newModel.getUsedProviders()) {
+            checkArgument(currentModel.getUsedProviders().contains(provider), "Cannot reload the model: the %s %s "
+                            + "is not started, only the providers of the deployed model can be used",
+                    RuntimeEventProvider.class.getSimpleName(), provider.getClass().getSimpleName());
+        }
+        long start = System.currentTimeMillis();
+        ExecutionModelDiff diff = new ExecutionModelDiff(currentModel, newModel);
+        if (!diff.isIntentRecognitionUnchanged()) {
+            this.updateIntentRecognitionProvider(diff);
+        }
+        EventDefinitionRegistry registry = xatkitBot.getEventDefinitionRegistry();
+        for (String removedEvent : diff.getRemovedEvents()) {
+            EventDefinition eventDefinition = registry.getEventDefinition(removedEvent);
+            if (nonNull(eventDefinition)) {
+                registry.unregisterEventDefinition(eventDefinition);
+            }
+        }
+        for (EventDefinition eventDefinition : newModel.getAllAccessedEvents()) {
+            /*
+             * Unregister the definition first to avoid the override warning, the registry stores the definitions
+             * of the new model.
+             */
+            registry.unregisterEventDefinition(eventDefinition);
+            registry.registerEventDefinition(eventDefinition);
+        }
+        int resetCount = xatkitBot.getExecutionService().updateModel(newModel, xatkitBot.getContexts());
+        Log.info("Execution model reloaded in {0}ms ({1} intent(s) deleted, {2} intent(s) registered, {3} context(s)"
+                        + " moved to the init state)", System.currentTimeMillis() - start,
+                diff.getIntentsToDelete().size(), diff.getIntentsToRegister().size(), resetCount);
+        return diff;
+    }
+
+    /**
+     * Applies the provided {@code diff} to the {@link IntentRecognitionProvider} and trains it.
+     * <p>
+     * The operations are executed in a single batch with the write lock of
+     * {@link XatkitBot#getIntentRecognitionLock()}. The training is performed without the lock: the bot keeps
+     * recognizing intents during the training.
+     *
+     * @param diff the {@link ExecutionModelDiff} to apply
+     * @throws XatkitException if an error occurred when updating the {@link IntentRecognitionProvider}
+     */
+    private void updateIntentRecognitionProvider(ExecutionModelDiff diff) {
+        IntentRecognitionProvider provider = xatkitBot.getIntentRecognitionProvider();
+        Lock lock = xatkitBot.getIntentRecognitionLock().writeLock();
+        try {
+            apply(lock, () -> {
+                for (IntentDefinition intentDefinition : diff.getIntentsToDelete()) {
+                    Log.debug("Deleting intent {0}", intentDefinition.getName());
+                    provider.deleteIntentDefinition(intentDefinition);
+                }
+                for (CustomEntityDefinition entityDefinition : diff.getEntitiesToDelete()) {
+                    Log.debug("Deleting entity {0}", entityDefinition.getName());
+                    provider.deleteEntityDefinition(entityDefinition);
+                }
+                for (CustomEntityDefinition entityDefinition : diff.getEntitiesToRegister()) {
+                    Log.debug("Registering entity {0}", entityDefinition.getName());
+                    provider.registerEntityDefinition(entityDefinition);
+                }
+                for (IntentDefinition intentDefinition : diff.getIntentsToRegister()) {
+                    Log.debug("Registering intent {0}", intentDefinition.getName());
+                    provider.registerIntentDefinition(intentDefinition);
+                }
+            });
+            provider.trainMLEngine();
+        } catch (IntentRecognitionProviderException e) {
+            throw new XatkitException(MessageFormat.format("Cannot reload the model: an error occurred when updating"
+                    + " the {0}, the deployed model is kept", provider.getClass().getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Executes the provided {@code operation} while holding the provided {@code lock}.
+     *
+     * @param lock      the {@link Lock} to hold
+     * @param operation the operation to execute
+     * @throws IntentRecognitionProviderException if the {@code operation} throws an exception
+     */
+    private static void apply(Lock lock, ProviderOperation operation) throws IntentRecognitionProviderException {
+        lock.lock();
+        try {
+            operation.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An operation updating the {@link IntentRecognitionProvider}.
+     */
+    @FunctionalInterface
+    private interface ProviderOperation {
+
+        /**
+         * Executes the operation.
+         *
+         * @throws IntentRecognitionProviderException if an error occurred when updating the provider
+         */
+        void run() throws IntentRecognitionProviderException;
+    }
+}
@@ -0,0 +1,164 @@
+package com.xatkit.core;
+
+import com.xatkit.dsl.model.ExecutionModelProvider;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Reloads the {@link com.xatkit.execution.ExecutionModel} of a bot when a file is modified.
+ * <p>
+ * This class watches a file (e.g. a file containing the training sentences of the bot) and calls
+ * {@link XatkitBot#reloadExecutionModel(ExecutionModelProvider)} with the provided {@link ExecutionModelProvider}
+ * when it is created or modified. The provider is responsible of creating the new model from the content of the
+ * file. Modifications occurring within {@link #DEBOUNCE_DELAY} milliseconds are grouped in a single reload.
+ * <p>
+ * Errors occurring when reloading the model are logged, the bot keeps running with its deployed model.
+ */
+public class ExecutionModelWatcher implements AutoCloseable {
+
+    /**
+     * The delay (in milliseconds) to wait after a modification before reloading the model.
+     */
+    public static final long DEBOUNCE_DELAY = 500;
+
+    /**
+     * The {@link XatkitBot} to reload the model of.
+     */
+    private final XatkitBot xatkitBot;
+
+    /**
+     * The watched file.
+     */
+    private final Path file;
+
+    /**
+     * The provider creating the model to deploy.
+     */
+    private final ExecutionModelProvider executionModelProvider;
+
+    /**
+     * The {@link WatchService} notified when the directory of the {@link #file} is modified.
+     */
+    private final WatchService watchService;
+
+    /**
+     * The daemon {@link Thread} waiting for modifications.
+     */
+    private final Thread watchThread;
+
+    /**
+     * Creates and starts an {@link ExecutionModelWatcher} reloading the model of the provided {@code xatkitBot} when
+     * the provided {@code file} is modified.
+     *
+     * @param xatkitBot              the {@link XatkitBot} to reload the model of
+     * @param file                   the file to watch
+     * @param executionModelProvider the provider creating the model to deploy
+     * @throws NullPointerException if the provided {@code xatkitBot}, {@code file}, or {@code
+     *                              executionModelProvider} is {@code null}
+     * @throws XatkitException      if an error occurred when watching the directory of the {@code file}
+     */
+    public ExecutionModelWatcher(@NonNull XatkitBot xatkitBot, @NonNull Path file,
+                                 @NonNull ExecutionModelProvider executionModelProvider) {
+        this.xatkitBot = xatkitBot;
+        this.file = file.toAbsolutePath();
+        this.executionModelProvider = executionModelProvider;
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot watch the file {0}, see attached exception",
+                    this.file), e);
+        }
+        this.watchThread = new Thread(this::watch, "xatkit-model-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+        Log.info("Watching {0} to reload the execution model", this.file);
+    }
+
+    /**
+     * Waits for modifications of the {@link #file} and reloads the model.
+     */
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean modified = isFileModified(key);
+                /*
+                 * Editors often write a file in several steps, wait until the file is stable.
+                 */
+                while (modified) {
+                    WatchKey nextKey = watchService.poll(DEBOUNCE_DELAY, TimeUnit.MILLISECONDS);
+                    if (isNull(nextKey)) {
+                        break;
+                    }
+                    isFileModified(nextKey);
+                }
+                if (modified) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            /*
+             * The watcher has been closed.
+             */
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code key} contains a modification of the {@link #file}, and resets it.
+     *
+     * @param key the {@link WatchKey} to check
+     * @return {@code true} if the {@link #file} has been modified, {@code false} otherwise
+     */
+    private boolean isFileModified(WatchKey key) {
+        boolean modified = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path && file.getFileName().equals(event.context())) {
+                modified = true;
+            }
+        }
+        key.reset();
+        return modified;
+    }
+
+    /**
+     * Reloads the model of the bot and logs the errors.
+     */
+    private void reload() {
+        Log.info("{0} has been modified, reloading the execution model", file);
+        try {
+            xatkitBot.reloadExecutionModel(executionModelProvider);
+        } catch (RuntimeException e) {
+            Log.error(e, "Cannot reload the execution model from {0}, the deployed model is kept", file);
+        }
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    @Override
+    public void close() {
+        watchThread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            Log.error(e, "An error occurred when closing the {0}", this.getClass().getSimpleName());
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.xatkit.core;
 
+import com.xatkit.core.journal.EventJournal;
+import com.xatkit.core.journal.JournalConfiguration;
+import com.xatkit.core.journal.JournalRecord;
 import com.xatkit.core.platform.action.RuntimeAction;
-import com.xatkit.execution.AutoTransition;
+import com.xatkit.core.watchdog.ExecutionWatchdog;
+import com.xatkit.core.watchdog.ExecutionWatchdog.MonitoredTask;
+import com.xatkit.core.watchdog.ExecutionWatchdog.TaskKind;
+import com.xatkit.core.watchdog.WatchdogConfiguration;
 import com.xatkit.execution.ExecutionModel;
 import com.xatkit.execution.GuardedTransition;
 import com.xatkit.execution.State;
@@ -17,12 +23,15 @@ import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkNotNull;
 import static java.util.Objects.isNull;
@@ -36,7 +45,13 @@ import static java.util.Objects.nonNull;
  * {@link #handleEventInstance(EventInstance, StateContext)}.
  * <p>
  * The reaction to a received event (body/fallback execution, transition evaluations) is executed in a dedicated
- * {@link Thread}.
+ * {@link Thread}. Asynchronous bodies (see {@link AsyncStateBody}) do not block this {@link Thread}: the transitions
+ * of their {@link State} are evaluated once the returned stage is completed. The events of a given
+ * {@link StateContext} are always processed in the order they have been received.
+ * <p>
+ * The duration of the executed bodies, fallbacks, and guards can be monitored by an {@link ExecutionWatchdog}, which
+ * reports (and optionally interrupts) the tasks exceeding their time budget. The watchdog is disabled by default
+ * (see {@link WatchdogConfiguration#ENABLED_KEY}).
  *
  * @see EventInstance
  */
@@ -44,30 +59,186 @@ public class ExecutionService {
 
     /**
      * The underlying state machine model used to compute transitions and find executable {@link State}s.
+     *
+     * @see #updateModel(ExecutionModel, Iterable)
      */
     @Getter
-    private ExecutionModel model;
+    private volatile ExecutionModel model;
 
     /**
      * The Xatkit {@link Configuration}.
      */
     private Configuration configuration;
 
+    /**
+     * Whether the current {@link Thread} is a thread of the {@link #executorService}.
+     *
+     * @see #updateModel(ExecutionModel, Iterable)
+     */
+    private final ThreadLocal<Boolean> executorThread = ThreadLocal.withInitial(() -> false);
+
     /**
      * The {@link ExecutorService} used to process the reaction to an incoming event.
      */
     @Getter
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private ExecutorService executorService = Executors.newSingleThreadExecutor(runnable ->
+            Executors.defaultThreadFactory().newThread(() -> {
+                executorThread.set(true);
+                runnable.run();
+            }));
+
+    /**
+     * The last task scheduled for each {@link StateContext}.
+     * <p>
+     * The reaction to an event starts once the reaction to the previous event of the same {@link StateContext} is
+     * completed, including its asynchronous bodies. Entries are removed once their task is completed.
+     */
+    private final Map<StateContext, CompletableFuture<Void>> contextTasks = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link StateTransitionIndex}es of the visited {@link State}s.
+     * <p>
+     * The index of a {@link State} is used to only evaluate the {@link Transition}s that can match the received event.
+     */
+    private volatile Map<State, StateTransitionIndex> transitionIndexes;
+
+    /**
+     * The {@link State}s of the {@link ExecutionModel} indexed by name.
+     * <p>
+     * This {@link Map} is used to restore the {@link State} of the sessions recovered from the {@link EventJournal}.
+     */
+    private volatile Map<String, State> statesByName;
+
+    /**
+     * The {@link EventJournal} used to record the handled events.
+     * <p>
+     * This field is {@code null} if the journal is disabled (see {@link JournalConfiguration#ENABLED_KEY}).
+     */
+    @Getter
+    @Nullable
+    private EventJournal eventJournal;
+
+    /**
+     * The {@link ExecutionWatchdog} monitoring the duration of the executed bodies, fallbacks, and guards.
+     */
+    @Getter
+    private ExecutionWatchdog watchdog;
 
     /**
      * Creates a new {@link ExecutionService} from the provided {@code model} and {@code configuration}.
+     * <p>
+     * This method indexes the {@link Transition}s of the {@code model}'s {@link State}s, starts the
+     * {@link ExecutionWatchdog}, and opens the {@link EventJournal} if it is enabled in the provided {@code
+     * configuration}.
      *
      * @param model         the {@link ExecutionModel} representing bot's state machine
      * @param configuration the Xatkit configuration
+     * @throws IllegalArgumentException if a {@link State} of the {@code model} contains an unsupported
+     *                                  {@link Transition} type
+     * @throws XatkitException         if an error occurred when opening the {@link EventJournal}
+     * @see StateTransitionIndex
+     * @see JournalConfiguration
+     * @see WatchdogConfiguration
      */
     public ExecutionService(@NonNull ExecutionModel model, @NonNull Configuration configuration) {
-        this.model = model;
         this.configuration = configuration;
+        this.loadModel(model);
+        this.watchdog = new ExecutionWatchdog(new WatchdogConfiguration(configuration));
+        JournalConfiguration journalConfiguration = new JournalConfiguration(configuration);
+        if (journalConfiguration.isEnabled()) {
+            this.eventJournal = new EventJournal(journalConfiguration);
+        }
+    }
+
+    /**
+     * Indexes the {@link State}s of the provided {@code model} and sets it as the current model.
+     * <p>
+     * The indexes are computed before being published: a failure when indexing the {@code model} does not change
+     * the current model.
+     *
+     * @param model the {@link ExecutionModel} to load
+     * @throws IllegalArgumentException if a {@link State} of the {@code model} contains an unsupported
+     *                                  {@link Transition} type
+     */
+    private void loadModel(ExecutionModel model) {
+        Map<State, StateTransitionIndex> newTransitionIndexes = new ConcurrentHashMap<>();
+        Map<String, State> newStatesByName = new HashMap<>();
+        for (State state : model.getStates()) {
+            newTransitionIndexes.put(state, new StateTransitionIndex(state));
+            newStatesByName.put(state.getName(), state);
+        }
+        if (nonNull(model.getInitState())) {
+            newTransitionIndexes.computeIfAbsent(model.getInitState(), StateTransitionIndex::new);
+            newStatesByName.putIfAbsent(model.getInitState().getName(), model.getInitState());
+        }
+        if (nonNull(model.getDefaultFallbackState())) {
+            newTransitionIndexes.computeIfAbsent(model.getDefaultFallbackState(), StateTransitionIndex::new);
+        }
+        this.transitionIndexes = newTransitionIndexes;
+        this.statesByName = newStatesByName;
+        this.model = model;
+    }
+
+    /**
+     * Replaces the current {@link ExecutionModel} with the provided {@code newModel} and migrates the provided
+     * {@code contexts}.
+     * <p>
+     * The update is executed by the {@link #executorService}: events received before the update are handled with the
+     * current model, and events received after are handled with the {@code newModel}. Each migrated {@link
+     * StateContext} is moved to the {@link State} of the {@code newModel} with the same name as its current
+     * {@link State}. Contexts whose {@link State} does not exist in the {@code newModel} are moved to its {@code
+     * Init} {@link State} (the body of this {@link State} is not executed).
+     * <p>
+     * This method blocks until the update is done. When called from an action executed by this service the update
+     * is performed directly by the calling thread (waiting for the {@link #executorService} would deadlock it).
+     *
+     * @param newModel the {@link ExecutionModel} to use
+     * @param contexts the {@link StateContext}s to migrate
+     * @return the number of {@link StateContext}s moved to the {@code Init} {@link State}
+     * @throws NullPointerException     if the provided {@code newModel} or {@code contexts} is {@code null}
+     * @throws IllegalArgumentException if a {@link State} of the {@code newModel} contains an unsupported
+     *                                  {@link Transition} type
+     */
+    public int updateModel(@NonNull ExecutionModel newModel, @NonNull Iterable<StateContext> contexts) {
+        if (executorThread.get()) {
+            return migrateContexts(newModel, contexts);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> migrateContexts(newModel, contexts), executorService).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the provided {@code newModel} and migrates the provided {@code contexts}.
+     *
+     * @param newModel the {@link ExecutionModel} to use
+     * @param contexts the {@link StateContext}s to migrate
+     * @return the number of {@link StateContext}s moved to the {@code Init} {@link State}
+     * @see #updateModel(ExecutionModel, Iterable)
+     */
+    private int migrateContexts(ExecutionModel newModel, Iterable<StateContext> contexts) {
+        this.loadModel(newModel);
+        int resetCount = 0;
+        for (StateContext context : contexts) {
+            State currentState = context.getState();
+            if (isNull(currentState)) {
+                continue;
+            }
+            State newState = statesByName.get(currentState.getName());
+            if (isNull(newState)) {
+                Log.warn("The state {0} of context {1} does not exist in the new model, moving the context to "
+                        + "the init state", currentState.getName(), context.getContextId());
+                newState = newModel.getInitState();
+                resetCount++;
+            }
+            context.setState(newState);
+        }
+        return resetCount;
     }
 
     /**
@@ -75,39 +246,106 @@ public class ExecutionService {
      * <p>
      * The provided {@link StateContext}'s {@link State} is set with the {@code Init} {@link State} of the bot
      * execution model, and the {@code body} section of this {@link State} is directly executed.
+     * <p>
+     * If the {@code body} is asynchronous this method returns without waiting for its completion, and the events of
+     * the {@code context} are processed once it is completed.
      *
      * @param context the {@link StateContext} to initialize
      */
     public void initContext(@NonNull StateContext context) {
         context.setState(this.model.getInitState());
-        this.executeBody(context.getState(), context);
+        CompletableFuture<Void> execution = this.executeBody(context.getState(), context);
+        if (!execution.isDone()) {
+            contextTasks.put(context, execution);
+            execution.whenComplete((result, throwable) -> contextTasks.remove(context, execution));
+        }
+    }
+
+    /**
+     * Restores the provided {@code context} from the {@link EventJournal}.
+     * <p>
+     * This method sets the {@link State} and the session values of the provided {@code context} with the ones
+     * recorded in the journal. The body of the restored {@link State} is not executed: the session is resumed as
+     * if the bot hadn't been restarted.
+     * <p>
+     * This method returns {@code false} if the journal is disabled, if it does not contain the provided {@code
+     * context}, or if the recorded {@link State} does not exist anymore. In this case the {@code context} should be
+     * initialized with {@link #initContext(StateContext)}.
+     *
+     * @param context the {@link StateContext} to restore
+     * @return {@code true} if the {@code context} has been restored, {@code false} otherwise
+     * @throws NullPointerException if the provided {@code context} is {@code null}
+     */
+    public boolean restoreContext(@NonNull StateContext context) {
+        if (isNull(eventJournal)) {
+            return false;
+        }
+        JournalRecord recovered = eventJournal.recover(context.getContextId());
+        if (isNull(recovered)) {
+            return false;
+        }
+        State state = statesByName.get(recovered.getStateName());
+        if (isNull(state)) {
+            Log.warn("Cannot restore the session {0}: the recorded state {1} does not exist", context.getContextId(),
+                    recovered.getStateName());
+            return false;
+        }
+        context.setState(state);
+        context.getSession().putAll(recovered.getSession());
+        Log.debug("Session {0} restored in state {1}", context.getContextId(), state.getName());
+        return true;
+    }
+
+    /**
+     * Returns the {@link State} of the {@link ExecutionModel} with the provided {@code name}.
+     *
+     * @param name the name of the {@link State} to retrieve
+     * @return the {@link State}, or {@code null} if the {@link ExecutionModel} does not contain a {@link State}
+     * with the provided {@code name}
+     * @throws NullPointerException if the provided {@code name} is {@code null}
+     */
+    public @Nullable State getState(@NonNull String name) {
+        return statesByName.get(name);
     }
 
     /**
      * Executes the body of the provided {@code state}, using the provided {@code context}.
      * <p>
-     * {@link Throwable}s thrown by the executed {@code body} are logged and rethrown to the caller.
+     * {@link Throwable}s thrown by the executed {@code body} are logged and rethrown to the caller. Asynchronous
+     * bodies (see {@link AsyncStateBody}) are not awaited: the returned {@link CompletableFuture} is completed
+     * (exceptionally if the body failed) once their stage is completed.
      * <p>
      * Once the {@code body} has been full (and successfully) executed this method looks for automated transitions to
-     * navigate.
+     * navigate. If the {@code body} is asynchronous the transitions are evaluated by the {@link #executorService}.
      * <p>
      * This method can be safely called on {@link State}s that do not define a body.
      *
      * @param state   the {@link State} to execute the body section of
      * @param context the {@link StateContext} holding the contextual information
+     * @return a {@link CompletableFuture} completed once the {@code body} and the following automated transitions
+     * have been executed
      */
-    private void executeBody(@NonNull State state, @NonNull StateContext context) {
+    private CompletableFuture<Void> executeBody(@NonNull State state, @NonNull StateContext context) {
         Consumer<StateContext> body = state.getBody();
+        CompletableFuture<Void> bodyExecution;
         if (isNull(body)) {
             Log.debug("{0}'s body section is null, skipping its execution", state.getName());
+            bodyExecution = CompletableFuture.completedFuture(null);
         } else {
-            try {
-                body.accept(context);
-            } catch (Throwable t) {
-                Log.error(t, "An error occurred when executing the body of state {0}", state.getName());
-                throw t;
-            }
+            bodyExecution = execute(body, context, TaskKind.BODY, state);
         }
+        return thenExecute(bodyExecution, () -> navigateAutomatedTransitions(state, context));
+    }
+
+    /**
+     * Navigates the automated transitions of the provided {@code state} once its body has been executed.
+     *
+     * @param state   the {@link State} that has been executed
+     * @param context the {@link StateContext} holding the contextual information
+     * @return a {@link CompletableFuture} completed once the body of the target {@link State} has been executed, or a
+     * completed {@link CompletableFuture} if there is no transition to navigate
+     */
+    private CompletableFuture<Void> navigateAutomatedTransitions(State state, StateContext context) {
         EventInstance eventInstance = context.getEventInstance();
         /*
          * Set the current event instance to null: we want to check automated transitions and context-based
@@ -123,8 +361,9 @@ public class ExecutionService {
              * TODO we need a proper refactoring for this.
              */
             context.setEventInstance(eventInstance);
-            executeBody(navigableTransition.getState(), context);
+            return executeBody(navigableTransition.getState(), context);
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -138,31 +377,88 @@ public class ExecutionService {
      *
      * @param state   the {@link State} to execute the fallback section of
      * @param context the {@link StateContext} holding the contextual information
+     * @return a {@link CompletableFuture} completed once the fallback has been executed
      * @see ExecutionModel#getDefaultFallbackState()
      */
-    private void executeFallback(@NonNull State state, @NonNull StateContext context) {
+    private CompletableFuture<Void> executeFallback(@NonNull State state, @NonNull StateContext context) {
         Consumer<StateContext> fallback = state.getFallback();
         if (isNull(fallback)) {
             /*
              * We don't change the state here, the fallback body is executed as if it was in the current state.
              */
-            this.executeBody(model.getDefaultFallbackState(), context);
+            return this.executeBody(model.getDefaultFallbackState(), context);
         } else {
-            try {
-                fallback.accept(context);
-            } catch (Throwable t) {
-                Log.error(t, "An error occurred when executing the fallback of state {0}", state.getName());
-                throw t;
+            return execute(fallback, context, TaskKind.FALLBACK, state);
+        }
+    }
+
+    /**
+     * Executes the provided {@code section} (body or fallback) of the provided {@code state}.
+     * <p>
+     * {@link Throwable}s thrown by synchronous sections are logged and rethrown to the caller. Failures of
+     * asynchronous sections are logged and complete the returned {@link CompletableFuture} exceptionally. The
+     * execution of the {@code section} is monitored by the {@link #watchdog}.
+     *
+     * @param section the section to execute
+     * @param context the {@link StateContext} holding the contextual information
+     * @param kind    the {@link TaskKind} of the section
+     * @param state   the {@link State} containing the section
+     * @return a {@link CompletableFuture} completed once the {@code section} has been executed
+     */
+    private CompletableFuture<Void> execute(Consumer<StateContext> section, StateContext context, TaskKind kind,
+                                            State state) {
+        String sectionName = kind.name().toLowerCase();
+        try {
+            if (section instanceof AsyncStateBody) {
+                CompletableFuture<?> stage = ((AsyncStateBody) section).applyAsync(context);
+                watchdog.watch(kind, state.getName(), context.getContextId(), stage);
+                return stage.handle((result, throwable) -> {
+                    if (nonNull(throwable)) {
+                        Log.error(throwable, "An error occurred when executing the {0} of state {1}", sectionName,
+                                state.getName());
+                        throw throwable instanceof CompletionException ? (CompletionException) throwable :
+                                new CompletionException(throwable);
+                    }
+                    return null;
+                });
+            }
+            try (MonitoredTask task = watchdog.start(kind, state.getName(), context.getContextId())) {
+                section.accept(context);
             }
+            return CompletableFuture.completedFuture(null);
+        } catch (Throwable t) {
+            Log.error(t, "An error occurred when executing the {0} of state {1}", sectionName, state.getName());
+            throw t;
         }
     }
 
+    /**
+     * Executes the provided {@code next} task once the provided {@code stage} is completed.
+     * <p>
+     * The {@code next} task is executed in the calling thread if the {@code stage} is already completed (this is the
+     * case for synchronous bodies), and by the {@link #executorService} otherwise. The {@code next} task is not
+     * executed if the {@code stage} completed exceptionally.
+     *
+     * @param stage the {@link CompletableFuture} to wait for
+     * @param next  the task to execute
+     * @return a {@link CompletableFuture} completed once the {@code next} task is completed
+     */
+    private CompletableFuture<Void> thenExecute(CompletableFuture<Void> stage,
+                                                Supplier<CompletableFuture<Void>> next) {
+        if (stage.isDone() && !stage.isCompletedExceptionally()) {
+            return next.get();
+        }
+        return stage.thenComposeAsync(v -> next.get(), executorService);
+    }
+
     /**
      * Evaluates the provided {@code state}'s {@link Transition}s and return the one that can be navigated.
      * <p>
-     * This method checks, for all the {@link Transition}s, whether their condition is fulfilled or not. The
-     * provided {@code context} is used as parameter of the evaluated conditions (this means that all the values
-     * stored in the {@code context} can be manipulated by the condition).
+     * This method checks, for the {@link Transition}s that can match the {@code context}'s {@link EventInstance},
+     * whether their condition is fulfilled or not. {@link Transition}s guarded by {@code intentIs} and {@code eventIs}
+     * conditions are only evaluated if they check the received event (see {@link StateTransitionIndex}), other
+     * conditions are always evaluated. The provided {@code context} is used as parameter of the evaluated conditions
+     * (this means that all the values stored in the {@code context} can be manipulated by the condition).
      * <p>
      * This method cannot return more than one {@link Transition}. Multiple navigable transitions are considered
      * design issues making the bot behavior unreliable. This method returns {@code null} if it cannot find any
@@ -176,43 +472,67 @@ public class ExecutionService {
      */
     private @Nullable
     Transition getNavigableTransitions(@NonNull State state, @NonNull StateContext context) {
+        StateTransitionIndex index = getTransitionIndex(state);
         /*
-         * Use a list to store the navigable transitions so we can print a more useful error message is more than one
-         *  is found.
+         * Count the navigable transitions so we can print a more useful error message if more than one is found.
          */
-        List<Transition> result = new ArrayList<>();
-        for (Transition t : state.getTransitions()) {
-            if(t instanceof AutoTransition) {
-                result.add(t);
-                continue;
-            } else if(t instanceof GuardedTransition) {
-                GuardedTransition guardedTransition = (GuardedTransition) t;
-                /*
-                 * Create the context with the received EventInstance. This is the instance we want to use in the
-                 * transition conditions.
-                 */
-                try {
-                    if(guardedTransition.getCondition().test(context)) {
-                        result.add(t);
-                    }
-                } catch (Throwable throwable) {
-                    Log.error(throwable, "An exception occurred when evaluating transition {0} of state {1}",
-                            state.getTransitions().indexOf(t), state.getName());
-                    continue;
-                }
-            } else {
-                throw new IllegalArgumentException(MessageFormat.format("State {0} contains an unsupported transition" +
-                        " typed {1}", state.getName(), t.getClass().getSimpleName()));
+        int navigableCount = index.getAutoTransitions().size();
+        Transition result = navigableCount > 0 ? index.getAutoTransitions().get(0) : null;
+        for (GuardedTransition t : index.getEventTransitions(context.getEventInstance())) {
+            if (evaluateCondition(state, t, context)) {
+                result = navigableCount == 0 ? t : result;
+                navigableCount++;
             }
         }
-        if (result.size() > 1) {
+        for (GuardedTransition t : index.getConditionalTransitions()) {
+            if (evaluateCondition(state, t, context)) {
+                result = navigableCount == 0 ? t : result;
+                navigableCount++;
+            }
+        }
+        if (navigableCount > 1) {
             throw new IllegalStateException(MessageFormat.format("Found several navigable transitions ({0}), cannot " +
-                    "decide which one to navigate", result.size()));
+                    "decide which one to navigate", navigableCount));
         }
-        if (result.isEmpty()) {
-            return null;
-        } else {
-            return result.get(0);
+        return result;
+    }
+
+    /**
+     * Returns the {@link StateTransitionIndex} of the provided {@code state}.
+     * <p>
+     * The {@link State}s of the {@link ExecutionModel} are indexed when the {@link ExecutionService} is created,
+     * other {@link State}s are indexed the first time they are visited.
+     *
+     * @param state the {@link State} to retrieve the index of
+     * @return the {@link StateTransitionIndex} of the provided {@code state}
+     * @throws IllegalArgumentException if the provided {@code state} contains an unsupported {@link Transition} type
+     */
+    private StateTransitionIndex getTransitionIndex(@NonNull State state) {
+        StateTransitionIndex index = transitionIndexes.get(state);
+        if (isNull(index)) {
+            index = transitionIndexes.computeIfAbsent(state, StateTransitionIndex::new);
+        }
+        return index;
+    }
+
+    /**
+     * Evaluates the condition of the provided {@code transition}.
+     * <p>
+     * Exceptions thrown by the condition are logged and the condition is considered as not fulfilled. The
+     * evaluation of the condition is monitored by the {@link #watchdog}.
+     *
+     * @param state      the {@link State} containing the {@code transition}
+     * @param transition the {@link GuardedTransition} to evaluate the condition of
+     * @param context    the {@link StateContext} holding the context information
+     * @return {@code true} if the condition is fulfilled, {@code false} otherwise
+     */
+    private boolean evaluateCondition(State state, GuardedTransition transition, StateContext context) {
+        try (MonitoredTask task = watchdog.start(TaskKind.GUARD, state.getName(), context.getContextId())) {
+            return transition.getCondition().test(context);
+        } catch (Throwable throwable) {
+            Log.error(throwable, "An exception occurred when evaluating transition {0} of state {1}",
+                    state.getTransitions().indexOf(transition), state.getName());
+            return false;
         }
     }
 
@@ -221,21 +541,30 @@ public class ExecutionService {
      * Handles the provided {@code eventInstance} and updates the underlying state machine.
      * <p>
      * This method creates an asynchronous task that looks for navigable transitions and moves the state machine to
-     * the appropriate state.
+     * the appropriate state. The task is started once the previous events of the provided {@code context} have been
+     * processed (including their asynchronous bodies).
      * <p>
-     * Exceptions thrown from the computed {@link RuntimeAction}s are logged and ignored to ensure the bot is not
-     * crashing because of an erroring action.
+     * Exceptions thrown from the computed {@link RuntimeAction}s are logged and do not stop the processing of the
+     * next events, to ensure the bot is not crashing because of an erroring action.
+     * <p>
+     * The returned {@link CompletableFuture} can be used to wait for the processing of the event (e.g. to measure
+     * the latency of the bot). It is completed exceptionally if an error occurred when processing the event, callers
+     * that are not interested in the outcome of the event can safely ignore it.
      *
      * @param eventInstance the {@link EventInstance} to handle
      * @param context       the {@link StateContext} associated to the event to handle
+     * @return a {@link CompletableFuture} completed once the event has been processed, or completed exceptionally
+     * if an error occurred when processing it
      */
-    public void handleEventInstance(@NonNull EventInstance eventInstance, @NonNull StateContext context) {
+    public CompletableFuture<Void> handleEventInstance(@NonNull EventInstance eventInstance,
+                                                       @NonNull StateContext context) {
         checkNotNull(context.getState(), "Cannot handle the %s %s, the provided %s's state hasn't been initialized",
                 EventInstance.class.getSimpleName(), eventInstance, StateContext.class.getSimpleName());
-        CompletableFuture.runAsync(() -> {
+        return enqueue(context, () -> {
             State sessionState = context.getState();
             context.setEventInstance(eventInstance);
             Transition navigableTransition = getNavigableTransitions(sessionState, context);
+            CompletableFuture<Void> reaction;
             if (isNull(navigableTransition)) {
                 /*
                  * Reset the event instance, we don't need it anymore and we don't want to corrupt future condition
@@ -243,25 +572,85 @@ public class ExecutionService {
                  */
                 // TODO check this, removed it to make sure the event is accessible (e.g. to reply)
 //                context.setEventInstance(null);
-                executeFallback(sessionState, context);
+                reaction = executeFallback(sessionState, context);
             } else {
                 context.setState(navigableTransition.getState());
-                executeBody(navigableTransition.getState(), context);
+                reaction = executeBody(navigableTransition.getState(), context);
             }
-        }, executorService).exceptionally((throwable) -> {
-            Log.error("An error occurred when running the actions associated to the event {0}. Check the logs for " +
-                    "additional information", eventInstance.getDefinition().getName());
-            /*
-             * Print the stack trace even if it may have been printed before (e.g. in executeRuntimeAction): some
-             * unexpected error may occur out of the executeRuntimeAction control flow (for example the creation of
-             * the RuntimeAction itself).
-             */
-            printStackTrace(throwable);
-            return null;
+            return reaction.thenRun(() -> recordEvent(eventInstance, context));
+        }).whenComplete((result, throwable) -> {
+            if (nonNull(throwable)) {
+                Log.error("An error occurred when running the actions associated to the event {0}. Check the logs "
+                        + "for additional information", eventInstance.getDefinition().getName());
+                /*
+                 * Print the stack trace even if it may have been printed before (e.g. in executeRuntimeAction): some
+                 * unexpected error may occur out of the executeRuntimeAction control flow (for example the creation
+                 * of the RuntimeAction itself).
+                 */
+                printStackTrace(throwable);
+            }
+        });
+    }
+
+    /**
+     * Runs the provided {@code task} once the events of the provided {@code context} have been processed.
+     * <p>
+     * The {@code task} is executed by the {@link #executorService} with exclusive access to the {@code context}:
+     * the events handled after calling this method are processed once the {@code task} is completed. This method
+     * is typically used to take a consistent snapshot of a {@link StateContext}.
+     *
+     * @param context the {@link StateContext} to run the {@code task} for
+     * @param task    the task to run
+     * @return a {@link CompletableFuture} completed once the {@code task} has been executed, or completed
+     * exceptionally if the {@code task} threw an exception
+     * @throws NullPointerException if the provided {@code context} or {@code task} is {@code null}
+     */
+    public CompletableFuture<Void> runAfterEvents(@NonNull StateContext context, @NonNull Runnable task) {
+        return enqueue(context, () -> {
+            task.run();
+            return CompletableFuture.completedFuture(null);
         });
     }
 
 
+    /**
+     * Schedules the provided {@code task} once the previous tasks of the provided {@code context} are completed.
+     * <p>
+     * The {@code task} is executed by the {@link #executorService}, even if a previous task failed.
+     *
+     * @param context the {@link StateContext} the {@code task} is scheduled for
+     * @param task    the task to schedule
+     * @return a {@link CompletableFuture} completed once the {@code task} is completed
+     */
+    private CompletableFuture<Void> enqueue(StateContext context, Supplier<CompletableFuture<Void>> task) {
+        CompletableFuture<Void> scheduledTask = contextTasks.compute(context, (c, previousTask) -> {
+            CompletableFuture<Void> start = isNull(previousTask) ? CompletableFuture.completedFuture(null) :
+                    previousTask.handle((result, throwable) -> null);
+            return start.thenComposeAsync(v -> task.get(), executorService);
+        });
+        scheduledTask.whenComplete((result, throwable) -> contextTasks.remove(context, scheduledTask));
+        return scheduledTask;
+    }
+
+    /**
+     * Records the provided {@code eventInstance} in the {@link EventJournal}.
+     * <p>
+     * This method does nothing if the journal is disabled. Errors occurring when writing the record are logged and
+     * do not interrupt the processing of the event.
+     *
+     * @param eventInstance the handled {@link EventInstance}
+     * @param context       the {@link StateContext} that handled the event
+     */
+    private void recordEvent(EventInstance eventInstance, StateContext context) {
+        if (nonNull(eventJournal)) {
+            try {
+                eventJournal.record(context, eventInstance);
+            } catch (RuntimeException e) {
+                Log.error(e, "Cannot record the event {0} in the journal", eventInstance.getDefinition().getName());
+            }
+        }
+    }
+
     /**
      * Prints the stack trace associated to the provided {@link Throwable}.
      *
@@ -275,13 +664,18 @@ public class ExecutionService {
     }
 
     /**
-     * Shuts down the underlying {@link ExecutorService}.
+     * Shuts down the underlying {@link ExecutorService}, stops the {@link ExecutionWatchdog}, and closes the
+     * {@link EventJournal}.
      * <p>
      * Shutting down the {@link ExecutionService} invalidates it and does not allow to process new
      * {@link RuntimeAction}s.
      */
     public void shutdown() {
         this.executorService.shutdownNow();
+        this.watchdog.close();
+        if (nonNull(eventJournal)) {
+            eventJournal.close();
+        }
     }
 
     /**
@@ -0,0 +1,282 @@
+package com.xatkit.core;
+
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * Runs the startup phases of a {@link XatkitBot}.
+ * <p>
+ * Startup phases are organized as a dependency graph: a phase is started once all its dependencies have been
+ * successfully executed, and independent phases are executed in parallel. Phases must be added in a topological
+ * order (i.e. the dependencies of a phase must be added before the phase itself), which ensures that the graph does
+ * not contain cycles.
+ * <p>
+ * The orchestrator records the status and the duration of each phase, and logs a summary once all the phases have
+ * been executed. If a phase fails its dependent phases are not executed, and {@link #run()} rethrows the error once
+ * the other phases are completed.
+ *
+ * @see XatkitBot#PARALLEL_STARTUP_KEY
+ */
+public class StartupOrchestrator {
+
+    /**
+     * The status of a startup phase.
+     */
+    public enum PhaseStatus {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED,
+        SKIPPED
+    }
+
+    /**
+     * The phases to execute, in insertion order.
+     */
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    /**
+     * A flag indicating whether independent phases are executed in parallel.
+     */
+    private final boolean parallel;
+
+    /**
+     * Constructs a {@link StartupOrchestrator}.
+     *
+     * @param parallel {@code true} to execute independent phases in parallel, {@code false} to execute the phases
+     *                 sequentially in their insertion order
+     */
+    public StartupOrchestrator(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Adds a phase to the orchestrator.
+     *
+     * @param name         the name of the phase
+     * @param action       the action to execute
+     * @param dependencies the names of the phases that must be executed before this one
+     * @return the current {@link StartupOrchestrator}
+     * @throws NullPointerException     if the provided {@code name}, {@code action}, or {@code dependencies} is
+     *                                  {@code null}
+     * @throws IllegalArgumentException if a phase with the same name already exists, or if one of the provided
+     *                                  {@code dependencies} does not exist
+     */
+    public StartupOrchestrator addPhase(@NonNull String name, @NonNull Runnable action,
+                                        @NonNull String... dependencies) {
+        checkArgument(!phases.containsKey(name), "Cannot add the startup phase %s, the phase already exists", name);
+        List<Phase> phaseDependencies = new ArrayList<>();
+        for (String dependency : dependencies) {
+            Phase phaseDependency = phases.get(dependency);
+            checkArgument(nonNull(phaseDependency), "Cannot add the startup phase %s, the dependency %s does not "
+                    + "exist", name, dependency);
+            phaseDependencies.add(phaseDependency);
+        }
+        phases.put(name, new Phase(name, action, phaseDependencies));
+        return this;
+    }
+
+    /**
+     * Returns whether the orchestrator contains a phase with the provided {@code name}.
+     *
+     * @param name the name of the phase to check
+     * @return {@code true} if the orchestrator contains the phase, {@code false} otherwise
+     */
+    public boolean hasPhase(@NonNull String name) {
+        return phases.containsKey(name);
+    }
+
+    /**
+     * Executes the registered phases.
+     * <p>
+     * This method blocks until all the phases are completed.
+     *
+     * @throws RuntimeException the error thrown by the first failing phase (checked exceptions are wrapped in a
+     *                          {@link XatkitException})
+     */
+    public void run() {
+        ExecutorService executorService = parallel ? Executors.newCachedThreadPool() : null;
+        long start = System.currentTimeMillis();
+        try {
+            Map<Phase, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            for (Phase phase : phases.values()) {
+                CompletableFuture<?>[] dependencies = phase.getDependencies().stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                CompletableFuture<Void> future;
+                if (parallel) {
+                    future = CompletableFuture.allOf(dependencies).thenRunAsync(phase::execute, executorService);
+                } else {
+                    /*
+                     * Phases are added in topological order, running them in the current thread in insertion
+                     * order is enough to respect their dependencies.
+                     */
+                    future = CompletableFuture.allOf(dependencies).thenRun(phase::execute);
+                }
+                futures.put(phase, future);
+            }
+            try {
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                /*
+                 * Wait for the other phases to complete, we don't want to stop the started services while some
+                 * phases are still running.
+                 */
+                futures.values().forEach(f -> f.handle((r, t) -> null).join());
+            }
+        } finally {
+            if (nonNull(executorService)) {
+                executorService.shutdown();
+            }
+        }
+        /*
+         * CompletableFuture does not execute the stages depending on a failed stage.
+         */
+        phases.values().stream()
+                .filter(phase -> phase.getStatus().equals(PhaseStatus.PENDING))
+                .forEach(Phase::skip);
+        logSummary(System.currentTimeMillis() - start);
+        for (Phase phase : phases.values()) {
+            if (phase.getStatus().equals(PhaseStatus.FAILED)) {
+                Throwable error = phase.getError();
+                if (error instanceof RuntimeException) {
+                    throw (RuntimeException) error;
+                } else if (error instanceof Error) {
+                    throw (Error) error;
+                } else {
+                    throw new XatkitException(MessageFormat.format("An error occurred during the startup phase {0}",
+                            phase.getName()), error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the status of the registered phases.
+     *
+     * @return an unmodifiable {@link Map} containing the status of each phase, in insertion order
+     */
+    public Map<String, PhaseStatus> getPhaseStatuses() {
+        Map<String, PhaseStatus> result = new LinkedHashMap<>();
+        phases.values().forEach(phase -> result.put(phase.getName(), phase.getStatus()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the duration (in milliseconds) of the completed phases.
+     *
+     * @return an unmodifiable {@link Map} containing the duration of each completed phase, in insertion order
+     */
+    public Map<String, Long> getPhaseDurations() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        phases.values().stream()
+                .filter(phase -> phase.getStatus().equals(PhaseStatus.DONE)
+                        || phase.getStatus().equals(PhaseStatus.FAILED))
+                .forEach(phase -> result.put(phase.getName(), phase.getDuration()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Logs the status and duration of each phase.
+     *
+     * @param totalDuration the total duration of the startup
+     */
+    private void logSummary(long totalDuration) {
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : phases.values()) {
+            sb.append("\n\t").append(phase.getName()).append(": ").append(phase.getStatus());
+            if (phase.getStatus().equals(PhaseStatus.DONE) || phase.getStatus().equals(PhaseStatus.FAILED)) {
+                sb.append(" (").append(phase.getDuration()).append("ms)");
+            }
+        }
+        Log.info("Startup completed in {0}ms:{1}", totalDuration, sb.toString());
+    }
+
+    /**
+     * A startup phase.
+     */
+    private static class Phase {
+
+        private final String name;
+
+        private final Runnable action;
+
+        private final List<Phase> dependencies;
+
+        private volatile PhaseStatus status = PhaseStatus.PENDING;
+
+        private volatile long duration;
+
+        @Nullable
+        private volatile Throwable error;
+
+        private Phase(String name, Runnable action, List<Phase> dependencies) {
+            this.name = name;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Executes the phase and records its status and duration.
+         */
+        private void execute() {
+            status = PhaseStatus.RUNNING;
+            Log.debug("Starting startup phase {0}", name);
+            long start = System.currentTimeMillis();
+            try {
+                action.run();
+                status = PhaseStatus.DONE;
+            } catch (Throwable t) {
+                error = t;
+                status = PhaseStatus.FAILED;
+                throw t;
+            } finally {
+                duration = System.currentTimeMillis() - start;
+                Log.debug("Startup phase {0} completed in {1}ms ({2})", name, duration, status);
+            }
+        }
+
+        /**
+         * Marks the phase as skipped because one of its dependencies failed.
+         */
+        private void skip() {
+            status = PhaseStatus.SKIPPED;
+        }
+
+        private String getName() {
+            return name;
+        }
+
+        private List<Phase> getDependencies() {
+            return dependencies;
+        }
+
+        private PhaseStatus getStatus() {
+            return status;
+        }
+
+        private long getDuration() {
+            return duration;
+        }
+
+        @Nullable
+        private Throwable getError() {
+            return error;
+        }
+    }
+}
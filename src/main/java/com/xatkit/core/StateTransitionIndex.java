@@ -0,0 +1,133 @@
+package com.xatkit.core;
+
+import com.xatkit.execution.AutoTransition;
+import com.xatkit.execution.GuardedTransition;
+import com.xatkit.execution.State;
+import com.xatkit.execution.Transition;
+import com.xatkit.execution.predicate.IsEventDefinitionPredicate;
+import com.xatkit.execution.predicate.IsIntentDefinitionPredicate;
+import com.xatkit.intent.EventInstance;
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A dispatch table of the {@link Transition}s of a {@link State}.
+ * <p>
+ * This class splits the {@link Transition}s of a {@link State} into three groups:
+ * <ul>
+ *     <li>{@link AutoTransition}s, that are always navigable</li>
+ *     <li>{@link GuardedTransition}s created with {@code intentIs} and {@code eventIs}, indexed by the name of
+ *     the event they check</li>
+ *     <li>{@link GuardedTransition}s with an arbitrary condition, that need to be evaluated for every event</li>
+ * </ul>
+ * This allows the {@link ExecutionService} to evaluate the conditions of the {@link Transition}s that can match the
+ * received {@link EventInstance} instead of evaluating all the {@link Transition}s of the {@link State}.
+ * <p>
+ * The indexed conditions are still evaluated before navigating a {@link Transition}, the index only filters out the
+ * {@link Transition}s that cannot be navigated.
+ *
+ * @see ExecutionService
+ */
+public class StateTransitionIndex {
+
+    /**
+     * The {@link State} containing the indexed {@link Transition}s.
+     */
+    @Getter
+    private final State state;
+
+    /**
+     * The {@link AutoTransition}s of the {@link State}.
+     */
+    @Getter
+    private final List<Transition> autoTransitions;
+
+    /**
+     * The {@link GuardedTransition}s checking the received event, indexed by the name of the event.
+     */
+    private final Map<String, List<GuardedTransition>> eventTransitions;
+
+    /**
+     * The {@link GuardedTransition}s with a condition that cannot be indexed.
+     */
+    @Getter
+    private final List<GuardedTransition> conditionalTransitions;
+
+    /**
+     * Creates a {@link StateTransitionIndex} for the provided {@code state}.
+     * <p>
+     * The index is computed once, and does not reflect further updates of the {@link State}'s transitions.
+     *
+     * @param state the {@link State} to index the {@link Transition}s of
+     * @throws NullPointerException     if the provided {@code state} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code state} contains an unsupported {@link Transition} type
+     */
+    public StateTransitionIndex(@NonNull State state) {
+        this.state = state;
+        List<Transition> autoTransitions = new ArrayList<>();
+        Map<String, List<GuardedTransition>> eventTransitions = new HashMap<>();
+        List<GuardedTransition> conditionalTransitions = new ArrayList<>();
+        for (Transition t : state.getTransitions()) {
+            if (t instanceof AutoTransition) {
+                autoTransitions.add(t);
+            } else if (t instanceof GuardedTransition) {
+                GuardedTransition guardedTransition = (GuardedTransition) t;
+                String eventName = getCheckedEventName(guardedTransition.getCondition());
+                if (isNull(eventName)) {
+                    conditionalTransitions.add(guardedTransition);
+                } else {
+                    eventTransitions.computeIfAbsent(eventName, k -> new ArrayList<>()).add(guardedTransition);
+                }
+            } else {
+                throw new IllegalArgumentException(MessageFormat.format("State {0} contains an unsupported transition" +
+                        " typed {1}", state.getName(), t.getClass().getSimpleName()));
+            }
+        }
+        this.autoTransitions = Collections.unmodifiableList(autoTransitions);
+        eventTransitions.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        this.eventTransitions = Collections.unmodifiableMap(eventTransitions);
+        this.conditionalTransitions = Collections.unmodifiableList(conditionalTransitions);
+    }
+
+    /**
+     * Returns the name of the event checked by the provided {@code condition}.
+     *
+     * @param condition the condition to inspect
+     * @return the name of the checked event if the {@code condition} has been created with {@code intentIs} or
+     * {@code eventIs}, {@code null} otherwise
+     */
+    private static @Nullable
+    String getCheckedEventName(@Nullable Object condition) {
+        if (condition instanceof IsIntentDefinitionPredicate) {
+            return ((IsIntentDefinitionPredicate) condition).getIntentDefinition().getName();
+        } else if (condition instanceof IsEventDefinitionPredicate) {
+            return ((IsEventDefinitionPredicate) condition).getEventDefinition().getName();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@link GuardedTransition}s checking the definition of the provided {@code eventInstance}.
+     *
+     * @param eventInstance the received {@link EventInstance}
+     * @return an unmodifiable {@link List} containing the {@link GuardedTransition}s checking the definition of the
+     * provided {@code eventInstance}, or an empty {@link List} if the {@code eventInstance} is {@code null}
+     */
+    public List<GuardedTransition> getEventTransitions(@Nullable EventInstance eventInstance) {
+        if (nonNull(eventInstance) && nonNull(eventInstance.getDefinition())) {
+            return eventTransitions.getOrDefault(eventInstance.getDefinition().getName(), Collections.emptyList());
+        }
+        return Collections.emptyList();
+    }
+}
@@ -1,12 +1,23 @@
 package com.xatkit.core;
 
+import com.google.gson.JsonObject;
+import com.xatkit.core.cluster.ClusterConfiguration;
+import com.xatkit.core.cluster.ClusterManager;
 import com.xatkit.core.platform.RuntimePlatform;
 import com.xatkit.core.platform.action.RuntimeAction;
 import com.xatkit.core.platform.io.RuntimeEventProvider;
 import com.xatkit.core.recognition.IntentRecognitionProvider;
 import com.xatkit.core.recognition.IntentRecognitionProviderException;
 import com.xatkit.core.recognition.IntentRecognitionProviderFactory;
+import com.xatkit.core.recognition.IntentRecognitionProviderFactoryConfiguration;
+import com.xatkit.core.recognition.RecognitionBackfill;
+import com.xatkit.core.recognition.RecognitionMonitorMapDB;
+import com.xatkit.core.recognition.evaluation.EvaluationRunner;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandlerException;
+import com.xatkit.core.server.RestHandlerFactory;
 import com.xatkit.core.server.XatkitServer;
+import com.xatkit.core.watchdog.ExecutionWatchdog;
 import com.xatkit.dsl.model.ExecutionModelProvider;
 import com.xatkit.execution.ExecutionModel;
 import com.xatkit.execution.StateContext;
@@ -16,18 +27,27 @@ import com.xatkit.intent.EventDefinition;
 import com.xatkit.intent.EventInstance;
 import com.xatkit.intent.IntentDefinition;
 import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationUtils;
+import org.apache.http.HttpStatus;
 
 import javax.annotation.Nullable;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
@@ -59,6 +79,49 @@ public class XatkitBot implements Runnable {
     @Deprecated
     public static String CONFIGURATION_FOLDER_PATH_KEY = "xatkit.core.configuration.path";
 
+    /**
+     * The {@link Configuration} key to specify whether independent startup phases are executed in parallel.
+     * <p>
+     * This property is optional, and is set to {@code true} by default. Setting it to {@code false} starts the bot
+     * components sequentially, which can help debugging platforms that are not thread-safe.
+     *
+     * @see StartupOrchestrator
+     */
+    public static String PARALLEL_STARTUP_KEY = "xatkit.startup.parallel";
+
+    /**
+     * The {@link Configuration} key to specify whether the EMF objects created for each message deliver
+     * notifications.
+     * <p>
+     * This property is optional, and is set to {@code true} by default. Setting it to {@code false} creates the
+     * {@link RecognizedIntent}s, {@link EventInstance}s, and their parameter values without notification delivery,
+     * which reduces the per-message overhead of their setters. Bots attaching EMF adapters to these objects should
+     * keep this property enabled.
+     *
+     * @see TransientEObjects
+     */
+    public static String EMF_NOTIFICATIONS_KEY = "xatkit.runtime.emf.notifications";
+
+    /**
+     * The URI of the REST endpoint returning the readiness of the bot.
+     * <p>
+     * This endpoint returns a JSON object containing a {@code ready} field and the status of each startup phase.
+     * The bot is ready once all its components are started and its intent recognition engine is trained. Note that
+     * the endpoint is available during the startup, and can be used to monitor long trainings: it returns a
+     * {@code 503} error containing the status of the phases until the bot is ready.
+     */
+    public static final String READINESS_ENDPOINT_URI = "/status/ready";
+
+    /**
+     * The URI of the REST endpoint returning the statistics of the {@link ExecutionWatchdog}.
+     * <p>
+     * This endpoint returns a JSON object containing the number of bodies, fallbacks, and guards that exceeded
+     * their time budget, and the histogram of their durations.
+     *
+     * @see ExecutionWatchdog#toJson()
+     */
+    public static final String WATCHDOG_ENDPOINT_URI = "/status/watchdog";
+
     /**
      * The {@link ExecutionModel} representing the bot to deploy and execute.
      */
@@ -111,6 +174,51 @@ public class XatkitBot implements Runnable {
     @Getter
     private XatkitServer xatkitServer;
 
+    /**
+     * The {@link ClusterManager} distributing the sessions between the nodes of the cluster.
+     * <p>
+     * This field is {@code null} if the clustering mode is disabled (see {@link ClusterConfiguration#ENABLED_KEY}).
+     */
+    @Getter
+    @Nullable
+    private ClusterManager clusterManager;
+
+    /**
+     * The last {@link RecognitionBackfill} started by the bot.
+     * <p>
+     * This field is {@code null} if no backfill has been started (see
+     * {@link #startRecognitionBackfill(EvaluationRunner.ContextFactory)}).
+     */
+    @Getter
+    @Nullable
+    private RecognitionBackfill recognitionBackfill;
+
+    /**
+     * The {@link StartupOrchestrator} used to start the bot.
+     * <p>
+     * This field is used to report the progress of the startup in the {@link #READINESS_ENDPOINT_URI} endpoint.
+     */
+    @Nullable
+    private StartupOrchestrator startupOrchestrator;
+
+    /**
+     * A flag indicating whether the bot is ready to process user inputs.
+     *
+     * @see #isReady()
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * The lock guarding the accesses to the {@link IntentRecognitionProvider}.
+     * <p>
+     * Intent recognitions hold the read lock, and the updates of the registered intents performed when reloading the
+     * {@link ExecutionModel} hold the write lock.
+     *
+     * @see #reloadExecutionModel(ExecutionModel)
+     */
+    @Getter
+    private final ReadWriteLock intentRecognitionLock = new ReentrantReadWriteLock();
+
     /**
      * Creates an <b>unstarted</b> {@link XatkitBot} instance.
      * <p>
@@ -149,24 +257,39 @@ public class XatkitBot implements Runnable {
      * <p>
      * This method takes care of deploying the bot (e.g. registering intents to the NLP service(s), starting the
      * accessed platforms and providers, etc) and starts the {@link ExecutionService} managing its execution.
+     * <p>
+     * The deployment is split in phases executed by a {@link StartupOrchestrator}: independent phases (e.g. starting
+     * the platforms and registering the intents) are executed in parallel. The {@link XatkitServer} is started first
+     * to expose the {@link #READINESS_ENDPOINT_URI} endpoint during the startup. This method returns once the bot is
+     * ready.
+     *
+     * @see #PARALLEL_STARTUP_KEY
+     * @see #EMF_NOTIFICATIONS_KEY
      */
     @Override
     public void run() {
         try {
             Log.info("Starting {0} with configuration:\n{1}", this.getClass().getSimpleName(),
                     ConfigurationUtils.toString(configuration));
+            TransientEObjects.setNotificationsEnabled(configuration.getBoolean(EMF_NOTIFICATIONS_KEY, true));
             this.eventDefinitionRegistry = new EventDefinitionRegistry();
+            this.stateContexts = new ConcurrentHashMap<>();
             /*
              * Start the server before creating the IntentRecognitionProvider, we need a valid XatkitServer instance
              * to register the analytics REST endpoints (this is also required to start the EventProviderDefinition).
              */
             this.xatkitServer = new XatkitServer(configuration);
-            this.intentRecognitionProvider = IntentRecognitionProviderFactory.getIntentRecognitionProvider(this,
-                    configuration);
-            this.stateContexts = new HashMap<>();
-            this.executionService = new ExecutionService(executionModel, configuration);
-            this.loadExecutionModel(executionModel);
-            xatkitServer.start();
+            this.xatkitServer.start();
+            this.registerReadinessEndpoint();
+            this.registerWatchdogEndpoint();
+            ClusterConfiguration clusterConfiguration = new ClusterConfiguration(configuration,
+                    this.xatkitServer.getBaseURL());
+            if (clusterConfiguration.isEnabled()) {
+                this.clusterManager = new ClusterManager(this, clusterConfiguration);
+            }
+            this.startupOrchestrator = this.createStartupOrchestrator(executionModel);
+            this.startupOrchestrator.run();
+            this.ready = true;
             Log.info("Xatkit bot started");
         } catch (Throwable t) {
             Log.error("An error occurred when starting the {0}, trying to close started services", this.getClass()
@@ -176,6 +299,262 @@ public class XatkitBot implements Runnable {
         }
     }
 
+    /**
+     * Creates the {@link StartupOrchestrator} deploying the provided {@code executionModel}.
+     * <p>
+     * The created orchestrator defines the following phases:
+     * <ul>
+     *     <li>{@code execution-service}: consolidates the {@code executionModel} and creates the
+     *     {@link ExecutionService}</li>
+     *     <li>{@code intent-provider}: creates the {@link IntentRecognitionProvider}</li>
+     *     <li>{@code platform <name>}: starts a {@link RuntimePlatform} (one phase per platform) once the
+     *     {@link ExecutionService} and the {@link IntentRecognitionProvider} are created</li>
+     *     <li>{@code provider <name>}: starts a {@link RuntimeEventProvider} (one phase per provider) once the
+     *     {@link ExecutionService}, the {@link IntentRecognitionProvider}, and its platform are started</li>
+     *     <li>{@code event-registration}: registers the events and intents used in the bot (the
+     *     {@link EventDefinitionRegistry} is concurrent, this phase can run in parallel with the platform phases)</li>
+     *     <li>{@code training}: trains the {@link IntentRecognitionProvider}</li>
+     * </ul>
+     * Intents are registered sequentially: {@link IntentRecognitionProvider}s are not thread-safe, and entities
+     * must be registered before the intents that reference them.
+     *
+     * @param executionModel the {@link ExecutionModel} to deploy
+     * @return the created {@link StartupOrchestrator}
+     */
+    private StartupOrchestrator createStartupOrchestrator(ExecutionModel executionModel) {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(configuration.getBoolean(PARALLEL_STARTUP_KEY,
+                true));
+        orchestrator.addPhase("execution-service", () -> {
+            executionModel.consolidate();
+            if (executionModel.getUsedEvents().isEmpty()) {
+                throw new IllegalStateException(MessageFormat.format("The provided bot does not listen to any {0}",
+                        RuntimeEventProvider.class.getSimpleName()));
+            }
+            this.executionService = new ExecutionService(executionModel, configuration);
+        });
+        orchestrator.addPhase("intent-provider", () -> this.intentRecognitionProvider =
+                IntentRecognitionProviderFactory.getIntentRecognitionProvider(this, configuration));
+        Map<RuntimePlatform, String> platformPhases = new HashMap<>();
+        for (Object object : executionModel.getUsedPlatforms()) {
+            /*
+             * TODO this cast shouldn't exist: we need to fix the metamodel.
+             */
+            RuntimePlatform platform = (RuntimePlatform) object;
+            String phaseName = uniquePhaseName(orchestrator, "platform " + platform.getName());
+            /*
+             * Platforms can deliver events as soon as they are started (e.g. webhooks registered in the
+             * XatkitServer), the IntentRecognitionProvider must be created to handle them.
+             */
+            orchestrator.addPhase(phaseName, () -> platform.start(this, configuration), "execution-service",
+                    "intent-provider");
+            platformPhases.put(platform, phaseName);
+        }
+        for (Object object : executionModel.getUsedProviders()) {
+            /*
+             * TODO this cast shouldn't exist: we need to fix the metamodel.
+             */
+            RuntimeEventProvider<?> eventProvider = (RuntimeEventProvider<?>) object;
+            List<String> dependencies = new ArrayList<>();
+            /*
+             * Event providers can receive user inputs as soon as they are started, they need the
+             * ExecutionService to handle the events and the IntentRecognitionProvider to create the user contexts.
+             */
+            dependencies.add("execution-service");
+            dependencies.add("intent-provider");
+            String platformPhase = platformPhases.get(eventProvider.getRuntimePlatform());
+            if (nonNull(platformPhase)) {
+                dependencies.add(platformPhase);
+            } else {
+                dependencies.addAll(platformPhases.values());
+            }
+            orchestrator.addPhase(uniquePhaseName(orchestrator, "provider " + eventProvider.getClass()
+                            .getSimpleName()), () -> eventProvider.start(this.configuration),
+                    dependencies.toArray(new String[0]));
+        }
+        AtomicBoolean intentRegistered = new AtomicBoolean(false);
+        orchestrator.addPhase("event-registration", () -> {
+            Log.info("Registering execution rule events");
+            for (EventDefinition e : executionModel.getAllAccessedEvents()) {
+                if (this.registerEventDefinition(e)) {
+                    intentRegistered.set(true);
+                }
+            }
+        }, "execution-service", "intent-provider");
+        orchestrator.addPhase("training", () -> {
+            if (intentRegistered.get()) {
+                /*
+                 * New intents have been registered in the IntentRecognitionProvider, we should explicitly ask the
+                 * ML Engine to train in order to take them into account.
+                 */
+                try {
+                    intentRecognitionProvider.trainMLEngine();
+                } catch (IntentRecognitionProviderException e) {
+                    Log.error("Cannot train the ML engine, see attached exception", e);
+                }
+            }
+        }, "event-registration");
+        return orchestrator;
+    }
+
+    /**
+     * Replaces the {@link ExecutionModel} of the running bot with the provided {@code newModel}.
+     * <p>
+     * Only the differences between the deployed model and the {@code newModel} are applied to the
+     * {@link IntentRecognitionProvider}. The deployed model keeps handling the received events until the provider
+     * has been trained, then the live contexts are moved to the {@link com.xatkit.execution.State}s of the {@code
+     * newModel} with the same name. See {@link ExecutionModelReloader} for more information.
+     *
+     * @param newModel the {@link ExecutionModel} to deploy
+     * @return the {@link ExecutionModelDiff} applied to the {@link IntentRecognitionProvider}
+     * @throws NullPointerException     if the provided {@code newModel} is {@code null}
+     * @throws IllegalStateException    if the bot is not ready
+     * @throws IllegalArgumentException if the {@code newModel} is not valid or uses platforms that are not started
+     * @throws XatkitException          if an error occurred when updating the {@link IntentRecognitionProvider}
+     * @see ExecutionModelWatcher
+     */
+    public synchronized ExecutionModelDiff reloadExecutionModel(@NonNull ExecutionModel newModel) {
+        checkState(this.ready, "Cannot reload the model of the bot: the bot is not ready");
+        ExecutionModelDiff diff = new ExecutionModelReloader(this).reload(newModel);
+        this.executionModel = newModel;
+        return diff;
+    }
+
+    /**
+     * Replaces the {@link ExecutionModel} of the running bot with the model of the provided {@code
+     * executionModelProvider}.
+     *
+     * @param executionModelProvider the provider containing the model to deploy
+     * @return the {@link ExecutionModelDiff} applied to the {@link IntentRecognitionProvider}
+     * @throws NullPointerException if the provided {@code executionModelProvider} is {@code null}
+     * @see #reloadExecutionModel(ExecutionModel)
+     */
+    public ExecutionModelDiff reloadExecutionModel(@NonNull ExecutionModelProvider executionModelProvider) {
+        return this.reloadExecutionModel(executionModelProvider.getExecutionModel());
+    }
+
+    /**
+     * Starts a {@link RecognitionBackfill} re-recognizing the stored unmatched inputs with the
+     * {@link IntentRecognitionProvider} of the bot.
+     * <p>
+     * This method is typically called once the provider has been retrained (e.g. after
+     * {@link #reloadExecutionModel(ExecutionModel)}). The settings of the backfill are read from the configuration
+     * of the bot (see {@link RecognitionBackfill#CONCURRENCY_KEY}, {@link RecognitionBackfill#MAX_RATE_KEY}, and
+     * {@link RecognitionBackfill#PAGE_SIZE_KEY}). The running backfill is stopped when the bot is shut down.
+     *
+     * @param contextFactory the {@link EvaluationRunner.ContextFactory} creating the contexts used to re-recognize
+     *                       the inputs
+     * @return the started {@link RecognitionBackfill}
+     * @throws NullPointerException  if the provided {@code contextFactory} is {@code null}
+     * @throws IllegalStateException if the bot is not ready or if a backfill is already running
+     * @throws XatkitException       if the recognitions of the bot are not stored in a {@link RecognitionMonitorMapDB}
+     */
+    public synchronized RecognitionBackfill startRecognitionBackfill(
+            @NonNull EvaluationRunner.ContextFactory contextFactory) {
+        checkState(this.ready, "Cannot start the backfill: the bot is not ready");
+        checkState(isNull(this.recognitionBackfill) || !this.recognitionBackfill.isRunning(), "Cannot start the "
+                + "backfill: a backfill is already running");
+        RecognitionMonitorMapDB monitor =
+                RecognitionBackfill.findMonitor(this.intentRecognitionProvider.getRecognitionMonitor());
+        if (isNull(monitor)) {
+            throw new XatkitException(MessageFormat.format("Cannot start the backfill: the recognitions are not "
+                            + "stored in a {0} (see {1})", RecognitionMonitorMapDB.class.getSimpleName(),
+                    IntentRecognitionProviderFactoryConfiguration.RECOGNITION_MONITOR_SINKS_KEY));
+        }
+        if (nonNull(this.recognitionBackfill)) {
+            /*
+             * Release the thread of the previous backfill.
+             */
+            this.recognitionBackfill.stop();
+        }
+        this.recognitionBackfill = new RecognitionBackfill(monitor, this.intentRecognitionProvider, contextFactory,
+                configuration);
+        this.recognitionBackfill.start();
+        return this.recognitionBackfill;
+    }
+
+    /**
+     * Returns a phase name based on the provided {@code baseName} that is not used in the provided {@code
+     * orchestrator}.
+     *
+     * @param orchestrator the {@link StartupOrchestrator} to check
+     * @param baseName     the name of the phase
+     * @return the provided {@code baseName} if it is not used, or {@code baseName} with a numeric suffix otherwise
+     */
+    private static String uniquePhaseName(StartupOrchestrator orchestrator, String baseName) {
+        String name = baseName;
+        int suffix = 1;
+        while (orchestrator.hasPhase(name)) {
+            name = baseName + " #" + (++suffix);
+        }
+        return name;
+    }
+
+    /**
+     * Registers the {@link #READINESS_ENDPOINT_URI} endpoint.
+     * <p>
+     * The endpoint returns a {@code 503} error until the bot is ready, allowing load balancers and orchestrators to
+     * route traffic to the bot once it can handle it.
+     *
+     * @see #isReady()
+     */
+    private void registerReadinessEndpoint() {
+        this.xatkitServer.registerRestEndpoint(HttpMethod.GET, READINESS_ENDPOINT_URI,
+                RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) -> {
+                    boolean isReady = this.ready;
+                    JsonObject readinessObject = new JsonObject();
+                    readinessObject.addProperty("ready", isReady);
+                    StartupOrchestrator orchestrator = this.startupOrchestrator;
+                    if (nonNull(orchestrator)) {
+                        JsonObject phasesObject = new JsonObject();
+                        Map<String, Long> durations = orchestrator.getPhaseDurations();
+                        orchestrator.getPhaseStatuses().forEach((name, status) -> {
+                            JsonObject phaseObject = new JsonObject();
+                            phaseObject.addProperty("status", status.name());
+                            if (durations.containsKey(name)) {
+                                phaseObject.addProperty("duration", durations.get(name));
+                            }
+                            phasesObject.add(name, phaseObject);
+                        });
+                        readinessObject.add("phases", phasesObject);
+                    }
+                    if (!isReady) {
+                        throw new RestHandlerException(HttpStatus.SC_SERVICE_UNAVAILABLE, "The bot is not ready: "
+                                + readinessObject);
+                    }
+                    return readinessObject;
+                }));
+    }
+
+    /**
+     * Registers the {@link #WATCHDOG_ENDPOINT_URI} endpoint.
+     * <p>
+     * The endpoint returns a {@code 503} error until the {@link ExecutionService} is started.
+     */
+    private void registerWatchdogEndpoint() {
+        this.xatkitServer.registerRestEndpoint(HttpMethod.GET, WATCHDOG_ENDPOINT_URI,
+                RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) -> {
+                    ExecutionService service = this.executionService;
+                    if (isNull(service)) {
+                        throw new RestHandlerException(HttpStatus.SC_SERVICE_UNAVAILABLE, "The execution service is "
+                                + "not started");
+                    }
+                    return service.getWatchdog().toJson();
+                }));
+    }
+
+    /**
+     * Returns whether the bot is ready to process user inputs.
+     * <p>
+     * A bot is ready once all its startup phases have been executed, including the training of its
+     * {@link IntentRecognitionProvider}.
+     *
+     * @return {@code true} if the bot is ready, {@code false} otherwise
+     * @see #READINESS_ENDPOINT_URI
+     */
+    public boolean isReady() {
+        return this.ready;
+    }
+
     /**
      * Adapts the provided {@code baseConfiguration} with additional runtime properties.
      * <p>
@@ -206,72 +585,6 @@ public class XatkitBot implements Runnable {
         return baseConfiguration;
     }
 
-    /**
-     * Registers the events used in the provided {@code executionModel} and start the associated platforms/providers.
-     *
-     * @param executionModel the {@link ExecutionModel} to load
-     * @see #startPlatforms(ExecutionModel)
-     * @see #startEventProviders(ExecutionModel)
-     * @see #registerEventDefinition(EventDefinition)
-     */
-    private void loadExecutionModel(ExecutionModel executionModel) {
-        boolean intentRegistered = false;
-        executionModel.consolidate();
-        this.startPlatforms(executionModel);
-        this.startEventProviders(executionModel);
-        Log.info("Registering execution rule events");
-
-        Iterable<EventDefinition> accessedEvents = executionModel.getAllAccessedEvents();
-        for (EventDefinition e : accessedEvents) {
-            intentRegistered |= this.registerEventDefinition(e);
-        }
-        if (intentRegistered) {
-            /*
-             * New intents have been registered in the IntentRecognitionProvider, we should explicitly ask the
-             * ML Engine to train in order to take them into account.
-             */
-            try {
-                intentRecognitionProvider.trainMLEngine();
-            } catch (IntentRecognitionProviderException e) {
-                Log.error("Cannot train the ML engine, see attached exception", e);
-            }
-        }
-    }
-
-    /**
-     * Starts the {@link RuntimePlatform}s used in the provided {@code executionModel}.
-     *
-     * @param executionModel the {@link ExecutionModel} to start the {@link RuntimePlatform}s from
-     */
-    private void startPlatforms(ExecutionModel executionModel) {
-        for (Object object : executionModel.getUsedPlatforms()) {
-            /*
-             * TODO this cast shouldn't exist: we need to fix the metamodel.
-             */
-            RuntimePlatform platform = (RuntimePlatform) object;
-            platform.start(this, configuration);
-        }
-    }
-
-    /**
-     * Starts the {@link RuntimeEventProvider}s used in the provided {@code executionModel}.
-     *
-     * @param executionModel the {@link ExecutionModel} to start the {@link RuntimeEventProvider}s from
-     */
-    private void startEventProviders(ExecutionModel executionModel) {
-        if(executionModel.getUsedEvents().isEmpty()) {
-            throw new IllegalStateException(MessageFormat.format("The provided bot does not listen to any {0}",
-                    RuntimeEventProvider.class.getSimpleName()));
-        }
-        for (Object object : executionModel.getUsedProviders()) {
-            /*
-             * TODO this cast shouldn't exist: we need to fix the metamodel.
-             */
-            RuntimeEventProvider<?> eventProvider = (RuntimeEventProvider<?>) object;
-            eventProvider.start(this.configuration);
-        }
-    }
-
     /**
      * Registers the provided {@link EventDefinition}.
      * <p>
@@ -330,6 +643,7 @@ public class XatkitBot implements Runnable {
         if (isShutdown()) {
             throw new XatkitException("Cannot perform shutdown, XatkitBot is already shutdown");
         }
+        this.ready = false;
         /* Shutdown the ExecutionService first in case there are running tasks using the IntentRecognitionProvider
          * API.
          */
@@ -369,6 +683,15 @@ public class XatkitBot implements Runnable {
                 Log.error("An error occurred when closing the {0}", this.executionService.getClass().getSimpleName());
             }
         }
+        if (nonNull(this.clusterManager)) {
+            this.clusterManager.close();
+        }
+        if (nonNull(this.recognitionBackfill)) {
+            /*
+             * Stop the backfill before the provider and its monitor are shut down.
+             */
+            this.recognitionBackfill.stop();
+        }
         if (nonNull(this.xatkitServer)) {
             try {
                 this.xatkitServer.stop();
@@ -404,7 +727,13 @@ public class XatkitBot implements Runnable {
      * Retrieves or creates the {@link StateContext} associated to the provided {@code contextId}.
      * <p>
      * If the {@link StateContext} does not exist a new one is created using
-     * {@link IntentRecognitionProvider#createContext(String)}.
+     * {@link IntentRecognitionProvider#createContext(String)}. The created {@link StateContext} is restored from the
+     * {@link com.xatkit.core.journal.EventJournal} if it has been recorded before a restart of the bot (see
+     * {@link ExecutionService#restoreContext(StateContext)}).
+     * <p>
+     * If the clustering mode is enabled and the {@code contextId} is owned by another node this method returns a
+     * transient {@link StateContext} that is neither stored nor initialized. The recognition and the events of
+     * this context are forwarded to its owner (see {@link ClusterManager}).
      *
      * @param contextId the identifier of the context to get
      * @return the {@link StateContext} associated to the provided {@code contextId}
@@ -419,11 +748,17 @@ public class XatkitBot implements Runnable {
                 throw new XatkitException(MessageFormat.format("Cannot create session {0}, see attached exception",
                         contextId), e);
             }
+            if (nonNull(clusterManager) && !clusterManager.isLocal(contextId)) {
+                return context;
+            }
             stateContexts.put(contextId, context);
             /*
-             * The executor service takes care of configuring the new session and setting the init state.
+             * Resume the session if it has been recorded in the event journal before a restart, otherwise the
+             * executor service takes care of configuring the new session and setting the init state.
              */
-            executionService.initContext(context);
+            if (!executionService.restoreContext(context)) {
+                executionService.initContext(context);
+            }
         }
         return context;
     }
@@ -440,6 +775,33 @@ public class XatkitBot implements Runnable {
         return stateContexts.get(contextId);
     }
 
+    /**
+     * Registers the provided {@code context}.
+     * <p>
+     * This method is used to import sessions created on another node of the cluster. The provided {@code context}
+     * replaces the existing {@link StateContext} with the same identifier (if it exists).
+     *
+     * @param context the {@link StateContext} to register
+     * @throws NullPointerException if the provided {@code context} is {@code null}
+     * @see ClusterManager
+     */
+    public void registerContext(@NonNull StateContext context) {
+        stateContexts.put(context.getContextId(), context);
+    }
+
+    /**
+     * Removes the {@link StateContext} associated to the provided {@code contextId}.
+     *
+     * @param contextId the identifier of the context to remove
+     * @return the removed {@link StateContext}, or {@code null} if it does not exist
+     * @throws NullPointerException if the provided {@code contextId} is {@code null}
+     * @see ClusterManager
+     */
+    public @Nullable
+    StateContext removeContext(@NonNull String contextId) {
+        return stateContexts.remove(contextId);
+    }
+
     public Iterable<StateContext> getContexts() {
         return stateContexts.values();
     }
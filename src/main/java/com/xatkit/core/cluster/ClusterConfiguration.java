@@ -0,0 +1,177 @@
+package com.xatkit.core.cluster;
+
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+import org.apache.commons.configuration2.Configuration;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Contains the configuration of the {@link ClusterManager}.
+ * <p>
+ * This class can be initialized with a {@link Configuration} instance, and takes care of extracting the
+ * cluster-related properties.
+ * <p>
+ * The base {@link Configuration} used to initialize this class can be accessed through {@link #getBaseConfiguration()}.
+ */
+@Value
+public class ClusterConfiguration {
+
+    /**
+     * The {@link Configuration} key to enable the clustering mode.
+     * <p>
+     * This property is set to {@code false} by default.
+     */
+    public static final String ENABLED_KEY = "xatkit.cluster.enabled";
+
+    /**
+     * The {@link Configuration} key to store the base URLs of the nodes of the cluster.
+     * <p>
+     * This property is a list of base URLs (e.g. {@code http://localhost:5000,http://localhost:5001}). It must
+     * contain the URL of the local node, and must be identical for all the nodes of the cluster.
+     */
+    public static final String NODES_KEY = "xatkit.cluster.nodes";
+
+    /**
+     * The {@link Configuration} key to store the base URL of the local node.
+     * <p>
+     * This property is set to the base URL of the {@link com.xatkit.core.server.XatkitServer} by default.
+     */
+    public static final String LOCAL_NODE_KEY = "xatkit.cluster.node";
+
+    /**
+     * The {@link Configuration} key to store the number of virtual nodes of each node on the hashing ring.
+     * <p>
+     * This property is set to {@link #DEFAULT_VIRTUAL_NODES} by default.
+     */
+    public static final String VIRTUAL_NODES_KEY = "xatkit.cluster.virtual_nodes";
+
+    /**
+     * The default number of virtual nodes of each node on the hashing ring.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    /**
+     * The {@link Configuration} key to store the timeout (in milliseconds) of the requests sent to the other nodes.
+     * <p>
+     * This property is set to {@link #DEFAULT_REQUEST_TIMEOUT} by default.
+     */
+    public static final String REQUEST_TIMEOUT_KEY = "xatkit.cluster.timeout";
+
+    /**
+     * The default timeout (in milliseconds) of the requests sent to the other nodes.
+     */
+    public static final long DEFAULT_REQUEST_TIMEOUT = 5000;
+
+    /**
+     * The {@link Configuration} key to store the secret token shared by the nodes of the cluster.
+     * <p>
+     * This property is required if the clustering mode is enabled, and must be identical for all the nodes of the
+     * cluster. The cluster endpoints reject the requests that do not contain this token in their
+     * {@link ClusterManager#TOKEN_HEADER} header.
+     */
+    public static final String TOKEN_KEY = "xatkit.cluster.token";
+
+    /**
+     * The base {@link Configuration} used to initialize the {@link ClusterConfiguration}.
+     */
+    private Configuration baseConfiguration;
+
+    /**
+     * A flag indicating whether the clustering mode is enabled.
+     *
+     * @see #ENABLED_KEY
+     */
+    private boolean enabled;
+
+    /**
+     * The base URLs of the nodes of the cluster.
+     *
+     * @see #NODES_KEY
+     */
+    private List<String> nodes;
+
+    /**
+     * The base URL of the local node.
+     *
+     * @see #LOCAL_NODE_KEY
+     */
+    private String localNode;
+
+    /**
+     * The number of virtual nodes of each node on the hashing ring.
+     *
+     * @see #VIRTUAL_NODES_KEY
+     */
+    private int virtualNodes;
+
+    /**
+     * The timeout (in milliseconds) of the requests sent to the other nodes.
+     *
+     * @see #REQUEST_TIMEOUT_KEY
+     */
+    private long requestTimeout;
+
+    /**
+     * The secret token shared by the nodes of the cluster.
+     *
+     * @see #TOKEN_KEY
+     */
+    @ToString.Exclude
+    private String token;
+
+    /**
+     * Initializes the {@link ClusterConfiguration} with the provided {@code baseConfiguration}.
+     *
+     * @param baseConfiguration the {@link Configuration} to load the values from
+     * @param defaultLocalNode  the base URL of the local node if {@link #LOCAL_NODE_KEY} is not set
+     * @throws NullPointerException     if the provided {@code baseConfiguration} or {@code defaultLocalNode} is
+     *                                  {@code null}
+     * @throws IllegalArgumentException if the clustering mode is enabled and the configured nodes do not contain the
+     *                                  local node, or if the cluster token is not set
+     */
+    public ClusterConfiguration(@NonNull Configuration baseConfiguration, @NonNull String defaultLocalNode) {
+        this.baseConfiguration = baseConfiguration;
+        this.enabled = baseConfiguration.getBoolean(ENABLED_KEY, false);
+        this.nodes = Collections.unmodifiableList(baseConfiguration.getList(String.class, NODES_KEY,
+                Collections.emptyList()).stream()
+                .map(ClusterConfiguration::normalizeNode)
+                .distinct()
+                .collect(Collectors.toList()));
+        this.localNode = normalizeNode(baseConfiguration.getString(LOCAL_NODE_KEY, defaultLocalNode));
+        this.virtualNodes = baseConfiguration.getInt(VIRTUAL_NODES_KEY, DEFAULT_VIRTUAL_NODES);
+        this.requestTimeout = baseConfiguration.getLong(REQUEST_TIMEOUT_KEY, DEFAULT_REQUEST_TIMEOUT);
+        this.token = baseConfiguration.getString(TOKEN_KEY, "");
+        if (enabled) {
+            checkArgument(nodes.contains(localNode), "Invalid cluster configuration: the nodes %s (%s) do not "
+                    + "contain the local node %s (%s)", nodes, NODES_KEY, localNode, LOCAL_NODE_KEY);
+            checkArgument(virtualNodes > 0, "Invalid value for %s: expected a positive value, found %s",
+                    VIRTUAL_NODES_KEY, virtualNodes);
+            checkArgument(requestTimeout > 0, "Invalid value for %s: expected a positive value, found %s",
+                    REQUEST_TIMEOUT_KEY, requestTimeout);
+            checkArgument(!token.isEmpty(), "Invalid cluster configuration: %s is required to authenticate the "
+                    + "requests between the nodes", TOKEN_KEY);
+        }
+    }
+
+    /**
+     * Normalizes the provided {@code node} URL.
+     * <p>
+     * This method removes the trailing {@code /} of the URL, in order to compare URLs written with and without it.
+     *
+     * @param node the URL to normalize
+     * @return the normalized URL
+     */
+    static String normalizeNode(String node) {
+        String normalized = node.trim();
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,658 @@
+package com.xatkit.core.cluster;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.XatkitException;
+import com.xatkit.core.platform.io.IntentRecognitionHelper;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandlerException;
+import com.xatkit.core.server.RestHandlerFactory;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.State;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.RecognizedIntent;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Distributes the sessions of a bot between the nodes of a cluster.
+ * <p>
+ * The nodes of a cluster run the same bot, and share the same list of nodes (see
+ * {@link ClusterConfiguration#NODES_KEY}). Each {@link StateContext} is owned by a single node, computed from its
+ * identifier with a {@link ConsistentHashRing}. The owner of a context is the only node storing its
+ * {@link StateContext}: a node receiving an input for a context it does not own forwards the recognition and the
+ * resulting {@link EventInstance} to the owner using the following {@link XatkitServer} endpoints:
+ * <ul>
+ *     <li>{@link #RECOGNIZE_ENDPOINT_URI}: computes the {@link RecognizedIntent} of an input with the owner's
+ *     context</li>
+ *     <li>{@link #EVENTS_ENDPOINT_URI}: handles an {@link EventInstance} with the owner's context</li>
+ *     <li>{@link #SESSIONS_ENDPOINT_URI}: imports a session handed off by another node</li>
+ *     <li>{@link #MEMBERSHIP_ENDPOINT_URI}: updates the nodes of the cluster and rebalances the sessions</li>
+ * </ul>
+ * The cluster endpoints only accept the requests containing the cluster token (see
+ * {@link ClusterConfiguration#TOKEN_KEY}) in their {@link #TOKEN_HEADER} header.
+ * <p>
+ * Updating the membership of a node hands off the local sessions it does not own anymore to their new owner. The
+ * membership must be updated on all the nodes of the cluster.
+ * <p>
+ * <b>Note</b>: the actions of a session are executed on its owner. Platforms replying to the user through a
+ * connection opened on the receiving node (e.g. a socket) require a load balancer with sticky sessions. Broadcast
+ * events are only handled by the local sessions of the node receiving them. Handed off sessions only keep their
+ * {@link String}, {@link Number}, and {@link Boolean} values.
+ */
+public class ClusterManager {
+
+    /**
+     * The URI of the endpoint computing the {@link RecognizedIntent} of an input forwarded by another node.
+     */
+    public static final String RECOGNIZE_ENDPOINT_URI = "/cluster/recognize";
+
+    /**
+     * The URI of the endpoint handling an {@link EventInstance} forwarded by another node.
+     */
+    public static final String EVENTS_ENDPOINT_URI = "/cluster/events";
+
+    /**
+     * The URI of the endpoint importing a session handed off by another node.
+     */
+    public static final String SESSIONS_ENDPOINT_URI = "/cluster/sessions";
+
+    /**
+     * The URI of the endpoint updating the nodes of the cluster.
+     */
+    public static final String MEMBERSHIP_ENDPOINT_URI = "/cluster/membership";
+
+    /**
+     * The HTTP header containing the cluster token.
+     *
+     * @see ClusterConfiguration#TOKEN_KEY
+     */
+    public static final String TOKEN_HEADER = "X-Xatkit-Cluster-Token";
+
+    /**
+     * The {@link XatkitBot} managed by this class.
+     */
+    private final XatkitBot xatkitBot;
+
+    /**
+     * The {@link ClusterConfiguration} used to initialize this class.
+     */
+    @Getter
+    private final ClusterConfiguration configuration;
+
+    /**
+     * The {@link ConsistentHashRing} mapping context identifiers to nodes.
+     * <p>
+     * The ring is replaced when the membership is updated, and is never modified once published.
+     */
+    private volatile ConsistentHashRing ring;
+
+    /**
+     * The new owner of the sessions handed off during a membership update.
+     * <p>
+     * The {@link #ring} is replaced once all the sessions have been handed off. This {@link Map} routes the requests
+     * of the sessions that have already been handed off to their new owner until the new ring is published.
+     *
+     * @see #updateMembership(List)
+     */
+    private final Map<String, String> handedOffContexts = new ConcurrentHashMap<>();
+
+    /**
+     * The session values of the transient {@link StateContext}s sent with their last forwarded event.
+     * <p>
+     * Transient contexts can be reused by the platforms of the receiving node, and contain stale copies of the
+     * values set by the owner. This {@link Map} is used to only forward the values that changed on the receiving
+     * node (see {@link #forwardEvent(EventInstance, StateContext)}). The contexts are weakly referenced and removed
+     * once the platforms release them.
+     */
+    private final Map<StateContext, JsonObject> forwardedSessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The HTTP client used to send requests to the other nodes.
+     */
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * Creates a {@link ClusterManager} for the provided {@code xatkitBot} and registers the cluster endpoints.
+     * <p>
+     * The provided {@code xatkitBot} must have started its {@link XatkitServer}.
+     *
+     * @param xatkitBot     the {@link XatkitBot} to distribute the sessions of
+     * @param configuration the {@link ClusterConfiguration} containing the nodes of the cluster
+     * @throws NullPointerException if the provided {@code xatkitBot} or {@code configuration} is {@code null}
+     */
+    public ClusterManager(@NonNull XatkitBot xatkitBot, @NonNull ClusterConfiguration configuration) {
+        this.xatkitBot = xatkitBot;
+        this.configuration = configuration;
+        this.ring = new ConsistentHashRing(configuration.getNodes(), configuration.getVirtualNodes());
+        int timeout = (int) Math.min(Integer.MAX_VALUE, configuration.getRequestTimeout());
+        this.httpClient = HttpClients.custom()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setConnectionRequestTimeout(timeout)
+                        .setSocketTimeout(timeout)
+                        .build())
+                .build();
+        this.registerEndpoints(xatkitBot.getXatkitServer());
+        Log.info("Cluster mode enabled, local node {0} (nodes: {1})", configuration.getLocalNode(),
+                configuration.getNodes());
+    }
+
+    /**
+     * Returns the node owning the provided {@code contextId}.
+     *
+     * @param contextId the identifier of the context
+     * @return the base URL of the node owning the context
+     * @throws NullPointerException if the provided {@code contextId} is {@code null}
+     */
+    public String getOwner(@NonNull String contextId) {
+        String newOwner = handedOffContexts.get(contextId);
+        return isNull(newOwner) ? ring.getOwner(contextId) : newOwner;
+    }
+
+    /**
+     * Returns whether the provided {@code contextId} is owned by the local node.
+     *
+     * @param contextId the identifier of the context
+     * @return {@code true} if the context is owned by the local node, {@code false} otherwise
+     * @throws NullPointerException if the provided {@code contextId} is {@code null}
+     */
+    public boolean isLocal(@NonNull String contextId) {
+        return configuration.getLocalNode().equals(getOwner(contextId));
+    }
+
+    /**
+     * Returns the nodes of the cluster.
+     *
+     * @return the base URLs of the nodes of the cluster
+     */
+    public List<String> getNodes() {
+        return new ArrayList<>(ring.getNodes());
+    }
+
+    /**
+     * Computes the {@link RecognizedIntent} of the provided {@code input} on the owner of the provided {@code
+     * contextId}.
+     * <p>
+     * The recognition is performed with the owner's {@link StateContext}, which contains the current state of the
+     * session.
+     *
+     * @param contextId the identifier of the context
+     * @param input     the user input to recognize
+     * @return the {@link RecognizedIntent} computed by the owner
+     * @throws NullPointerException               if the provided {@code contextId} or {@code input} is {@code null}
+     * @throws IntentRecognitionProviderException if the owner cannot be reached or fails to recognize the input
+     */
+    public RecognizedIntent recognize(@NonNull String contextId, @NonNull String input)
+            throws IntentRecognitionProviderException {
+        String owner = getOwner(contextId);
+        JsonObject request = new JsonObject();
+        request.addProperty("contextId", contextId);
+        request.addProperty("input", input);
+        try {
+            JsonElement response = post(owner, RECOGNIZE_ENDPOINT_URI, request);
+            return (RecognizedIntent) EventInstanceCodec.decode(response.getAsJsonObject(),
+                    xatkitBot.getEventDefinitionRegistry());
+        } catch (IOException | RuntimeException e) {
+            throw new IntentRecognitionProviderException(MessageFormat.format("Cannot recognize the input of "
+                    + "context {0} on node {1}, see attached exception", contextId, owner), e);
+        }
+    }
+
+    /**
+     * Forwards the provided {@code eventInstance} to the owner of the provided {@code context}.
+     * <p>
+     * The values of the provided {@code context}'s session that changed since its last forwarded event are merged
+     * in the owner's session before handling the event. This allows platforms to set session values on the
+     * receiving node without overwriting the values set by the owner.
+     * <p>
+     * This method returns once the owner has processed the event.
+     *
+     * @param eventInstance the {@link EventInstance} to forward
+     * @param context       the {@link StateContext} the event has been received for
+     * @throws NullPointerException if the provided {@code eventInstance} or {@code context} is {@code null}
+     * @throws XatkitException      if the owner cannot be reached, rejects the event, or fails to process it
+     */
+    public void forwardEvent(@NonNull EventInstance eventInstance, @NonNull StateContext context) {
+        String owner = getOwner(context.getContextId());
+        JsonObject session = encodeSession(context.getSession());
+        JsonObject request = new JsonObject();
+        request.addProperty("contextId", context.getContextId());
+        request.add("event", EventInstanceCodec.encode(eventInstance));
+        request.add("session", changedValues(session, forwardedSessions.get(context)));
+        try {
+            post(owner, EVENTS_ENDPOINT_URI, request);
+            forwardedSessions.put(context, session);
+        } catch (IOException | RuntimeException e) {
+            throw new XatkitException(MessageFormat.format("Cannot forward the event {0} of context {1} to node {2}"
+                    + ", see attached exception", eventInstance.getDefinition().getName(), context.getContextId(),
+                    owner), e);
+        }
+    }
+
+    /**
+     * Updates the nodes of the cluster and hands off the local sessions to their new owner.
+     * <p>
+     * Local sessions that are not owned by the local node anymore are sent to their new owner and removed from the
+     * {@link XatkitBot}. Sessions that cannot be handed off are kept locally (they will be forwarded to their new
+     * owner once the problem is fixed and the membership updated again).
+     * <p>
+     * The new nodes are used once all the sessions have been handed off: the sessions that have not been handed off
+     * yet are still handled locally, and the requests of the handed off sessions are forwarded to their new owner.
+     * <p>
+     * A session is handed off once the events it is processing have been handled (see
+     * {@link com.xatkit.core.ExecutionService#runAfterEvents(StateContext, Runnable)}): the events received during
+     * the hand off are processed after it, and the snapshot sent to the new owner contains the effects of all the
+     * previous events.
+     *
+     * @param nodes the base URLs of the nodes of the cluster
+     * @return the number of sessions handed off to another node
+     * @throws NullPointerException     if the provided {@code nodes} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code nodes} is empty
+     */
+    public synchronized int updateMembership(@NonNull List<String> nodes) {
+        List<String> normalizedNodes = new ArrayList<>();
+        nodes.stream().map(ClusterConfiguration::normalizeNode).distinct().forEach(normalizedNodes::add);
+        if (normalizedNodes.isEmpty()) {
+            throw new IllegalArgumentException("Cannot update the membership of the cluster: the provided list of "
+                    + "nodes is empty");
+        }
+        ConsistentHashRing newRing = new ConsistentHashRing(normalizedNodes, configuration.getVirtualNodes());
+        int handedOff = 0;
+        List<StateContext> contexts = new ArrayList<>();
+        xatkitBot.getContexts().forEach(contexts::add);
+        try {
+            for (StateContext context : contexts) {
+                String owner = newRing.getOwner(context.getContextId());
+                if (!configuration.getLocalNode().equals(owner)) {
+                    try {
+                        xatkitBot.getExecutionService().runAfterEvents(context, () -> handOff(context, owner))
+                                .get();
+                        handedOff++;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        Log.error("Interrupted while handing off the sessions, the remaining contexts are kept "
+                                + "locally");
+                        break;
+                    } catch (ExecutionException | RuntimeException e) {
+                        Log.error(e, "Cannot hand off the context {0} to node {1}, the context is kept locally",
+                                context.getContextId(), owner);
+                    }
+                }
+            }
+            this.ring = newRing;
+        } finally {
+            handedOffContexts.clear();
+        }
+        Log.info("Cluster membership updated: {0} ({1} session(s) handed off)", normalizedNodes, handedOff);
+        return handedOff;
+    }
+
+    /**
+     * Sends the provided {@code context} to its new {@code owner} and removes it from the {@link XatkitBot}.
+     * <p>
+     * This method is executed once the events of the {@code context} have been processed (see
+     * {@link #updateMembership(List)}).
+     *
+     * @param context the {@link StateContext} to hand off
+     * @param owner   the base URL of the new owner of the {@code context}
+     * @throws XatkitException if the {@code owner} cannot be reached or rejects the session
+     */
+    private void handOff(StateContext context, String owner) {
+        JsonObject request = new JsonObject();
+        request.addProperty("contextId", context.getContextId());
+        request.addProperty("stateName", context.getState().getName());
+        request.add("session", encodeSession(context.getSession()));
+        try {
+            post(owner, SESSIONS_ENDPOINT_URI, request);
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot send the context {0} to node {1}",
+                    context.getContextId(), owner), e);
+        }
+        handedOffContexts.put(context.getContextId(), owner);
+        xatkitBot.removeContext(context.getContextId());
+    }
+
+    /**
+     * Releases the resources of this class.
+     */
+    public void close() {
+        try {
+            this.httpClient.close();
+        } catch (IOException e) {
+            Log.error(e, "An error occurred when closing the HTTP client of the {0}",
+                    this.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Registers the cluster endpoints in the provided {@code xatkitServer}.
+     *
+     * @param xatkitServer the {@link XatkitServer} to register the endpoints in
+     */
+    private void registerEndpoints(XatkitServer xatkitServer) {
+        xatkitServer.registerRestEndpoint(HttpMethod.POST, RECOGNIZE_ENDPOINT_URI,
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    JsonObject request = checkRequest(headers, content);
+                    StateContext context = xatkitBot.getOrCreateContext(request.get("contextId").getAsString());
+                    try {
+                        RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent(
+                                request.get("input").getAsString(), context, xatkitBot);
+                        return EventInstanceCodec.encode(recognizedIntent);
+                    } catch (IntentRecognitionProviderException e) {
+                        throw new RestHandlerException(HttpStatus.SC_INTERNAL_SERVER_ERROR, e.getMessage(), e);
+                    }
+                }));
+        xatkitServer.registerRestEndpoint(HttpMethod.POST, EVENTS_ENDPOINT_URI,
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    JsonObject request = checkRequest(headers, content);
+                    EventInstance eventInstance = EventInstanceCodec.decode(request.getAsJsonObject("event"),
+                            xatkitBot.getEventDefinitionRegistry());
+                    StateContext context = xatkitBot.getOrCreateContext(request.get("contextId").getAsString());
+                    if (request.has("session")) {
+                        context.getSession().putAll(decodeSession(request.getAsJsonObject("session")));
+                    }
+                    /*
+                     * Handle the event directly: forwarded events are never forwarded again, even if the
+                     * membership of the nodes differs.
+                     */
+                    awaitEvent(xatkitBot.getExecutionService().handleEventInstance(eventInstance, context),
+                            eventInstance);
+                    return acceptedResponse();
+                }));
+        xatkitServer.registerRestEndpoint(HttpMethod.POST, SESSIONS_ENDPOINT_URI,
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    JsonObject request = checkRequest(headers, content);
+                    importSession(request);
+                    return acceptedResponse();
+                }));
+        xatkitServer.registerRestEndpoint(HttpMethod.POST, MEMBERSHIP_ENDPOINT_URI,
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    JsonObject request = checkRequest(headers, content);
+                    List<String> nodes = new ArrayList<>();
+                    if (request.has("nodes")) {
+                        request.getAsJsonArray("nodes").forEach(node -> nodes.add(node.getAsString()));
+                    }
+                    if (nodes.isEmpty()) {
+                        throw new RestHandlerException(HttpStatus.SC_BAD_REQUEST, "The request does not contain "
+                                + "any node");
+                    }
+                    JsonObject response = new JsonObject();
+                    response.addProperty("handedOff", updateMembership(nodes));
+                    return response;
+                }));
+    }
+
+    /**
+     * Imports the session contained in the provided {@code request}.
+     * <p>
+     * The imported session is not initialized: it is resumed in the {@link State} it had on the previous owner. The
+     * session is initialized if this {@link State} does not exist.
+     *
+     * @param request the request containing the session to import
+     * @throws RestHandlerException if an error occurred when creating the {@link StateContext}
+     */
+    private void importSession(JsonObject request) throws RestHandlerException {
+        String contextId = request.get("contextId").getAsString();
+        StateContext context;
+        try {
+            context = xatkitBot.getIntentRecognitionProvider().createContext(contextId);
+        } catch (IntentRecognitionProviderException e) {
+            throw new RestHandlerException(HttpStatus.SC_INTERNAL_SERVER_ERROR, e.getMessage(), e);
+        }
+        if (request.has("session")) {
+            context.getSession().putAll(decodeSession(request.getAsJsonObject("session")));
+        }
+        State state = request.has("stateName") ?
+                xatkitBot.getExecutionService().getState(request.get("stateName").getAsString()) : null;
+        xatkitBot.registerContext(context);
+        if (isNull(state)) {
+            Log.warn("Cannot resume the handed off context {0} in its previous state, initializing it", contextId);
+            xatkitBot.getExecutionService().initContext(context);
+        } else {
+            context.setState(state);
+        }
+        Log.debug("Context {0} handed off to the local node", contextId);
+    }
+
+    /**
+     * Waits for the processing of the provided forwarded {@code eventInstance}.
+     * <p>
+     * The forwarding node is notified of the errors occurring when processing the event with a {@code 5xx} status
+     * code.
+     *
+     * @param execution     the {@link CompletableFuture} completed once the event has been processed
+     * @param eventInstance the forwarded {@link EventInstance}
+     * @throws RestHandlerException if the event cannot be processed within the request timeout of the cluster (see
+     *                              {@link ClusterConfiguration#getRequestTimeout()}) or if an error occurred when
+     *                              processing it
+     */
+    private void awaitEvent(CompletableFuture<Void> execution, EventInstance eventInstance)
+            throws RestHandlerException {
+        try {
+            execution.get(configuration.getRequestTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestHandlerException(HttpStatus.SC_SERVICE_UNAVAILABLE, MessageFormat.format("Interrupted "
+                    + "while processing the event {0}", eventInstance.getDefinition().getName()), e);
+        } catch (TimeoutException e) {
+            throw new RestHandlerException(HttpStatus.SC_GATEWAY_TIMEOUT, MessageFormat.format("The event {0} has "
+                    + "not been processed in {1}ms", eventInstance.getDefinition().getName(),
+                    configuration.getRequestTimeout()), e);
+        } catch (ExecutionException e) {
+            throw new RestHandlerException(HttpStatus.SC_INTERNAL_SERVER_ERROR, MessageFormat.format("An error "
+                    + "occurred when processing the event {0}: {1}", eventInstance.getDefinition().getName(),
+                    e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    /**
+     * Checks that the request is authenticated and the bot is ready, and returns the provided {@code content} as a
+     * {@link JsonObject}.
+     *
+     * @param headers the headers of the received request
+     * @param content the content of the received request
+     * @return the {@link JsonObject} representing the request
+     * @throws RestHandlerException if the request does not contain the cluster token, if the bot is not ready, or if
+     *                              the {@code content} is not a {@link JsonObject}
+     */
+    private JsonObject checkRequest(List<Header> headers, JsonElement content) throws RestHandlerException {
+        if (!isAuthenticated(headers)) {
+            throw new RestHandlerException(HttpStatus.SC_UNAUTHORIZED, "Invalid or missing cluster token");
+        }
+        if (!xatkitBot.isReady()) {
+            throw new RestHandlerException(HttpStatus.SC_SERVICE_UNAVAILABLE, "The bot is not ready");
+        }
+        if (isNull(content) || !content.isJsonObject()) {
+            throw new RestHandlerException(HttpStatus.SC_BAD_REQUEST, "Invalid cluster request: " + content);
+        }
+        return content.getAsJsonObject();
+    }
+
+    /**
+     * Returns whether the provided {@code headers} contain the cluster token.
+     * <p>
+     * The token is compared in constant time to prevent timing attacks.
+     *
+     * @param headers the headers of the received request
+     * @return {@code true} if the {@code headers} contain the cluster token, {@code false} otherwise
+     */
+    private boolean isAuthenticated(List<Header> headers) {
+        byte[] expectedToken = configuration.getToken().getBytes(StandardCharsets.UTF_8);
+        for (Header header : headers) {
+            if (TOKEN_HEADER.equalsIgnoreCase(header.getName()) && nonNull(header.getValue())
+                    && MessageDigest.isEqual(expectedToken, header.getValue().getBytes(StandardCharsets.UTF_8))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the response of the endpoints that do not return any value.
+     *
+     * @return the created {@link JsonObject}
+     */
+    private static JsonObject acceptedResponse() {
+        JsonObject response = new JsonObject();
+        response.addProperty("accepted", true);
+        return response;
+    }
+
+    /**
+     * Sends the provided {@code content} to the provided {@code uri} of the provided {@code node}.
+     *
+     * @param node    the base URL of the node to send the request to
+     * @param uri     the URI of the endpoint
+     * @param content the content of the request
+     * @return the content of the response
+     * @throws IOException     if an error occurred when sending the request
+     * @throws XatkitException if the node returned an error status code
+     */
+    private JsonElement post(String node, String uri, JsonObject content) throws IOException {
+        HttpPost post = new HttpPost(node + uri);
+        post.setHeader(TOKEN_HEADER, configuration.getToken());
+        post.setEntity(new StringEntity(content.toString(), ContentType.APPLICATION_JSON));
+        try (CloseableHttpResponse response = httpClient.execute(post)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            String body = isNull(response.getEntity()) ? "" : EntityUtils.toString(response.getEntity());
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new XatkitException(MessageFormat.format("Node {0} returned status {1} for {2}: {3}", node,
+                        statusCode, uri, body));
+            }
+            return new JsonParser().parse(body.isEmpty() ? "{}" : body);
+        }
+    }
+
+    /**
+     * Returns the values of the provided {@code session} that are not contained in the {@code previousSession}.
+     *
+     * @param session         the encoded session
+     * @param previousSession the previously encoded session, or {@code null} if the session has not been encoded
+     *                        before
+     * @return a {@link JsonObject} containing the changed values
+     */
+    static JsonObject changedValues(JsonObject session, @Nullable JsonObject previousSession) {
+        if (isNull(previousSession)) {
+            return session;
+        }
+        JsonObject result = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : session.entrySet()) {
+            if (!entry.getValue().equals(previousSession.get(entry.getKey()))) {
+                result.add(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Encodes the values of the provided {@code session} that can be handed off to another node.
+     * <p>
+     * Only {@link String}, {@link Number}, and {@link Boolean} values are encoded, other values are logged and
+     * ignored.
+     *
+     * @param session the session to encode
+     * @return the {@link JsonObject} containing the encoded values
+     */
+    static JsonObject encodeSession(Map<Object, Object> session) {
+        JsonObject result = new JsonObject();
+        session.forEach((key, value) -> {
+            if (key instanceof String) {
+                if (value instanceof String) {
+                    result.addProperty((String) key, (String) value);
+                } else if (value instanceof Number) {
+                    result.addProperty((String) key, (Number) value);
+                } else if (value instanceof Boolean) {
+                    result.addProperty((String) key, (Boolean) value);
+                } else if (nonNull(value)) {
+                    Log.warn("Cannot transfer the session value {0} ({1}) to another node, only String, Number, "
+                            + "and Boolean values are supported", key, value.getClass().getName());
+                }
+            } else {
+                Log.warn("Cannot transfer the session key {0} to another node, only String keys are supported", key);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Decodes the session values contained in the provided {@code sessionObject}.
+     * <p>
+     * Numbers are decoded as {@link Integer} or {@link Long} if they do not have a decimal part, and as
+     * {@link Double} otherwise.
+     *
+     * @param sessionObject the {@link JsonObject} created by {@link #encodeSession(Map)}
+     * @return the decoded session values
+     */
+    static Map<Object, Object> decodeSession(JsonObject sessionObject) {
+        Map<Object, Object> result = new HashMap<>();
+        for (Map.Entry<String, JsonElement> entry : sessionObject.entrySet()) {
+            if (!entry.getValue().isJsonPrimitive()) {
+                continue;
+            }
+            JsonPrimitive primitive = entry.getValue().getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                result.put(entry.getKey(), primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                result.put(entry.getKey(), decodeNumber(primitive));
+            } else {
+                result.put(entry.getKey(), primitive.getAsString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the provided numeric {@code primitive}.
+     *
+     * @param primitive the {@link JsonPrimitive} to decode
+     * @return the decoded {@link Number}
+     */
+    private static Number decodeNumber(JsonPrimitive primitive) {
+        String value = primitive.getAsString();
+        if (value.contains(".") || value.contains("e") || value.contains("E")) {
+            return primitive.getAsDouble();
+        }
+        long longValue = primitive.getAsLong();
+        if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+            return (int) longValue;
+        }
+        return longValue;
+    }
+}
@@ -0,0 +1,158 @@
+package com.xatkit.core.cluster;
+
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.isNull;
+
+/**
+ * A consistent hashing ring mapping keys to nodes.
+ * <p>
+ * Each node is placed on the ring multiple times (virtual nodes) to balance the keys between the nodes. A key is
+ * owned by the first node following its hash on the ring. Adding or removing a node only moves the keys located
+ * between this node and its predecessors, the other keys keep the same owner.
+ * <p>
+ * The ring is deterministic: rings created with the same nodes (in any order) and the same number of virtual nodes
+ * map the keys to the same nodes. This allows the nodes of a cluster to compute the owner of a key without
+ * coordination.
+ * <p>
+ * <b>Note</b>: this class is not thread-safe.
+ */
+public class ConsistentHashRing {
+
+    /**
+     * The number of times each node is placed on the ring.
+     */
+    private final int virtualNodeCount;
+
+    /**
+     * The positions of the virtual nodes on the ring.
+     */
+    private final TreeMap<Long, String> ring;
+
+    /**
+     * The nodes of the ring.
+     */
+    private final Set<String> nodes;
+
+    /**
+     * Creates a {@link ConsistentHashRing} containing the provided {@code nodes}.
+     *
+     * @param nodes            the nodes of the ring
+     * @param virtualNodeCount the number of times each node is placed on the ring
+     * @throws NullPointerException     if the provided {@code nodes} is {@code null}
+     * @throws IllegalArgumentException if {@code virtualNodeCount} is not positive
+     */
+    public ConsistentHashRing(@NonNull Collection<String> nodes, int virtualNodeCount) {
+        checkArgument(virtualNodeCount > 0, "Cannot create a %s with %s virtual nodes",
+                ConsistentHashRing.class.getSimpleName(), virtualNodeCount);
+        this.virtualNodeCount = virtualNodeCount;
+        this.ring = new TreeMap<>();
+        this.nodes = new LinkedHashSet<>();
+        nodes.forEach(this::addNode);
+    }
+
+    /**
+     * Adds the provided {@code node} to the ring.
+     * <p>
+     * This method does nothing if the ring already contains the {@code node}.
+     *
+     * @param node the node to add
+     * @throws NullPointerException if the provided {@code node} is {@code null}
+     */
+    public void addNode(@NonNull String node) {
+        if (nodes.add(node)) {
+            for (int i = 0; i < virtualNodeCount; i++) {
+                /*
+                 * Hash collisions between virtual nodes are very unlikely, we keep the smallest node to remain
+                 * deterministic if they happen.
+                 */
+                ring.merge(hash(node + "#" + i), node, (n1, n2) -> n1.compareTo(n2) <= 0 ? n1 : n2);
+            }
+        }
+    }
+
+    /**
+     * Removes the provided {@code node} from the ring.
+     *
+     * @param node the node to remove
+     * @throws NullPointerException if the provided {@code node} is {@code null}
+     */
+    public void removeNode(@NonNull String node) {
+        if (nodes.remove(node)) {
+            ring.values().removeIf(node::equals);
+            /*
+             * Re-add the remaining nodes in case one of their virtual nodes collided with the removed node.
+             */
+            for (String remaining : nodes) {
+                for (int i = 0; i < virtualNodeCount; i++) {
+                    ring.merge(hash(remaining + "#" + i), remaining, (n1, n2) -> n1.compareTo(n2) <= 0 ? n1 : n2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the node owning the provided {@code key}.
+     *
+     * @param key the key to retrieve the owner of
+     * @return the node owning the {@code key}
+     * @throws NullPointerException  if the provided {@code key} is {@code null}
+     * @throws IllegalStateException if the ring does not contain any node
+     */
+    public String getOwner(@NonNull String key) {
+        checkState(!ring.isEmpty(), "Cannot retrieve the owner of %s, the ring does not contain any node", key);
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        if (isNull(entry)) {
+            /*
+             * Wrap around the ring.
+             */
+            entry = ring.firstEntry();
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Returns the nodes of the ring.
+     *
+     * @return an unmodifiable {@link Set} containing the nodes of the ring
+     */
+    public Set<String> getNodes() {
+        return Collections.unmodifiableSet(nodes);
+    }
+
+    /**
+     * Computes the position of the provided {@code value} on the ring.
+     *
+     * @param value the value to compute the position of
+     * @return the position of the {@code value} on the ring
+     */
+    private static long hash(String value) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            /*
+             * Should not happen, MD5 is available in all the Java platforms.
+             */
+            throw new IllegalStateException(e);
+        }
+        byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (bytes[i] & 0xFF);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,157 @@
+package com.xatkit.core.cluster;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.xatkit.core.EventDefinitionRegistry;
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.intent.ContextParameter;
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Serializes {@link EventInstance}s to JSON in order to send them to the other nodes of the cluster.
+ * <p>
+ * {@link EventInstance}s are serialized with the name of their definition: the nodes of a cluster run the same bot,
+ * and can retrieve the definition from their {@link EventDefinitionRegistry}. {@link RecognizedIntent}s also
+ * contain their matched input and recognition confidence.
+ * <p>
+ * Parameter values are serialized as JSON: {@link String} and {@link JsonElement} values are restored as is, other
+ * values are restored as the standard {@link Gson} representation of their JSON serialization (e.g. a {@link java.util.Map}
+ * for an object).
+ */
+public class EventInstanceCodec {
+
+    /**
+     * The {@link Gson} instance used to serialize the parameter values.
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Disables the default constructor, this class only provides static methods.
+     */
+    private EventInstanceCodec() {
+    }
+
+    /**
+     * Serializes the provided {@code eventInstance}.
+     *
+     * @param eventInstance the {@link EventInstance} to serialize
+     * @return the {@link JsonObject} representing the {@code eventInstance}
+     * @throws NullPointerException if the provided {@code eventInstance} is {@code null}
+     */
+    public static JsonObject encode(@NonNull EventInstance eventInstance) {
+        JsonObject result = new JsonObject();
+        result.addProperty("definition", eventInstance.getDefinition().getName());
+        result.addProperty("triggeredBy", eventInstance.getTriggeredBy());
+        if (eventInstance instanceof RecognizedIntent) {
+            RecognizedIntent recognizedIntent = (RecognizedIntent) eventInstance;
+            result.addProperty("intent", true);
+            result.addProperty("matchedInput", recognizedIntent.getMatchedInput());
+            result.addProperty("confidence", recognizedIntent.getRecognitionConfidence());
+        }
+        JsonArray values = new JsonArray();
+        for (ContextParameterValue value : eventInstance.getValues()) {
+            if (isNull(value.getContextParameter()) || isNull(value.getValue())) {
+                continue;
+            }
+            JsonObject valueObject = new JsonObject();
+            valueObject.addProperty("parameter", value.getContextParameter().getName());
+            Object rawValue = value.getValue();
+            if (rawValue instanceof String) {
+                valueObject.addProperty("kind", "string");
+                valueObject.addProperty("value", (String) rawValue);
+            } else if (rawValue instanceof JsonElement) {
+                valueObject.addProperty("kind", "json");
+                valueObject.add("value", (JsonElement) rawValue);
+            } else {
+                valueObject.addProperty("kind", "object");
+                valueObject.add("value", GSON.toJsonTree(rawValue));
+            }
+            values.add(valueObject);
+        }
+        result.add("values", values);
+        return result;
+    }
+
+    /**
+     * Deserializes the provided {@code eventObject}.
+     * <p>
+     * Values of unknown parameters are ignored.
+     *
+     * @param eventObject the {@link JsonObject} created by {@link #encode(EventInstance)}
+     * @param registry    the {@link EventDefinitionRegistry} used to retrieve the definition of the event
+     * @return the deserialized {@link EventInstance}
+     * @throws NullPointerException     if the provided {@code eventObject} or {@code registry} is {@code null}
+     * @throws IllegalArgumentException if the definition of the event does not exist in the {@code registry}
+     */
+    public static EventInstance decode(@NonNull JsonObject eventObject, @NonNull EventDefinitionRegistry registry) {
+        String definitionName = eventObject.get("definition").getAsString();
+        boolean isIntent = eventObject.has("intent") && eventObject.get("intent").getAsBoolean();
+        EventInstance eventInstance;
+        EventDefinition definition;
+        if (isIntent) {
+            IntentDefinition intentDefinition = registry.getIntentDefinition(definitionName);
+            if (isNull(intentDefinition)
+                    && IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName().equals(definitionName)) {
+                intentDefinition = IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT;
+            }
+            definition = intentDefinition;
+            RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+            if (eventObject.has("matchedInput") && !eventObject.get("matchedInput").isJsonNull()) {
+                recognizedIntent.setMatchedInput(eventObject.get("matchedInput").getAsString());
+            }
+            if (eventObject.has("confidence")) {
+                recognizedIntent.setRecognitionConfidence(eventObject.get("confidence").getAsFloat());
+            }
+            eventInstance = recognizedIntent;
+        } else {
+            definition = registry.getEventDefinition(definitionName);
+            eventInstance = TransientEObjects.createEventInstance();
+        }
+        checkArgument(nonNull(definition), "Cannot decode the event: the definition %s does not exist",
+                definitionName);
+        eventInstance.setDefinition(definition);
+        if (eventObject.has("triggeredBy") && !eventObject.get("triggeredBy").isJsonNull()) {
+            eventInstance.setTriggeredBy(eventObject.get("triggeredBy").getAsString());
+        }
+        if (eventObject.has("values")) {
+            for (JsonElement element : eventObject.getAsJsonArray("values")) {
+                JsonObject valueObject = element.getAsJsonObject();
+                String parameterName = valueObject.get("parameter").getAsString();
+                ContextParameter parameter = definition.getParameter(parameterName);
+                if (isNull(parameter)) {
+                    Log.warn("Cannot decode the value of parameter {0}: the event {1} does not define this "
+                            + "parameter", parameterName, definitionName);
+                    continue;
+                }
+                ContextParameterValue value = TransientEObjects.createContextParameterValue();
+                value.setContextParameter(parameter);
+                JsonElement rawValue = valueObject.get("value");
+                switch (valueObject.get("kind").getAsString()) {
+                    case "string":
+                        value.setValue(rawValue.getAsString());
+                        break;
+                    case "json":
+                        value.setValue(rawValue);
+                        break;
+                    default:
+                        value.setValue(GSON.fromJson(rawValue, Object.class));
+                }
+                eventInstance.getValues().add(value);
+            }
+        }
+        return eventInstance;
+    }
+}
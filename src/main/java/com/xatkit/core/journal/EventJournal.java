@@ -0,0 +1,814 @@
+package com.xatkit.core.journal;
+
+import com.google.gson.Gson;
+import com.xatkit.core.XatkitException;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.EventInstance;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * An append-only journal of the events handled by the bot, used to recover the conversations after a restart.
+ * <p>
+ * The journal records, for each handled event, the session it belongs to, the event and its parameter values, the
+ * state reached after handling it, and the session values it updated. It also records periodic snapshots of the
+ * sessions (see {@link JournalConfiguration#SNAPSHOT_INTERVAL_KEY}). Sessions are recovered lazily with
+ * {@link #recover(String)}, that replays the records of a session from its latest snapshot.
+ * <p>
+ * Records are appended to memory-mapped segment files. A new segment is created when the current one is full, and
+ * the journal is compacted when the number of full segments reaches
+ * {@link JournalConfiguration#COMPACTION_THRESHOLD_KEY}: the sessions with records in the full segments are written
+ * as new snapshots, and the full segments are deleted. Sessions inactive for more than
+ * {@link JournalConfiguration#SESSION_TTL_KEY} are evicted when the journal is opened or compacted. The
+ * synchronization of the segments with the storage device is defined by the {@link FsyncPolicy} of the journal.
+ * <p>
+ * Each record is stored as {@code [length][crc32][payload]}, where {@code payload} is the JSON serialization of the
+ * {@link JournalRecord}. Incomplete records at the end of a segment (e.g. if the host crashed while writing them)
+ * are detected with their checksum and ignored.
+ * <p>
+ * <b>Note</b>: the journal only contains the session values with a {@link String} key and a {@link String},
+ * {@link Number}, or {@link Boolean} value. Numbers are recovered with their original type (see
+ * {@link JournalRecord#getSession()}).
+ */
+public class EventJournal {
+
+    /**
+     * The prefix of the segment files.
+     */
+    private static final String SEGMENT_FILE_PREFIX = "segment-";
+
+    /**
+     * The extension of the segment files.
+     */
+    private static final String SEGMENT_FILE_EXTENSION = ".journal";
+
+    /**
+     * The size (in bytes) of the header of a record.
+     * <p>
+     * The header contains the length of the payload and its checksum.
+     */
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * The {@link Gson} instance used to serialize the {@link JournalRecord}s.
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * The {@link JournalConfiguration} of the journal.
+     */
+    @Getter
+    private final JournalConfiguration configuration;
+
+    /**
+     * The segments of the journal, sorted by identifier.
+     * <p>
+     * The last segment of this {@link Map} is the active segment.
+     */
+    private final TreeMap<Long, Segment> segments;
+
+    /**
+     * The locations of the records of each session, starting from its latest snapshot.
+     */
+    private final Map<String, List<RecordLocation>> index;
+
+    /**
+     * The number of events recorded for each session since its latest snapshot.
+     */
+    private final Map<String, Integer> eventsSinceSnapshot;
+
+    /**
+     * The session values of each session as of its latest record.
+     * <p>
+     * These values are used to record the session values updated by each event. Sessions indexed from a previous
+     * run are not contained in this {@link Map}, their next event triggers a snapshot.
+     */
+    private final Map<String, Map<String, Object>> journaledSessions;
+
+    /**
+     * The time of the latest record of each session.
+     *
+     * @see JournalConfiguration#getSessionTtl()
+     */
+    private final Map<String, Long> lastActivity;
+
+    /**
+     * The sessions that have records in each segment.
+     * <p>
+     * This {@link Map} allows to retrieve the sessions to rewrite when compacting the full segments. It may contain
+     * sessions that have been rewritten or evicted since their records have been written.
+     */
+    private final TreeMap<Long, Set<String>> segmentSessions;
+
+    /**
+     * The {@link ScheduledExecutorService} used to synchronize the journal with the {@link FsyncPolicy#INTERVAL}
+     * policy.
+     */
+    @Nullable
+    private ScheduledExecutorService fsyncExecutor;
+
+    /**
+     * A flag indicating whether the journal is closed.
+     */
+    private boolean closed;
+
+    /**
+     * A flag indicating whether the journal is being compacted.
+     * <p>
+     * This flag prevents the snapshots written by {@link #compact()} from triggering a new compaction.
+     */
+    private boolean compacting;
+
+    /**
+     * Opens the journal stored in the directory defined by the provided {@code configuration}.
+     * <p>
+     * This method indexes the existing segments, and creates a new active segment.
+     *
+     * @param configuration the {@link JournalConfiguration} of the journal
+     * @throws NullPointerException if the provided {@code configuration} is {@code null}
+     * @throws XatkitException      if an error occurred when opening the journal
+     */
+    public EventJournal(@NonNull JournalConfiguration configuration) {
+        this.configuration = configuration;
+        this.segments = new TreeMap<>();
+        this.index = new HashMap<>();
+        this.eventsSinceSnapshot = new HashMap<>();
+        this.journaledSessions = new HashMap<>();
+        this.lastActivity = new HashMap<>();
+        this.segmentSessions = new TreeMap<>();
+        File directory = configuration.getDirectory();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new XatkitException(MessageFormat.format("Cannot create the journal directory {0}",
+                    directory.getAbsolutePath()));
+        }
+        File[] segmentFiles = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_FILE_PREFIX)
+                && name.endsWith(SEGMENT_FILE_EXTENSION));
+        try {
+            if (nonNull(segmentFiles)) {
+                for (File segmentFile : segmentFiles) {
+                    Segment segment = Segment.open(segmentFile);
+                    segments.put(segment.id, segment);
+                }
+            }
+            for (Segment segment : segments.values()) {
+                indexSegment(segment);
+            }
+            evictExpiredSessions();
+            /*
+             * Always start a new segment: the last segment of the previous run may end with an incomplete record.
+             */
+            createSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1, configuration.getSegmentSize());
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot open the journal stored in {0}",
+                    directory.getAbsolutePath()), e);
+        }
+        if (configuration.getFsyncPolicy().equals(FsyncPolicy.INTERVAL)) {
+            this.fsyncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "xatkit-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.fsyncExecutor.scheduleWithFixedDelay(this::sync, configuration.getFsyncInterval(),
+                    configuration.getFsyncInterval(), TimeUnit.MILLISECONDS);
+        }
+        Log.info("Event journal opened in {0} ({1} recoverable session(s))", directory.getAbsolutePath(),
+                index.size());
+    }
+
+    /**
+     * Records the provided {@code eventInstance} handled in the provided {@code context}.
+     * <p>
+     * This method must be called once the {@code eventInstance} has been handled, in order to record the state
+     * reached by the {@code context} and the session values updated by the event. A snapshot of the {@code context}
+     * is recorded with its first event, and then every {@link JournalConfiguration#getSnapshotInterval()} events.
+     *
+     * @param context       the {@link StateContext} that handled the event
+     * @param eventInstance the handled {@link EventInstance}
+     * @throws NullPointerException  if the provided {@code context} or {@code eventInstance} is {@code null}
+     * @throws IllegalStateException if the journal is closed
+     * @throws XatkitException       if an error occurred when writing the record
+     */
+    public synchronized void record(@NonNull StateContext context, @NonNull EventInstance eventInstance) {
+        checkState(!closed, "Cannot record the event %s, the journal is closed",
+                eventInstance.getDefinition().getName());
+        String contextId = context.getContextId();
+        String eventName = eventInstance.getDefinition().getName();
+        String stateName = context.getState().getName();
+        Map<String, String> parameters = new HashMap<>();
+        for (ContextParameterValue value : eventInstance.getValues()) {
+            if (nonNull(value.getContextParameter()) && nonNull(value.getValue())) {
+                parameters.put(value.getContextParameter().getName(), value.getValue().toString());
+            }
+        }
+        Map<String, Object> session = getJournaledValues(context);
+        Map<String, Object> previousSession = journaledSessions.get(contextId);
+        if (isNull(previousSession)
+                || eventsSinceSnapshot.getOrDefault(contextId, 0) >= configuration.getSnapshotInterval()) {
+            /*
+             * The snapshot following the event contains the session values.
+             */
+            append(JournalRecord.event(contextId, eventName, parameters, stateName, Collections.emptyMap(),
+                    Collections.emptyList()));
+            append(JournalRecord.snapshot(contextId, stateName, session));
+        } else {
+            Map<String, Object> updatedSession = new HashMap<>();
+            for (Map.Entry<String, Object> entry : session.entrySet()) {
+                if (!entry.getValue().equals(previousSession.get(entry.getKey()))) {
+                    updatedSession.put(entry.getKey(), entry.getValue());
+                }
+            }
+            List<String> removedSessionKeys = new ArrayList<>();
+            for (String key : previousSession.keySet()) {
+                if (!session.containsKey(key)) {
+                    removedSessionKeys.add(key);
+                }
+            }
+            append(JournalRecord.event(contextId, eventName, parameters, stateName, updatedSession,
+                    removedSessionKeys));
+        }
+        journaledSessions.put(contextId, session);
+    }
+
+    /**
+     * Records a snapshot of the provided {@code context}.
+     *
+     * @param context the {@link StateContext} to record a snapshot of
+     * @throws NullPointerException  if the provided {@code context} is {@code null}
+     * @throws IllegalStateException if the journal is closed
+     * @throws XatkitException       if an error occurred when writing the record
+     */
+    public synchronized void snapshot(@NonNull StateContext context) {
+        checkState(!closed, "Cannot record a snapshot of the session %s, the journal is closed",
+                context.getContextId());
+        Map<String, Object> session = getJournaledValues(context);
+        append(JournalRecord.snapshot(context.getContextId(), context.getState().getName(), session));
+        journaledSessions.put(context.getContextId(), session);
+    }
+
+    /**
+     * Returns the session values of the provided {@code context} that can be stored in the journal.
+     *
+     * @param context the {@link StateContext} to retrieve the session values of
+     * @return the session values with a {@link String} key and a {@link String}, {@link Number}, or {@link Boolean}
+     * value
+     */
+    private Map<String, Object> getJournaledValues(StateContext context) {
+        Map<String, Object> session = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : context.getSession().entrySet()) {
+            Object value = entry.getValue();
+            if (entry.getKey() instanceof String && (value instanceof String || value instanceof Number
+                    || value instanceof Boolean)) {
+                session.put((String) entry.getKey(), value);
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Recovers the session with the provided {@code contextId}.
+     * <p>
+     * This method replays the records of the session from its latest snapshot, and returns a
+     * {@link JournalRecord.Type#SNAPSHOT} record containing the recovered state and session values. The timestamp of
+     * the returned record is the time of the latest record of the session.
+     *
+     * @param contextId the identifier of the session to recover
+     * @return the recovered session, or {@code null} if the journal does not contain the session
+     * @throws NullPointerException  if the provided {@code contextId} is {@code null}
+     * @throws IllegalStateException if the journal is closed
+     */
+    public synchronized @Nullable
+    JournalRecord recover(@NonNull String contextId) {
+        checkState(!closed, "Cannot recover the session %s, the journal is closed", contextId);
+        List<RecordLocation> locations = index.get(contextId);
+        if (isNull(locations) || locations.isEmpty()) {
+            return null;
+        }
+        String stateName = null;
+        long timestamp = 0;
+        Map<String, Object> session = new HashMap<>();
+        for (RecordLocation location : locations) {
+            JournalRecord record = read(location);
+            if (isNull(record)) {
+                Log.warn("Cannot read a record of the session {0} from the journal, the session may not be "
+                        + "fully recovered", contextId);
+                continue;
+            }
+            if (record.getType().equals(JournalRecord.Type.SNAPSHOT)) {
+                session = new HashMap<>(record.getSession());
+            } else {
+                session.putAll(record.getSession());
+                for (String removedKey : record.getRemovedSessionKeys()) {
+                    session.remove(removedKey);
+                }
+            }
+            stateName = record.getStateName();
+            timestamp = record.getTimestamp();
+        }
+        if (isNull(stateName)) {
+            return null;
+        }
+        return JournalRecord.snapshot(contextId, stateName, session, timestamp);
+    }
+
+    /**
+     * Returns the number of sessions that can be recovered from the journal.
+     *
+     * @return the number of sessions that can be recovered from the journal
+     */
+    public synchronized int getSessionCount() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of segments of the journal, including the active one.
+     *
+     * @return the number of segments of the journal
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Compacts the journal.
+     * <p>
+     * This method evicts the expired sessions, writes a snapshot of the sessions that have records in the full
+     * segments, and deletes the full segments. The active segment is not compacted.
+     *
+     * @throws IllegalStateException if the journal is closed
+     * @throws XatkitException       if an error occurred when compacting the journal
+     */
+    public synchronized void compact() {
+        checkState(!closed, "Cannot compact the journal, the journal is closed");
+        if (compacting) {
+            return;
+        }
+        compacting = true;
+        try {
+            compactFullSegments();
+        } finally {
+            compacting = false;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the sessions that have records in the full segments, and deletes the full segments.
+     * <p>
+     * Only the sessions referenced by the full segments are rewritten, and the expired sessions are evicted before
+     * being rewritten.
+     *
+     * @see #compact()
+     */
+    private void compactFullSegments() {
+        evictExpiredSessions();
+        long activeSegmentId = segments.lastKey();
+        Set<String> compactedSessions = new LinkedHashSet<>();
+        for (Set<String> sessions : segmentSessions.headMap(activeSegmentId).values()) {
+            compactedSessions.addAll(sessions);
+        }
+        int rewrittenCount = 0;
+        for (String contextId : compactedSessions) {
+            List<RecordLocation> locations = index.get(contextId);
+            if (isNull(locations) || locations.stream().noneMatch(l -> l.segmentId < activeSegmentId)) {
+                /*
+                 * The session has been evicted, or its latest snapshot is in the active segment.
+                 */
+                continue;
+            }
+            JournalRecord recovered = recover(contextId);
+            if (isNull(recovered)) {
+                removeSession(contextId);
+            } else {
+                /*
+                 * The new snapshot resets the locations of the session, and may roll the active segment. It does not
+                 * contain new session values, so it does not reset the number of events since the latest snapshot.
+                 */
+                Integer eventCount = eventsSinceSnapshot.get(contextId);
+                append(recovered);
+                if (nonNull(eventCount)) {
+                    eventsSinceSnapshot.put(contextId, eventCount);
+                }
+                rewrittenCount++;
+            }
+        }
+        /*
+         * All the sessions with records in the full segments have been rewritten or removed.
+         */
+        Iterator<Map.Entry<Long, Segment>> it = segments.headMap(activeSegmentId).entrySet().iterator();
+        while (it.hasNext()) {
+            Segment segment = it.next().getValue();
+            segment.delete();
+            segmentSessions.remove(segment.id);
+            it.remove();
+        }
+        Log.debug("Journal compacted ({0} session(s) rewritten, {1} segment(s) left)", rewrittenCount,
+                segments.size());
+    }
+
+    /**
+     * Evicts the sessions inactive for more than {@link JournalConfiguration#getSessionTtl()}.
+     * <p>
+     * Evicted sessions cannot be recovered anymore, their records are deleted by the next compaction.
+     */
+    private void evictExpiredSessions() {
+        long expiration = System.currentTimeMillis() - configuration.getSessionTtl();
+        List<String> expiredSessions = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : lastActivity.entrySet()) {
+            if (entry.getValue() < expiration) {
+                expiredSessions.add(entry.getKey());
+            }
+        }
+        for (String contextId : expiredSessions) {
+            removeSession(contextId);
+        }
+        if (!expiredSessions.isEmpty()) {
+            Log.debug("Evicted {0} expired session(s) from the journal", expiredSessions.size());
+        }
+    }
+
+    /**
+     * Removes the provided {@code contextId} from the index of the journal.
+     *
+     * @param contextId the identifier of the session to remove
+     */
+    private void removeSession(String contextId) {
+        index.remove(contextId);
+        eventsSinceSnapshot.remove(contextId);
+        journaledSessions.remove(contextId);
+        lastActivity.remove(contextId);
+    }
+
+    /**
+     * Synchronizes the active segment with the storage device.
+     */
+    public synchronized void sync() {
+        if (!closed) {
+            segments.lastEntry().getValue().force();
+        }
+    }
+
+    /**
+     * Closes the journal.
+     * <p>
+     * This method synchronizes the journal with the storage device. Closing an already closed journal has no effect.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        if (nonNull(fsyncExecutor)) {
+            fsyncExecutor.shutdownNow();
+        }
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        this.closed = true;
+    }
+
+    /**
+     * Returns whether the journal is closed.
+     *
+     * @return {@code true} if the journal is closed, {@code false} otherwise
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Appends the provided {@code record} to the active segment.
+     * <p>
+     * This method creates a new segment if the active one is full, and triggers a compaction if the number of full
+     * segments reaches {@link JournalConfiguration#getCompactionThreshold()}.
+     *
+     * @param record the {@link JournalRecord} to append
+     * @throws XatkitException if an error occurred when writing the record
+     */
+    private void append(JournalRecord record) {
+        byte[] payload = GSON.toJson(record).getBytes(StandardCharsets.UTF_8);
+        Segment activeSegment = segments.lastEntry().getValue();
+        boolean rolled = false;
+        if (activeSegment.remaining() < RECORD_HEADER_SIZE + payload.length) {
+            activeSegment.force();
+            try {
+                /*
+                 * Records larger than the configured segment size get their own segment.
+                 */
+                activeSegment = createSegment(activeSegment.id + 1, Math.max(configuration.getSegmentSize(),
+                        RECORD_HEADER_SIZE + payload.length));
+            } catch (IOException e) {
+                throw new XatkitException("Cannot create a new journal segment, see attached exception", e);
+            }
+            rolled = true;
+        }
+        int position = activeSegment.write(payload);
+        indexRecord(record, new RecordLocation(activeSegment.id, position));
+        if (configuration.getFsyncPolicy().equals(FsyncPolicy.ALWAYS)) {
+            activeSegment.force();
+        }
+        if (rolled && segments.size() - 1 >= configuration.getCompactionThreshold()) {
+            compact();
+        }
+    }
+
+    /**
+     * Reads the record at the provided {@code location}.
+     *
+     * @param location the location of the record to read
+     * @return the read {@link JournalRecord}, or {@code null} if the record cannot be read
+     */
+    private @Nullable
+    JournalRecord read(RecordLocation location) {
+        Segment segment = segments.get(location.segmentId);
+        if (isNull(segment)) {
+            return null;
+        }
+        byte[] payload = segment.read(location.position);
+        if (isNull(payload)) {
+            return null;
+        }
+        return GSON.fromJson(new String(payload, StandardCharsets.UTF_8), JournalRecord.class);
+    }
+
+    /**
+     * Adds the records of the provided {@code segment} to the index.
+     *
+     * @param segment the {@link Segment} to index
+     */
+    private void indexSegment(Segment segment) {
+        int position = 0;
+        byte[] payload;
+        while (nonNull(payload = segment.read(position))) {
+            JournalRecord record;
+            try {
+                record = GSON.fromJson(new String(payload, StandardCharsets.UTF_8), JournalRecord.class);
+            } catch (RuntimeException e) {
+                Log.warn("Cannot parse a record of the journal segment {0}, ignoring the rest of the segment",
+                        segment.file.getName());
+                break;
+            }
+            indexRecord(record, new RecordLocation(segment.id, position));
+            position += RECORD_HEADER_SIZE + payload.length;
+        }
+        segment.position = position;
+    }
+
+    /**
+     * Adds the provided {@code record} to the index.
+     * <p>
+     * A {@link JournalRecord.Type#SNAPSHOT} record replaces the previous locations of its session.
+     *
+     * @param record   the {@link JournalRecord} to index
+     * @param location the location of the record
+     */
+    private void indexRecord(JournalRecord record, RecordLocation location) {
+        List<RecordLocation> locations = index.computeIfAbsent(record.getContextId(), k -> new ArrayList<>());
+        if (record.getType().equals(JournalRecord.Type.SNAPSHOT)) {
+            locations.clear();
+            eventsSinceSnapshot.remove(record.getContextId());
+        } else {
+            eventsSinceSnapshot.merge(record.getContextId(), 1, Integer::sum);
+        }
+        locations.add(location);
+        lastActivity.merge(record.getContextId(), record.getTimestamp(), Math::max);
+        segmentSessions.computeIfAbsent(location.segmentId, k -> new HashSet<>()).add(record.getContextId());
+    }
+
+    /**
+     * Creates a new segment with the provided {@code id} and {@code size}, and sets it as the active segment.
+     *
+     * @param id   the identifier of the segment
+     * @param size the size (in bytes) of the segment
+     * @return the created {@link Segment}
+     * @throws IOException if an error occurred when creating the segment file
+     */
+    private Segment createSegment(long id, int size) throws IOException {
+        File file = new File(configuration.getDirectory(), String.format("%s%020d%s", SEGMENT_FILE_PREFIX, id,
+                SEGMENT_FILE_EXTENSION));
+        Segment segment = Segment.create(file, id, size);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * The location of a record in the journal.
+     */
+    private static class RecordLocation {
+
+        /**
+         * The identifier of the segment containing the record.
+         */
+        private final long segmentId;
+
+        /**
+         * The position of the record in the segment.
+         */
+        private final int position;
+
+        /**
+         * Creates a {@link RecordLocation} with the provided {@code segmentId} and {@code position}.
+         *
+         * @param segmentId the identifier of the segment containing the record
+         * @param position  the position of the record in the segment
+         */
+        private RecordLocation(long segmentId, int position) {
+            this.segmentId = segmentId;
+            this.position = position;
+        }
+    }
+
+    /**
+     * A memory-mapped segment file of the journal.
+     */
+    private static class Segment {
+
+        /**
+         * The identifier of the segment.
+         * <p>
+         * Segments are ordered by identifier.
+         */
+        private final long id;
+
+        /**
+         * The segment file.
+         */
+        private final File file;
+
+        /**
+         * The {@link FileChannel} of the segment file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The memory-mapped content of the segment file.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The position of the next record to write.
+         */
+        private int position;
+
+        /**
+         * Opens an existing segment file.
+         *
+         * @param file the segment file to open
+         * @return the opened {@link Segment}
+         * @throws IOException if an error occurred when opening the segment file
+         */
+        private static Segment open(File file) throws IOException {
+            String name = file.getName();
+            long id = Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(),
+                    name.length() - SEGMENT_FILE_EXTENSION.length()));
+            return new Segment(id, file, (int) file.length());
+        }
+
+        /**
+         * Creates a new segment file.
+         *
+         * @param file the segment file to create
+         * @param id   the identifier of the segment
+         * @param size the size (in bytes) of the segment
+         * @return the created {@link Segment}
+         * @throws IOException if an error occurred when creating the segment file
+         */
+        private static Segment create(File file, long id, int size) throws IOException {
+            return new Segment(id, file, size);
+        }
+
+        /**
+         * Creates a {@link Segment} mapping the provided {@code file}.
+         *
+         * @param id   the identifier of the segment
+         * @param file the segment file
+         * @param size the size (in bytes) of the mapped region
+         * @throws IOException if an error occurred when mapping the segment file
+         */
+        private Segment(long id, File file, int size) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            this.position = 0;
+        }
+
+        /**
+         * Returns the number of bytes that can be written in the segment.
+         *
+         * @return the number of bytes that can be written in the segment
+         */
+        private int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        /**
+         * Writes a record with the provided {@code payload} at the end of the segment.
+         * <p>
+         * The length of the record is written last, in order to never expose a partially written record.
+         *
+         * @param payload the payload of the record
+         * @return the position of the written record
+         */
+        private int write(byte[] payload) {
+            int recordPosition = position;
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer view = buffer.duplicate();
+            view.position(recordPosition + Integer.BYTES);
+            view.putInt((int) crc.getValue());
+            view.put(payload);
+            view.putInt(recordPosition, payload.length);
+            position = recordPosition + RECORD_HEADER_SIZE + payload.length;
+            return recordPosition;
+        }
+
+        /**
+         * Reads the payload of the record at the provided {@code recordPosition}.
+         *
+         * @param recordPosition the position of the record to read
+         * @return the payload of the record, or {@code null} if there is no valid record at the provided position
+         */
+        private @Nullable
+        byte[] read(int recordPosition) {
+            if (recordPosition + RECORD_HEADER_SIZE > buffer.capacity()) {
+                return null;
+            }
+            ByteBuffer view = buffer.duplicate();
+            int length = view.getInt(recordPosition);
+            if (length <= 0 || recordPosition + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                return null;
+            }
+            int checksum = view.getInt(recordPosition + Integer.BYTES);
+            byte[] payload = new byte[length];
+            view.position(recordPosition + RECORD_HEADER_SIZE);
+            view.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+            return payload;
+        }
+
+        /**
+         * Synchronizes the segment with the storage device.
+         */
+        private void force() {
+            buffer.force();
+        }
+
+        /**
+         * Synchronizes and closes the segment.
+         */
+        private void close() {
+            buffer.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.error(e, "Cannot close the journal segment {0}", file.getName());
+            }
+        }
+
+        /**
+         * Closes and deletes the segment file.
+         */
+        private void delete() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.error(e, "Cannot close the journal segment {0}", file.getName());
+            }
+            if (!file.delete()) {
+                Log.warn("Cannot delete the journal segment {0}", file.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.xatkit.core.journal;
+
+/**
+ * The policies used to synchronize the {@link EventJournal} with the storage device.
+ * <p>
+ * These policies allow to tune the journal between throughput and durability.
+ *
+ * @see JournalConfiguration#FSYNC_POLICY_KEY
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Synchronizes the journal after each record.
+     * <p>
+     * This policy ensures that no record is lost if the host crashes, but limits the throughput of the journal to
+     * the number of synchronizations the storage device can handle.
+     */
+    ALWAYS,
+    /**
+     * Synchronizes the journal periodically.
+     * <p>
+     * The records appended since the last synchronization may be lost if the host crashes (they are not lost if only
+     * the JVM crashes).
+     *
+     * @see JournalConfiguration#FSYNC_INTERVAL_KEY
+     */
+    INTERVAL,
+    /**
+     * Lets the operating system decide when to write the journal to the storage device.
+     * <p>
+     * The journal is still synchronized when a segment is full and when it is closed.
+     */
+    NEVER
+}
@@ -0,0 +1,218 @@
+package com.xatkit.core.journal;
+
+import com.xatkit.util.FileUtils;
+import lombok.NonNull;
+import lombok.Value;
+import org.apache.commons.configuration2.Configuration;
+
+import java.io.File;
+
+import static com.xatkit.core.recognition.RecognitionMonitorMapDB.DATA_DIRECTORY_KEY;
+import static com.xatkit.core.recognition.RecognitionMonitorMapDB.DEFAULT_DATA_DIRECTORY;
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Contains the configuration of the {@link EventJournal}.
+ * <p>
+ * This class can be initialized with a {@link Configuration} instance, and takes care of extracting the
+ * journal-related properties.
+ * <p>
+ * The base {@link Configuration} used to initialize this class can be accessed through {@link #getBaseConfiguration()}.
+ */
+@Value
+public class JournalConfiguration {
+
+    /**
+     * The {@link Configuration} key to enable the {@link EventJournal}.
+     * <p>
+     * This property is set to {@code false} by default.
+     */
+    public static final String ENABLED_KEY = "xatkit.journal.enabled";
+
+    /**
+     * The {@link Configuration} key to store the directory containing the journal segments.
+     * <p>
+     * This property is set to {@code <xatkit.data.directory>/journal} by default.
+     */
+    public static final String DIRECTORY_KEY = "xatkit.journal.directory";
+
+    /**
+     * The directory used to store the journal segments within the {@code data} directory.
+     */
+    static final String DEFAULT_JOURNAL_DIRECTORY = "journal";
+
+    /**
+     * The {@link Configuration} key to store the size (in bytes) of the journal segments.
+     * <p>
+     * This property is set to {@link #DEFAULT_SEGMENT_SIZE} by default.
+     */
+    public static final String SEGMENT_SIZE_KEY = "xatkit.journal.segment_size";
+
+    /**
+     * The default size (in bytes) of the journal segments.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The {@link Configuration} key to store the {@link FsyncPolicy} of the journal.
+     * <p>
+     * This property accepts the names of the {@link FsyncPolicy} values (case insensitive), and is set to
+     * {@link FsyncPolicy#INTERVAL} by default.
+     */
+    public static final String FSYNC_POLICY_KEY = "xatkit.journal.fsync";
+
+    /**
+     * The {@link Configuration} key to store the delay (in milliseconds) between two synchronizations of the
+     * journal with the storage device.
+     * <p>
+     * This property is only used with the {@link FsyncPolicy#INTERVAL} policy, and is set to
+     * {@link #DEFAULT_FSYNC_INTERVAL} by default.
+     */
+    public static final String FSYNC_INTERVAL_KEY = "xatkit.journal.fsync.interval";
+
+    /**
+     * The default delay (in milliseconds) between two synchronizations of the journal with the storage device.
+     */
+    public static final long DEFAULT_FSYNC_INTERVAL = 1000;
+
+    /**
+     * The {@link Configuration} key to store the number of events recorded for a session between two snapshots of
+     * this session.
+     * <p>
+     * This property is set to {@link #DEFAULT_SNAPSHOT_INTERVAL} by default.
+     */
+    public static final String SNAPSHOT_INTERVAL_KEY = "xatkit.journal.snapshot.interval";
+
+    /**
+     * The default number of events recorded for a session between two snapshots of this session.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 20;
+
+    /**
+     * The {@link Configuration} key to store the number of full segments that triggers a compaction of the journal.
+     * <p>
+     * This property is set to {@link #DEFAULT_COMPACTION_THRESHOLD} by default.
+     */
+    public static final String COMPACTION_THRESHOLD_KEY = "xatkit.journal.compaction.threshold";
+
+    /**
+     * The default number of full segments that triggers a compaction of the journal.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 4;
+
+    /**
+     * The {@link Configuration} key to store the time (in milliseconds) after which an inactive session is evicted
+     * from the journal.
+     * <p>
+     * Evicted sessions cannot be recovered, and their records are deleted by the next compaction. This property is
+     * set to {@link #DEFAULT_SESSION_TTL} by default.
+     */
+    public static final String SESSION_TTL_KEY = "xatkit.journal.session.ttl";
+
+    /**
+     * The default time (in milliseconds) after which an inactive session is evicted from the journal (7 days).
+     */
+    public static final long DEFAULT_SESSION_TTL = 7 * 24 * 60 * 60 * 1000L;
+
+    /**
+     * The base {@link Configuration} used to initialize the {@link JournalConfiguration}.
+     */
+    private Configuration baseConfiguration;
+
+    /**
+     * A flag indicating whether the {@link EventJournal} is enabled.
+     *
+     * @see #ENABLED_KEY
+     */
+    private boolean enabled;
+
+    /**
+     * The directory containing the journal segments.
+     *
+     * @see #DIRECTORY_KEY
+     */
+    private File directory;
+
+    /**
+     * The size (in bytes) of the journal segments.
+     *
+     * @see #SEGMENT_SIZE_KEY
+     */
+    private int segmentSize;
+
+    /**
+     * The {@link FsyncPolicy} of the journal.
+     *
+     * @see #FSYNC_POLICY_KEY
+     */
+    private FsyncPolicy fsyncPolicy;
+
+    /**
+     * The delay (in milliseconds) between two synchronizations of the journal with the storage device.
+     *
+     * @see #FSYNC_INTERVAL_KEY
+     */
+    private long fsyncInterval;
+
+    /**
+     * The number of events recorded for a session between two snapshots of this session.
+     *
+     * @see #SNAPSHOT_INTERVAL_KEY
+     */
+    private int snapshotInterval;
+
+    /**
+     * The number of full segments that triggers a compaction of the journal.
+     *
+     * @see #COMPACTION_THRESHOLD_KEY
+     */
+    private int compactionThreshold;
+
+    /**
+     * The time (in milliseconds) after which an inactive session is evicted from the journal.
+     *
+     * @see #SESSION_TTL_KEY
+     */
+    private long sessionTtl;
+
+    /**
+     * Initializes the {@link JournalConfiguration} with the provided {@code baseConfiguration}.
+     *
+     * @param baseConfiguration the {@link Configuration} to load the values from
+     * @throws NullPointerException     if the provided {@code baseConfiguration} is {@code null}
+     * @throws IllegalArgumentException if one of the provided values is invalid
+     */
+    public JournalConfiguration(@NonNull Configuration baseConfiguration) {
+        this.baseConfiguration = baseConfiguration;
+        this.enabled = baseConfiguration.getBoolean(ENABLED_KEY, false);
+        if (baseConfiguration.containsKey(DIRECTORY_KEY)) {
+            this.directory = FileUtils.getFile(baseConfiguration.getString(DIRECTORY_KEY), baseConfiguration);
+        } else {
+            String dataDirectoryPath = baseConfiguration.getString(DATA_DIRECTORY_KEY, DEFAULT_DATA_DIRECTORY);
+            this.directory = FileUtils.getFile(dataDirectoryPath + File.separator + DEFAULT_JOURNAL_DIRECTORY,
+                    baseConfiguration);
+        }
+        this.segmentSize = baseConfiguration.getInt(SEGMENT_SIZE_KEY, DEFAULT_SEGMENT_SIZE);
+        checkArgument(segmentSize > 0, "Invalid value for %s: expected a positive value, found %s",
+                SEGMENT_SIZE_KEY, segmentSize);
+        String fsyncPolicyName = baseConfiguration.getString(FSYNC_POLICY_KEY, FsyncPolicy.INTERVAL.name());
+        try {
+            this.fsyncPolicy = FsyncPolicy.valueOf(fsyncPolicyName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid value for %s: %s", FSYNC_POLICY_KEY,
+                    fsyncPolicyName), e);
+        }
+        this.fsyncInterval = baseConfiguration.getLong(FSYNC_INTERVAL_KEY, DEFAULT_FSYNC_INTERVAL);
+        checkArgument(fsyncInterval > 0, "Invalid value for %s: expected a positive value, found %s",
+                FSYNC_INTERVAL_KEY, fsyncInterval);
+        this.snapshotInterval = baseConfiguration.getInt(SNAPSHOT_INTERVAL_KEY, DEFAULT_SNAPSHOT_INTERVAL);
+        checkArgument(snapshotInterval > 0, "Invalid value for %s: expected a positive value, found %s",
+                SNAPSHOT_INTERVAL_KEY, snapshotInterval);
+        this.compactionThreshold = baseConfiguration.getInt(COMPACTION_THRESHOLD_KEY, DEFAULT_COMPACTION_THRESHOLD);
+        checkArgument(compactionThreshold > 0, "Invalid value for %s: expected a positive value, found %s",
+                COMPACTION_THRESHOLD_KEY, compactionThreshold);
+        this.sessionTtl = baseConfiguration.getLong(SESSION_TTL_KEY, DEFAULT_SESSION_TTL);
+        checkArgument(sessionTtl > 0, "Invalid value for %s: expected a positive value, found %s",
+                SESSION_TTL_KEY, sessionTtl);
+    }
+}
@@ -0,0 +1,250 @@
+package com.xatkit.core.journal;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A record of the {@link EventJournal}.
+ * <p>
+ * A record is either an {@link Type#EVENT} record storing an event handled in a session, the resulting state, and the
+ * session values updated by the event, or a {@link Type#SNAPSHOT} record storing the state and the session values
+ * of a session.
+ * <p>
+ * Session values are serialized in JSON, the type of numeric values is stored in {@link #getSessionTypes()} and
+ * restored by {@link #getSession()}.
+ */
+@Value
+public class JournalRecord {
+
+    /**
+     * The types of {@link JournalRecord}.
+     */
+    public enum Type {
+        /**
+         * A record storing an event handled in a session, the resulting state, and the updated session values.
+         */
+        EVENT,
+        /**
+         * A record storing the state and the session values of a session.
+         */
+        SNAPSHOT
+    }
+
+    /**
+     * The type of the record.
+     */
+    private Type type;
+
+    /**
+     * The identifier of the session.
+     */
+    private String contextId;
+
+    /**
+     * The time the record has been created.
+     */
+    private long timestamp;
+
+    /**
+     * The name of the handled event.
+     * <p>
+     * This value is {@code null} for {@link Type#SNAPSHOT} records.
+     */
+    @Nullable
+    private String eventName;
+
+    /**
+     * The values of the handled event's parameters.
+     */
+    private Map<String, String> parameters;
+
+    /**
+     * The name of the state of the session.
+     * <p>
+     * For {@link Type#EVENT} records this is the state reached after handling the event.
+     */
+    private String stateName;
+
+    /**
+     * The values of the session.
+     * <p>
+     * For {@link Type#EVENT} records this map only contains the values added or updated while handling the event.
+     */
+    private Map<String, Object> session;
+
+    /**
+     * The keys of the session values removed while handling the event.
+     * <p>
+     * This value is empty for {@link Type#SNAPSHOT} records.
+     */
+    private List<String> removedSessionKeys;
+
+    /**
+     * The type of the numeric values of {@link #session}.
+     * <p>
+     * {@link Double} values are not stored in this map, they are the default type of deserialized numbers.
+     */
+    private Map<String, String> sessionTypes;
+
+    /**
+     * Creates an {@link Type#EVENT} record.
+     *
+     * @param contextId          the identifier of the session
+     * @param eventName          the name of the handled event
+     * @param parameters         the values of the handled event's parameters
+     * @param stateName          the name of the state reached after handling the event
+     * @param updatedSession     the session values added or updated while handling the event
+     * @param removedSessionKeys the keys of the session values removed while handling the event
+     * @return the created record
+     * @throws NullPointerException if one of the provided parameters is {@code null}
+     */
+    public static JournalRecord event(@NonNull String contextId, @NonNull String eventName,
+                                      @NonNull Map<String, String> parameters, @NonNull String stateName,
+                                      @NonNull Map<String, Object> updatedSession,
+                                      @NonNull List<String> removedSessionKeys) {
+        return new JournalRecord(Type.EVENT, contextId, System.currentTimeMillis(), eventName, parameters, stateName,
+                updatedSession, removedSessionKeys, getNumberTypes(updatedSession));
+    }
+
+    /**
+     * Creates a {@link Type#SNAPSHOT} record.
+     *
+     * @param contextId the identifier of the session
+     * @param stateName the name of the state of the session
+     * @param session   the values of the session
+     * @return the created record
+     * @throws NullPointerException if the provided {@code contextId}, {@code stateName}, or {@code session} is
+     *                              {@code null}
+     */
+    public static JournalRecord snapshot(@NonNull String contextId, @NonNull String stateName,
+                                         @NonNull Map<String, Object> session) {
+        return snapshot(contextId, stateName, session, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a {@link Type#SNAPSHOT} record with the provided {@code timestamp}.
+     * <p>
+     * This method is used to rewrite a session without changing the time of its latest activity.
+     *
+     * @param contextId the identifier of the session
+     * @param stateName the name of the state of the session
+     * @param session   the values of the session
+     * @param timestamp the time of the latest activity of the session
+     * @return the created record
+     * @throws NullPointerException if the provided {@code contextId}, {@code stateName}, or {@code session} is
+     *                              {@code null}
+     */
+    public static JournalRecord snapshot(@NonNull String contextId, @NonNull String stateName,
+                                         @NonNull Map<String, Object> session, long timestamp) {
+        return new JournalRecord(Type.SNAPSHOT, contextId, timestamp, null, Collections.emptyMap(), stateName,
+                session, Collections.emptyList(), getNumberTypes(session));
+    }
+
+    /**
+     * Returns the type of the numeric values of the provided {@code session}.
+     *
+     * @param session the session values to retrieve the numeric types of
+     * @return the simple name of the class of each non-{@link Double} numeric value
+     */
+    private static Map<String, String> getNumberTypes(Map<String, Object> session) {
+        Map<String, String> types = new HashMap<>();
+        for (Map.Entry<String, Object> entry : session.entrySet()) {
+            if (entry.getValue() instanceof Number && !(entry.getValue() instanceof Double)) {
+                types.put(entry.getKey(), entry.getValue().getClass().getSimpleName());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Returns the values of the session.
+     * <p>
+     * This method never returns {@code null}, even for records deserialized without session values. Numeric values
+     * are returned with their recorded type ({@link Integer}, {@link Long}, {@link Short}, {@link Byte},
+     * {@link Float}, or {@link Double}). Other {@link Number} implementations are returned as {@link Double}s, and
+     * {@link Long} values are restored from their JSON representation, losing precision beyond 2<sup>53</sup>.
+     *
+     * @return the values of the session
+     */
+    public Map<String, Object> getSession() {
+        if (isNull(session)) {
+            return Collections.emptyMap();
+        }
+        if (getSessionTypes().isEmpty()) {
+            return session;
+        }
+        Map<String, Object> typedSession = new HashMap<>(session);
+        for (Map.Entry<String, String> type : sessionTypes.entrySet()) {
+            Object value = typedSession.get(type.getKey());
+            if (value instanceof Number) {
+                typedSession.put(type.getKey(), toType((Number) value, type.getValue()));
+            }
+        }
+        return typedSession;
+    }
+
+    /**
+     * Converts the provided {@code value} to the numeric type with the provided {@code typeName}.
+     *
+     * @param value    the value to convert
+     * @param typeName the simple name of the numeric type to convert the value to
+     * @return the converted value, or a {@link Double} if the type is not supported
+     */
+    private static Number toType(Number value, String typeName) {
+        switch (typeName) {
+            case "Integer":
+                return value.intValue();
+            case "Long":
+                return value.longValue();
+            case "Short":
+                return value.shortValue();
+            case "Byte":
+                return value.byteValue();
+            case "Float":
+                return value.floatValue();
+            default:
+                return value.doubleValue();
+        }
+    }
+
+    /**
+     * Returns the keys of the session values removed while handling the event.
+     * <p>
+     * This method never returns {@code null}, even for records deserialized without removed keys.
+     *
+     * @return the keys of the removed session values
+     */
+    public List<String> getRemovedSessionKeys() {
+        return isNull(removedSessionKeys) ? Collections.emptyList() : removedSessionKeys;
+    }
+
+    /**
+     * Returns the type of the numeric values of the session.
+     * <p>
+     * This method never returns {@code null}, even for records deserialized without session types.
+     *
+     * @return the simple name of the class of each non-{@link Double} numeric value of the session
+     */
+    public Map<String, String> getSessionTypes() {
+        return isNull(sessionTypes) ? Collections.emptyMap() : sessionTypes;
+    }
+
+    /**
+     * Returns the values of the handled event's parameters.
+     * <p>
+     * This method never returns {@code null}, even for records deserialized without parameters.
+     *
+     * @return the values of the handled event's parameters
+     */
+    public Map<String, String> getParameters() {
+        return isNull(parameters) ? Collections.emptyMap() : parameters;
+    }
+}
@@ -0,0 +1,141 @@
+package com.xatkit.core.load;
+
+import com.xatkit.core.XatkitException;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * A sequence of user utterances replayed by the {@link LoadGenerator}.
+ * <p>
+ * Scripts can be loaded from a text file with {@link #load(File)}. Each line of the file is an utterance, and
+ * conversations are separated by blank lines. Lines starting with {@code #} are comments, a comment placed before
+ * the first utterance of a conversation is used as its name:
+ * <pre>
+ * # greetings
+ * Hi
+ * How are you?
+ *
+ * # order
+ * I want a pizza
+ * A large one
+ * </pre>
+ */
+@Value
+public class ConversationScript {
+
+    /**
+     * The name of the script.
+     */
+    private String name;
+
+    /**
+     * The utterances of the script, in the order they are sent.
+     */
+    private List<String> utterances;
+
+    /**
+     * Creates a {@link ConversationScript} with the provided {@code name} and {@code utterances}.
+     *
+     * @param name       the name of the script
+     * @param utterances the utterances of the script
+     * @throws NullPointerException     if the provided {@code name} or {@code utterances} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code utterances} is empty or contains an empty utterance
+     */
+    public ConversationScript(@NonNull String name, @NonNull List<String> utterances) {
+        checkArgument(!utterances.isEmpty(), "Cannot create the script %s: the script must contain at least one "
+                + "utterance", name);
+        for (String utterance : utterances) {
+            checkArgument(!utterance.trim().isEmpty(), "Cannot create the script %s: the script contains an empty "
+                    + "utterance", name);
+        }
+        this.name = name;
+        this.utterances = Collections.unmodifiableList(new ArrayList<>(utterances));
+    }
+
+    /**
+     * Loads the {@link ConversationScript}s defined in the provided {@code file}.
+     *
+     * @param file the file containing the scripts
+     * @return the loaded {@link ConversationScript}s
+     * @throws NullPointerException     if the provided {@code file} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code file} does not contain any script
+     * @throws XatkitException          if an error occurred when reading the {@code file}
+     */
+    public static List<ConversationScript> load(@NonNull File file) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot load the conversation scripts from {0}",
+                    file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Parses the {@link ConversationScript}s from the provided {@code reader}.
+     *
+     * @param reader the {@link Reader} to parse the scripts from
+     * @return the parsed {@link ConversationScript}s
+     * @throws NullPointerException     if the provided {@code reader} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code reader} does not contain any script
+     * @throws IOException              if an error occurred when reading the {@code reader}
+     * @see #load(File)
+     */
+    public static List<ConversationScript> parse(@NonNull Reader reader) throws IOException {
+        List<ConversationScript> result = new ArrayList<>();
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String name = null;
+        List<String> utterances = new ArrayList<>();
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                addScript(result, name, utterances);
+                name = null;
+                utterances.clear();
+            } else if (trimmed.startsWith("#")) {
+                if (utterances.isEmpty()) {
+                    name = trimmed.substring(1).trim();
+                }
+            } else {
+                utterances.add(trimmed);
+            }
+        }
+        addScript(result, name, utterances);
+        checkArgument(!result.isEmpty(), "Cannot parse the conversation scripts: the input does not contain any "
+                + "utterance");
+        return result;
+    }
+
+    /**
+     * Adds a {@link ConversationScript} with the provided {@code name} and {@code utterances} to the provided {@code
+     * scripts}.
+     * <p>
+     * This method does nothing if the provided {@code utterances} is empty. Scripts without name are named after
+     * their position.
+     *
+     * @param scripts    the list to add the script to
+     * @param name       the name of the script
+     * @param utterances the utterances of the script
+     */
+    private static void addScript(List<ConversationScript> scripts, String name, List<String> utterances) {
+        if (utterances.isEmpty()) {
+            return;
+        }
+        String scriptName = (isNull(name) || name.isEmpty()) ? "conversation-" + (scripts.size() + 1) : name;
+        scripts.add(new ConversationScript(scriptName, utterances));
+    }
+}
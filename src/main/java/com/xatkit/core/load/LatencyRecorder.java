@@ -0,0 +1,119 @@
+package com.xatkit.core.load;
+
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Records the latencies of a stage measured by the {@link LoadGenerator}.
+ * <p>
+ * This class stores all the recorded values (in microseconds) to compute exact percentiles. This class is
+ * thread-safe.
+ */
+public class LatencyRecorder {
+
+    /**
+     * The recorded latencies (in microseconds).
+     * <p>
+     * Only the first {@link #count} values are valid.
+     */
+    private long[] values = new long[1024];
+
+    /**
+     * The number of recorded latencies.
+     */
+    private int count;
+
+    /**
+     * Records the provided {@code latency}.
+     *
+     * @param latency the latency (in microseconds) to record
+     * @throws IllegalArgumentException if the provided {@code latency} is negative
+     */
+    public synchronized void record(long latency) {
+        checkArgument(latency >= 0, "Cannot record the latency %s: expected a positive value", latency);
+        if (count == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[count++] = latency;
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the provided {@code percentile} of the recorded latencies.
+     * <p>
+     * This method uses the nearest-rank method, and returns {@code 0} if no latency has been recorded.
+     *
+     * @param percentile the percentile to compute (between {@code 0} and {@code 100})
+     * @return the latency (in microseconds) of the provided {@code percentile}
+     * @throws IllegalArgumentException if the provided {@code percentile} is not between {@code 0} and {@code 100}
+     */
+    public synchronized long getPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "Cannot compute the percentile %s: expected a value "
+                + "between 0 and 100", percentile);
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return the mean latency (in microseconds), or {@code 0} if no latency has been recorded
+     */
+    public synchronized double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * Returns the maximum recorded latency.
+     *
+     * @return the maximum latency (in microseconds), or {@code 0} if no latency has been recorded
+     */
+    public synchronized long getMax() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns a {@link JsonObject} containing the statistics of the recorded latencies.
+     * <p>
+     * The latencies of the returned object are expressed in milliseconds.
+     *
+     * @return the {@link JsonObject} representing the recorded latencies
+     */
+    public JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("count", getCount());
+        result.addProperty("mean", getMean() / 1000);
+        result.addProperty("p50", getPercentile(50) / 1000d);
+        result.addProperty("p90", getPercentile(90) / 1000d);
+        result.addProperty("p99", getPercentile(99) / 1000d);
+        result.addProperty("max", getMax() / 1000d);
+        return result;
+    }
+}
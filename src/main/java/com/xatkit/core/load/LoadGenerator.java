@@ -0,0 +1,234 @@
+package com.xatkit.core.load;
+
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.XatkitException;
+import com.xatkit.core.platform.io.IntentRecognitionHelper;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.RecognizedIntent;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.nonNull;
+
+/**
+ * Drives simulated conversations against a running {@link XatkitBot} and measures its performance.
+ * <p>
+ * The generator replays the provided {@link ConversationScript}s in {@link LoadGeneratorConfiguration#getConversations()}
+ * conversations, {@link LoadGeneratorConfiguration#getConcurrency()} of them running concurrently. Each conversation
+ * uses its own {@link StateContext}, and sends its utterances sequentially: an utterance is sent once the previous
+ * one has been fully processed by the bot. The generator measures the following stages for each utterance:
+ * <ul>
+ *     <li>{@link #RECOGNITION_STAGE}: the intent recognition (see
+ *     {@link IntentRecognitionHelper#getRecognizedIntent(String, StateContext, XatkitBot)})</li>
+ *     <li>{@link #EXECUTION_STAGE}: the processing of the recognized intent by the
+ *     {@link com.xatkit.core.ExecutionService}, including the time spent waiting for the execution thread</li>
+ *     <li>{@link #TOTAL_STAGE}: the end-to-end processing of the utterance</li>
+ * </ul>
+ * The heap usage is sampled during the run, and the results are returned in a {@link LoadReport} (and written to
+ * {@link LoadGeneratorConfiguration#getReportFile()} if it is set).
+ * <p>
+ * The generator bypasses the {@link com.xatkit.core.platform.io.RuntimeEventProvider}s of the bot: the bot should be
+ * started with an {@link com.xatkit.core.recognition.IntentRecognitionProvider} that does not require network
+ * accesses (e.g. the RegEx provider) to measure the bot itself, and with a non-clustered configuration. The created
+ * contexts are removed from the bot at the end of their conversation.
+ */
+public class LoadGenerator {
+
+    /**
+     * The name of the stage measuring the intent recognition.
+     */
+    public static final String RECOGNITION_STAGE = "recognition";
+
+    /**
+     * The name of the stage measuring the processing of the recognized intent.
+     */
+    public static final String EXECUTION_STAGE = "execution";
+
+    /**
+     * The name of the stage measuring the end-to-end processing of an utterance.
+     */
+    public static final String TOTAL_STAGE = "total";
+
+    /**
+     * The delay (in milliseconds) between two samples of the heap usage.
+     */
+    private static final long HEAP_SAMPLING_INTERVAL = 100;
+
+    /**
+     * The prefix of the identifiers of the {@link StateContext}s created by the generator.
+     */
+    private static final String CONTEXT_PREFIX = "xatkit-load-";
+
+    /**
+     * The {@link XatkitBot} to send the utterances to.
+     */
+    private final XatkitBot xatkitBot;
+
+    /**
+     * The scripts replayed by the simulated conversations.
+     */
+    private final List<ConversationScript> scripts;
+
+    /**
+     * The configuration of the generator.
+     */
+    private final LoadGeneratorConfiguration configuration;
+
+    /**
+     * Creates a {@link LoadGenerator} replaying the provided {@code scripts} against the provided {@code xatkitBot}.
+     *
+     * @param xatkitBot     the {@link XatkitBot} to send the utterances to
+     * @param scripts       the {@link ConversationScript}s to replay
+     * @param configuration the configuration of the generator
+     * @throws NullPointerException     if one of the provided parameters is {@code null}
+     * @throws IllegalArgumentException if the provided {@code scripts} is empty
+     */
+    public LoadGenerator(@NonNull XatkitBot xatkitBot, @NonNull List<ConversationScript> scripts,
+                         @NonNull LoadGeneratorConfiguration configuration) {
+        checkArgument(!scripts.isEmpty(), "Cannot create the %s: at least one %s is required",
+                LoadGenerator.class.getSimpleName(), ConversationScript.class.getSimpleName());
+        this.xatkitBot = xatkitBot;
+        this.scripts = new ArrayList<>(scripts);
+        this.configuration = configuration;
+    }
+
+    /**
+     * Runs the simulated conversations and returns the measured {@link LoadReport}.
+     * <p>
+     * This method blocks until all the conversations are completed.
+     *
+     * @return the {@link LoadReport} of the run
+     * @throws IllegalStateException if the bot is not ready
+     * @throws XatkitException       if the run is interrupted, or if an error occurred when writing the report
+     */
+    public LoadReport run() {
+        checkState(xatkitBot.isReady(), "Cannot run the %s: the bot is not ready", this.getClass().getSimpleName());
+        Map<String, LatencyRecorder> stages = new LinkedHashMap<>();
+        stages.put(RECOGNITION_STAGE, new LatencyRecorder());
+        stages.put(EXECUTION_STAGE, new LatencyRecorder());
+        stages.put(TOTAL_STAGE, new LatencyRecorder());
+        AtomicInteger utterances = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long initialHeap = getUsedHeap();
+        AtomicLong maxHeap = new AtomicLong(initialHeap);
+        ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "xatkit-load-heap-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heapSampler.scheduleAtFixedRate(() -> maxHeap.accumulateAndGet(getUsedHeap(), Math::max), 0,
+                HEAP_SAMPLING_INTERVAL, TimeUnit.MILLISECONDS);
+        ExecutorService conversationExecutor = Executors.newFixedThreadPool(configuration.getConcurrency());
+        String runId = CONTEXT_PREFIX + System.currentTimeMillis() + "-";
+        Log.info("Starting {0} conversation(s) ({1} concurrent conversation(s))", configuration.getConversations(),
+                configuration.getConcurrency());
+        long start = System.currentTimeMillis();
+        try {
+            for (int i = 0; i < configuration.getConversations(); i++) {
+                ConversationScript script = scripts.get(i % scripts.size());
+                String contextId = runId + i;
+                conversationExecutor.submit(() -> runConversation(contextId, script, stages, utterances, errors));
+            }
+            conversationExecutor.shutdown();
+            while (!conversationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                Log.debug("{0} utterance(s) processed", utterances.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new XatkitException("The load generation has been interrupted", e);
+        } finally {
+            conversationExecutor.shutdownNow();
+            heapSampler.shutdownNow();
+        }
+        long duration = System.currentTimeMillis() - start;
+        long finalHeap = getUsedHeap();
+        LoadReport report = new LoadReport(stages, configuration.getConversations(), utterances.get(),
+                errors.get(), duration, initialHeap, Math.max(maxHeap.get(), finalHeap), finalHeap);
+        Log.info("Load generation completed: {0}", report);
+        if (nonNull(configuration.getReportFile())) {
+            report.write(configuration.getReportFile());
+            Log.info("Load report written to {0}", configuration.getReportFile().getAbsolutePath());
+        }
+        return report;
+    }
+
+    /**
+     * Replays the provided {@code script} in the {@link StateContext} with the provided {@code contextId}.
+     * <p>
+     * The conversation ends after its last utterance, or after the first utterance that is not processed within
+     * {@link LoadGeneratorConfiguration#getTimeout()} milliseconds.
+     *
+     * @param contextId  the identifier of the {@link StateContext} of the conversation
+     * @param script     the {@link ConversationScript} to replay
+     * @param stages     the {@link LatencyRecorder}s of the measured stages
+     * @param utterances the counter of processed utterances
+     * @param errors     the counter of failed utterances
+     */
+    private void runConversation(String contextId, ConversationScript script, Map<String, LatencyRecorder> stages,
+                                 AtomicInteger utterances, AtomicInteger errors) {
+        try {
+            StateContext context = xatkitBot.getOrCreateContext(contextId);
+            for (String utterance : script.getUtterances()) {
+                long start = System.nanoTime();
+                try {
+                    RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent(utterance,
+                            context, xatkitBot);
+                    long recognized = System.nanoTime();
+                    xatkitBot.getExecutionService().handleEventInstance(recognizedIntent, context)
+                            .get(configuration.getTimeout(), TimeUnit.MILLISECONDS);
+                    long end = System.nanoTime();
+                    stages.get(RECOGNITION_STAGE).record(TimeUnit.NANOSECONDS.toMicros(recognized - start));
+                    stages.get(EXECUTION_STAGE).record(TimeUnit.NANOSECONDS.toMicros(end - recognized));
+                    stages.get(TOTAL_STAGE).record(TimeUnit.NANOSECONDS.toMicros(end - start));
+                } catch (IntentRecognitionProviderException | ExecutionException | RuntimeException e) {
+                    errors.incrementAndGet();
+                    Log.error(e, "Cannot process the utterance \"{0}\" of conversation {1}", utterance,
+                            script.getName());
+                } catch (TimeoutException e) {
+                    errors.incrementAndGet();
+                    Log.error("The utterance \"{0}\" of conversation {1} has not been processed within {2}ms, ending "
+                            + "the conversation", utterance, script.getName(), configuration.getTimeout());
+                    return;
+                } finally {
+                    utterances.incrementAndGet();
+                }
+                if (configuration.getThinkTime() > 0) {
+                    Thread.sleep(configuration.getThinkTime());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            Log.error(e, "Cannot start the conversation {0}", script.getName());
+        } finally {
+            xatkitBot.removeContext(contextId);
+        }
+    }
+
+    /**
+     * Returns the heap usage of the JVM.
+     *
+     * @return the heap usage (in bytes)
+     */
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
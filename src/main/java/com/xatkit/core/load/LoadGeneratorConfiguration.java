@@ -0,0 +1,146 @@
+package com.xatkit.core.load;
+
+import lombok.NonNull;
+import lombok.Value;
+import org.apache.commons.configuration2.Configuration;
+
+import javax.annotation.Nullable;
+import java.io.File;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Contains the configuration of the {@link LoadGenerator}.
+ * <p>
+ * This class can be initialized with a {@link Configuration} instance, and takes care of extracting the
+ * load-related properties.
+ * <p>
+ * The base {@link Configuration} used to initialize this class can be accessed through {@link #getBaseConfiguration()}.
+ */
+@Value
+public class LoadGeneratorConfiguration {
+
+    /**
+     * The {@link Configuration} key to store the number of simulated conversations.
+     * <p>
+     * The {@link ConversationScript}s are assigned to the conversations in a round-robin fashion. This property is
+     * set to {@link #DEFAULT_CONVERSATIONS} by default.
+     */
+    public static final String CONVERSATIONS_KEY = "xatkit.load.conversations";
+
+    /**
+     * The default number of simulated conversations.
+     */
+    public static final int DEFAULT_CONVERSATIONS = 1000;
+
+    /**
+     * The {@link Configuration} key to store the number of conversations running concurrently.
+     * <p>
+     * This property is set to {@link #DEFAULT_CONCURRENCY} by default.
+     */
+    public static final String CONCURRENCY_KEY = "xatkit.load.concurrency";
+
+    /**
+     * The default number of conversations running concurrently.
+     */
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+    /**
+     * The {@link Configuration} key to store the delay (in milliseconds) between the processing of an utterance and
+     * the next utterance of the same conversation.
+     * <p>
+     * This property is set to {@code 0} by default.
+     */
+    public static final String THINK_TIME_KEY = "xatkit.load.think_time";
+
+    /**
+     * The {@link Configuration} key to store the maximum time (in milliseconds) to wait for the processing of an
+     * utterance.
+     * <p>
+     * Utterances that are not processed within this delay are counted as errors, and end their conversation. This
+     * property is set to {@link #DEFAULT_TIMEOUT} by default.
+     */
+    public static final String TIMEOUT_KEY = "xatkit.load.timeout";
+
+    /**
+     * The default maximum time (in milliseconds) to wait for the processing of an utterance.
+     */
+    public static final long DEFAULT_TIMEOUT = 30000;
+
+    /**
+     * The {@link Configuration} key to store the path of the file to write the {@link LoadReport} to.
+     * <p>
+     * This property is optional, the report is only returned by {@link LoadGenerator#run()} if it is not set.
+     */
+    public static final String REPORT_FILE_KEY = "xatkit.load.report";
+
+    /**
+     * The base {@link Configuration} used to initialize the {@link LoadGeneratorConfiguration}.
+     */
+    private Configuration baseConfiguration;
+
+    /**
+     * The number of simulated conversations.
+     *
+     * @see #CONVERSATIONS_KEY
+     */
+    private int conversations;
+
+    /**
+     * The number of conversations running concurrently.
+     *
+     * @see #CONCURRENCY_KEY
+     */
+    private int concurrency;
+
+    /**
+     * The delay (in milliseconds) between the processing of an utterance and the next utterance of the same
+     * conversation.
+     *
+     * @see #THINK_TIME_KEY
+     */
+    private long thinkTime;
+
+    /**
+     * The maximum time (in milliseconds) to wait for the processing of an utterance.
+     *
+     * @see #TIMEOUT_KEY
+     */
+    private long timeout;
+
+    /**
+     * The file to write the {@link LoadReport} to.
+     *
+     * @see #REPORT_FILE_KEY
+     */
+    @Nullable
+    private File reportFile;
+
+    /**
+     * Initializes the {@link LoadGeneratorConfiguration} with the provided {@code baseConfiguration}.
+     *
+     * @param baseConfiguration the {@link Configuration} to load the values from
+     * @throws NullPointerException     if the provided {@code baseConfiguration} is {@code null}
+     * @throws IllegalArgumentException if one of the provided values is invalid
+     */
+    public LoadGeneratorConfiguration(@NonNull Configuration baseConfiguration) {
+        this.baseConfiguration = baseConfiguration;
+        this.conversations = baseConfiguration.getInt(CONVERSATIONS_KEY, DEFAULT_CONVERSATIONS);
+        checkArgument(conversations > 0, "Invalid value for %s: expected a positive value, found %s",
+                CONVERSATIONS_KEY, conversations);
+        this.concurrency = baseConfiguration.getInt(CONCURRENCY_KEY, DEFAULT_CONCURRENCY);
+        checkArgument(concurrency > 0, "Invalid value for %s: expected a positive value, found %s",
+                CONCURRENCY_KEY, concurrency);
+        this.thinkTime = baseConfiguration.getLong(THINK_TIME_KEY, 0);
+        checkArgument(thinkTime >= 0, "Invalid value for %s: expected a positive value, found %s",
+                THINK_TIME_KEY, thinkTime);
+        this.timeout = baseConfiguration.getLong(TIMEOUT_KEY, DEFAULT_TIMEOUT);
+        checkArgument(timeout > 0, "Invalid value for %s: expected a positive value, found %s", TIMEOUT_KEY,
+                timeout);
+        if (baseConfiguration.containsKey(REPORT_FILE_KEY)) {
+            this.reportFile = new File(baseConfiguration.getString(REPORT_FILE_KEY));
+        } else {
+            this.reportFile = null;
+        }
+    }
+}
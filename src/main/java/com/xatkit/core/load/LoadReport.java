@@ -0,0 +1,174 @@
+package com.xatkit.core.load;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.xatkit.core.XatkitException;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The results of a {@link LoadGenerator} run.
+ * <p>
+ * The report contains the latencies of each measured stage (see {@link LoadGenerator}), the throughput of the bot,
+ * and the heap usage sampled during the run.
+ */
+public class LoadReport {
+
+    /**
+     * The {@link LatencyRecorder}s of the measured stages, indexed by stage name.
+     */
+    private final Map<String, LatencyRecorder> stages = new LinkedHashMap<>();
+
+    /**
+     * The number of simulated conversations.
+     */
+    @Getter
+    private final int conversations;
+
+    /**
+     * The number of utterances that have been processed.
+     */
+    @Getter
+    private final int utterances;
+
+    /**
+     * The number of utterances that failed (recognition error, timeout, etc).
+     */
+    @Getter
+    private final int errors;
+
+    /**
+     * The duration (in milliseconds) of the run.
+     */
+    @Getter
+    private final long duration;
+
+    /**
+     * The heap usage (in bytes) when the run started.
+     */
+    @Getter
+    private final long initialHeap;
+
+    /**
+     * The maximum heap usage (in bytes) sampled during the run.
+     */
+    @Getter
+    private final long maxHeap;
+
+    /**
+     * The heap usage (in bytes) when the run ended.
+     */
+    @Getter
+    private final long finalHeap;
+
+    /**
+     * Creates a {@link LoadReport} with the provided values.
+     *
+     * @param stages        the {@link LatencyRecorder}s of the measured stages
+     * @param conversations the number of simulated conversations
+     * @param utterances    the number of processed utterances
+     * @param errors        the number of utterances that failed
+     * @param duration      the duration (in milliseconds) of the run
+     * @param initialHeap   the heap usage (in bytes) when the run started
+     * @param maxHeap       the maximum heap usage (in bytes) sampled during the run
+     * @param finalHeap     the heap usage (in bytes) when the run ended
+     */
+    LoadReport(@NonNull Map<String, LatencyRecorder> stages, int conversations, int utterances, int errors,
+               long duration, long initialHeap, long maxHeap, long finalHeap) {
+        this.stages.putAll(stages);
+        this.conversations = conversations;
+        this.utterances = utterances;
+        this.errors = errors;
+        this.duration = duration;
+        this.initialHeap = initialHeap;
+        this.maxHeap = maxHeap;
+        this.finalHeap = finalHeap;
+    }
+
+    /**
+     * Returns the {@link LatencyRecorder}s of the measured stages, indexed by stage name.
+     *
+     * @return an unmodifiable {@link Map} containing the {@link LatencyRecorder}s
+     * @see LoadGenerator#RECOGNITION_STAGE
+     * @see LoadGenerator#EXECUTION_STAGE
+     * @see LoadGenerator#TOTAL_STAGE
+     */
+    public Map<String, LatencyRecorder> getStages() {
+        return Collections.unmodifiableMap(stages);
+    }
+
+    /**
+     * Returns the number of utterances processed per second.
+     *
+     * @return the throughput of the bot
+     */
+    public double getThroughput() {
+        if (duration == 0) {
+            return utterances;
+        }
+        return utterances * 1000d / duration;
+    }
+
+    /**
+     * Returns a {@link JsonObject} representing the report.
+     *
+     * @return the {@link JsonObject} representing the report
+     */
+    public JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("conversations", conversations);
+        result.addProperty("utterances", utterances);
+        result.addProperty("errors", errors);
+        result.addProperty("duration", duration);
+        result.addProperty("throughput", getThroughput());
+        JsonObject stagesObject = new JsonObject();
+        stages.forEach((name, recorder) -> stagesObject.add(name, recorder.toJson()));
+        result.add("latencies", stagesObject);
+        JsonObject heapObject = new JsonObject();
+        heapObject.addProperty("initial", initialHeap);
+        heapObject.addProperty("max", maxHeap);
+        heapObject.addProperty("final", finalHeap);
+        result.add("heap", heapObject);
+        return result;
+    }
+
+    /**
+     * Writes the report to the provided {@code file} in JSON.
+     *
+     * @param file the file to write the report to
+     * @throws NullPointerException if the provided {@code file} is {@code null}
+     * @throws XatkitException      if an error occurred when writing the {@code file}
+     */
+    public void write(@NonNull File file) {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(toJson(), writer);
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot write the load report to {0}",
+                    file.getAbsolutePath()), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(MessageFormat.format("{0} conversation(s), {1} utterance(s), {2} error(s) in {3}ms ({4} "
+                + "utterance(s)/s)", conversations, utterances, errors, duration, String.format("%.2f",
+                getThroughput())));
+        stages.forEach((name, recorder) -> sb.append(MessageFormat.format("\n{0}: p50={1}ms, p99={2}ms, max={3}ms",
+                name, recorder.getPercentile(50) / 1000d, recorder.getPercentile(99) / 1000d,
+                recorder.getMax() / 1000d)));
+        sb.append(MessageFormat.format("\nheap: initial={0}MB, max={1}MB, final={2}MB", initialHeap / (1024 * 1024),
+                maxHeap / (1024 * 1024), finalHeap / (1024 * 1024)));
+        return sb.toString();
+    }
+}
@@ -6,9 +6,15 @@ import fr.inria.atlanmod.commons.log.Log;
 import lombok.Getter;
 import lombok.NonNull;
 
+import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.Objects.nonNull;
 
 /**
  * Wraps an executable action performed by a bot.
@@ -93,6 +99,53 @@ public abstract class RuntimeAction<T extends RuntimePlatform> implements Callab
         return new RuntimeActionResult(computationResult, callThrowable, (after - before));
     }
 
+    /**
+     * Runs the {@link RuntimeAction} asynchronously and returns a {@link CompletionStage} completed with its result.
+     * <p>
+     * This method relies on {@link #computeAsync()}, and does not block the calling thread if the underlying
+     * computation is asynchronous (e.g. an HTTP request sent with a non-blocking client). As for {@link #call()},
+     * the returned stage is not completed exceptionally if the computation fails: exceptions thrown during the
+     * computation can be accessed through the {@link RuntimeActionResult#getThrowable()} method.
+     *
+     * @return a {@link CompletionStage} completed with the {@link RuntimeActionResult} of the computation
+     * @see #computeAsync()
+     */
+    public CompletionStage<RuntimeActionResult> callAsync() {
+        long before = System.currentTimeMillis();
+        CompletionStage<Object> computation;
+        try {
+            computation = computeAsync();
+        } catch (Throwable e) {
+            CompletableFuture<Object> failedComputation = new CompletableFuture<>();
+            failedComputation.completeExceptionally(e);
+            computation = failedComputation;
+        }
+        return computation.handle((computationResult, throwable) -> {
+            long after = System.currentTimeMillis();
+            Throwable callThrowable = unwrapCompletionThrowable(throwable);
+            if (nonNull(callThrowable)) {
+                Log.error("An error occurred when executing the action {0}", this.getClass().getSimpleName());
+                printStackTrace(callThrowable);
+            }
+            Log.info("Action {0} executed in {1} ms", this.getClass().getSimpleName(), (after - before));
+            return new RuntimeActionResult(computationResult, callThrowable, (after - before));
+        });
+    }
+
+    /**
+     * Returns the cause of the provided {@code throwable} if it is a {@link CompletionException}.
+     *
+     * @param throwable the {@link Throwable} to unwrap
+     * @return the cause of the {@code throwable} if it is a {@link CompletionException}, the {@code throwable}
+     * otherwise
+     */
+    protected static @Nullable Throwable unwrapCompletionThrowable(@Nullable Throwable throwable) {
+        if (throwable instanceof CompletionException && nonNull(throwable.getCause())) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
     /**
      * Prints the stack trace of the provided {@code throwable} in the default output.
      * @param throwable the {@link Throwable} to print the stack trace of
@@ -118,4 +171,25 @@ public abstract class RuntimeAction<T extends RuntimePlatform> implements Callab
      */
     protected abstract Object compute() throws Exception;
 
+    /**
+     * The asynchronous implementation of the {@link RuntimeAction}'s computation.
+     * <p>
+     * This method is internally called by the {@link #callAsync()} method. The default implementation calls
+     * {@link #compute()} in the calling thread and returns a completed stage. Subclasses performing I/O operations
+     * (e.g. sending an HTTP request) can override this method to return a stage completed once the operation is done,
+     * without blocking a thread while waiting for it.
+     *
+     * @return a {@link CompletionStage} completed with the raw result of the {@link RuntimeAction}'s computation, or
+     * completed exceptionally if an error occurred
+     */
+    protected CompletionStage<Object> computeAsync() {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        try {
+            result.complete(compute());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
 }
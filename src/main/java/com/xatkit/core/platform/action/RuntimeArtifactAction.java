@@ -9,6 +9,12 @@ import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.nonNull;
 
@@ -54,6 +60,31 @@ public abstract class RuntimeArtifactAction<T extends RuntimePlatform> extends R
      */
     private static int RETRY_WAIT_TIME = 500;
 
+    /**
+     * The {@link ScheduledExecutorService} used to wait for the message delay and the retry delays in
+     * {@link #callAsync()}.
+     * <p>
+     * The scheduler only submits the computations to the {@link #COMPUTATION_EXECUTOR} once the delay is elapsed, it
+     * never runs them: a blocking {@link #computeAsync()} implementation cannot delay the other scheduled actions.
+     */
+    private static final ScheduledExecutorService DELAY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "xatkit-artifact-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The {@link ExecutorService} running the computations scheduled by the {@link #DELAY_SCHEDULER}.
+     * <p>
+     * The default {@link #computeAsync()} implementation calls {@link #compute()} in the calling thread, this
+     * executor creates new threads if all the existing ones are blocked by such computations.
+     */
+    private static final ExecutorService COMPUTATION_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "xatkit-artifact-computation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * The message delay to apply for this specific {@link RuntimeArtifactAction}.
      * <p>
@@ -205,6 +236,66 @@ public abstract class RuntimeArtifactAction<T extends RuntimePlatform> extends R
         return new RuntimeActionResult(computationResult, thrownException, (after - before));
     }
 
+    /**
+     * Runs the {@link RuntimeArtifactAction} asynchronously and returns a {@link CompletionStage} completed with its
+     * result.
+     * <p>
+     * This method is the asynchronous equivalent of {@link #call()}: it applies the message delay and retries to
+     * send the artifact if an {@link IOException} occurred. The delays are scheduled and do not block the calling
+     * thread, and the artifact is sent with {@link #computeAsync()} in a dedicated thread pool.
+     *
+     * @return a {@link CompletionStage} completed with the {@link RuntimeActionResult} of the computation
+     * @see #call()
+     */
+    @Override
+    public CompletionStage<RuntimeActionResult> callAsync() {
+        CompletableFuture<RuntimeActionResult> result = new CompletableFuture<>();
+        this.attemptAsync(1, System.currentTimeMillis(), result);
+        return result;
+    }
+
+    /**
+     * Attempts to send the artifact asynchronously.
+     * <p>
+     * This method schedules a new attempt if an {@link IOException} occurred and the maximum number of attempts has
+     * not been reached, and completes the provided {@code result} otherwise.
+     *
+     * @param attempt the number of the attempt (starting at {@code 1})
+     * @param before  the time (in ms) the first attempt started
+     * @param result  the {@link CompletableFuture} to complete with the {@link RuntimeActionResult}
+     */
+    private void attemptAsync(int attempt, long before, CompletableFuture<RuntimeActionResult> result) {
+        /*
+         * Same waiting time as call(): the message delay, plus (attempt - 1) * RETRY_WAIT_TIME for the retries.
+         */
+        long waitTime = messageDelay + (long) (attempt - 1) * RETRY_WAIT_TIME;
+        this.beforeDelay(messageDelay);
+        DELAY_SCHEDULER.schedule(() -> COMPUTATION_EXECUTOR.execute(() -> {
+            CompletionStage<Object> computation;
+            try {
+                computation = this.computeAsync();
+            } catch (Throwable e) {
+                CompletableFuture<Object> failedComputation = new CompletableFuture<>();
+                failedComputation.completeExceptionally(e);
+                computation = failedComputation;
+            }
+            computation.whenComplete((computationResult, throwable) -> {
+                Throwable cause = unwrapCompletionThrowable(throwable);
+                if (cause instanceof IOException && attempt < IO_ERROR_RETRIES + 1) {
+                    Log.error("An {0} occurred when computing the action, trying to send the artifact again ({1}/{2})",
+                            cause.getClass().getSimpleName(), attempt, IO_ERROR_RETRIES);
+                    this.attemptAsync(attempt + 1, before, result);
+                } else {
+                    if (nonNull(cause)) {
+                        Log.error("Could not compute the action: {0}", cause.getClass().getSimpleName());
+                    }
+                    result.complete(new RuntimeActionResult(computationResult, cause,
+                            System.currentTimeMillis() - before));
+                }
+            });
+        }), waitTime, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * A hook that is executed before any delay specified by {@link #MESSAGE_DELAY_KEY}.
      * <p>
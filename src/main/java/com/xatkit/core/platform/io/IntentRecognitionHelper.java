@@ -1,14 +1,18 @@
 package com.xatkit.core.platform.io;
 
 import com.xatkit.core.XatkitBot;
+import com.xatkit.core.cluster.ClusterManager;
 import com.xatkit.core.recognition.IntentRecognitionProviderException;
 import com.xatkit.execution.StateContext;
 import com.xatkit.intent.RecognizedIntent;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
+import static java.util.Objects.nonNull;
+
 /**
  * A helper class that provides method to extract intents from input text.
  * <p>
@@ -25,6 +29,9 @@ public class IntentRecognitionHelper {
      * {@link com.xatkit.core.recognition.IntentRecognitionProvider}, and avoid uncontrolled accesses to the
      * {@link com.xatkit.core.recognition.IntentRecognitionProvider} from {@link RuntimeEventProvider}s (such as
      * intent creation, removal, and context manipulation).
+     * <p>
+     * If the clustering mode is enabled and the provided {@code context} is owned by another node the recognition is
+     * performed by the owner (see {@link ClusterManager#recognize(String, String)}).
      *
      * @param input   the textual user input to extract the {@link RecognizedIntent} from
      * @param context the {@link StateContext} wrapping the underlying
@@ -40,7 +47,19 @@ public class IntentRecognitionHelper {
      */
     public static RecognizedIntent getRecognizedIntent(@NonNull String input, @NonNull StateContext context,
                                                        @NonNull XatkitBot xatkitBot) throws IntentRecognitionProviderException {
-        RecognizedIntent recognizedIntent = xatkitBot.getIntentRecognitionProvider().getIntent(input, context);
+        ClusterManager clusterManager = xatkitBot.getClusterManager();
+        RecognizedIntent recognizedIntent;
+        if (nonNull(clusterManager) && !clusterManager.isLocal(context.getContextId())) {
+            recognizedIntent = clusterManager.recognize(context.getContextId(), input);
+        } else {
+            Lock lock = xatkitBot.getIntentRecognitionLock().readLock();
+            lock.lock();
+            try {
+                recognizedIntent = xatkitBot.getIntentRecognitionProvider().getIntent(input, context);
+            } finally {
+                lock.unlock();
+            }
+        }
         Log.info("Detected Intent {0} (confidence {1}) from query text \"{2}\"{3}",
                 recognizedIntent.getDefinition().getName(), recognizedIntent.getRecognitionConfidence(),
                 recognizedIntent.getMatchedInput(), printIntentParameters(recognizedIntent));
@@ -6,7 +6,7 @@ import com.xatkit.intent.ContextParameter;
 import com.xatkit.intent.ContextParameterValue;
 import com.xatkit.intent.EventDefinition;
 import com.xatkit.intent.EventInstance;
-import com.xatkit.intent.IntentFactory;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import org.apache.http.Header;
@@ -186,9 +186,9 @@ public class JsonEventMatcher {
                 EventDefinition.class.getSimpleName(), eventDefinition.getName(),
                 EventDefinition.class.getSimpleName());
 
-        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        EventInstance eventInstance = TransientEObjects.createEventInstance();
         eventInstance.setDefinition(eventDefinition);
-        ContextParameterValue jsonParameterValue = IntentFactory.eINSTANCE.createContextParameterValue();
+        ContextParameterValue jsonParameterValue = TransientEObjects.createContextParameterValue();
         jsonParameterValue.setContextParameter(jsonParameter);
         jsonParameterValue.setValue(content);
         eventInstance.getValues().add(jsonParameterValue);
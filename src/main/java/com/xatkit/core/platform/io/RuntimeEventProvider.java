@@ -1,6 +1,7 @@
 package com.xatkit.core.platform.io;
 
 import com.xatkit.core.XatkitBot;
+import com.xatkit.core.cluster.ClusterManager;
 import com.xatkit.core.platform.RuntimePlatform;
 import com.xatkit.core.server.HttpMethod;
 import com.xatkit.core.server.RestHandler;
@@ -10,6 +11,8 @@ import com.xatkit.intent.EventInstance;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
 
+import static java.util.Objects.nonNull;
+
 /**
  * Generates {@link EventInstance}s that can be used by a Xatkit bot.
  * <p>
@@ -83,13 +86,22 @@ public abstract class RuntimeEventProvider<T extends RuntimePlatform> implements
      * <p>
      * This method can be extended to perform specific checks before triggering actions (e.g. ensure that a specific
      * context variable has been set).
+     * <p>
+     * If the clustering mode is enabled and the provided {@code context} is owned by another node the
+     * {@code eventInstance} is forwarded to the owner (see {@link ClusterManager#forwardEvent(EventInstance,
+     * StateContext)}).
      *
      * @param eventInstance the {@link EventInstance} to send to the Xatkit core component
      * @param context       the {@link StateContext} associated to the provided {@code eventInstance}
      */
     public void sendEventInstance(EventInstance eventInstance, StateContext context) {
         eventInstance.setTriggeredBy(this.runtimePlatform.getName());
-        this.xatkitBot.getExecutionService().handleEventInstance(eventInstance, context);
+        ClusterManager clusterManager = this.xatkitBot.getClusterManager();
+        if (nonNull(clusterManager) && !clusterManager.isLocal(context.getContextId())) {
+            clusterManager.forwardEvent(eventInstance, context);
+        } else {
+            this.xatkitBot.getExecutionService().handleEventInstance(eventInstance, context);
+        }
     }
 
     public void broadcastEventInstance(EventInstance eventInstance) {
@@ -1,14 +1,17 @@
 package com.xatkit.core.recognition;
 
 import com.xatkit.core.XatkitBot;
+import com.xatkit.core.recognition.evaluation.EvaluationRunner;
 import com.xatkit.core.recognition.processor.InputPreProcessor;
 import com.xatkit.core.recognition.processor.IntentPostProcessor;
+import com.xatkit.execution.ExecutionFactory;
 import com.xatkit.execution.State;
 import com.xatkit.execution.StateContext;
 import com.xatkit.intent.EntityDefinition;
 import com.xatkit.intent.IntentDefinition;
-import com.xatkit.intent.IntentFactory;
 import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.SessionConfigurationMap;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
@@ -16,11 +19,14 @@ import org.apache.commons.configuration2.Configuration;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * An {@link IntentRecognitionProvider} that takes care of applying pre/post processing.
@@ -31,6 +37,18 @@ import static java.util.Objects.isNull;
  * <p>
  * Subclasses must provide an implementation of {@link #getIntentInternal(String, StateContext)}, where the
  * {@link RecognizedIntent} is retrieved from the provided {@code input}.
+ * <p>
+ * This class can be configured with a {@link RecognitionCache} that stores the results of
+ * {@link #getIntentInternal(String, StateContext)}. Subclasses using the cache must call
+ * {@link #invalidateRecognitionCache()} each time their underlying model is updated, and can override
+ * {@link #isCacheable(RecognizedIntent)} to prevent specific intents from being cached.
+ * <p>
+ * Subclasses can share a read-only snapshot of the application's {@link Configuration} between the
+ * {@link StateContext}s they create (see {@link #setSharedContextConfiguration(Configuration)} and
+ * {@link #createStateContext(String)}).
+ * <p>
+ * Subclasses log their recognitions with {@link #logRecognizedIntent(StateContext, RecognizedIntent)}, which
+ * filters out the recognitions of the {@link EvaluationRunner} contexts for all the {@link RecognitionMonitor}s.
  */
 public abstract class AbstractIntentRecognitionProvider implements IntentRecognitionProvider {
 
@@ -50,6 +68,28 @@ public abstract class AbstractIntentRecognitionProvider implements IntentRecogni
      */
     private List<IntentPostProcessor> postProcessors = new ArrayList<>();
 
+    /**
+     * The {@link RecognitionCache} storing the {@link RecognizedIntent}s computed by this provider.
+     * <p>
+     * This field is {@code null} if the recognition cache is disabled.
+     *
+     * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_CACHE_SIZE_KEY
+     * @see #getIntent(String, StateContext)
+     */
+    @Nullable
+    private RecognitionCache recognitionCache;
+
+    /**
+     * The read-only snapshot of the application's {@link Configuration} shared by the created {@link StateContext}s.
+     * <p>
+     * Each {@link StateContext} created with {@link #createStateContext(String)} wraps this snapshot in a
+     * {@link SessionConfigurationMap}, meaning that the configuration is not copied for each session. Updates of a
+     * context configuration are local to the context, and are not visible to the other sessions.
+     *
+     * @see #setSharedContextConfiguration(Configuration)
+     */
+    private Map<Object, Object> sharedContextConfiguration = Collections.emptyMap();
+
     /**
      * {@inheritDoc}
      *
@@ -100,6 +140,54 @@ public abstract class AbstractIntentRecognitionProvider implements IntentRecogni
         return this.postProcessors;
     }
 
+    /**
+     * Sets the {@link RecognitionCache} used to store the {@link RecognizedIntent}s computed by this provider.
+     *
+     * @param recognitionCache the {@link RecognitionCache} to use, or {@code null} to disable the cache
+     * @see IntentRecognitionProviderFactory#getIntentRecognitionProvider(XatkitBot, Configuration)
+     */
+    public final void setRecognitionCache(@Nullable RecognitionCache recognitionCache) {
+        this.recognitionCache = recognitionCache;
+    }
+
+    /**
+     * Returns the {@link RecognitionCache} used to store the {@link RecognizedIntent}s computed by this provider.
+     * <p>
+     * The returned {@link RecognitionCache} can be used to retrieve cache metrics (e.g. hit rate).
+     *
+     * @return the {@link RecognitionCache}, or {@code null} if the cache is disabled
+     */
+    public final @Nullable RecognitionCache getRecognitionCache() {
+        return this.recognitionCache;
+    }
+
+    /**
+     * Removes all the entries stored in the {@link RecognitionCache}.
+     * <p>
+     * Subclasses must call this method when the underlying model is updated (e.g. when an intent is registered or
+     * when the ML engine is trained). This method does nothing if the cache is disabled.
+     */
+    protected final void invalidateRecognitionCache() {
+        if (nonNull(this.recognitionCache)) {
+            this.recognitionCache.invalidate();
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code recognizedIntent} can be stored in the {@link RecognitionCache}.
+     * <p>
+     * The cache key contains the {@link State} of the context and the input, the intents enabled in the state are
+     * thus part of the key. This method returns {@code true} by default. Subclasses must override it when their
+     * results depend on information not captured by the cache key, for example session data stored by the
+     * underlying NLU engine (see {@code DialogFlowIntentRecognitionProvider}).
+     *
+     * @param recognizedIntent the {@link RecognizedIntent} to check
+     * @return {@code true} if the {@code recognizedIntent} can be cached, {@code false} otherwise
+     */
+    protected boolean isCacheable(@NonNull RecognizedIntent recognizedIntent) {
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -136,6 +224,53 @@ public abstract class AbstractIntentRecognitionProvider implements IntentRecogni
     @Override
     public abstract StateContext createContext(@NonNull String sessionId) throws IntentRecognitionProviderException;
 
+    /**
+     * Sets the {@link Configuration} shared by the {@link StateContext}s created by this provider.
+     * <p>
+     * The provided {@code configuration} is frozen: further updates of the {@code configuration} are not reflected
+     * in the created {@link StateContext}s. Subclasses typically call this method in their constructor with the
+     * application's {@link Configuration}.
+     *
+     * @param configuration the {@link Configuration} shared by the created {@link StateContext}s
+     * @throws NullPointerException if the provided {@code configuration} is {@code null}
+     * @see #sharedContextConfiguration
+     */
+    protected final void setSharedContextConfiguration(@NonNull Configuration configuration) {
+        this.sharedContextConfiguration = SessionConfigurationMap.freeze(configuration);
+    }
+
+    /**
+     * Returns the read-only snapshot of the {@link Configuration} shared by the created {@link StateContext}s.
+     * <p>
+     * Subclasses creating their own {@link StateContext} implementation should wrap the returned {@link Map} in a
+     * {@link SessionConfigurationMap}.
+     *
+     * @return the read-only snapshot of the shared {@link Configuration}
+     * @see #sharedContextConfiguration
+     */
+    protected final Map<Object, Object> getSharedContextConfiguration() {
+        return this.sharedContextConfiguration;
+    }
+
+    /**
+     * Creates a {@link StateContext} with the provided {@code sessionId} configured with the shared
+     * {@link Configuration}.
+     * <p>
+     * This method can be used by subclasses that do not require a specific {@link StateContext} implementation to
+     * implement {@link #createContext(String)}.
+     *
+     * @param sessionId the identifier of the {@link StateContext} to create
+     * @return the created {@link StateContext}
+     * @throws NullPointerException if the provided {@code sessionId} is {@code null}
+     * @see #sharedContextConfiguration
+     */
+    protected final StateContext createStateContext(@NonNull String sessionId) {
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId(sessionId);
+        context.setConfiguration(new SessionConfigurationMap(sharedContextConfiguration));
+        return context;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -162,7 +297,7 @@ public abstract class AbstractIntentRecognitionProvider implements IntentRecogni
                     (preEnd - preStart));
         }
         long recognitionStart = System.currentTimeMillis();
-        RecognizedIntent recognizedIntent = getIntentInternal(preProcessedInput, context);
+        RecognizedIntent recognizedIntent = getIntentInternalCached(preProcessedInput, context);
         long recognitionEnd = System.currentTimeMillis();
         Log.debug("Time to recognize the intent with {0}: {1}ms", this.getClass().getSimpleName(),
                 (recognitionEnd - recognitionStart));
@@ -176,6 +311,64 @@ public abstract class AbstractIntentRecognitionProvider implements IntentRecogni
         return recognizedIntent;
     }
 
+    /**
+     * Returns the raw {@link RecognizedIntent} extracted from the provided {@code input}, using the
+     * {@link RecognitionCache} if it is enabled.
+     * <p>
+     * Cached {@link RecognizedIntent}s are logged in the {@link RecognitionMonitor} (if it exists) to keep the
+     * monitoring information consistent with the received inputs.
+     *
+     * @param input   the pre-processed textual input to extract the intent from
+     * @param context the {@link StateContext} used to access context information
+     * @return the {@link RecognizedIntent} extracted from the provided {@code input}
+     * @throws IntentRecognitionProviderException if an error occurred when accessing the intent provider
+     * @see #getIntentInternal(String, StateContext)
+     */
+    private RecognizedIntent getIntentInternalCached(String input, StateContext context)
+            throws IntentRecognitionProviderException {
+        RecognitionCache cache = this.recognitionCache;
+        State state = context.getState();
+        if (isNull(cache) || isNull(state)) {
+            return getIntentInternal(input, context);
+        }
+        RecognizedIntent cachedIntent = cache.get(state, input);
+        if (nonNull(cachedIntent)) {
+            Log.debug("Retrieved intent {0} from the {1} (hit rate: {2})", cachedIntent.getDefinition().getName(),
+                    RecognitionCache.class.getSimpleName(), cache.getHitRate());
+            cachedIntent.setMatchedInput(input);
+            this.logRecognizedIntent(context, cachedIntent);
+            return cachedIntent;
+        }
+        /*
+         * Retrieve the generation before the recognition: the result is not cached if the model has been updated
+         * (and the cache invalidated) while the recognition was performed.
+         */
+        long generation = cache.getGeneration();
+        RecognizedIntent recognizedIntent = getIntentInternal(input, context);
+        if (isCacheable(recognizedIntent) && !cache.put(state, input, recognizedIntent, generation)) {
+            Log.debug("The {0} has been invalidated during the recognition of \"{1}\", the result is not cached",
+                    RecognitionCache.class.getSimpleName(), input);
+        }
+        return recognizedIntent;
+    }
+
+    /**
+     * Logs the provided {@code recognizedIntent} in the {@link RecognitionMonitor} (if it exists).
+     * <p>
+     * The recognitions of the {@link StateContext}s created by an {@link EvaluationRunner} (including the ones of a
+     * {@link RecognitionBackfill}) are not logged: they re-recognize stored or offline utterances, and are not user
+     * inputs (see {@link EvaluationRunner#isEvaluationContext(StateContext)}).
+     *
+     * @param context          the {@link StateContext} from which the {@link RecognizedIntent} has been created
+     * @param recognizedIntent the {@link RecognizedIntent} to log
+     */
+    protected void logRecognizedIntent(StateContext context, RecognizedIntent recognizedIntent) {
+        RecognitionMonitor monitor = getRecognitionMonitor();
+        if (nonNull(monitor) && !EvaluationRunner.isEvaluationContext(context)) {
+            monitor.logRecognizedIntent(context, recognizedIntent);
+        }
+    }
+
     /**
      * Returns the raw {@link RecognizedIntent} extracted from the provided {@code input}.
      * <p>
@@ -222,13 +415,56 @@ public abstract class AbstractIntentRecognitionProvider implements IntentRecogni
                         })
                         .findFirst().orElse(null);
         if (isNull(bestCandidate)) {
-            bestCandidate = IntentFactory.eINSTANCE.createRecognizedIntent();
-            bestCandidate.setDefinition(DEFAULT_FALLBACK_INTENT);
-            bestCandidate.setRecognitionConfidence(0);
+            bestCandidate = createFallbackIntent();
         }
         return bestCandidate;
     }
 
+    /**
+     * Returns the {@link RecognizedIntent} corresponding to the {@link IntentCandidate} that matches best the
+     * current {@code context}.
+     * <p>
+     * This method behaves like {@link #getBestCandidate(Collection, StateContext)}, but only converts the selected
+     * candidate to a {@link RecognizedIntent}. Providers computing several candidates for an input should prefer
+     * this method to avoid creating EMF objects for the discarded candidates.
+     *
+     * @param candidates the {@link Collection} of {@link IntentCandidate}s to get the best candidate from
+     * @param context    the current {@link StateContext}
+     * @return the {@link RecognizedIntent} of the best candidate if it exists, or a {@link #DEFAULT_FALLBACK_INTENT}
+     * @throws IllegalArgumentException if the provided {@code candidates} is empty
+     */
+    protected RecognizedIntent selectBestCandidate(@NonNull Collection<IntentCandidate> candidates,
+                                                   @NonNull StateContext context) {
+        checkArgument(!candidates.isEmpty(), "Cannot get the best candidate from the provided collection: the " +
+                "collection is empty");
+        State state = context.getState();
+        IntentCandidate bestCandidate = null;
+        for (IntentCandidate candidate : candidates) {
+            if ((isNull(bestCandidate)
+                    || candidate.getRecognitionConfidence() > bestCandidate.getRecognitionConfidence())
+                    && state.getAllAccessedIntents().contains(candidate.getDefinition())) {
+                bestCandidate = candidate;
+            }
+        }
+        if (isNull(bestCandidate)) {
+            return createFallbackIntent();
+        }
+        return bestCandidate.toRecognizedIntent();
+    }
+
+    /**
+     * Creates a {@link RecognizedIntent} with the {@link #DEFAULT_FALLBACK_INTENT} definition and a confidence of
+     * {@code 0}.
+     *
+     * @return the created {@link RecognizedIntent}
+     */
+    private RecognizedIntent createFallbackIntent() {
+        RecognizedIntent fallbackIntent = TransientEObjects.createRecognizedIntent();
+        fallbackIntent.setDefinition(DEFAULT_FALLBACK_INTENT);
+        fallbackIntent.setRecognitionConfidence(0);
+        return fallbackIntent;
+    }
+
     /**
      * Returns the {@link RecognitionMonitor} associated to this intent recognition provider.
      *
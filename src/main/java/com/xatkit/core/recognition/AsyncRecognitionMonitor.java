@@ -0,0 +1,396 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandlerFactory;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.RecognizedIntent;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A {@link RecognitionMonitor} publishing the recognitions in a {@link RecognitionRingBuffer} consumed by a set of
+ * {@link RecognitionEventSink}s.
+ * <p>
+ * {@link #logRecognizedIntent(StateContext, RecognizedIntent)} only copies the recognition information in a
+ * pre-allocated slot of the buffer and returns: the storage of the recognition does not add latency to the intent
+ * recognition. Each {@link RecognitionEventSink} is fed by a dedicated consumer thread that handles the available
+ * events and flushes the sink once they have all been handled.
+ * <p>
+ * The behavior of the monitor when the sinks cannot keep up with the recognitions is defined by the
+ * {@link RecognitionRingBuffer.OverflowPolicy} of the buffer. The pipeline metrics (published and dropped events,
+ * lag of each sink) can be retrieved with the {@code GET: /analytics/monitoring/pipeline} endpoint.
+ *
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SINKS_KEY
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_BUFFER_SIZE_KEY
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_OVERFLOW_POLICY_KEY
+ */
+public class AsyncRecognitionMonitor implements RecognitionMonitor {
+
+    /**
+     * The maximum time (in nanoseconds) consumer threads wait for new events when the buffer is empty.
+     * <p>
+     * Idle consumers are woken up by the producers when an event is published, this timeout only bounds the wait if
+     * a wake-up is missed (e.g. for events published directly in the buffer).
+     */
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The time (in milliseconds) {@link #shutdown()} waits for each consumer thread to deliver the pending events.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 10000;
+
+    /**
+     * The {@link RecognitionRingBuffer} containing the published recognitions.
+     */
+    private final RecognitionRingBuffer buffer;
+
+    /**
+     * The consumers delivering the recognitions to the sinks.
+     */
+    private final List<SinkConsumer> consumers = new ArrayList<>();
+
+    /**
+     * Constructs an {@link AsyncRecognitionMonitor} delivering the recognitions to the provided {@code sinks}.
+     * <p>
+     * This constructor starts a consumer thread for each sink, and registers the
+     * {@code GET: /analytics/monitoring/pipeline} endpoint.
+     *
+     * @param xatkitServer   the {@link XatkitServer} instance used to register the REST endpoint
+     * @param sinks          the {@link RecognitionEventSink}s to deliver the recognitions to
+     * @param bufferSize     the capacity of the {@link RecognitionRingBuffer}
+     * @param overflowPolicy the behavior of the monitor when the buffer is full
+     * @throws NullPointerException     if the provided {@code xatkitServer}, {@code sinks}, or {@code
+     *                                  overflowPolicy} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code sinks} is empty or if the provided {@code bufferSize}
+     *                                  is not a positive power of two
+     */
+    public AsyncRecognitionMonitor(@NonNull XatkitServer xatkitServer, @NonNull List<RecognitionEventSink> sinks,
+                                   int bufferSize, @NonNull RecognitionRingBuffer.OverflowPolicy overflowPolicy) {
+        checkArgument(!sinks.isEmpty(), "Cannot create a %s without %s", AsyncRecognitionMonitor.class.getSimpleName(),
+                RecognitionEventSink.class.getSimpleName());
+        this.buffer = new RecognitionRingBuffer(bufferSize, overflowPolicy);
+        for (RecognitionEventSink sink : sinks) {
+            consumers.add(new SinkConsumer(sink, buffer.newCursor()));
+        }
+        Log.info("Starting asynchronous intent recognition monitoring (buffer={0}, overflow={1}, sinks={2})",
+                bufferSize, overflowPolicy, consumers.size());
+        consumers.forEach(consumer -> consumer.thread.start());
+        this.registerGetPipelineMetrics(xatkitServer);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method publishes the recognition in the {@link RecognitionRingBuffer} and returns without waiting for
+     * the sinks. The recognition is dropped if the buffer is full and its overflow policy is
+     * {@link RecognitionRingBuffer.OverflowPolicy#DROP}, which only happens once the slots reserved to the logged
+     * recognitions are used (see {@link RecognitionRingBuffer}).
+     */
+    @Override
+    public void logRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        if (buffer.publish(System.currentTimeMillis(), context, intent, true)) {
+            this.wakeUpConsumers();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method publishes the recognition in the {@link RecognitionRingBuffer}, and the consumer threads
+     * deliver it to {@link RecognitionEventSink#count(RecognitionEvent)}. Counted recognitions cannot use the slots
+     * reserved to the logged ones: they are dropped first if the overflow policy is
+     * {@link RecognitionRingBuffer.OverflowPolicy#DROP} (see {@link #getDroppedCount()}).
+     */
+    @Override
+    public void countRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        if (buffer.publish(System.currentTimeMillis(), context, intent, false)) {
+            this.wakeUpConsumers();
+        }
+    }
+
+    /**
+     * Wakes up the consumer threads waiting for new events.
+     * <p>
+     * Consumers that are delivering events are not signaled: they poll the buffer again before waiting.
+     */
+    private void wakeUpConsumers() {
+        /*
+         * Use an indexed loop, this method is called for each recognition and should not allocate an iterator.
+         */
+        for (int i = 0; i < consumers.size(); i++) {
+            SinkConsumer consumer = consumers.get(i);
+            if (consumer.idle) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method closes the {@link RecognitionRingBuffer}, waits for the consumer threads to deliver the pending
+     * recognitions, and shuts down the sinks.
+     */
+    @Override
+    public void shutdown() {
+        buffer.close();
+        for (SinkConsumer consumer : consumers) {
+            consumer.running = false;
+            LockSupport.unpark(consumer.thread);
+        }
+        for (SinkConsumer consumer : consumers) {
+            try {
+                consumer.thread.join(SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (consumer.thread.isAlive()) {
+                Log.warn("The sink {0} did not handle its pending events in {1}ms ({2} events lost)",
+                        consumer.sink.getName(), SHUTDOWN_TIMEOUT, consumer.cursor.getLag());
+                consumer.thread.interrupt();
+            }
+            try {
+                consumer.sink.shutdown();
+            } catch (RuntimeException e) {
+                Log.error(e, "An error occurred when shutting down the sink {0}", consumer.sink.getName());
+            }
+        }
+        if (buffer.getDroppedCount() > 0) {
+            Log.warn("{0} recognition events have been dropped by the monitor", buffer.getDroppedCount());
+        }
+    }
+
+    /**
+     * Returns the number of recognitions published in the {@link RecognitionRingBuffer}.
+     *
+     * @return the number of recognitions published in the {@link RecognitionRingBuffer}
+     */
+    public long getPublishedCount() {
+        return buffer.getPublishedCount();
+    }
+
+    /**
+     * Returns the {@link RecognitionEventSink}s the recognitions are delivered to.
+     *
+     * @return an unmodifiable {@link List} containing the sinks of the monitor
+     */
+    public List<RecognitionEventSink> getSinks() {
+        List<RecognitionEventSink> sinks = new ArrayList<>();
+        for (SinkConsumer consumer : consumers) {
+            sinks.add(consumer.sink);
+        }
+        return Collections.unmodifiableList(sinks);
+    }
+
+    /**
+     * Returns the number of recognitions dropped because the {@link RecognitionRingBuffer} was full.
+     *
+     * @return the number of dropped recognitions
+     */
+    public long getDroppedCount() {
+        return buffer.getDroppedCount();
+    }
+
+    /**
+     * Returns the number of logged recognitions dropped because the {@link RecognitionRingBuffer} was full.
+     * <p>
+     * The other dropped recognitions were only counted (see
+     * {@link #countRecognizedIntent(StateContext, RecognizedIntent)}).
+     *
+     * @return the number of dropped logged recognitions
+     */
+    public long getDroppedSampledCount() {
+        return buffer.getDroppedSampledCount();
+    }
+
+    /**
+     * Returns the lag of each sink.
+     * <p>
+     * The lag of a sink is the number of published recognitions it has not handled yet.
+     *
+     * @return an unmodifiable {@link Map} containing the lag of each sink, indexed by sink name
+     * @see RecognitionEventSink#getName()
+     */
+    public Map<String, Long> getLags() {
+        Map<String, Long> lags = new LinkedHashMap<>();
+        for (SinkConsumer consumer : consumers) {
+            lags.put(consumer.sink.getName(), consumer.cursor.getLag());
+        }
+        return Collections.unmodifiableMap(lags);
+    }
+
+    /**
+     * Registers the {@code GET: /analytics/monitoring/pipeline} endpoint.
+     * <p>
+     * This endpoint returns a JSON object containing the metrics of the monitoring pipeline.
+     * <p>
+     * The listing below shows an example of the returned JSON payload:
+     * <pre>
+     * {@code
+     * {
+     *     "capacity": 1024,
+     *     "published": 15234,
+     *     "dropped": 0,
+     *     "droppedSampled": 0,
+     *     "sinks": [
+     *         {
+     *             "name": "RecognitionMonitorMapDB",
+     *             "lag": 3,
+     *             "handled": 15231,
+     *             "failed": 0
+     *         }
+     *     ]
+     * }
+     * }
+     * </pre>
+     *
+     * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
+     */
+    private void registerGetPipelineMetrics(XatkitServer xatkitServer) {
+        xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring/pipeline",
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    JsonObject result = new JsonObject();
+                    result.addProperty("capacity", buffer.getCapacity());
+                    result.addProperty("published", buffer.getPublishedCount());
+                    result.addProperty("dropped", buffer.getDroppedCount());
+                    result.addProperty("droppedSampled", buffer.getDroppedSampledCount());
+                    JsonArray sinksArray = new JsonArray();
+                    for (SinkConsumer consumer : consumers) {
+                        JsonObject sinkObject = new JsonObject();
+                        sinkObject.addProperty("name", consumer.sink.getName());
+                        sinkObject.addProperty("lag", consumer.cursor.getLag());
+                        sinkObject.addProperty("handled", consumer.handledCount.get());
+                        sinkObject.addProperty("failed", consumer.failedCount.get());
+                        sinksArray.add(sinkObject);
+                    }
+                    result.add("sinks", sinksArray);
+                    return result;
+                }));
+    }
+
+    /**
+     * Delivers the events of a {@link RecognitionRingBuffer.Cursor} to a {@link RecognitionEventSink} in a
+     * dedicated thread.
+     */
+    private static class SinkConsumer implements Runnable {
+
+        /**
+         * The {@link RecognitionEventSink} to deliver the events to.
+         */
+        private final RecognitionEventSink sink;
+
+        /**
+         * The {@link RecognitionRingBuffer.Cursor} to read the events from.
+         */
+        private final RecognitionRingBuffer.Cursor cursor;
+
+        /**
+         * The thread delivering the events.
+         */
+        private final Thread thread;
+
+        /**
+         * The number of events handled by the sink.
+         */
+        private final AtomicLong handledCount = new AtomicLong();
+
+        /**
+         * The number of events that made the sink throw an exception.
+         */
+        private final AtomicLong failedCount = new AtomicLong();
+
+        /**
+         * The handler passed to {@link RecognitionRingBuffer.Cursor#poll(Consumer)}.
+         * <p>
+         * This handler is created once to avoid allocating a lambda for each poll.
+         */
+        private final Consumer<RecognitionEvent> handler;
+
+        /**
+         * Whether the consumer should keep waiting for new events.
+         */
+        private volatile boolean running = true;
+
+        /**
+         * Whether the consumer is waiting for new events.
+         * <p>
+         * Producers read this flag after publishing an event to wake up the consumer. The consumer checks the buffer
+         * again after setting it, so an event published concurrently is either seen by the consumer or triggers a
+         * wake-up.
+         */
+        private volatile boolean idle = false;
+
+        /**
+         * Constructs a {@link SinkConsumer} delivering the events of the provided {@code cursor} to the given
+         * {@code sink}.
+         *
+         * @param sink   the {@link RecognitionEventSink} to deliver the events to
+         * @param cursor the {@link RecognitionRingBuffer.Cursor} to read the events from
+         */
+        private SinkConsumer(RecognitionEventSink sink, RecognitionRingBuffer.Cursor cursor) {
+            this.sink = sink;
+            this.cursor = cursor;
+            this.handler = event -> {
+                try {
+                    if (event.isSampled()) {
+                        sink.handle(event);
+                    } else {
+                        sink.count(event);
+                    }
+                    handledCount.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failedCount.incrementAndGet();
+                    Log.error(e, "The sink {0} cannot handle the event {1}", sink.getName(), event);
+                }
+            };
+            this.thread = new Thread(this, "xatkit-recognition-sink-" + sink.getName());
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Delivers the available events to the sink until the monitor is shut down and all the events have been
+         * delivered.
+         * <p>
+         * The consumer parks when the buffer is empty, and is woken up by the producers (see
+         * {@link AsyncRecognitionMonitor#wakeUpConsumers()}). If an event has been claimed but is still being written the consumer yields
+         * instead of parking, the event is available shortly after.
+         */
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (cursor.poll(handler) > 0) {
+                    try {
+                        sink.flush();
+                    } catch (RuntimeException e) {
+                        Log.error(e, "An error occurred when flushing the sink {0}", sink.getName());
+                    }
+                } else if (!cursor.isDrained()) {
+                    Thread.yield();
+                } else if (!running) {
+                    return;
+                } else {
+                    idle = true;
+                    if (running && cursor.isDrained()) {
+                        LockSupport.parkNanos(this, MAX_IDLE_PARK_NANOS);
+                    }
+                    idle = false;
+                }
+            }
+        }
+    }
+}
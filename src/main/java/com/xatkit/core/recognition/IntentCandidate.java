@@ -0,0 +1,94 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.intent.ContextParameter;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A lightweight representation of an intent matched by an {@link IntentRecognitionProvider}.
+ * <p>
+ * Providers returning several candidates for an input can use this class to represent them, and only convert the
+ * selected one to a {@link RecognizedIntent} with {@link #toRecognizedIntent()}. This avoids creating EMF objects
+ * for the candidates that are discarded.
+ *
+ * @see AbstractIntentRecognitionProvider#selectBestCandidate(java.util.Collection,
+ * com.xatkit.execution.StateContext)
+ */
+@Value
+public class IntentCandidate {
+
+    /**
+     * The matched {@link IntentDefinition}.
+     */
+    private IntentDefinition definition;
+
+    /**
+     * The confidence of the match.
+     */
+    private float recognitionConfidence;
+
+    /**
+     * The input that has been matched.
+     */
+    private String matchedInput;
+
+    /**
+     * The values of the matched parameters, in the order they have been matched.
+     */
+    private Map<ContextParameter, Object> values;
+
+    /**
+     * Creates an {@link IntentCandidate} without parameter values.
+     *
+     * @param definition            the matched {@link IntentDefinition}
+     * @param recognitionConfidence the confidence of the match
+     * @param matchedInput          the input that has been matched
+     * @throws NullPointerException if the provided {@code definition} is {@code null}
+     */
+    public IntentCandidate(@NonNull IntentDefinition definition, float recognitionConfidence,
+                           String matchedInput) {
+        this(definition, recognitionConfidence, matchedInput, Collections.emptyMap());
+    }
+
+    /**
+     * Creates an {@link IntentCandidate} with the provided parameter {@code values}.
+     *
+     * @param definition            the matched {@link IntentDefinition}
+     * @param recognitionConfidence the confidence of the match
+     * @param matchedInput          the input that has been matched
+     * @param values                the values of the matched parameters
+     * @throws NullPointerException if the provided {@code definition} or {@code values} is {@code null}
+     */
+    public IntentCandidate(@NonNull IntentDefinition definition, float recognitionConfidence,
+                           String matchedInput, @NonNull Map<ContextParameter, Object> values) {
+        this.definition = definition;
+        this.recognitionConfidence = recognitionConfidence;
+        this.matchedInput = matchedInput;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * Creates the {@link RecognizedIntent} corresponding to this candidate.
+     * <p>
+     * Each call creates a new {@link RecognizedIntent}.
+     *
+     * @return the created {@link RecognizedIntent}
+     * @see TransientEObjects
+     */
+    public RecognizedIntent toRecognizedIntent() {
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+        recognizedIntent.setDefinition(definition);
+        recognizedIntent.setRecognitionConfidence(recognitionConfidence);
+        recognizedIntent.setMatchedInput(matchedInput);
+        values.forEach((parameter, value) -> recognizedIntent.getValues().add(
+                TransientEObjects.createContextParameterValue(parameter, value)));
+        return recognizedIntent;
+    }
+}
@@ -4,6 +4,8 @@ import com.xatkit.core.XatkitBot;
 import com.xatkit.core.XatkitException;
 import com.xatkit.core.recognition.dialogflow.DialogFlowConfiguration;
 import com.xatkit.core.recognition.dialogflow.DialogFlowIntentRecognitionProvider;
+import com.xatkit.core.recognition.embedded.EmbeddedConfiguration;
+import com.xatkit.core.recognition.embedded.EmbeddedIntentRecognitionProvider;
 import com.xatkit.core.recognition.nlpjs.NlpjsConfiguration;
 import com.xatkit.core.recognition.nlpjs.NlpjsIntentRecognitionProvider;
 import com.xatkit.core.recognition.processor.InputPreProcessor;
@@ -18,6 +20,8 @@ import org.apache.commons.configuration2.Configuration;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.InvocationTargetException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -55,11 +59,19 @@ public class IntentRecognitionProviderFactory {
 
     public static final String DEFAULT_DATABASE_MODEL = DATABASE_MODEL_MAPDB;
 
+    /**
+     * The name of the {@link RecognitionFileSink} in
+     * {@link IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SINKS_KEY}.
+     */
+    public static final String RECOGNITION_MONITOR_FILE_SINK = "file";
+
     /**
      * Returns the {@link AbstractIntentRecognitionProvider} matching the provided {@code configuration}.
      * <p>
      * If the provided {@code configuration} does not define any {@link AbstractIntentRecognitionProvider}, a
-     * {@link RegExIntentRecognitionProvider} is returned, providing minimal NLP support.
+     * {@link RegExIntentRecognitionProvider} is returned, providing minimal NLP support. An
+     * {@link EmbeddedIntentRecognitionProvider} is returned instead if the
+     * {@link EmbeddedConfiguration#ENABLED_KEY} property is set to {@code true}.
      * <p>
      * The created {@link AbstractIntentRecognitionProvider} embeds a {@link RecognitionMonitor} that logs monitoring
      * information regarding the intent recognition. The {@link RecognitionMonitor} can be disabled by setting the
@@ -72,6 +84,10 @@ public class IntentRecognitionProviderFactory {
      * {@link IntentRecognitionProviderFactoryConfiguration#RECOGNITION_PREPROCESSORS_KEY} and
      * {@link IntentRecognitionProviderFactoryConfiguration#RECOGNITION_POSTPROCESSORS_KEY}, respectively, and are
      * specified as comma-separated list of processor's names.
+     * <p>
+     * The returned provider uses a {@link RecognitionCache} if the
+     * {@link IntentRecognitionProviderFactoryConfiguration#RECOGNITION_CACHE_SIZE_KEY} property is set to a
+     * positive value.
      *
      * @param xatkitBot         the {@link XatkitBot} instance to build the
      *                          {@link AbstractIntentRecognitionProvider} from
@@ -122,6 +138,11 @@ public class IntentRecognitionProviderFactory {
              */
             provider = new NlpjsIntentRecognitionProvider(xatkitBot.getEventDefinitionRegistry(), baseConfiguration,
                     recognitionMonitor);
+        } else if (baseConfiguration.getBoolean(EmbeddedConfiguration.ENABLED_KEY, false)) {
+            /*
+             * The provided configuration enables the embedded classifier.
+             */
+            provider = new EmbeddedIntentRecognitionProvider(baseConfiguration, recognitionMonitor);
         } else {
             /*
              * The provided configuration does not contain any IntentRecognitionProvider information, returning a
@@ -129,6 +150,13 @@ public class IntentRecognitionProviderFactory {
              */
             provider = new RegExIntentRecognitionProvider(baseConfiguration, recognitionMonitor);
         }
+        if (configuration.isRecognitionCacheEnabled() && provider instanceof AbstractIntentRecognitionProvider) {
+            Log.info("Using a {0} (size={1}, ttl={2}ms)", RecognitionCache.class.getSimpleName(),
+                    configuration.getRecognitionCacheSize(), configuration.getRecognitionCacheTtl());
+            ((AbstractIntentRecognitionProvider) provider).setRecognitionCache(
+                    new RecognitionCache(configuration.getRecognitionCacheSize(),
+                            configuration.getRecognitionCacheTtl()));
+        }
         provider.setPreProcessors(preProcessors);
         for (InputPreProcessor preProcessor : preProcessors) {
             /*
@@ -150,12 +178,23 @@ public class IntentRecognitionProviderFactory {
 
     /**
      * Retrieves and creates the {@link RecognitionMonitor} from the provided {@link Configuration}.
+     * <p>
+     * The created monitor is an {@link AsyncRecognitionMonitor} delivering the recognitions to the configured
+     * {@link RecognitionEventSink}s, unless the asynchronous monitor is disabled in the provided
+     * {@link Configuration}. In this case the configured sink is returned and used as a synchronous
+     * {@link RecognitionMonitor}. The created monitor is wrapped in a {@link SamplingRecognitionMonitor} if sampling
+     * is enabled in the provided {@link Configuration}.
      *
      * @param xatkitBot     the {@link XatkitBot} used to initialize the {@link RecognitionMonitor}
      * @param configuration the {@link Configuration} used to initialize the {@link RecognitionMonitor}
      * @return the created {@link RecognitionMonitor}, or {@code null} intent recognition monitoring is disabled in
      * the provided {@link Configuration}
+     * @throws XatkitException if a configured sink is unknown, or if the configured sinks require an
+     *                         {@link AsyncRecognitionMonitor} that has been disabled
      * @see IntentRecognitionProviderFactoryConfiguration#ENABLE_RECOGNITION_ANALYTICS
+     * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SINKS_KEY
+     * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_BUFFER_SIZE_KEY
+     * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SAMPLING_RATE_KEY
      */
     @Nullable
     private static RecognitionMonitor getRecognitionMonitor(XatkitBot xatkitBot,
@@ -163,19 +202,71 @@ public class IntentRecognitionProviderFactory {
         /*
          * TODO this should be extracted in XatkitBot
          */
-        RecognitionMonitor monitor = null;
-        if (configuration.isEnableRecognitionAnalytics()) {
-            if (configuration.getBaseConfiguration().getString(DATABASE_MODEL_KEY, DEFAULT_DATABASE_MODEL).toLowerCase().equals(DATABASE_MODEL_INFLUXDB)) {
-                Log.info("Using InfluxDB to store monitoring data");
-                monitor = new RecognitionMonitorInflux(xatkitBot.getXatkitServer(),
-                        configuration.getBaseConfiguration());
+        if (!configuration.isEnableRecognitionAnalytics()) {
+            return null;
+        }
+        List<RecognitionEventSink> sinks = new ArrayList<>();
+        try {
+            for (String sinkName : configuration.getRecognitionMonitorSinks()) {
+                sinks.add(createRecognitionEventSink(xatkitBot, configuration, sinkName));
+            }
+            RecognitionMonitor monitor;
+            if (configuration.isAsyncRecognitionMonitorEnabled()) {
+                monitor = new AsyncRecognitionMonitor(xatkitBot.getXatkitServer(), sinks,
+                        configuration.getRecognitionMonitorBufferSize(),
+                        configuration.getRecognitionMonitorOverflowPolicy());
+            } else if (sinks.size() == 1 && sinks.get(0) instanceof RecognitionMonitor) {
+                monitor = (RecognitionMonitor) sinks.get(0);
             } else {
-                Log.info("Using MapDB to store monitoring data");
-                monitor = new RecognitionMonitorMapDB(xatkitBot.getXatkitServer(),
-                        configuration.getBaseConfiguration());
+                throw new XatkitException(MessageFormat.format("Cannot create the recognition monitor: the sinks {0} "
+                                + "require an asynchronous monitor (see {1})",
+                        configuration.getRecognitionMonitorSinks(),
+                        IntentRecognitionProviderFactoryConfiguration.RECOGNITION_MONITOR_BUFFER_SIZE_KEY));
             }
+            if (configuration.isRecognitionMonitorSamplingEnabled()) {
+                monitor = new SamplingRecognitionMonitor(xatkitBot.getXatkitServer(), monitor,
+                        configuration.getRecognitionMonitorSamplingRate(),
+                        configuration.getRecognitionMonitorSamplingConfidenceThreshold(),
+                        configuration.getRecognitionMonitorSamplingTargetRate());
+            }
+            return monitor;
+        } catch (RuntimeException e) {
+            /*
+             * Close the sinks that have been created, they may hold database locks.
+             */
+            sinks.forEach(RecognitionEventSink::shutdown);
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the {@link RecognitionEventSink} with the provided {@code sinkName}.
+     *
+     * @param xatkitBot     the {@link XatkitBot} used to initialize the sink
+     * @param configuration the {@link Configuration} used to initialize the sink
+     * @param sinkName      the name of the sink to create
+     * @return the created {@link RecognitionEventSink}
+     * @throws XatkitException if the provided {@code sinkName} is unknown
+     * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SINKS_KEY
+     */
+    private static RecognitionEventSink createRecognitionEventSink(XatkitBot xatkitBot,
+                                                                   IntentRecognitionProviderFactoryConfiguration configuration,
+                                                                   String sinkName) {
+        switch (sinkName) {
+            case DATABASE_MODEL_INFLUXDB:
+                Log.info("Using InfluxDB to store monitoring data");
+                return new RecognitionMonitorInflux(xatkitBot.getXatkitServer(), configuration.getBaseConfiguration());
+            case DATABASE_MODEL_MAPDB:
+                Log.info("Using MapDB to store monitoring data");
+                return new RecognitionMonitorMapDB(xatkitBot.getXatkitServer(), configuration.getBaseConfiguration());
+            case RECOGNITION_MONITOR_FILE_SINK:
+                Log.info("Using a rolling file to store monitoring data");
+                return new RecognitionFileSink(configuration.getBaseConfiguration());
+            default:
+                throw new XatkitException(MessageFormat.format("Unknown recognition monitoring sink {0}, expected "
+                                + "one of [{1}, {2}, {3}]", sinkName, DATABASE_MODEL_MAPDB, DATABASE_MODEL_INFLUXDB,
+                        RECOGNITION_MONITOR_FILE_SINK));
         }
-        return monitor;
     }
 
     private static List<InputPreProcessor> loadPreProcessors(IntentRecognitionProviderFactoryConfiguration configuration) {
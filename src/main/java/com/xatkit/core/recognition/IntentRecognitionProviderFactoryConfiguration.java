@@ -4,6 +4,7 @@ import lombok.NonNull;
 import lombok.Value;
 import org.apache.commons.configuration2.Configuration;
 
+import java.text.MessageFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -51,6 +52,104 @@ public class IntentRecognitionProviderFactoryConfiguration {
      */
     public static String RECOGNITION_POSTPROCESSORS_KEY = "xatkit.recognition.postprocessors";
 
+    /**
+     * The {@link Configuration} key used to specify the maximum number of entries of the {@link RecognitionCache}.
+     * <p>
+     * The recognition cache is disabled by default, and can be enabled by setting this property to a positive
+     * value in the {@link Configuration} file.
+     */
+    public static String RECOGNITION_CACHE_SIZE_KEY = "xatkit.recognition.cache.size";
+
+    /**
+     * The {@link Configuration} key used to specify the time-to-live (in milliseconds) of the
+     * {@link RecognitionCache} entries.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_RECOGNITION_CACHE_TTL}.
+     */
+    public static String RECOGNITION_CACHE_TTL_KEY = "xatkit.recognition.cache.ttl";
+
+    /**
+     * The default time-to-live (in milliseconds) of the {@link RecognitionCache} entries.
+     *
+     * @see #RECOGNITION_CACHE_TTL_KEY
+     */
+    public static long DEFAULT_RECOGNITION_CACHE_TTL = 600000;
+
+    /**
+     * The {@link Configuration} key used to specify the {@link RecognitionEventSink}s storing the monitoring
+     * information.
+     * <p>
+     * Sinks are specified as a comma-separated list of sink names among
+     * {@link IntentRecognitionProviderFactory#DATABASE_MODEL_MAPDB},
+     * {@link IntentRecognitionProviderFactory#DATABASE_MODEL_INFLUXDB}, and
+     * {@link IntentRecognitionProviderFactory#RECOGNITION_MONITOR_FILE_SINK}. This property is optional, and
+     * defaults to the value of {@link IntentRecognitionProviderFactory#DATABASE_MODEL_KEY}.
+     */
+    public static String RECOGNITION_MONITOR_SINKS_KEY = "xatkit.recognition.monitor.sinks";
+
+    /**
+     * The {@link Configuration} key used to specify the capacity of the {@link RecognitionRingBuffer} of the
+     * {@link AsyncRecognitionMonitor}.
+     * <p>
+     * The capacity must be a power of two. Setting this property to {@code 0} disables the
+     * {@link AsyncRecognitionMonitor}: the recognitions are logged in the thread performing the recognition, and
+     * a single sink can be used. This property is optional, and defaults to
+     * {@link #DEFAULT_RECOGNITION_MONITOR_BUFFER_SIZE}.
+     */
+    public static String RECOGNITION_MONITOR_BUFFER_SIZE_KEY = "xatkit.recognition.monitor.buffer_size";
+
+    /**
+     * The default capacity of the {@link RecognitionRingBuffer} of the {@link AsyncRecognitionMonitor}.
+     *
+     * @see #RECOGNITION_MONITOR_BUFFER_SIZE_KEY
+     */
+    public static int DEFAULT_RECOGNITION_MONITOR_BUFFER_SIZE = 1024;
+
+    /**
+     * The {@link Configuration} key used to specify the {@link RecognitionRingBuffer.OverflowPolicy} of the
+     * {@link AsyncRecognitionMonitor} ({@code drop} or {@code block}).
+     * <p>
+     * This property is optional, and defaults to {@code drop} (the recognition never waits for the monitoring
+     * sinks).
+     */
+    public static String RECOGNITION_MONITOR_OVERFLOW_POLICY_KEY = "xatkit.recognition.monitor.overflow_policy";
+
+    /**
+     * The {@link Configuration} key used to specify the rate (in {@code ]0, 1]}) of the confident recognitions
+     * stored by the {@link SamplingRecognitionMonitor}.
+     * <p>
+     * This property is optional, and defaults to {@code 1} (all the recognitions are stored). Setting this property
+     * or {@link #RECOGNITION_MONITOR_SAMPLING_TARGET_RATE_KEY} enables the {@link SamplingRecognitionMonitor}.
+     */
+    public static String RECOGNITION_MONITOR_SAMPLING_RATE_KEY = "xatkit.recognition.monitor.sampling.rate";
+
+    /**
+     * The {@link Configuration} key used to specify the confidence under which the recognitions are always stored
+     * by the {@link SamplingRecognitionMonitor}.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD}.
+     */
+    public static String RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD_KEY =
+            "xatkit.recognition.monitor.sampling.confidence_threshold";
+
+    /**
+     * The default confidence under which the recognitions are always stored by the
+     * {@link SamplingRecognitionMonitor}.
+     *
+     * @see #RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD_KEY
+     */
+    public static float DEFAULT_RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD = 0.8f;
+
+    /**
+     * The {@link Configuration} key used to specify the maximum number of confident recognitions stored per second
+     * by the {@link SamplingRecognitionMonitor}.
+     * <p>
+     * Setting this property adapts the sampling rate to the load. This property is optional, and defaults to
+     * {@code 0} (the sampling rate is fixed).
+     */
+    public static String RECOGNITION_MONITOR_SAMPLING_TARGET_RATE_KEY =
+            "xatkit.recognition.monitor.sampling.target_rate";
+
     /**
      * The base {@link Configuration} used to initialize the {@link IntentRecognitionProviderFactoryConfiguration}.
      */
@@ -71,6 +170,48 @@ public class IntentRecognitionProviderFactoryConfiguration {
      */
     private List<String> postProcessorNames;
 
+    /**
+     * The maximum number of entries of the {@link RecognitionCache} ({@code 0} if the cache is disabled).
+     */
+    private int recognitionCacheSize;
+
+    /**
+     * The time-to-live (in milliseconds) of the {@link RecognitionCache} entries.
+     */
+    private long recognitionCacheTtl;
+
+    /**
+     * The names of the {@link RecognitionEventSink}s storing the monitoring information.
+     */
+    private List<String> recognitionMonitorSinks;
+
+    /**
+     * The capacity of the {@link RecognitionRingBuffer} of the {@link AsyncRecognitionMonitor} ({@code 0} if the
+     * recognitions are logged synchronously).
+     */
+    private int recognitionMonitorBufferSize;
+
+    /**
+     * The {@link RecognitionRingBuffer.OverflowPolicy} of the {@link AsyncRecognitionMonitor}.
+     */
+    private RecognitionRingBuffer.OverflowPolicy recognitionMonitorOverflowPolicy;
+
+    /**
+     * The rate of the confident recognitions stored by the {@link SamplingRecognitionMonitor}.
+     */
+    private double recognitionMonitorSamplingRate;
+
+    /**
+     * The confidence under which the recognitions are always stored by the {@link SamplingRecognitionMonitor}.
+     */
+    private float recognitionMonitorSamplingConfidenceThreshold;
+
+    /**
+     * The maximum number of confident recognitions stored per second by the {@link SamplingRecognitionMonitor}
+     * ({@code 0} if the sampling rate is fixed).
+     */
+    private long recognitionMonitorSamplingTargetRate;
+
     /**
      * Initializes the {@link IntentRecognitionProviderFactoryConfiguration} with the provided {@code
      * baseConfiguration}.
@@ -83,7 +224,64 @@ public class IntentRecognitionProviderFactoryConfiguration {
         this.enableRecognitionAnalytics = baseConfiguration.getBoolean(ENABLE_RECOGNITION_ANALYTICS, true);
         this.preProcessorNames = getList(baseConfiguration, RECOGNITION_PREPROCESSORS_KEY);
         this.postProcessorNames = getList(baseConfiguration, RECOGNITION_POSTPROCESSORS_KEY);
+        this.recognitionCacheSize = baseConfiguration.getInt(RECOGNITION_CACHE_SIZE_KEY, 0);
+        this.recognitionCacheTtl = baseConfiguration.getLong(RECOGNITION_CACHE_TTL_KEY,
+                DEFAULT_RECOGNITION_CACHE_TTL);
+        List<String> sinks = getList(baseConfiguration, RECOGNITION_MONITOR_SINKS_KEY);
+        if (sinks.isEmpty()) {
+            sinks = Collections.singletonList(baseConfiguration.getString(
+                    IntentRecognitionProviderFactory.DATABASE_MODEL_KEY,
+                    IntentRecognitionProviderFactory.DEFAULT_DATABASE_MODEL));
+        }
+        this.recognitionMonitorSinks = sinks.stream().map(String::toLowerCase).collect(Collectors.toList());
+        this.recognitionMonitorBufferSize = baseConfiguration.getInt(RECOGNITION_MONITOR_BUFFER_SIZE_KEY,
+                DEFAULT_RECOGNITION_MONITOR_BUFFER_SIZE);
+        String overflowPolicy = baseConfiguration.getString(RECOGNITION_MONITOR_OVERFLOW_POLICY_KEY,
+                RecognitionRingBuffer.OverflowPolicy.DROP.name());
+        this.recognitionMonitorOverflowPolicy = Arrays.stream(RecognitionRingBuffer.OverflowPolicy.values())
+                .filter(policy -> policy.name().equalsIgnoreCase(overflowPolicy))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(MessageFormat.format("Unknown overflow policy {0} "
+                        + "(key: {1}), expected one of {2}", overflowPolicy, RECOGNITION_MONITOR_OVERFLOW_POLICY_KEY,
+                        Arrays.toString(RecognitionRingBuffer.OverflowPolicy.values()))));
+        this.recognitionMonitorSamplingRate = baseConfiguration.getDouble(RECOGNITION_MONITOR_SAMPLING_RATE_KEY, 1);
+        this.recognitionMonitorSamplingConfidenceThreshold = baseConfiguration.getFloat(
+                RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD_KEY,
+                DEFAULT_RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD);
+        this.recognitionMonitorSamplingTargetRate =
+                baseConfiguration.getLong(RECOGNITION_MONITOR_SAMPLING_TARGET_RATE_KEY, 0);
+    }
+
+    /**
+     * Returns whether the {@link RecognitionCache} is enabled.
+     *
+     * @return {@code true} if the {@link RecognitionCache} is enabled, {@code false} otherwise
+     * @see #RECOGNITION_CACHE_SIZE_KEY
+     */
+    public boolean isRecognitionCacheEnabled() {
+        return this.recognitionCacheSize > 0;
+    }
+
+    /**
+     * Returns whether the recognitions are logged by an {@link AsyncRecognitionMonitor}.
+     *
+     * @return {@code true} if the recognitions are logged by an {@link AsyncRecognitionMonitor}, {@code false}
+     * otherwise
+     * @see #RECOGNITION_MONITOR_BUFFER_SIZE_KEY
+     */
+    public boolean isAsyncRecognitionMonitorEnabled() {
+        return this.recognitionMonitorBufferSize > 0;
+    }
 
+    /**
+     * Returns whether the recognitions are sampled by a {@link SamplingRecognitionMonitor}.
+     *
+     * @return {@code true} if the recognitions are sampled, {@code false} otherwise
+     * @see #RECOGNITION_MONITOR_SAMPLING_RATE_KEY
+     * @see #RECOGNITION_MONITOR_SAMPLING_TARGET_RATE_KEY
+     */
+    public boolean isRecognitionMonitorSamplingEnabled() {
+        return this.recognitionMonitorSamplingRate < 1 || this.recognitionMonitorSamplingTargetRate > 0;
     }
 
     /**
@@ -0,0 +1,172 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.RecognitionMonitorMapDB.IntentRecord;
+import lombok.NonNull;
+import org.mapdb.DB;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.GroupSerializerObjectArray;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A MapDB {@link Serializer} storing {@link IntentRecord}s in a compact binary layout.
+ * <p>
+ * Each record is serialized with the following layout (version {@link #VERSION}):
+ * <ul>
+ *     <li>the layout version (1 byte)</li>
+ *     <li>the flags of the record (1 byte): matched status, presence of the utterance and of the confidence</li>
+ *     <li>the timestamp (packed long)</li>
+ *     <li>the identifier of the intent name in the intent dictionary (packed int)</li>
+ *     <li>the recognition confidence (4 bytes, if present)</li>
+ *     <li>the length of the UTF-8 encoded utterance (packed int) followed by its bytes (if present)</li>
+ * </ul>
+ * The intent dictionary is stored in the provided {@link DB}, and maps each intent name to a unique identifier.
+ * Intent names must be registered with {@link #register(String)} before serializing a record referring to them.
+ */
+class IntentRecordSerializer extends GroupSerializerObjectArray<IntentRecord> {
+
+    /**
+     * The version of the binary layout written by this serializer.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * The flag set if the record has been matched to an intent.
+     */
+    private static final int MATCHED_FLAG = 1;
+
+    /**
+     * The flag set if the record contains an utterance.
+     */
+    private static final int UTTERANCE_FLAG = 1 << 1;
+
+    /**
+     * The flag set if the record contains a recognition confidence.
+     */
+    private static final int CONFIDENCE_FLAG = 1 << 2;
+
+    /**
+     * The persistent intent dictionary, mapping intent names to their identifiers.
+     */
+    private final Map<String, Integer> dictionary;
+
+    /**
+     * The in-memory cache of the intent dictionary.
+     */
+    private final Map<String, Integer> identifiers = new ConcurrentHashMap<>();
+
+    /**
+     * The intent names, indexed by identifier.
+     * <p>
+     * Names are appended by {@link #register(String)} and read without synchronization when deserializing records
+     * (e.g. by a streaming export running in parallel with the recognitions), this list is thus copy-on-write.
+     */
+    private final List<String> names = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an {@link IntentRecordSerializer} using the intent dictionary stored in the provided {@code db}.
+     *
+     * @param db the {@link DB} containing the intent dictionary
+     * @throws NullPointerException if the provided {@code db} is {@code null}
+     */
+    IntentRecordSerializer(@NonNull DB db) {
+        this.dictionary = db.hashMap("intent_dictionary", Serializer.STRING, Serializer.INTEGER).createOrOpen();
+        String[] loadedNames = new String[dictionary.size()];
+        dictionary.forEach((name, id) -> loadedNames[id] = name);
+        for (String name : loadedNames) {
+            checkState(nonNull(name), "The intent dictionary is corrupted: missing identifier %s",
+                    names.size());
+            identifiers.put(name, names.size());
+            names.add(name);
+        }
+    }
+
+    /**
+     * Registers the provided {@code intentName} in the intent dictionary.
+     * <p>
+     * This method does nothing if the intent name is already registered.
+     *
+     * @param intentName the intent name to register
+     * @return the identifier of the intent name
+     * @throws NullPointerException if the provided {@code intentName} is {@code null}
+     */
+    synchronized int register(@NonNull String intentName) {
+        Integer id = identifiers.get(intentName);
+        if (isNull(id)) {
+            id = names.size();
+            dictionary.put(intentName, id);
+            names.add(intentName);
+            identifiers.put(intentName, id);
+        }
+        return id;
+    }
+
+    @Override
+    public void serialize(@NonNull DataOutput2 out, @NonNull IntentRecord value) throws IOException {
+        Integer intentId = identifiers.get(value.getIntentName());
+        checkState(nonNull(intentId), "Cannot serialize the record: the intent %s is not registered in the "
+                + "dictionary", value.getIntentName());
+        int flags = 0;
+        if (value.isMatched()) {
+            flags |= MATCHED_FLAG;
+        }
+        if (nonNull(value.getUtterance())) {
+            flags |= UTTERANCE_FLAG;
+        }
+        if (nonNull(value.getRecognitionConfidence())) {
+            flags |= CONFIDENCE_FLAG;
+        }
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        out.packLong(value.getTimestamp());
+        out.packInt(intentId);
+        if (nonNull(value.getRecognitionConfidence())) {
+            out.writeFloat(value.getRecognitionConfidence());
+        }
+        if (nonNull(value.getUtterance())) {
+            byte[] utterance = value.getUtterance().getBytes(StandardCharsets.UTF_8);
+            out.packInt(utterance.length);
+            out.write(utterance);
+        }
+    }
+
+    @Override
+    public IntentRecord deserialize(@NonNull DataInput2 input, int available) throws IOException {
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException(MessageFormat.format("Cannot deserialize the record: unsupported layout version "
+                    + "{0}", version));
+        }
+        int flags = input.readUnsignedByte();
+        long timestamp = input.unpackLong();
+        int intentId = input.unpackInt();
+        if (intentId >= names.size()) {
+            throw new IOException(MessageFormat.format("Cannot deserialize the record: unknown intent identifier "
+                    + "{0}", intentId));
+        }
+        Float confidence = null;
+        if ((flags & CONFIDENCE_FLAG) != 0) {
+            confidence = input.readFloat();
+        }
+        String utterance = null;
+        if ((flags & UTTERANCE_FLAG) != 0) {
+            byte[] bytes = new byte[input.unpackInt()];
+            input.readFully(bytes);
+            utterance = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new IntentRecord(timestamp, utterance, names.get(intentId), confidence,
+                (flags & MATCHED_FLAG) != 0);
+    }
+}
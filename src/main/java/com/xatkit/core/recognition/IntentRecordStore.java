@@ -0,0 +1,586 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.RecognitionMonitorMapDB.IntentRecord;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import lombok.Value;
+import org.mapdb.Atomic;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.GroupSerializer;
+import org.mapdb.serializer.SerializerArrayTuple;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.function.BiConsumer;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Stores the {@link IntentRecord}s of the {@link RecognitionMonitorMapDB} and provides indexed queries over them.
+ * <p>
+ * Records are stored in a {@link BTreeMap} with {@code (sessionId, sequence)} keys, where {@code sequence} is a
+ * global counter: keys never collide, even if several records are created within the same millisecond. Records are
+ * serialized with an {@link IntentRecordSerializer}. The store maintains the following secondary indexes:
+ * <ul>
+ *     <li>a time index ordered by {@code (timestamp, sessionId, sequence)}</li>
+ *     <li>an intent index ordered by {@code (intentName, timestamp, sessionId, sequence)}</li>
+ *     <li>a matched index ordered by {@code (matched, timestamp, sessionId, sequence)}</li>
+ * </ul>
+ * These indexes allow to retrieve the records of a time range (optionally filtered by intent or by matched/unmatched
+ * status) without scanning the entire store, and to page through the results with {@link #query(Query)}.
+ * <p>
+ * Unmatched records can be annotated with a {@link Rematch} holding the intent they would now be matched to (see
+ * {@link RecognitionBackfill}). Annotations are stored in a separate map with the record keys, so they do not change
+ * the serialized records.
+ * <p>
+ * This class does not commit the underlying {@link DB}, callers are responsible of committing the changes. This
+ * class is not thread-safe.
+ */
+class IntentRecordStore {
+
+    /**
+     * The name of the legacy {@link Map} containing the records, see {@link #migrateLegacyRecords()}.
+     */
+    private static final String LEGACY_RECORDS = "intent_records";
+
+    /**
+     * The name of the {@link BTreeMap} containing the records serialized with Java serialization, see
+     * {@link #migrateJavaSerializedRecords()}.
+     */
+    private static final String JAVA_SERIALIZED_RECORDS = "intent_records_by_session";
+
+    /**
+     * The {@link DB} containing the records and the indexes.
+     */
+    private final DB db;
+
+    /**
+     * The {@link IntentRecordSerializer} used to store the records.
+     */
+    private final IntentRecordSerializer serializer;
+
+    /**
+     * The records, indexed by {@code (sessionId, sequence)}.
+     */
+    private final BTreeMap<Object[], IntentRecord> records;
+
+    /**
+     * The sequence used to create the record keys.
+     */
+    private final Atomic.Long sequence;
+
+    /**
+     * The time index, containing {@code (timestamp, sessionId, sequence)} tuples.
+     */
+    private final NavigableSet<Object[]> timeIndex;
+
+    /**
+     * The intent index, containing {@code (intentName, timestamp, sessionId, sequence)} tuples.
+     */
+    private final NavigableSet<Object[]> intentIndex;
+
+    /**
+     * The matched index, containing {@code (matched, timestamp, sessionId, sequence)} tuples.
+     */
+    private final NavigableSet<Object[]> matchedIndex;
+
+    /**
+     * The {@link Rematch} annotations, indexed by {@code (sessionId, sequence)}.
+     * <p>
+     * Each annotation is a {@code (intentName, recognitionConfidence, timestamp)} tuple.
+     */
+    private final BTreeMap<Object[], Object[]> rematches;
+
+    /**
+     * Opens the {@link IntentRecordStore} contained in the provided {@code db}.
+     * <p>
+     * The store and its indexes are created if they do not exist, and the records stored by previous versions of
+     * the monitor are migrated to the store. Records are stored with an {@link IntentRecordSerializer}.
+     *
+     * @param db the {@link DB} containing the store
+     * @throws NullPointerException if the provided {@code db} is {@code null}
+     */
+    IntentRecordStore(@NonNull DB db) {
+        this.db = db;
+        this.serializer = new IntentRecordSerializer(db);
+        this.records = db.treeMap("intent_records_by_session_v" + IntentRecordSerializer.VERSION,
+                new SerializerArrayTuple(Serializer.STRING, Serializer.LONG), serializer).createOrOpen();
+        this.sequence = db.atomicLong("intent_records_sequence").createOrOpen();
+        this.timeIndex = db.treeSet("intent_records_by_time",
+                new SerializerArrayTuple(Serializer.LONG, Serializer.STRING, Serializer.LONG)).createOrOpen();
+        this.intentIndex = db.treeSet("intent_records_by_intent",
+                new SerializerArrayTuple(Serializer.STRING, Serializer.LONG, Serializer.STRING, Serializer.LONG))
+                .createOrOpen();
+        this.matchedIndex = db.treeSet("intent_records_by_matched",
+                new SerializerArrayTuple(Serializer.BOOLEAN, Serializer.LONG, Serializer.STRING, Serializer.LONG))
+                .createOrOpen();
+        this.rematches = db.treeMap("intent_records_rematches",
+                new SerializerArrayTuple(Serializer.STRING, Serializer.LONG),
+                new SerializerArrayTuple(Serializer.STRING, Serializer.FLOAT, Serializer.LONG)).createOrOpen();
+        this.migrateJavaSerializedRecords();
+        this.migrateLegacyRecords();
+    }
+
+    /**
+     * Adds the provided {@code record} to the store and updates the indexes.
+     *
+     * @param sessionId the identifier of the session of the record
+     * @param record    the {@link IntentRecord} to add
+     * @return the sequence number of the added record
+     * @throws NullPointerException if the provided {@code sessionId} or {@code record} is {@code null}
+     */
+    long add(@NonNull String sessionId, @NonNull IntentRecord record) {
+        serializer.register(record.getIntentName());
+        long seq = sequence.incrementAndGet();
+        records.put(new Object[]{sessionId, seq}, record);
+        long timestamp = record.getTimestamp();
+        timeIndex.add(new Object[]{timestamp, sessionId, seq});
+        intentIndex.add(new Object[]{record.getIntentName(), timestamp, sessionId, seq});
+        matchedIndex.add(new Object[]{record.isMatched(), timestamp, sessionId, seq});
+        return seq;
+    }
+
+    /**
+     * Returns the records of the provided {@code sessionId}, ordered by sequence number.
+     *
+     * @param sessionId the identifier of the session to retrieve the records of
+     * @return the records of the session (empty if the session does not exist)
+     * @throws NullPointerException if the provided {@code sessionId} is {@code null}
+     */
+    List<Entry> getSession(@NonNull String sessionId) {
+        List<Entry> result = new ArrayList<>();
+        for (Map.Entry<Object[], IntentRecord> entry : records.prefixSubMap(new Object[]{sessionId}).entrySet()) {
+            result.add(new Entry(sessionId, (Long) entry.getKey()[1], entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Iterates the stored sessions and calls the provided {@code consumer} for each of them.
+     * <p>
+     * Sessions are iterated in the order of their identifiers, and their records are ordered by sequence number.
+     *
+     * @param consumer the consumer to call with the identifier and the records of each session
+     * @throws NullPointerException if the provided {@code consumer} is {@code null}
+     */
+    void forEachSession(@NonNull BiConsumer<String, List<Entry>> consumer) {
+        String currentSession = null;
+        List<Entry> currentEntries = new ArrayList<>();
+        for (Map.Entry<Object[], IntentRecord> entry : records.entrySet()) {
+            String sessionId = (String) entry.getKey()[0];
+            if (!sessionId.equals(currentSession)) {
+                if (nonNull(currentSession)) {
+                    consumer.accept(currentSession, currentEntries);
+                }
+                currentSession = sessionId;
+                currentEntries = new ArrayList<>();
+            }
+            currentEntries.add(new Entry(sessionId, (Long) entry.getKey()[1], entry.getValue()));
+        }
+        if (nonNull(currentSession)) {
+            consumer.accept(currentSession, currentEntries);
+        }
+    }
+
+    /**
+     * Returns the number of stored records.
+     *
+     * @return the number of stored records
+     */
+    int size() {
+        return records.size();
+    }
+
+    /**
+     * Removes the oldest records created before the provided {@code cutoff} and their index entries.
+     * <p>
+     * This method removes at most {@code limit} records, allowing callers to split the removal of large time ranges
+     * in small batches. Records are removed in timestamp order, and only the records referenced by the time index
+     * are removed. The {@link Rematch} annotations of the removed records are also removed.
+     *
+     * @param cutoff the upper bound (exclusive) of the timestamps of the records to remove
+     * @param limit  the maximum number of records to remove
+     * @return the removed records, ordered by timestamp
+     * @throws IllegalArgumentException if the provided {@code limit} is not positive
+     */
+    List<Entry> removeBefore(long cutoff, int limit) {
+        checkArgument(limit > 0, "Invalid limit %s: expected a positive value", limit);
+        List<Object[]> keys = new ArrayList<>();
+        for (Object[] key : timeIndex.headSet(new Object[]{cutoff}, false)) {
+            if (keys.size() == limit) {
+                break;
+            }
+            keys.add(key);
+        }
+        List<Entry> removed = new ArrayList<>();
+        for (Object[] key : keys) {
+            long timestamp = (Long) key[0];
+            String sessionId = (String) key[1];
+            Long seq = (Long) key[2];
+            timeIndex.remove(key);
+            IntentRecord record = records.remove(new Object[]{sessionId, seq});
+            if (isNull(record)) {
+                Log.warn("The time index contains a reference to the missing record ({0}, {1})", sessionId, seq);
+                continue;
+            }
+            intentIndex.remove(new Object[]{record.getIntentName(), timestamp, sessionId, seq});
+            matchedIndex.remove(new Object[]{record.isMatched(), timestamp, sessionId, seq});
+            rematches.remove(new Object[]{sessionId, seq});
+            removed.add(new Entry(sessionId, seq, record));
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the {@link Rematch} annotation of the record with the provided {@code sessionId} and {@code seq}.
+     *
+     * @param sessionId the identifier of the session of the record
+     * @param seq       the sequence number of the record
+     * @return the {@link Rematch} annotation of the record, or {@code null} if the record is not annotated
+     * @throws NullPointerException if the provided {@code sessionId} is {@code null}
+     */
+    @Nullable
+    Rematch getRematch(@NonNull String sessionId, long seq) {
+        Object[] value = rematches.get(new Object[]{sessionId, seq});
+        if (isNull(value)) {
+            return null;
+        }
+        return new Rematch((String) value[0], (Float) value[1], (Long) value[2]);
+    }
+
+    /**
+     * Sets the {@link Rematch} annotation of the record with the provided {@code sessionId} and {@code seq}.
+     * <p>
+     * This method replaces the existing annotation of the record, or removes it if the provided {@code rematch} is
+     * {@code null}. Records that are not in the store are not annotated.
+     *
+     * @param sessionId the identifier of the session of the record
+     * @param seq       the sequence number of the record
+     * @param rematch   the {@link Rematch} annotation to set, or {@code null} to remove the existing one
+     * @throws NullPointerException if the provided {@code sessionId} is {@code null}
+     */
+    void setRematch(@NonNull String sessionId, long seq, @Nullable Rematch rematch) {
+        Object[] key = new Object[]{sessionId, seq};
+        if (isNull(rematch)) {
+            rematches.remove(key);
+        } else if (records.containsKey(key)) {
+            /*
+             * The record may have been removed by the retention task since it has been read.
+             */
+            rematches.put(key, new Object[]{rematch.getIntentName(), rematch.getRecognitionConfidence(),
+                    rematch.getTimestamp()});
+        }
+    }
+
+    /**
+     * Returns the page of records matching the provided {@code query}.
+     * <p>
+     * The records are ordered by timestamp. The returned {@link Page} contains a cursor that can be set in a
+     * subsequent {@link Query} to retrieve the next page. The filters of the {@code query} are applied before
+     * paginating the records: a page only contains fewer records than the {@code query}'s limit if it is the last
+     * one.
+     *
+     * @param query the {@link Query} to execute
+     * @return the {@link Page} of records matching the {@code query}
+     * @throws NullPointerException     if the provided {@code query} is {@code null}
+     * @throws IllegalArgumentException if the {@code query}'s cursor is invalid
+     */
+    Page query(@NonNull Query query) {
+        NavigableSet<Object[]> index;
+        Object[] prefix;
+        if (nonNull(query.getIntentName())) {
+            index = intentIndex;
+            prefix = new Object[]{query.getIntentName()};
+        } else if (nonNull(query.getMatched())) {
+            index = matchedIndex;
+            prefix = new Object[]{query.getMatched()};
+        } else {
+            index = timeIndex;
+            prefix = new Object[0];
+        }
+        NavigableSet<Object[]> range = index.subSet(concat(prefix, query.getFrom()), true,
+                concat(prefix, query.getTo()), false);
+        if (nonNull(query.getCursor())) {
+            range = range.tailSet(concat(prefix, decodeCursor(query.getCursor())), false);
+        }
+        List<Entry> entries = new ArrayList<>();
+        Object[] last = null;
+        for (Object[] key : range) {
+            if (entries.size() == query.getLimit()) {
+                break;
+            }
+            String sessionId = (String) key[prefix.length + 1];
+            Long seq = (Long) key[prefix.length + 2];
+            IntentRecord record = records.get(new Object[]{sessionId, seq});
+            if (isNull(record)) {
+                Log.warn("The index {0} contains a reference to the missing record ({1}, {2})",
+                        index == timeIndex ? "time" : index == intentIndex ? "intent" : "matched", sessionId, seq);
+                continue;
+            }
+            if (nonNull(query.getIntentName()) && nonNull(query.getMatched())
+                    && record.isMatched() != query.getMatched()) {
+                /*
+                 * The intent index does not contain the matched status, filter the records before paginating them.
+                 */
+                continue;
+            }
+            entries.add(new Entry(sessionId, seq, record));
+            last = key;
+        }
+        String nextCursor = null;
+        if (nonNull(last) && entries.size() == query.getLimit() && !range.tailSet(last, false).isEmpty()) {
+            nextCursor = encodeCursor((Long) last[prefix.length], (String) last[prefix.length + 1],
+                    (Long) last[prefix.length + 2]);
+        }
+        return new Page(entries, nextCursor);
+    }
+
+    /**
+     * Migrates the records stored with Java serialization by previous versions of the monitor.
+     * <p>
+     * The migrated records keep their keys, and the secondary indexes are not updated. The migrated records are
+     * removed from the Java-serialized map.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrateJavaSerializedRecords() {
+        if (!db.exists(JAVA_SERIALIZED_RECORDS)) {
+            return;
+        }
+        BTreeMap<Object[], IntentRecord> javaRecords = db.treeMap(JAVA_SERIALIZED_RECORDS,
+                new SerializerArrayTuple(Serializer.STRING, Serializer.LONG),
+                (GroupSerializer<IntentRecord>) (GroupSerializer<?>) Serializer.JAVA).createOrOpen();
+        if (javaRecords.isEmpty()) {
+            return;
+        }
+        Log.info("Migrating {0} analytics record(s) to the binary format", javaRecords.size());
+        for (Map.Entry<Object[], IntentRecord> entry : javaRecords.entrySet()) {
+            serializer.register(entry.getValue().getIntentName());
+            records.put(entry.getKey(), entry.getValue());
+        }
+        javaRecords.clear();
+        db.commit();
+    }
+
+    /**
+     * Migrates the records stored by previous versions of the monitor.
+     * <p>
+     * Previous versions stored the records in a {@code sessionId -> (timestamp -> record)} map, where records
+     * created within the same millisecond override each other. The migrated records are removed from the legacy map.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrateLegacyRecords() {
+        if (!db.exists(LEGACY_RECORDS)) {
+            return;
+        }
+        Map<String, Map<Long, IntentRecord>> legacyRecords =
+                (Map<String, Map<Long, IntentRecord>>) db.hashMap(LEGACY_RECORDS).createOrOpen();
+        if (legacyRecords.isEmpty()) {
+            return;
+        }
+        Log.info("Migrating {0} analytics session(s) to the indexed store", legacyRecords.size());
+        for (Map.Entry<String, Map<Long, IntentRecord>> sessionEntry : legacyRecords.entrySet()) {
+            for (Map.Entry<Long, IntentRecord> recordEntry : sessionEntry.getValue().entrySet()) {
+                this.add(sessionEntry.getKey(), recordEntry.getValue().withTimestamp(recordEntry.getKey()));
+            }
+        }
+        legacyRecords.clear();
+        db.commit();
+    }
+
+    /**
+     * Returns a tuple containing the elements of {@code prefix} followed by {@code value}.
+     *
+     * @param prefix the prefix of the tuple
+     * @param values the values to append
+     * @return the created tuple
+     */
+    private static Object[] concat(Object[] prefix, Object... values) {
+        Object[] result = new Object[prefix.length + values.length];
+        System.arraycopy(prefix, 0, result, 0, prefix.length);
+        System.arraycopy(values, 0, result, prefix.length, values.length);
+        return result;
+    }
+
+    /**
+     * Encodes the provided index position in an opaque cursor.
+     *
+     * @param timestamp the timestamp of the last returned record
+     * @param sessionId the session of the last returned record
+     * @param seq       the sequence number of the last returned record
+     * @return the encoded cursor
+     */
+    private static String encodeCursor(long timestamp, String sessionId, long seq) {
+        String raw = timestamp + ":" + seq + ":" + sessionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the provided {@code cursor}.
+     *
+     * @param cursor the cursor to decode
+     * @return the {@code (timestamp, sessionId, sequence)} position encoded in the cursor
+     * @throws IllegalArgumentException if the provided {@code cursor} is invalid
+     */
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            checkArgument(parts.length == 3, "Invalid cursor %s", cursor);
+            return new Object[]{Long.parseLong(parts[0]), parts[2], Long.parseLong(parts[1])};
+        } catch (IllegalArgumentException e) {
+            /*
+             * Also catches NumberFormatException and the Base64 decoding errors.
+             */
+            throw new IllegalArgumentException("Invalid cursor " + cursor, e);
+        }
+    }
+
+    /**
+     * A stored {@link IntentRecord} with its key.
+     */
+    @Value
+    static class Entry {
+
+        /**
+         * The identifier of the session of the record.
+         */
+        private String sessionId;
+
+        /**
+         * The sequence number of the record.
+         */
+        private long sequence;
+
+        /**
+         * The record.
+         */
+        private IntentRecord record;
+    }
+
+    /**
+     * The intent an unmatched record would now be matched to.
+     */
+    @Value
+    static class Rematch {
+
+        /**
+         * The name of the intent the record would now be matched to.
+         */
+        private String intentName;
+
+        /**
+         * The confidence of the new recognition.
+         */
+        private float recognitionConfidence;
+
+        /**
+         * The time (in milliseconds) of the new recognition.
+         */
+        private long timestamp;
+    }
+
+    /**
+     * A query over the stored records.
+     * <p>
+     * A query can filter the records by intent name and/or by matched/unmatched status. Queries filtering by intent
+     * name use the intent index, and check the matched status of the records if it is set.
+     */
+    @Value
+    static class Query {
+
+        /**
+         * The name of the intent of the records to retrieve, or {@code null} to retrieve all the intents.
+         */
+        @Nullable
+        private String intentName;
+
+        /**
+         * The matched status of the records to retrieve, or {@code null} to retrieve all the records.
+         */
+        @Nullable
+        private Boolean matched;
+
+        /**
+         * The lower bound (inclusive) of the timestamps of the records to retrieve.
+         */
+        private long from;
+
+        /**
+         * The upper bound (exclusive) of the timestamps of the records to retrieve.
+         */
+        private long to;
+
+        /**
+         * The maximum number of records to retrieve.
+         */
+        private int limit;
+
+        /**
+         * The cursor returned by the previous {@link Page}, or {@code null} to retrieve the first page.
+         */
+        @Nullable
+        private String cursor;
+
+        /**
+         * Creates a {@link Query} with the provided parameters.
+         *
+         * @param intentName the name of the intent of the records to retrieve
+         * @param matched    the matched status of the records to retrieve
+         * @param from       the lower bound (inclusive) of the timestamps of the records to retrieve
+         * @param to         the upper bound (exclusive) of the timestamps of the records to retrieve
+         * @param limit      the maximum number of records to retrieve
+         * @param cursor     the cursor returned by the previous {@link Page}
+         * @throws IllegalArgumentException if {@code from > to} or if {@code limit} is not positive
+         */
+        Query(@Nullable String intentName, @Nullable Boolean matched, long from, long to, int limit,
+              @Nullable String cursor) {
+            checkArgument(from <= to, "Invalid time range [%s, %s[", from, to);
+            checkArgument(limit > 0, "Invalid limit %s: expected a positive value", limit);
+            this.intentName = intentName;
+            this.matched = matched;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.cursor = cursor;
+        }
+    }
+
+    /**
+     * A page of records returned by {@link #query(Query)}.
+     */
+    @Value
+    static class Page {
+
+        /**
+         * The records of the page, ordered by timestamp.
+         */
+        private List<Entry> entries;
+
+        /**
+         * The cursor to retrieve the next page, or {@code null} if this is the last page.
+         */
+        @Nullable
+        private String nextCursor;
+
+        /**
+         * Creates a {@link Page} with the provided {@code entries} and {@code nextCursor}.
+         *
+         * @param entries    the records of the page
+         * @param nextCursor the cursor to retrieve the next page
+         */
+        Page(List<Entry> entries, @Nullable String nextCursor) {
+            this.entries = Collections.unmodifiableList(entries);
+            this.nextCursor = nextCursor;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.RecognitionMonitorMapDB.IntentRecord;
+import lombok.NonNull;
+import lombok.Value;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.SerializerArrayTuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Stores the downsampled {@link IntentRecord}s of the {@link RecognitionMonitorMapDB}.
+ * <p>
+ * A rollup summarizes the records of an intent within a time bucket: it contains the number of records, the number
+ * of matched records, and the sum of their recognition confidences. Rollups are stored in a {@link BTreeMap} for
+ * each {@link Granularity}, with {@code (bucketStart, intentName)} keys. Buckets are aligned on UTC hours and days.
+ * <p>
+ * Records removed from the {@link IntentRecordStore} are added to the {@link Granularity#HOURLY} rollups, which are
+ * in turn merged into {@link Granularity#DAILY} rollups with {@link #rollUp(long, int)}.
+ * <p>
+ * This class does not commit the underlying {@link DB}, callers are responsible of committing the changes. This
+ * class is not thread-safe.
+ */
+class IntentRollupStore {
+
+    /**
+     * The granularity of the stored rollups.
+     */
+    enum Granularity {
+        HOURLY(TimeUnit.HOURS.toMillis(1)),
+        DAILY(TimeUnit.DAYS.toMillis(1));
+
+        /**
+         * The duration (in milliseconds) of a bucket.
+         */
+        private final long bucketSize;
+
+        Granularity(long bucketSize) {
+            this.bucketSize = bucketSize;
+        }
+
+        /**
+         * Returns the start of the bucket containing the provided {@code timestamp}.
+         *
+         * @param timestamp the timestamp to compute the bucket of
+         * @return the start of the bucket containing the {@code timestamp}
+         */
+        long floor(long timestamp) {
+            return Math.floorDiv(timestamp, bucketSize) * bucketSize;
+        }
+    }
+
+    /**
+     * The hourly rollups, indexed by {@code (bucketStart, intentName)}.
+     * <p>
+     * Each rollup is a {@code [count, matchedCount, confidenceSum]} array.
+     */
+    private final BTreeMap<Object[], double[]> hourlyRollups;
+
+    /**
+     * The daily rollups, indexed by {@code (bucketStart, intentName)}.
+     * <p>
+     * Each rollup is a {@code [count, matchedCount, confidenceSum]} array.
+     */
+    private final BTreeMap<Object[], double[]> dailyRollups;
+
+    /**
+     * Opens the {@link IntentRollupStore} contained in the provided {@code db}.
+     * <p>
+     * The rollup maps are created if they do not exist.
+     *
+     * @param db the {@link DB} containing the store
+     * @throws NullPointerException if the provided {@code db} is {@code null}
+     */
+    IntentRollupStore(@NonNull DB db) {
+        this.hourlyRollups = db.treeMap("intent_rollups_hourly",
+                new SerializerArrayTuple(Serializer.LONG, Serializer.STRING), Serializer.DOUBLE_ARRAY)
+                .createOrOpen();
+        this.dailyRollups = db.treeMap("intent_rollups_daily",
+                new SerializerArrayTuple(Serializer.LONG, Serializer.STRING), Serializer.DOUBLE_ARRAY)
+                .createOrOpen();
+    }
+
+    /**
+     * Adds the provided {@code record} to the hourly rollup of its intent.
+     *
+     * @param record the {@link IntentRecord} to add
+     * @throws NullPointerException if the provided {@code record} is {@code null}
+     */
+    void add(@NonNull IntentRecord record) {
+        double confidence = record.isMatched() && nonNull(record.getRecognitionConfidence()) ?
+                record.getRecognitionConfidence() : 0;
+        merge(hourlyRollups, new Object[]{Granularity.HOURLY.floor(record.getTimestamp()), record.getIntentName()},
+                new double[]{1, record.isMatched() ? 1 : 0, confidence});
+    }
+
+    /**
+     * Merges the hourly rollups created before the provided {@code cutoff} into daily rollups.
+     * <p>
+     * The merged hourly rollups are removed. This method merges at most {@code limit} hourly rollups, allowing
+     * callers to split the merge of large time ranges in small batches.
+     *
+     * @param cutoff the upper bound (exclusive) of the buckets to merge, should be aligned on a day
+     * @param limit  the maximum number of hourly rollups to merge
+     * @return the number of merged hourly rollups
+     * @throws IllegalArgumentException if the provided {@code limit} is not positive
+     */
+    int rollUp(long cutoff, int limit) {
+        checkArgument(limit > 0, "Invalid limit %s: expected a positive value", limit);
+        List<Map.Entry<Object[], double[]>> entries = new ArrayList<>();
+        for (Map.Entry<Object[], double[]> entry : hourlyRollups.headMap(new Object[]{cutoff}, false).entrySet()) {
+            if (entries.size() == limit) {
+                break;
+            }
+            entries.add(entry);
+        }
+        for (Map.Entry<Object[], double[]> entry : entries) {
+            long bucketStart = (Long) entry.getKey()[0];
+            merge(dailyRollups, new Object[]{Granularity.DAILY.floor(bucketStart), entry.getKey()[1]},
+                    entry.getValue());
+            hourlyRollups.remove(entry.getKey());
+        }
+        return entries.size();
+    }
+
+    /**
+     * Returns the rollups of the provided {@code granularity} within the given time range.
+     *
+     * @param granularity the {@link Granularity} of the rollups to retrieve
+     * @param from        the lower bound (inclusive) of the buckets to retrieve
+     * @param to          the upper bound (exclusive) of the buckets to retrieve
+     * @return the rollups, ordered by bucket and intent name
+     * @throws NullPointerException     if the provided {@code granularity} is {@code null}
+     * @throws IllegalArgumentException if {@code from > to}
+     */
+    List<Rollup> query(@NonNull Granularity granularity, long from, long to) {
+        checkArgument(from <= to, "Invalid time range [%s, %s[", from, to);
+        BTreeMap<Object[], double[]> rollups = granularity == Granularity.HOURLY ? hourlyRollups : dailyRollups;
+        List<Rollup> result = new ArrayList<>();
+        for (Map.Entry<Object[], double[]> entry : rollups.subMap(new Object[]{from}, true, new Object[]{to},
+                false).entrySet()) {
+            double[] value = entry.getValue();
+            result.add(new Rollup((Long) entry.getKey()[0], (String) entry.getKey()[1], (long) value[0],
+                    (long) value[1], value[2]));
+        }
+        return result;
+    }
+
+    /**
+     * Adds the provided {@code value} to the rollup stored with the given {@code key}.
+     *
+     * @param rollups the {@link BTreeMap} containing the rollup
+     * @param key     the key of the rollup
+     * @param value   the {@code [count, matchedCount, confidenceSum]} array to add
+     */
+    private static void merge(BTreeMap<Object[], double[]> rollups, Object[] key, double[] value) {
+        double[] existing = rollups.get(key);
+        if (isNull(existing)) {
+            rollups.put(key, value);
+        } else {
+            rollups.put(key, new double[]{existing[0] + value[0], existing[1] + value[1], existing[2] + value[2]});
+        }
+    }
+
+    /**
+     * The summary of the records of an intent within a time bucket.
+     */
+    @Value
+    static class Rollup {
+
+        /**
+         * The start of the bucket.
+         */
+        private long bucketStart;
+
+        /**
+         * The name of the intent of the summarized records.
+         */
+        private String intentName;
+
+        /**
+         * The number of summarized records.
+         */
+        private long count;
+
+        /**
+         * The number of summarized records that have been matched to an intent.
+         */
+        private long matchedCount;
+
+        /**
+         * The sum of the recognition confidences of the matched records.
+         */
+        private double confidenceSum;
+    }
+}
@@ -0,0 +1,141 @@
+package com.xatkit.core.recognition;
+
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Waits until a trained NLU agent is ready to process inputs.
+ * <p>
+ * This class polls the provided {@link ReadinessCheck} with an adaptive backoff: the first checks are performed
+ * quickly (agents are often ready a few hundred milliseconds after their training), and the delay between two
+ * checks is doubled after each unsuccessful attempt, up to a maximum delay. The poller gives up once the configured
+ * timeout is reached.
+ *
+ * @see #TRAINING_TIMEOUT_KEY
+ */
+public class ReadinessPoller {
+
+    /**
+     * The {@link Configuration} key to specify the maximum time (in milliseconds) to wait for a trained agent to be
+     * ready.
+     * <p>
+     * This property is optional, and is set to {@link #DEFAULT_TRAINING_TIMEOUT} by default.
+     */
+    public static final String TRAINING_TIMEOUT_KEY = "xatkit.recognition.training.timeout";
+
+    /**
+     * The default maximum time (in milliseconds) to wait for a trained agent to be ready.
+     */
+    public static final long DEFAULT_TRAINING_TIMEOUT = 60000;
+
+    /**
+     * The delay (in milliseconds) before the first check.
+     */
+    private static final long DEFAULT_INITIAL_DELAY = 250;
+
+    /**
+     * The maximum delay (in milliseconds) between two checks.
+     */
+    private static final long DEFAULT_MAX_DELAY = 5000;
+
+    /**
+     * Checks whether an agent is ready.
+     */
+    @FunctionalInterface
+    public interface ReadinessCheck {
+
+        /**
+         * Returns whether the agent is ready.
+         * <p>
+         * Exceptions thrown by this method are considered as transient errors (e.g. network issues), and the
+         * {@link ReadinessPoller} retries the check after the next delay.
+         *
+         * @return {@code true} if the agent is ready, {@code false} otherwise
+         * @throws Exception if an error occurred when checking the agent
+         */
+        boolean isReady() throws Exception;
+    }
+
+    /**
+     * The delay (in milliseconds) before the first check.
+     */
+    private long initialDelay;
+
+    /**
+     * The maximum delay (in milliseconds) between two checks.
+     */
+    private long maxDelay;
+
+    /**
+     * The maximum time (in milliseconds) to wait for the agent to be ready.
+     */
+    private long timeout;
+
+    /**
+     * Constructs a {@link ReadinessPoller} from the provided {@code configuration}.
+     *
+     * @param configuration the Xatkit {@link Configuration}
+     * @throws NullPointerException if the provided {@code configuration} is {@code null}
+     * @see #TRAINING_TIMEOUT_KEY
+     */
+    public ReadinessPoller(@NonNull Configuration configuration) {
+        this(DEFAULT_INITIAL_DELAY, DEFAULT_MAX_DELAY, configuration.getLong(TRAINING_TIMEOUT_KEY,
+                DEFAULT_TRAINING_TIMEOUT));
+    }
+
+    /**
+     * Constructs a {@link ReadinessPoller} with the provided delays and {@code timeout}.
+     *
+     * @param initialDelay the delay (in milliseconds) before the first check
+     * @param maxDelay     the maximum delay (in milliseconds) between two checks
+     * @param timeout      the maximum time (in milliseconds) to wait for the agent to be ready
+     * @throws IllegalArgumentException if one of the provided values is not positive, or if {@code maxDelay <
+     *                                  initialDelay}
+     */
+    public ReadinessPoller(long initialDelay, long maxDelay, long timeout) {
+        checkArgument(initialDelay > 0 && maxDelay >= initialDelay && timeout > 0, "Cannot create a %s with the "
+                        + "provided values (initialDelay=%s, maxDelay=%s, timeout=%s)",
+                ReadinessPoller.class.getSimpleName(), initialDelay, maxDelay, timeout);
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Waits until the provided {@code check} returns {@code true} or the timeout is reached.
+     *
+     * @param check the {@link ReadinessCheck} to poll
+     * @return {@code true} if the agent is ready, {@code false} if the timeout has been reached
+     * @throws NullPointerException if the provided {@code check} is {@code null}
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean await(@NonNull ReadinessCheck check) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long delay = initialDelay;
+        int attempts = 0;
+        while (true) {
+            long elapsed = System.currentTimeMillis() - start;
+            if (elapsed >= timeout) {
+                Log.warn("The agent is not ready after {0}ms ({1} checks)", elapsed, attempts);
+                return false;
+            }
+            Thread.sleep(Math.min(delay, timeout - elapsed));
+            attempts++;
+            try {
+                if (check.isReady()) {
+                    Log.debug("Agent ready after {0}ms ({1} checks)", System.currentTimeMillis() - start, attempts);
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                Log.debug("An error occurred when checking the agent readiness (attempt {0}): {1}", attempts,
+                        e.getMessage());
+            }
+            delay = Math.min(delay * 2, maxDelay);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.evaluation.EvaluationReport;
+import com.xatkit.core.recognition.evaluation.EvaluationResult;
+import com.xatkit.core.recognition.evaluation.EvaluationRunner;
+import com.xatkit.core.recognition.evaluation.EvaluationSample;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Re-recognizes the unmatched records of a {@link RecognitionMonitorMapDB} with a retrained
+ * {@link IntentRecognitionProvider}.
+ * <p>
+ * The backfill streams the unmatched records created before its start in pages, and recognizes each page in
+ * parallel with an {@link EvaluationRunner}. Each record is then annotated with the intent it would now be matched
+ * to (see the {@code /analytics/monitoring/unmatched} endpoint), or its previous annotation is removed if it is still
+ * unmatched. Records that cannot be recognized (e.g. the provider is unreachable) keep their previous annotation.
+ * <p>
+ * The backfill runs in a background thread and shares the provider with the live traffic. It throttles itself to
+ * keep the provider's latency stable: the recognitions are rate-limited, and the rate is halved each time the median
+ * latency of a page exceeds {@link #LATENCY_FACTOR} times the lowest median observed so far (or
+ * {@link #MIN_LATENCY}, for providers answering in less than a millisecond). The rate is increased back by
+ * {@link #RATE_INCREMENT} of the maximum rate after each page with a normal latency.
+ * <p>
+ * The backfill contexts are created with the {@link EvaluationRunner.ContextFactory}, which typically sets the
+ * {@link com.xatkit.execution.State} defining the intents that can be recognized. Their recognitions are not logged
+ * by the provider (see {@link EvaluationRunner#isEvaluationContext(com.xatkit.execution.StateContext)}).
+ * <p>
+ * A running bot starts a backfill with
+ * {@link com.xatkit.core.XatkitBot#startRecognitionBackfill(EvaluationRunner.ContextFactory)}, which retrieves the
+ * {@link RecognitionMonitorMapDB} of its provider (see {@link #findMonitor(RecognitionMonitor)}) and reads the
+ * backfill settings from its {@link Configuration}.
+ */
+public class RecognitionBackfill {
+
+    /**
+     * The {@link Configuration} key to specify the number of worker threads of the backfill.
+     * <p>
+     * This property is optional, and is set to {@link #DEFAULT_CONCURRENCY} if it is not specified.
+     */
+    public static final String CONCURRENCY_KEY = "xatkit.recognition.backfill.concurrency";
+
+    /**
+     * The default number of worker threads of the backfill.
+     */
+    public static final int DEFAULT_CONCURRENCY = 1;
+
+    /**
+     * The {@link Configuration} key to specify the maximum number of recognitions per second of the backfill.
+     * <p>
+     * This property is optional, and is set to {@link #DEFAULT_MAX_RATE} if it is not specified.
+     */
+    public static final String MAX_RATE_KEY = "xatkit.recognition.backfill.max_rate";
+
+    /**
+     * The default maximum number of recognitions per second of the backfill.
+     */
+    public static final double DEFAULT_MAX_RATE = 10;
+
+    /**
+     * The {@link Configuration} key to specify the number of records recognized in each page.
+     * <p>
+     * This property is optional, and is set to {@link #DEFAULT_PAGE_SIZE} if it is not specified.
+     */
+    public static final String PAGE_SIZE_KEY = "xatkit.recognition.backfill.page_size";
+
+    /**
+     * The default number of records recognized in each page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The ratio between the median latency of a page and the lowest median latency that triggers a slowdown.
+     */
+    static final double LATENCY_FACTOR = 2;
+
+    /**
+     * The ratio of the maximum rate added to the current rate after each page with a normal latency.
+     */
+    static final double RATE_INCREMENT = .1;
+
+    /**
+     * The lowest number of recognitions per second (unless the maximum rate is lower).
+     */
+    static final double MIN_RATE = 1;
+
+    /**
+     * The lowest reference latency (in milliseconds) used to detect a slowdown.
+     * <p>
+     * The median latency of fast providers (e.g. the RegEx provider) is rounded to {@code 0}: using it as the
+     * reference would halve the rate each time a page takes a single millisecond.
+     */
+    static final double MIN_LATENCY = 1;
+
+    /**
+     * The {@link RecognitionMonitorMapDB} containing the records to re-recognize.
+     */
+    private final RecognitionMonitorMapDB monitor;
+
+    /**
+     * The {@link IntentRecognitionProvider} used to re-recognize the records.
+     */
+    private final IntentRecognitionProvider provider;
+
+    /**
+     * The {@link EvaluationRunner} recognizing the pages.
+     * <p>
+     * The runner is shared by all the pages, its rate is updated with the current rate of the backfill.
+     */
+    private final EvaluationRunner runner;
+
+    /**
+     * The maximum number of recognitions per second.
+     */
+    private final double maxRate;
+
+    /**
+     * The number of records recognized in each page.
+     */
+    private final int pageSize;
+
+    /**
+     * The number of recognitions per second currently applied.
+     */
+    private volatile double currentRate;
+
+    /**
+     * The number of records re-recognized by the backfill.
+     */
+    private final AtomicLong processedCount = new AtomicLong();
+
+    /**
+     * The number of records that would now be matched to an intent.
+     */
+    private final AtomicLong rematchedCount = new AtomicLong();
+
+    /**
+     * The executor running the backfill.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The running backfill task, or {@code null} if the backfill has not been started.
+     */
+    @Nullable
+    private Future<Long> task;
+
+    /**
+     * Constructs a {@link RecognitionBackfill} re-recognizing the unmatched records of the provided {@code monitor}
+     * with the given {@code provider} and {@code configuration}.
+     *
+     * @param monitor        the {@link RecognitionMonitorMapDB} containing the records to re-recognize
+     * @param provider       the retrained {@link IntentRecognitionProvider} used to re-recognize the records
+     * @param contextFactory the {@link EvaluationRunner.ContextFactory} used to create the contexts of the workers
+     * @param configuration  the {@link Configuration} containing the settings of the backfill
+     * @throws NullPointerException     if the provided {@code monitor}, {@code provider}, {@code contextFactory}, or
+     *                                  {@code configuration} is {@code null}
+     * @throws IllegalArgumentException if the configured concurrency, rate, or page size is not positive
+     * @see #CONCURRENCY_KEY
+     * @see #MAX_RATE_KEY
+     * @see #PAGE_SIZE_KEY
+     */
+    public RecognitionBackfill(@NonNull RecognitionMonitorMapDB monitor, @NonNull IntentRecognitionProvider provider,
+                               @NonNull EvaluationRunner.ContextFactory contextFactory,
+                               @NonNull Configuration configuration) {
+        this(monitor, provider, contextFactory, configuration.getInt(CONCURRENCY_KEY, DEFAULT_CONCURRENCY),
+                configuration.getDouble(MAX_RATE_KEY, DEFAULT_MAX_RATE),
+                configuration.getInt(PAGE_SIZE_KEY, DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Constructs a {@link RecognitionBackfill} re-recognizing the unmatched records of the provided {@code monitor}
+     * with the given {@code provider}.
+     *
+     * @param monitor        the {@link RecognitionMonitorMapDB} containing the records to re-recognize
+     * @param provider       the retrained {@link IntentRecognitionProvider} used to re-recognize the records
+     * @param contextFactory the {@link EvaluationRunner.ContextFactory} used to create the contexts of the workers
+     * @param concurrency    the number of worker threads
+     * @param maxRate        the maximum number of recognitions per second
+     * @param pageSize       the number of records recognized in each page
+     * @throws NullPointerException     if the provided {@code monitor}, {@code provider}, or {@code contextFactory}
+     *                                  is {@code null}
+     * @throws IllegalArgumentException if the provided {@code concurrency}, {@code maxRate}, or {@code pageSize} is
+     *                                  not positive
+     */
+    public RecognitionBackfill(@NonNull RecognitionMonitorMapDB monitor, @NonNull IntentRecognitionProvider provider,
+                               @NonNull EvaluationRunner.ContextFactory contextFactory, int concurrency,
+                               double maxRate, int pageSize) {
+        checkArgument(concurrency > 0, "Invalid concurrency %s: expected a positive value", concurrency);
+        checkArgument(maxRate > 0, "Invalid rate %s: expected a positive value", maxRate);
+        checkArgument(pageSize > 0, "Invalid page size %s: expected a positive value", pageSize);
+        this.monitor = monitor;
+        this.provider = provider;
+        this.maxRate = maxRate;
+        this.pageSize = pageSize;
+        this.currentRate = maxRate;
+        this.runner = new EvaluationRunner(provider, contextFactory, concurrency, maxRate);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "xatkit-analytics-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the backfill of the unmatched records created before the current time.
+     *
+     * @return a {@link Future} completed with the number of records that would now be matched to an intent
+     * @throws IllegalStateException if the backfill is running or has been stopped
+     */
+    public synchronized Future<Long> start() {
+        checkState(!executor.isShutdown(), "Cannot start the backfill: the backfill has been stopped");
+        checkState(isNull(task) || task.isDone(), "Cannot start the backfill: the backfill is already running");
+        long to = System.currentTimeMillis();
+        this.task = executor.submit(() -> this.backfill(to));
+        return task;
+    }
+
+    /**
+     * Stops the backfill.
+     * <p>
+     * The page being recognized is interrupted, the records annotated before are kept.
+     */
+    public synchronized void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns whether the backfill is running.
+     *
+     * @return {@code true} if the backfill is running, {@code false} otherwise
+     */
+    public synchronized boolean isRunning() {
+        return nonNull(task) && !task.isDone();
+    }
+
+    /**
+     * Returns the number of recognitions per second currently applied.
+     *
+     * @return the current rate
+     */
+    public double getCurrentRate() {
+        return currentRate;
+    }
+
+    /**
+     * Returns the number of records re-recognized by the backfill.
+     *
+     * @return the number of re-recognized records
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * Returns the number of records that would now be matched to an intent.
+     *
+     * @return the number of rematched records
+     */
+    public long getRematchedCount() {
+        return rematchedCount.get();
+    }
+
+    /**
+     * Re-recognizes the unmatched records created before the provided {@code to} timestamp.
+     * <p>
+     * Bounding the records to re-recognize ensures the backfill terminates even if new unmatched records are logged
+     * while it runs. This method resets the counters of the backfill.
+     *
+     * @param to the upper bound (exclusive) of the timestamps of the records to re-recognize
+     * @return the number of records that would now be matched to an intent
+     * @throws InterruptedException if the backfill is stopped
+     */
+    long backfill(long to) throws InterruptedException {
+        Log.info("Re-recognizing the unmatched records with {0} (max rate: {1}/s)",
+                provider.getClass().getSimpleName(), maxRate);
+        long start = System.currentTimeMillis();
+        processedCount.set(0);
+        rematchedCount.set(0);
+        long rematched = 0;
+        double lowestLatency = Double.MAX_VALUE;
+        String cursor = null;
+        do {
+            IntentRecordStore.Page page = monitor.queryUnmatched(to, pageSize, cursor);
+            List<IntentRecordStore.Entry> entries = page.getEntries();
+            if (entries.isEmpty()) {
+                break;
+            }
+            List<EvaluationSample> samples = new ArrayList<>();
+            for (IntentRecordStore.Entry entry : entries) {
+                samples.add(new EvaluationSample(entry.getRecord().getUtterance(), null));
+            }
+            EvaluationReport report = runner.run(samples);
+            List<IntentRecordStore.Entry> recognizedEntries = new ArrayList<>();
+            List<IntentRecordStore.Rematch> rematches = new ArrayList<>();
+            long timestamp = System.currentTimeMillis();
+            for (int i = 0; i < entries.size(); i++) {
+                EvaluationResult result = report.getResults().get(i);
+                if (result.isFailed()) {
+                    /*
+                     * Keep the annotation of a previous backfill, the failure does not tell whether the record is
+                     * still unmatched.
+                     */
+                    continue;
+                }
+                recognizedEntries.add(entries.get(i));
+                if (!result.isMatched()) {
+                    rematches.add(null);
+                } else {
+                    rematches.add(new IntentRecordStore.Rematch(result.getRecognizedIntent(),
+                            result.getRecognitionConfidence(), timestamp));
+                    rematched++;
+                }
+            }
+            monitor.setRematches(recognizedEntries, rematches);
+            processedCount.addAndGet(entries.size());
+            rematchedCount.set(rematched);
+            double latency = report.getLatencyPercentiles().get(50.0);
+            lowestLatency = Math.min(lowestLatency, latency);
+            this.adaptRate(latency, lowestLatency);
+            cursor = page.getNextCursor();
+        } while (nonNull(cursor) && !Thread.currentThread().isInterrupted());
+        Log.info("Re-recognized {0} unmatched record(s) in {1}ms, {2} would now be matched", processedCount.get(),
+                System.currentTimeMillis() - start, rematched);
+        return rematched;
+    }
+
+    /**
+     * Adapts the current rate to the median latency of the last page.
+     *
+     * @param latency       the median latency (in milliseconds) of the last page
+     * @param lowestLatency the lowest median latency (in milliseconds) observed by the backfill
+     */
+    void adaptRate(double latency, double lowestLatency) {
+        if (latency > Math.max(lowestLatency, MIN_LATENCY) * LATENCY_FACTOR) {
+            this.currentRate = Math.max(Math.min(MIN_RATE, maxRate), currentRate / 2);
+            Log.debug("The recognition latency increased ({0}ms), slowing down the backfill to {1}/s", latency,
+                    currentRate);
+        } else {
+            this.currentRate = Math.min(maxRate, currentRate + maxRate * RATE_INCREMENT);
+        }
+        this.runner.setMaxRate(currentRate);
+    }
+
+    /**
+     * Returns the {@link RecognitionMonitorMapDB} storing the records of the provided {@code monitor}.
+     * <p>
+     * This method looks for the {@link RecognitionMonitorMapDB} behind the {@link SamplingRecognitionMonitor} and
+     * {@link AsyncRecognitionMonitor} created by the {@link IntentRecognitionProviderFactory}.
+     *
+     * @param monitor the {@link RecognitionMonitor} of an {@link IntentRecognitionProvider}
+     * @return the {@link RecognitionMonitorMapDB} storing the records of the {@code monitor}, or {@code null} if the
+     * records are not stored in MapDB
+     */
+    public static @Nullable RecognitionMonitorMapDB findMonitor(@Nullable RecognitionMonitor monitor) {
+        if (monitor instanceof SamplingRecognitionMonitor) {
+            return findMonitor(((SamplingRecognitionMonitor) monitor).getDelegate());
+        }
+        if (monitor instanceof AsyncRecognitionMonitor) {
+            for (RecognitionEventSink sink : ((AsyncRecognitionMonitor) monitor).getSinks()) {
+                if (sink instanceof RecognitionMonitorMapDB) {
+                    return (RecognitionMonitorMapDB) sink;
+                }
+            }
+            return null;
+        }
+        if (monitor instanceof RecognitionMonitorMapDB) {
+            return (RecognitionMonitorMapDB) monitor;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,351 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.execution.State;
+import com.xatkit.intent.RecognizedIntent;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import javax.annotation.Nullable;
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * A bounded cache storing the {@link RecognizedIntent}s computed by an {@link AbstractIntentRecognitionProvider}.
+ * <p>
+ * Cached entries are indexed by the {@link State} the recognition has been performed from and the normalized
+ * pre-processed input. This means that the same input received in two different states is recognized twice (the
+ * matchable intents may differ from one state to another), while repeated inputs in the same state (e.g. "yes",
+ * "help", "hi") are answered from the cache without calling the underlying NLU engine.
+ * <p>
+ * Entries are evicted when the cache exceeds its maximum size (least recently used entries first), or when they are
+ * older than the configured time-to-live. The cache must be {@link #invalidate() invalidated} each time the
+ * underlying model changes (e.g. when an intent is registered, deleted, or when the ML engine is trained). The
+ * recognitions started before an invalidation are not cached (see {@link #getGeneration()}).
+ * <p>
+ * This class stores and returns <b>copies</b> of the cached {@link RecognizedIntent}s: post-processors can safely
+ * update the returned instances without altering the cached value.
+ *
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_CACHE_SIZE_KEY
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_CACHE_TTL_KEY
+ */
+public class RecognitionCache {
+
+    /**
+     * The {@link Pattern} used to collapse sequences of whitespaces when normalizing inputs.
+     */
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    /**
+     * The maximum number of entries stored in the cache.
+     */
+    private final int maxSize;
+
+    /**
+     * The time-to-live of the cached entries (in milliseconds).
+     */
+    private final long ttl;
+
+    /**
+     * The clock used to compute the age of the cached entries (in milliseconds).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The access-ordered {@link Map} containing the cached entries.
+     * <p>
+     * Accesses to this map must be synchronized on the {@link RecognitionCache} instance.
+     */
+    private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+    /**
+     * The number of invalidations of the cache.
+     * <p>
+     * Accesses to this field must be synchronized on the {@link RecognitionCache} instance.
+     *
+     * @see #getGeneration()
+     */
+    private long generation;
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * The number of lookups that were not answered from the cache.
+     */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * The number of entries evicted because of the size or time-to-live limits.
+     */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Constructs a {@link RecognitionCache} with the provided {@code maxSize} and {@code ttl}.
+     *
+     * @param maxSize the maximum number of entries stored in the cache
+     * @param ttl     the time-to-live of the cached entries (in milliseconds)
+     * @throws IllegalArgumentException if the provided {@code maxSize} or {@code ttl} is lower or equal to {@code 0}
+     */
+    public RecognitionCache(int maxSize, long ttl) {
+        this(maxSize, ttl, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * Constructs a {@link RecognitionCache} with the provided {@code maxSize}, {@code ttl}, and {@code clock}.
+     * <p>
+     * This constructor is used in the tests to control the age of the cached entries.
+     *
+     * @param maxSize the maximum number of entries stored in the cache
+     * @param ttl     the time-to-live of the cached entries (in milliseconds)
+     * @param clock   the clock used to compute the age of the cached entries (in milliseconds)
+     * @throws IllegalArgumentException if the provided {@code maxSize} or {@code ttl} is lower or equal to {@code 0}
+     * @throws NullPointerException     if the provided {@code clock} is {@code null}
+     */
+    RecognitionCache(int maxSize, long ttl, @NonNull LongSupplier clock) {
+        checkArgument(maxSize > 0, "Cannot create a %s with the provided size %s: expected a positive value",
+                RecognitionCache.class.getSimpleName(), maxSize);
+        checkArgument(ttl > 0, "Cannot create a %s with the provided time-to-live %s: expected a positive value",
+                RecognitionCache.class.getSimpleName(), ttl);
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                boolean remove = size() > RecognitionCache.this.maxSize;
+                if (remove) {
+                    evictionCount.incrementAndGet();
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of the {@link RecognizedIntent} cached for the provided {@code state} and {@code input}.
+     *
+     * @param state the {@link State} the recognition is performed from
+     * @param input the pre-processed input to retrieve the {@link RecognizedIntent} of
+     * @return a copy of the cached {@link RecognizedIntent} if it exists, {@code null} otherwise
+     * @throws NullPointerException if the provided {@code state} or {@code input} is {@code null}
+     */
+    public @Nullable RecognizedIntent get(@NonNull State state, @NonNull String input) {
+        CacheKey key = new CacheKey(state, normalize(input));
+        CacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && clock.getAsLong() - entry.timestamp >= ttl) {
+                entries.remove(key);
+                evictionCount.incrementAndGet();
+                entry = null;
+            }
+        }
+        if (isNull(entry)) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return EcoreUtil.copy(entry.recognizedIntent);
+    }
+
+    /**
+     * Caches a copy of the provided {@code recognizedIntent} for the given {@code state} and {@code input}.
+     *
+     * @param state            the {@link State} the recognition has been performed from
+     * @param input            the pre-processed input the {@code recognizedIntent} has been computed from
+     * @param recognizedIntent the {@link RecognizedIntent} to cache
+     * @throws NullPointerException if the provided {@code state}, {@code input}, or {@code recognizedIntent} is
+     *                              {@code null}
+     */
+    public void put(@NonNull State state, @NonNull String input, @NonNull RecognizedIntent recognizedIntent) {
+        CacheEntry entry = new CacheEntry(EcoreUtil.copy(recognizedIntent), clock.getAsLong());
+        synchronized (this) {
+            entries.put(new CacheKey(state, normalize(input)), entry);
+        }
+    }
+
+    /**
+     * Caches a copy of the provided {@code recognizedIntent} if the cache has not been invalidated since the
+     * provided {@code generation}.
+     * <p>
+     * This method is used to discard the results of the recognitions performed with a stale model: the
+     * {@code generation} is retrieved with {@link #getGeneration()} before starting the recognition.
+     *
+     * @param state            the {@link State} the recognition has been performed from
+     * @param input            the pre-processed input the {@code recognizedIntent} has been computed from
+     * @param recognizedIntent the {@link RecognizedIntent} to cache
+     * @param generation       the generation of the cache when the recognition started
+     * @return {@code true} if the {@code recognizedIntent} has been cached, {@code false} if the cache has been
+     * invalidated in the meantime
+     * @throws NullPointerException if the provided {@code state}, {@code input}, or {@code recognizedIntent} is
+     *                              {@code null}
+     */
+    public boolean put(@NonNull State state, @NonNull String input, @NonNull RecognizedIntent recognizedIntent,
+                       long generation) {
+        CacheEntry entry = new CacheEntry(EcoreUtil.copy(recognizedIntent), clock.getAsLong());
+        synchronized (this) {
+            if (this.generation != generation) {
+                return false;
+            }
+            entries.put(new CacheKey(state, normalize(input)), entry);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the generation of the cache, which is incremented each time the cache is invalidated.
+     *
+     * @return the generation of the cache
+     * @see #put(State, String, RecognizedIntent, long)
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Removes all the entries stored in the cache.
+     * <p>
+     * This method must be called each time the model of the underlying {@link IntentRecognitionProvider} is updated.
+     * Note that the cache metrics are not reset by this method.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        if (!entries.isEmpty()) {
+            Log.debug("Invalidating the {0} ({1} entries)", RecognitionCache.class.getSimpleName(), entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries currently stored in the cache.
+     *
+     * @return the number of entries currently stored in the cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the number of lookups answered from the cache
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups that were not answered from the cache.
+     *
+     * @return the number of lookups that were not answered from the cache
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of entries evicted from the cache because of its size or time-to-live limits.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Returns the ratio of lookups answered from the cache.
+     *
+     * @return the ratio of lookups answered from the cache, or {@code 0} if the cache has not been accessed
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Normalizes the provided {@code input}.
+     * <p>
+     * The normalization applies Unicode NFC normalization, removes leading and trailing whitespaces, and collapses
+     * sequences of whitespaces. It does not change the case of the input, since some providers (e.g. the
+     * {@link com.xatkit.core.recognition.regex.RegExIntentRecognitionProvider}) are case sensitive.
+     *
+     * @param input the input to normalize
+     * @return the normalized input
+     */
+    private static String normalize(String input) {
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFC).trim();
+        return WHITESPACES.matcher(normalized).replaceAll(" ");
+    }
+
+    /**
+     * The key of the cached entries.
+     */
+    private static class CacheKey {
+
+        /**
+         * The {@link State} the recognition has been performed from.
+         */
+        private final State state;
+
+        /**
+         * The normalized input.
+         */
+        private final String input;
+
+        private CacheKey(State state, String input) {
+            this.state = state;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return state == other.state && input.equals(other.input);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(state), input);
+        }
+    }
+
+    /**
+     * A cached {@link RecognizedIntent} and its creation timestamp.
+     */
+    private static class CacheEntry {
+
+        /**
+         * The cached {@link RecognizedIntent}.
+         */
+        private final RecognizedIntent recognizedIntent;
+
+        /**
+         * The time the entry has been created (in milliseconds).
+         */
+        private final long timestamp;
+
+        private CacheEntry(RecognizedIntent recognizedIntent, long timestamp) {
+            this.recognizedIntent = recognizedIntent;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.RecognizedIntent;
+
+import javax.annotation.Nullable;
+import java.text.MessageFormat;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * The recognition information captured by a {@link RecognitionRingBuffer}.
+ * <p>
+ * Instances of this class are pre-allocated by the {@link RecognitionRingBuffer} and reused for each published
+ * recognition: {@link RecognitionEventSink}s see them as read-only values, but must not keep a reference to them
+ * once {@link RecognitionEventSink#handle(RecognitionEvent)} returned (the event may be overwritten by a later
+ * recognition).
+ *
+ * @see RecognitionRingBuffer
+ * @see RecognitionEventSink
+ */
+public final class RecognitionEvent {
+
+    /**
+     * The time (in milliseconds) when the intent has been recognized.
+     */
+    private long timestamp;
+
+    /**
+     * The identifier of the session the intent has been recognized in.
+     */
+    private String sessionId;
+
+    /**
+     * The origin of the session.
+     */
+    private String origin;
+
+    /**
+     * The platform that triggered the recognition.
+     */
+    private String platform;
+
+    /**
+     * The name of the recognized intent.
+     */
+    private String intentName;
+
+    /**
+     * The input that has been mapped to the intent.
+     */
+    private String utterance;
+
+    /**
+     * The confidence of the recognition.
+     */
+    private float recognitionConfidence;
+
+    /**
+     * Whether the input has been matched to an intent (i.e. the recognized intent is not the default fallback).
+     */
+    private boolean matched;
+
+    /**
+     * Whether the details of the recognition must be stored.
+     * <p>
+     * This value is {@code false} for the recognitions skipped by a {@link SamplingRecognitionMonitor}: they are
+     * only counted by the sinks (see {@link RecognitionEventSink#count(RecognitionEvent)}).
+     */
+    private boolean sampled;
+
+    /**
+     * Constructs an empty {@link RecognitionEvent}.
+     * <p>
+     * Events are created by the {@link RecognitionRingBuffer} and filled with {@link #set(long, StateContext,
+     * RecognizedIntent, boolean)}.
+     */
+    RecognitionEvent() {
+    }
+
+    /**
+     * Sets the content of this event from the provided {@code context} and {@code intent}.
+     * <p>
+     * This method only copies references, and does not allocate new objects.
+     *
+     * @param timestamp the time (in milliseconds) when the intent has been recognized
+     * @param context   the {@link StateContext} from which the {@link RecognizedIntent} has been created
+     * @param intent    the {@link RecognizedIntent} to capture
+     * @param sampled   whether the details of the recognition must be stored
+     */
+    void set(long timestamp, StateContext context, RecognizedIntent intent, boolean sampled) {
+        this.timestamp = timestamp;
+        this.sessionId = context.getContextId();
+        this.origin = context.getOrigin();
+        this.platform = intent.getTriggeredBy();
+        this.intentName = intent.getDefinition().getName();
+        this.utterance = intent.getMatchedInput();
+        this.recognitionConfidence = intent.getRecognitionConfidence();
+        this.matched = intent.getDefinition() != IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Sets the content of this event from the provided values.
+     * <p>
+     * This method is used in the tests to create sampled events without {@link StateContext}s.
+     *
+     * @param timestamp             the time (in milliseconds) when the intent has been recognized
+     * @param sessionId             the identifier of the session the intent has been recognized in
+     * @param intentName            the name of the recognized intent
+     * @param utterance             the input that has been mapped to the intent
+     * @param recognitionConfidence the confidence of the recognition
+     * @param matched               whether the input has been matched to an intent
+     */
+    void set(long timestamp, String sessionId, String intentName, String utterance, float recognitionConfidence,
+             boolean matched) {
+        this.timestamp = timestamp;
+        this.sessionId = sessionId;
+        this.origin = null;
+        this.platform = null;
+        this.intentName = intentName;
+        this.utterance = utterance;
+        this.recognitionConfidence = recognitionConfidence;
+        this.matched = matched;
+        this.sampled = true;
+    }
+
+    /**
+     * Returns the time (in milliseconds) when the intent has been recognized.
+     *
+     * @return the time (in milliseconds) when the intent has been recognized
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the identifier of the session the intent has been recognized in.
+     *
+     * @return the identifier of the session the intent has been recognized in
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Returns the origin of the session.
+     *
+     * @return the origin of the session, or {@code null} if it is not set
+     */
+    public @Nullable String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the platform that triggered the recognition.
+     *
+     * @return the platform that triggered the recognition, or {@code null} if it is not set
+     */
+    public @Nullable String getPlatform() {
+        return platform;
+    }
+
+    /**
+     * Returns the name of the recognized intent.
+     *
+     * @return the name of the recognized intent
+     */
+    public String getIntentName() {
+        return intentName;
+    }
+
+    /**
+     * Returns the input that has been mapped to the intent.
+     *
+     * @return the input that has been mapped to the intent
+     */
+    public @Nullable String getUtterance() {
+        return utterance;
+    }
+
+    /**
+     * Returns the confidence of the recognition.
+     *
+     * @return the confidence of the recognition
+     */
+    public float getRecognitionConfidence() {
+        return recognitionConfidence;
+    }
+
+    /**
+     * Returns whether the input has been matched to an intent.
+     *
+     * @return {@code true} if the input has been matched to an intent, {@code false} if the recognized intent is
+     * the default fallback
+     */
+    public boolean isMatched() {
+        return matched;
+    }
+
+    /**
+     * Returns whether the details of the recognition must be stored.
+     *
+     * @return {@code true} if the details of the recognition must be stored, {@code false} if the recognition has
+     * been skipped by a {@link SamplingRecognitionMonitor} and must only be counted
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format("{0}(session={1}, intent={2}, utterance={3}, confidence={4}, timestamp={5})",
+                RecognitionEvent.class.getSimpleName(), sessionId, intentName,
+                nonNull(utterance) ? "\"" + utterance + "\"" : null, recognitionConfidence, timestamp);
+    }
+}
@@ -0,0 +1,64 @@
+package com.xatkit.core.recognition;
+
+/**
+ * A destination of the {@link RecognitionEvent}s captured by an {@link AsyncRecognitionMonitor}.
+ * <p>
+ * Each sink is fed by a dedicated consumer thread: implementations do not need to be thread-safe regarding
+ * {@link #handle(RecognitionEvent)} and {@link #flush()}, but must not keep a reference to the provided events
+ * (they are reused by the {@link RecognitionRingBuffer}).
+ *
+ * @see AsyncRecognitionMonitor
+ */
+public interface RecognitionEventSink {
+
+    /**
+     * Returns the name of the sink.
+     * <p>
+     * This name is used to identify the sink in the logs and in the pipeline metrics.
+     *
+     * @return the name of the sink
+     */
+    default String getName() {
+        return this.getClass().getSimpleName();
+    }
+
+    /**
+     * Handles the provided {@code event}.
+     * <p>
+     * Events are delivered in publication order. Sinks can buffer the events and persist them in
+     * {@link #flush()}.
+     *
+     * @param event the {@link RecognitionEvent} to handle
+     */
+    void handle(RecognitionEvent event);
+
+    /**
+     * Counts the provided {@code event} without storing its details.
+     * <p>
+     * This method is called instead of {@link #handle(RecognitionEvent)} for the recognitions skipped by a
+     * {@link SamplingRecognitionMonitor}. Sinks maintaining aggregates should update them to keep them exact. The
+     * default implementation ignores the event.
+     *
+     * @param event the {@link RecognitionEvent} to count
+     * @see RecognitionEvent#isSampled()
+     */
+    default void count(RecognitionEvent event) {
+
+    }
+
+    /**
+     * Persists the events handled since the last flush.
+     * <p>
+     * This method is called each time the consumer thread has handled all the available events.
+     */
+    default void flush() {
+
+    }
+
+    /**
+     * Closes the sink.
+     * <p>
+     * This method is called once all the published events have been delivered to the sink.
+     */
+    void shutdown();
+}
@@ -0,0 +1,259 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.stream.JsonWriter;
+import com.xatkit.core.XatkitException;
+import com.xatkit.util.FileUtils;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A {@link RecognitionEventSink} writing the {@link RecognitionEvent}s in a rolling local file.
+ * <p>
+ * Events are written as JSON lines (one JSON object per line) in the {@link #FILE_NAME} file. When this file
+ * exceeds the size defined by {@link #MAX_FILE_SIZE_KEY} it is renamed {@code recognitions.jsonl.1} (existing
+ * archives are shifted, e.g. {@code recognitions.jsonl.1} becomes {@code recognitions.jsonl.2}), and a new file is
+ * created. The number of archives is bounded by {@link #MAX_HISTORY_KEY}.
+ * <p>
+ * The listing below shows an example of a written line:
+ * <pre>
+ * {@code
+ * {"timestamp":1582543925719,"sessionId":"7df67aeb-4e20-4ee4-86dd-8f0df52e3720","origin":null,"platform":"react",
+ * "intent":"Welcome","utterance":"hi","confidence":1.0,"matched":true}
+ * }
+ * </pre>
+ */
+public class RecognitionFileSink implements RecognitionEventSink {
+
+    /**
+     * The {@link Configuration} key to specify the directory containing the recognition files.
+     * <p>
+     * This property is optional, and defaults to the {@code analytics} folder of the Xatkit data directory (see
+     * {@link RecognitionMonitorMapDB#DATA_DIRECTORY_KEY}).
+     */
+    public static final String DIRECTORY_KEY = "xatkit.recognition.monitor.file.directory";
+
+    /**
+     * The {@link Configuration} key to specify the size (in bytes) triggering the rollover of the recognition file.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_MAX_FILE_SIZE}.
+     */
+    public static final String MAX_FILE_SIZE_KEY = "xatkit.recognition.monitor.file.max_size";
+
+    /**
+     * The default size (in bytes) triggering the rollover of the recognition file.
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+
+    /**
+     * The {@link Configuration} key to specify the number of archived recognition files to keep.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_MAX_HISTORY}.
+     */
+    public static final String MAX_HISTORY_KEY = "xatkit.recognition.monitor.file.max_history";
+
+    /**
+     * The default number of archived recognition files to keep.
+     */
+    public static final int DEFAULT_MAX_HISTORY = 5;
+
+    /**
+     * The name of the file the events are written to.
+     */
+    static final String FILE_NAME = "recognitions.jsonl";
+
+    /**
+     * The directory containing the recognition files.
+     */
+    private final File directory;
+
+    /**
+     * The size (in bytes) triggering the rollover of the recognition file.
+     */
+    private final long maxFileSize;
+
+    /**
+     * The number of archived recognition files to keep.
+     */
+    private final int maxHistory;
+
+    /**
+     * The size of the current file when it has been opened.
+     */
+    private long initialFileSize;
+
+    /**
+     * The stream counting the bytes written in the current file.
+     */
+    private CountingOutputStream countingOutputStream;
+
+    /**
+     * The {@link Writer} of the current file.
+     */
+    private Writer writer;
+
+    /**
+     * The {@link JsonWriter} used to write the events in the current file.
+     */
+    private JsonWriter jsonWriter;
+
+    /**
+     * Constructs a {@link RecognitionFileSink} with the provided {@code configuration}.
+     *
+     * @param configuration the Xatkit {@link Configuration}
+     * @throws NullPointerException     if the provided {@code configuration} is {@code null}
+     * @throws IllegalArgumentException if the configured maximum file size is not positive or the configured
+     *                                  history is negative
+     * @throws XatkitException          if an error occurred when opening the recognition file
+     * @see #DIRECTORY_KEY
+     * @see #MAX_FILE_SIZE_KEY
+     * @see #MAX_HISTORY_KEY
+     */
+    public RecognitionFileSink(@NonNull Configuration configuration) {
+        String directoryPath = configuration.getString(DIRECTORY_KEY,
+                configuration.getString(RecognitionMonitorMapDB.DATA_DIRECTORY_KEY,
+                        RecognitionMonitorMapDB.DEFAULT_DATA_DIRECTORY) + File.separator
+                        + RecognitionMonitorMapDB.ANALYTICS_DIRECTORY);
+        this.directory = FileUtils.getFile(directoryPath, configuration);
+        this.maxFileSize = configuration.getLong(MAX_FILE_SIZE_KEY, DEFAULT_MAX_FILE_SIZE);
+        checkArgument(maxFileSize > 0, "Cannot create the %s: the maximum file size must be positive (key: %s, "
+                + "value: %s)", RecognitionFileSink.class.getSimpleName(), MAX_FILE_SIZE_KEY, maxFileSize);
+        this.maxHistory = configuration.getInt(MAX_HISTORY_KEY, DEFAULT_MAX_HISTORY);
+        checkArgument(maxHistory >= 0, "Cannot create the %s: the history size cannot be negative (key: %s, "
+                + "value: %s)", RecognitionFileSink.class.getSimpleName(), MAX_HISTORY_KEY, maxHistory);
+        this.directory.mkdirs();
+        Log.info("Writing recognition events to {0}", new File(directory, FILE_NAME).getAbsolutePath());
+        this.open();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws XatkitException if an error occurred when writing the event
+     */
+    @Override
+    public void handle(RecognitionEvent event) {
+        try {
+            jsonWriter.beginObject();
+            jsonWriter.name("timestamp").value(event.getTimestamp());
+            jsonWriter.name("sessionId").value(event.getSessionId());
+            jsonWriter.name("origin").value(event.getOrigin());
+            jsonWriter.name("platform").value(event.getPlatform());
+            jsonWriter.name("intent").value(event.getIntentName());
+            jsonWriter.name("utterance").value(event.getUtterance());
+            jsonWriter.name("confidence").value(Float.valueOf(event.getRecognitionConfidence()));
+            jsonWriter.name("matched").value(event.isMatched());
+            jsonWriter.endObject();
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot write the event {0} to the recognition file",
+                    event), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method rolls the recognition file over if it exceeds the maximum size once flushed. Files can thus
+     * exceed the maximum size by the size of the last batch of events.
+     *
+     * @throws XatkitException if an error occurred when flushing the recognition file
+     */
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+            if (initialFileSize + countingOutputStream.getByteCount() >= maxFileSize) {
+                this.roll();
+            }
+        } catch (IOException e) {
+            throw new XatkitException("Cannot flush the recognition file", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            Log.error(e, "Cannot close the recognition file");
+        }
+    }
+
+    /**
+     * Opens the recognition file in append mode.
+     *
+     * @throws XatkitException if an error occurred when opening the file
+     */
+    private void open() {
+        File file = new File(directory, FILE_NAME);
+        try {
+            this.initialFileSize = file.length();
+            this.countingOutputStream = new CountingOutputStream(new FileOutputStream(file, true));
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot open the recognition file {0}",
+                    file.getAbsolutePath()), e);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(countingOutputStream, StandardCharsets.UTF_8));
+        this.jsonWriter = new JsonWriter(writer);
+        /*
+         * Lenient mode allows to write multiple top-level values (one per line).
+         */
+        this.jsonWriter.setLenient(true);
+    }
+
+    /**
+     * Archives the current recognition file and opens a new one.
+     *
+     * @throws IOException if an error occurred when closing or renaming the files
+     */
+    private void roll() throws IOException {
+        writer.close();
+        File oldest = new File(directory, FILE_NAME + "." + maxHistory);
+        if (oldest.exists() && !oldest.delete()) {
+            Log.warn("Cannot delete the archived recognition file {0}", oldest.getAbsolutePath());
+        }
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            File archive = new File(directory, FILE_NAME + "." + i);
+            if (archive.exists()) {
+                rename(archive, new File(directory, FILE_NAME + "." + (i + 1)));
+            }
+        }
+        File current = new File(directory, FILE_NAME);
+        if (maxHistory > 0) {
+            rename(current, new File(directory, FILE_NAME + "." + 1));
+        } else if (!current.delete()) {
+            Log.warn("Cannot delete the recognition file {0}", current.getAbsolutePath());
+        }
+        this.open();
+    }
+
+    /**
+     * Renames the provided {@code source} file to {@code target}.
+     *
+     * @param source the file to rename
+     * @param target the new file
+     * @throws IOException if the file cannot be renamed
+     */
+    private static void rename(File source, File target) throws IOException {
+        if (!source.renameTo(target)) {
+            throw new IOException(MessageFormat.format("Cannot rename {0} to {1}", source.getAbsolutePath(),
+                    target.getAbsolutePath()));
+        }
+    }
+}
@@ -13,6 +13,21 @@ public interface RecognitionMonitor {
      */
     void logRecognizedIntent(StateContext context, RecognizedIntent intent);
 
+    /**
+     * Counts the recognition from the provided {@code recognizedIntent} and {@code session} without storing its
+     * details.
+     * <p>
+     * This method is called by the {@link SamplingRecognitionMonitor} for the recognitions it skips. Monitors
+     * maintaining aggregates should update them to keep them exact. The default implementation ignores the
+     * recognition.
+     *
+     * @param context the {@link StateContext} from which the {@link RecognizedIntent} has been created
+     * @param intent  the {@link RecognizedIntent} to count
+     */
+    default void countRecognizedIntent(StateContext context, RecognizedIntent intent) {
+
+    }
+
     /**
      * Closes the connection to the database.
      */
@@ -1,5 +1,6 @@
 package com.xatkit.core.recognition;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
@@ -10,6 +11,7 @@ import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
 import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
+import com.xatkit.core.server.HttpEntityHelper;
 import com.xatkit.core.server.HttpMethod;
 import com.xatkit.core.server.HttpUtils;
 import com.xatkit.core.server.RestHandler;
@@ -21,13 +23,19 @@ import com.xatkit.intent.RecognizedIntent;
 import fr.inria.atlanmod.commons.log.Log;
 import org.apache.commons.configuration2.Configuration;
 
+import javax.annotation.Nullable;
+import java.text.MessageFormat;
 import java.time.Instant;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * Provides monitoring capabilities for {@link IntentRecognitionProvider}s.
@@ -50,6 +58,11 @@ import static java.util.Objects.isNull;
  * <li><b>timestamp</b>: Time entry when the utterance occurred. </li>
  * </p>
  * <p>
+ * The recognitions skipped by a {@link SamplingRecognitionMonitor} are stored as {@code intent_count} points, which
+ * contain the same tags but only the confidence and intent fields (see
+ * {@link #countRecognizedIntent(StateContext, RecognizedIntent)}). These points are included in the statistics
+ * endpoints ({@code sessions/stats} and {@code origin}), and allow to re-weight the stored {@code intent} points.
+ * <p>
  * The following endpoints can be used to access the stored information:
  * <ul>
  * <li><b>/analytics/monitoring</b>: returns a JSON array containing all the persisted monitoring information (note
@@ -66,7 +79,7 @@ import static java.util.Objects.isNull;
  * is received from.</li>
  * </ul>
  */
-public class RecognitionMonitorInflux implements RecognitionMonitor {
+public class RecognitionMonitorInflux implements RecognitionMonitor, RecognitionEventSink {
 
     /**
      * The {@link Configuration} key to specify the auth token for the bot to be able to store/query data from an
@@ -135,6 +148,27 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
      */
     public static final String DEFAULT_BOT_ID = "xatkitBot";
 
+    /**
+     * The {@link Configuration} key to specify the time-to-live (in milliseconds) of the cached statistics.
+     * <p>
+     * The results of the {@code /analytics/monitoring/sessions/stats} and {@code /analytics/origin} endpoints are
+     * cached for this duration to answer dashboard polling without querying the database each time. Setting this
+     * property to {@code 0} disables the cache.
+     * <p>
+     * This property is optional and defaults to {@link #DEFAULT_CACHE_TTL}.
+     */
+    public static final String CACHE_TTL_KEY = "xatkit.influx.cache.ttl";
+
+    /**
+     * The default time-to-live (in milliseconds) of the cached statistics.
+     */
+    public static final long DEFAULT_CACHE_TTL = 10000;
+
+    /**
+     * The maximum number of cached statistics results.
+     */
+    private static final int MAX_CACHED_RESULTS = 32;
+
     /**
      * The actual ID of the bot
      */
@@ -145,6 +179,37 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
      */
     private InfluxDBClient db;
 
+    /**
+     * The {@link WriteApi} used to batch the points written by {@link #handle(RecognitionEvent)}.
+     * <p>
+     * This {@link WriteApi} is created when the first event is handled, and closed when the monitor is shut down.
+     */
+    private WriteApi sinkWriteApi;
+
+    /**
+     * The {@link Gson} instance used to write session objects to streamed responses.
+     */
+    private static final Gson gson = new Gson();
+
+    /**
+     * The time-to-live (in milliseconds) of the cached statistics.
+     *
+     * @see #CACHE_TTL_KEY
+     */
+    private long cacheTtl;
+
+    /**
+     * The cached statistics results, indexed by endpoint and {@code from} parameter.
+     * <p>
+     * Accesses to this map must be synchronized on the map instance.
+     */
+    private final Map<String, CachedResult> resultCache = new LinkedHashMap<String, CachedResult>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > MAX_CACHED_RESULTS;
+        }
+    };
+
     /**
      * Influxdb stores data, by default in "/var/lib/influxdb/wal" or "/var/lib/influxdb/data"
      * based on it's configuration: wal files are "temporal" until they reach 25MB (default config)
@@ -160,6 +225,21 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
      * @param configuration the Xatkit {@link Configuration}
      */
     public RecognitionMonitorInflux(XatkitServer xatkitServer, Configuration configuration) {
+        this(xatkitServer, configuration, null);
+    }
+
+    /**
+     * Constructs a {@link RecognitionMonitorInflux} using the provided {@code db} client.
+     * <p>
+     * This constructor allows to provide a pre-configured (or mocked) {@link InfluxDBClient}. A new client is
+     * created from the {@code configuration} if the provided {@code db} is {@code null}.
+     *
+     * @param xatkitServer  the {@link XatkitServer} instance used to register the REST endpoints
+     * @param configuration the Xatkit {@link Configuration}
+     * @param db            the {@link InfluxDBClient} used to store and query the analytics (can be {@code null})
+     * @see #RecognitionMonitorInflux(XatkitServer, Configuration)
+     */
+    RecognitionMonitorInflux(XatkitServer xatkitServer, Configuration configuration, @Nullable InfluxDBClient db) {
         Log.info("Starting new intent recognition monitoring with Influxdb");
         checkArgument(configuration.containsKey(INFLUX_TOKEN_KEY), "Cannot connect to the InfluxDB database, please " +
                 "provide a valid token in the configuration (key: %s)", INFLUX_TOKEN_KEY);
@@ -169,10 +249,11 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
         organization = configuration.getString(INFLUX_ORG_KEY, DEFAULT_ORGANIZATION);
         bot_Id = configuration.getString(INFLUX_BOT_ID_KEY, DEFAULT_BOT_ID);
         String url = configuration.getString(INFLUX_URL_KEY, DEFAULT_URL);
+        cacheTtl = configuration.getLong(CACHE_TTL_KEY, DEFAULT_CACHE_TTL);
         Log.info("Bucket: {0}", bucket);
         Log.info("Organization: {0}", organization);
         Log.info("Influxdb url: {0}", url);
-        db = InfluxDBClientFactory.create(url, token, organization, bucket);
+        this.db = nonNull(db) ? db : InfluxDBClientFactory.create(url, token, organization, bucket);
         registerServerEndpoints(xatkitServer);
     }
 
@@ -313,47 +394,53 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
                             if (isNull(fromDate)) {
                                 fromDate = "";
                             }
-                            JsonObject result = new JsonObject();
-                            int sessionCount = 0;
-                            int totalMatchedUtteranceCount = 0;
-                            int totalUnmatchedUtteranceCount = 0;
-                            long totalSessionTime = 0;
-                            String[] filters = {};
-                            String query = queryBuilder(fromDate, filters, true, false);
-                            query = query.concat("|> group(columns: [\"session_id\"])");
-
-                            List<FluxTable> tables = db.getQueryApi().query(query);
-                            sessionCount = tables.size(); //Data is grouped by session_id, which means tables.size()
-                    // = nr sessions
-                            //iterating through each session table to calculate it's time
-                            for (FluxTable table : tables) {
-                                //Assumption: Tables are ordered by time so pos 0 = older one and size()-1 contains
-                                // the most recent one
-                                List<FluxRecord> records = table.getRecords();
-                                long timeStart =
-                                        Instant.parse(String.valueOf(records.get(0).getValueByKey("_time"))).toEpochMilli();
-                                long timeEnd =
-                                        Instant.parse(String.valueOf(records.get(records.size() - 1).getValueByKey(
-                                                "_time"))).toEpochMilli();
-                                totalSessionTime += (timeEnd - timeStart);
+                            String cacheKey = "sessions/stats:" + fromDate;
+                            JsonObject cachedResult = getCachedResult(cacheKey);
+                            if (nonNull(cachedResult)) {
+                                return cachedResult;
                             }
-                            filters = new String[]{"r.is_Matched == \"true\""};
-                            query = queryBuilder(fromDate, filters, true, true);
-                            tables = db.getQueryApi().query(query);
-                            //Data is grouped and filtered which means tables.size() = 1 with nr matched utts as rows
-                            totalMatchedUtteranceCount = tables.get(0).getRecords().size();
-                            filters = new String[]{"r.is_Matched == \"false\""};
-                            query = queryBuilder(fromDate, filters, true, true);
-                            tables = db.getQueryApi().query(query);
-                            //Data is grouped and filtered which means tables.size() = 1 with nr unmatched utts as rows
-                            totalUnmatchedUtteranceCount = tables.get(0).getRecords().size();
-                            double avgMatchedUtterances = totalMatchedUtteranceCount / (double) sessionCount;
-                            double avgUnmatchedUtterances = totalUnmatchedUtteranceCount / (double) sessionCount;
-                            double avgSessionTime = totalSessionTime / (double) sessionCount;
-                            result.addProperty("averageMatchedUtteranceCount", avgMatchedUtterances);
-                            result.addProperty("averageUnmatchedUtteranceCount", avgUnmatchedUtterances);
-                            result.addProperty("averageSessionTime", avgSessionTime / 1000); //divided by 1000 to get
-                    // value in seconds
+                            /*
+                             * Each point has several fields, only keep the confidence rows to count each
+                             * utterance once. The first reduce computes the utterance counts and bounds of each
+                             * session, the second one aggregates them in a single record.
+                             */
+                            String[] filters = {"r._field == \"confidence\""};
+                            String query = queryBuilder(fromDate, filters, false, false, true)
+                                    + "|> group(columns: [\"session_id\"]) "
+                                    + "|> reduce(identity: {matched: 0, unmatched: 0, first: 0, last: 0}, "
+                                    + "fn: (r, accumulator) => ({"
+                                    + "matched: if r.is_Matched == \"true\" then accumulator.matched + 1 "
+                                    + "else accumulator.matched, "
+                                    + "unmatched: if r.is_Matched == \"true\" then accumulator.unmatched "
+                                    + "else accumulator.unmatched + 1, "
+                                    + "first: if accumulator.first == 0 or int(v: r._time) < accumulator.first "
+                                    + "then int(v: r._time) else accumulator.first, "
+                                    + "last: if int(v: r._time) > accumulator.last then int(v: r._time) "
+                                    + "else accumulator.last})) "
+                                    + "|> group() "
+                                    + "|> reduce(identity: {sessions: 0, matched: 0, unmatched: 0, time: 0}, "
+                                    + "fn: (r, accumulator) => ({"
+                                    + "sessions: accumulator.sessions + 1, "
+                                    + "matched: accumulator.matched + r.matched, "
+                                    + "unmatched: accumulator.unmatched + r.unmatched, "
+                                    + "time: accumulator.time + r.last - r.first}))";
+                            long[] totals = new long[4];
+                            streamQuery(query, record -> {
+                                totals[0] = getLongValue(record, "sessions");
+                                totals[1] = getLongValue(record, "matched");
+                                totals[2] = getLongValue(record, "unmatched");
+                                totals[3] = getLongValue(record, "time");
+                            });
+                            /*
+                             * Avoid NaN values if there is no session in the requested range.
+                             */
+                            double sessionCount = Math.max(totals[0], 1);
+                            JsonObject result = new JsonObject();
+                            result.addProperty("averageMatchedUtteranceCount", totals[1] / sessionCount);
+                            result.addProperty("averageUnmatchedUtteranceCount", totals[2] / sessionCount);
+                            //session times are computed in nanoseconds, the result is returned in seconds
+                            result.addProperty("averageSessionTime", totals[3] / sessionCount / 1_000_000_000);
+                            putCachedResult(cacheKey, result);
                             return result;
                         })
                 ));
@@ -386,55 +473,61 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
     /**
      * Registers the {@code GET: /analytics/monitoring} endpoint.
      * <p>
-     * This endpoint returns a JSON array containing all the persisted monitoring information (note that this method
-     * doesn't support pagination yet, so the returned JSON may be big for long-running applications).
+     * This endpoint returns a JSON array containing all the persisted monitoring information. The payload is
+     * streamed session by session (see {@link HttpEntityHelper#createStreamingJsonEntity(HttpEntityHelper
+     * .JsonContentProducer)}) instead of being built in memory.
      * <p>
      *
      * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
      */
     private void registerGetMonitoringData(XatkitServer xatkitServer) {
         xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring",
-                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                RestHandlerFactory.createEmptyContentRestHandler((headers, params, content) -> {
                     String fromDate = HttpUtils.getParameterValue("from", params);
                     if (isNull(fromDate)) {
                         fromDate = "";
                     }
-                    JsonArray sessionsArray = new JsonArray();
-                    JsonObject globalInfo = new JsonObject();
-                    double accRecognitionConfidence = 0.0;
-                    int matchedCount = 0;
-                    int unmatchedCount = 0;
-                    int nSessions = 0;
                     //query pivoted and grouped by sessionID
                     String[] filters = {};
                     String query = queryBuilder(fromDate, filters, true, true);
                     query = query.concat("|> group(columns: [\"session_id\"])");
+                    /*
+                     * Run the query before streaming the response, this way query errors are still reported to the
+                     * client.
+                     */
                     List<FluxTable> tables = db.getQueryApi().query(query);
-                    //Each table equals to 1 session
-                    nSessions = tables.size();
-                    for (FluxTable table : tables) {
-                        String sessionId = String.valueOf(table.getRecords().get(0).getValueByKey("session_id"));
-                        JsonObject sessionObject = buildSessionObject(sessionId, table.getRecords());
-                        int sessionMatchedCount = sessionObject.get("matchedUtteranceCount").getAsInt();
-                        matchedCount += sessionMatchedCount;
-                        unmatchedCount += sessionObject.get("unmatchedUtteranceCount").getAsInt();
-                        if (sessionObject.has("avgSessionConfidence")) {
-                            double avgSessionConfidence = sessionObject.get("avgSessionConfidence").getAsDouble();
-                            accRecognitionConfidence += avgSessionConfidence * (double) sessionMatchedCount;
+                    return HttpEntityHelper.createStreamingJsonEntity(writer -> {
+                        double accRecognitionConfidence = 0.0;
+                        int matchedCount = 0;
+                        int unmatchedCount = 0;
+                        writer.beginArray();
+                        writer.beginArray();
+                        //Each table equals to 1 session
+                        for (FluxTable table : tables) {
+                            String sessionId = String.valueOf(table.getRecords().get(0).getValueByKey("session_id"));
+                            JsonObject sessionObject = buildSessionObject(sessionId, table.getRecords());
+                            int sessionMatchedCount = sessionObject.get("matchedUtteranceCount").getAsInt();
+                            matchedCount += sessionMatchedCount;
+                            unmatchedCount += sessionObject.get("unmatchedUtteranceCount").getAsInt();
+                            if (sessionObject.has("avgSessionConfidence")) {
+                                double avgSessionConfidence =
+                                        sessionObject.get("avgSessionConfidence").getAsDouble();
+                                accRecognitionConfidence += avgSessionConfidence * (double) sessionMatchedCount;
+                            }
+                            gson.toJson(sessionObject, writer);
                         }
-                        sessionsArray.add(sessionObject);
-                    }
-                    globalInfo.addProperty("nSessions", nSessions);
-                    double aux = accRecognitionConfidence / (double) matchedCount;
-                    if (!Double.isNaN(aux) && Double.isFinite(aux)) {
-                        globalInfo.addProperty("avgRecognitionConfidence", aux);
-                    }
-                    globalInfo.addProperty("totalUnmatchedUtterances", unmatchedCount);
-                    globalInfo.addProperty("totalMatchedUtterances", matchedCount);
-                    JsonArray resultArray = new JsonArray();
-                    resultArray.add(sessionsArray);
-                    resultArray.add(globalInfo);
-                    return resultArray;
+                        writer.endArray();
+                        JsonObject globalInfo = new JsonObject();
+                        globalInfo.addProperty("nSessions", tables.size());
+                        double aux = accRecognitionConfidence / (double) matchedCount;
+                        if (!Double.isNaN(aux) && Double.isFinite(aux)) {
+                            globalInfo.addProperty("avgRecognitionConfidence", aux);
+                        }
+                        globalInfo.addProperty("totalUnmatchedUtterances", unmatchedCount);
+                        globalInfo.addProperty("totalMatchedUtterances", matchedCount);
+                        gson.toJson(globalInfo, writer);
+                        writer.endArray();
+                    });
                 })
         );
     }
@@ -455,62 +548,132 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
                     if (isNull(fromDate)) {
                         fromDate = "";
                     }
-                    JsonObject result = new JsonObject();
-                    JsonArray originArray = new JsonArray();
-                    result.add("Origins", originArray);
-                    int totalSessions = 0;
-                    //query pivoted and grouped by sessionID
-                    String[] filters = {};
-                    String query = queryBuilder(fromDate, filters, true, false);
-                    query = query.concat("|> group(columns: [\"origin\"])");
-                    //Each table equals 1 origin, so list lenght = number of different origins
-                    List<FluxTable> tables = db.getQueryApi().query(query);
-                    int numberOrigins = tables.size();
-                    for (FluxTable table : tables) {
-                        //We have to get the field from "origin", which is common in the entire table
-                        //And the number of different sessions for that origin.
-                        //Create JsonObject with the values of each origin to be inserted into the array:
-                        JsonObject aux = new JsonObject();
-                        try {
-                            String origin = table.getRecords().get(0).getValueByKey("origin").toString();
-                            //Now search the unique sessions in a new Query
-                            String[] filterByOrigin = {"r.origin == \"" + origin + "\""};
-                            String query2 = queryBuilder(fromDate, filterByOrigin, true, false);
-                            query2 = query2.concat("|> group(columns: [\"session_id\"])");
-                            //The number of tables equal to the number of sessions in that origin
-                            int nrSessions = db.getQueryApi().query(query2).size();
-                            totalSessions += nrSessions;
-                            aux.addProperty("origin", origin);
-                            aux.addProperty("nrSessions", nrSessions);
-                        } catch (Exception e) {
-                            //We got a case where we have no origins, or origin is blank/null
-                            //but I did not find a way to query "null" columns in influxdb :S
-                            //So, I made a SET instance, which does not accept duplicates, but takes O(n) to create.
-                            //This way we can see how many unique session_id entries do not have an "origin" value in
-                            // the database.
-                            Set<String> sessionSet = new HashSet<String>();
-                            for (FluxRecord record : table.getRecords()) {
-                                String id = String.valueOf(record.getValueByKey("session_id"));
-                                if (!sessionSet.contains(id)) {
-                                    sessionSet.add(id);
-                                }
-                            }
-                            totalSessions += sessionSet.size();
-                            aux.addProperty("origin", "");
-                            aux.addProperty("nrSessions", sessionSet.size());
-                        }
-                        originArray.add(aux);
+                    String cacheKey = "origin:" + fromDate;
+                    JsonObject cachedResult = getCachedResult(cacheKey);
+                    if (nonNull(cachedResult)) {
+                        return cachedResult;
                     }
+                    /*
+                     * The first count returns a record for each (origin, session) pair, the second one counts
+                     * these records for each origin, i.e. the number of sessions of the origin. Points without
+                     * origin are stored with an empty origin tag and are counted in the "" origin.
+                     */
+                    String[] filters = {"r._field == \"confidence\""};
+                    String query = queryBuilder(fromDate, filters, false, false, true)
+                            + "|> group(columns: [\"origin\", \"session_id\"]) "
+                            + "|> count() "
+                            + "|> group(columns: [\"origin\"]) "
+                            + "|> count() "
+                            + "|> group()";
+                    JsonArray originArray = new JsonArray();
+                    long[] totalSessions = new long[1];
+                    streamQuery(query, record -> {
+                        long nrSessions = ((Number) record.getValue()).longValue();
+                        totalSessions[0] += nrSessions;
+                        JsonObject originObject = new JsonObject();
+                        originObject.addProperty("origin", String.valueOf(record.getValueByKey("origin")));
+                        originObject.addProperty("nrSessions", nrSessions);
+                        originArray.add(originObject);
+                    });
+                    int numberOrigins = originArray.size();
                     double avgSessPerOrigin;
-                    if (numberOrigins > 0) avgSessPerOrigin = (double) totalSessions / (double) numberOrigins;
+                    if (numberOrigins > 0) avgSessPerOrigin = (double) totalSessions[0] / (double) numberOrigins;
                     else avgSessPerOrigin = 0; //Prevent nulls/negative numbers
+                    JsonObject result = new JsonObject();
+                    result.add("Origins", originArray);
                     result.add("avgSessionsPerOrigin", new JsonPrimitive(avgSessPerOrigin));
                     result.add("nrOrigins", new JsonPrimitive(numberOrigins));
+                    putCachedResult(cacheKey, result);
                     return result;
                 })
         );
     }
 
+    /**
+     * Executes the provided Flux {@code query} and streams the returned records to the provided {@code consumer}.
+     * <p>
+     * This method uses the callback mode of the query API: records are parsed and handed to the {@code consumer}
+     * as they are received, without materializing the {@link FluxTable}s in memory. The {@code consumer} is
+     * called from the client's thread, this method blocks until the query is completed.
+     *
+     * @param query    the Flux query to execute
+     * @param consumer the {@link Consumer} handling each returned {@link FluxRecord}
+     * @throws RestHandlerException if an error occurred when executing the query
+     */
+    private void streamQuery(String query, Consumer<FluxRecord> consumer) throws RestHandlerException {
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        db.getQueryApi().query(query, (cancellable, record) -> consumer.accept(record),
+                throwable -> {
+                    error.set(throwable);
+                    completed.countDown();
+                }, completed::countDown);
+        try {
+            completed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestHandlerException(500, "Interrupted while waiting for the InfluxDB query results", e);
+        }
+        if (nonNull(error.get())) {
+            throw new RestHandlerException(500, MessageFormat.format("An error occurred when executing the "
+                    + "InfluxDB query: {0}", error.get().getMessage()), error.get());
+        }
+    }
+
+    /**
+     * Returns the numeric value associated to the provided {@code key} in the given {@code record}.
+     *
+     * @param record the {@link FluxRecord} to retrieve the value from
+     * @param key    the column of the value to retrieve
+     * @return the value as a {@code long}, or {@code 0} if the record does not contain the column
+     */
+    private static long getLongValue(FluxRecord record, String key) {
+        Object value = record.getValueByKey(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * Returns the cached result associated to the provided {@code key}.
+     *
+     * The returned {@link JsonObject} is a copy of the cached one: it can be modified by the caller without
+     * altering the cache.
+     *
+     * @param key the key of the result to retrieve
+     * @return a copy of the cached {@link JsonObject} if it exists and is not expired, {@code null} otherwise
+     * @see #CACHE_TTL_KEY
+     */
+    private @Nullable JsonObject getCachedResult(String key) {
+        if (cacheTtl <= 0) {
+            return null;
+        }
+        synchronized (resultCache) {
+            CachedResult cachedResult = resultCache.get(key);
+            if (nonNull(cachedResult) && System.currentTimeMillis() - cachedResult.timestamp < cacheTtl) {
+                return cachedResult.result.deepCopy();
+            }
+            resultCache.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the provided {@code result} with the given {@code key}.
+     * <p>
+     * A copy of the {@code result} is cached: the provided {@link JsonObject} can be returned (and modified) by the
+     * caller without altering the cache.
+     *
+     * @param key    the key of the result to cache
+     * @param result the {@link JsonObject} to cache
+     * @see #CACHE_TTL_KEY
+     */
+    private void putCachedResult(String key, JsonObject result) {
+        if (cacheTtl > 0) {
+            synchronized (resultCache) {
+                resultCache.put(key, new CachedResult(result.deepCopy(), System.currentTimeMillis()));
+            }
+        }
+    }
+
     /**
      * Creates a {@link JsonObject} representing the provided session record.
      *
@@ -582,6 +745,9 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
      * {@inheritDoc}
      */
     public void shutdown() {
+        if (nonNull(sinkWriteApi)) {
+            this.sinkWriteApi.close();
+        }
         this.db.close();
     }
 
@@ -592,38 +758,136 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
     public void logRecognizedIntent(StateContext context, RecognizedIntent intent) {
         //Write intent data into db.
         try (WriteApi writer = db.getWriteApi()) {
-            Point point = generateIntentPoint(context, intent);
+            Point point = generateIntentPoint(context.getContextId(), context.getOrigin(), intent.getTriggeredBy(),
+                    intent.getDefinition().getName(),
+                    intent.getDefinition() != IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT,
+                    intent.getMatchedInput(), intent.getRecognitionConfidence(), Instant.now().toEpochMilli());
             writer.writePoint(point);
         }
     }
 
     /**
-     * Generates a point object to be written into the database, based on {@code recognizedIntent} and {@code session}.
+     * {@inheritDoc}
+     * <p>
+     * This method stores an {@code intent_count} point that does not contain the utterance of the recognition.
+     */
+    @Override
+    public void countRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        try (WriteApi writer = db.getWriteApi()) {
+            writer.writePoint(generateCountPoint(context.getContextId(), context.getOrigin(), intent.getTriggeredBy(),
+                    intent.getDefinition().getName(),
+                    intent.getDefinition() != IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT,
+                    intent.getRecognitionConfidence(), Instant.now().toEpochMilli()));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The points created by this method are batched by the client's {@link WriteApi}, and sent to the database
+     * when the sink is flushed.
+     */
+    @Override
+    public void handle(RecognitionEvent event) {
+        if (isNull(sinkWriteApi)) {
+            sinkWriteApi = db.getWriteApi();
+        }
+        sinkWriteApi.writePoint(generateIntentPoint(event.getSessionId(), event.getOrigin(), event.getPlatform(),
+                event.getIntentName(), event.isMatched(), event.getUtterance(), event.getRecognitionConfidence(),
+                event.getTimestamp()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method stores an {@code intent_count} point (see
+     * {@link #countRecognizedIntent(StateContext, RecognizedIntent)}), sent to the database when the sink is flushed.
+     */
+    @Override
+    public void count(RecognitionEvent event) {
+        if (isNull(sinkWriteApi)) {
+            sinkWriteApi = db.getWriteApi();
+        }
+        sinkWriteApi.writePoint(generateCountPoint(event.getSessionId(), event.getOrigin(), event.getPlatform(),
+                event.getIntentName(), event.isMatched(), event.getRecognitionConfidence(), event.getTimestamp()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() {
+        if (nonNull(sinkWriteApi)) {
+            sinkWriteApi.flush();
+        }
+    }
+
+    /**
+     * Generates a point object to be written into the database from the provided recognition information.
      *
-     * @param context the {@link StateContext} from which the {@link RecognizedIntent} has been created
-     * @param intent  the {@link RecognizedIntent} to log
+     * @param sessionId  the identifier of the session the intent has been recognized in
+     * @param origin     the origin of the session (can be {@code null})
+     * @param platform   the platform that triggered the recognition (can be {@code null})
+     * @param intentName the name of the recognized intent
+     * @param isMatched  whether the input has been matched to an intent (i.e. the recognized intent is not the
+     *                   default fallback)
+     * @param utterance  the input that has been mapped to the intent
+     * @param confidence the confidence of the recognition
+     * @param timestamp  the time (in milliseconds) when the intent has been recognized
      * @return Point with data ready to be inserted into an influx db.
      */
-    private Point generateIntentPoint(StateContext context, RecognizedIntent intent) {
-        boolean isMatched = !intent.getDefinition().getName().equals(new DefaultFallbackIntent().getName());
-
+    private Point generateIntentPoint(String sessionId, String origin, String platform, String intentName,
+                                      boolean isMatched, String utterance, float confidence, long timestamp) {
         return Point.measurement("intent")
                 .addTag("bot_id", bot_Id)
                 .addTag("is_Matched", String.valueOf(isMatched))
-                .addTag("session_id", context.getContextId())
+                .addTag("session_id", sessionId)
                 // Store an empty String if the origin is null (can't store null tags in InfluxDB)
-                .addTag("origin", context.getOrigin() == null ? "" : context.getOrigin())
-                .addTag("platform", intent.getTriggeredBy() == null ? "" : intent.getTriggeredBy())
+                .addTag("origin", origin == null ? "" : origin)
+                .addTag("platform", platform == null ? "" : platform)
                 .addTag("username", "Not sure where to find the username ;)")
-                .addField("confidence", intent.getRecognitionConfidence())
-                .addField("utterance", intent.getMatchedInput())
-                .addField("matched_intent", intent.getDefinition().getName())
+                .addField("confidence", confidence)
+                .addField("utterance", utterance)
+                .addField("matched_intent", intentName)
                 .addField("matched_params", "this is a placeholder for matched params")
-                .time(Instant.now().toEpochMilli(), WritePrecision.MS); //maybe not the best format? idk
+                .time(timestamp, WritePrecision.MS); //maybe not the best format? idk
+    }
+
+    /**
+     * Generates a count-only point from the provided recognition information.
+     * <p>
+     * Count points have the same tags as the points created by
+     * {@link #generateIntentPoint(String, String, String, String, boolean, String, float, long)}, but do not
+     * contain the utterance of the recognition.
+     *
+     * @param sessionId  the identifier of the session the intent has been recognized in
+     * @param origin     the origin of the session (can be {@code null})
+     * @param platform   the platform that triggered the recognition (can be {@code null})
+     * @param intentName the name of the recognized intent
+     * @param isMatched  whether the input has been matched to an intent (i.e. the recognized intent is not the
+     *                   default fallback)
+     * @param confidence the confidence of the recognition
+     * @param timestamp  the time (in milliseconds) when the intent has been recognized
+     * @return Point with data ready to be inserted into an influx db.
+     */
+    private Point generateCountPoint(String sessionId, String origin, String platform, String intentName,
+                                     boolean isMatched, float confidence, long timestamp) {
+        return Point.measurement("intent_count")
+                .addTag("bot_id", bot_Id)
+                .addTag("is_Matched", String.valueOf(isMatched))
+                .addTag("session_id", sessionId)
+                .addTag("origin", origin == null ? "" : origin)
+                .addTag("platform", platform == null ? "" : platform)
+                .addField("confidence", confidence)
+                .addField("matched_intent", intentName)
+                .time(timestamp, WritePrecision.MS);
     }
 
     /**
      * Builds a query string based of the params passed.
+     * <p>
+     * The built query only returns the {@code intent} points, see
+     * {@link #queryBuilder(String, String[], boolean, boolean, boolean)} to include the count points.
      *
      * @param rfcStartTime rfc3339 format (similar to ISO-8601): YYYY-MM-DDThh:mm:ssZ Can be null/empty.
      * @param filters      Array of strings (remember to use backslashes!). Each position is a condition in string
@@ -633,6 +897,22 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
      * @return String - query string built to be used in influx client
      */
     private String queryBuilder(String rfcStartTime, String[] filters, boolean pivot, boolean group) {
+        return queryBuilder(rfcStartTime, filters, pivot, group, false);
+    }
+
+    /**
+     * Builds a query string based of the params passed.
+     *
+     * @param rfcStartTime  rfc3339 format (similar to ISO-8601): YYYY-MM-DDThh:mm:ssZ Can be null/empty.
+     * @param filters       Array of strings (remember to use backslashes!). Each position is a condition in string
+     *                      format. i.e: r.is_Matched == \"true\"
+     * @param pivot         If the query should include the "pivot" call.
+     * @param group         If the query should group results in a single table
+     * @param includeCounts If the query should also return the {@code intent_count} points
+     * @return String - query string built to be used in influx client
+     */
+    private String queryBuilder(String rfcStartTime, String[] filters, boolean pivot, boolean group,
+                                boolean includeCounts) {
         String query = "from(bucket: \"" + bucket + "\") ";
         if (isNull(rfcStartTime) || rfcStartTime.isEmpty()) {
             query = query.concat("|> range(start: 2018-05-22T23:30:00Z, stop: now()) ");
@@ -640,7 +920,9 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
             query = query.concat("|> range(start: " + rfcStartTime + ", stop: now()) ");
         }
         //adding filters 
-        query = query.concat("|> filter(fn:(r) => r._measurement == \"intent\" and r.bot_id == \"" + bot_Id + "\"");
+        String measurementFilter = includeCounts ? "(r._measurement == \"intent\" or r._measurement == "
+                + "\"intent_count\")" : "r._measurement == \"intent\"";
+        query = query.concat("|> filter(fn:(r) => " + measurementFilter + " and r.bot_id == \"" + bot_Id + "\"");
         for (String s : filters) {
             query = query.concat(" and " + s);
         }
@@ -651,4 +933,31 @@ public class RecognitionMonitorInflux implements RecognitionMonitor {
         query = query.concat("|> sort(columns: [\"_time\"])"); // Order results by timestamp, older data first
         return query;
     }
-}   
\ No newline at end of file
+
+    /**
+     * A cached statistics result.
+     */
+    private static class CachedResult {
+
+        /**
+         * The cached {@link JsonObject}.
+         */
+        private final JsonObject result;
+
+        /**
+         * The time (in milliseconds) when the result has been cached.
+         */
+        private final long timestamp;
+
+        /**
+         * Constructs a {@link CachedResult} with the provided {@code result} and {@code timestamp}.
+         *
+         * @param result    the cached {@link JsonObject}
+         * @param timestamp the time (in milliseconds) when the result has been cached
+         */
+        private CachedResult(JsonObject result, long timestamp) {
+            this.result = result;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.xatkit.core.recognition;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.xatkit.core.server.HttpEntityHelper;
 import com.xatkit.core.server.HttpMethod;
 import com.xatkit.core.server.HttpUtils;
 import com.xatkit.core.server.RestHandlerException;
@@ -13,15 +16,29 @@ import com.xatkit.intent.RecognizedIntent;
 import com.xatkit.util.FileUtils;
 import fr.inria.atlanmod.commons.log.Log;
 import org.apache.commons.configuration2.Configuration;
+import org.apache.http.NameValuePair;
+import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 /**
  * Provides monitoring capabilities for {@link IntentRecognitionProvider}s.
@@ -41,9 +58,31 @@ import static java.util.Objects.isNull;
  * corresponding to matched inputs (i.e. inputs that have been successfully translated into intents)</li>
  * <li><b>/analytics/monitoring/sessions/stats</b>: returns a JSON object containing computed statistics over
  * stored sessions (e.g. average time/session, average number of matched inputs/sessions, etc)</li>
+ * <li><b>/analytics/monitoring/rollups?granularity=hourly|daily</b>: returns a JSON array containing the hourly or
+ * daily summaries of the records removed by the retention task</li>
  * </ul>
+ * <p>
+ * The {@code unmatched} and {@code matched} endpoints accept the {@code from}/{@code to} (timestamps in
+ * milliseconds), {@code limit}, and {@code cursor} parameters to retrieve a page of entries (see
+ * {@link #PAGINATION_PARAMETERS}). Records are stored in an {@link IntentRecordStore} that indexes them by time,
+ * intent, and matched status, so these queries do not scan the entire database.
+ * <p>
+ * The global statistics are maintained incrementally by {@link #logRecognizedIntent(StateContext, RecognizedIntent)}
+ * and persisted alongside the records: the {@code /analytics/monitoring/sessions/stats} endpoint does not read the
+ * stored records. The recognitions skipped by a {@link SamplingRecognitionMonitor} are included in these statistics
+ * (see {@link #countRecognizedIntent(StateContext, RecognizedIntent)}).
+ * <p>
+ * This monitor can also be used as a {@link RecognitionEventSink} of an {@link AsyncRecognitionMonitor}: in this
+ * case the records are committed by batch when the sink is flushed.
+ * <p>
+ * The raw records can be bounded in time with {@link #RAW_RETENTION_KEY}: a background task periodically removes
+ * the expired records, summarizes them in hourly rollups that are later merged into daily rollups, and compacts the
+ * database file (see {@link #applyRetention(long)}). The global statistics are kept forever.
+ * <p>
+ * The unmatched records can be re-recognized after the bot has been retrained with a {@link RecognitionBackfill}:
+ * the {@code /analytics/monitoring/unmatched} endpoint reports the intent each record would now be matched to.
  */
-public class RecognitionMonitorMapDB implements RecognitionMonitor {
+public class RecognitionMonitorMapDB implements RecognitionMonitor, RecognitionEventSink {
 
     /**
      * The {@link Configuration} key to specify a custom data directory to store the analytics.
@@ -73,23 +112,176 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
     static final String ANALYTICS_DB_FILE = "analytics.db";
 
     /**
-     * The persistent {@link Map} containing recognition monitoring information.
+     * The parameters of the endpoints supporting pagination.
+     * <p>
+     * Endpoints receiving at least one of these parameters return a JSON object containing the {@code entries} of
+     * the page and the {@code nextCursor} to retrieve the next page (this field is absent for the last page).
+     * Endpoints that do not receive any of these parameters return all the matching entries in a JSON array.
+     */
+    static final String[] PAGINATION_PARAMETERS = {"from", "to", "limit", "cursor"};
+
+    /**
+     * The maximum number of entries in a page if the request does not contain a {@code limit} parameter.
+     */
+    static final int DEFAULT_PAGE_LIMIT = 100;
+
+    /**
+     * The {@link Configuration} key to specify the number of days the raw records are kept in the database.
+     * <p>
+     * Records older than this retention period are removed by the retention task and summarized in hourly
+     * rollups (see {@link #registerGetRollups(XatkitServer)}). The global statistics are not affected by the
+     * removal of records.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_RAW_RETENTION} (records are kept forever).
+     */
+    public static final String RAW_RETENTION_KEY = "xatkit.recognition.monitor.retention.raw_days";
+
+    /**
+     * The default number of days the raw records are kept in the database.
+     * <p>
+     * {@code 0} means that the records are kept forever.
+     */
+    public static final int DEFAULT_RAW_RETENTION = 0;
+
+    /**
+     * The {@link Configuration} key to specify the number of days the hourly rollups are kept in the database.
      * <p>
-     * This {@link Map} uses {@code sessionId} as its primary index, and each {@code sessionId} is associated to
-     * another {@link Map} containing {@code timestamp -> IntentRecord} bindings.
+     * Hourly rollups older than this retention period are merged into daily rollups, which are kept forever.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_HOURLY_RETENTION}. {@code 0} means that the hourly
+     * rollups are kept forever.
+     */
+    public static final String HOURLY_RETENTION_KEY = "xatkit.recognition.monitor.retention.hourly_days";
+
+    /**
+     * The default number of days the hourly rollups are kept in the database.
+     */
+    public static final int DEFAULT_HOURLY_RETENTION = 30;
+
+    /**
+     * The {@link Configuration} key to specify the delay (in milliseconds) between two executions of the retention
+     * task.
+     * <p>
+     * This property is optional, and defaults to {@link #DEFAULT_RETENTION_INTERVAL}.
+     */
+    public static final String RETENTION_INTERVAL_KEY = "xatkit.recognition.monitor.retention.interval";
+
+    /**
+     * The default delay (in milliseconds) between two executions of the retention task.
+     */
+    public static final long DEFAULT_RETENTION_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * The {@link Configuration} key to specify the number of removed entries (records and hourly rollups)
+     * triggering the compaction of the database.
+     * <p>
+     * MapDB does not give back the space of removed entries to the file system, the compaction rewrites the
+     * database file without the free space. This property is optional, and defaults to
+     * {@link #DEFAULT_COMPACTION_THRESHOLD}. {@code 0} disables the compaction.
+     */
+    public static final String COMPACTION_THRESHOLD_KEY = "xatkit.recognition.monitor.compaction.threshold";
+
+    /**
+     * The default number of removed entries triggering the compaction of the database.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 10000;
+
+    /**
+     * The maximum number of entries removed by the retention task while holding the monitor lock.
      * <p>
-     * Note that {@code timestamp -> IntentRecord} internal {@link Map}s are ordered, allowing to easily sort
-     * {@link IntentRecord}s over time.
+     * The retention task releases the lock between each batch, so it does not delay the recognitions for more than
+     * the time needed to process a batch.
+     */
+    static final int RETENTION_BATCH_SIZE = 500;
+
+    /**
+     * The {@link Gson} instance used to write session objects to streamed responses.
+     */
+    private static final Gson gson = new Gson();
+
+    /**
+     * The {@link IntentRecordStore} containing recognition monitoring information.
      *
      * @see IntentRecord
      */
-    private Map<String, Map<Long, IntentRecord>> records;
+    private IntentRecordStore records;
+
+    /**
+     * The {@link IntentRollupStore} containing the downsampled records removed by the retention task.
+     */
+    private IntentRollupStore rollups;
+
+    /**
+     * The persistent {@link Map} containing the timestamps of the first and last records of each session.
+     * <p>
+     * This {@link Map} uses {@code sessionId} as its primary index, and each {@code sessionId} is associated to a
+     * {@code [first, last]} array. It is used to update the total session time in {@link #aggregates} without
+     * reading the session records.
+     * <p>
+     * Sessions whose records have all been removed by the retention task are kept as tombstones (arrays containing
+     * the timestamp of the last record of the session): they are already counted in {@link #aggregates}, and a
+     * later record of the session must not count it again. Tombstones are removed by the retention task once
+     * their last record is older than twice the raw retention period (see {@link #applyRetention(long)}), a
+     * session resumed after this delay is counted as a new session.
+     */
+    private Map<String, long[]> sessionBounds;
+
+    /**
+     * The persistent variable holding the {@link Aggregates} computed over all the stored records.
+     */
+    private Atomic.Var<Aggregates> aggregatesVar;
+
+    /**
+     * The {@link Aggregates} computed over all the stored records.
+     * <p>
+     * This object is updated by {@link #logRecognizedIntent(StateContext, RecognizedIntent)} and written to
+     * {@link #aggregatesVar} with the corresponding record.
+     */
+    private Aggregates aggregates;
 
     /**
      * The database used to persist and load the monitoring information.
      */
     private DB db;
 
+    /**
+     * The retention period (in milliseconds) of the raw records.
+     * <p>
+     * {@code 0} means that the records are kept forever.
+     *
+     * @see #RAW_RETENTION_KEY
+     */
+    private long rawRetention;
+
+    /**
+     * The retention period (in milliseconds) of the hourly rollups.
+     * <p>
+     * {@code 0} means that the hourly rollups are kept forever.
+     *
+     * @see #HOURLY_RETENTION_KEY
+     */
+    private long hourlyRetention;
+
+    /**
+     * The number of removed entries triggering the compaction of the database.
+     *
+     * @see #COMPACTION_THRESHOLD_KEY
+     */
+    private long compactionThreshold;
+
+    /**
+     * The persistent number of entries removed since the last compaction of the database.
+     */
+    private Atomic.Long removedSinceCompaction;
+
+    /**
+     * The executor running the retention task.
+     * <p>
+     * This executor is {@code null} if the raw records are kept forever.
+     */
+    @Nullable
+    private ScheduledExecutorService retentionExecutor;
+
     /**
      * Constructs a {@link RecognitionMonitor} with the provided {@code xatkitServer} and {@code configuration}.
      * <p>
@@ -105,19 +297,54 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
      * If the provided {@link Configuration} specifies a value for the {@code xatkit.data.directory} key it will be
      * used as the base location to create the analytics database (in {@code <xatkit.data.directory>/analytics
      * /analytics.db}.
+     * <p>
+     * If the {@link Configuration} defines a retention period for the raw records this constructor starts the
+     * retention task (see {@link #applyRetention(long)}).
      *
      * @param xatkitServer  the {@link XatkitServer} instance used to register the REST endpoints
      * @param configuration the Xatkit {@link Configuration}
+     * @throws IllegalArgumentException if one of the configured retention periods, the retention interval, or the
+     *                                  compaction threshold is invalid
+     * @see #RAW_RETENTION_KEY
+     * @see #HOURLY_RETENTION_KEY
+     * @see #RETENTION_INTERVAL_KEY
+     * @see #COMPACTION_THRESHOLD_KEY
      */
     public RecognitionMonitorMapDB(XatkitServer xatkitServer, Configuration configuration) {
         Log.info("Starting intent recognition monitoring");
+        this.rawRetention = TimeUnit.DAYS.toMillis(configuration.getInt(RAW_RETENTION_KEY, DEFAULT_RAW_RETENTION));
+        checkArgument(rawRetention >= 0, "Invalid retention period for the raw records (key: %s, value: %s)",
+                RAW_RETENTION_KEY, configuration.getProperty(RAW_RETENTION_KEY));
+        this.hourlyRetention = TimeUnit.DAYS.toMillis(configuration.getInt(HOURLY_RETENTION_KEY,
+                DEFAULT_HOURLY_RETENTION));
+        checkArgument(hourlyRetention >= 0, "Invalid retention period for the hourly rollups (key: %s, value: %s)",
+                HOURLY_RETENTION_KEY, configuration.getProperty(HOURLY_RETENTION_KEY));
+        long retentionInterval = configuration.getLong(RETENTION_INTERVAL_KEY, DEFAULT_RETENTION_INTERVAL);
+        checkArgument(retentionInterval > 0, "Invalid retention interval (key: %s, value: %s)",
+                RETENTION_INTERVAL_KEY, retentionInterval);
+        this.compactionThreshold = configuration.getLong(COMPACTION_THRESHOLD_KEY, DEFAULT_COMPACTION_THRESHOLD);
+        checkArgument(compactionThreshold >= 0, "Invalid compaction threshold (key: %s, value: %s)",
+                COMPACTION_THRESHOLD_KEY, compactionThreshold);
         String dataDirectoryPath = configuration.getString(DATA_DIRECTORY_KEY, DEFAULT_DATA_DIRECTORY);
         File analyticsDbDirectory = FileUtils.getFile(dataDirectoryPath + File.separator + ANALYTICS_DIRECTORY,
                 configuration);
         analyticsDbDirectory.mkdirs();
         db = DBMaker.fileDB(new File(analyticsDbDirectory.getAbsolutePath() + File.separator + ANALYTICS_DB_FILE)).make();
 
-        this.records = (Map<String, Map<Long, IntentRecord>>) db.hashMap("intent_records").createOrOpen();
+        this.records = new IntentRecordStore(db);
+        this.rollups = new IntentRollupStore(db);
+        this.removedSinceCompaction = db.atomicLong("retention_removed_since_compaction").createOrOpen();
+        this.sessionBounds = db.hashMap("session_bounds", Serializer.STRING, Serializer.LONG_ARRAY).createOrOpen();
+        this.aggregatesVar = db.atomicVar("intent_aggregates",
+                (Serializer<Aggregates>) (Serializer<?>) Serializer.JAVA).createOrOpen();
+        this.aggregates = aggregatesVar.get();
+        if (isNull(aggregates)) {
+            /*
+             * The database has been created by a version that does not store aggregates, compute them once from the
+             * stored records.
+             */
+            this.rebuildAggregates();
+        }
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             if (!this.db.isClosed()) {
                 db.commit();
@@ -125,6 +352,22 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
             }
         }));
         this.registerServerEndpoints(xatkitServer);
+        if (rawRetention > 0) {
+            Log.info("Removing the analytics records older than {0} day(s) every {1}ms",
+                    TimeUnit.MILLISECONDS.toDays(rawRetention), retentionInterval);
+            this.retentionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "xatkit-analytics-retention");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.retentionExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    this.applyRetention(System.currentTimeMillis());
+                } catch (RuntimeException e) {
+                    Log.error(e, "An error occurred when applying the analytics retention policy");
+                }
+            }, retentionInterval, retentionInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
@@ -138,13 +381,15 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
         this.registerGetUnmatchedUtterances(xatkitServer);
         this.registerGetMatchedUtterances(xatkitServer);
         this.registerGetSessionsStats(xatkitServer);
+        this.registerGetRollups(xatkitServer);
     }
 
     /**
      * Registers the {@code GET: /analytics/monitoring} endpoint.
      * <p>
-     * This endpoint returns a JSON array containing all the persisted monitoring information (note that this method
-     * doesn't support pagination yet, so the returned JSON may be big for long-running applications).
+     * This endpoint returns a JSON array containing all the persisted monitoring information. The payload is
+     * streamed session by session (see {@link HttpEntityHelper#createStreamingJsonEntity(HttpEntityHelper
+     * .JsonContentProducer)}), so only the records of the session being written are loaded in memory.
      * <p>
      * The listing below shows an example of the returned JSON payload:
      * <pre>
@@ -198,37 +443,29 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
      */
     private void registerGetMonitoringData(XatkitServer xatkitServer) {
         xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring",
-                RestHandlerFactory.createJsonRestHandler((headers, param, content) -> {
-                    JsonArray sessionsArray = new JsonArray();
-                    double accRecognitionConfidence = 0.0;
-                    int matchedCount = 0;
-                    int unmatchedCount = 0;
-                    int nSessions = 0;
-                    for (Map.Entry<String, Map<Long, IntentRecord>> entry : records.entrySet()) {
-                        JsonObject sessionObject = buildSessionObject(entry.getKey(), entry.getValue());
-                        int sessionMatchedCount = sessionObject.get("matchedUtteranceCount").getAsInt();
-                        matchedCount += sessionMatchedCount;
-                        unmatchedCount += sessionObject.get("unmatchedUtteranceCount").getAsInt();
-                        if (sessionObject.has("avgSessionConfidence")) {
-                            double avgSessionConfidence = sessionObject.get("avgSessionConfidence").getAsDouble();
-                            accRecognitionConfidence += avgSessionConfidence * (double) sessionMatchedCount;
-                        }
-                        nSessions++;
-                        sessionsArray.add(sessionObject);
-                    }
-                    JsonObject globalInfo = new JsonObject();
-                    globalInfo.addProperty("nSessions", nSessions);
-                    double aux = accRecognitionConfidence / (double) matchedCount;
-                    if (!Double.isNaN(aux) && Double.isFinite(aux)) {
-                        globalInfo.addProperty("avgRecognitionConfidence", aux);
-                    }
-                    globalInfo.addProperty("totalUnmatchedUtterances", unmatchedCount);
-                    globalInfo.addProperty("totalMatchedUtterances", matchedCount);
-                    JsonArray resultArray = new JsonArray();
-                    resultArray.add(sessionsArray);
-                    resultArray.add(globalInfo);
-                    return resultArray;
-                }));
+                RestHandlerFactory.createEmptyContentRestHandler((headers, param, content) ->
+                        HttpEntityHelper.createStreamingJsonEntity(writer -> {
+                            writer.beginArray();
+                            writer.beginArray();
+                            /*
+                             * Gson wraps write errors in unchecked JsonIOExceptions, they abort the response.
+                             */
+                            records.forEachSession((sessionId, entries) ->
+                                    gson.toJson(buildSessionObject(sessionId, entries), writer));
+                            writer.endArray();
+                            JsonObject globalInfo = new JsonObject();
+                            synchronized (this) {
+                                globalInfo.addProperty("nSessions", aggregates.sessionCount);
+                                if (aggregates.matchedCount > 0) {
+                                    globalInfo.addProperty("avgRecognitionConfidence",
+                                            aggregates.confidenceSum / aggregates.matchedCount);
+                                }
+                                globalInfo.addProperty("totalUnmatchedUtterances", aggregates.unmatchedCount);
+                                globalInfo.addProperty("totalMatchedUtterances", aggregates.matchedCount);
+                            }
+                            gson.toJson(globalInfo, writer);
+                            writer.endArray();
+                        })));
     }
 
     /**
@@ -288,8 +525,11 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
                     if (isNull(sessionId)) {
                         throw new RestHandlerException(404, "Missing parameter sessionId");
                     }
-                    Map<Long, IntentRecord> sessionRecords = records.get(sessionId);
-                    if (isNull(sessionRecords)) {
+                    List<IntentRecordStore.Entry> sessionRecords;
+                    synchronized (this) {
+                        sessionRecords = records.getSession(sessionId);
+                    }
+                    if (sessionRecords.isEmpty()) {
                         throw new RestHandlerException(404, "Session " + sessionId + " not found");
                     } else {
                         return buildSessionObject(sessionId, sessionRecords);
@@ -315,34 +555,48 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
      *     {
      *         "sessionId": "72f8fa90-8d3e-4804-b00d-5612a95fb644",
      *         "timestamp": 1573750630281,
-     *         "utterance": "I knew it"
+     *         "utterance": "I knew it",
+     *         "rematch": {
+     *             "intent": "Affirmative",
+     *             "confidence": 0.92,
+     *             "timestamp": 1573837030281
+     *         }
      *     }
      * ]
      * }
      * </pre>
+     * <p>
+     * The {@code rematch} object is only set for the inputs that would now be matched to an intent (see
+     * {@link RecognitionBackfill}).
+     * <p>
+     * This endpoint accepts the {@link #PAGINATION_PARAMETERS}, for example {@code
+     * /analytics/monitoring/unmatched?from=1573750600000&limit=50} returns the first 50 unmatched inputs received
+     * after the provided timestamp, and the cursor to retrieve the next ones.
      *
      * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
+     * @see #queryUtterances(List, String, boolean, Function)
      */
     private void registerGetUnmatchedUtterances(XatkitServer xatkitServer) {
         xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring/unmatched",
-                RestHandlerFactory.createJsonRestHandler(((headers, params, content) -> {
-                    JsonArray result = new JsonArray();
-                    for (Map.Entry<String, Map<Long, IntentRecord>> recordEntry : records.entrySet()) {
-                        String sessionId = recordEntry.getKey();
-                        for (Map.Entry<Long, IntentRecord> sessionRecordEntry : recordEntry.getValue().entrySet()) {
-                            Long timestamp = sessionRecordEntry.getKey();
-                            IntentRecord intentRecord = sessionRecordEntry.getValue();
-                            if (intentRecord.getIntentName().equals("Default_Fallback_Intent")) {
-                                JsonObject unmatchedUtteranceObject = new JsonObject();
-                                unmatchedUtteranceObject.addProperty("sessionId", sessionId);
-                                unmatchedUtteranceObject.addProperty("timestamp", timestamp);
-                                unmatchedUtteranceObject.addProperty("utterance", intentRecord.getUtterance());
-                                result.add(unmatchedUtteranceObject);
+                RestHandlerFactory.createJsonRestHandler(((headers, params, content) ->
+                        queryUtterances(params, null, false, entry -> {
+                            JsonObject unmatchedUtteranceObject = new JsonObject();
+                            unmatchedUtteranceObject.addProperty("sessionId", entry.getSessionId());
+                            unmatchedUtteranceObject.addProperty("timestamp", entry.getRecord().getTimestamp());
+                            unmatchedUtteranceObject.addProperty("utterance", entry.getRecord().getUtterance());
+                            IntentRecordStore.Rematch rematch;
+                            synchronized (this) {
+                                rematch = records.getRematch(entry.getSessionId(), entry.getSequence());
                             }
-                        }
-                    }
-                    return result;
-                })));
+                            if (nonNull(rematch)) {
+                                JsonObject rematchObject = new JsonObject();
+                                rematchObject.addProperty("intent", rematch.getIntentName());
+                                rematchObject.addProperty("confidence", rematch.getRecognitionConfidence());
+                                rematchObject.addProperty("timestamp", rematch.getTimestamp());
+                                unmatchedUtteranceObject.add("rematch", rematchObject);
+                            }
+                            return unmatchedUtteranceObject;
+                        }))));
     }
 
     /**
@@ -365,31 +619,100 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
      * ]
      * }
      * </pre>
+     * <p>
+     * This endpoint accepts the {@link #PAGINATION_PARAMETERS}, and an optional {@code intent} parameter to only
+     * retrieve the inputs matched to the intent with the provided name.
      *
      * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
+     * @see #queryUtterances(List, String, boolean, Function)
      */
     private void registerGetMatchedUtterances(XatkitServer xatkitServer) {
         xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring/matched",
-                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
-                    JsonArray result = new JsonArray();
-                    for (Map.Entry<String, Map<Long, IntentRecord>> recordEntry : records.entrySet()) {
-                        String sessionId = recordEntry.getKey();
-                        for (Map.Entry<Long, IntentRecord> sessionRecordEntry : recordEntry.getValue().entrySet()) {
-                            Long timestamp = sessionRecordEntry.getKey();
-                            IntentRecord intentRecord = sessionRecordEntry.getValue();
-                            if (!intentRecord.getIntentName().equals("Default_Fallback_Intent")) {
-                                JsonObject matchedUtteranceObject = new JsonObject();
-                                matchedUtteranceObject.addProperty("sessionId",     sessionId);
-                                matchedUtteranceObject.addProperty("timestamp",     timestamp);
-                                matchedUtteranceObject.addProperty("utterance",     intentRecord.getUtterance());
-                                matchedUtteranceObject.addProperty("intent",        intentRecord.getIntentName());
-                                matchedUtteranceObject.addProperty("confidence",    intentRecord.getRecognitionConfidence());
-                                result.add(matchedUtteranceObject);
-                            }
-                        }
-                    }
-                    return result;
-                }));
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) ->
+                        queryUtterances(params, HttpUtils.getParameterValue("intent", params), true, entry -> {
+                            JsonObject matchedUtteranceObject = new JsonObject();
+                            matchedUtteranceObject.addProperty("sessionId", entry.getSessionId());
+                            matchedUtteranceObject.addProperty("timestamp", entry.getRecord().getTimestamp());
+                            matchedUtteranceObject.addProperty("utterance", entry.getRecord().getUtterance());
+                            matchedUtteranceObject.addProperty("intent", entry.getRecord().getIntentName());
+                            matchedUtteranceObject.addProperty("confidence",
+                                    entry.getRecord().getRecognitionConfidence());
+                            return matchedUtteranceObject;
+                        })));
+    }
+
+    /**
+     * Queries the stored utterances according to the provided {@code params} and returns them as JSON.
+     * <p>
+     * This method returns a {@link JsonArray} containing all the matching utterances if the provided {@code params}
+     * do not contain any of the {@link #PAGINATION_PARAMETERS}. Otherwise it returns a {@link JsonObject} containing
+     * the {@code entries} of the requested page, and the {@code nextCursor} to retrieve the next page.
+     *
+     * @param params     the parameters of the request
+     * @param intentName the name of the intent of the utterances to retrieve, or {@code null} to retrieve all the
+     *                   intents
+     * @param matched    the matched status of the utterances to retrieve
+     * @param mapper     the function creating the {@link JsonObject} representing an entry
+     * @return the JSON representation of the matching utterances
+     * @throws RestHandlerException if one of the provided {@code params} is invalid
+     */
+    private JsonElement queryUtterances(List<NameValuePair> params, @Nullable String intentName, boolean matched,
+                                        Function<IntentRecordStore.Entry, JsonObject> mapper)
+            throws RestHandlerException {
+        boolean paginated = Arrays.stream(PAGINATION_PARAMETERS)
+                .anyMatch(p -> nonNull(HttpUtils.getParameterValue(p, params)));
+        IntentRecordStore.Query query;
+        try {
+            long from = getLongParameter("from", params, Long.MIN_VALUE);
+            long to = getLongParameter("to", params, Long.MAX_VALUE);
+            int limit = paginated ? (int) getLongParameter("limit", params, DEFAULT_PAGE_LIMIT) : Integer.MAX_VALUE;
+            query = new IntentRecordStore.Query(intentName, matched, from, to, limit,
+                    HttpUtils.getParameterValue("cursor", params));
+        } catch (IllegalArgumentException e) {
+            throw new RestHandlerException(400, e.getMessage());
+        }
+        IntentRecordStore.Page page;
+        synchronized (this) {
+            try {
+                page = records.query(query);
+            } catch (IllegalArgumentException e) {
+                throw new RestHandlerException(400, e.getMessage());
+            }
+        }
+        JsonArray entries = new JsonArray();
+        for (IntentRecordStore.Entry entry : page.getEntries()) {
+            entries.add(mapper.apply(entry));
+        }
+        if (!paginated) {
+            return entries;
+        }
+        JsonObject result = new JsonObject();
+        result.add("entries", entries);
+        if (nonNull(page.getNextCursor())) {
+            result.addProperty("nextCursor", page.getNextCursor());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value of the {@code long} parameter with the provided {@code name}.
+     *
+     * @param name         the name of the parameter
+     * @param params       the parameters of the request
+     * @param defaultValue the value to return if the parameter is not set
+     * @return the value of the parameter
+     * @throws IllegalArgumentException if the value of the parameter is not a valid {@code long}
+     */
+    private static long getLongParameter(String name, List<NameValuePair> params, long defaultValue) {
+        String value = HttpUtils.getParameterValue(name, params);
+        if (isNull(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for parameter " + name + ": " + value, e);
+        }
     }
 
     /**
@@ -402,54 +725,124 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
      * <pre>
      * {@code
      * {
+     *     "sessionCount": 2,
      *     "averageMatchedUtteranceCount": 1.0,
      *     "averageUnmatchedUtteranceCount": 2.0,
-     *     "averageSessionTime": 43.246
+     *     "averageSessionTime": 43.246,
+     *     "averageRecognitionConfidence": 1.0,
+     *     "intentCounts": {
+     *         "HowAreYou": 2,
+     *         "Default_Fallback_Intent": 4
+     *     }
      * }
      * }
      * </pre>
+     * <p>
+     * The statistics are computed from the aggregates maintained by
+     * {@link #logRecognizedIntent(StateContext, RecognizedIntent)}, and do not require to read the stored records.
      *
-     * @param xatkitServer
+     * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
+     * @see #getSessionsStats()
      */
     private void registerGetSessionsStats(XatkitServer xatkitServer) {
         xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring/sessions/stats",
-                RestHandlerFactory.createJsonRestHandler(((headers, params, content) -> {
-                    JsonObject result = new JsonObject();
-                    int sessionCount = 0;
-                    int totalMatchedUtteranceCount = 0;
-                    int totalUnmatchedUtteranceCount = 0;
-                    long totalSessionTime = 0;
-                    for (Map.Entry<String, Map<Long, IntentRecord>> recordEntry : records.entrySet()) {
-                        sessionCount++;
-                        long sessionStartTimestamp = 0;
-                        long sessionStopTimestamp = 0;
-                        for (Map.Entry<Long, IntentRecord> sessionRecordEntry : recordEntry.getValue().entrySet()) {
-                            long timestamp = sessionRecordEntry.getKey();
-                            if (timestamp < sessionStartTimestamp || sessionStartTimestamp == 0) {
-                                sessionStartTimestamp = timestamp;
-                            }
-                            if (timestamp > sessionStopTimestamp) {
-                                sessionStopTimestamp = timestamp;
-                            }
-                            long sessionTime = sessionStopTimestamp - sessionStartTimestamp;
-                            totalSessionTime += sessionTime;
-                            IntentRecord intentRecord = sessionRecordEntry.getValue();
-                            if (intentRecord.getIntentName().equals("Default_Fallback_Intent")) {
-                                totalUnmatchedUtteranceCount++;
-                            } else {
-                                totalMatchedUtteranceCount++;
-                            }
+                RestHandlerFactory.createJsonRestHandler(((headers, params, content) -> getSessionsStats())));
+    }
+
+    /**
+     * Returns a {@link JsonObject} containing the statistics computed over the stored sessions.
+     *
+     * @return the {@link JsonObject} containing the statistics
+     * @see #registerGetSessionsStats(XatkitServer)
+     */
+    synchronized JsonObject getSessionsStats() {
+        JsonObject result = new JsonObject();
+        /*
+         * Avoid NaN values (they cannot be serialized in JSON) if there is no session yet.
+         */
+        double sessionCount = Math.max(aggregates.sessionCount, 1);
+        result.addProperty("sessionCount", aggregates.sessionCount);
+        result.addProperty("averageMatchedUtteranceCount", aggregates.matchedCount / sessionCount);
+        result.addProperty("averageUnmatchedUtteranceCount", aggregates.unmatchedCount / sessionCount);
+        // /1000 for seconds
+        result.addProperty("averageSessionTime", aggregates.totalSessionTime / sessionCount / 1000);
+        if (aggregates.matchedCount > 0) {
+            result.addProperty("averageRecognitionConfidence", aggregates.confidenceSum / aggregates.matchedCount);
+        }
+        JsonObject intentCounts = new JsonObject();
+        aggregates.intentCounts.forEach(intentCounts::addProperty);
+        result.add("intentCounts", intentCounts);
+        return result;
+    }
+
+    /**
+     * Registers the {@code GET: /analytics/monitoring/rollups} endpoint.
+     * <p>
+     * This endpoint returns a JSON array containing the rollups summarizing the records removed by the retention
+     * task (see {@link #RAW_RETENTION_KEY}). It expects a {@code granularity} parameter ({@code hourly} or
+     * {@code daily}), and accepts the optional {@code from}/{@code to} parameters (timestamps in milliseconds) to
+     * filter the returned buckets.
+     * <p>
+     * The listing below shows an example of the returned JSON payload:
+     * <pre>
+     * {@code
+     * [
+     *     {
+     *         "bucketStart": 1573747200000,
+     *         "intent": "HowAreYou",
+     *         "count": 12,
+     *         "matchedCount": 12,
+     *         "averageRecognitionConfidence": 0.92
+     *     },
+     *     {
+     *         "bucketStart": 1573747200000,
+     *         "intent": "Default_Fallback_Intent",
+     *         "count": 3,
+     *         "matchedCount": 0
+     *     }
+     * ]
+     * }
+     * </pre>
+     * <p>
+     * <b>Note</b>: this endpoint returns a {@code 400} status if the {@code granularity} parameter is missing or if
+     * one of the parameters is invalid.
+     *
+     * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
+     */
+    private void registerGetRollups(XatkitServer xatkitServer) {
+        xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring/rollups",
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    String granularityValue = HttpUtils.getParameterValue("granularity", params);
+                    if (isNull(granularityValue)) {
+                        throw new RestHandlerException(400, "Missing parameter granularity");
+                    }
+                    List<IntentRollupStore.Rollup> result;
+                    try {
+                        IntentRollupStore.Granularity granularity =
+                                IntentRollupStore.Granularity.valueOf(granularityValue.toUpperCase());
+                        long from = getLongParameter("from", params, Long.MIN_VALUE);
+                        long to = getLongParameter("to", params, Long.MAX_VALUE);
+                        synchronized (this) {
+                            result = rollups.query(granularity, from, to);
                         }
+                    } catch (IllegalArgumentException e) {
+                        throw new RestHandlerException(400, e.getMessage());
                     }
-                    double avgMatchedUtterance = totalMatchedUtteranceCount / (double) sessionCount;
-                    double avgUnmatchedUtterance = totalUnmatchedUtteranceCount / (double) sessionCount;
-                    double avgSessionTime = totalSessionTime / (double) sessionCount;
-                    result.addProperty("averageMatchedUtteranceCount", avgMatchedUtterance);
-                    result.addProperty("averageUnmatchedUtteranceCount", avgUnmatchedUtterance);
-                    // /1000 for seconds
-                    result.addProperty("averageSessionTime", avgSessionTime / 1000);
-                    return result;
-                })));
+                    JsonArray rollupsArray = new JsonArray();
+                    for (IntentRollupStore.Rollup rollup : result) {
+                        JsonObject rollupObject = new JsonObject();
+                        rollupObject.addProperty("bucketStart", rollup.getBucketStart());
+                        rollupObject.addProperty("intent", rollup.getIntentName());
+                        rollupObject.addProperty("count", rollup.getCount());
+                        rollupObject.addProperty("matchedCount", rollup.getMatchedCount());
+                        if (rollup.getMatchedCount() > 0) {
+                            rollupObject.addProperty("averageRecognitionConfidence",
+                                    rollup.getConfidenceSum() / rollup.getMatchedCount());
+                        }
+                        rollupsArray.add(rollupObject);
+                    }
+                    return rollupsArray;
+                }));
     }
 
     /**
@@ -459,7 +852,7 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
      * @param sessionData the database records associated to the provided {@code sessionId}
      * @return the created {@link JsonObject}
      */
-    private JsonObject buildSessionObject(String sessionId, Map<Long, IntentRecord> sessionData) {
+    private JsonObject buildSessionObject(String sessionId, List<IntentRecordStore.Entry> sessionData) {
         JsonObject sessionObject = new JsonObject();
         sessionObject.addProperty("sessionId", sessionId);
         JsonArray sessionRecords = new JsonArray();
@@ -467,17 +860,18 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
         int unmatchedCount = 0;
         int matchedCount = 0;
         double accConfidence = 0.0;
-        for (Map.Entry<Long, IntentRecord> sessionEntry : sessionData.entrySet()) {
+        for (IntentRecordStore.Entry sessionEntry : sessionData) {
+            IntentRecord record = sessionEntry.getRecord();
             JsonObject entryObject = new JsonObject();
             sessionRecords.add(entryObject);
-            entryObject.addProperty("timestamp", sessionEntry.getKey());
-            entryObject.addProperty("utterance", sessionEntry.getValue().getUtterance());
-            entryObject.addProperty("intent", sessionEntry.getValue().getIntentName());
-            entryObject.addProperty("confidence", sessionEntry.getValue().getRecognitionConfidence());
-            if (sessionEntry.getValue().getIntentName().equals("Default_Fallback_Intent")) {
+            entryObject.addProperty("timestamp", record.getTimestamp());
+            entryObject.addProperty("utterance", record.getUtterance());
+            entryObject.addProperty("intent", record.getIntentName());
+            entryObject.addProperty("confidence", record.getRecognitionConfidence());
+            if (!record.isMatched()) {
                 unmatchedCount++;
             } else {
-                accConfidence += sessionEntry.getValue().getRecognitionConfidence();
+                accConfidence += record.getRecognitionConfidence();
                 matchedCount++;
             }
         }
@@ -492,37 +886,364 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * This method also updates the global statistics returned by the {@code /analytics/monitoring/sessions/stats}
+     * endpoint, and persists them with the created record.
      */
     @Override
-    public void logRecognizedIntent(StateContext context, RecognizedIntent intent) {
-        Long ts = System.currentTimeMillis();
-        Map<Long, IntentRecord> contextMap = records.get(context.getContextId());
-        if (isNull(contextMap)) {
-            contextMap = new TreeMap<>();
-        }
-        contextMap.put(ts, new IntentRecord(intent));
-        records.put(context.getContextId(), contextMap);
+    public synchronized void logRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        this.addRecord(context.getContextId(), new IntentRecord(System.currentTimeMillis(), intent));
+        this.commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The created record is committed to the database by {@link #flush()}.
+     */
+    @Override
+    public synchronized void handle(RecognitionEvent event) {
+        this.addRecord(event.getSessionId(), new IntentRecord(event.getTimestamp(), event.getUtterance(),
+                event.getIntentName(), event.getRecognitionConfidence(), event.isMatched()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method updates the global statistics without storing a record, and commits them to the database.
+     */
+    @Override
+    public synchronized void countRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        long timestamp = System.currentTimeMillis();
+        this.updateAggregates(context.getContextId(), timestamp, new IntentRecord(timestamp, intent));
+        this.commit();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method updates the global statistics without storing a record. The statistics are persisted by
+     * {@link #flush()}.
+     */
+    @Override
+    public synchronized void count(RecognitionEvent event) {
+        this.updateAggregates(event.getSessionId(), event.getTimestamp(), new IntentRecord(event.getTimestamp(),
+                event.getUtterance(), event.getIntentName(), event.getRecognitionConfidence(), event.isMatched()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method persists the global statistics and commits the records handled since the last flush.
+     */
+    @Override
+    public synchronized void flush() {
+        this.commit();
+    }
+
+    /**
+     * Returns a page of the unmatched records created before the provided {@code to} timestamp.
+     * <p>
+     * This method is used by {@link RecognitionBackfill} to stream the unmatched records.
+     *
+     * @param to     the upper bound (exclusive) of the timestamps of the records to retrieve
+     * @param limit  the maximum number of records to retrieve
+     * @param cursor the cursor returned by the previous {@link IntentRecordStore.Page}, or {@code null} to retrieve
+     *               the first page
+     * @return the {@link IntentRecordStore.Page} of unmatched records
+     * @throws IllegalStateException    if the monitor is shut down
+     * @throws IllegalArgumentException if the provided {@code limit} is not positive or if the {@code cursor} is
+     *                                  invalid
+     */
+    synchronized IntentRecordStore.Page queryUnmatched(long to, int limit, @Nullable String cursor) {
+        checkState(!db.isClosed(), "Cannot query the unmatched records: the monitor is shut down");
+        return records.query(new IntentRecordStore.Query(null, false, Long.MIN_VALUE, to, limit, cursor));
+    }
+
+    /**
+     * Sets the {@link IntentRecordStore.Rematch} annotations of the provided {@code entries} and commits them.
+     * <p>
+     * The {@code rematches} are matched with the {@code entries} by index, a {@code null} rematch removes the
+     * existing annotation of the corresponding entry.
+     *
+     * @param entries   the {@link IntentRecordStore.Entry} instances to annotate
+     * @param rematches the {@link IntentRecordStore.Rematch} annotations to set
+     * @throws IllegalStateException    if the monitor is shut down
+     * @throws IllegalArgumentException if the provided lists do not have the same size
+     */
+    synchronized void setRematches(List<IntentRecordStore.Entry> entries,
+                                   List<IntentRecordStore.Rematch> rematches) {
+        checkState(!db.isClosed(), "Cannot annotate the unmatched records: the monitor is shut down");
+        checkArgument(entries.size() == rematches.size(), "Cannot annotate the unmatched records: expected %s "
+                + "rematch(es), found %s", entries.size(), rematches.size());
+        for (int i = 0; i < entries.size(); i++) {
+            IntentRecordStore.Entry entry = entries.get(i);
+            records.setRematch(entry.getSessionId(), entry.getSequence(), rematches.get(i));
+        }
         db.commit();
     }
 
+    /**
+     * Stores the provided {@code record} and updates the global statistics.
+     *
+     * @param sessionId the identifier of the session of the record
+     * @param record    the {@link IntentRecord} to store
+     * @see #commit()
+     */
+    private void addRecord(String sessionId, IntentRecord record) {
+        records.add(sessionId, record);
+        this.updateAggregates(sessionId, record.getTimestamp(), record);
+    }
+
+    /**
+     * Persists the {@link #aggregates} and commits the pending operations on the database.
+     */
+    private void commit() {
+        aggregatesVar.set(aggregates);
+        db.commit();
+    }
+
+    /**
+     * Updates the {@link #aggregates} and the {@link #sessionBounds} with the provided {@code record}.
+     * <p>
+     * This method does not persist the {@link #aggregates}, callers are responsible of setting the
+     * {@link #aggregatesVar} once all the records have been processed.
+     *
+     * @param sessionId the identifier of the session of the record
+     * @param timestamp the timestamp of the record
+     * @param record    the {@link IntentRecord} to add to the aggregates
+     */
+    private void updateAggregates(String sessionId, long timestamp, IntentRecord record) {
+        long[] bounds = sessionBounds.get(sessionId);
+        if (isNull(bounds)) {
+            aggregates.sessionCount++;
+            bounds = new long[]{timestamp, timestamp};
+        } else if (isTombstone(bounds)) {
+            /*
+             * The previous records of the session have been removed by the retention task: the session is already
+             * counted, and its previous duration is already part of the total session time.
+             */
+            bounds = new long[]{timestamp, timestamp};
+        } else {
+            long first = Math.min(bounds[0], timestamp);
+            long last = Math.max(bounds[1], timestamp);
+            aggregates.totalSessionTime += (last - first) - (bounds[1] - bounds[0]);
+            bounds = new long[]{first, last};
+        }
+        sessionBounds.put(sessionId, bounds);
+        if (record.isMatched()) {
+            aggregates.matchedCount++;
+            aggregates.confidenceSum += record.getRecognitionConfidence();
+        } else {
+            aggregates.unmatchedCount++;
+        }
+        aggregates.intentCounts.merge(record.getIntentName(), 1L, Long::sum);
+    }
+
+    /**
+     * Computes the {@link #aggregates} from the stored records.
+     * <p>
+     * This method is called when opening a database that does not contain aggregates, and reads all the stored
+     * records.
+     */
+    private void rebuildAggregates() {
+        Log.info("Computing the analytics aggregates from the stored records");
+        this.aggregates = new Aggregates();
+        this.sessionBounds.clear();
+        records.forEachSession((sessionId, entries) -> entries.forEach(entry -> this.updateAggregates(sessionId,
+                entry.getRecord().getTimestamp(), entry.getRecord())));
+        this.aggregatesVar.set(aggregates);
+        db.commit();
+    }
+
+    /**
+     * Applies the retention policy to the stored records.
+     * <p>
+     * This method removes the records older than the raw retention period and summarizes them in hourly rollups,
+     * then merges the hourly rollups older than the hourly retention period into daily rollups. The global
+     * statistics are not affected. Entries are processed by batches of {@link #RETENTION_BATCH_SIZE}, and the
+     * monitor lock is released between each batch: recognitions can be logged while the retention policy is
+     * applied.
+     * <p>
+     * This method compacts the database once the number of entries removed since the last compaction reaches the
+     * compaction threshold. The compaction holds the monitor lock, recognitions logged through an
+     * {@link AsyncRecognitionMonitor} are buffered until it completes.
+     * <p>
+     * This method is called periodically by the retention task, and does nothing if the raw records are kept
+     * forever.
+     *
+     * @param now the current time (in milliseconds)
+     * @see #RAW_RETENTION_KEY
+     * @see #HOURLY_RETENTION_KEY
+     * @see #COMPACTION_THRESHOLD_KEY
+     */
+    void applyRetention(long now) {
+        if (rawRetention == 0) {
+            return;
+        }
+        long rawCutoff = IntentRollupStore.Granularity.HOURLY.floor(now - rawRetention);
+        long removedCount = 0;
+        int batchSize;
+        do {
+            synchronized (this) {
+                if (db.isClosed()) {
+                    return;
+                }
+                List<IntentRecordStore.Entry> removed = records.removeBefore(rawCutoff, RETENTION_BATCH_SIZE);
+                for (IntentRecordStore.Entry entry : removed) {
+                    rollups.add(entry.getRecord());
+                    long[] bounds = sessionBounds.get(entry.getSessionId());
+                    if (nonNull(bounds) && !isTombstone(bounds) && bounds[1] < rawCutoff) {
+                        /*
+                         * All the records of the session are removed, keep a tombstone to avoid counting the
+                         * session again if it receives new records.
+                         */
+                        sessionBounds.put(entry.getSessionId(), new long[]{bounds[1]});
+                    }
+                }
+                batchSize = removed.size();
+                removedSinceCompaction.addAndGet(batchSize);
+                this.commit();
+            }
+            removedCount += batchSize;
+        } while (batchSize == RETENTION_BATCH_SIZE);
+        long expiredCount = this.removeExpiredTombstones(rawCutoff - rawRetention, now);
+        long mergedCount = 0;
+        if (hourlyRetention > 0) {
+            long hourlyCutoff = IntentRollupStore.Granularity.DAILY.floor(now - hourlyRetention);
+            do {
+                synchronized (this) {
+                    if (db.isClosed()) {
+                        return;
+                    }
+                    batchSize = rollups.rollUp(hourlyCutoff, RETENTION_BATCH_SIZE);
+                    removedSinceCompaction.addAndGet(batchSize);
+                    this.commit();
+                }
+                mergedCount += batchSize;
+            } while (batchSize == RETENTION_BATCH_SIZE);
+        }
+        if (removedCount > 0 || mergedCount > 0 || expiredCount > 0) {
+            Log.info("Removed {0} analytics record(s), merged {1} hourly rollup(s), and expired {2} session "
+                    + "tombstone(s)", removedCount, mergedCount, expiredCount);
+        }
+        if (compactionThreshold > 0 && removedSinceCompaction.get() >= compactionThreshold) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Removes the session tombstones whose last record is older than the provided {@code cutoff}.
+     * <p>
+     * The expired tombstones are collected in a first pass reading the {@link #sessionBounds}, and removed by
+     * batches of {@link #RETENTION_BATCH_SIZE}. A tombstone updated in the meantime (i.e. the session received a new
+     * record) is not removed. Tombstones created by previous versions of this monitor do not contain the timestamp
+     * of their last record, they are set with the provided {@code now} timestamp.
+     *
+     * @param cutoff the timestamp before which the tombstones are removed
+     * @param now    the current time (in milliseconds)
+     * @return the number of removed tombstones
+     */
+    private long removeExpiredTombstones(long cutoff, long now) {
+        List<String> sessionIds = new ArrayList<>();
+        synchronized (this) {
+            if (db.isClosed()) {
+                return 0;
+            }
+            sessionBounds.forEach((sessionId, bounds) -> {
+                if (bounds.length == 0 || (isTombstone(bounds) && bounds[0] < cutoff)) {
+                    sessionIds.add(sessionId);
+                }
+            });
+        }
+        long removedCount = 0;
+        for (int from = 0; from < sessionIds.size(); from += RETENTION_BATCH_SIZE) {
+            synchronized (this) {
+                if (db.isClosed()) {
+                    return removedCount;
+                }
+                for (String sessionId : sessionIds.subList(from, Math.min(from + RETENTION_BATCH_SIZE,
+                        sessionIds.size()))) {
+                    long[] bounds = sessionBounds.get(sessionId);
+                    if (isNull(bounds) || !isTombstone(bounds)) {
+                        continue;
+                    }
+                    if (bounds.length == 0) {
+                        sessionBounds.put(sessionId, new long[]{now});
+                    } else if (bounds[0] < cutoff) {
+                        sessionBounds.remove(sessionId);
+                        removedCount++;
+                    }
+                }
+                this.commit();
+            }
+        }
+        return removedCount;
+    }
+
+    /**
+     * Returns whether the provided session {@code bounds} represent a tombstone.
+     *
+     * @param bounds the bounds of a session stored in {@link #sessionBounds}
+     * @return {@code true} if the session records have all been removed by the retention task, {@code false}
+     * otherwise
+     */
+    private static boolean isTombstone(long[] bounds) {
+        return bounds.length < 2;
+    }
+
+    /**
+     * Compacts the database to give back the space of the removed entries to the file system.
+     */
+    private synchronized void compact() {
+        if (db.isClosed()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        db.getStore().compact();
+        removedSinceCompaction.set(0);
+        db.commit();
+        Log.info("Compacted the analytics database in {0}ms", System.currentTimeMillis() - start);
+    }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This method tries to commit the pending operations on the database before closing the connection.
+     * This method stops the retention task and tries to persist the global statistics and commit the pending
+     * operations on the database before closing the connection.
      */
     public void shutdown() {
-        this.db.commit();
-        this.db.close();
+        if (nonNull(retentionExecutor)) {
+            /*
+             * Do not interrupt a running task: the retention task checks whether the database is closed before
+             * processing each batch.
+             */
+            retentionExecutor.shutdown();
+        }
+        synchronized (this) {
+            this.commit();
+            this.db.close();
+        }
     }
 
     /**
      * A database record holding intent-related information.
+     * <p>
+     * Records are stored with the {@link IntentRecordSerializer}. This class is {@link Serializable} to read the
+     * records stored by previous versions of the monitor.
      */
-    private static class IntentRecord implements Serializable {
+    static class IntentRecord implements Serializable {
 
         private static final long serialVersionUID = 42L;
 
+        /**
+         * The timestamp of the record.
+         * <p>
+         * This value is {@code 0} for records created by previous versions of the monitor (their timestamp was
+         * stored in the record key), see {@link #withTimestamp(long)}.
+         */
+        private long timestamp;
+
         /**
          * The utterance that has been mapped to the intent.
          */
@@ -540,10 +1261,63 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
          */
         private Float recognitionConfidence;
 
-        public IntentRecord(RecognizedIntent recognizedIntent) {
+        /**
+         * Whether the utterance has been matched to an intent.
+         * <p>
+         * This value is {@code null} for records created by previous versions of the monitor, see
+         * {@link #isMatched()}.
+         */
+        private Boolean matched;
+
+        private IntentRecord() {
+        }
+
+        /**
+         * Creates an {@link IntentRecord} with the provided values.
+         * <p>
+         * This constructor is used to deserialize records, see {@link IntentRecordSerializer}.
+         *
+         * @param timestamp             the timestamp of the record
+         * @param utterance             the utterance that has been mapped to the intent
+         * @param intentName            the name of the intent extracted from the utterance
+         * @param recognitionConfidence the confidence level associated to the intent
+         * @param matched               whether the utterance has been matched to an intent
+         */
+        IntentRecord(long timestamp, String utterance, String intentName, Float recognitionConfidence,
+                     boolean matched) {
+            this.timestamp = timestamp;
+            this.utterance = utterance;
+            this.intentName = intentName;
+            this.recognitionConfidence = recognitionConfidence;
+            this.matched = matched;
+        }
+
+        public IntentRecord(long timestamp, RecognizedIntent recognizedIntent) {
+            this.timestamp = timestamp;
             this.utterance = recognizedIntent.getMatchedInput();
             this.intentName = recognizedIntent.getDefinition().getName();
             this.recognitionConfidence = recognizedIntent.getRecognitionConfidence();
+            this.matched = recognizedIntent.getDefinition() != IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT;
+        }
+
+        /**
+         * Creates a copy of this record with the provided {@code timestamp}.
+         *
+         * @param timestamp the timestamp of the created record
+         * @return the created record
+         */
+        public IntentRecord withTimestamp(long timestamp) {
+            IntentRecord result = new IntentRecord();
+            result.timestamp = timestamp;
+            result.utterance = this.utterance;
+            result.intentName = this.intentName;
+            result.recognitionConfidence = this.recognitionConfidence;
+            result.matched = this.matched;
+            return result;
+        }
+
+        public long getTimestamp() {
+            return this.timestamp;
         }
 
         public String getUtterance() {
@@ -558,6 +1332,23 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
             return this.recognitionConfidence;
         }
 
+        /**
+         * Returns whether the utterance has been matched to an intent.
+         * <p>
+         * Records created by previous versions of the monitor do not store this information nor the definition of
+         * their intent: their intent name is compared to the name of the
+         * {@link IntentRecognitionProvider#DEFAULT_FALLBACK_INTENT}. The other records are flagged when they are
+         * created, from the identity of the recognized definition.
+         *
+         * @return {@code true} if the utterance has been matched, {@code false} otherwise
+         */
+        public boolean isMatched() {
+            if (isNull(matched)) {
+                return !IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName().equals(intentName);
+            }
+            return matched;
+        }
+
         @Override
         public int hashCode() {
             return this.utterance.hashCode() + this.intentName.hashCode() + this.recognitionConfidence.hashCode();
@@ -573,4 +1364,46 @@ public class RecognitionMonitorMapDB implements RecognitionMonitor {
             return super.equals(obj);
         }
     }
+
+    /**
+     * The statistics computed over all the stored records.
+     * <p>
+     * This class is persisted in the database, and is updated each time a record is created.
+     */
+    private static class Aggregates implements Serializable {
+
+        private static final long serialVersionUID = 42L;
+
+        /**
+         * The number of sessions.
+         */
+        private int sessionCount;
+
+        /**
+         * The number of matched utterances.
+         */
+        private long matchedCount;
+
+        /**
+         * The number of unmatched utterances.
+         */
+        private long unmatchedCount;
+
+        /**
+         * The sum of the recognition confidences of the matched utterances.
+         */
+        private double confidenceSum;
+
+        /**
+         * The sum of the session times (in milliseconds).
+         * <p>
+         * The time of a session is the duration between its first and last records.
+         */
+        private long totalSessionTime;
+
+        /**
+         * The number of records of each intent, indexed by intent name.
+         */
+        private Map<String, Long> intentCounts = new HashMap<>();
+    }
 }
@@ -0,0 +1,395 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.RecognizedIntent;
+import lombok.NonNull;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+
+/**
+ * A bounded, lock-free ring buffer of {@link RecognitionEvent}s.
+ * <p>
+ * The buffer pre-allocates its {@link RecognitionEvent}s: publishing a recognition copies its information in the
+ * next free slot and does not allocate any object. Producers claim slots with a single compare-and-set, and each
+ * {@link Cursor} reads all the published events in order (each consumer sees every event). A slot is reused once
+ * all the cursors have read it.
+ * <p>
+ * The {@link OverflowPolicy} defines the behavior of producers when the slowest cursor lags behind by the capacity
+ * of the buffer: {@link OverflowPolicy#DROP} discards the new event (see {@link #getDroppedCount()}), while
+ * {@link OverflowPolicy#BLOCK} waits until a slot is released.
+ * <p>
+ * Sampled events (see {@link RecognitionEvent#isSampled()}) have priority over the events that are only counted:
+ * a quarter of the buffer is reserved to sampled events (the unmatched and low-confidence recognitions are always
+ * sampled), and count events are considered overflowing once the other slots are used. Under the
+ * {@link OverflowPolicy#DROP} policy the producers never wait, and the count events are dropped first.
+ * <p>
+ * Cursors must be created before the first event is published.
+ *
+ * @see AsyncRecognitionMonitor
+ */
+public class RecognitionRingBuffer {
+
+    /**
+     * The behavior of {@link #publish(long, StateContext, RecognizedIntent, boolean)} when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discards the new event.
+         */
+        DROP,
+        /**
+         * Waits until the slowest {@link Cursor} releases a slot.
+         */
+        BLOCK
+    }
+
+    /**
+     * The time (in nanoseconds) producers wait before checking again whether a slot has been released.
+     */
+    private static final long BLOCK_PARK_NANOS = 10_000;
+
+    /**
+     * The pre-allocated events of the buffer.
+     */
+    private final RecognitionEvent[] events;
+
+    /**
+     * The mask used to compute the index of a sequence in {@link #events}.
+     */
+    private final int mask;
+
+    /**
+     * The sequence published in each slot ({@code -1} if the slot has never been published).
+     * <p>
+     * A slot is readable for a given sequence when it contains this sequence: producers set it once the event has
+     * been written, which ensures that readers see the complete event.
+     */
+    private final AtomicLongArray publishedSequences;
+
+    /**
+     * The next sequence to claim.
+     */
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /**
+     * The number of slots that can only be claimed by sampled events.
+     */
+    private final int sampledReserve;
+
+    /**
+     * The number of events discarded because the buffer was full.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * The number of sampled events discarded because the buffer was full.
+     */
+    private final AtomicLong droppedSampledCount = new AtomicLong();
+
+    /**
+     * The {@link OverflowPolicy} of the buffer.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * The {@link Cursor}s reading the buffer.
+     */
+    private final CopyOnWriteArrayList<Cursor> cursors = new CopyOnWriteArrayList<>();
+
+    /**
+     * Whether the buffer is closed.
+     *
+     * @see #close()
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Constructs a {@link RecognitionRingBuffer} with the provided {@code capacity} and {@code overflowPolicy}.
+     *
+     * @param capacity       the number of slots of the buffer
+     * @param overflowPolicy the behavior of producers when the buffer is full
+     * @throws IllegalArgumentException if the provided {@code capacity} is not a positive power of two
+     * @throws NullPointerException     if the provided {@code overflowPolicy} is {@code null}
+     */
+    public RecognitionRingBuffer(int capacity, @NonNull OverflowPolicy overflowPolicy) {
+        checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "Cannot create a %s with the provided "
+                + "capacity %s: expected a positive power of two", RecognitionRingBuffer.class.getSimpleName(),
+                capacity);
+        this.events = new RecognitionEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new RecognitionEvent();
+        }
+        this.mask = capacity - 1;
+        this.sampledReserve = capacity / 4;
+        this.publishedSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            publishedSequences.set(i, -1);
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Creates a new {@link Cursor} reading the events published in the buffer.
+     *
+     * @return the created {@link Cursor}
+     * @throws IllegalStateException if an event has already been published in the buffer
+     */
+    public Cursor newCursor() {
+        checkState(nextSequence.get() == 0, "Cannot create a %s: events have already been published",
+                Cursor.class.getSimpleName());
+        Cursor cursor = new Cursor();
+        cursors.add(cursor);
+        return cursor;
+    }
+
+    /**
+     * Publishes the recognition information from the provided {@code context} and {@code intent}.
+     *
+     * @param timestamp the time (in milliseconds) when the intent has been recognized
+     * @param context   the {@link StateContext} from which the {@link RecognizedIntent} has been created
+     * @param intent    the {@link RecognizedIntent} to publish
+     * @param sampled   whether the details of the recognition must be stored (see
+     *                  {@link RecognitionEvent#isSampled()})
+     * @return {@code true} if the event has been published, {@code false} if it has been dropped
+     */
+    public boolean publish(long timestamp, StateContext context, RecognizedIntent intent, boolean sampled) {
+        long sequence = claim(sampled);
+        if (sequence < 0) {
+            return false;
+        }
+        events[index(sequence)].set(timestamp, context, intent, sampled);
+        publishedSequences.lazySet(index(sequence), sequence);
+        return true;
+    }
+
+    /**
+     * Publishes an event with the provided values.
+     * <p>
+     * This method is used in the tests to publish events without {@link StateContext}s.
+     *
+     * @param timestamp             the time (in milliseconds) when the intent has been recognized
+     * @param sessionId             the identifier of the session the intent has been recognized in
+     * @param intentName            the name of the recognized intent
+     * @param utterance             the input that has been mapped to the intent
+     * @param recognitionConfidence the confidence of the recognition
+     * @param matched               whether the input has been matched to an intent
+     * @return {@code true} if the event has been published, {@code false} if it has been dropped
+     * @see RecognitionEvent#set(long, String, String, String, float, boolean)
+     */
+    boolean publish(long timestamp, String sessionId, String intentName, String utterance,
+                    float recognitionConfidence, boolean matched) {
+        long sequence = claim(true);
+        if (sequence < 0) {
+            return false;
+        }
+        events[index(sequence)].set(timestamp, sessionId, intentName, utterance, recognitionConfidence, matched);
+        publishedSequences.lazySet(index(sequence), sequence);
+        return true;
+    }
+
+    /**
+     * Claims the next free slot of the buffer.
+     * <p>
+     * Events that are not sampled cannot claim the slots reserved to sampled events (see {@link #sampledReserve}).
+     *
+     * @param sampled whether the event to publish is sampled
+     * @return the claimed sequence, or {@code -1} if the event must be dropped
+     */
+    private long claim(boolean sampled) {
+        int available = sampled ? events.length : events.length - sampledReserve;
+        while (true) {
+            if (closed) {
+                this.drop(sampled);
+                return -1;
+            }
+            long sequence = nextSequence.get();
+            if (sequence - available >= getMinimumCursorSequence()) {
+                /*
+                 * The slot still contains an event that has not been read by all the cursors, or is reserved to
+                 * sampled events.
+                 */
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    this.drop(sampled);
+                    return -1;
+                }
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                continue;
+            }
+            if (nextSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Records a dropped event.
+     *
+     * @param sampled whether the dropped event is sampled
+     */
+    private void drop(boolean sampled) {
+        droppedCount.incrementAndGet();
+        if (sampled) {
+            droppedSampledCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the sequence of the slowest {@link Cursor}.
+     *
+     * @return the sequence of the slowest {@link Cursor}, or {@link #nextSequence} if there is no cursor
+     */
+    private long getMinimumCursorSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (Cursor cursor : cursors) {
+            minimum = Math.min(minimum, cursor.sequence);
+        }
+        return minimum == Long.MAX_VALUE ? nextSequence.get() : minimum;
+    }
+
+    /**
+     * Returns the index of the slot containing the provided {@code sequence}.
+     *
+     * @param sequence the sequence to retrieve the slot of
+     * @return the index of the slot
+     */
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    /**
+     * Closes the buffer.
+     * <p>
+     * Events published after this call are dropped. Producers waiting for a free slot are released (their event is
+     * dropped), and cursors can still read the events published before the buffer was closed.
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    /**
+     * Returns whether the buffer is closed.
+     *
+     * @return {@code true} if the buffer is closed, {@code false} otherwise
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the number of slots of the buffer.
+     *
+     * @return the number of slots of the buffer
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Returns the number of events published in the buffer.
+     * <p>
+     * This value includes the events that are being written by producers.
+     *
+     * @return the number of events published in the buffer
+     */
+    public long getPublishedCount() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full or closed.
+     *
+     * @return the number of events dropped because the buffer was full or closed
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the number of sampled events dropped because the buffer was full or closed.
+     * <p>
+     * The other dropped events were only counted (see {@link RecognitionEvent#isSampled()}).
+     *
+     * @return the number of sampled events dropped because the buffer was full or closed
+     */
+    public long getDroppedSampledCount() {
+        return droppedSampledCount.get();
+    }
+
+    /**
+     * A reader of the {@link RecognitionRingBuffer}.
+     * <p>
+     * A {@link Cursor} reads all the events published in the buffer in order. It is not thread-safe, and must be
+     * polled by a single thread.
+     */
+    public class Cursor {
+
+        /**
+         * The next sequence to read.
+         * <p>
+         * Producers read this value to check whether a slot can be reused.
+         */
+        private volatile long sequence = 0;
+
+        /**
+         * Constructs a {@link Cursor} starting at the beginning of the buffer.
+         */
+        private Cursor() {
+        }
+
+        /**
+         * Handles all the available events with the provided {@code handler}.
+         * <p>
+         * The slots of the handled events are released once the {@code handler} has been called for all of them,
+         * the {@code handler} must not keep a reference to the provided events. If the {@code handler} throws an
+         * exception the event that caused it is skipped, and the remaining events are handled by the next poll.
+         *
+         * @param handler the {@link Consumer} handling the available events
+         * @return the number of handled events
+         */
+        public int poll(Consumer<RecognitionEvent> handler) {
+            long current = sequence;
+            long available = current;
+            long limit = nextSequence.get();
+            while (available < limit && publishedSequences.get(index(available)) == available) {
+                available++;
+            }
+            long s = current;
+            try {
+                for (; s < available; s++) {
+                    handler.accept(events[index(s)]);
+                }
+            } finally {
+                /*
+                 * Skip the event that made the handler fail (if any), it would fail again at the next poll.
+                 */
+                sequence = s == available ? available : s + 1;
+            }
+            return (int) (available - current);
+        }
+
+        /**
+         * Returns whether the cursor has read all the events claimed in the buffer.
+         *
+         * @return {@code true} if the cursor has read all the events claimed in the buffer, {@code false} otherwise
+         */
+        public boolean isDrained() {
+            return sequence >= nextSequence.get();
+        }
+
+        /**
+         * Returns the number of events published in the buffer that have not been read by this cursor.
+         *
+         * @return the number of events that have not been read by this cursor
+         */
+        public long getLag() {
+            return Math.max(nextSequence.get() - sequence, 0);
+        }
+    }
+}
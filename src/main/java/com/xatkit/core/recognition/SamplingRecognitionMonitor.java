@@ -0,0 +1,324 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.JsonObject;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandlerFactory;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.RecognizedIntent;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+
+/**
+ * A {@link RecognitionMonitor} storing a sample of the confident recognitions.
+ * <p>
+ * This monitor is placed in front of another {@link RecognitionMonitor}, and forwards it:
+ * <ul>
+ *     <li>all the unmatched recognitions (i.e. recognitions of the default fallback intent)</li>
+ *     <li>all the recognitions with a confidence lower than the confidence threshold</li>
+ *     <li>a random sample of the other recognitions, selected with the current sampling rate</li>
+ * </ul>
+ * The skipped recognitions are forwarded to
+ * {@link RecognitionMonitor#countRecognizedIntent(StateContext, RecognizedIntent)}, so the monitors maintaining
+ * aggregates keep them exact. An {@link AsyncRecognitionMonitor} gives priority to the stored recognitions: if its
+ * buffer is full and its overflow policy is {@link RecognitionRingBuffer.OverflowPolicy#DROP}, the counted
+ * recognitions are dropped first (see {@link AsyncRecognitionMonitor#getDroppedCount()}).
+ * <p>
+ * The sampling rate is either fixed, or adapted to the load: if a target rate is set, the sampling rate is updated
+ * every second to store at most this number of confident recognitions per second (it never exceeds the configured
+ * rate). The exact number of recognitions and the number of stored recognitions of each intent can be retrieved
+ * with the {@code GET: /analytics/monitoring/sampling} endpoint, allowing dashboards to rescale the stored data.
+ * These counters are kept in memory since the start of the bot; the persisted equivalents are stored by the
+ * monitors receiving the counted recognitions: the {@code intentCounts} of the {@link RecognitionMonitorMapDB}
+ * statistics, and the {@code intent_count} points of the {@link RecognitionMonitorInflux}.
+ *
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SAMPLING_RATE_KEY
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SAMPLING_CONFIDENCE_THRESHOLD_KEY
+ * @see IntentRecognitionProviderFactoryConfiguration#RECOGNITION_MONITOR_SAMPLING_TARGET_RATE_KEY
+ */
+public class SamplingRecognitionMonitor implements RecognitionMonitor {
+
+    /**
+     * The duration (in milliseconds) of the window used to measure the load.
+     */
+    private static final long WINDOW_SIZE = 1000;
+
+    /**
+     * The lowest sampling rate used when the sampling rate is adapted to the load.
+     * <p>
+     * This rate ensures that all the intents keep being sampled under heavy load.
+     */
+    static final double MIN_ADAPTIVE_RATE = 0.001;
+
+    /**
+     * The {@link RecognitionMonitor} storing the sampled recognitions.
+     */
+    private final RecognitionMonitor delegate;
+
+    /**
+     * The configured sampling rate of the confident recognitions.
+     */
+    private final double rate;
+
+    /**
+     * The confidence under which the recognitions are always stored.
+     */
+    private final float confidenceThreshold;
+
+    /**
+     * The maximum number of confident recognitions to store per second, or {@code 0} if the sampling rate is not
+     * adapted to the load.
+     */
+    private final long targetRate;
+
+    /**
+     * The sampling rate currently applied to the confident recognitions.
+     */
+    private volatile double currentRate;
+
+    /**
+     * The start (in milliseconds) of the current load window.
+     */
+    private final AtomicLong windowStart;
+
+    /**
+     * The number of confident recognitions received in the current load window.
+     */
+    private final AtomicLong windowCount = new AtomicLong();
+
+    /**
+     * The counters of each intent, indexed by intent name.
+     */
+    private final Map<String, IntentCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@link SamplingRecognitionMonitor} forwarding the sampled recognitions to the provided
+     * {@code delegate}.
+     * <p>
+     * This constructor registers the {@code GET: /analytics/monitoring/sampling} endpoint.
+     *
+     * @param xatkitServer        the {@link XatkitServer} instance used to register the REST endpoint
+     * @param delegate            the {@link RecognitionMonitor} storing the sampled recognitions
+     * @param rate                the sampling rate of the confident recognitions
+     * @param confidenceThreshold the confidence under which the recognitions are always stored
+     * @param targetRate          the maximum number of confident recognitions to store per second, or {@code 0} to
+     *                            use a fixed sampling rate
+     * @throws NullPointerException     if the provided {@code xatkitServer} or {@code delegate} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code rate} is not in {@code ]0, 1]} or if the provided
+     *                                  {@code targetRate} is negative
+     */
+    public SamplingRecognitionMonitor(@NonNull XatkitServer xatkitServer, @NonNull RecognitionMonitor delegate,
+                                      double rate, float confidenceThreshold, long targetRate) {
+        checkArgument(rate > 0 && rate <= 1, "Invalid sampling rate %s: expected a value in ]0, 1]", rate);
+        checkArgument(targetRate >= 0, "Invalid target rate %s: expected a positive value or 0", targetRate);
+        this.delegate = delegate;
+        this.rate = rate;
+        this.confidenceThreshold = confidenceThreshold;
+        this.targetRate = targetRate;
+        this.currentRate = rate;
+        this.windowStart = new AtomicLong(System.currentTimeMillis());
+        Log.info("Sampling the recognitions with a confidence higher than {0} (rate={1}, target={2}/s)",
+                confidenceThreshold, rate, targetRate == 0 ? "none" : targetRate);
+        this.registerGetSamplingMetrics(xatkitServer);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method forwards the recognition to the underlying monitor if it is unmatched, if its confidence is lower
+     * than the confidence threshold, or if it is selected by the sampling. Otherwise the recognition is only
+     * counted (see {@link RecognitionMonitor#countRecognizedIntent(StateContext, RecognizedIntent)}).
+     */
+    @Override
+    public void logRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        String intentName = intent.getDefinition().getName();
+        IntentCounters intentCounters = counters.computeIfAbsent(intentName, k -> new IntentCounters());
+        intentCounters.seen.increment();
+        boolean matched = intent.getDefinition() != IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT;
+        if (this.isSampled(matched, intent.getRecognitionConfidence())) {
+            intentCounters.sampled.increment();
+            delegate.logRecognizedIntent(context, intent);
+        } else {
+            delegate.countRecognizedIntent(context, intent);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method forwards the recognition to the underlying monitor.
+     */
+    @Override
+    public void countRecognizedIntent(StateContext context, RecognizedIntent intent) {
+        counters.computeIfAbsent(intent.getDefinition().getName(), k -> new IntentCounters()).seen.increment();
+        delegate.countRecognizedIntent(context, intent);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method shuts down the underlying monitor.
+     */
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * Returns the {@link RecognitionMonitor} storing the sampled recognitions.
+     *
+     * @return the underlying {@link RecognitionMonitor}
+     */
+    public RecognitionMonitor getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the sampling rate currently applied to the confident recognitions.
+     *
+     * @return the current sampling rate
+     */
+    public double getCurrentRate() {
+        return currentRate;
+    }
+
+    /**
+     * Returns the number of recognitions of the provided {@code intentName}.
+     *
+     * @param intentName the name of the intent
+     * @return the number of recognitions of the intent
+     */
+    public long getSeenCount(String intentName) {
+        IntentCounters intentCounters = counters.get(intentName);
+        return isNull(intentCounters) ? 0 : intentCounters.seen.sum();
+    }
+
+    /**
+     * Returns the number of recognitions of the provided {@code intentName} forwarded to the underlying monitor.
+     *
+     * @param intentName the name of the intent
+     * @return the number of sampled recognitions of the intent
+     */
+    public long getSampledCount(String intentName) {
+        IntentCounters intentCounters = counters.get(intentName);
+        return isNull(intentCounters) ? 0 : intentCounters.sampled.sum();
+    }
+
+    /**
+     * Returns whether the recognition with the provided {@code matched} status and {@code confidence} must be
+     * stored.
+     *
+     * @param matched    whether the input has been matched to an intent (i.e. the recognized intent is not the
+     *                   default fallback)
+     * @param confidence the confidence of the recognition
+     * @return {@code true} if the recognition must be stored, {@code false} otherwise
+     */
+    private boolean isSampled(boolean matched, float confidence) {
+        if (!matched || confidence < confidenceThreshold) {
+            return true;
+        }
+        if (targetRate > 0) {
+            this.updateLoad(System.currentTimeMillis());
+        }
+        double sampleRate = currentRate;
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Counts a confident recognition in the current load window and adapts the sampling rate when the window ends.
+     * <p>
+     * The new sampling rate is computed from the number of confident recognitions received during the window that
+     * just ended. Only the thread that ends the window computes the new rate.
+     *
+     * @param now the current time (in milliseconds)
+     */
+    void updateLoad(long now) {
+        long start = windowStart.get();
+        if (now - start >= WINDOW_SIZE && windowStart.compareAndSet(start, now)) {
+            long count = windowCount.getAndSet(0);
+            /*
+             * Scale the count to a second, the window may be longer than WINDOW_SIZE if there was no recognition.
+             */
+            double load = count * 1000.0 / (now - start);
+            double adaptedRate = load <= targetRate ? rate : Math.max(MIN_ADAPTIVE_RATE, targetRate / load);
+            this.currentRate = Math.min(rate, adaptedRate);
+        }
+        windowCount.incrementAndGet();
+    }
+
+    /**
+     * Registers the {@code GET: /analytics/monitoring/sampling} endpoint.
+     * <p>
+     * This endpoint returns a JSON object containing the sampling configuration, and the number of recognitions
+     * ({@code seen}) and stored recognitions ({@code sampled}) of each intent. The stored data of an intent can be
+     * rescaled with the {@code seen / sampled} ratio.
+     * <p>
+     * The listing below shows an example of the returned JSON payload:
+     * <pre>
+     * {@code
+     * {
+     *     "rate": 1.0,
+     *     "currentRate": 0.25,
+     *     "confidenceThreshold": 0.8,
+     *     "targetRate": 50,
+     *     "intents": {
+     *         "Welcome": {
+     *             "seen": 1200,
+     *             "sampled": 301
+     *         },
+     *         "Default_Fallback_Intent": {
+     *             "seen": 45,
+     *             "sampled": 45
+     *         }
+     *     }
+     * }
+     * }
+     * </pre>
+     *
+     * @param xatkitServer the {@link XatkitServer} instance used to register the REST endpoint
+     */
+    private void registerGetSamplingMetrics(XatkitServer xatkitServer) {
+        xatkitServer.registerRestEndpoint(HttpMethod.GET, "/analytics/monitoring/sampling",
+                RestHandlerFactory.createJsonRestHandler((headers, params, content) -> {
+                    JsonObject result = new JsonObject();
+                    result.addProperty("rate", rate);
+                    result.addProperty("currentRate", currentRate);
+                    result.addProperty("confidenceThreshold", confidenceThreshold);
+                    result.addProperty("targetRate", targetRate);
+                    JsonObject intents = new JsonObject();
+                    counters.forEach((intentName, intentCounters) -> {
+                        JsonObject intentObject = new JsonObject();
+                        intentObject.addProperty("seen", intentCounters.seen.sum());
+                        intentObject.addProperty("sampled", intentCounters.sampled.sum());
+                        intents.add(intentName, intentObject);
+                    });
+                    result.add("intents", intents);
+                    return result;
+                }));
+    }
+
+    /**
+     * The exact counters of an intent.
+     */
+    private static class IntentCounters {
+
+        /**
+         * The number of recognitions of the intent.
+         */
+        private final LongAdder seen = new LongAdder();
+
+        /**
+         * The number of recognitions of the intent forwarded to the underlying monitor.
+         */
+        private final LongAdder sampled = new LongAdder();
+    }
+}
@@ -0,0 +1,179 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.util.FileUtils;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static com.xatkit.core.recognition.RecognitionMonitorMapDB.DATA_DIRECTORY_KEY;
+import static com.xatkit.core.recognition.RecognitionMonitorMapDB.DEFAULT_DATA_DIRECTORY;
+
+/**
+ * Stores the fingerprint of the data used to train an {@link IntentRecognitionProvider}.
+ * <p>
+ * A training fingerprint is a content hash computed over the training data sent to the NLU engine (i.e. the mapped
+ * intents and entities). Providers compare the fingerprint of their current training data with the one of the last
+ * successful training, and skip the training if they match. This allows to restart a bot without re-training its
+ * agent if its intents and entities haven't changed.
+ * <p>
+ * Fingerprints are stored in the {@code <xatkit.data.directory>/training} folder. Providers that can store metadata
+ * in their agent should also store the fingerprint there, in order to detect agents updated by another bot instance.
+ * <p>
+ * Training fingerprints can be disabled by setting the {@link #ENABLE_TRAINING_FINGERPRINT_KEY} property to {@code
+ * false} in the Xatkit {@link Configuration}.
+ */
+public class TrainingFingerprint {
+
+    /**
+     * The {@link Configuration} key to specify whether to skip trainings when the training data hasn't changed.
+     * <p>
+     * This property is optional, and is set to {@code true} by default.
+     */
+    public static final String ENABLE_TRAINING_FINGERPRINT_KEY = "xatkit.recognition.training.fingerprint";
+
+    /**
+     * The directory used to store training fingerprints within the specified {@code data} directory.
+     * <p>
+     * This value cannot be changed in the Xatkit {@link Configuration}.
+     */
+    static final String TRAINING_DIRECTORY = "training";
+
+    /**
+     * The extension of the files storing the fingerprints.
+     */
+    private static final String FINGERPRINT_FILE_EXTENSION = ".fingerprint";
+
+    /**
+     * The {@link File} storing the fingerprint.
+     */
+    private File file;
+
+    /**
+     * A flag indicating whether training fingerprints are enabled.
+     *
+     * @see #ENABLE_TRAINING_FINGERPRINT_KEY
+     */
+    private boolean enabled;
+
+    /**
+     * Constructs a {@link TrainingFingerprint} for the agent with the provided {@code agentName}.
+     *
+     * @param configuration the Xatkit {@link Configuration}
+     * @param agentName     the name of the trained agent (e.g. {@code dialogflow-myProject})
+     * @throws NullPointerException if the provided {@code configuration} or {@code agentName} is {@code null}
+     */
+    public TrainingFingerprint(@NonNull Configuration configuration, @NonNull String agentName) {
+        this.enabled = configuration.getBoolean(ENABLE_TRAINING_FINGERPRINT_KEY, true);
+        String dataDirectoryPath = configuration.getString(DATA_DIRECTORY_KEY, DEFAULT_DATA_DIRECTORY);
+        File trainingDirectory = FileUtils.getFile(dataDirectoryPath + File.separator + TRAINING_DIRECTORY,
+                configuration);
+        this.file = new File(trainingDirectory, agentName.replaceAll("[^a-zA-Z0-9._-]", "_")
+                + FINGERPRINT_FILE_EXTENSION);
+    }
+
+    /**
+     * Computes the fingerprint of the provided {@code trainingData}.
+     * <p>
+     * The provided {@code trainingData} must be a deterministic serialization of the data sent to the NLU engine
+     * (e.g. elements must be sorted by name).
+     *
+     * @param trainingData the serialized training data
+     * @return the hexadecimal SHA-256 hash of the provided {@code trainingData}
+     * @throws NullPointerException if the provided {@code trainingData} is {@code null}
+     */
+    public static String compute(@NonNull String trainingData) {
+        return compute(trainingData.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Computes the fingerprint of the provided {@code trainingData}.
+     *
+     * @param trainingData the serialized training data
+     * @return the hexadecimal SHA-256 hash of the provided {@code trainingData}
+     * @throws NullPointerException if the provided {@code trainingData} is {@code null}
+     */
+    public static String compute(@NonNull byte[] trainingData) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            /*
+             * Should not happen, SHA-256 is available in all the Java platforms.
+             */
+            throw new IllegalStateException(e);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest(trainingData)) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns whether training fingerprints are enabled.
+     *
+     * @return {@code true} if training fingerprints are enabled, {@code false} otherwise
+     * @see #ENABLE_TRAINING_FINGERPRINT_KEY
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Loads the fingerprint of the last successful training.
+     *
+     * @return the stored fingerprint, or {@code null} if there is no stored fingerprint or if training fingerprints
+     * are disabled
+     */
+    public @Nullable String load() {
+        if (!enabled || !file.exists()) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            Log.warn("Cannot read the training fingerprint file {0}: {1}", file.getAbsolutePath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the provided {@code fingerprint} as the fingerprint of the last successful training.
+     * <p>
+     * This method does nothing if training fingerprints are disabled.
+     *
+     * @param fingerprint the fingerprint to store
+     * @throws NullPointerException if the provided {@code fingerprint} is {@code null}
+     */
+    public void store(@NonNull String fingerprint) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            file.getParentFile().mkdirs();
+            Files.write(file.toPath(), fingerprint.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.warn("Cannot store the training fingerprint in {0}: {1}", file.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the stored fingerprint.
+     * <p>
+     * This method must be called when the trained agent is modified without being re-trained (e.g. when it is
+     * cleaned).
+     */
+    public void clear() {
+        if (file.exists() && !file.delete()) {
+            Log.warn("Cannot delete the training fingerprint file {0}", file.getAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.xatkit.core.recognition.dialogflow;
+
+import com.google.api.gax.longrunning.OperationFuture;
+import com.google.cloud.dialogflow.v2.BatchUpdateEntityTypesRequest;
+import com.google.cloud.dialogflow.v2.BatchUpdateEntityTypesResponse;
+import com.google.cloud.dialogflow.v2.BatchUpdateIntentsRequest;
+import com.google.cloud.dialogflow.v2.BatchUpdateIntentsResponse;
+import com.google.cloud.dialogflow.v2.EntityType;
+import com.google.cloud.dialogflow.v2.EntityTypeBatch;
+import com.google.cloud.dialogflow.v2.Intent;
+import com.google.cloud.dialogflow.v2.IntentBatch;
+import com.google.cloud.dialogflow.v2.IntentView;
+import com.google.cloud.dialogflow.v2.ProjectAgentName;
+import com.google.protobuf.Empty;
+import com.google.protobuf.Struct;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static com.xatkit.core.recognition.IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Synchronizes the content of a DialogFlow agent with a set of expected {@link Intent}s and {@link EntityType}s.
+ * <p>
+ * This class compares the expected {@link Intent}s and {@link EntityType}s with the ones registered in the agent,
+ * and only sends the differences to DialogFlow using the batch update/delete APIs. Independent requests are
+ * executed concurrently (e.g. entity updates and intent deletions), while dependent ones are executed in sequence
+ * (e.g. {@link EntityType}s are updated before the {@link Intent}s referring to them).
+ * <p>
+ * The comparison relies on the fields set by the Xatkit mappers (display name, training phrases, contexts,
+ * parameters, entities), and ignores the fields computed by DialogFlow (resource names, identifiers, etc).
+ *
+ * @see DialogFlowConfiguration#ENABLE_BATCH_SYNC_KEY
+ */
+public class DialogFlowAgentSynchronizer {
+
+    /**
+     * The clients used to access the DialogFlow API.
+     */
+    private DialogFlowClients dialogFlowClients;
+
+    /**
+     * The name of the DialogFlow agent to synchronize.
+     */
+    private ProjectAgentName projectAgentName;
+
+    /**
+     * Constructs a {@link DialogFlowAgentSynchronizer} with the provided {@code dialogFlowClients} and {@code
+     * projectAgentName}.
+     *
+     * @param dialogFlowClients the clients used to access the DialogFlow API
+     * @param projectAgentName  the name of the DialogFlow agent to synchronize
+     * @throws NullPointerException if the provided {@code dialogFlowClients} or {@code projectAgentName} is {@code
+     *                              null}
+     */
+    public DialogFlowAgentSynchronizer(@NonNull DialogFlowClients dialogFlowClients,
+                                       @NonNull ProjectAgentName projectAgentName) {
+        this.dialogFlowClients = dialogFlowClients;
+        this.projectAgentName = projectAgentName;
+    }
+
+    /**
+     * Synchronizes the DialogFlow agent with the provided {@code expectedIntents} and {@code expectedEntityTypes}.
+     * <p>
+     * The provided {@code registeredIntents} and {@code registeredEntityTypes} must contain the <b>full</b>
+     * description of the elements currently stored in the agent (see {@link IntentView#INTENT_VIEW_FULL}), indexed
+     * by display name. These maps are updated with the results returned by DialogFlow once the synchronization is
+     * completed.
+     * <p>
+     * The {@link Intent}s and {@link EntityType}s that are registered in the agent but not expected are deleted iff
+     * {@code deleteUnexpected} is {@code true}. The default fallback intent is never deleted.
+     *
+     * @param expectedIntents       the {@link Intent}s expected in the agent
+     * @param expectedEntityTypes   the {@link EntityType}s expected in the agent
+     * @param registeredIntents     the {@link Intent}s currently registered in the agent
+     * @param registeredEntityTypes the {@link EntityType}s currently registered in the agent
+     * @param deleteUnexpected      whether to delete the registered elements that are not expected
+     * @return {@code true} if the agent has been updated, {@code false} if it was already synchronized
+     * @throws NullPointerException               if one of the provided parameters is {@code null}
+     * @throws IntentRecognitionProviderException if an error occurred when synchronizing the agent
+     */
+    public boolean synchronize(@NonNull Collection<Intent> expectedIntents,
+                            @NonNull Collection<EntityType> expectedEntityTypes,
+                            @NonNull Map<String, Intent> registeredIntents,
+                            @NonNull Map<String, EntityType> registeredEntityTypes,
+                            boolean deleteUnexpected) throws IntentRecognitionProviderException {
+        long start = System.currentTimeMillis();
+        List<EntityType> entityTypesToUpdate = computeEntityTypesToUpdate(expectedEntityTypes,
+                registeredEntityTypes);
+        List<Intent> intentsToUpdate = computeIntentsToUpdate(expectedIntents, registeredIntents);
+        List<EntityType> entityTypesToDelete = deleteUnexpected ? computeEntityTypesToDelete(expectedEntityTypes,
+                registeredEntityTypes) : new ArrayList<>();
+        List<Intent> intentsToDelete = deleteUnexpected ? computeIntentsToDelete(expectedIntents,
+                registeredIntents) : new ArrayList<>();
+        Log.info("Synchronizing DialogFlow agent: {0} entity type(s) to create/update, {1} intent(s) to " +
+                        "create/update, {2} entity type(s) to delete, {3} intent(s) to delete",
+                entityTypesToUpdate.size(), intentsToUpdate.size(), entityTypesToDelete.size(),
+                intentsToDelete.size());
+        if (entityTypesToUpdate.isEmpty() && intentsToUpdate.isEmpty() && entityTypesToDelete.isEmpty()
+                && intentsToDelete.isEmpty()) {
+            return false;
+        }
+        /*
+         * Composite entities may refer to other entities of the batch, we update them once the other ones have been
+         * created.
+         */
+        List<EntityType> mapEntityTypesToUpdate = entityTypesToUpdate.stream()
+                .filter(e -> !e.getKind().equals(EntityType.Kind.KIND_LIST))
+                .collect(Collectors.toList());
+        List<EntityType> listEntityTypesToUpdate = entityTypesToUpdate.stream()
+                .filter(e -> e.getKind().equals(EntityType.Kind.KIND_LIST))
+                .collect(Collectors.toList());
+        /*
+         * Entity updates and intent deletions are independent, we run them concurrently.
+         */
+        OperationFuture<BatchUpdateEntityTypesResponse, Struct> entityUpdateFuture =
+                batchUpdateEntityTypes(mapEntityTypesToUpdate);
+        OperationFuture<Empty, Struct> intentDeleteFuture = batchDeleteIntents(intentsToDelete);
+        storeEntityTypes(await(entityUpdateFuture), registeredEntityTypes);
+        storeEntityTypes(await(batchUpdateEntityTypes(listEntityTypesToUpdate)), registeredEntityTypes);
+        /*
+         * Intents can be updated once their entities have been created.
+         */
+        OperationFuture<BatchUpdateIntentsResponse, Struct> intentUpdateFuture = batchUpdateIntents(intentsToUpdate);
+        await(intentDeleteFuture);
+        intentsToDelete.forEach(intent -> registeredIntents.remove(intent.getDisplayName()));
+        BatchUpdateIntentsResponse intentUpdateResponse = await(intentUpdateFuture);
+        if (nonNull(intentUpdateResponse)) {
+            intentUpdateResponse.getIntentsList().forEach(intent -> registeredIntents.put(intent.getDisplayName(),
+                    intent));
+        }
+        /*
+         * Entities can be deleted once the intents referring to them have been updated or deleted.
+         */
+        await(batchDeleteEntityTypes(entityTypesToDelete));
+        entityTypesToDelete.forEach(entityType -> registeredEntityTypes.remove(entityType.getDisplayName()));
+        Log.info("DialogFlow agent synchronized in {0}ms", System.currentTimeMillis() - start);
+        return true;
+    }
+
+    /**
+     * Deletes all the {@link Intent}s (except the default fallback intent) and {@link EntityType}s of the agent.
+     * <p>
+     * This method uses batch requests to delete the agent's content.
+     *
+     * @param registeredIntents     the {@link Intent}s registered in the agent
+     * @param registeredEntityTypes the {@link EntityType}s registered in the agent
+     * @throws NullPointerException               if the provided {@code registeredIntents} or {@code
+     *                                            registeredEntityTypes} is {@code null}
+     * @throws IntentRecognitionProviderException if an error occurred when deleting the agent's content
+     */
+    public void clean(@NonNull Collection<Intent> registeredIntents,
+                      @NonNull Collection<EntityType> registeredEntityTypes) throws IntentRecognitionProviderException {
+        List<Intent> intentsToDelete = registeredIntents.stream()
+                .filter(intent -> !intent.getDisplayName().equals(DEFAULT_FALLBACK_INTENT.getName()))
+                .collect(Collectors.toList());
+        /*
+         * Entities cannot be deleted while they are referred by an intent.
+         */
+        await(batchDeleteIntents(intentsToDelete));
+        await(batchDeleteEntityTypes(new ArrayList<>(registeredEntityTypes)));
+    }
+
+    /**
+     * Computes the {@link EntityType}s to create or update in the agent.
+     * <p>
+     * The returned {@link EntityType}s that already exist in the agent are set with the resource name of the
+     * registered {@link EntityType}, meaning that they will be updated by the batch request. Other {@link EntityType}s
+     * don't have a name and will be created.
+     *
+     * @param expectedEntityTypes   the {@link EntityType}s expected in the agent
+     * @param registeredEntityTypes the {@link EntityType}s registered in the agent, indexed by display name
+     * @return the {@link EntityType}s to create or update
+     */
+    static List<EntityType> computeEntityTypesToUpdate(@NonNull Collection<EntityType> expectedEntityTypes,
+                                                       @NonNull Map<String, EntityType> registeredEntityTypes) {
+        List<EntityType> result = new ArrayList<>();
+        for (EntityType expected : expectedEntityTypes) {
+            EntityType registered = registeredEntityTypes.get(expected.getDisplayName());
+            if (isNull(registered)) {
+                result.add(expected);
+            } else if (!normalize(expected).equals(normalize(registered))) {
+                result.add(expected.toBuilder().setName(registered.getName()).build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the registered {@link EntityType}s that are not expected in the agent.
+     *
+     * @param expectedEntityTypes   the {@link EntityType}s expected in the agent
+     * @param registeredEntityTypes the {@link EntityType}s registered in the agent, indexed by display name
+     * @return the {@link EntityType}s to delete
+     */
+    static List<EntityType> computeEntityTypesToDelete(@NonNull Collection<EntityType> expectedEntityTypes,
+                                                       @NonNull Map<String, EntityType> registeredEntityTypes) {
+        List<String> expectedNames = expectedEntityTypes.stream().map(EntityType::getDisplayName)
+                .collect(Collectors.toList());
+        return registeredEntityTypes.values().stream()
+                .filter(entityType -> !expectedNames.contains(entityType.getDisplayName()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Computes the {@link Intent}s to create or update in the agent.
+     * <p>
+     * The returned {@link Intent}s that already exist in the agent are set with the resource name of the registered
+     * {@link Intent}, meaning that they will be updated by the batch request. Other {@link Intent}s don't have a name
+     * and will be created.
+     *
+     * @param expectedIntents   the {@link Intent}s expected in the agent
+     * @param registeredIntents the {@link Intent}s registered in the agent, indexed by display name
+     * @return the {@link Intent}s to create or update
+     */
+    static List<Intent> computeIntentsToUpdate(@NonNull Collection<Intent> expectedIntents,
+                                               @NonNull Map<String, Intent> registeredIntents) {
+        List<Intent> result = new ArrayList<>();
+        for (Intent expected : expectedIntents) {
+            Intent registered = registeredIntents.get(expected.getDisplayName());
+            if (isNull(registered)) {
+                result.add(expected);
+            } else if (!normalize(expected).equals(normalize(registered))) {
+                result.add(expected.toBuilder().setName(registered.getName()).build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the registered {@link Intent}s that are not expected in the agent.
+     * <p>
+     * The returned list never contains the default fallback intent.
+     *
+     * @param expectedIntents   the {@link Intent}s expected in the agent
+     * @param registeredIntents the {@link Intent}s registered in the agent, indexed by display name
+     * @return the {@link Intent}s to delete
+     */
+    static List<Intent> computeIntentsToDelete(@NonNull Collection<Intent> expectedIntents,
+                                               @NonNull Map<String, Intent> registeredIntents) {
+        List<String> expectedNames = expectedIntents.stream().map(Intent::getDisplayName)
+                .collect(Collectors.toList());
+        return registeredIntents.values().stream()
+                .filter(intent -> !intent.getDisplayName().equals(DEFAULT_FALLBACK_INTENT.getName()))
+                .filter(intent -> !expectedNames.contains(intent.getDisplayName()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a copy of the provided {@code entityType} containing only the fields set by the Xatkit mappers.
+     *
+     * @param entityType the {@link EntityType} to normalize
+     * @return the normalized {@link EntityType}
+     */
+    private static EntityType normalize(EntityType entityType) {
+        return EntityType.newBuilder()
+                .setDisplayName(entityType.getDisplayName())
+                .setKind(entityType.getKind())
+                .addAllEntities(entityType.getEntitiesList())
+                .build();
+    }
+
+    /**
+     * Returns a copy of the provided {@code intent} containing only the fields set by the Xatkit mappers.
+     * <p>
+     * Context names are reduced to their last segment: DialogFlow replaces the session used to create them with a
+     * wildcard.
+     *
+     * @param intent the {@link Intent} to normalize
+     * @return the normalized {@link Intent}
+     */
+    private static Intent normalize(Intent intent) {
+        Intent.Builder builder = Intent.newBuilder().setDisplayName(intent.getDisplayName());
+        for (Intent.TrainingPhrase trainingPhrase : intent.getTrainingPhrasesList()) {
+            Intent.TrainingPhrase.Builder trainingPhraseBuilder = Intent.TrainingPhrase.newBuilder();
+            for (Intent.TrainingPhrase.Part part : trainingPhrase.getPartsList()) {
+                trainingPhraseBuilder.addParts(Intent.TrainingPhrase.Part.newBuilder()
+                        .setText(part.getText())
+                        .setEntityType(part.getEntityType())
+                        .setAlias(part.getAlias()));
+            }
+            builder.addTrainingPhrases(trainingPhraseBuilder);
+        }
+        intent.getInputContextNamesList().forEach(name -> builder.addInputContextNames(getContextId(name)));
+        intent.getOutputContextsList().forEach(context -> builder.addOutputContexts(context.toBuilder()
+                .setName(getContextId(context.getName()))));
+        for (Intent.Parameter parameter : intent.getParametersList()) {
+            builder.addParameters(Intent.Parameter.newBuilder()
+                    .setDisplayName(parameter.getDisplayName())
+                    .setEntityTypeDisplayName(parameter.getEntityTypeDisplayName())
+                    .setValue(parameter.getValue()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the identifier of the context with the provided {@code contextName}.
+     *
+     * @param contextName the full name of the context
+     * @return the identifier of the context (i.e. the last segment of its name)
+     */
+    private static String getContextId(String contextName) {
+        return contextName.substring(contextName.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Creates or updates the provided {@code entityTypes} with a single batch request.
+     *
+     * @param entityTypes the {@link EntityType}s to create or update
+     * @return the {@link OperationFuture} of the batch request, or {@code null} if there is nothing to update
+     */
+    private OperationFuture<BatchUpdateEntityTypesResponse, Struct> batchUpdateEntityTypes(List<EntityType> entityTypes) {
+        if (entityTypes.isEmpty()) {
+            return null;
+        }
+        BatchUpdateEntityTypesRequest request = BatchUpdateEntityTypesRequest.newBuilder()
+                .setParent(projectAgentName.toString())
+                .setEntityTypeBatchInline(EntityTypeBatch.newBuilder().addAllEntityTypes(entityTypes))
+                .build();
+        return dialogFlowClients.getEntityTypesClient().batchUpdateEntityTypesAsync(request);
+    }
+
+    /**
+     * Deletes the provided {@code entityTypes} with a single batch request.
+     *
+     * @param entityTypes the {@link EntityType}s to delete
+     * @return the {@link OperationFuture} of the batch request, or {@code null} if there is nothing to delete
+     */
+    private OperationFuture<Empty, Struct> batchDeleteEntityTypes(List<EntityType> entityTypes) {
+        if (entityTypes.isEmpty()) {
+            return null;
+        }
+        List<String> names = entityTypes.stream().map(EntityType::getName).collect(Collectors.toList());
+        return dialogFlowClients.getEntityTypesClient().batchDeleteEntityTypesAsync(projectAgentName, names);
+    }
+
+    /**
+     * Creates or updates the provided {@code intents} with a single batch request.
+     *
+     * @param intents the {@link Intent}s to create or update
+     * @return the {@link OperationFuture} of the batch request, or {@code null} if there is nothing to update
+     */
+    private OperationFuture<BatchUpdateIntentsResponse, Struct> batchUpdateIntents(List<Intent> intents) {
+        if (intents.isEmpty()) {
+            return null;
+        }
+        BatchUpdateIntentsRequest request = BatchUpdateIntentsRequest.newBuilder()
+                .setParent(projectAgentName.toString())
+                .setIntentBatchInline(IntentBatch.newBuilder().addAllIntents(intents))
+                .setIntentView(IntentView.INTENT_VIEW_FULL)
+                .build();
+        return dialogFlowClients.getIntentsClient().batchUpdateIntentsAsync(request);
+    }
+
+    /**
+     * Deletes the provided {@code intents} with a single batch request.
+     *
+     * @param intents the {@link Intent}s to delete
+     * @return the {@link OperationFuture} of the batch request, or {@code null} if there is nothing to delete
+     */
+    private OperationFuture<Empty, Struct> batchDeleteIntents(List<Intent> intents) {
+        if (intents.isEmpty()) {
+            return null;
+        }
+        return dialogFlowClients.getIntentsClient().batchDeleteIntentsAsync(projectAgentName, intents);
+    }
+
+    /**
+     * Stores the {@link EntityType}s returned by DialogFlow in the provided {@code registeredEntityTypes}.
+     *
+     * @param response              the response of the batch update request
+     * @param registeredEntityTypes the {@link Map} to store the {@link EntityType}s in
+     */
+    private static void storeEntityTypes(BatchUpdateEntityTypesResponse response,
+                                         Map<String, EntityType> registeredEntityTypes) {
+        if (nonNull(response)) {
+            response.getEntityTypesList().forEach(entityType ->
+                    registeredEntityTypes.put(entityType.getDisplayName(), entityType));
+        }
+    }
+
+    /**
+     * Waits for the completion of the provided {@code future}.
+     *
+     * @param future the {@link Future} to wait for
+     * @param <T>    the type of the {@link Future}'s result
+     * @return the result of the {@link Future}, or {@code null} if the provided {@code future} is {@code null}
+     * @throws IntentRecognitionProviderException if an error occurred while computing the {@link Future}'s result
+     */
+    private static <T> T await(Future<T> future) throws IntentRecognitionProviderException {
+        if (isNull(future)) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IntentRecognitionProviderException(MessageFormat.format("An error occurred when synchronizing" +
+                    " the DialogFlow agent: {0}", e.getMessage()), e);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.xatkit.core.recognition.dialogflow;
 
+import com.google.api.gax.rpc.ApiException;
 import com.google.api.gax.rpc.FailedPreconditionException;
 import com.google.api.gax.rpc.InvalidArgumentException;
+import com.google.cloud.dialogflow.v2.Agent;
 import com.google.cloud.dialogflow.v2.Context;
+import com.google.cloud.dialogflow.v2.ContextName;
 import com.google.cloud.dialogflow.v2.DetectIntentRequest;
 import com.google.cloud.dialogflow.v2.DetectIntentResponse;
 import com.google.cloud.dialogflow.v2.EntityType;
 import com.google.cloud.dialogflow.v2.Intent;
+import com.google.cloud.dialogflow.v2.IntentView;
+import com.google.cloud.dialogflow.v2.ListIntentsRequest;
 import com.google.cloud.dialogflow.v2.ProjectAgentName;
 import com.google.cloud.dialogflow.v2.ProjectName;
 import com.google.cloud.dialogflow.v2.QueryInput;
@@ -19,7 +24,9 @@ import com.xatkit.core.EventDefinitionRegistry;
 import com.xatkit.core.XatkitException;
 import com.xatkit.core.recognition.AbstractIntentRecognitionProvider;
 import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.core.recognition.ReadinessPoller;
 import com.xatkit.core.recognition.RecognitionMonitor;
+import com.xatkit.core.recognition.TrainingFingerprint;
 import com.xatkit.core.recognition.dialogflow.mapper.DialogFlowContextMapper;
 import com.xatkit.core.recognition.dialogflow.mapper.DialogFlowEntityMapper;
 import com.xatkit.core.recognition.dialogflow.mapper.DialogFlowEntityReferenceMapper;
@@ -38,13 +45,23 @@ import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
 
 import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 import static fr.inria.atlanmod.commons.Preconditions.checkNotNull;
@@ -60,6 +77,17 @@ import static java.util.Objects.nonNull;
  */
 public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecognitionProvider {
 
+    /**
+     * The tag used to store the {@link TrainingFingerprint} in the description of the DialogFlow agent.
+     */
+    private static final String FINGERPRINT_TAG = "[xatkit-training-fingerprint:{0}]";
+
+    /**
+     * The {@link Pattern} used to retrieve the {@link TrainingFingerprint} from the description of the DialogFlow
+     * agent.
+     */
+    private static final Pattern FINGERPRINT_PATTERN = Pattern.compile("\\[xatkit-training-fingerprint:([0-9a-f]+)]");
+
     /**
      * The {@link DialogFlowConfiguration} extracted from the provided {@link Configuration}.
      */
@@ -105,6 +133,67 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
      */
     private Map<String, EntityType> registeredEntityTypes;
 
+    /**
+     * The DialogFlow {@link Intent}s mapped from the registered {@link IntentDefinition}s, indexed by name.
+     * <p>
+     * This map is used to compute the {@link TrainingFingerprint} of the agent. When batch synchronization is
+     * enabled the {@link Intent}s stored in this map are sent to DialogFlow when the agent is trained.
+     *
+     * @see DialogFlowConfiguration#ENABLE_BATCH_SYNC_KEY
+     * @see #trainMLEngine()
+     */
+    private Map<String, Intent> mappedIntents = new LinkedHashMap<>();
+
+    /**
+     * The names of the deleted {@link IntentDefinition}s that have not been deleted from the agent yet.
+     * <p>
+     * When batch synchronization is enabled the deletions are applied when the agent is trained: the deployed
+     * intents can be matched until the new version of the agent is trained (e.g. when reloading the model of a
+     * running bot).
+     *
+     * @see #deleteIntentDefinition(IntentDefinition)
+     * @see #synchronizeAgent()
+     */
+    private final Set<String> pendingIntentDeletions = new LinkedHashSet<>();
+
+    /**
+     * The DialogFlow {@link EntityType}s mapped from the registered {@link EntityDefinition}s, indexed by name.
+     * <p>
+     * This map is used to compute the {@link TrainingFingerprint} of the agent. When batch synchronization is
+     * enabled the {@link EntityType}s stored in this map are sent to DialogFlow when the agent is trained.
+     *
+     * @see DialogFlowConfiguration#ENABLE_BATCH_SYNC_KEY
+     * @see #trainMLEngine()
+     */
+    private Map<String, EntityType> mappedEntityTypes = new LinkedHashMap<>();
+
+    /**
+     * The {@link DialogFlowAgentSynchronizer} used to apply batch updates to the DialogFlow agent.
+     */
+    private DialogFlowAgentSynchronizer agentSynchronizer;
+
+    /**
+     * A flag indicating whether the content of the agent has been updated since its last training.
+     * <p>
+     * The agent is always trained if this flag is {@code true}, even if its {@link TrainingFingerprint} matches the
+     * registered intents and entities.
+     *
+     * @see #trainMLEngine()
+     */
+    private boolean agentUpdated = false;
+
+    /**
+     * The fingerprint of the data used to train the DialogFlow agent.
+     *
+     * @see #trainMLEngine()
+     */
+    private TrainingFingerprint trainingFingerprint;
+
+    /**
+     * The {@link ReadinessPoller} used to wait for the DialogFlow agent to be ready once it has been trained.
+     */
+    private ReadinessPoller readinessPoller;
+
     /**
      * The {@link RecognitionMonitor} used to track intent matching information.
      */
@@ -159,6 +248,7 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
                                                @Nullable RecognitionMonitor recognitionMonitor) {
         Log.info("Starting DialogFlow Client");
         this.configuration = new DialogFlowConfiguration(configuration);
+        this.setSharedContextConfiguration(configuration);
         this.projectAgentName = ProjectAgentName.of(this.configuration.getProjectId());
         try {
             this.dialogFlowClients = new DialogFlowClients(this.configuration);
@@ -173,10 +263,22 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
         this.dialogFlowEntityMapper = new DialogFlowEntityMapper(this.dialogFlowEntityReferenceMapper);
         this.dialogFlowContextMapper = new DialogFlowContextMapper(this.configuration);
         this.recognizedIntentMapper = new RecognizedIntentMapper(this.configuration, eventRegistry);
+        this.agentSynchronizer = new DialogFlowAgentSynchronizer(this.dialogFlowClients, this.projectAgentName);
+        this.trainingFingerprint = new TrainingFingerprint(configuration,
+                "dialogflow-" + this.configuration.getProjectId());
+        this.readinessPoller = new ReadinessPoller(configuration);
         try {
-            this.cleanAgent();
-            this.importRegisteredIntents();
-            this.importRegisteredEntities();
+            if (this.configuration.isEnableBatchSync()) {
+                /*
+                 * No need to clean the agent, the synchronization will delete the elements that are not
+                 * registered by the bot.
+                 */
+                this.importAgentForSynchronization();
+            } else {
+                this.cleanAgent();
+                this.importRegisteredIntents();
+                this.importRegisteredEntities();
+            }
         } catch (IntentRecognitionProviderException e) {
             throw new XatkitException(MessageFormat.format("Cannot start the {0}, see attached exception",
                     this.getClass().getSimpleName()), e);
@@ -196,17 +298,63 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
     private void cleanAgent() throws IntentRecognitionProviderException {
         if (this.configuration.isCleanAgentOnStartup()) {
             Log.info("Cleaning agent DialogFlow agent");
-            List<Intent> registeredIntents = getRegisteredIntents();
-            for (Intent intent : registeredIntents) {
-                if (!intent.getDisplayName().equals(DEFAULT_FALLBACK_INTENT.getName())) {
-                    this.dialogFlowClients.getIntentsClient().deleteIntent(intent.getName());
-                }
-            }
-            List<EntityType> registeredEntityTypes = getRegisteredEntityTypes();
-            for (EntityType entityType : registeredEntityTypes) {
-                this.dialogFlowClients.getEntityTypesClient().deleteEntityType(entityType.getName());
+            this.agentSynchronizer.clean(getRegisteredIntents(), getRegisteredEntityTypes());
+            this.agentUpdated = true;
+        }
+    }
+
+    /**
+     * Imports the full description of the intents and entities registered in the DialogFlow project.
+     * <p>
+     * This method is called when batch synchronization is enabled, and loads the agent content regardless of the
+     * {@link DialogFlowConfiguration#ENABLE_INTENT_LOADING_KEY} and
+     * {@link DialogFlowConfiguration#ENABLE_ENTITY_LOADING_KEY} properties: the synchronization needs it to compute
+     * the changes to apply.
+     *
+     * @throws IntentRecognitionProviderException if an error occurred when accessing the intent provider
+     * @see #synchronizeAgent()
+     */
+    private void importAgentForSynchronization() throws IntentRecognitionProviderException {
+        Log.info("Loading the content of the DialogFlow project {0} for batch synchronization",
+                projectName.getProject());
+        this.registeredIntents = new HashMap<>();
+        for (Intent intent : getRegisteredIntents(IntentView.INTENT_VIEW_FULL)) {
+            registeredIntents.put(intent.getDisplayName(), intent);
+        }
+        this.registeredEntityTypes = new HashMap<>();
+        for (EntityType entityType : getRegisteredEntityTypes()) {
+            registeredEntityTypes.put(entityType.getDisplayName(), entityType);
+        }
+    }
+
+    /**
+     * Sends the registered {@link Intent}s and {@link EntityType}s to the DialogFlow agent.
+     * <p>
+     * This method only sends the differences between the registered elements and the content of the agent, using
+     * batch requests. Elements of the agent that haven't been registered are deleted if
+     * {@link DialogFlowConfiguration#CLEAN_AGENT_ON_STARTUP_KEY} is enabled, and the intents deleted since the last
+     * synchronization are removed from the agent.
+     *
+     * @throws IntentRecognitionProviderException if an error occurred when synchronizing the agent
+     * @see DialogFlowAgentSynchronizer
+     */
+    private void synchronizeAgent() throws IntentRecognitionProviderException {
+        boolean updated = this.agentSynchronizer.synchronize(this.mappedIntents.values(),
+                this.mappedEntityTypes.values(), this.registeredIntents, this.registeredEntityTypes,
+                this.configuration.isCleanAgentOnStartup());
+        for (String intentName : this.pendingIntentDeletions) {
+            Intent intent = this.registeredIntents.remove(intentName);
+            if (nonNull(intent)) {
+                this.dialogFlowClients.getIntentsClient().deleteIntent(intent.getName());
+                Log.debug("{0} {1} successfully deleted", Intent.class.getSimpleName(), intentName);
+                updated = true;
             }
         }
+        this.pendingIntentDeletions.clear();
+        if (updated) {
+            this.agentUpdated = true;
+            this.invalidateRecognitionCache();
+        }
     }
 
     /**
@@ -289,9 +437,25 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
      * @throws IntentRecognitionProviderException if an error occurred when accessing the intent provider
      */
     private List<Intent> getRegisteredIntents() throws IntentRecognitionProviderException {
+        return getRegisteredIntents(IntentView.INTENT_VIEW_UNSPECIFIED);
+    }
+
+    /**
+     * Returns the description of the {@link Intent}s that are registered in the DialogFlow project with the
+     * provided {@code intentView}.
+     *
+     * @param intentView the {@link IntentView} defining the level of details of the returned {@link Intent}s
+     * @return the descriptions of the {@link Intent}s that are registered in the DialogFlow project
+     * @throws IntentRecognitionProviderException if an error occurred when accessing the intent provider
+     */
+    private List<Intent> getRegisteredIntents(IntentView intentView) throws IntentRecognitionProviderException {
         checkNotShutdown();
+        ListIntentsRequest request = ListIntentsRequest.newBuilder()
+                .setParent(projectAgentName.toString())
+                .setIntentView(intentView)
+                .build();
         List<Intent> registeredIntents = new ArrayList<>();
-        for (Intent intent : this.dialogFlowClients.getIntentsClient().listIntents(projectAgentName).iterateAll()) {
+        for (Intent intent : this.dialogFlowClients.getIntentsClient().listIntents(request).iterateAll()) {
             registeredIntents.add(intent);
         }
         return registeredIntents;
@@ -314,13 +478,23 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
                     BaseEntityDefinition.class.getSimpleName(), baseEntityDefinition.getEntityType().getLiteral());
         } else if (entityDefinition instanceof CustomEntityDefinition) {
             Log.debug("Registering {0} {1}", CustomEntityDefinition.class.getSimpleName(), entityDefinition.getName());
-            EntityType entityType = this.registeredEntityTypes.get(entityDefinition.getName());
-            if (isNull(entityType)) {
-                if (entityDefinition instanceof CompositeEntityDefinition) {
-                    this.registerReferencedEntityDefinitions((CompositeEntityDefinition) entityDefinition);
-                }
-                entityType =
-                        dialogFlowEntityMapper.mapEntityDefinition(entityDefinition);
+            if (this.mappedEntityTypes.containsKey(entityDefinition.getName())) {
+                Log.debug("{0} {1} is already registered", EntityType.class.getSimpleName(),
+                        entityDefinition.getName());
+                return;
+            }
+            if (entityDefinition instanceof CompositeEntityDefinition) {
+                this.registerReferencedEntityDefinitions((CompositeEntityDefinition) entityDefinition);
+            }
+            EntityType entityType = dialogFlowEntityMapper.mapEntityDefinition(entityDefinition);
+            this.mappedEntityTypes.put(entityDefinition.getName(), entityType);
+            if (this.configuration.isEnableBatchSync()) {
+                /*
+                 * The entity type will be sent to DialogFlow when training the agent.
+                 */
+                return;
+            }
+            if (isNull(this.registeredEntityTypes.get(entityDefinition.getName()))) {
                 try {
                     /*
                      * Store the EntityType returned by the DialogFlow API: some fields such as the name are
@@ -330,6 +504,8 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
                             this.dialogFlowClients.getEntityTypesClient().createEntityType(projectAgentName,
                                     entityType);
                     this.registeredEntityTypes.put(entityDefinition.getName(), createdEntityType);
+                    this.agentUpdated = true;
+                    this.invalidateRecognitionCache();
                 } catch (FailedPreconditionException e) {
                     throw new IntentRecognitionProviderException(MessageFormat.format("Cannot register the entity " +
                             "{0}, the entity already exists", entityDefinition), e);
@@ -392,15 +568,29 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
         checkNotShutdown();
         checkNotNull(intentDefinition.getName(), "Cannot register the %s with the provided name %s",
                 IntentDefinition.class.getSimpleName());
+        Intent intent = dialogFlowIntentMapper.mapIntentDefinition(intentDefinition);
+        if (this.configuration.isEnableBatchSync()) {
+            Log.debug("Adding DialogFlow intent {0} to the batch synchronization", intent.getDisplayName());
+            this.mappedIntents.put(intentDefinition.getName(), intent);
+            /*
+             * The intent is updated in place by the synchronization (e.g. re-registered after a deletion when
+             * reloading the model).
+             */
+            this.pendingIntentDeletions.remove(intentDefinition.getName());
+            return;
+        }
         if (this.registeredIntents.containsKey(intentDefinition.getName())) {
+            this.mappedIntents.put(intentDefinition.getName(), intent);
             throw new IntentRecognitionProviderException(MessageFormat.format("Intent {0} already exists in the agent" +
                     " and will not be updated", intentDefinition.getName()));
         }
         Log.debug("Registering DialogFlow intent {0}", intentDefinition.getName());
-        Intent intent = dialogFlowIntentMapper.mapIntentDefinition(intentDefinition);
+        this.mappedIntents.put(intentDefinition.getName(), intent);
         try {
             Intent response = this.dialogFlowClients.getIntentsClient().createIntent(projectAgentName, intent);
             registeredIntents.put(response.getDisplayName(), response);
+            this.agentUpdated = true;
+            this.invalidateRecognitionCache();
             Log.debug("Intent {0} successfully registered", response.getDisplayName());
         } catch (FailedPreconditionException | InvalidArgumentException e) {
             if (e.getMessage().contains("already exists")) {
@@ -425,6 +615,7 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
                     .getLiteral());
         } else if (entityDefinition instanceof CustomEntityDefinition) {
             CustomEntityDefinition customEntityDefinition = (CustomEntityDefinition) entityDefinition;
+            this.mappedEntityTypes.remove(customEntityDefinition.getName());
             /*
              * Reduce the number of calls to the DialogFlow API by first looking for the EntityType in the local cache.
              */
@@ -455,6 +646,8 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
              * Remove the deleted EntityType from the local cache.
              */
             this.registeredEntityTypes.remove(entityType.getDisplayName());
+            this.agentUpdated = true;
+            this.invalidateRecognitionCache();
         } else {
             throw new IntentRecognitionProviderException(MessageFormat.format("Cannot delete the provided {0}, " +
                             "unsupported {1}", entityDefinition.getClass().getSimpleName(),
@@ -471,6 +664,13 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
     public void deleteIntentDefinition(@NonNull IntentDefinition intentDefinition) throws IntentRecognitionProviderException {
         checkNotShutdown();
         checkNotNull(intentDefinition.getName(), "Cannot delete the IntentDefinition with null as its name");
+        this.mappedIntents.remove(intentDefinition.getName());
+        if (this.configuration.isEnableBatchSync()) {
+            Log.debug("Adding the deletion of DialogFlow intent {0} to the batch synchronization",
+                    intentDefinition.getName());
+            this.pendingIntentDeletions.add(intentDefinition.getName());
+            return;
+        }
         /*
          * Reduce the number of calls to the DialogFlow API by first looking for the Intent in the local cache.
          */
@@ -495,18 +695,36 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
          * Remove the deleted Intent from the local cache.
          */
         this.registeredIntents.remove(intent.getDisplayName());
+        this.agentUpdated = true;
+        this.invalidateRecognitionCache();
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This method checks every second whether the underlying ML Engine has finished its training. Note that this
-     * method is blocking as long as the ML Engine training is not terminated, and may not terminate if an issue
-     * occurred on the DialogFlow side.
+     * This method computes a {@link TrainingFingerprint} of the registered intents and entities, and skips the
+     * training if the agent has already been trained with the same data (e.g. when the bot is restarted without
+     * modifying its intents). The fingerprint of the last training is stored in the agent's description.
+     * <p>
+     * Once the agent is trained this method polls it with a training sentence until the corresponding intent is
+     * matched (see {@link ReadinessPoller#TRAINING_TIMEOUT_KEY}). Note that this method is blocking as long as the
+     * ML Engine training is not terminated.
+     * <p>
+     * If batch synchronization is enabled this method first sends the registered intents and entities to the
+     * DialogFlow agent (see {@link DialogFlowConfiguration#ENABLE_BATCH_SYNC_KEY}).
      */
     @Override
     public void trainMLEngine() throws IntentRecognitionProviderException {
         checkNotShutdown();
+        if (this.configuration.isEnableBatchSync()) {
+            this.synchronizeAgent();
+        }
+        String fingerprint = computeTrainingFingerprint();
+        if (!this.agentUpdated && isTrainedWith(fingerprint)) {
+            Log.info("DialogFlow agent is already trained with the registered intents and entities, skipping " +
+                    "training");
+            return;
+        }
         Log.info("Starting DialogFlow agent training (this may take a few minutes)");
         TrainAgentRequest request = TrainAgentRequest.newBuilder()
                 .setParent(projectName.toString())
@@ -525,16 +743,140 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
             throw new IntentRecognitionProviderException("Failed to train the DialogFlow agent, returned " +
                     "Operation#getDone returned false");
         }
-        Log.info("DialogFlow agent trained, intent matching will be available in a few seconds");
+        this.invalidateRecognitionCache();
+        Log.info("DialogFlow agent trained, waiting for the agent to be ready");
         try {
             /*
              * From our experience the agent may return DEFAULT_FALLBACK intents in the few seconds after it has been
-             * trained. We try to mitigate this by a simple wait.
+             * trained. We send a training sentence to the agent until it is correctly matched.
              */
-            Thread.sleep(10000);
+            if (!this.readinessPoller.await(this::isAgentReady)) {
+                Log.warn("Cannot check that the DialogFlow agent is ready, intent matching may be available in a " +
+                        "few seconds");
+            }
         } catch (InterruptedException e) {
             throw new IntentRecognitionProviderException("An error occurred during the DialogFlow agent training", e);
         }
+        this.agentUpdated = false;
+        this.storeTrainingFingerprint(fingerprint);
+    }
+
+    /**
+     * Computes the {@link TrainingFingerprint} of the registered intents and entities.
+     * <p>
+     * The fingerprint is computed over the DialogFlow {@link Intent}s and {@link EntityType}s created by the mappers
+     * (sorted by name), meaning that any change in the bot's intents and entities or in the mapping process
+     * produces a different fingerprint.
+     *
+     * @return the computed fingerprint
+     */
+    private String computeTrainingFingerprint() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            outputStream.write(this.configuration.getLanguageCode().getBytes(StandardCharsets.UTF_8));
+            for (EntityType entityType : new TreeMap<>(this.mappedEntityTypes).values()) {
+                entityType.writeTo(outputStream);
+            }
+            for (Intent intent : new TreeMap<>(this.mappedIntents).values()) {
+                intent.writeTo(outputStream);
+            }
+        } catch (IOException e) {
+            /*
+             * Should not happen, we are writing in memory.
+             */
+            throw new XatkitException("Cannot compute the training fingerprint of the DialogFlow agent", e);
+        }
+        return TrainingFingerprint.compute(outputStream.toByteArray());
+    }
+
+    /**
+     * Returns whether the DialogFlow agent has been trained with the data matching the provided {@code fingerprint}.
+     * <p>
+     * This method looks for the fingerprint stored in the agent's description, allowing to detect agents trained by
+     * other bot instances. The fingerprint stored locally is used if the agent cannot be accessed.
+     *
+     * @param fingerprint the fingerprint of the current training data
+     * @return {@code true} if the agent is trained with the provided {@code fingerprint}, {@code false} otherwise
+     */
+    private boolean isTrainedWith(String fingerprint) {
+        if (!this.trainingFingerprint.isEnabled()) {
+            return false;
+        }
+        try {
+            Agent agent = this.dialogFlowClients.getAgentsClient().getAgent(projectName);
+            Matcher matcher = FINGERPRINT_PATTERN.matcher(agent.getDescription());
+            return matcher.find() && matcher.group(1).equals(fingerprint);
+        } catch (ApiException e) {
+            Log.warn("Cannot retrieve the training fingerprint of the DialogFlow agent, using the local one: {0}",
+                    e.getMessage());
+            return fingerprint.equals(this.trainingFingerprint.load());
+        }
+    }
+
+    /**
+     * Stores the provided {@code fingerprint} locally and in the description of the DialogFlow agent.
+     *
+     * @param fingerprint the fingerprint to store
+     */
+    private void storeTrainingFingerprint(String fingerprint) {
+        if (!this.trainingFingerprint.isEnabled()) {
+            return;
+        }
+        this.trainingFingerprint.store(fingerprint);
+        try {
+            Agent agent = this.dialogFlowClients.getAgentsClient().getAgent(projectName);
+            String description = FINGERPRINT_PATTERN.matcher(agent.getDescription()).replaceAll("").trim();
+            String fingerprintTag = MessageFormat.format(FINGERPRINT_TAG, fingerprint);
+            description = description.isEmpty() ? fingerprintTag : description + "\n" + fingerprintTag;
+            this.dialogFlowClients.getAgentsClient().setAgent(agent.toBuilder().setDescription(description).build());
+        } catch (ApiException e) {
+            Log.warn("Cannot store the training fingerprint in the DialogFlow agent: {0}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the DialogFlow agent is ready to match intents.
+     * <p>
+     * This method sends a training sentence of a registered intent to the agent, and checks that the intent is
+     * matched. The probe query uses a dedicated session with the intent's input contexts, and does not interfere
+     * with user sessions.
+     * <p>
+     * This method returns {@code true} if there is no registered intent that can be used as a probe.
+     *
+     * @return {@code true} if the agent is ready, {@code false} otherwise
+     */
+    private boolean isAgentReady() {
+        String probeSession = "xatkit-readiness-probe";
+        for (Intent intent : this.mappedIntents.values()) {
+            Optional<String> probeText = intent.getTrainingPhrasesList().stream()
+                    .filter(trainingPhrase -> trainingPhrase.getPartsList().stream()
+                            .allMatch(part -> part.getEntityType().isEmpty()))
+                    .map(trainingPhrase -> trainingPhrase.getPartsList().stream()
+                            .map(Intent.TrainingPhrase.Part::getText)
+                            .collect(Collectors.joining()))
+                    .filter(text -> !text.trim().isEmpty())
+                    .findFirst();
+            if (probeText.isPresent()) {
+                QueryParameters.Builder queryParameters = QueryParameters.newBuilder();
+                for (String inputContextName : intent.getInputContextNamesList()) {
+                    String contextId = inputContextName.substring(inputContextName.lastIndexOf('/') + 1);
+                    queryParameters.addContexts(Context.newBuilder()
+                            .setName(ContextName.of(this.configuration.getProjectId(), probeSession, contextId)
+                                    .toString())
+                            .setLifespanCount(1));
+                }
+                DetectIntentRequest request = DetectIntentRequest.newBuilder()
+                        .setSession(SessionName.of(this.configuration.getProjectId(), probeSession).toString())
+                        .setQueryInput(QueryInput.newBuilder().setText(TextInput.newBuilder()
+                                .setText(probeText.get())
+                                .setLanguageCode(this.configuration.getLanguageCode())))
+                        .setQueryParams(queryParameters)
+                        .build();
+                DetectIntentResponse response = this.dialogFlowClients.getSessionsClient().detectIntent(request);
+                return response.getQueryResult().getIntent().getDisplayName().equals(intent.getDisplayName());
+            }
+        }
+        return true;
     }
 
     /**
@@ -547,12 +889,13 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
      * {@link #DialogFlowIntentRecognitionProvider(EventDefinitionRegistry, Configuration, RecognitionMonitor)}.
      *
      * @throws NullPointerException if the provided {@code sessionId} is {@code null}
+     * @see #getSharedContextConfiguration()
      */
     @Override
     public StateContext createContext(@NonNull String sessionId) throws IntentRecognitionProviderException {
         checkNotShutdown();
         SessionName sessionName = SessionName.of(this.configuration.getProjectId(), sessionId);
-        return new DialogFlowStateContextImpl(sessionName, this.configuration.getBaseConfiguration());
+        return DialogFlowStateContextImpl.withSharedConfiguration(sessionName, getSharedContextConfiguration());
     }
 
     /**
@@ -601,9 +944,7 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
         }
         QueryResult queryResult = response.getQueryResult();
         RecognizedIntent recognizedIntent = recognizedIntentMapper.mapQueryResult(queryResult);
-        if (nonNull(recognitionMonitor)) {
-            recognitionMonitor.logRecognizedIntent(context, recognizedIntent);
-        }
+        this.logRecognizedIntent(context, recognizedIntent);
         return recognizedIntent;
     }
 
@@ -638,6 +979,19 @@ public class DialogFlowIntentRecognitionProvider extends AbstractIntentRecogniti
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The input contexts of the DialogFlow intents are set from the {@link com.xatkit.execution.State} of the
+     * context, which is part of the cache key. The output contexts of the matched intents are kept in the remote
+     * session and carry their parameter values: the results of intents with parameters are not cached, the same
+     * input received twice in the same {@link com.xatkit.execution.State} can be matched with different values.
+     */
+    @Override
+    protected boolean isCacheable(@NonNull RecognizedIntent recognizedIntent) {
+        return recognizedIntent.getDefinition().getParameters().isEmpty() && recognizedIntent.getValues().isEmpty();
+    }
+
     /**
      * {@inheritDoc}
      */
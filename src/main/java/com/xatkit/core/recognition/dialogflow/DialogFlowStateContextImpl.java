@@ -3,10 +3,12 @@ package com.xatkit.core.recognition.dialogflow;
 import com.google.cloud.dialogflow.v2.SessionName;
 import com.xatkit.execution.StateContext;
 import com.xatkit.execution.impl.StateContextImpl;
+import com.xatkit.util.SessionConfigurationMap;
 import lombok.NonNull;
-import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.Configuration;
-import org.apache.commons.configuration2.ConfigurationConverter;
+
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * A DialogFlow {@link StateContext} implementation that relies on DialogFlow internal sessions.
@@ -33,7 +35,7 @@ public class DialogFlowStateContextImpl extends StateContextImpl implements Dial
      * @param sessionName the raw DialogFlow session
      */
     public DialogFlowStateContextImpl(SessionName sessionName) {
-        this(sessionName, new BaseConfiguration());
+        this(sessionName, Collections.emptyMap());
     }
 
     /**
@@ -41,18 +43,55 @@ public class DialogFlowStateContextImpl extends StateContextImpl implements Dial
      * <p>
      * This constructor sets the {@code sessionId} value by calling {@link SessionName#toString()}, that may not be
      * unique in some rare cases? Use {@link #getSessionName()} to compare {@link DialogFlowStateContextImpl}s.
+     * <p>
+     * The created context holds a snapshot of the provided {@code configuration}: further updates of the
+     * {@code configuration} are not reflected in the context, and updates of the context configuration are not
+     * reflected in the {@code configuration}.
      *
      * @param sessionName   the raw DialogFlow session
      * @param configuration the {@link Configuration} parameterizing the {@link DialogFlowStateContextImpl}
      * @see StateContext
      */
     public DialogFlowStateContextImpl(@NonNull SessionName sessionName, @NonNull Configuration configuration) {
+        this(sessionName, SessionConfigurationMap.freeze(configuration));
+    }
+
+    /**
+     * Constructs a new {@link DialogFlowStateContextImpl} from the provided {@code sessionName} and
+     * {@code sharedConfiguration}.
+     * <p>
+     * The context configuration is layered on top of the provided {@code sharedConfiguration} (see
+     * {@link SessionConfigurationMap}).
+     *
+     * @param sessionName         the raw DialogFlow session
+     * @param sharedConfiguration the read-only configuration shared by the contexts
+     */
+    private DialogFlowStateContextImpl(@NonNull SessionName sessionName,
+                                       @NonNull Map<Object, Object> sharedConfiguration) {
         super();
         this.setContextId(sessionName.toString());
-        this.setConfiguration(ConfigurationConverter.getMap(configuration));
+        this.setConfiguration(new SessionConfigurationMap(sharedConfiguration));
         this.sessionName = sessionName;
     }
 
+    /**
+     * Creates a new {@link DialogFlowStateContextImpl} from the provided {@code sessionName} and
+     * {@code sharedConfiguration}.
+     * <p>
+     * Unlike {@link #DialogFlowStateContextImpl(SessionName, Configuration)} this method does not copy the
+     * configuration, and should be used to create contexts sharing the same read-only configuration snapshot.
+     *
+     * @param sessionName         the raw DialogFlow session
+     * @param sharedConfiguration the read-only configuration shared by the contexts
+     * @return the created {@link DialogFlowStateContextImpl}
+     * @throws NullPointerException if the provided {@code sessionName} or {@code sharedConfiguration} is {@code null}
+     * @see SessionConfigurationMap#freeze(Configuration)
+     */
+    static DialogFlowStateContextImpl withSharedConfiguration(@NonNull SessionName sessionName,
+                                                              @NonNull Map<Object, Object> sharedConfiguration) {
+        return new DialogFlowStateContextImpl(sessionName, sharedConfiguration);
+    }
+
     /**
      * {@inheritDoc}
      */
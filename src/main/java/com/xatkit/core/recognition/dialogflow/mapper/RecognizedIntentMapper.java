@@ -13,8 +13,8 @@ import com.xatkit.intent.BaseEntityDefinition;
 import com.xatkit.intent.ContextParameter;
 import com.xatkit.intent.ContextParameterValue;
 import com.xatkit.intent.IntentDefinition;
-import com.xatkit.intent.IntentFactory;
 import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 
@@ -84,7 +84,7 @@ public class RecognizedIntentMapper {
                 .class.getSimpleName(), QueryResult.class.getSimpleName(), Intent.class.getSimpleName(), result
                 .getIntent());
         Intent intent = result.getIntent();
-        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
         /*
          * Retrieve the IntentDefinition corresponding to this Intent.
          */
@@ -139,8 +139,7 @@ public class RecognizedIntentMapper {
 
                 ContextParameter contextParameter = intentDefinition.getParameter(key);
                 if (nonNull(contextParameter) && !key.contains(".original")) {
-                    ContextParameterValue contextParameterValue =
-                            IntentFactory.eINSTANCE.createContextParameterValue();
+                    ContextParameterValue contextParameterValue = TransientEObjects.createContextParameterValue();
                     contextParameterValue.setContextParameter(contextParameter);
                     contextParameterValue.setValue(parameterValue);
                     recognizedIntent.getValues().add(contextParameterValue);
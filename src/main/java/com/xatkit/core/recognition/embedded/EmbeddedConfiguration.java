@@ -0,0 +1,152 @@
+package com.xatkit.core.recognition.embedded;
+
+import lombok.NonNull;
+import lombok.Value;
+import org.apache.commons.configuration2.Configuration;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Contains the configuration of the {@link EmbeddedIntentRecognitionProvider}.
+ * <p>
+ * This class can be initialized with a {@link Configuration} instance, and takes care of extracting the properties
+ * of the embedded classifier.
+ * <p>
+ * The base {@link Configuration} used to initialize this class can be accessed through {@link #getBaseConfiguration()}.
+ */
+@Value
+public class EmbeddedConfiguration {
+
+    /**
+     * The {@link Configuration} key to enable the {@link EmbeddedIntentRecognitionProvider}.
+     * <p>
+     * This property is set to {@code false} by default. Note that DialogFlow and NLP.js properties take precedence
+     * over this one.
+     */
+    public static String ENABLED_KEY = "xatkit.embedded.enabled";
+
+    /**
+     * The {@link Configuration} key to store the minimum size of the character n-grams used as features.
+     * <p>
+     * This property is set to {@link #DEFAULT_MIN_NGRAM} if not provided in the {@link Configuration}.
+     */
+    public static String MIN_NGRAM_KEY = "xatkit.embedded.ngram.min";
+
+    /**
+     * The default minimum size of the character n-grams used as features.
+     */
+    public static int DEFAULT_MIN_NGRAM = 2;
+
+    /**
+     * The {@link Configuration} key to store the maximum size of the character n-grams used as features.
+     * <p>
+     * This property is set to {@link #DEFAULT_MAX_NGRAM} if not provided in the {@link Configuration}.
+     */
+    public static String MAX_NGRAM_KEY = "xatkit.embedded.ngram.max";
+
+    /**
+     * The default maximum size of the character n-grams used as features.
+     */
+    public static int DEFAULT_MAX_NGRAM = 4;
+
+    /**
+     * The {@link Configuration} key to store the number of training epochs of the classifier.
+     * <p>
+     * This property is set to {@link #DEFAULT_EPOCHS} if not provided in the {@link Configuration}.
+     */
+    public static String EPOCHS_KEY = "xatkit.embedded.epochs";
+
+    /**
+     * The default number of training epochs of the classifier.
+     */
+    public static int DEFAULT_EPOCHS = 50;
+
+    /**
+     * The {@link Configuration} key to store the L2 regularization factor of the classifier.
+     * <p>
+     * This property is set to {@link #DEFAULT_REGULARIZATION} if not provided in the {@link Configuration}.
+     */
+    public static String REGULARIZATION_KEY = "xatkit.embedded.regularization";
+
+    /**
+     * The default L2 regularization factor of the classifier.
+     */
+    public static double DEFAULT_REGULARIZATION = 0.01;
+
+    /**
+     * The {@link Configuration} key to store the minimum similarity between an input and the training sentences of
+     * the predicted intent.
+     * <p>
+     * The classifier always predicts one of the intents that can be matched in the current state. This threshold
+     * allows to return the default fallback intent for inputs that are unrelated to all the training sentences of
+     * the predicted intent. This property is set to {@link #DEFAULT_MIN_SIMILARITY} if not provided in the
+     * {@link Configuration}.
+     */
+    public static String MIN_SIMILARITY_KEY = "xatkit.embedded.min_similarity";
+
+    /**
+     * The default minimum similarity between an input and the training sentences of the predicted intent.
+     */
+    public static double DEFAULT_MIN_SIMILARITY = 0.3;
+
+    /**
+     * The base {@link Configuration} used to initialize the {@link EmbeddedConfiguration}.
+     */
+    private Configuration baseConfiguration;
+
+    /**
+     * The minimum size of the character n-grams used as features.
+     *
+     * @see #MIN_NGRAM_KEY
+     */
+    private int minNgram;
+
+    /**
+     * The maximum size of the character n-grams used as features.
+     *
+     * @see #MAX_NGRAM_KEY
+     */
+    private int maxNgram;
+
+    /**
+     * The number of training epochs of the classifier.
+     *
+     * @see #EPOCHS_KEY
+     */
+    private int epochs;
+
+    /**
+     * The L2 regularization factor of the classifier.
+     *
+     * @see #REGULARIZATION_KEY
+     */
+    private double regularization;
+
+    /**
+     * The minimum similarity between an input and the training sentences of the predicted intent.
+     *
+     * @see #MIN_SIMILARITY_KEY
+     */
+    private double minSimilarity;
+
+    /**
+     * Initializes the {@link EmbeddedConfiguration} with the provided {@code baseConfiguration}.
+     *
+     * @param baseConfiguration the {@link Configuration} to load the values from
+     * @throws NullPointerException     if the provided {@code baseConfiguration} is {@code null}
+     * @throws IllegalArgumentException if the provided n-gram range is invalid, or if the minimum similarity is
+     *                                  not in {@code [0, 1]}
+     */
+    public EmbeddedConfiguration(@NonNull Configuration baseConfiguration) {
+        this.baseConfiguration = baseConfiguration;
+        this.minNgram = baseConfiguration.getInt(MIN_NGRAM_KEY, DEFAULT_MIN_NGRAM);
+        this.maxNgram = baseConfiguration.getInt(MAX_NGRAM_KEY, DEFAULT_MAX_NGRAM);
+        checkArgument(minNgram > 0 && maxNgram >= minNgram, "Invalid n-gram range [%s, %s], please check the values"
+                + " of %s and %s", minNgram, maxNgram, MIN_NGRAM_KEY, MAX_NGRAM_KEY);
+        this.epochs = baseConfiguration.getInt(EPOCHS_KEY, DEFAULT_EPOCHS);
+        this.regularization = baseConfiguration.getDouble(REGULARIZATION_KEY, DEFAULT_REGULARIZATION);
+        this.minSimilarity = baseConfiguration.getDouble(MIN_SIMILARITY_KEY, DEFAULT_MIN_SIMILARITY);
+        checkArgument(minSimilarity >= 0 && minSimilarity <= 1, "Invalid value for %s: expected a value in [0, 1], "
+                + "found %s", MIN_SIMILARITY_KEY, minSimilarity);
+    }
+}
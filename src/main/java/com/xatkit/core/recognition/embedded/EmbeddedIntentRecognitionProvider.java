@@ -0,0 +1,571 @@
+package com.xatkit.core.recognition.embedded;
+
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.recognition.AbstractIntentRecognitionProvider;
+import com.xatkit.core.recognition.IntentRecognitionProviderFactory;
+import com.xatkit.core.recognition.RecognitionMonitor;
+import com.xatkit.core.recognition.regex.RegExEntityMapper;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.BaseEntityDefinition;
+import com.xatkit.intent.ContextParameter;
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.CustomEntityDefinition;
+import com.xatkit.intent.EntityDefinition;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A {@link AbstractIntentRecognitionProvider} relying on an in-process statistical classifier to match user inputs.
+ * <p>
+ * This provider trains a multinomial {@link LogisticRegressionClassifier} on character n-gram TF-IDF features
+ * computed from the training sentences of the registered {@link IntentDefinition}s. Unlike the
+ * {@link com.xatkit.core.recognition.regex.RegExIntentRecognitionProvider} it matches inputs that are close to the
+ * training sentences (typos, reformulations, additional words), and unlike the remote providers it does not
+ * require a network call to recognize an intent.
+ * <p>
+ * The confidence of the returned {@link RecognizedIntent}s is the probability computed by the classifier over the
+ * intents that can be matched in the current state and an implicit <i>none</i> class (see
+ * {@link LogisticRegressionClassifier}). This means that the confidence reflects how close the input is to the
+ * training sentences of the matched intent, even if it is the only intent that can be matched. Inputs that are not
+ * similar enough to the training sentences of the predicted intent are matched as the
+ * {@link #DEFAULT_FALLBACK_INTENT} (see {@link EmbeddedConfiguration#MIN_SIMILARITY_KEY}).
+ * <p>
+ * Parameters are extracted with the RegExp patterns computed by a {@link RegExEntityMapper}, meaning that this
+ * provider has the same entity extraction capabilities as the
+ * {@link com.xatkit.core.recognition.regex.RegExIntentRecognitionProvider}.
+ * <p>
+ * This provider is used by Xatkit if the {@link EmbeddedConfiguration#ENABLED_KEY} property is set to {@code true}
+ * in the application's {@link Configuration} (see
+ * {@link IntentRecognitionProviderFactory#getIntentRecognitionProvider(XatkitBot, Configuration)}).
+ *
+ * @see EmbeddedConfiguration
+ * @see IntentRecognitionProviderFactory
+ */
+public class EmbeddedIntentRecognitionProvider extends AbstractIntentRecognitionProvider {
+
+    /**
+     * The learning rate used to train the classifier.
+     * <p>
+     * Features are L2-normalized, this learning rate does not need to be tuned for each bot.
+     */
+    private static final double LEARNING_RATE = 0.5;
+
+    /**
+     * The {@link EmbeddedConfiguration} extracted from the provided {@link Configuration}.
+     */
+    private EmbeddedConfiguration configuration;
+
+    /**
+     * A boolean storing whether the provider has been shut down.
+     */
+    private boolean isShutdown;
+
+    /**
+     * The {@link RegExEntityMapper} used to store system and dynamic entity mappings.
+     * <p>
+     * These mappings are used to extract parameter values from the user inputs.
+     */
+    private RegExEntityMapper entityMapper;
+
+    /**
+     * The registered {@link IntentDefinition}s and the RegExp {@link Pattern}s used to extract their parameters.
+     */
+    private Map<IntentDefinition, List<Pattern>> intentPatterns;
+
+    /**
+     * The RegExp {@link Pattern}s used to look for the values of the {@link CustomEntityDefinition} parameters of the
+     * registered {@link IntentDefinition}s.
+     *
+     * @see #createParameterPatterns(IntentDefinition)
+     */
+    private Map<IntentDefinition, Map<ContextParameter, Pattern>> parameterPatterns;
+
+    /**
+     * The classifier trained with the registered {@link IntentDefinition}s.
+     * <p>
+     * This field is {@code null} if the classifier needs to be (re-)trained.
+     *
+     * @see #trainMLEngine()
+     */
+    @Nullable
+    private volatile TrainedModel model;
+
+    /**
+     * The {@link RecognitionMonitor} used to track intent matching information.
+     */
+    @Nullable
+    private RecognitionMonitor recognitionMonitor;
+
+    /**
+     * Constructs an {@link EmbeddedIntentRecognitionProvider} with the provided {@code configuration}.
+     *
+     * @param configuration      the {@link Configuration} containing the classifier properties
+     * @param recognitionMonitor the {@link RecognitionMonitor} instance storing intent matching information
+     * @throws NullPointerException     if the provided {@code configuration} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code configuration} contains invalid values
+     * @see EmbeddedConfiguration
+     */
+    public EmbeddedIntentRecognitionProvider(@NonNull Configuration configuration,
+                                             @Nullable RecognitionMonitor recognitionMonitor) {
+        Log.info("Starting {0}", this.getClass().getSimpleName());
+        this.configuration = new EmbeddedConfiguration(configuration);
+        this.setSharedContextConfiguration(configuration);
+        this.isShutdown = false;
+        this.entityMapper = new RegExEntityMapper();
+        this.intentPatterns = new LinkedHashMap<>();
+        this.parameterPatterns = new HashMap<>();
+        this.recognitionMonitor = recognitionMonitor;
+    }
+
+    /**
+     * Registers the provided {@code entityDefinition}.
+     * <p>
+     * Registered entities are used to extract the parameters of the matched intents.
+     *
+     * @param entityDefinition the {@link EntityDefinition} to register to the underlying intent recognition provider
+     * @throws NullPointerException if the provided {@code entityDefinition} is {@code null}
+     */
+    @Override
+    public void registerEntityDefinition(@NonNull EntityDefinition entityDefinition) {
+        if (entityDefinition instanceof BaseEntityDefinition) {
+            BaseEntityDefinition baseEntityDefinition = (BaseEntityDefinition) entityDefinition;
+            Log.trace("Skipping registration of {0} ({1}), {0} are natively supported",
+                    BaseEntityDefinition.class.getSimpleName(), baseEntityDefinition.getEntityType().getLiteral());
+        } else if (entityDefinition instanceof CustomEntityDefinition) {
+            Log.debug("Registering {0} {1}", CustomEntityDefinition.class.getSimpleName(), entityDefinition.getName());
+            this.entityMapper.registerCustomEntityDefinition((CustomEntityDefinition) entityDefinition);
+            this.invalidateRecognitionCache();
+        }
+    }
+
+    /**
+     * Registers the provided {@code intentDefinition}.
+     * <p>
+     * The classifier is not updated by this method, it is re-trained when calling {@link #trainMLEngine()} or when
+     * receiving the next input.
+     *
+     * @param intentDefinition the {@link IntentDefinition} to register to the underlying intent recognition provider
+     * @throws NullPointerException if the provided {@code intentDefinition} is {@code null}
+     */
+    @Override
+    public void registerIntentDefinition(@NonNull IntentDefinition intentDefinition) {
+        this.intentPatterns.put(intentDefinition, createPatterns(intentDefinition));
+        this.parameterPatterns.put(intentDefinition, createParameterPatterns(intentDefinition));
+        this.model = null;
+        this.invalidateRecognitionCache();
+    }
+
+    /**
+     * Creates the RegExp {@link Pattern}s used to extract the parameters of the provided {@code intentDefinition}.
+     * <p>
+     * This method creates one case-insensitive {@link Pattern} for each training sentence containing a parameter.
+     * The created {@link Pattern}s are not anchored, and can extract parameters from inputs containing additional
+     * words.
+     *
+     * @param intentDefinition the {@link IntentDefinition} to create {@link Pattern}s from
+     * @return the created {@link Pattern}s
+     */
+    private List<Pattern> createPatterns(IntentDefinition intentDefinition) {
+        List<Pattern> patterns = new ArrayList<>();
+        if (intentDefinition.getParameters().isEmpty()) {
+            return patterns;
+        }
+        for (String trainingSentence : intentDefinition.getTrainingSentences()) {
+            String preparedTrainingSentence = RegExEntityMapper.escapeRegExpReservedCharacters(trainingSentence);
+            boolean containsParameter = false;
+            for (ContextParameter parameter : intentDefinition.getParameters()) {
+                for (String textFragment : parameter.getTextFragments()) {
+                    String escapedFragment = RegExEntityMapper.escapeRegExpReservedCharacters(textFragment);
+                    if (preparedTrainingSentence.contains(escapedFragment)) {
+                        preparedTrainingSentence = preparedTrainingSentence.replace(escapedFragment,
+                                "(?<" + parameter.getName() + ">" + getParameterMapping(parameter) + ")");
+                        containsParameter = true;
+                    }
+                }
+            }
+            if (containsParameter) {
+                patterns.add(Pattern.compile("(?i)" + preparedTrainingSentence));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Creates the RegExp {@link Pattern}s used to look for the values of the {@link CustomEntityDefinition}
+     * parameters of the provided {@code intentDefinition}.
+     * <p>
+     * These {@link Pattern}s are used when the input does not match any training sentence (see
+     * {@link #extractParameters(String, IntentDefinition, RecognizedIntent)}). Base entities are mapped to generic
+     * patterns (e.g. any word), we cannot look for them without a training sentence.
+     *
+     * @param intentDefinition the {@link IntentDefinition} to create {@link Pattern}s from
+     * @return the created {@link Pattern}s
+     */
+    private Map<ContextParameter, Pattern> createParameterPatterns(IntentDefinition intentDefinition) {
+        Map<ContextParameter, Pattern> patterns = new LinkedHashMap<>();
+        for (ContextParameter parameter : intentDefinition.getParameters()) {
+            if (parameter.getEntity().getReferredEntity() instanceof CustomEntityDefinition) {
+                patterns.put(parameter, Pattern.compile("(?i)(?<![\\p{L}\\p{N}])(" + getParameterMapping(parameter)
+                        + ")(?![\\p{L}\\p{N}])"));
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * Deletes the provided {@code entityDefinition}.
+     *
+     * @param entityDefinition the {@link EntityDefinition} to delete from the underlying intent recognition provider
+     * @throws NullPointerException if the provided {@code entityDefinition} is {@code null}
+     */
+    @Override
+    public void deleteEntityDefinition(@NonNull EntityDefinition entityDefinition) {
+        this.entityMapper.removeMappingFor(entityDefinition);
+        this.invalidateRecognitionCache();
+    }
+
+    /**
+     * Deletes the provided {@code intentDefinition}.
+     *
+     * @param intentDefinition the {@link IntentDefinition} to delete from the underlying intent recognition provider
+     * @throws NullPointerException if the provided {@code intentDefinition} is {@code null}
+     */
+    @Override
+    public void deleteIntentDefinition(@NonNull IntentDefinition intentDefinition) {
+        this.intentPatterns.remove(intentDefinition);
+        this.parameterPatterns.remove(intentDefinition);
+        this.model = null;
+        this.invalidateRecognitionCache();
+    }
+
+    /**
+     * Trains the classifier with the registered {@link IntentDefinition}s.
+     * <p>
+     * The training is performed in-process, and usually takes less than a second for typical bots.
+     */
+    @Override
+    public void trainMLEngine() {
+        this.getTrainedModel();
+    }
+
+    /**
+     * Returns the classifier trained with the registered {@link IntentDefinition}s, training it if needed.
+     *
+     * @return the trained classifier
+     */
+    private TrainedModel getTrainedModel() {
+        TrainedModel currentModel = this.model;
+        if (isNull(currentModel)) {
+            synchronized (this) {
+                currentModel = this.model;
+                if (isNull(currentModel)) {
+                    long start = System.currentTimeMillis();
+                    currentModel = new TrainedModel(new ArrayList<>(intentPatterns.keySet()), configuration);
+                    this.model = currentModel;
+                    Log.info("{0} trained in {1}ms ({2} intents, {3} features)",
+                            this.getClass().getSimpleName(), System.currentTimeMillis() - start,
+                            currentModel.intents.size(), currentModel.vectorizer.getVocabularySize());
+                }
+            }
+        }
+        return currentModel;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see #createStateContext(String)
+     */
+    @Override
+    public StateContext createContext(@NonNull String sessionId) {
+        return createStateContext(sessionId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public RecognitionMonitor getRecognitionMonitor() {
+        return recognitionMonitor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void shutdown() {
+        this.isShutdown = true;
+        this.model = null;
+        if (nonNull(this.recognitionMonitor)) {
+            this.recognitionMonitor.shutdown();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * Computes the {@link RecognizedIntent} associated to the provided {@code input}.
+     * <p>
+     * This method classifies the provided {@code input} among the intents that can be matched in the current state
+     * of the provided {@code context}, and extracts the parameters of the predicted intent. The
+     * {@link #DEFAULT_FALLBACK_INTENT} is returned if the {@code input} is not similar enough to the training
+     * sentences of the predicted intent.
+     *
+     * @param input   the {@link String} representing the textual input to process and extract the intent from
+     * @param context the {@link StateContext} used to access context information
+     * @return the {@link RecognizedIntent} matched from the provided {@code input}
+     * @throws NullPointerException if the provided {@code input} or {@code context} is {@code null}
+     */
+    @Override
+    protected RecognizedIntent getIntentInternal(@NonNull String input, @NonNull StateContext context) {
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+        recognizedIntent.setMatchedInput(input);
+        TrainedModel currentModel = getTrainedModel();
+        Collection<IntentDefinition> accessedIntents = isNull(context.getState()) ? Collections.emptyList() :
+                context.getState().getAllAccessedIntents();
+        TrainedModel.Prediction prediction = currentModel.predict(input, accessedIntents);
+        if (isNull(prediction) || prediction.similarity < configuration.getMinSimilarity()) {
+            recognizedIntent.setDefinition(DEFAULT_FALLBACK_INTENT);
+            /*
+             * Consistent with the RegExIntentRecognitionProvider: the default fallback is not a prediction of the
+             * classifier.
+             */
+            recognizedIntent.setRecognitionConfidence(1);
+        } else {
+            recognizedIntent.setDefinition(prediction.intent);
+            recognizedIntent.setRecognitionConfidence((float) prediction.probability);
+            extractParameters(input, prediction.intent, recognizedIntent);
+        }
+        this.logRecognizedIntent(context, recognizedIntent);
+        return recognizedIntent;
+    }
+
+    /**
+     * Extracts the parameters of the provided {@code intentDefinition} from the given {@code input}.
+     * <p>
+     * This method first looks for a training sentence pattern matching the {@code input}. If there is no such
+     * pattern (e.g. because the input is a reformulation of the training sentences) it looks for the values of the
+     * {@link CustomEntityDefinition} parameters in the {@code input}.
+     *
+     * @param input            the input to extract the parameters from
+     * @param intentDefinition the {@link IntentDefinition} containing the parameters to extract
+     * @param recognizedIntent the {@link RecognizedIntent} to set the extracted {@link ContextParameterValue}s of
+     */
+    private void extractParameters(String input, IntentDefinition intentDefinition,
+                                   RecognizedIntent recognizedIntent) {
+        if (intentDefinition.getParameters().isEmpty()) {
+            return;
+        }
+        for (Pattern pattern : intentPatterns.getOrDefault(intentDefinition, Collections.emptyList())) {
+            Matcher matcher = pattern.matcher(input);
+            if (matcher.find()) {
+                for (ContextParameter parameter : intentDefinition.getParameters()) {
+                    try {
+                        String value = matcher.group(parameter.getName());
+                        if (nonNull(value)) {
+                            recognizedIntent.getValues().add(createContextParameterValue(parameter, value));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        /*
+                         * The pattern does not contain a group for this parameter.
+                         */
+                    }
+                }
+                return;
+            }
+        }
+        for (Map.Entry<ContextParameter, Pattern> parameterPattern : parameterPatterns.getOrDefault(intentDefinition,
+                Collections.emptyMap()).entrySet()) {
+            Matcher matcher = parameterPattern.getValue().matcher(input);
+            if (matcher.find()) {
+                recognizedIntent.getValues().add(createContextParameterValue(parameterPattern.getKey(),
+                        matcher.group(1)));
+            }
+        }
+    }
+
+    /**
+     * Returns the RegExp mapping of the entity of the provided {@code parameter}.
+     *
+     * @param parameter the {@link ContextParameter} to retrieve the mapping of
+     * @return the RegExp mapping
+     */
+    private String getParameterMapping(ContextParameter parameter) {
+        return entityMapper.getMappingFor(parameter.getEntity().getReferredEntity());
+    }
+
+    /**
+     * Creates the {@link ContextParameterValue} associated to the provided {@code contextParameter}.
+     *
+     * @param contextParameter the {@link ContextParameter} to create a value of
+     * @param value            the value to set to the created {@link ContextParameterValue}
+     * @return the created {@link ContextParameterValue}
+     */
+    private ContextParameterValue createContextParameterValue(ContextParameter contextParameter, String value) {
+        ContextParameterValue contextParameterValue = TransientEObjects.createContextParameterValue();
+        contextParameterValue.setContextParameter(contextParameter);
+        contextParameterValue.setValue(value);
+        return contextParameterValue;
+    }
+
+    /**
+     * An immutable classifier trained with a set of {@link IntentDefinition}s.
+     * <p>
+     * Instances of this class are replaced (and not updated) when the registered intents change, allowing to
+     * classify inputs concurrently without locking.
+     */
+    private static class TrainedModel {
+
+        /**
+         * The vectorizer transforming sentences into features.
+         */
+        private final TfIdfVectorizer vectorizer;
+
+        /**
+         * The classifier predicting the intents from the features.
+         */
+        private final LogisticRegressionClassifier classifier;
+
+        /**
+         * The classified intents, the index of an intent in this list is its class in the classifier.
+         */
+        private final List<IntentDefinition> intents;
+
+        /**
+         * The features of the training sentences of each intent.
+         * <p>
+         * These features are used to compute the similarity between an input and the predicted intent.
+         */
+        private final List<List<SparseVector>> intentSamples;
+
+        /**
+         * Trains a classifier with the provided {@code intentDefinitions}.
+         * <p>
+         * {@link IntentDefinition}s without training sentences are ignored.
+         *
+         * @param intentDefinitions the {@link IntentDefinition}s to train the classifier with
+         * @param configuration     the {@link EmbeddedConfiguration} containing the classifier properties
+         */
+        private TrainedModel(List<IntentDefinition> intentDefinitions, EmbeddedConfiguration configuration) {
+            this.vectorizer = new TfIdfVectorizer(configuration.getMinNgram(), configuration.getMaxNgram());
+            this.classifier = new LogisticRegressionClassifier(configuration.getEpochs(), LEARNING_RATE,
+                    configuration.getRegularization());
+            this.intents = new ArrayList<>();
+            this.intentSamples = new ArrayList<>();
+            List<String> sentences = new ArrayList<>();
+            List<Integer> labels = new ArrayList<>();
+            for (IntentDefinition intentDefinition : intentDefinitions) {
+                if (intentDefinition.getTrainingSentences().isEmpty()) {
+                    continue;
+                }
+                for (String trainingSentence : intentDefinition.getTrainingSentences()) {
+                    sentences.add(trainingSentence);
+                    labels.add(intents.size());
+                }
+                intents.add(intentDefinition);
+                intentSamples.add(new ArrayList<>());
+            }
+            if (intents.isEmpty()) {
+                return;
+            }
+            vectorizer.fit(sentences);
+            List<SparseVector> samples = new ArrayList<>();
+            for (int i = 0; i < sentences.size(); i++) {
+                SparseVector sample = vectorizer.transform(sentences.get(i));
+                samples.add(sample);
+                intentSamples.get(labels.get(i)).add(sample);
+            }
+            classifier.train(samples, labels.stream().mapToInt(Integer::intValue).toArray(), intents.size(),
+                    vectorizer.getVocabularySize());
+        }
+
+        /**
+         * Predicts the intent of the provided {@code input} among the {@code accessedIntents}.
+         *
+         * @param input           the input to classify
+         * @param accessedIntents the intents that can be matched
+         * @return the {@link Prediction}, or {@code null} if none of the {@code accessedIntents} has been trained
+         * or if the {@code input} does not contain any known feature
+         */
+        @Nullable
+        private Prediction predict(String input, Collection<IntentDefinition> accessedIntents) {
+            if (!classifier.isTrained()) {
+                return null;
+            }
+            boolean[] allowedClasses = new boolean[intents.size()];
+            boolean hasAllowedClass = false;
+            for (int i = 0; i < intents.size(); i++) {
+                allowedClasses[i] = accessedIntents.contains(intents.get(i));
+                hasAllowedClass |= allowedClasses[i];
+            }
+            SparseVector features = vectorizer.transform(input);
+            if (!hasAllowedClass || features.size() == 0) {
+                return null;
+            }
+            double[] probabilities = classifier.predictProbabilities(features, allowedClasses);
+            int best = -1;
+            for (int i = 0; i < probabilities.length; i++) {
+                if (allowedClasses[i] && (best == -1 || probabilities[i] > probabilities[best])) {
+                    best = i;
+                }
+            }
+            double similarity = 0;
+            for (SparseVector sample : intentSamples.get(best)) {
+                similarity = Math.max(similarity, features.dot(sample));
+            }
+            return new Prediction(intents.get(best), probabilities[best], similarity);
+        }
+
+        /**
+         * The intent predicted for an input.
+         */
+        private static class Prediction {
+
+            /**
+             * The predicted intent.
+             */
+            private final IntentDefinition intent;
+
+            /**
+             * The probability of the predicted intent.
+             */
+            private final double probability;
+
+            /**
+             * The highest cosine similarity between the input and the training sentences of the predicted intent.
+             */
+            private final double similarity;
+
+            private Prediction(IntentDefinition intent, double probability, double similarity) {
+                this.intent = intent;
+                this.probability = probability;
+                this.similarity = similarity;
+            }
+        }
+    }
+}
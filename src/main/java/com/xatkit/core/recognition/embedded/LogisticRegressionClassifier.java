@@ -0,0 +1,218 @@
+package com.xatkit.core.recognition.embedded;
+
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static fr.inria.atlanmod.commons.Preconditions.checkState;
+import static java.util.Objects.nonNull;
+
+/**
+ * A multinomial logistic regression classifier working on {@link SparseVector}s.
+ * <p>
+ * The classifier is trained with stochastic gradient descent on the softmax cross-entropy loss, with a L2
+ * regularization of the weights. The regularization prevents over-confident predictions on small training sets,
+ * and makes the returned probabilities usable as recognition confidences.
+ * <p>
+ * The softmax contains an implicit <i>none</i> class with a constant score of {@code 0}. The score of a class is
+ * thus an absolute measure of the evidence supporting it: a sample that does not share any feature with the
+ * training samples of a class has a score of {@code 0}, and the probability of each class is lower than {@code 1}
+ * even if a single class can be predicted.
+ * <p>
+ * The training is deterministic: samples are shuffled with a fixed seed, meaning that the same training data always
+ * produces the same classifier.
+ */
+public class LogisticRegressionClassifier {
+
+    /**
+     * The seed used to shuffle the training samples.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * The number of passes over the training samples.
+     */
+    private final int epochs;
+
+    /**
+     * The initial learning rate of the gradient descent.
+     * <p>
+     * The learning rate decreases over the epochs to stabilize the weights.
+     */
+    private final double learningRate;
+
+    /**
+     * The L2 regularization factor.
+     */
+    private final double regularization;
+
+    /**
+     * The weights of each class.
+     */
+    private double[][] weights;
+
+    /**
+     * Constructs an untrained {@link LogisticRegressionClassifier}.
+     *
+     * @param epochs         the number of passes over the training samples
+     * @param learningRate   the initial learning rate of the gradient descent
+     * @param regularization the L2 regularization factor
+     * @throws IllegalArgumentException if {@code epochs} or {@code learningRate} is not positive, or if {@code
+     *                                  regularization} is negative
+     */
+    public LogisticRegressionClassifier(int epochs, double learningRate, double regularization) {
+        checkArgument(epochs > 0 && learningRate > 0 && regularization >= 0, "Cannot create a %s with the provided "
+                        + "values (epochs=%s, learningRate=%s, regularization=%s)",
+                LogisticRegressionClassifier.class.getSimpleName(), epochs, learningRate, regularization);
+        this.epochs = epochs;
+        this.learningRate = learningRate;
+        this.regularization = regularization;
+    }
+
+    /**
+     * Trains the classifier with the provided {@code samples}.
+     *
+     * @param samples      the training samples
+     * @param labels       the class of each sample, between {@code 0} and {@code classCount - 1}
+     * @param classCount   the number of classes
+     * @param featureCount the number of features of the samples
+     * @throws NullPointerException     if the provided {@code samples} or {@code labels} is {@code null}
+     * @throws IllegalArgumentException if the number of {@code samples} and {@code labels} are different, or if
+     *                                  {@code classCount} is not positive
+     */
+    public void train(@NonNull List<SparseVector> samples, @NonNull int[] labels, int classCount, int featureCount) {
+        checkArgument(samples.size() == labels.length, "Cannot train the classifier with %s samples and %s labels",
+                samples.size(), labels.length);
+        checkArgument(classCount > 0, "Cannot train the classifier with %s classes", classCount);
+        this.weights = new double[classCount][featureCount];
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            order.add(i);
+        }
+        /*
+         * The regularization is applied lazily: the decay of a feature is only applied when the feature is used by a
+         * sample (and once at the end of the training), instead of decaying all the weights at the end of each
+         * epoch. cumulativeDecays[e] contains the log of the decay applied from the beginning of the training to
+         * the beginning of epoch e, and decayedEpochs[f] the epoch the weights of f have been decayed to.
+         */
+        double[] cumulativeDecays = new double[epochs + 1];
+        int[] decayedEpochs = new int[featureCount];
+        Random random = new Random(SEED);
+        double[] probabilities = new double[classCount];
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            double rate = learningRate / (1 + epoch * 0.05);
+            Collections.shuffle(order, random);
+            for (int sampleIndex : order) {
+                SparseVector sample = samples.get(sampleIndex);
+                for (int i = 0; i < sample.size(); i++) {
+                    applyDecay(sample.getIndex(i), epoch, cumulativeDecays, decayedEpochs);
+                }
+                computeProbabilities(sample, null, probabilities);
+                for (int c = 0; c < classCount; c++) {
+                    double error = probabilities[c] - (labels[sampleIndex] == c ? 1 : 0);
+                    double[] classWeights = weights[c];
+                    for (int i = 0; i < sample.size(); i++) {
+                        classWeights[sample.getIndex(i)] -= rate * error * sample.getValue(i);
+                    }
+                }
+            }
+            /*
+             * Bound the decay to keep the logarithm finite, a decay of Double.MIN_NORMAL already clears the weights.
+             */
+            cumulativeDecays[epoch + 1] = cumulativeDecays[epoch]
+                    + Math.log(Math.max(1 - rate * regularization, Double.MIN_NORMAL));
+        }
+        for (int feature = 0; feature < featureCount; feature++) {
+            applyDecay(feature, epochs, cumulativeDecays, decayedEpochs);
+        }
+    }
+
+    /**
+     * Applies the pending regularization decay to the weights of the provided {@code feature}.
+     *
+     * @param feature          the feature to decay the weights of
+     * @param epoch            the epoch to decay the weights to
+     * @param cumulativeDecays the log of the decay applied from the beginning of the training to each epoch
+     * @param decayedEpochs    the epoch the weights of each feature have been decayed to
+     */
+    private void applyDecay(int feature, int epoch, double[] cumulativeDecays, int[] decayedEpochs) {
+        int decayedEpoch = decayedEpochs[feature];
+        if (decayedEpoch == epoch) {
+            return;
+        }
+        double decay = Math.exp(cumulativeDecays[epoch] - cumulativeDecays[decayedEpoch]);
+        for (double[] classWeights : weights) {
+            classWeights[feature] *= decay;
+        }
+        decayedEpochs[feature] = epoch;
+    }
+
+    /**
+     * Returns whether the classifier has been trained.
+     *
+     * @return {@code true} if the classifier has been trained, {@code false} otherwise
+     */
+    public boolean isTrained() {
+        return nonNull(weights);
+    }
+
+    /**
+     * Computes the probability of each class for the provided {@code sample}.
+     * <p>
+     * The probabilities are computed over the {@code allowedClasses} only (the probability of the other classes is
+     * set to {@code 0}). This allows to restrict the prediction to the classes that can be matched in a given
+     * context. The returned probabilities do not include the one of the implicit <i>none</i> class, and their sum
+     * is lower than {@code 1}.
+     *
+     * @param sample         the sample to classify
+     * @param allowedClasses the classes that can be predicted, or {@code null} to allow all the classes
+     * @return the probability of each class
+     * @throws NullPointerException  if the provided {@code sample} is {@code null}
+     * @throws IllegalStateException if the classifier hasn't been trained
+     */
+    public double[] predictProbabilities(@NonNull SparseVector sample, @Nullable boolean[] allowedClasses) {
+        checkState(isTrained(), "Cannot classify the provided sample, the classifier hasn't been trained");
+        double[] probabilities = new double[weights.length];
+        computeProbabilities(sample, allowedClasses, probabilities);
+        return probabilities;
+    }
+
+    /**
+     * Computes the softmax probabilities of the provided {@code sample} and stores them in {@code probabilities}.
+     *
+     * @param sample         the sample to classify
+     * @param allowedClasses the classes that can be predicted, or {@code null} to allow all the classes
+     * @param probabilities  the array to store the probabilities in
+     */
+    private void computeProbabilities(SparseVector sample, @Nullable boolean[] allowedClasses,
+                                      double[] probabilities) {
+        /*
+         * The score of the none class is 0.
+         */
+        double max = 0;
+        for (int c = 0; c < weights.length; c++) {
+            if (nonNull(allowedClasses) && !allowedClasses[c]) {
+                probabilities[c] = Double.NEGATIVE_INFINITY;
+            } else {
+                probabilities[c] = sample.dot(weights[c]);
+                max = Math.max(max, probabilities[c]);
+            }
+        }
+        /*
+         * Subtract the max score to avoid overflows, Math.exp(-Infinity) returns 0 for the disallowed classes.
+         */
+        double sum = Math.exp(-max);
+        for (int c = 0; c < probabilities.length; c++) {
+            probabilities[c] = Math.exp(probabilities[c] - max);
+            sum += probabilities[c];
+        }
+        for (int c = 0; c < probabilities.length; c++) {
+            probabilities[c] /= sum;
+        }
+    }
+}
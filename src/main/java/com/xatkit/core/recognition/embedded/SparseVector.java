@@ -0,0 +1,113 @@
+package com.xatkit.core.recognition.embedded;
+
+import lombok.NonNull;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * An immutable sparse vector of {@code double} values.
+ * <p>
+ * This class stores the non-zero values of the vector and their indices, sorted by index. It is used to represent
+ * the TF-IDF features of a sentence, which typically contain a few dozens of non-zero values out of thousands of
+ * features.
+ *
+ * @see TfIdfVectorizer
+ */
+public final class SparseVector {
+
+    /**
+     * The indices of the non-zero values, in ascending order.
+     */
+    private final int[] indices;
+
+    /**
+     * The non-zero values.
+     */
+    private final double[] values;
+
+    /**
+     * Constructs a {@link SparseVector} with the provided {@code indices} and {@code values}.
+     * <p>
+     * <b>Note</b>: this constructor does not copy the provided arrays, they must not be modified by the caller.
+     *
+     * @param indices the indices of the non-zero values, in ascending order
+     * @param values  the non-zero values
+     * @throws NullPointerException     if the provided {@code indices} or {@code values} is {@code null}
+     * @throws IllegalArgumentException if the provided arrays do not have the same length
+     */
+    SparseVector(@NonNull int[] indices, @NonNull double[] values) {
+        checkArgument(indices.length == values.length, "Cannot create a %s with %s indices and %s values",
+                SparseVector.class.getSimpleName(), indices.length, values.length);
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Returns the number of non-zero values in this vector.
+     *
+     * @return the number of non-zero values
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Returns the index of the {@code i}-th non-zero value.
+     *
+     * @param i the position of the non-zero value
+     * @return the index of the value
+     */
+    public int getIndex(int i) {
+        return indices[i];
+    }
+
+    /**
+     * Returns the {@code i}-th non-zero value.
+     *
+     * @param i the position of the non-zero value
+     * @return the value
+     */
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Computes the dot product of this vector and the provided {@code dense} vector.
+     *
+     * @param dense the dense vector to multiply
+     * @return the dot product
+     */
+    public double dot(@NonNull double[] dense) {
+        double result = 0;
+        for (int i = 0; i < indices.length; i++) {
+            result += values[i] * dense[indices[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the dot product of this vector and the provided {@code other} sparse vector.
+     * <p>
+     * This method returns the cosine similarity of the vectors if they are L2-normalized.
+     *
+     * @param other the sparse vector to multiply
+     * @return the dot product
+     */
+    public double dot(@NonNull SparseVector other) {
+        double result = 0;
+        int i = 0;
+        int j = 0;
+        while (i < indices.length && j < other.indices.length) {
+            if (indices[i] == other.indices[j]) {
+                result += values[i] * other.values[j];
+                i++;
+                j++;
+            } else if (indices[i] < other.indices[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package com.xatkit.core.recognition.embedded;
+
+import lombok.NonNull;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * Transforms sentences into character n-gram TF-IDF {@link SparseVector}s.
+ * <p>
+ * Sentences are normalized (lower-cased, punctuation removed) and padded with spaces before extracting their
+ * character n-grams, meaning that n-grams at the boundaries of a word are distinguished from n-grams inside a word.
+ * Character n-grams are robust to typos and inflections, and do not require a language-specific tokenizer.
+ * <p>
+ * The vocabulary and the inverse document frequencies are computed by {@link #fit(Collection)}, n-grams that are
+ * not part of the vocabulary are ignored by {@link #transform(String)}. The produced vectors use sub-linear term
+ * frequencies and are L2-normalized.
+ */
+public class TfIdfVectorizer {
+
+    /**
+     * The {@link Pattern} matching the sequences of characters that are not letters or digits.
+     */
+    private static final Pattern NON_WORD_CHARACTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * The minimum size of the extracted n-grams.
+     */
+    private final int minNgram;
+
+    /**
+     * The maximum size of the extracted n-grams.
+     */
+    private final int maxNgram;
+
+    /**
+     * The index of each n-gram in the vocabulary.
+     */
+    private Map<String, Integer> vocabulary;
+
+    /**
+     * The inverse document frequency of each n-gram in the vocabulary.
+     */
+    private double[] idf;
+
+    /**
+     * Constructs a {@link TfIdfVectorizer} extracting n-grams of the provided sizes.
+     *
+     * @param minNgram the minimum size of the extracted n-grams
+     * @param maxNgram the maximum size of the extracted n-grams
+     * @throws IllegalArgumentException if {@code minNgram < 1} or {@code maxNgram < minNgram}
+     */
+    public TfIdfVectorizer(int minNgram, int maxNgram) {
+        checkArgument(minNgram > 0 && maxNgram >= minNgram, "Cannot create a %s with the provided n-gram range "
+                + "[%s, %s]", TfIdfVectorizer.class.getSimpleName(), minNgram, maxNgram);
+        this.minNgram = minNgram;
+        this.maxNgram = maxNgram;
+        this.vocabulary = new HashMap<>();
+        this.idf = new double[0];
+    }
+
+    /**
+     * Normalizes the provided {@code sentence}.
+     * <p>
+     * This method lower-cases the {@code sentence}, replaces sequences of non-word characters by a single space, and
+     * trims the result.
+     *
+     * @param sentence the sentence to normalize
+     * @return the normalized sentence
+     */
+    static String normalize(@NonNull String sentence) {
+        String normalized = Normalizer.normalize(sentence, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return NON_WORD_CHARACTERS.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Computes the vocabulary and the inverse document frequencies from the provided {@code sentences}.
+     * <p>
+     * This method resets the state of the vectorizer.
+     *
+     * @param sentences the training sentences
+     * @throws NullPointerException if the provided {@code sentences} is {@code null}
+     */
+    public void fit(@NonNull Collection<String> sentences) {
+        /*
+         * Use a sorted map to get a deterministic vocabulary.
+         */
+        Map<String, Integer> documentFrequencies = new TreeMap<>();
+        for (String sentence : sentences) {
+            for (String ngram : countNgrams(sentence).keySet()) {
+                documentFrequencies.merge(ngram, 1, Integer::sum);
+            }
+        }
+        this.vocabulary = new HashMap<>();
+        this.idf = new double[documentFrequencies.size()];
+        int documentCount = sentences.size();
+        for (Map.Entry<String, Integer> entry : documentFrequencies.entrySet()) {
+            int index = vocabulary.size();
+            vocabulary.put(entry.getKey(), index);
+            idf[index] = Math.log((1.0 + documentCount) / (1.0 + entry.getValue())) + 1;
+        }
+    }
+
+    /**
+     * Transforms the provided {@code sentence} into a L2-normalized TF-IDF {@link SparseVector}.
+     * <p>
+     * The returned vector is empty if the {@code sentence} does not contain any n-gram of the vocabulary.
+     *
+     * @param sentence the sentence to transform
+     * @return the created {@link SparseVector}
+     * @throws NullPointerException if the provided {@code sentence} is {@code null}
+     */
+    public SparseVector transform(@NonNull String sentence) {
+        Map<Integer, Double> weights = new TreeMap<>();
+        for (Map.Entry<String, Integer> entry : countNgrams(sentence).entrySet()) {
+            Integer index = vocabulary.get(entry.getKey());
+            if (nonNull(index)) {
+                weights.put(index, (1 + Math.log(entry.getValue())) * idf[index]);
+            }
+        }
+        double norm = Math.sqrt(weights.values().stream().mapToDouble(w -> w * w).sum());
+        int[] indices = new int[weights.size()];
+        double[] values = new double[weights.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+            indices[i] = entry.getKey();
+            values[i] = entry.getValue() / norm;
+            i++;
+        }
+        return new SparseVector(indices, values);
+    }
+
+    /**
+     * Returns the number of n-grams in the vocabulary.
+     *
+     * @return the size of the vocabulary
+     */
+    public int getVocabularySize() {
+        return vocabulary.size();
+    }
+
+    /**
+     * Counts the n-grams of the provided {@code sentence}.
+     *
+     * @param sentence the sentence to extract the n-grams from
+     * @return a {@link Map} containing the number of occurrences of each n-gram
+     */
+    private Map<String, Integer> countNgrams(String sentence) {
+        Map<String, Integer> counts = new HashMap<>();
+        String normalized = normalize(sentence);
+        if (normalized.isEmpty()) {
+            return counts;
+        }
+        String padded = " " + normalized + " ";
+        for (int n = minNgram; n <= maxNgram; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                counts.merge(padded.substring(i, i + n), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,139 @@
+package com.xatkit.core.recognition.evaluation;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.xatkit.core.XatkitException;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Reads the {@link EvaluationSample}s of an evaluation corpus.
+ * <p>
+ * A corpus contains a sequence of JSON values, each value being one of:
+ * <ul>
+ *     <li>a sample object</li>
+ *     <li>an array of sample objects</li>
+ *     <li>an object containing an {@code entries} array of sample objects</li>
+ * </ul>
+ * This allows to use JSON line files (one sample per line), as well as the outputs of the
+ * {@code /analytics/monitoring/unmatched} and {@code /analytics/monitoring/matched} endpoints (paginated or not). A
+ * sample object must contain an {@code utterance} field, and can contain an {@code expectedIntent} field (or an
+ * {@code intent} field) holding the name of the intent the utterance is expected to be recognized as.
+ * <p>
+ * The listing below shows an example of a corpus:
+ * <pre>
+ * {@code
+ * {"utterance": "hi", "expectedIntent": "Welcome"}
+ * {"utterance": "how are you?", "expectedIntent": "HowAreYou"}
+ * {"utterance": "whats up"}
+ * }
+ * </pre>
+ */
+public final class EvaluationCorpus {
+
+    /**
+     * Disables the default constructor, this class only provides static methods and should not be constructed.
+     */
+    private EvaluationCorpus() {
+    }
+
+    /**
+     * Reads the {@link EvaluationSample}s contained in the provided {@code file}.
+     *
+     * @param file the corpus file to read
+     * @return the {@link EvaluationSample}s contained in the file
+     * @throws NullPointerException if the provided {@code file} is {@code null}
+     * @throws XatkitException      if an error occurred when reading the file, or if the file is not a valid corpus
+     * @see #read(Reader)
+     */
+    public static List<EvaluationSample> read(@NonNull File file) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8))) {
+            return read(reader);
+        } catch (IOException e) {
+            throw new XatkitException(MessageFormat.format("Cannot read the evaluation corpus {0}",
+                    file.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Reads the {@link EvaluationSample}s from the provided {@code reader}.
+     * <p>
+     * Sample objects that do not contain an {@code utterance} are ignored. This method does not close the provided
+     * {@code reader}.
+     *
+     * @param reader the {@link Reader} to read the corpus from
+     * @return the {@link EvaluationSample}s read from the {@code reader}
+     * @throws NullPointerException if the provided {@code reader} is {@code null}
+     * @throws XatkitException      if an error occurred when reading the corpus, or if the corpus is not valid
+     */
+    public static List<EvaluationSample> read(@NonNull Reader reader) {
+        List<EvaluationSample> samples = new ArrayList<>();
+        JsonReader jsonReader = new JsonReader(reader);
+        /*
+         * Lenient mode allows to read multiple top-level values (e.g. JSON lines).
+         */
+        jsonReader.setLenient(true);
+        JsonParser parser = new JsonParser();
+        try {
+            while (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                addSamples(parser.parse(jsonReader), samples);
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new XatkitException("Cannot read the evaluation corpus: invalid JSON content", e);
+        }
+        return samples;
+    }
+
+    /**
+     * Adds the samples contained in the provided {@code element} to the given {@code samples}.
+     *
+     * @param element the {@link JsonElement} containing the samples
+     * @param samples the {@link List} to add the samples to
+     * @throws XatkitException if the provided {@code element} does not represent samples
+     */
+    private static void addSamples(JsonElement element, List<EvaluationSample> samples) {
+        if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                addSamples(child, samples);
+            }
+        } else if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            JsonElement entries = object.get("entries");
+            if (entries instanceof JsonArray) {
+                addSamples(entries, samples);
+                return;
+            }
+            JsonElement utterance = object.get("utterance");
+            if (isNull(utterance) || !utterance.isJsonPrimitive()) {
+                Log.warn("Ignoring the evaluation sample {0}: missing utterance", object);
+                return;
+            }
+            JsonElement expectedIntent = object.has("expectedIntent") ? object.get("expectedIntent") :
+                    object.get("intent");
+            samples.add(new EvaluationSample(utterance.getAsString(),
+                    isNull(expectedIntent) || expectedIntent.isJsonNull() ? null : expectedIntent.getAsString()));
+        } else if (!element.isJsonNull()) {
+            throw new XatkitException(MessageFormat.format("Invalid evaluation sample {0}: expected a JSON object",
+                    element));
+        }
+    }
+}
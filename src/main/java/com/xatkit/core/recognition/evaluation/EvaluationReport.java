@@ -0,0 +1,300 @@
+package com.xatkit.core.recognition.evaluation;
+
+import com.google.gson.JsonObject;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics computed from the {@link EvaluationResult}s of an evaluation.
+ * <p>
+ * The quality metrics (accuracy, confusion matrix, precision and recall of each intent) are computed from the
+ * labeled samples that have been successfully recognized. The latency percentiles are computed from all the
+ * successful recognitions.
+ *
+ * @see EvaluationRunner
+ */
+@Value
+public class EvaluationReport {
+
+    /**
+     * The percentiles of the recognition latency included in the report.
+     */
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    /**
+     * The {@link EvaluationResult}s of the evaluation, in the order of the evaluated samples.
+     */
+    private List<EvaluationResult> results;
+
+    /**
+     * The number of labeled samples.
+     */
+    private int labeledCount;
+
+    /**
+     * The number of samples that could not be recognized.
+     */
+    private int failedCount;
+
+    /**
+     * The ratio of labeled samples recognized as their expected intent.
+     */
+    private double accuracy;
+
+    /**
+     * The confusion matrix of the labeled samples.
+     * <p>
+     * This {@link Map} associates each expected intent to the number of times each intent has been recognized for
+     * its samples.
+     */
+    private Map<String, Map<String, Long>> confusionMatrix;
+
+    /**
+     * The {@link IntentMetrics} of each intent, indexed by intent name.
+     */
+    private Map<String, IntentMetrics> intentMetrics;
+
+    /**
+     * The number of times each intent has been recognized, including for unlabeled samples.
+     */
+    private Map<String, Long> recognitionCounts;
+
+    /**
+     * The latency percentiles (in milliseconds), indexed by percentile.
+     */
+    private Map<Double, Double> latencyPercentiles;
+
+    /**
+     * The maximum latency (in milliseconds).
+     */
+    private double maxLatency;
+
+    /**
+     * The duration (in milliseconds) of the evaluation.
+     */
+    private long duration;
+
+    /**
+     * Computes the {@link EvaluationReport} of the provided {@code results}.
+     *
+     * @param results  the {@link EvaluationResult}s of the evaluation
+     * @param duration the duration (in milliseconds) of the evaluation
+     * @throws NullPointerException if the provided {@code results} is {@code null}
+     */
+    EvaluationReport(@NonNull List<EvaluationResult> results, long duration) {
+        this.results = Collections.unmodifiableList(results);
+        this.duration = duration;
+        Map<String, Map<String, Long>> matrix = new TreeMap<>();
+        Map<String, Long> recognitions = new TreeMap<>();
+        long[] latencies = new long[results.size()];
+        int latencyCount = 0;
+        int labeled = 0;
+        int failed = 0;
+        long correct = 0;
+        long evaluated = 0;
+        for (EvaluationResult result : results) {
+            if (result.getSample().isLabeled()) {
+                labeled++;
+            }
+            if (result.isFailed()) {
+                failed++;
+                continue;
+            }
+            latencies[latencyCount++] = result.getLatency();
+            recognitions.merge(result.getRecognizedIntent(), 1L, Long::sum);
+            if (result.getSample().isLabeled()) {
+                evaluated++;
+                String expected = result.getSample().getExpectedIntent();
+                matrix.computeIfAbsent(expected, k -> new TreeMap<>()).merge(result.getRecognizedIntent(), 1L,
+                        Long::sum);
+                if (expected.equals(result.getRecognizedIntent())) {
+                    correct++;
+                }
+            }
+        }
+        this.labeledCount = labeled;
+        this.failedCount = failed;
+        this.accuracy = evaluated == 0 ? 0 : (double) correct / evaluated;
+        this.confusionMatrix = Collections.unmodifiableMap(matrix);
+        this.recognitionCounts = Collections.unmodifiableMap(recognitions);
+        this.intentMetrics = Collections.unmodifiableMap(computeIntentMetrics(matrix));
+        long[] sortedLatencies = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sortedLatencies);
+        Map<Double, Double> percentiles = new TreeMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put(percentile, toMillis(percentile(sortedLatencies, percentile)));
+        }
+        this.latencyPercentiles = Collections.unmodifiableMap(percentiles);
+        this.maxLatency = latencyCount == 0 ? 0 : toMillis(sortedLatencies[latencyCount - 1]);
+    }
+
+    /**
+     * Returns the number of evaluated samples.
+     *
+     * @return the number of evaluated samples
+     */
+    public int getSampleCount() {
+        return results.size();
+    }
+
+    /**
+     * Returns a {@link JsonObject} representing this report.
+     * <p>
+     * The listing below shows an example of the returned JSON object:
+     * <pre>
+     * {@code
+     * {
+     *     "sampleCount": 3,
+     *     "labeledCount": 2,
+     *     "failedCount": 0,
+     *     "duration": 120,
+     *     "accuracy": 0.5,
+     *     "intents": {
+     *         "Welcome": {
+     *             "precision": 1.0,
+     *             "recall": 0.5,
+     *             "f1": 0.666,
+     *             "support": 2
+     *         }
+     *     },
+     *     "confusionMatrix": {
+     *         "Welcome": {
+     *             "Welcome": 1,
+     *             "Default_Fallback_Intent": 1
+     *         }
+     *     },
+     *     "recognitionCounts": {
+     *         "Welcome": 1,
+     *         "Default_Fallback_Intent": 2
+     *     },
+     *     "latency": {
+     *         "p50": 12.5,
+     *         "p90": 40.1,
+     *         "p95": 41.0,
+     *         "p99": 42.3,
+     *         "max": 42.3
+     *     }
+     * }
+     * }
+     * </pre>
+     *
+     * @return the {@link JsonObject} representing this report
+     */
+    public JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("sampleCount", getSampleCount());
+        result.addProperty("labeledCount", labeledCount);
+        result.addProperty("failedCount", failedCount);
+        result.addProperty("duration", duration);
+        result.addProperty("accuracy", accuracy);
+        JsonObject intents = new JsonObject();
+        intentMetrics.forEach((intentName, metrics) -> {
+            JsonObject metricsObject = new JsonObject();
+            metricsObject.addProperty("precision", metrics.getPrecision());
+            metricsObject.addProperty("recall", metrics.getRecall());
+            metricsObject.addProperty("f1", metrics.getF1());
+            metricsObject.addProperty("support", metrics.getSupport());
+            intents.add(intentName, metricsObject);
+        });
+        result.add("intents", intents);
+        JsonObject matrix = new JsonObject();
+        confusionMatrix.forEach((expected, row) -> {
+            JsonObject rowObject = new JsonObject();
+            row.forEach(rowObject::addProperty);
+            matrix.add(expected, rowObject);
+        });
+        result.add("confusionMatrix", matrix);
+        JsonObject recognitions = new JsonObject();
+        recognitionCounts.forEach(recognitions::addProperty);
+        result.add("recognitionCounts", recognitions);
+        JsonObject latency = new JsonObject();
+        latencyPercentiles.forEach((percentile, value) -> latency.addProperty("p" + percentile.intValue(), value));
+        latency.addProperty("max", maxLatency);
+        result.add("latency", latency);
+        return result;
+    }
+
+    /**
+     * Computes the {@link IntentMetrics} of each intent from the provided confusion {@code matrix}.
+     *
+     * @param matrix the confusion matrix to compute the metrics from
+     * @return the {@link IntentMetrics} of each intent, indexed by intent name
+     */
+    private static Map<String, IntentMetrics> computeIntentMetrics(Map<String, Map<String, Long>> matrix) {
+        Set<String> intents = new TreeSet<>(matrix.keySet());
+        matrix.values().forEach(row -> intents.addAll(row.keySet()));
+        Map<String, IntentMetrics> result = new TreeMap<>();
+        for (String intent : intents) {
+            Map<String, Long> row = matrix.getOrDefault(intent, Collections.emptyMap());
+            long truePositives = row.getOrDefault(intent, 0L);
+            long support = row.values().stream().mapToLong(Long::longValue).sum();
+            long predicted = matrix.values().stream().mapToLong(r -> r.getOrDefault(intent, 0L)).sum();
+            double precision = predicted == 0 ? 0 : (double) truePositives / predicted;
+            double recall = support == 0 ? 0 : (double) truePositives / support;
+            double f1 = precision + recall == 0 ? 0 : 2 * precision * recall / (precision + recall);
+            result.put(intent, new IntentMetrics(precision, recall, f1, support));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the provided {@code percentile} of the given {@code sortedValues} (nearest-rank method).
+     *
+     * @param sortedValues the values to compute the percentile of, in ascending order
+     * @param percentile   the percentile to compute
+     * @return the percentile, or {@code 0} if the provided {@code sortedValues} is empty
+     */
+    private static long percentile(long[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedValues.length);
+        return sortedValues[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Converts the provided {@code nanos} to milliseconds.
+     *
+     * @param nanos the duration to convert (in nanoseconds)
+     * @return the duration in milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The quality metrics of an intent.
+     */
+    @Value
+    public static class IntentMetrics {
+
+        /**
+         * The ratio of samples recognized as the intent that are expected to be recognized as the intent.
+         */
+        private double precision;
+
+        /**
+         * The ratio of samples expected to be recognized as the intent that are recognized as the intent.
+         */
+        private double recall;
+
+        /**
+         * The harmonic mean of the {@link #precision} and {@link #recall}.
+         */
+        private double f1;
+
+        /**
+         * The number of samples expected to be recognized as the intent.
+         */
+        private long support;
+    }
+}
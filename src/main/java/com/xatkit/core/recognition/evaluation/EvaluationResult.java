@@ -0,0 +1,53 @@
+package com.xatkit.core.recognition.evaluation;
+
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.isNull;
+
+/**
+ * The result of the evaluation of an {@link EvaluationSample}.
+ *
+ * @see EvaluationRunner
+ */
+@Value
+public class EvaluationResult {
+
+    /**
+     * The evaluated {@link EvaluationSample}.
+     */
+    private EvaluationSample sample;
+
+    /**
+     * The name of the recognized intent, or {@code null} if the recognition failed.
+     */
+    @Nullable
+    private String recognizedIntent;
+
+    /**
+     * Whether the sample has been matched to an intent (i.e. the recognized intent is not the default fallback).
+     * <p>
+     * This value is {@code false} if the recognition failed.
+     */
+    private boolean matched;
+
+    /**
+     * The confidence of the recognition.
+     */
+    private float recognitionConfidence;
+
+    /**
+     * The time (in nanoseconds) spent to recognize the intent.
+     */
+    private long latency;
+
+    /**
+     * Returns whether the recognition of the sample failed.
+     *
+     * @return {@code true} if the recognition failed, {@code false} otherwise
+     */
+    public boolean isFailed() {
+        return isNull(recognizedIntent);
+    }
+}
@@ -0,0 +1,302 @@
+package com.xatkit.core.recognition.evaluation;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.RecognizedIntent;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+
+/**
+ * Evaluates an {@link IntentRecognitionProvider} against a corpus of {@link EvaluationSample}s.
+ * <p>
+ * The samples are recognized by a bounded number of worker threads. Each worker creates a single
+ * {@link StateContext} with the {@link ContextFactory} and reuses it for all the samples it recognizes. The
+ * recognitions can be rate-limited to evaluate providers backed by remote APIs with request quotas (e.g.
+ * DialogFlow).
+ * <p>
+ * The recognitions of the evaluation contexts are not logged in the
+ * {@link com.xatkit.core.recognition.RecognitionMonitor} of the evaluated provider (see
+ * {@link #isEvaluationContext(StateContext)}), so the evaluation does not pollute the analytics of a running bot.
+ * <p>
+ * The listing below shows how to evaluate a provider with the unmatched utterances of a bot:
+ * <pre>
+ * {@code
+ * List<EvaluationSample> samples = EvaluationCorpus.read(new File("unmatched.json"));
+ * EvaluationRunner runner = new EvaluationRunner(provider, contextId -> {
+ *     StateContext context = provider.createContext(contextId);
+ *     context.setState(state);
+ *     return context;
+ * }, 4, 20);
+ * EvaluationReport report = runner.run(samples);
+ * System.out.println(report.toJson());
+ * }
+ * </pre>
+ *
+ * @see EvaluationCorpus
+ * @see EvaluationReport
+ */
+public class EvaluationRunner {
+
+    /**
+     * The prefix of the identifiers of the {@link StateContext}s created by the workers.
+     * <p>
+     * This prefix only names the contexts: the evaluation contexts are identified with
+     * {@link #isEvaluationContext(StateContext)}, so user sessions with a similar identifier are not affected.
+     */
+    public static final String CONTEXT_ID_PREFIX = "xatkit-evaluation-";
+
+    /**
+     * The {@link StateContext}s currently used by the workers of the runners.
+     *
+     * @see #isEvaluationContext(StateContext)
+     */
+    private static final Set<StateContext> EVALUATION_CONTEXTS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * The {@link IntentRecognitionProvider} to evaluate.
+     */
+    private final IntentRecognitionProvider provider;
+
+    /**
+     * The {@link ContextFactory} used to create the {@link StateContext}s of the workers.
+     */
+    private final ContextFactory contextFactory;
+
+    /**
+     * The number of worker threads.
+     */
+    private final int concurrency;
+
+    /**
+     * The {@link RateLimiter} bounding the number of recognitions per second, or {@code null} if the recognitions
+     * are not rate-limited.
+     */
+    @Nullable
+    private volatile RateLimiter rateLimiter;
+
+    /**
+     * Constructs an {@link EvaluationRunner} evaluating the provided {@code provider} against the given
+     * {@code intents}.
+     * <p>
+     * The {@link StateContext}s of the workers are created with
+     * {@link IntentRecognitionProvider#createContext(String)}, and are set with a {@link com.xatkit.execution.State}
+     * accepting all the provided {@code intents} (typically the intents registered in the provider).
+     *
+     * @param provider    the {@link IntentRecognitionProvider} to evaluate
+     * @param intents     the {@link IntentDefinition}s that can be recognized by the workers
+     * @param concurrency the number of worker threads
+     * @param maxRate     the maximum number of recognitions per second, or {@code 0} to disable rate limiting
+     * @throws NullPointerException     if the provided {@code provider} or {@code intents} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code concurrency} is not positive or if the provided
+     *                                  {@code maxRate} is negative
+     * @see #EvaluationRunner(IntentRecognitionProvider, ContextFactory, int, double)
+     */
+    public EvaluationRunner(@NonNull IntentRecognitionProvider provider,
+                            @NonNull Collection<? extends IntentDefinition> intents, int concurrency,
+                            double maxRate) {
+        this(provider, acceptingContextFactory(provider, new EvaluationState(intents)), concurrency, maxRate);
+    }
+
+    /**
+     * Constructs an {@link EvaluationRunner} evaluating the provided {@code provider}.
+     * <p>
+     * The provided {@code contextFactory} typically sets the {@link com.xatkit.execution.State} of the created
+     * contexts, defining the intents that can be recognized.
+     *
+     * @param provider       the {@link IntentRecognitionProvider} to evaluate
+     * @param contextFactory the {@link ContextFactory} used to create the {@link StateContext}s of the workers
+     * @param concurrency    the number of worker threads
+     * @param maxRate        the maximum number of recognitions per second, or {@code 0} to disable rate limiting
+     * @throws NullPointerException     if the provided {@code provider} or {@code contextFactory} is {@code null}
+     * @throws IllegalArgumentException if the provided {@code concurrency} is not positive or if the provided
+     *                                  {@code maxRate} is negative
+     */
+    public EvaluationRunner(@NonNull IntentRecognitionProvider provider, @NonNull ContextFactory contextFactory,
+                            int concurrency, double maxRate) {
+        checkArgument(concurrency > 0, "Invalid concurrency %s: expected a positive value", concurrency);
+        checkArgument(maxRate >= 0, "Invalid rate %s: expected a positive value or 0", maxRate);
+        this.provider = provider;
+        this.contextFactory = contextFactory;
+        this.concurrency = concurrency;
+        this.rateLimiter = maxRate > 0 ? new RateLimiter(maxRate) : null;
+    }
+
+    /**
+     * Sets the maximum number of recognitions per second.
+     * <p>
+     * This method can be called while the runner is evaluating samples: the new rate applies to the next
+     * recognitions.
+     *
+     * @param maxRate the maximum number of recognitions per second, or {@code 0} to disable rate limiting
+     * @throws IllegalArgumentException if the provided {@code maxRate} is negative
+     */
+    public synchronized void setMaxRate(double maxRate) {
+        checkArgument(maxRate >= 0, "Invalid rate %s: expected a positive value or 0", maxRate);
+        RateLimiter currentRateLimiter = this.rateLimiter;
+        if (maxRate == 0) {
+            this.rateLimiter = null;
+        } else if (nonNull(currentRateLimiter)) {
+            currentRateLimiter.setRate(maxRate);
+        } else {
+            this.rateLimiter = new RateLimiter(maxRate);
+        }
+    }
+
+    /**
+     * Recognizes the provided {@code samples} and computes the {@link EvaluationReport} of the results.
+     * <p>
+     * Samples that cannot be recognized (i.e. the provider throws an {@link IntentRecognitionProviderException})
+     * are reported as failed, and do not stop the evaluation.
+     *
+     * @param samples the {@link EvaluationSample}s to recognize
+     * @return the {@link EvaluationReport} of the evaluation
+     * @throws NullPointerException if the provided {@code samples} is {@code null}
+     * @throws InterruptedException if the current thread is interrupted while waiting for the workers
+     * @throws XatkitException      if a worker cannot create its {@link StateContext}
+     */
+    public EvaluationReport run(@NonNull List<EvaluationSample> samples) throws InterruptedException {
+        EvaluationResult[] results = new EvaluationResult[samples.size()];
+        AtomicInteger nextSample = new AtomicInteger();
+        int workerCount = Math.max(1, Math.min(concurrency, samples.size()));
+        AtomicInteger workerId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "xatkit-evaluation-worker-" + workerId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Log.info("Evaluating {0} sample(s) with {1} worker(s)", samples.size(), workerCount);
+        long start = System.currentTimeMillis();
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++) {
+                String contextId = CONTEXT_ID_PREFIX + i;
+                workers.add(() -> {
+                    StateContext context = contextFactory.create(contextId);
+                    EVALUATION_CONTEXTS.add(context);
+                    try {
+                        int index;
+                        while ((index = nextSample.getAndIncrement()) < results.length
+                                && !Thread.currentThread().isInterrupted()) {
+                            results[index] = this.evaluate(samples.get(index), context);
+                        }
+                    } finally {
+                        EVALUATION_CONTEXTS.remove(context);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new XatkitException(MessageFormat.format("Cannot evaluate the {0}: a worker failed",
+                            provider.getClass().getSimpleName()), e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        EvaluationReport report = new EvaluationReport(Arrays.asList(results),
+                System.currentTimeMillis() - start);
+        Log.info("Evaluated {0} sample(s) in {1}ms (accuracy: {2}, failed: {3})", report.getSampleCount(),
+                report.getDuration(), report.getAccuracy(), report.getFailedCount());
+        return report;
+    }
+
+    /**
+     * Recognizes the provided {@code sample} with the given {@code context}.
+     *
+     * @param sample  the {@link EvaluationSample} to recognize
+     * @param context the {@link StateContext} of the worker
+     * @return the {@link EvaluationResult} of the recognition
+     * @throws InterruptedException if the current thread is interrupted while waiting for the rate limiter
+     */
+    private EvaluationResult evaluate(EvaluationSample sample, StateContext context) throws InterruptedException {
+        RateLimiter currentRateLimiter = this.rateLimiter;
+        if (nonNull(currentRateLimiter)) {
+            currentRateLimiter.acquire();
+        }
+        long start = System.nanoTime();
+        try {
+            RecognizedIntent recognizedIntent = provider.getIntent(sample.getUtterance(), context);
+            return new EvaluationResult(sample, recognizedIntent.getDefinition().getName(),
+                    recognizedIntent.getDefinition() != IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT,
+                    recognizedIntent.getRecognitionConfidence(), System.nanoTime() - start);
+        } catch (IntentRecognitionProviderException | RuntimeException e) {
+            Log.warn("Cannot recognize the utterance \"{0}\": {1}", sample.getUtterance(), e.getMessage());
+            return new EvaluationResult(sample, null, false, 0, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns whether the provided {@code context} is used by the worker of an {@link EvaluationRunner}.
+     * <p>
+     * The recognitions of these contexts are not logged in the {@link com.xatkit.core.recognition.RecognitionMonitor}
+     * of the provider (see
+     * {@link com.xatkit.core.recognition.AbstractIntentRecognitionProvider#logRecognizedIntent(StateContext,
+     * RecognizedIntent)}). The contexts are marked by the workers that create them, their identifier is not
+     * checked.
+     *
+     * @param context the {@link StateContext} to check
+     * @return {@code true} if the context is used by a worker, {@code false} otherwise
+     * @throws NullPointerException if the provided {@code context} is {@code null}
+     */
+    public static boolean isEvaluationContext(@NonNull StateContext context) {
+        return EVALUATION_CONTEXTS.contains(context);
+    }
+
+    /**
+     * Creates a {@link ContextFactory} setting the provided {@code state} in the contexts created by the
+     * {@code provider}.
+     *
+     * @param provider the {@link IntentRecognitionProvider} creating the contexts
+     * @param state    the {@link EvaluationState} to set in the created contexts
+     * @return the created {@link ContextFactory}
+     */
+    private static ContextFactory acceptingContextFactory(IntentRecognitionProvider provider,
+                                                          EvaluationState state) {
+        return contextId -> {
+            StateContext context = provider.createContext(contextId);
+            context.setState(state);
+            return context;
+        };
+    }
+
+    /**
+     * Creates the {@link StateContext} of a worker.
+     */
+    @FunctionalInterface
+    public interface ContextFactory {
+
+        /**
+         * Creates the {@link StateContext} with the provided {@code contextId}.
+         *
+         * @param contextId the identifier of the context to create
+         * @return the created {@link StateContext}
+         * @throws IntentRecognitionProviderException if an error occurred when creating the context
+         */
+        StateContext create(String contextId) throws IntentRecognitionProviderException;
+    }
+}
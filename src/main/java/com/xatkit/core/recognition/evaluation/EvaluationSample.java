@@ -0,0 +1,54 @@
+package com.xatkit.core.recognition.evaluation;
+
+import lombok.NonNull;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * An utterance of an evaluation corpus.
+ * <p>
+ * A sample is <i>labeled</i> if it defines the name of the intent it is expected to be recognized as. Unlabeled
+ * samples (e.g. utterances extracted from the {@code /analytics/monitoring/unmatched} endpoint) are evaluated, but
+ * are not included in the quality metrics of the {@link EvaluationReport}.
+ *
+ * @see EvaluationCorpus
+ */
+@Value
+public class EvaluationSample {
+
+    /**
+     * The utterance to evaluate.
+     */
+    private String utterance;
+
+    /**
+     * The name of the intent the utterance is expected to be recognized as, or {@code null} if the sample is not
+     * labeled.
+     */
+    @Nullable
+    private String expectedIntent;
+
+    /**
+     * Constructs an {@link EvaluationSample} with the provided {@code utterance} and {@code expectedIntent}.
+     *
+     * @param utterance      the utterance to evaluate
+     * @param expectedIntent the name of the intent the utterance is expected to be recognized as
+     * @throws NullPointerException if the provided {@code utterance} is {@code null}
+     */
+    public EvaluationSample(@NonNull String utterance, @Nullable String expectedIntent) {
+        this.utterance = utterance;
+        this.expectedIntent = expectedIntent;
+    }
+
+    /**
+     * Returns whether the sample defines the intent it is expected to be recognized as.
+     *
+     * @return {@code true} if the sample is labeled, {@code false} otherwise
+     */
+    public boolean isLabeled() {
+        return nonNull(expectedIntent);
+    }
+}
@@ -0,0 +1,51 @@
+package com.xatkit.core.recognition.evaluation;
+
+import com.xatkit.execution.State;
+import com.xatkit.execution.impl.StateImpl;
+import com.xatkit.intent.IntentDefinition;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * The {@link State} of the {@link com.xatkit.execution.StateContext}s created by the {@link EvaluationRunner}.
+ * <p>
+ * This state is not contained in a state machine: it accepts a fixed set of {@link IntentDefinition}s, returned by
+ * {@link #getAllAccessedIntents()} as if they were used in the state's transitions. This allows to evaluate a
+ * provider against all its registered intents without a bot model.
+ */
+class EvaluationState extends StateImpl implements State {
+
+    /**
+     * The name of the evaluation state.
+     */
+    private static final String STATE_NAME = "XatkitEvaluationState";
+
+    /**
+     * The {@link IntentDefinition}s accepted by this state.
+     */
+    private final Collection<IntentDefinition> acceptedIntents;
+
+    /**
+     * Constructs an {@link EvaluationState} accepting the provided {@code intents}.
+     *
+     * @param intents the {@link IntentDefinition}s accepted by the state
+     * @throws NullPointerException if the provided {@code intents} is {@code null}
+     */
+    EvaluationState(@NonNull Collection<? extends IntentDefinition> intents) {
+        this.name = STATE_NAME;
+        this.acceptedIntents = Collections.unmodifiableList(new ArrayList<>(intents));
+    }
+
+    /**
+     * Returns the {@link IntentDefinition}s accepted by this state.
+     *
+     * @return an unmodifiable {@link Collection} containing the accepted {@link IntentDefinition}s
+     */
+    @Override
+    public Collection<IntentDefinition> getAllAccessedIntents() {
+        return this.acceptedIntents;
+    }
+}
@@ -0,0 +1,66 @@
+package com.xatkit.core.recognition.evaluation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Limits the rate of the operations performed by a set of threads.
+ * <p>
+ * Permits are evenly spaced: the limiter does not allow bursts, even if it has not been used for a while. This
+ * class is thread-safe.
+ */
+class RateLimiter {
+
+    /**
+     * The time (in nanoseconds) between two permits.
+     */
+    private volatile long intervalNanos;
+
+    /**
+     * The time (in nanoseconds, see {@link System#nanoTime()}) of the next available permit.
+     */
+    private final AtomicLong nextPermit;
+
+    /**
+     * Constructs a {@link RateLimiter} delivering the provided number of {@code permitsPerSecond}.
+     *
+     * @param permitsPerSecond the number of permits delivered per second
+     * @throws IllegalArgumentException if the provided {@code permitsPerSecond} is not positive
+     */
+    RateLimiter(double permitsPerSecond) {
+        this.setRate(permitsPerSecond);
+        this.nextPermit = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Sets the number of permits delivered per second.
+     * <p>
+     * The new rate applies to the permits acquired after this call, the threads already waiting for a permit are
+     * not affected.
+     *
+     * @param permitsPerSecond the number of permits delivered per second
+     * @throws IllegalArgumentException if the provided {@code permitsPerSecond} is not positive
+     */
+    void setRate(double permitsPerSecond) {
+        checkArgument(permitsPerSecond > 0, "Invalid rate %s: expected a positive value", permitsPerSecond);
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Waits until a permit is available.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        long now = System.nanoTime();
+        long interval = intervalNanos;
+        long permit = Math.max(nextPermit.getAndAccumulate(now, (next, time) -> Math.max(next, time) + interval),
+                now);
+        long wait = permit - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.xatkit.core.recognition.nlpjs;
 
+import com.google.gson.Gson;
 import com.xatkit.core.EventDefinitionRegistry;
 import com.xatkit.core.recognition.AbstractIntentRecognitionProvider;
+import com.xatkit.core.recognition.IntentCandidate;
 import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.core.recognition.ReadinessPoller;
 import com.xatkit.core.recognition.RecognitionMonitor;
+import com.xatkit.core.recognition.TrainingFingerprint;
 import com.xatkit.core.recognition.nlpjs.mapper.NlpjsEntityMapper;
 import com.xatkit.core.recognition.nlpjs.mapper.NlpjsEntityReferenceMapper;
 import com.xatkit.core.recognition.nlpjs.mapper.NlpjsIntentMapper;
@@ -21,7 +25,6 @@ import com.xatkit.core.recognition.nlpjs.model.UserMessage;
 import com.xatkit.core.recognition.processor.SpacePunctuationPreProcessor;
 import com.xatkit.core.recognition.processor.TrimParameterValuesPostProcessor;
 import com.xatkit.core.recognition.processor.TrimPunctuationPostProcessor;
-import com.xatkit.execution.ExecutionFactory;
 import com.xatkit.execution.StateContext;
 import com.xatkit.intent.BaseEntityDefinition;
 import com.xatkit.intent.CompositeEntityDefinition;
@@ -31,13 +34,12 @@ import com.xatkit.intent.CustomEntityDefinition;
 import com.xatkit.intent.EntityDefinition;
 import com.xatkit.intent.EntityType;
 import com.xatkit.intent.IntentDefinition;
-import com.xatkit.intent.IntentFactory;
 import com.xatkit.intent.RecognizedIntent;
 import com.xatkit.util.IntentUtils;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
-import org.apache.commons.configuration2.ConfigurationConverter;
 
 import javax.annotation.Nullable;
 import java.text.MessageFormat;
@@ -47,6 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
 import static fr.inria.atlanmod.commons.Preconditions.checkNotNull;
@@ -149,6 +152,21 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
     @Nullable
     private RecognitionMonitor recognitionMonitor;
 
+    /**
+     * The fingerprint of the data used to train the NLP.js agent.
+     * <p>
+     * This fingerprint is used to skip the training if the registered intents and entities haven't changed since
+     * the last training.
+     *
+     * @see #trainMLEngine()
+     */
+    private TrainingFingerprint trainingFingerprint;
+
+    /**
+     * The {@link ReadinessPoller} used to wait for the NLP.js agent to be trained.
+     */
+    private ReadinessPoller readinessPoller;
+
 
     /**
      * Initializes the {@link NlpjsIntentRecognitionProvider}.
@@ -194,6 +212,7 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
         this.getPostProcessors().add(new TrimParameterValuesPostProcessor());
         this.getPreProcessors().add(new SpacePunctuationPreProcessor());
         this.configuration = new NlpjsConfiguration(configuration);
+        this.setSharedContextConfiguration(configuration);
         this.agentId = this.configuration.getAgentId();
         this.nlpjsEntityReferenceMapper = new NlpjsEntityReferenceMapper();
         this.nlpjsIntentMapper = new NlpjsIntentMapper(nlpjsEntityReferenceMapper);
@@ -203,6 +222,8 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
         this.recognitionMonitor = recognitionMonitor;
         this.intentsToRegister = new HashMap<>();
         this.entitiesToRegister = new HashMap<>();
+        this.trainingFingerprint = new TrainingFingerprint(configuration, "nlpjs-" + this.agentId);
+        this.readinessPoller = new ReadinessPoller(configuration);
         if (this.nlpjsClient.isShutdown()) {
             throw new RuntimeException(MessageFormat.format("Cannot connect to the NLP.js server "
                     + "(url = {0})", this.configuration.getNlpjsServer()));
@@ -370,42 +391,48 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
      * <p>
      * This method creates a new agent in the NLP.js server. If the server already contains an agent with the same
      * name it will be erased once this method completes.
+     * <p>
+     * The training is skipped if the agent is ready and has been trained with the same data (see
+     * {@link TrainingFingerprint}). Otherwise this method waits until the NLP.js agent is ready, and throws an
+     * exception if the agent is still not ready after {@link ReadinessPoller#TRAINING_TIMEOUT_KEY} milliseconds.
      *
      * @throws IntentRecognitionProviderException if an error occurred while training the NLP.js agent
      */
     @Override
     public void trainMLEngine() throws IntentRecognitionProviderException {
         checkNotShutdown();
-        Log.info("Starting NLP.js agent training (this may take a few minutes)");
-        this.nlpjsClient.createAgent(AgentInit.builder()
-                .agentId(this.configuration.getAgentId())
-                .language(this.configuration.getLanguageCode())
-                .build()
-        );
+        /*
+         * Sort the intents and entities to make sure the fingerprint doesn't depend on the registration order.
+         */
         TrainingData trainingData = TrainingData.builder()
                 .config(new AgentConfig(this.configuration.getLanguageCode(),
                         this.configuration.isCleanAgentOnStartup()))
-                .intents(new ArrayList<>(this.intentsToRegister.values()))
-                .entities(new ArrayList<>(this.entitiesToRegister.values()))
+                .intents(new ArrayList<>(new TreeMap<>(this.intentsToRegister).values()))
+                .entities(new ArrayList<>(new TreeMap<>(this.entitiesToRegister).values()))
                 .build();
+        String fingerprint = TrainingFingerprint.compute(new Gson().toJson(trainingData));
+        if (isTrainedWith(fingerprint)) {
+            Log.info("NLP.js agent {0} is already trained with the registered intents and entities, skipping "
+                    + "training", this.agentId);
+            return;
+        }
+        Log.info("Starting NLP.js agent training (this may take a few minutes)");
         try {
-            /*
-             * We try to train the agent 10 times (every 2 seconds) in case there is a network issue. After these 10
-             * tries we assume the NLP.js server is unreachable and throw an exception.
-             */
-            boolean isDone = false;
-            int attemptsLeft = 10;
+            this.nlpjsClient.createAgent(AgentInit.builder()
+                    .agentId(this.configuration.getAgentId())
+                    .language(this.configuration.getLanguageCode())
+                    .build()
+            );
             this.nlpjsClient.trainAgent(agentId, trainingData);
-            while (!isDone && attemptsLeft > 0) {
-                Thread.sleep(2000);
-                Agent agent = this.nlpjsClient.getAgentInfo(this.agentId);
-                if (agent.getStatus().equals(AgentStatus.READY)) {
-                    isDone = true;
-                } else {
-                    attemptsLeft--;
-                }
-            }
+            boolean isDone = this.readinessPoller.await(() ->
+                    AgentStatus.READY.equals(this.nlpjsClient.getAgentInfo(this.agentId).getStatus()));
             if (isDone) {
+                /*
+                 * Intents registered since the last training are only available now, we need to drop the results
+                 * computed with the previous agent.
+                 */
+                this.invalidateRecognitionCache();
+                this.trainingFingerprint.store(fingerprint);
                 Log.info("NLP.js agent trained.");
             } else {
                 throw new IntentRecognitionProviderException("Failed to train the NLP.js agent");
@@ -415,18 +442,38 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
         }
     }
 
+    /**
+     * Returns whether the NLP.js agent is ready and has been trained with the data matching the provided {@code
+     * fingerprint}.
+     * <p>
+     * NLP.js agents do not store custom metadata: this method relies on the fingerprint stored locally by the last
+     * successful training, and checks that the agent is still available on the server (agents are lost when the
+     * NLP.js server restarts).
+     *
+     * @param fingerprint the fingerprint of the current training data
+     * @return {@code true} if the agent is trained with the provided {@code fingerprint}, {@code false} otherwise
+     */
+    private boolean isTrainedWith(String fingerprint) {
+        if (!fingerprint.equals(this.trainingFingerprint.load())) {
+            return false;
+        }
+        try {
+            Agent agent = this.nlpjsClient.getAgentInfo(this.agentId);
+            return nonNull(agent) && AgentStatus.READY.equals(agent.getStatus());
+        } catch (NlpjsClientException e) {
+            Log.debug("Cannot retrieve the NLP.js agent {0}: {1}", this.agentId, e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * {@inheritDoc}
+     *
+     * @see #createStateContext(String)
      */
     @Override
     public StateContext createContext(@NonNull String sessionId) {
-        /*
-         * FIXME duplicated code from RegExIntentRecognitionProvider
-         */
-        StateContext stateContext = ExecutionFactory.eINSTANCE.createStateContext();
-        stateContext.setContextId(sessionId);
-        stateContext.setConfiguration(ConfigurationConverter.getMap(configuration.getBaseConfiguration()));
-        return stateContext;
+        return createStateContext(sessionId);
     }
 
     /**
@@ -474,14 +521,13 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
             RecognitionResult recognitionResult = this.nlpjsClient.getIntent(agentId, userMessage);
             List<Classification> classifications = recognitionResult.getClassifications();
             if (!classifications.isEmpty() && classifications.get(0).getIntent().equals("None")) {
-                recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+                recognizedIntent = TransientEObjects.createRecognizedIntent();
                 recognizedIntent.setDefinition(DEFAULT_FALLBACK_INTENT);
                 recognizedIntent.setRecognitionConfidence(recognitionResult.getScore());
                 recognizedIntent.setMatchedInput(recognitionResult.getUtterance());
             } else {
-                List<RecognizedIntent> recognizedIntents =
-                        nlpjsRecognitionResultMapper.mapRecognitionResult(recognitionResult);
-                recognizedIntent = getBestCandidate(recognizedIntents, context);
+                List<IntentCandidate> candidates = nlpjsRecognitionResultMapper.mapRecognitionResult(recognitionResult);
+                recognizedIntent = selectBestCandidate(candidates, context);
                 recognizedIntent.getValues().addAll(nlpjsRecognitionResultMapper.mapParameterValues(
                         (IntentDefinition) recognizedIntent.getDefinition(), recognitionResult.getEntities()));
             }
@@ -505,9 +551,7 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
                 }
             }
 
-            if (nonNull(recognitionMonitor)) {
-                recognitionMonitor.logRecognizedIntent(context, recognizedIntent);
-            }
+            this.logRecognizedIntent(context, recognizedIntent);
             return recognizedIntent;
 
         } catch (NlpjsClientException e) {
@@ -537,11 +581,11 @@ public class NlpjsIntentRecognitionProvider extends AbstractIntentRecognitionPro
                         .filter(IntentUtils::hasPureAnyTrainingSentence).findFirst();
         return pureAnyIntent
                 .map(intent -> {
-                    RecognizedIntent r = IntentFactory.eINSTANCE.createRecognizedIntent();
+                    RecognizedIntent r = TransientEObjects.createRecognizedIntent();
                     r.setDefinition(intent);
                     r.setRecognitionConfidence(1);
                     r.setMatchedInput(input);
-                    ContextParameterValue value = IntentFactory.eINSTANCE.createContextParameterValue();
+                    ContextParameterValue value = TransientEObjects.createContextParameterValue();
                     /*
                      * get() cannot throw an exception because isAnyParameter is always true for at least one
                      * parameter if isPureAnyIntent is true.
@@ -2,6 +2,7 @@ package com.xatkit.core.recognition.nlpjs.mapper;
 
 
 import com.xatkit.core.EventDefinitionRegistry;
+import com.xatkit.core.recognition.IntentCandidate;
 import com.xatkit.core.recognition.nlpjs.model.Classification;
 import com.xatkit.core.recognition.nlpjs.model.ExtractedEntity;
 import com.xatkit.core.recognition.nlpjs.model.RecognitionResult;
@@ -11,8 +12,8 @@ import com.xatkit.intent.ContextParameterValue;
 import com.xatkit.intent.CustomEntityDefinition;
 import com.xatkit.intent.EntityType;
 import com.xatkit.intent.IntentDefinition;
-import com.xatkit.intent.IntentFactory;
 import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 
@@ -33,8 +34,8 @@ import static java.util.Objects.nonNull;
  * <p>
  * This class provides two methods:
  * <ul>
- *     <li>{@link #mapRecognitionResult(RecognitionResult)}: creates a list of {@link RecognizedIntent} from a
- *     given {@link RecognitionResult}. This method does not set the {@link RecognizedIntent}'s parameter values.
+ *     <li>{@link #mapRecognitionResult(RecognitionResult)}: creates a list of {@link IntentCandidate} from a
+ *     given {@link RecognitionResult}. This method does not set the candidates' parameter values.
  *     This is an expensive operation that should be performed on a per-intent basis (typically the one selected by
  *     the recognition engine).
  *     </li>
@@ -88,13 +89,14 @@ public class NlpjsRecognitionResultMapper {
     }
 
     /**
-     * Transforms the NLP.js {@code recognitionResult} to {@link RecognizedIntent}s.
+     * Transforms the NLP.js {@code recognitionResult} to {@link IntentCandidate}s.
      * <p>
      * NLP.js returns a classification of the agent's intents for a given input. This method transform each
-     * classification entry to a {@link RecognizedIntent}, but does not select which one to keep and use in the bot's
-     * state machine.
+     * classification entry to an {@link IntentCandidate}, but does not select which one to keep and use in the bot's
+     * state machine. {@link IntentCandidate}s are lightweight objects: only the selected one needs to be converted
+     * to a {@link RecognizedIntent}.
      * <p>
-     * This method does not set the {@link ContextParameterValue}s of the returned {@link RecognizedIntent}s. Setting
+     * This method does not set the parameter values of the returned {@link IntentCandidate}s. Setting
      * parameters is an expensive operation that should be done on an instance-basis (typically the
      * {@link RecognizedIntent} that has been selected as the best option). See
      * {@link #mapParameterValues(IntentDefinition, List)} to get the list of parameters for a given
@@ -106,23 +108,20 @@ public class NlpjsRecognitionResultMapper {
      * {@link com.xatkit.core.recognition.IntentRecognitionProvider#DEFAULT_FALLBACK_INTENT}.
      *
      * @param recognitionResult the NLP.js recognition result
-     * @return the {@link RecognizedIntent}s corresponding to the provided {@code recognitionResult}
+     * @return the {@link IntentCandidate}s corresponding to the provided {@code recognitionResult}
      * @throws NullPointerException if the provided {@code recognitionResult} is {@code null}
      */
-    public List<RecognizedIntent> mapRecognitionResult(@NonNull RecognitionResult recognitionResult) {
+    public List<IntentCandidate> mapRecognitionResult(@NonNull RecognitionResult recognitionResult) {
         List<Classification> classifications = recognitionResult.getClassifications();
         classifications =
                 classifications.stream().filter(c -> c.getScore() > MIN_CONFIDENCE_SCORE).collect(Collectors.toList());
-        List<RecognizedIntent> recognizedIntents = new ArrayList<>();
+        List<IntentCandidate> candidates = new ArrayList<>();
         for (Classification classification : classifications) {
-            RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
             IntentDefinition intentDefinition = convertNlpjsIntentNameToIntentDefinition(classification.getIntent());
-            recognizedIntent.setDefinition(intentDefinition);
-            recognizedIntent.setRecognitionConfidence(classification.getScore());
-            recognizedIntent.setMatchedInput(recognitionResult.getUtterance());
-            recognizedIntents.add(recognizedIntent);
+            candidates.add(new IntentCandidate(intentDefinition, classification.getScore(),
+                    recognitionResult.getUtterance()));
         }
-        return recognizedIntents;
+        return candidates;
     }
 
     /**
@@ -133,7 +132,7 @@ public class NlpjsRecognitionResultMapper {
      * intentDefinition}.
      * <p>
      * This method is not invoked when calling {@link #mapRecognitionResult(RecognitionResult)} because it is not
-     * necessary to map the {@link ContextParameterValue}s of all the {@link RecognizedIntent}s extracted from NLP.js.
+     * necessary to map the {@link ContextParameterValue}s of all the {@link IntentCandidate}s extracted from NLP.js.
      *
      * @param intentDefinition  the {@link IntentDefinition} containing the {@link ContextParameter} to instantiate
      * @param extractedEntities the {@link ExtractedEntity} instances returned by NLP.js
@@ -149,8 +148,7 @@ public class NlpjsRecognitionResultMapper {
             Optional<ContextParameter> contextParameter = this.getContextParameterFromNlpEntity(entityType,
                     intentDefinition);
             if (contextParameter.isPresent()) {
-                ContextParameterValue contextParameterValue =
-                        IntentFactory.eINSTANCE.createContextParameterValue();
+                ContextParameterValue contextParameterValue = TransientEObjects.createContextParameterValue();
                 if (nonNull(extractedEntity.getValue())) {
                     contextParameterValue.setValue(convertParameterValueToString(extractedEntity.getValue()));
                 } else if (extractedEntity.getType().equals("regex")) {
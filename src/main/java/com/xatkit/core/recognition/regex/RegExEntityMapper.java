@@ -2,7 +2,21 @@ package com.xatkit.core.recognition.regex;
 
 
 import com.xatkit.core.recognition.EntityMapper;
+import com.xatkit.intent.BaseEntityDefinition;
+import com.xatkit.intent.CompositeEntityDefinition;
+import com.xatkit.intent.CompositeEntityDefinitionEntry;
+import com.xatkit.intent.CustomEntityDefinition;
 import com.xatkit.intent.EntityDefinition;
+import com.xatkit.intent.EntityTextFragment;
+import com.xatkit.intent.LiteralTextFragment;
+import com.xatkit.intent.MappingEntityDefinition;
+import com.xatkit.intent.MappingEntityDefinitionEntry;
+import com.xatkit.intent.TextFragment;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * An {@link EntityMapper} that uses RegExp to match system entities.
@@ -11,10 +25,22 @@ import com.xatkit.intent.EntityDefinition;
  * matched from a single word.
  * <p>
  * Custom entities can be registered using {@link #addEntityMapping(EntityDefinition, String)} and associated to the
- * RegExp pattern that will be used to retrieve them.
+ * RegExp pattern that will be used to retrieve them. The
+ * {@link #registerCustomEntityDefinition(CustomEntityDefinition)} method computes this pattern from the content of
+ * the entity.
  */
 public class RegExEntityMapper extends EntityMapper {
 
+    /**
+     * The {@link Pattern} matching all the reserved RegExp characters.
+     * <p>
+     * This {@link Pattern} is used to escape the RegExp characters that are contained in the training sentences and
+     * entities.
+     *
+     * @see #escapeRegExpReservedCharacters(String)
+     */
+    private static final Pattern SPECIAL_REGEX_CHARS = Pattern.compile("[{}()\\[\\].+*?^$\\\\|]");
+
     /**
      * Constructs a {@link RegExEntityMapper} that uses RegExp to match system entities.
      */
@@ -22,4 +48,88 @@ public class RegExEntityMapper extends EntityMapper {
         super();
         this.setFallbackEntityMapping("(\\S)+");
     }
+
+    /**
+     * Escapes the RegExp special characters from the provided {@link String}.
+     *
+     * @param from the {@link String} to replace the RegExp special characters of
+     * @return a new {@link String} with the RegExp special characters escaped
+     * @throws NullPointerException if the provided {@link String} is {@code null}
+     */
+    public static String escapeRegExpReservedCharacters(@NonNull String from) {
+        return SPECIAL_REGEX_CHARS.matcher(from).replaceAll("\\\\$0");
+    }
+
+    /**
+     * Registers the provided {@code customEntityDefinition}.
+     * <p>
+     * This method registers both {@link MappingEntityDefinition} and {@link CompositeEntityDefinition}. Note that
+     * the registered {@link MappingEntityDefinition}s does not allow for synonym matching.
+     *
+     * @param entityDefinition the {@link CustomEntityDefinition} to register
+     * @throws NullPointerException if the provided {@code entityDefinition} is {@code null}
+     */
+    public void registerCustomEntityDefinition(@NonNull CustomEntityDefinition entityDefinition) {
+        if (entityDefinition instanceof MappingEntityDefinition) {
+            MappingEntityDefinition mappingEntityDefinition = (MappingEntityDefinition) entityDefinition;
+            List<String> entityValues = new ArrayList<>();
+            for (MappingEntityDefinitionEntry entry : mappingEntityDefinition.getEntries()) {
+                entityValues.add(escapeRegExpReservedCharacters(entry.getReferenceValue()));
+                /*
+                 * Note: this method does not take into account synonyms
+                 */
+            }
+            String patternPart = String.join("|", entityValues);
+            this.addEntityMapping(entityDefinition, patternPart);
+        } else if (entityDefinition instanceof CompositeEntityDefinition) {
+            CompositeEntityDefinition compositeEntityDefinition = (CompositeEntityDefinition) entityDefinition;
+            registerReferencedEntityDefinitions(compositeEntityDefinition);
+            List<String> patterns = new ArrayList<>();
+            for (CompositeEntityDefinitionEntry entry : compositeEntityDefinition.getEntries()) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("(");
+                for (TextFragment fragment : entry.getFragments()) {
+                    if (fragment instanceof LiteralTextFragment) {
+                        /*
+                         * Add spaces around pure textual fragments, they are removed by the Xtext parser.
+                         */
+                        sb.append(" " + escapeRegExpReservedCharacters(((LiteralTextFragment) fragment).getValue()) + " ");
+                    } else if (fragment instanceof EntityTextFragment) {
+                        EntityDefinition fragmentEntity =
+                                ((EntityTextFragment) fragment).getEntityReference().getReferredEntity();
+                        sb.append("(");
+                        sb.append(this.getMappingFor(fragmentEntity));
+                        sb.append(")");
+                    }
+                }
+                sb.append(")");
+                patterns.add(sb.toString());
+            }
+            String entityPattern = String.join("|", patterns);
+            this.addEntityMapping(entityDefinition, entityPattern);
+        }
+    }
+
+    /**
+     * Registers the {@link EntityDefinition}s referenced by the provided {@link CompositeEntityDefinition}.
+     * <p>
+     * This method ensures that all the {@link CustomEntityDefinition}s used by the provided
+     * {@link CompositeEntityDefinition} are registered before registering itself. Note that this method does not
+     * register {@link BaseEntityDefinition} since they are natively supported by the {@link RegExEntityMapper}.
+     *
+     * @param entityDefinition the {@link CompositeEntityDefinition} to register the referenced entities from
+     * @throws NullPointerException if the provided {@code entityDefinition} is {@code null}
+     */
+    private void registerReferencedEntityDefinitions(@NonNull CompositeEntityDefinition entityDefinition) {
+        for (CompositeEntityDefinitionEntry entry : entityDefinition.getEntries()) {
+            for (EntityDefinition referredEntityDefinition : entry.getEntities()) {
+                if (referredEntityDefinition instanceof CustomEntityDefinition) {
+                    /*
+                     * Do not register base entity definition, they are already matched
+                     */
+                    registerCustomEntityDefinition((CustomEntityDefinition) referredEntityDefinition);
+                }
+            }
+        }
+    }
 }
@@ -2,32 +2,22 @@ package com.xatkit.core.recognition.regex;
 
 import com.xatkit.core.XatkitBot;
 import com.xatkit.core.recognition.AbstractIntentRecognitionProvider;
-import com.xatkit.core.recognition.EntityMapper;
 import com.xatkit.core.recognition.IntentRecognitionProviderFactory;
 import com.xatkit.core.recognition.RecognitionMonitor;
-import com.xatkit.execution.ExecutionFactory;
 import com.xatkit.execution.State;
 import com.xatkit.execution.StateContext;
 import com.xatkit.intent.BaseEntityDefinition;
-import com.xatkit.intent.CompositeEntityDefinition;
-import com.xatkit.intent.CompositeEntityDefinitionEntry;
 import com.xatkit.intent.ContextParameter;
 import com.xatkit.intent.ContextParameterValue;
 import com.xatkit.intent.CustomEntityDefinition;
 import com.xatkit.intent.EntityDefinition;
-import com.xatkit.intent.EntityTextFragment;
 import com.xatkit.intent.EntityType;
 import com.xatkit.intent.IntentDefinition;
-import com.xatkit.intent.IntentFactory;
-import com.xatkit.intent.LiteralTextFragment;
-import com.xatkit.intent.MappingEntityDefinition;
-import com.xatkit.intent.MappingEntityDefinitionEntry;
 import com.xatkit.intent.RecognizedIntent;
-import com.xatkit.intent.TextFragment;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.NonNull;
 import org.apache.commons.configuration2.Configuration;
-import org.apache.commons.configuration2.ConfigurationConverter;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -64,23 +54,6 @@ import static java.util.Objects.nonNull;
  */
 public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionProvider {
 
-    /**
-     * The {@link Pattern} matching all the reserved RegExp characters.
-     * <p>
-     * This {@link Pattern} is used to escape the RegExp characters that are contained in the training sentences and
-     * entities.
-     *
-     * @see #escapeRegExpReservedCharacters(String)
-     */
-    private static final Pattern SPECIAL_REGEX_CHARS = Pattern.compile("[{}()\\[\\].+*?^$\\\\|]");
-
-    /**
-     * The application's {@link Configuration}.
-     * <p>
-     * This {@link Configuration} is used to customize the created {@link StateContext}s.
-     */
-    private Configuration configuration;
-
     /**
      * A boolean storing whether the provider has been shut down.
      * <p>
@@ -91,11 +64,11 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
     private boolean isShutdown;
 
     /**
-     * The {@link EntityMapper} used to store system and dynamic entity mappings.
+     * The {@link RegExEntityMapper} used to store system and dynamic entity mappings.
      *
      * @see #registerEntityDefinition(EntityDefinition)
      */
-    private EntityMapper entityMapper;
+    private RegExEntityMapper entityMapper;
 
     /**
      * The {@link Map} used to store RegExp {@link Pattern}s associated to the registered {@link IntentDefinition}.
@@ -120,7 +93,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
     public RegExIntentRecognitionProvider(@NonNull Configuration configuration,
                                           @Nullable RecognitionMonitor recognitionMonitor) {
         Log.info("Starting {0}", this.getClass().getSimpleName());
-        this.configuration = configuration;
+        this.setSharedContextConfiguration(configuration);
         this.isShutdown = false;
         this.entityMapper = new RegExEntityMapper();
         this.intentPatterns = new HashMap<>();
@@ -145,80 +118,8 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
                     BaseEntityDefinition.class.getSimpleName(), baseEntityDefinition.getEntityType().getLiteral());
         } else if (entityDefinition instanceof CustomEntityDefinition) {
             Log.debug("Registering {0} {1}", CustomEntityDefinition.class.getSimpleName(), entityDefinition.getName());
-            this.registerCustomEntityDefinition((CustomEntityDefinition) entityDefinition);
-        }
-    }
-
-    /**
-     * Registers the provided {@code customEntityDefinition}.
-     * <p>
-     * This method registers both {@link MappingEntityDefinition} and {@link CompositeEntityDefinition}. Note that
-     * the registered {@link MappingEntityDefinition}s does not allow for synonym matching.
-     *
-     * @param entityDefinition the {@link CustomEntityDefinition} to register
-     * @throws NullPointerException if the provided {@code entityDefinition} is {@code null}
-     */
-    private void registerCustomEntityDefinition(@NonNull CustomEntityDefinition entityDefinition) {
-        if (entityDefinition instanceof MappingEntityDefinition) {
-            MappingEntityDefinition mappingEntityDefinition = (MappingEntityDefinition) entityDefinition;
-            List<String> entityValues = new ArrayList<>();
-            for (MappingEntityDefinitionEntry entry : mappingEntityDefinition.getEntries()) {
-                entityValues.add(escapeRegExpReservedCharacters(entry.getReferenceValue()));
-                /*
-                 * Note: this method does not take into account synonyms
-                 */
-            }
-            String patternPart = String.join("|", entityValues);
-            this.entityMapper.addEntityMapping(entityDefinition, patternPart);
-        } else if (entityDefinition instanceof CompositeEntityDefinition) {
-            CompositeEntityDefinition compositeEntityDefinition = (CompositeEntityDefinition) entityDefinition;
-            registerReferencedEntityDefinitions(compositeEntityDefinition);
-            List<String> patterns = new ArrayList<>();
-            for (CompositeEntityDefinitionEntry entry : compositeEntityDefinition.getEntries()) {
-                StringBuilder sb = new StringBuilder();
-                sb.append("(");
-                for (TextFragment fragment : entry.getFragments()) {
-                    if (fragment instanceof LiteralTextFragment) {
-                        /*
-                         * Add spaces around pure textual fragments, they are removed by the Xtext parser.
-                         */
-                        sb.append(" " + escapeRegExpReservedCharacters(((LiteralTextFragment) fragment).getValue()) + " ");
-                    } else if (fragment instanceof EntityTextFragment) {
-                        EntityDefinition fragmentEntity =
-                                ((EntityTextFragment) fragment).getEntityReference().getReferredEntity();
-                        sb.append("(");
-                        sb.append(entityMapper.getMappingFor(fragmentEntity));
-                        sb.append(")");
-                    }
-                }
-                sb.append(")");
-                patterns.add(sb.toString());
-            }
-            String entityPattern = String.join("|", patterns);
-            entityMapper.addEntityMapping(entityDefinition, entityPattern);
-        }
-    }
-
-    /**
-     * Registers the {@link EntityDefinition}s referenced by the provided {@link CompositeEntityDefinition}.
-     * <p>
-     * This method ensures that all the {@link CustomEntityDefinition}s used by the provided
-     * {@link CompositeEntityDefinition} are registered before registering itself. Note that this method does not
-     * register {@link BaseEntityDefinition} since they are natively supported by the {@link RegExEntityMapper}.
-     *
-     * @param entityDefinition the {@link CompositeEntityDefinition} to register the referenced entities from
-     * @throws NullPointerException if the provided {@code entityDefinition} is {@code null}
-     */
-    private void registerReferencedEntityDefinitions(@NonNull CompositeEntityDefinition entityDefinition) {
-        for (CompositeEntityDefinitionEntry entry : entityDefinition.getEntries()) {
-            for (EntityDefinition referredEntityDefinition : entry.getEntities()) {
-                if (referredEntityDefinition instanceof CustomEntityDefinition) {
-                    /*
-                     * Do not register base entity definition, they are already matched
-                     */
-                    registerEntityDefinition(referredEntityDefinition);
-                }
-            }
+            this.entityMapper.registerCustomEntityDefinition((CustomEntityDefinition) entityDefinition);
+            this.invalidateRecognitionCache();
         }
     }
 
@@ -241,6 +142,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
          */
         List<Pattern> patterns = createPatterns(intentDefinition);
         this.intentPatterns.put(intentDefinition, patterns);
+        this.invalidateRecognitionCache();
     }
 
     /**
@@ -256,7 +158,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
     private List<Pattern> createPatterns(@NonNull IntentDefinition intentDefinition) {
         List<Pattern> patterns = new ArrayList<>();
         for (String trainingSentence : intentDefinition.getTrainingSentences()) {
-            trainingSentence = escapeRegExpReservedCharacters(trainingSentence);
+            trainingSentence = RegExEntityMapper.escapeRegExpReservedCharacters(trainingSentence);
             if (intentDefinition.getParameters().isEmpty()) {
                 /*
                  * The intent doesn't define any parameter, this means we can simply use the full training sentence
@@ -282,17 +184,6 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
         return patterns;
     }
 
-    /**
-     * Escapes the RegExp special characters from the provided {@link String}.
-     *
-     * @param from the {@link String} to replace the RegExp special characters of
-     * @return a new {@link String} with the RegExp special characters escaped
-     * @throws NullPointerException if the provided {@link String} is {@code null}
-     */
-    private String escapeRegExpReservedCharacters(@NonNull String from) {
-        return SPECIAL_REGEX_CHARS.matcher(from).replaceAll("\\\\$0");
-    }
-
     /**
      * Creates a RegExp named group from the provided {@code parameter}.
      *
@@ -325,6 +216,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
          * Quick fix: should be done properly.
          */
         this.entityMapper.removeMappingFor(entityDefinition);
+        this.invalidateRecognitionCache();
     }
 
     /**
@@ -339,6 +231,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
     @Override
     public void deleteIntentDefinition(@NonNull IntentDefinition intentDefinition) {
         this.intentPatterns.remove(intentDefinition);
+        this.invalidateRecognitionCache();
     }
 
     /**
@@ -355,16 +248,12 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
 
     /**
      * {@inheritDoc}
+     *
+     * @see #createStateContext(String)
      */
     @Override
     public StateContext createContext(@NonNull String sessionId) {
-        /*
-         * FIXME duplicated code from NlpjsIntentRecognitionProvider
-         */
-        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
-        context.setContextId(sessionId);
-        context.setConfiguration(ConfigurationConverter.getMap(configuration));
-        return context;
+        return createStateContext(sessionId);
     }
 
     /**
@@ -422,7 +311,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
      */
     @Override
     protected RecognizedIntent getIntentInternal(@NonNull String input, @NonNull StateContext context) {
-        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
         /*
          * The recognitionConfidence is always 1 with the RegExIntentRecognitionProvider since it always returns
          * exact matches or default fallback intent.
@@ -442,9 +331,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
                     /*
                      * Return the first one we find, no need to iterate the rest of the map
                      */
-                    if (nonNull(this.recognitionMonitor)) {
-                        this.recognitionMonitor.logRecognizedIntent(context, recognizedIntent);
-                    }
+                    this.logRecognizedIntent(context, recognizedIntent);
                     return recognizedIntent;
                 }
             }
@@ -453,10 +340,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
          * Can't find an intent matching the provided input, return the default fallback intent
          */
         recognizedIntent.setDefinition(DEFAULT_FALLBACK_INTENT);
-        if (nonNull(recognitionMonitor)) {
-            // TODO refactor this? it's duplicated from above.
-            this.recognitionMonitor.logRecognizedIntent(context, recognizedIntent);
-        }
+        this.logRecognizedIntent(context, recognizedIntent);
         return recognizedIntent;
     }
 
@@ -538,7 +422,7 @@ public class RegExIntentRecognitionProvider extends AbstractIntentRecognitionPro
      */
     private ContextParameterValue createContextParameterValue(@NonNull ContextParameter contextParameter,
                                                               @NonNull String value) {
-        ContextParameterValue contextParameterValue = IntentFactory.eINSTANCE.createContextParameterValue();
+        ContextParameterValue contextParameterValue = TransientEObjects.createContextParameterValue();
         contextParameterValue.setContextParameter(contextParameter);
         contextParameterValue.setValue(value);
         return contextParameterValue;
@@ -4,19 +4,23 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 import com.xatkit.core.XatkitException;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.EntityTemplate;
 import org.apache.http.protocol.HTTP;
 
 import javax.annotation.Nonnull;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 
@@ -28,6 +32,26 @@ import static java.util.Objects.nonNull;
  */
 public class HttpEntityHelper {
 
+    /**
+     * A functional interface representing the content producer of a streaming Json {@link HttpEntity}.
+     *
+     * @see #createStreamingJsonEntity(JsonContentProducer)
+     */
+    @FunctionalInterface
+    public interface JsonContentProducer {
+
+        /**
+         * Writes the Json content of the entity to the provided {@code writer}.
+         * <p>
+         * This method is called when the response is sent to the client, i.e. after the {@link RestHandler}
+         * returned. It must write a single complete Json document.
+         *
+         * @param writer the {@link JsonWriter} to write the content to
+         * @throws IOException if an error occurred when writing the content
+         */
+        void writeTo(@Nonnull JsonWriter writer) throws IOException;
+    }
+
     /**
      * The {@link Gson} instance used to translate {@link JsonElement}s to {@link String}s.
      */
@@ -96,6 +120,38 @@ public class HttpEntityHelper {
         }
     }
 
+    /**
+     * Creates a streaming {@link HttpEntity} writing its Json content with the provided {@code producer}.
+     * <p>
+     * The content of the returned entity is not buffered: the {@code producer} writes it incrementally to the
+     * response's {@link java.io.OutputStream} when the response is sent, using chunked transfer encoding. This
+     * allows {@link RestHandler}s to return large Json payloads without building them in memory.
+     * <p>
+     * <b>Note</b>: the response status is already sent when the {@code producer} is called, errors occurring
+     * while writing the content abort the connection instead of producing an error response.
+     *
+     * @param producer the {@link JsonContentProducer} writing the content of the entity
+     * @return the created {@link HttpEntity}
+     * @throws NullPointerException if the provided {@code producer} is {@code null}
+     */
+    public static HttpEntity createStreamingJsonEntity(@Nonnull JsonContentProducer producer) {
+        checkNotNull(producer, "Cannot create a streaming %s from the provided %s %s",
+                HttpEntity.class.getSimpleName(), JsonContentProducer.class.getSimpleName(), producer);
+        EntityTemplate entity = new EntityTemplate(outputStream -> {
+            JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(outputStream,
+                    StandardCharsets.UTF_8)));
+            producer.writeTo(writer);
+            /*
+             * Do not close the writer, the output stream is owned (and closed) by the server.
+             */
+            writer.flush();
+        });
+        entity.setContentType(ContentType.APPLICATION_JSON.getMimeType());
+        entity.setContentEncoding(HTTP.UTF_8);
+        entity.setChunked(true);
+        return entity;
+    }
+
     /**
      * Creates an {@link HttpEntity} representing the error wrapped in the provided {@link RestHandlerException}.
      * <p>
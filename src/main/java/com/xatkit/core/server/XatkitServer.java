@@ -27,9 +27,9 @@ import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
@@ -117,7 +117,10 @@ public class XatkitServer {
                 XatkitServerUtils.DEFAULT_SERVER_LOCATION);
         this.port = configuration.getInt(XatkitServerUtils.SERVER_PORT_KEY, XatkitServerUtils.DEFAULT_SERVER_PORT);
         this.baseURL = publicUrl + ":" + Integer.toString(this.port);
-        this.restEndpoints = new HashMap<>();
+        /*
+         * Endpoints can be registered while the server is running (e.g. by platforms started in parallel).
+         */
+        this.restEndpoints = new ConcurrentHashMap<>();
         this.contentDirectory = FileUtils.getFile(XatkitServerUtils.PUBLIC_DIRECTORY_NAME, configuration);
         this.contentDirectory.mkdirs();
         try {
@@ -0,0 +1,376 @@
+package com.xatkit.core.watchdog;
+
+import com.google.gson.JsonObject;
+import fr.inria.atlanmod.commons.log.Log;
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.annotation.Nullable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Monitors the duration of the bodies, fallbacks, and guards executed by the
+ * {@link com.xatkit.core.ExecutionService}.
+ * <p>
+ * Each monitored task is registered with {@link #start(TaskKind, String, String)} (synchronous tasks) or
+ * {@link #watch(TaskKind, String, String, CompletableFuture)} (asynchronous bodies). A daemon {@link Thread} checks
+ * the running tasks every {@link WatchdogConfiguration#getCheckInterval()} milliseconds, and reports the tasks that
+ * exceed the {@link WatchdogConfiguration#getBudget()} with their {@link com.xatkit.execution.State} and the stack
+ * trace of their {@link Thread}. If {@link WatchdogConfiguration#INTERRUPT_KEY} is set the watchdog also interrupts
+ * the thread of synchronous tasks, and cancels the stage of asynchronous ones.
+ * <p>
+ * <b>Note</b>: interrupting a task only stops it if the task reacts to interruptions (e.g. blocking I/O or
+ * {@link Thread#sleep(long)}). Tasks ignoring interruptions are still reported.
+ * <p>
+ * The duration of the completed tasks are recorded in a {@link SlowTaskHistogram} per {@link TaskKind}.
+ */
+public class ExecutionWatchdog {
+
+    /**
+     * The kinds of tasks monitored by the watchdog.
+     */
+    public enum TaskKind {
+        /**
+         * The body of a {@link com.xatkit.execution.State}.
+         */
+        BODY,
+        /**
+         * The fallback of a {@link com.xatkit.execution.State}.
+         */
+        FALLBACK,
+        /**
+         * The condition of a {@link com.xatkit.execution.GuardedTransition}.
+         */
+        GUARD
+    }
+
+    /**
+     * The {@link MonitoredTask} returned when the watchdog is disabled.
+     */
+    private static final MonitoredTask DISABLED_TASK = new MonitoredTask(null, TaskKind.BODY, "", "", null, null);
+
+    /**
+     * The configuration of the watchdog.
+     */
+    @Getter
+    private final WatchdogConfiguration configuration;
+
+    /**
+     * The tasks that are currently running.
+     */
+    private final Set<MonitoredTask> runningTasks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The {@link SlowTaskHistogram}s of the completed tasks.
+     */
+    private final Map<TaskKind, SlowTaskHistogram> histograms = new EnumMap<>(TaskKind.class);
+
+    /**
+     * The number of tasks that exceeded the budget.
+     */
+    private final Map<TaskKind, AtomicLong> exceededCounts = new EnumMap<>(TaskKind.class);
+
+    /**
+     * The executor checking the running tasks.
+     * <p>
+     * This field is {@code null} if the watchdog is disabled.
+     */
+    @Nullable
+    private ScheduledExecutorService checkExecutor;
+
+    /**
+     * Creates an {@link ExecutionWatchdog} with the provided {@code configuration}.
+     * <p>
+     * The watchdog starts checking the running tasks if it is enabled in the provided {@code configuration}.
+     *
+     * @param configuration the {@link WatchdogConfiguration} of the watchdog
+     * @throws NullPointerException if the provided {@code configuration} is {@code null}
+     */
+    public ExecutionWatchdog(@NonNull WatchdogConfiguration configuration) {
+        this.configuration = configuration;
+        for (TaskKind kind : TaskKind.values()) {
+            histograms.put(kind, new SlowTaskHistogram());
+            exceededCounts.put(kind, new AtomicLong());
+        }
+        if (configuration.isEnabled()) {
+            this.checkExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "xatkit-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.checkExecutor.scheduleWithFixedDelay(this::check, configuration.getCheckInterval(),
+                    configuration.getCheckInterval(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts monitoring a synchronous task executed by the calling {@link Thread}.
+     * <p>
+     * The returned {@link MonitoredTask} must be closed once the task is completed (e.g. with a
+     * try-with-resources statement).
+     *
+     * @param kind      the {@link TaskKind} of the task
+     * @param stateName the name of the {@link com.xatkit.execution.State} containing the task
+     * @param contextId the identifier of the {@link com.xatkit.execution.StateContext} executing the task
+     * @return the {@link MonitoredTask} to close once the task is completed
+     */
+    public MonitoredTask start(@NonNull TaskKind kind, @NonNull String stateName, @Nullable String contextId) {
+        if (!configuration.isEnabled()) {
+            return DISABLED_TASK;
+        }
+        MonitoredTask task = new MonitoredTask(this, kind, stateName, contextId, Thread.currentThread(), null);
+        runningTasks.add(task);
+        return task;
+    }
+
+    /**
+     * Monitors the provided asynchronous {@code stage} until it is completed.
+     *
+     * @param kind      the {@link TaskKind} of the task
+     * @param stateName the name of the {@link com.xatkit.execution.State} containing the task
+     * @param contextId the identifier of the {@link com.xatkit.execution.StateContext} executing the task
+     * @param stage     the {@link CompletableFuture} to monitor
+     */
+    public void watch(@NonNull TaskKind kind, @NonNull String stateName, @Nullable String contextId,
+                      @NonNull CompletableFuture<?> stage) {
+        if (!configuration.isEnabled() || stage.isDone()) {
+            return;
+        }
+        MonitoredTask task = new MonitoredTask(this, kind, stateName, contextId, null, stage);
+        runningTasks.add(task);
+        stage.whenComplete((result, throwable) -> task.close());
+    }
+
+    /**
+     * Returns the {@link SlowTaskHistogram} of the completed tasks of the provided {@code kind}.
+     *
+     * @param kind the {@link TaskKind} to retrieve the histogram of
+     * @return the {@link SlowTaskHistogram}
+     */
+    public SlowTaskHistogram getHistogram(@NonNull TaskKind kind) {
+        return histograms.get(kind);
+    }
+
+    /**
+     * Returns the number of tasks of the provided {@code kind} that exceeded the budget.
+     *
+     * @param kind the {@link TaskKind} to retrieve the count of
+     * @return the number of tasks that exceeded the budget
+     */
+    public long getExceededCount(@NonNull TaskKind kind) {
+        return exceededCounts.get(kind).get();
+    }
+
+    /**
+     * Returns the number of tasks that are currently running.
+     *
+     * @return the number of running tasks
+     */
+    public int getRunningTaskCount() {
+        return runningTasks.size();
+    }
+
+    /**
+     * Returns a {@link JsonObject} containing the statistics of the watchdog.
+     * <p>
+     * The returned object contains the budget, the number of running tasks, and for each {@link TaskKind} the
+     * number of tasks that exceeded the budget and the histogram of their durations.
+     *
+     * @return the {@link JsonObject} representing the statistics of the watchdog
+     */
+    public JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        result.addProperty("enabled", configuration.isEnabled());
+        result.addProperty("budget", configuration.getBudget());
+        result.addProperty("running", getRunningTaskCount());
+        for (TaskKind kind : TaskKind.values()) {
+            JsonObject kindObject = new JsonObject();
+            kindObject.addProperty("count", histograms.get(kind).getTotalCount());
+            kindObject.addProperty("exceeded", getExceededCount(kind));
+            kindObject.add("histogram", histograms.get(kind).toJson());
+            result.add(kind.name().toLowerCase(), kindObject);
+        }
+        return result;
+    }
+
+    /**
+     * Checks the running tasks and reports the ones exceeding the budget.
+     */
+    void check() {
+        long now = System.nanoTime();
+        for (MonitoredTask task : runningTasks) {
+            if (TimeUnit.NANOSECONDS.toMillis(now - task.startTime) > configuration.getBudget()) {
+                task.exceedBudget(now);
+            }
+        }
+    }
+
+    /**
+     * Stops checking the running tasks.
+     */
+    public void close() {
+        if (nonNull(checkExecutor)) {
+            checkExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * A task monitored by the {@link ExecutionWatchdog}.
+     */
+    public static final class MonitoredTask implements AutoCloseable {
+
+        /**
+         * The watchdog monitoring the task.
+         * <p>
+         * This field is {@code null} for the task returned by a disabled watchdog.
+         */
+        @Nullable
+        private final ExecutionWatchdog watchdog;
+
+        /**
+         * The {@link TaskKind} of the task.
+         */
+        private final TaskKind kind;
+
+        /**
+         * The name of the {@link com.xatkit.execution.State} containing the task.
+         */
+        private final String stateName;
+
+        /**
+         * The identifier of the {@link com.xatkit.execution.StateContext} executing the task.
+         */
+        private final String contextId;
+
+        /**
+         * The {@link Thread} executing the task.
+         * <p>
+         * This field is {@code null} for asynchronous tasks.
+         */
+        @Nullable
+        private final Thread thread;
+
+        /**
+         * The stage of the task.
+         * <p>
+         * This field is {@code null} for synchronous tasks.
+         */
+        @Nullable
+        private final CompletableFuture<?> stage;
+
+        /**
+         * The time (in nanoseconds, see {@link System#nanoTime()}) when the task started.
+         */
+        private final long startTime;
+
+        /**
+         * Whether the task has been reported as exceeding the budget.
+         */
+        private boolean reported;
+
+        /**
+         * Whether the {@link #thread} has been interrupted by the watchdog.
+         */
+        private boolean interrupted;
+
+        /**
+         * Whether the task is completed.
+         */
+        private boolean completed;
+
+        /**
+         * Creates a {@link MonitoredTask} with the provided parameters.
+         *
+         * @param watchdog  the watchdog monitoring the task
+         * @param kind      the {@link TaskKind} of the task
+         * @param stateName the name of the {@link com.xatkit.execution.State} containing the task
+         * @param contextId the identifier of the {@link com.xatkit.execution.StateContext} executing the task
+         * @param thread    the {@link Thread} executing the task
+         * @param stage     the stage of the task
+         */
+        private MonitoredTask(@Nullable ExecutionWatchdog watchdog, TaskKind kind, String stateName,
+                              @Nullable String contextId, @Nullable Thread thread,
+                              @Nullable CompletableFuture<?> stage) {
+            this.watchdog = watchdog;
+            this.kind = kind;
+            this.stateName = stateName;
+            this.contextId = contextId;
+            this.thread = thread;
+            this.stage = stage;
+            this.startTime = System.nanoTime();
+        }
+
+        /**
+         * Reports the task as exceeding the budget, and interrupts it if required.
+         * <p>
+         * This method does nothing if the task has already been reported or is completed.
+         *
+         * @param now the current time (in nanoseconds)
+         */
+        private synchronized void exceedBudget(long now) {
+            if (reported || completed || isNull(watchdog)) {
+                return;
+            }
+            long runningTime = TimeUnit.NANOSECONDS.toMillis(now - startTime);
+            reported = true;
+            watchdog.exceededCounts.get(kind).incrementAndGet();
+            boolean interrupt = watchdog.configuration.isInterrupt();
+            if (nonNull(thread)) {
+                StringBuilder stackTrace = new StringBuilder();
+                for (StackTraceElement element : thread.getStackTrace()) {
+                    stackTrace.append("\n\tat ").append(element);
+                }
+                Log.warn("The {0} of state {1} (context {2}) is running for {3}ms (budget: {4}ms) in thread {5}{6}{7}",
+                        kind.name().toLowerCase(), stateName, contextId, runningTime,
+                        watchdog.configuration.getBudget(), thread.getName(), interrupt ? ", interrupting it" : "",
+                        stackTrace);
+                if (interrupt) {
+                    interrupted = true;
+                    thread.interrupt();
+                }
+            } else {
+                Log.warn("The asynchronous {0} of state {1} (context {2}) is running for {3}ms (budget: {4}ms){5}",
+                        kind.name().toLowerCase(), stateName, contextId, runningTime,
+                        watchdog.configuration.getBudget(), interrupt ? ", cancelling it" : "");
+                if (interrupt && nonNull(stage)) {
+                    stage.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Completes the task and records its duration.
+         * <p>
+         * If the watchdog interrupted the calling {@link Thread} this method clears its interrupted flag: the
+         * interruption must not affect the next tasks executed by the {@link Thread}.
+         */
+        @Override
+        public synchronized void close() {
+            if (completed || isNull(watchdog)) {
+                return;
+            }
+            completed = true;
+            watchdog.runningTasks.remove(this);
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            watchdog.histograms.get(kind).record(duration);
+            if (reported) {
+                Log.warn("The {0} of state {1} (context {2}) completed in {3}ms", kind.name().toLowerCase(),
+                        stateName, contextId, duration);
+            }
+            if (interrupted && thread == Thread.currentThread()) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.xatkit.core.watchdog;
+
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * A histogram of the durations of the tasks monitored by the {@link ExecutionWatchdog}.
+ * <p>
+ * Durations are counted in fixed buckets defined by their upper bound (in milliseconds), the last bucket counts the
+ * durations greater than the last bound. This class is thread-safe.
+ */
+public class SlowTaskHistogram {
+
+    /**
+     * The upper bounds (in milliseconds) of the buckets of the histogram.
+     */
+    static final List<Long> BUCKET_BOUNDS = Collections.unmodifiableList(Arrays.asList(10L, 50L, 100L, 500L, 1000L,
+            5000L, 10000L, 30000L));
+
+    /**
+     * The counts of the buckets.
+     * <p>
+     * This array contains an additional bucket for the durations greater than the last bound.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS.size() + 1);
+
+    /**
+     * Records the provided {@code duration}.
+     *
+     * @param duration the duration (in milliseconds) to record
+     * @throws IllegalArgumentException if the provided {@code duration} is negative
+     */
+    public void record(long duration) {
+        checkArgument(duration >= 0, "Cannot record the duration %s: expected a positive value", duration);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.size() && duration > BUCKET_BOUNDS.get(bucket)) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the number of recorded durations
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of recorded durations greater than the provided {@code threshold}.
+     * <p>
+     * The provided {@code threshold} must be one of the bounds of the histogram.
+     *
+     * @param threshold the threshold (in milliseconds)
+     * @return the number of recorded durations greater than the {@code threshold}
+     * @throws IllegalArgumentException if the provided {@code threshold} is not a bound of the histogram
+     */
+    public long getCountAbove(long threshold) {
+        int index = BUCKET_BOUNDS.indexOf(threshold);
+        checkArgument(index >= 0, "Cannot compute the count above %s: the threshold must be one of %s", threshold,
+                BUCKET_BOUNDS);
+        long result = 0;
+        for (int i = index + 1; i < counts.length(); i++) {
+            result += counts.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of the buckets of the histogram.
+     * <p>
+     * The returned {@link Map} is ordered by bucket, and its keys are labels of the form {@code <=100ms} (or
+     * {@code >30000ms} for the last bucket).
+     *
+     * @return the count of each bucket
+     */
+    public Map<String, Long> getBuckets() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS.size(); i++) {
+            result.put("<=" + BUCKET_BOUNDS.get(i) + "ms", counts.get(i));
+        }
+        result.put(">" + BUCKET_BOUNDS.get(BUCKET_BOUNDS.size() - 1) + "ms", counts.get(BUCKET_BOUNDS.size()));
+        return result;
+    }
+
+    /**
+     * Returns a {@link JsonObject} containing the buckets of the histogram.
+     *
+     * @return the {@link JsonObject} representing the histogram
+     * @see #getBuckets()
+     */
+    public JsonObject toJson() {
+        JsonObject result = new JsonObject();
+        getBuckets().forEach(result::addProperty);
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package com.xatkit.core.watchdog;
+
+import lombok.NonNull;
+import lombok.Value;
+import org.apache.commons.configuration2.Configuration;
+
+import static fr.inria.atlanmod.commons.Preconditions.checkArgument;
+
+/**
+ * Contains the configuration of the {@link ExecutionWatchdog}.
+ * <p>
+ * This class can be initialized with a {@link Configuration} instance, and takes care of extracting the
+ * watchdog-related properties.
+ * <p>
+ * The base {@link Configuration} used to initialize this class can be accessed through {@link #getBaseConfiguration()}.
+ */
+@Value
+public class WatchdogConfiguration {
+
+    /**
+     * The {@link Configuration} key to enable the {@link ExecutionWatchdog}.
+     * <p>
+     * This property is set to {@code false} by default: monitoring every body, fallback, and guard has a cost on the
+     * execution of the bot, and should be explicitly enabled.
+     */
+    public static final String ENABLED_KEY = "xatkit.watchdog.enabled";
+
+    /**
+     * The {@link Configuration} key to store the time budget (in milliseconds) of a body, fallback, or guard.
+     * <p>
+     * Tasks running longer than this budget are reported in the logs. This property is set to
+     * {@link #DEFAULT_BUDGET} by default.
+     */
+    public static final String BUDGET_KEY = "xatkit.watchdog.budget";
+
+    /**
+     * The default time budget (in milliseconds) of a body, fallback, or guard.
+     */
+    public static final long DEFAULT_BUDGET = 10000;
+
+    /**
+     * The {@link Configuration} key to store the delay (in milliseconds) between two checks of the running tasks.
+     * <p>
+     * This property is set to {@link #DEFAULT_CHECK_INTERVAL} by default.
+     */
+    public static final String CHECK_INTERVAL_KEY = "xatkit.watchdog.check_interval";
+
+    /**
+     * The default delay (in milliseconds) between two checks of the running tasks.
+     */
+    public static final long DEFAULT_CHECK_INTERVAL = 1000;
+
+    /**
+     * The {@link Configuration} key to interrupt the tasks exceeding their budget.
+     * <p>
+     * Synchronous tasks are interrupted, and the stage of asynchronous bodies is cancelled. This property is set to
+     * {@code false} by default (tasks exceeding their budget are only reported).
+     */
+    public static final String INTERRUPT_KEY = "xatkit.watchdog.interrupt";
+
+    /**
+     * The base {@link Configuration} used to initialize the {@link WatchdogConfiguration}.
+     */
+    private Configuration baseConfiguration;
+
+    /**
+     * A flag indicating whether the {@link ExecutionWatchdog} is enabled.
+     *
+     * @see #ENABLED_KEY
+     */
+    private boolean enabled;
+
+    /**
+     * The time budget (in milliseconds) of a body, fallback, or guard.
+     *
+     * @see #BUDGET_KEY
+     */
+    private long budget;
+
+    /**
+     * The delay (in milliseconds) between two checks of the running tasks.
+     *
+     * @see #CHECK_INTERVAL_KEY
+     */
+    private long checkInterval;
+
+    /**
+     * A flag indicating whether the tasks exceeding their budget are interrupted.
+     *
+     * @see #INTERRUPT_KEY
+     */
+    private boolean interrupt;
+
+    /**
+     * Initializes the {@link WatchdogConfiguration} with the provided {@code baseConfiguration}.
+     *
+     * @param baseConfiguration the {@link Configuration} to load the values from
+     * @throws NullPointerException     if the provided {@code baseConfiguration} is {@code null}
+     * @throws IllegalArgumentException if one of the provided values is invalid
+     */
+    public WatchdogConfiguration(@NonNull Configuration baseConfiguration) {
+        this.baseConfiguration = baseConfiguration;
+        this.enabled = baseConfiguration.getBoolean(ENABLED_KEY, false);
+        this.budget = baseConfiguration.getLong(BUDGET_KEY, DEFAULT_BUDGET);
+        checkArgument(budget > 0, "Invalid value for %s: expected a positive value, found %s", BUDGET_KEY, budget);
+        this.checkInterval = baseConfiguration.getLong(CHECK_INTERVAL_KEY, DEFAULT_CHECK_INTERVAL);
+        checkArgument(checkInterval > 0, "Invalid value for %s: expected a positive value, found %s",
+                CHECK_INTERVAL_KEY, checkInterval);
+        this.interrupt = baseConfiguration.getBoolean(INTERRUPT_KEY, false);
+    }
+}
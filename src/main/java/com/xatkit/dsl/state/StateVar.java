@@ -2,7 +2,9 @@ package com.xatkit.dsl.state;
 
 import com.xatkit.execution.StateContext;
 
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Commodity interface (= BodyStep) to have clear usage of the DSL:
@@ -11,4 +13,16 @@ import java.util.function.Consumer;
 public interface StateVar extends NextStep {
 
     NextStep body(Consumer<StateContext> body);
+
+    /**
+     * Sets an asynchronous body returning a {@link CompletionStage}.
+     * <p>
+     * The transitions of the state are evaluated once the returned stage is completed. The execution threads are not
+     * blocked while waiting for the stage.
+     *
+     * @param body the asynchronous body of the state
+     * @return the next step
+     * @see com.xatkit.core.AsyncStateBody
+     */
+    NextStep asyncBody(Function<StateContext, ? extends CompletionStage<?>> body);
 }
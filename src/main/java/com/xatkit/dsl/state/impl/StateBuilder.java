@@ -1,5 +1,6 @@
 package com.xatkit.dsl.state.impl;
 
+import com.xatkit.core.AsyncStateBody;
 import com.xatkit.dsl.state.BodyStep;
 import com.xatkit.dsl.state.FallbackBodyStep;
 import com.xatkit.dsl.state.FallbackStep;
@@ -10,7 +11,9 @@ import com.xatkit.execution.ExecutionFactory;
 import com.xatkit.execution.StateContext;
 import lombok.NonNull;
 
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class StateBuilder extends StateProviderImpl implements
         BodyStep,
@@ -33,6 +36,12 @@ public class StateBuilder extends StateProviderImpl implements
         return this;
     }
 
+    @Override
+    public @NonNull NextStep asyncBody(@NonNull Function<StateContext, ? extends CompletionStage<?>> body) {
+        this.state.setBody(new AsyncStateBody(body));
+        return this;
+    }
+
     @Override
     public @NonNull TransitionStep next() {
         return new TransitionBuilder(this.state);
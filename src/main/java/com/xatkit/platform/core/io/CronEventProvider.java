@@ -5,9 +5,9 @@ import com.xatkit.core.platform.io.RuntimeEventProvider;
 import com.xatkit.execution.StateContext;
 import com.xatkit.intent.EventDefinition;
 import com.xatkit.intent.EventInstance;
-import com.xatkit.intent.IntentFactory;
 import com.xatkit.platform.core.CorePlatform;
 import com.xatkit.platform.core.CoreUtils;
+import com.xatkit.util.TransientEObjects;
 import fr.inria.atlanmod.commons.log.Log;
 import lombok.Getter;
 import lombok.NonNull;
@@ -131,7 +131,7 @@ public class CronEventProvider extends RuntimeEventProvider<CorePlatform> {
                 period);
         final Runnable cronTickCreator = () -> {
             try {
-                EventInstance cronTickEvent = IntentFactory.eINSTANCE.createEventInstance();
+                EventInstance cronTickEvent = TransientEObjects.createEventInstance();
                 cronTickEvent.setDefinition(CronTick);
                 StateContext cronContext = this.getRuntimePlatform().getXatkitBot().getOrCreateContext("cron");
                 this.sendEventInstance(cronTickEvent, cronContext);
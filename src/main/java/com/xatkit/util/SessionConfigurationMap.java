@@ -0,0 +1,199 @@
+package com.xatkit.util;
+
+import lombok.NonNull;
+import org.apache.commons.configuration2.Configuration;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A session-level configuration {@link Map} layered on top of a shared, read-only configuration {@link Map}.
+ * <p>
+ * This class allows to share a single snapshot of the bot's {@link Configuration} between all the
+ * {@link com.xatkit.execution.StateContext}s: reads are delegated to the shared {@link Map}, and updates (including
+ * removals) are stored in a session-specific overlay that is only created when the session changes a value. Updating
+ * a {@link SessionConfigurationMap} never affects the shared {@link Map} nor the other sessions.
+ * <p>
+ * Use {@link #freeze(Configuration)} to create the shared {@link Map} from a {@link Configuration}.
+ * <p>
+ * <b>Note</b>: this class is not thread-safe, a {@link SessionConfigurationMap} is expected to be accessed by a
+ * single session.
+ */
+public class SessionConfigurationMap extends AbstractMap<Object, Object> {
+
+    /**
+     * The marker stored in the overlay for the keys removed from the shared {@link Map}.
+     */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * The shared, read-only configuration {@link Map}.
+     */
+    private final Map<Object, Object> sharedConfiguration;
+
+    /**
+     * The values updated in this session.
+     * <p>
+     * This {@link Map} is {@code null} until the session updates a value.
+     */
+    private Map<Object, Object> overrides;
+
+    /**
+     * Creates a read-only snapshot of the provided {@code configuration}.
+     * <p>
+     * The returned {@link Map} contains the same entries as
+     * {@link org.apache.commons.configuration2.ConfigurationConverter#getMap(Configuration)}, but does not reflect
+     * further updates of the {@code configuration}. It is designed to be computed once and shared by all the
+     * {@link SessionConfigurationMap}s.
+     *
+     * @param configuration the {@link Configuration} to create a snapshot of
+     * @return an unmodifiable {@link Map} containing the properties of the {@code configuration}
+     * @throws NullPointerException if the provided {@code configuration} is {@code null}
+     */
+    public static Map<Object, Object> freeze(@NonNull Configuration configuration) {
+        Map<Object, Object> snapshot = new HashMap<>();
+        configuration.getKeys().forEachRemaining(key -> snapshot.put(key, configuration.getProperty(key)));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Creates a {@link SessionConfigurationMap} layered on top of the provided {@code sharedConfiguration}.
+     * <p>
+     * The provided {@link Map} is never modified by this class.
+     *
+     * @param sharedConfiguration the shared configuration {@link Map}
+     * @throws NullPointerException if the provided {@code sharedConfiguration} is {@code null}
+     * @see #freeze(Configuration)
+     */
+    public SessionConfigurationMap(@NonNull Map<Object, Object> sharedConfiguration) {
+        this.sharedConfiguration = sharedConfiguration;
+    }
+
+    /**
+     * Returns whether this session has updated the shared configuration.
+     *
+     * @return {@code true} if this session contains updated values, {@code false} otherwise
+     */
+    public boolean hasOverrides() {
+        return nonNull(overrides) && !overrides.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get(Object key) {
+        if (nonNull(overrides) && overrides.containsKey(key)) {
+            Object value = overrides.get(key);
+            return value == REMOVED ? null : value;
+        }
+        return sharedConfiguration.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (nonNull(overrides) && overrides.containsKey(key)) {
+            return overrides.get(key) != REMOVED;
+        }
+        return sharedConfiguration.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is stored in this session only.
+     */
+    @Override
+    public Object put(Object key, Object value) {
+        Object previous = get(key);
+        getOverrides().put(key, value);
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Removing a key of the shared configuration hides it from this session only.
+     */
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        Object previous = get(key);
+        if (sharedConfiguration.containsKey(key)) {
+            getOverrides().put(key, REMOVED);
+        } else {
+            overrides.remove(key);
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Clearing a {@link SessionConfigurationMap} hides the shared configuration from this session only.
+     */
+    @Override
+    public void clear() {
+        Map<Object, Object> cleared = new HashMap<>();
+        for (Object key : sharedConfiguration.keySet()) {
+            cleared.put(key, REMOVED);
+        }
+        this.overrides = cleared;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        if (isNull(overrides)) {
+            return sharedConfiguration.size();
+        }
+        return entrySet().size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned {@link Set} is unmodifiable, use {@link #put(Object, Object)} and {@link #remove(Object)} to
+     * update the map.
+     */
+    @Override
+    public Set<Entry<Object, Object>> entrySet() {
+        if (isNull(overrides)) {
+            return Collections.unmodifiableMap(sharedConfiguration).entrySet();
+        }
+        Map<Object, Object> merged = new HashMap<>(sharedConfiguration);
+        for (Entry<Object, Object> entry : overrides.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                merged.remove(entry.getKey());
+            } else {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(merged).entrySet();
+    }
+
+    /**
+     * Returns the session overlay, creating it if needed.
+     *
+     * @return the session overlay
+     */
+    private Map<Object, Object> getOverrides() {
+        if (isNull(overrides)) {
+            overrides = new HashMap<>();
+        }
+        return overrides;
+    }
+}
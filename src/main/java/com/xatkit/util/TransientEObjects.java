@@ -0,0 +1,115 @@
+package com.xatkit.util;
+
+import com.xatkit.intent.ContextParameter;
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import lombok.NonNull;
+import org.eclipse.emf.common.notify.Notifier;
+
+/**
+ * An utility class creating the transient EMF objects instantiated for each message processed by the runtime.
+ * <p>
+ * {@link RecognizedIntent}s, {@link EventInstance}s, and {@link ContextParameterValue}s are created for every
+ * received message, and are discarded once the message has been processed. This class creates them with
+ * {@link IntentFactory#eINSTANCE}, and disables their notification delivery (see
+ * {@link Notifier#eSetDeliver(boolean)}) if {@link #setNotificationsEnabled(boolean)} has been called with {@code
+ * false}. Setters of objects that do not deliver notifications skip the creation of the notification and the walk
+ * of the adapter list.
+ * <p>
+ * Notifications are enabled by default. Disabling them is safe as long as no adapter is attached to the created
+ * objects (the runtime does not attach any).
+ *
+ * @see com.xatkit.core.XatkitBot#EMF_NOTIFICATIONS_KEY
+ */
+public class TransientEObjects {
+
+    /**
+     * A flag telling whether the created objects deliver notifications.
+     */
+    private static volatile boolean notificationsEnabled = true;
+
+    /**
+     * Disallows the creation of {@link TransientEObjects} instances.
+     */
+    private TransientEObjects() {
+    }
+
+    /**
+     * Sets whether the objects created by this class deliver notifications.
+     * <p>
+     * This setting only affects the objects created after the call.
+     *
+     * @param enabled {@code true} to enable notifications, {@code false} otherwise
+     */
+    public static void setNotificationsEnabled(boolean enabled) {
+        notificationsEnabled = enabled;
+    }
+
+    /**
+     * Returns whether the objects created by this class deliver notifications.
+     *
+     * @return {@code true} if notifications are enabled, {@code false} otherwise
+     */
+    public static boolean isNotificationsEnabled() {
+        return notificationsEnabled;
+    }
+
+    /**
+     * Creates a new {@link RecognizedIntent}.
+     *
+     * @return the created {@link RecognizedIntent}
+     */
+    public static RecognizedIntent createRecognizedIntent() {
+        return configure(IntentFactory.eINSTANCE.createRecognizedIntent());
+    }
+
+    /**
+     * Creates a new {@link EventInstance}.
+     *
+     * @return the created {@link EventInstance}
+     */
+    public static EventInstance createEventInstance() {
+        return configure(IntentFactory.eINSTANCE.createEventInstance());
+    }
+
+    /**
+     * Creates a new {@link ContextParameterValue}.
+     *
+     * @return the created {@link ContextParameterValue}
+     */
+    public static ContextParameterValue createContextParameterValue() {
+        return configure(IntentFactory.eINSTANCE.createContextParameterValue());
+    }
+
+    /**
+     * Creates a new {@link ContextParameterValue} for the provided {@code contextParameter} and {@code value}.
+     *
+     * @param contextParameter the {@link ContextParameter} to create a value of
+     * @param value            the value to set
+     * @return the created {@link ContextParameterValue}
+     * @throws NullPointerException if the provided {@code contextParameter} is {@code null}
+     */
+    public static ContextParameterValue createContextParameterValue(@NonNull ContextParameter contextParameter,
+                                                                    Object value) {
+        ContextParameterValue contextParameterValue = createContextParameterValue();
+        contextParameterValue.setContextParameter(contextParameter);
+        contextParameterValue.setValue(value);
+        return contextParameterValue;
+    }
+
+    /**
+     * Disables the notification delivery of the provided {@code notifier} if notifications are disabled.
+     *
+     * @param notifier the {@link Notifier} to configure
+     * @param <T>      the type of the {@code notifier}
+     * @return the provided {@code notifier}
+     */
+    private static <T extends Notifier> T configure(T notifier) {
+        if (!notificationsEnabled) {
+            notifier.eSetDeliver(false);
+        }
+        return notifier;
+    }
+}
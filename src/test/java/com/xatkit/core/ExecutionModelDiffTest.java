@@ -0,0 +1,105 @@
+package com.xatkit.core;
+
+import com.xatkit.core.platform.io.RuntimeEventProvider;
+import com.xatkit.dsl.intent.IntentDefinitionProvider;
+import com.xatkit.dsl.intent.IntentVar;
+import com.xatkit.dsl.model.UseEventStep;
+import com.xatkit.execution.ExecutionModel;
+import com.xatkit.intent.IntentDefinition;
+import lombok.val;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.xatkit.dsl.DSL.fallbackState;
+import static com.xatkit.dsl.DSL.intent;
+import static com.xatkit.dsl.DSL.mapping;
+import static com.xatkit.dsl.DSL.model;
+import static com.xatkit.dsl.DSL.state;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ExecutionModelDiffTest {
+
+    private RuntimeEventProvider provider = mock(RuntimeEventProvider.class);
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullOldModel() {
+        new ExecutionModelDiff(null, createModel(greetings()));
+    }
+
+    @Test
+    public void diffSameModel() {
+        ExecutionModelDiff diff = new ExecutionModelDiff(createModel(greetings(), bye()),
+                createModel(greetings(), bye()));
+        assertThat(diff.isIntentRecognitionUnchanged()).isTrue();
+        assertThat(diff.getRemovedEvents()).isEmpty();
+    }
+
+    @Test
+    public void diffAddedRemovedAndChangedIntents() {
+        val changedGreetings = intent("Greetings")
+                .trainingSentence("Hi")
+                .trainingSentence("Hello");
+        ExecutionModelDiff diff = new ExecutionModelDiff(createModel(greetings(), bye()),
+                createModel(changedGreetings, intent("Help").trainingSentence("Help")));
+        assertThat(names(diff.getIntentsToDelete())).containsExactlyInAnyOrder("Greetings", "Bye");
+        assertThat(names(diff.getIntentsToRegister())).containsExactlyInAnyOrder("Greetings", "Help");
+        assertThat(diff.getRemovedEvents()).containsExactly("Bye");
+    }
+
+    @Test
+    public void diffChangedEntity() {
+        val oldCategory = intent("Category")
+                .trainingSentence("I like DSL")
+                .parameter("category").fromFragment("DSL").entity(mapping("Category")
+                        .entry().value("DSL"));
+        val newCategory = intent("Category")
+                .trainingSentence("I like DSL")
+                .parameter("category").fromFragment("DSL").entity(mapping("Category")
+                        .entry().value("DSL")
+                        .entry().value("UML"));
+        ExecutionModelDiff diff = new ExecutionModelDiff(createModel(oldCategory, greetings()),
+                createModel(newCategory, greetings()));
+        assertThat(diff.getEntitiesToDelete()).hasSize(1);
+        assertThat(diff.getEntitiesToRegister()).hasSize(1);
+        /*
+         * The intent referring to the changed entity must be registered again.
+         */
+        assertThat(names(diff.getIntentsToDelete())).containsExactly("Category");
+        assertThat(names(diff.getIntentsToRegister())).containsExactly("Category");
+    }
+
+    private IntentVar greetings() {
+        return intent("Greetings").trainingSentence("Hi");
+    }
+
+    private IntentVar bye() {
+        return intent("Bye").trainingSentence("Bye");
+    }
+
+    private ExecutionModel createModel(IntentDefinitionProvider... intents) {
+        UseEventStep step = model();
+        for (IntentDefinitionProvider intent : intents) {
+            step = step.useIntent(intent);
+        }
+        val init = state("Init");
+        init.body(context -> {
+        });
+        ExecutionModel model = step
+                .listenTo(provider)
+                .initState(init)
+                .defaultFallbackState(fallbackState().body(context -> {
+                }))
+                .getExecutionModel();
+        model.consolidate();
+        return model;
+    }
+
+    private static List<String> names(List<IntentDefinition> intents) {
+        return intents.stream()
+                .map(IntentDefinition::getName)
+                .collect(Collectors.toList());
+    }
+}
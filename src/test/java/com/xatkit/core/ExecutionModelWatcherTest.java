@@ -0,0 +1,115 @@
+package com.xatkit.core;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.dsl.model.ExecutionModelProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static java.util.Objects.nonNull;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class ExecutionModelWatcherTest extends AbstractXatkitTest {
+
+    private static final long RELOAD_TIMEOUT = 10000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private XatkitBot xatkitBot;
+
+    private ExecutionModelProvider executionModelProvider;
+
+    private Path file;
+
+    private ExecutionModelWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        xatkitBot = mock(XatkitBot.class);
+        executionModelProvider = mock(ExecutionModelProvider.class);
+        file = temporaryFolder.newFile("intents.txt").toPath();
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(watcher)) {
+            watcher.close();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullXatkitBot() {
+        watcher = new ExecutionModelWatcher(null, file, executionModelProvider);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullFile() {
+        watcher = new ExecutionModelWatcher(xatkitBot, null, executionModelProvider);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullExecutionModelProvider() {
+        watcher = new ExecutionModelWatcher(xatkitBot, file, null);
+    }
+
+    @Test(expected = XatkitException.class)
+    public void constructMissingDirectory() {
+        watcher = new ExecutionModelWatcher(xatkitBot, file.resolveSibling("missing").resolve("intents.txt"),
+                executionModelProvider);
+    }
+
+    @Test
+    public void modifyFileReloadsModel() throws IOException {
+        watcher = new ExecutionModelWatcher(xatkitBot, file, executionModelProvider);
+        write(file, "Hi");
+        verify(xatkitBot, timeout(RELOAD_TIMEOUT)).reloadExecutionModel(executionModelProvider);
+    }
+
+    @Test
+    public void modifyOtherFileDoesNotReloadModel() throws IOException {
+        watcher = new ExecutionModelWatcher(xatkitBot, file, executionModelProvider);
+        write(temporaryFolder.newFile("other.txt").toPath(), "Hi");
+        verify(xatkitBot, after(ExecutionModelWatcher.DEBOUNCE_DELAY * 3).never())
+                .reloadExecutionModel(executionModelProvider);
+    }
+
+    @Test
+    public void reloadErrorKeepsWatching() throws IOException, InterruptedException {
+        doThrow(new XatkitException("error")).when(xatkitBot).reloadExecutionModel(executionModelProvider);
+        watcher = new ExecutionModelWatcher(xatkitBot, file, executionModelProvider);
+        write(file, "Hi");
+        verify(xatkitBot, timeout(RELOAD_TIMEOUT)).reloadExecutionModel(executionModelProvider);
+        /*
+         * Wait for the end of the debounce delay, otherwise the next modification is grouped with the first one.
+         */
+        Thread.sleep(ExecutionModelWatcher.DEBOUNCE_DELAY * 2);
+        write(file, "Hello");
+        verify(xatkitBot, timeout(RELOAD_TIMEOUT).times(2)).reloadExecutionModel(executionModelProvider);
+    }
+
+    @Test
+    public void closeStopsWatching() throws IOException {
+        watcher = new ExecutionModelWatcher(xatkitBot, file, executionModelProvider);
+        watcher.close();
+        write(file, "Hi");
+        verify(xatkitBot, after(ExecutionModelWatcher.DEBOUNCE_DELAY * 3).never())
+                .reloadExecutionModel(executionModelProvider);
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, Collections.singletonList(content), StandardCharsets.UTF_8);
+    }
+}
@@ -2,15 +2,34 @@ package com.xatkit.core;
 
 import com.xatkit.AbstractXatkitTest;
 import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.ExecutionModel;
+import com.xatkit.execution.State;
 import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
 import com.xatkit.test.bot.TestBot;
+import lombok.val;
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.xatkit.dsl.DSL.fallbackState;
+import static com.xatkit.dsl.DSL.intent;
+import static com.xatkit.dsl.DSL.intentIs;
+import static com.xatkit.dsl.DSL.model;
+import static com.xatkit.dsl.DSL.state;
 import static java.util.Objects.nonNull;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class ExecutionServiceTest extends AbstractXatkitTest {
 
@@ -80,6 +99,40 @@ public class ExecutionServiceTest extends AbstractXatkitTest {
         assertThat(testBot.isDefaultFallbackExecuted()).isFalse();
     }
 
+    @Test
+    public void handleEventFailingBody() throws Exception {
+        val greetings = intent("Greetings").trainingSentence("Hi");
+        val init = state("Init");
+        val failingState = state("Failing");
+        init.next().when(intentIs(greetings)).moveTo(failingState);
+        failingState.body(context -> {
+            throw new RuntimeException("Failing body");
+        }).next().moveTo(init);
+        ExecutionModel model = model()
+                .useIntent(greetings)
+                .listenTo(testBot.getProvider())
+                .useState(failingState)
+                .initState(init)
+                .defaultFallbackState(fallbackState().body(context -> {
+                }))
+                .getExecutionModel();
+        executionService = new ExecutionService(model, new BaseConfiguration());
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("contextId");
+        executionService.initContext(context);
+        RecognizedIntent intent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        intent.setDefinition(greetings.getIntentDefinition());
+        assertThatThrownBy(() -> executionService.handleEventInstance(intent, context).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(RuntimeException.class);
+        assertThat(context.getState().getName()).isEqualTo("Failing");
+        /*
+         * The failure does not prevent the next events of the context from being processed.
+         */
+        executionService.handleEventInstance(intent, context).get(5, TimeUnit.SECONDS);
+        assertThat(context.getState().getName()).isEqualTo("Init");
+    }
+
     @Test
     public void handleEventNotNavigableEvent() throws InterruptedException {
         executionService = getValidExecutionService();
@@ -124,6 +177,93 @@ public class ExecutionServiceTest extends AbstractXatkitTest {
         assertThat(context.getState().getName()).isEqualTo("Init");
     }
 
+    @Test
+    public void updateModelMigratesContexts() {
+        executionService = getValidExecutionService();
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("contextId");
+        context.setState(testBot.getModel().getInitState());
+        StateContext removedStateContext = ExecutionFactory.eINSTANCE.createStateContext();
+        removedStateContext.setContextId("removedStateContextId");
+        State removedState = ExecutionFactory.eINSTANCE.createState();
+        removedState.setName("Removed");
+        removedStateContext.setState(removedState);
+        TestBot newTestBot = new TestBot();
+        int resetCount = executionService.updateModel(newTestBot.getModel(), Arrays.asList(context,
+                removedStateContext));
+        assertThat(resetCount).isEqualTo(1);
+        assertThat(executionService.getModel()).isEqualTo(newTestBot.getModel());
+        assertThat(context.getState()).isEqualTo(newTestBot.getModel().getInitState());
+        assertThat(removedStateContext.getState()).isEqualTo(newTestBot.getModel().getInitState());
+        assertThat(newTestBot.getModel().getStates()).contains(executionService.getState("GreetingsState"));
+    }
+
+    @Test
+    public void updateModelFromExecutorThread() throws Exception {
+        executionService = getValidExecutionService();
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("contextId");
+        context.setState(testBot.getModel().getInitState());
+        TestBot newTestBot = new TestBot();
+        /*
+         * Waiting for the single thread of the executor from one of its tasks would deadlock.
+         */
+        executionService.runAfterEvents(context, () -> executionService.updateModel(newTestBot.getModel(),
+                Arrays.asList(context))).get(5, TimeUnit.SECONDS);
+        assertThat(executionService.getModel()).isEqualTo(newTestBot.getModel());
+        assertThat(context.getState()).isEqualTo(newTestBot.getModel().getInitState());
+    }
+
+    @Test
+    public void handleEventAsyncBodyPreservesContextOrder() throws Exception {
+        CompletableFuture<Void> asyncBodyCompletion = new CompletableFuture<>();
+        CountDownLatch asyncBodyStarted = new CountDownLatch(2);
+        List<String> executions = new CopyOnWriteArrayList<>();
+        val greetings = intent("Greetings").trainingSentence("Hi");
+        val init = state("Init");
+        val asyncState = state("Async");
+        val afterAsyncState = state("AfterAsync");
+        init.next().when(intentIs(greetings)).moveTo(asyncState);
+        asyncState.asyncBody(context -> {
+            executions.add("async body started");
+            asyncBodyStarted.countDown();
+            return asyncBodyCompletion;
+        }).next().when(intentIs(greetings)).moveTo(afterAsyncState);
+        afterAsyncState.body(context -> executions.add(context.getContextId() + " after async")).next().moveTo(init);
+        ExecutionModel model = model()
+                .useIntent(greetings)
+                .listenTo(testBot.getProvider())
+                .useState(asyncState)
+                .useState(afterAsyncState)
+                .initState(init)
+                .defaultFallbackState(fallbackState().body(context -> executions.add("fallback")))
+                .getExecutionModel();
+        executionService = new ExecutionService(model, new BaseConfiguration());
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("contextId");
+        executionService.initContext(context);
+        StateContext otherContext = ExecutionFactory.eINSTANCE.createStateContext();
+        otherContext.setContextId("otherContextId");
+        executionService.initContext(otherContext);
+        RecognizedIntent intent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        intent.setDefinition(greetings.getIntentDefinition());
+        executionService.handleEventInstance(intent, context);
+        CompletableFuture<Void> secondEvent = executionService.handleEventInstance(intent, context);
+        executionService.handleEventInstance(intent, otherContext);
+        /*
+         * The second event of the context waits for the async body, but the other context is not blocked.
+         */
+        assertThat(asyncBodyStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(secondEvent).isNotDone();
+        assertThat(executions).containsExactly("async body started", "async body started");
+        assertThat(otherContext.getState().getName()).isEqualTo("Async");
+        asyncBodyCompletion.complete(null);
+        secondEvent.get(5, TimeUnit.SECONDS);
+        assertThat(executions).containsExactly("async body started", "async body started", "contextId after async");
+        assertThat(context.getState().getName()).isEqualTo("Init");
+        assertThat(otherContext.getState().getName()).isEqualTo("Async");
+    }
+
     private ExecutionService getValidExecutionService() {
         return new ExecutionService(testBot.getModel(), new BaseConfiguration());
     }
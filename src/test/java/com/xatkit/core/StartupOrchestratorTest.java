@@ -0,0 +1,84 @@
+package com.xatkit.core;
+
+import com.xatkit.core.StartupOrchestrator.PhaseStatus;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StartupOrchestratorTest {
+
+    @Test
+    public void addPhaseUnknownDependency() {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(true);
+        assertThatThrownBy(() -> orchestrator.addPhase("phase", () -> {
+        }, "unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void addPhaseDuplicatedName() {
+        StartupOrchestrator orchestrator = new StartupOrchestrator(true);
+        orchestrator.addPhase("phase", () -> {
+        });
+        assertThatThrownBy(() -> orchestrator.addPhase("phase", () -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void runSequential() {
+        List<String> executed = new CopyOnWriteArrayList<>();
+        StartupOrchestrator orchestrator = new StartupOrchestrator(false);
+        orchestrator.addPhase("a", () -> executed.add("a"));
+        orchestrator.addPhase("b", () -> executed.add("b"));
+        orchestrator.addPhase("c", () -> executed.add("c"), "a", "b");
+        orchestrator.run();
+        assertThat(executed).containsExactly("a", "b", "c");
+        assertThat(orchestrator.getPhaseStatuses()).containsValues(PhaseStatus.DONE);
+        assertThat(orchestrator.getPhaseDurations()).containsOnlyKeys("a", "b", "c");
+    }
+
+    @Test
+    public void runParallelIndependentPhases() {
+        /*
+         * Each phase waits for the other one: this test only terminates if the phases are executed in parallel.
+         */
+        CountDownLatch latch = new CountDownLatch(2);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        StartupOrchestrator orchestrator = new StartupOrchestrator(true);
+        orchestrator.addPhase("a", () -> awaitLatch(latch));
+        orchestrator.addPhase("b", () -> awaitLatch(latch));
+        orchestrator.addPhase("c", () -> executed.add("c"), "a", "b");
+        orchestrator.run();
+        assertThat(executed).containsExactly("c");
+    }
+
+    @Test
+    public void runFailingPhase() {
+        List<String> executed = new CopyOnWriteArrayList<>();
+        StartupOrchestrator orchestrator = new StartupOrchestrator(true);
+        orchestrator.addPhase("a", () -> {
+            throw new IllegalStateException("error");
+        });
+        orchestrator.addPhase("b", () -> executed.add("b"));
+        orchestrator.addPhase("c", () -> executed.add("c"), "a");
+        assertThatThrownBy(orchestrator::run).isInstanceOf(IllegalStateException.class).hasMessage("error");
+        assertThat(executed).containsExactly("b");
+        assertThat(orchestrator.getPhaseStatuses().get("a")).isEqualTo(PhaseStatus.FAILED);
+        assertThat(orchestrator.getPhaseStatuses().get("b")).isEqualTo(PhaseStatus.DONE);
+        assertThat(orchestrator.getPhaseStatuses().get("c")).isEqualTo(PhaseStatus.SKIPPED);
+    }
+
+    private void awaitLatch(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).as("Phases executed in parallel").isTrue();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
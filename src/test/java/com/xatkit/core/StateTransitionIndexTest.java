@@ -0,0 +1,118 @@
+package com.xatkit.core;
+
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.State;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.xatkit.dsl.DSL.event;
+import static com.xatkit.dsl.DSL.eventIs;
+import static com.xatkit.dsl.DSL.intent;
+import static com.xatkit.dsl.DSL.intentIs;
+import static com.xatkit.dsl.DSL.state;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StateTransitionIndexTest {
+
+    private State target;
+
+    private IntentDefinition intent;
+
+    private EventDefinition event;
+
+    @Before
+    public void setUp() {
+        target = ExecutionFactory.eINSTANCE.createState();
+        target.setName("Target");
+        intent = intent("Intent")
+                .trainingSentence("Hi")
+                .getIntentDefinition();
+        event = event("Event")
+                .getEventDefinition();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullState() {
+        new StateTransitionIndex(null);
+    }
+
+    @Test
+    public void constructStateWithAutoTransition() {
+        val state = state("State")
+                .next()
+                    .moveTo(target);
+        StateTransitionIndex index = new StateTransitionIndex(state.getState());
+        assertThat(index.getAutoTransitions()).hasSize(1);
+        assertThat(index.getConditionalTransitions()).isEmpty();
+        assertThat(index.getEventTransitions(createRecognizedIntent(intent))).isEmpty();
+    }
+
+    @Test
+    public void constructStateWithCustomTransition() {
+        val state = state("State")
+                .next()
+                    .when(context -> context.getSession().containsKey("key")).moveTo(target);
+        StateTransitionIndex index = new StateTransitionIndex(state.getState());
+        assertThat(index.getAutoTransitions()).isEmpty();
+        assertThat(index.getConditionalTransitions()).hasSize(1);
+        assertThat(index.getEventTransitions(createRecognizedIntent(intent))).isEmpty();
+    }
+
+    @Test
+    public void getEventTransitionsIntentIsTransition() {
+        val state = state("State")
+                .next()
+                    .when(intentIs(intent)).moveTo(target)
+                    .when(eventIs(event)).moveTo(target);
+        StateTransitionIndex index = new StateTransitionIndex(state.getState());
+        assertThat(index.getConditionalTransitions()).isEmpty();
+        assertThat(index.getEventTransitions(createRecognizedIntent(intent))).hasSize(1)
+                .allMatch(t -> t.equals(state.getState().getTransitions().get(0)));
+    }
+
+    @Test
+    public void getEventTransitionsEventIsTransition() {
+        val state = state("State")
+                .next()
+                    .when(intentIs(intent)).moveTo(target)
+                    .when(eventIs(event)).moveTo(target);
+        StateTransitionIndex index = new StateTransitionIndex(state.getState());
+        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        eventInstance.setDefinition(event);
+        assertThat(index.getEventTransitions(eventInstance)).hasSize(1)
+                .allMatch(t -> t.equals(state.getState().getTransitions().get(1)));
+    }
+
+    @Test
+    public void getEventTransitionsNotIndexedEvent() {
+        val state = state("State")
+                .next()
+                    .when(intentIs(intent)).moveTo(target);
+        StateTransitionIndex index = new StateTransitionIndex(state.getState());
+        IntentDefinition otherIntent = intent("OtherIntent")
+                .trainingSentence("Bye")
+                .getIntentDefinition();
+        assertThat(index.getEventTransitions(createRecognizedIntent(otherIntent))).isEmpty();
+    }
+
+    @Test
+    public void getEventTransitionsNullEventInstance() {
+        val state = state("State")
+                .next()
+                    .when(intentIs(intent)).moveTo(target);
+        StateTransitionIndex index = new StateTransitionIndex(state.getState());
+        assertThat(index.getEventTransitions(null)).isEmpty();
+    }
+
+    private RecognizedIntent createRecognizedIntent(IntentDefinition intentDefinition) {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(intentDefinition);
+        return recognizedIntent;
+    }
+}
@@ -1,7 +1,10 @@
 package com.xatkit.core;
 
+import com.google.gson.JsonObject;
 import com.xatkit.AbstractXatkitTest;
 import com.xatkit.core.recognition.regex.RegExIntentRecognitionProvider;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandlerException;
 import com.xatkit.dsl.model.ExecutionModelProvider;
 import com.xatkit.execution.ExecutionFactory;
 import com.xatkit.execution.ExecutionModel;
@@ -9,10 +12,13 @@ import com.xatkit.execution.StateContext;
 import com.xatkit.intent.EventDefinition;
 import com.xatkit.test.bot.TestBot;
 import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static java.util.Objects.nonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -66,6 +72,28 @@ public class XatkitBotTest extends AbstractXatkitTest {
          */
     }
 
+    @Test
+    public void runValidParametersIsReady() throws RestHandlerException {
+        xatkitBot = getValidXatkitBot();
+        assertThat(xatkitBot.isReady()).isFalse();
+        xatkitBot.run();
+        assertThat(xatkitBot.isReady()).isTrue();
+        assertThat(xatkitBot.getXatkitServer().isRestEndpoint(HttpMethod.GET, XatkitBot.READINESS_ENDPOINT_URI))
+                .isTrue();
+        Object readiness = xatkitBot.getXatkitServer().notifyRestHandler(HttpMethod.GET,
+                XatkitBot.READINESS_ENDPOINT_URI, Collections.emptyList(), Collections.emptyList(), null, null);
+        assertThat(((JsonObject) readiness).get("ready").getAsBoolean()).isTrue();
+    }
+
+    @Test
+    public void runSequentialStartup() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(XatkitBot.PARALLEL_STARTUP_KEY, false);
+        xatkitBot = new XatkitBot(testBot.getModel(), configuration);
+        xatkitBot.run();
+        assertThatXatkitBotIsInitializedWithModel(xatkitBot, testBot.getModel());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void runExecutionModelDoesNotContainAnyEventProvider() {
         ExecutionModel executionModel = ExecutionFactory.eINSTANCE.createExecutionModel();
@@ -0,0 +1,180 @@
+package com.xatkit.core.cluster;
+
+import com.google.gson.JsonObject;
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.core.XatkitBot;
+import com.xatkit.core.platform.io.IntentRecognitionHelper;
+import com.xatkit.core.server.XatkitServerUtils;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.test.bot.TestBot;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClusterManagerTest extends AbstractXatkitTest {
+
+    private static final int PORT_1 = 5101;
+
+    private static final int PORT_2 = 5102;
+
+    private static final String NODE_1 = "http://localhost:" + PORT_1;
+
+    private static final String NODE_2 = "http://localhost:" + PORT_2;
+
+    private static final String TOKEN = "cluster-secret";
+
+    private XatkitBot node1;
+
+    private XatkitBot node2;
+
+    @Before
+    public void setUp() {
+        node1 = createNode(PORT_1);
+        node2 = createNode(PORT_2);
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(node1) && !node1.isShutdown()) {
+            node1.shutdown();
+        }
+        if (nonNull(node2) && !node2.isShutdown()) {
+            node2.shutdown();
+        }
+    }
+
+    @Test
+    public void constructMissingToken() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(ClusterConfiguration.ENABLED_KEY, true);
+        configuration.addProperty(ClusterConfiguration.NODES_KEY, Arrays.asList(NODE_1, NODE_2));
+        assertThatThrownBy(() -> new ClusterConfiguration(configuration, NODE_1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void recognizeForwardedToOwner() throws Exception {
+        String contextId = getContextOwnedBy(NODE_2);
+        StateContext context = node1.getOrCreateContext(contextId);
+        RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent("Hi", context, node1);
+        assertThat(recognizedIntent.getDefinition().getName()).isEqualTo("Greetings");
+        assertThat(node1.getContext(contextId)).isNull();
+        assertThat(node2.getContext(contextId)).isNotNull();
+    }
+
+    @Test
+    public void forwardEventMergesSession() throws Exception {
+        String contextId = getContextOwnedBy(NODE_2);
+        StateContext context = node1.getOrCreateContext(contextId);
+        context.getSession().put("forwarded", "value");
+        RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent("Hi", context, node1);
+        node1.getClusterManager().forwardEvent(recognizedIntent, context);
+        assertThat(node1.getContext(contextId)).isNull();
+        assertThat(node2.getContext(contextId).getSession()).containsEntry("forwarded", "value");
+    }
+
+    @Test
+    public void forwardEventOnlyMergesChangedValues() throws Exception {
+        String contextId = getContextOwnedBy(NODE_2);
+        StateContext context = node1.getOrCreateContext(contextId);
+        context.getSession().put("forwarded", "value");
+        RecognizedIntent recognizedIntent = IntentRecognitionHelper.getRecognizedIntent("Hi", context, node1);
+        node1.getClusterManager().forwardEvent(recognizedIntent, context);
+        node2.getContext(contextId).getSession().put("forwarded", "owner value");
+        context.getSession().put("other", 1);
+        node1.getClusterManager().forwardEvent(recognizedIntent, context);
+        assertThat(node2.getContext(contextId).getSession()).as("Stale values are not merged")
+                .containsEntry("forwarded", "owner value")
+                .containsEntry("other", 1);
+    }
+
+    @Test
+    public void changedValues() {
+        JsonObject previousSession = new JsonObject();
+        previousSession.addProperty("unchanged", "value");
+        previousSession.addProperty("changed", 1);
+        JsonObject session = new JsonObject();
+        session.addProperty("unchanged", "value");
+        session.addProperty("changed", 2);
+        session.addProperty("added", true);
+        JsonObject changedValues = ClusterManager.changedValues(session, previousSession);
+        assertThat(changedValues.has("unchanged")).as("Unchanged values are not sent").isFalse();
+        assertThat(changedValues.get("changed").getAsInt()).isEqualTo(2);
+        assertThat(changedValues.get("added").getAsBoolean()).isTrue();
+        assertThat(ClusterManager.changedValues(session, null)).isEqualTo(session);
+    }
+
+    @Test
+    public void requestWithoutToken() throws Exception {
+        assertThat(postRecognize(NODE_2, null)).isEqualTo(HttpStatus.SC_UNAUTHORIZED);
+        assertThat(postRecognize(NODE_2, "invalid")).isEqualTo(HttpStatus.SC_UNAUTHORIZED);
+        assertThat(postRecognize(NODE_2, TOKEN)).isEqualTo(HttpStatus.SC_OK);
+    }
+
+    @Test
+    public void updateMembershipHandsOffSessions() {
+        String contextId = getContextOwnedBy(NODE_1);
+        StateContext context = node1.getOrCreateContext(contextId);
+        context.getSession().put("name", "Xatkit");
+        String stateName = context.getState().getName();
+        int handedOff = node1.getClusterManager().updateMembership(Collections.singletonList(NODE_2));
+        assertThat(handedOff).isEqualTo(1);
+        assertThat(node1.getContext(contextId)).isNull();
+        assertThat(node1.getClusterManager().getOwner(contextId)).isEqualTo(NODE_2);
+        StateContext importedContext = node2.getContext(contextId);
+        assertThat(importedContext).isNotNull();
+        assertThat(importedContext.getState().getName()).isEqualTo(stateName);
+        assertThat(importedContext.getSession()).containsEntry("name", "Xatkit");
+    }
+
+    private XatkitBot createNode(int port) {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(XatkitServerUtils.SERVER_PORT_KEY, port);
+        configuration.addProperty(ClusterConfiguration.ENABLED_KEY, true);
+        configuration.addProperty(ClusterConfiguration.NODES_KEY, Arrays.asList(NODE_1, NODE_2));
+        configuration.addProperty(ClusterConfiguration.TOKEN_KEY, TOKEN);
+        XatkitBot xatkitBot = new XatkitBot(new TestBot().getModel(), configuration);
+        xatkitBot.run();
+        return xatkitBot;
+    }
+
+    private String getContextOwnedBy(String node) {
+        for (int i = 0; ; i++) {
+            String contextId = "context-" + i;
+            if (node1.getClusterManager().getOwner(contextId).equals(node)) {
+                return contextId;
+            }
+        }
+    }
+
+    private int postRecognize(String node, @Nullable String token) throws Exception {
+        HttpPost post = new HttpPost(node + ClusterManager.RECOGNIZE_ENDPOINT_URI);
+        if (nonNull(token)) {
+            post.setHeader(ClusterManager.TOKEN_HEADER, token);
+        }
+        post.setEntity(new StringEntity("{\"contextId\": \"" + getContextOwnedBy(node) + "\", \"input\": \"Hi\"}",
+                ContentType.APPLICATION_JSON));
+        try (CloseableHttpClient httpClient = HttpClients.createDefault();
+             CloseableHttpResponse response = httpClient.execute(post)) {
+            return response.getStatusLine().getStatusCode();
+        }
+    }
+}
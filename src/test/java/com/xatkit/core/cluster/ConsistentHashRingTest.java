@@ -0,0 +1,89 @@
+package com.xatkit.core.cluster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConsistentHashRingTest {
+
+    private static final List<String> NODES = Arrays.asList("http://localhost:5000", "http://localhost:5001",
+            "http://localhost:5002");
+
+    private static final int KEY_COUNT = 3000;
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullNodes() {
+        new ConsistentHashRing(null, 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroVirtualNodes() {
+        new ConsistentHashRing(NODES, 0);
+    }
+
+    @Test
+    public void getOwnerEmptyRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(Collections.emptyList(), 16);
+        assertThatThrownBy(() -> ring.getOwner("context")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void getOwnerIsDeterministic() {
+        ConsistentHashRing ring1 = new ConsistentHashRing(NODES, 128);
+        List<String> reversedNodes = Arrays.asList(NODES.get(2), NODES.get(1), NODES.get(0));
+        ConsistentHashRing ring2 = new ConsistentHashRing(reversedNodes, 128);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertThat(ring1.getOwner("context" + i)).isEqualTo(ring2.getOwner("context" + i));
+        }
+    }
+
+    @Test
+    public void getOwnerIsBalanced() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            counts.merge(ring.getOwner("context" + i), 1, Integer::sum);
+        }
+        assertThat(counts).containsOnlyKeys(NODES.toArray(new String[0]));
+        /*
+         * Each node should own roughly a third of the keys.
+         */
+        counts.values().forEach(count -> assertThat(count).isBetween(KEY_COUNT / 6, KEY_COUNT / 2));
+    }
+
+    @Test
+    public void addNodeOnlyMovesKeysToNewNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            owners.put("context" + i, ring.getOwner("context" + i));
+        }
+        ring.addNode("http://localhost:5003");
+        int moved = 0;
+        for (Map.Entry<String, String> entry : owners.entrySet()) {
+            String newOwner = ring.getOwner(entry.getKey());
+            if (!newOwner.equals(entry.getValue())) {
+                assertThat(newOwner).isEqualTo("http://localhost:5003");
+                moved++;
+            }
+        }
+        assertThat(moved).isGreaterThan(0).isLessThan(KEY_COUNT / 2);
+    }
+
+    @Test
+    public void removeNodeReassignsItsKeys() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ring.removeNode(NODES.get(0));
+        assertThat(ring.getNodes()).containsExactly(NODES.get(1), NODES.get(2));
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertThat(ring.getOwner("context" + i)).isNotEqualTo(NODES.get(0));
+        }
+    }
+}
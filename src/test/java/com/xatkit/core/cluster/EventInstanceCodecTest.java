@@ -0,0 +1,117 @@
+package com.xatkit.core.cluster;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.xatkit.core.EventDefinitionRegistry;
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.xatkit.dsl.DSL.any;
+import static com.xatkit.dsl.DSL.event;
+import static com.xatkit.dsl.DSL.intent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventInstanceCodecTest {
+
+    private EventDefinitionRegistry registry;
+
+    private EventDefinition eventDefinition;
+
+    private IntentDefinition intentDefinition;
+
+    @Before
+    public void setUp() {
+        registry = new EventDefinitionRegistry();
+        eventDefinition = event("Event").parameter("p1").parameter("p2").getEventDefinition();
+        intentDefinition = intent("Intent")
+                .trainingSentence("I like VALUE")
+                .parameter("value").fromFragment("VALUE").entity(any())
+                .getIntentDefinition();
+        registry.registerEventDefinition(eventDefinition);
+        registry.registerEventDefinition(intentDefinition);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void encodeNullEventInstance() {
+        EventInstanceCodec.encode(null);
+    }
+
+    @Test
+    public void encodeDecodeEventInstance() {
+        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        eventInstance.setDefinition(eventDefinition);
+        eventInstance.setTriggeredBy("Platform");
+        eventInstance.getValues().add(createValue(eventDefinition, "p1", "value"));
+        eventInstance.getValues().add(createValue(eventDefinition, "p2", Collections.singletonMap("key", 1)));
+        EventInstance decoded = EventInstanceCodec.decode(EventInstanceCodec.encode(eventInstance), registry);
+        assertThat(decoded).isNotInstanceOf(RecognizedIntent.class);
+        assertThat(decoded.getDefinition()).isEqualTo(eventDefinition);
+        assertThat(decoded.getTriggeredBy()).isEqualTo("Platform");
+        assertThat(getValue(decoded, "p1")).isEqualTo("value");
+        assertThat(getValue(decoded, "p2")).isInstanceOf(Map.class);
+        assertThat((Map<?, ?>) getValue(decoded, "p2")).containsEntry("key", 1.0);
+    }
+
+    @Test
+    public void encodeDecodeRecognizedIntent() {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(intentDefinition);
+        recognizedIntent.setMatchedInput("I like pizza");
+        recognizedIntent.setRecognitionConfidence(.8f);
+        recognizedIntent.getValues().add(createValue(intentDefinition, "value", new JsonPrimitive("pizza")));
+        EventInstance decoded = EventInstanceCodec.decode(EventInstanceCodec.encode(recognizedIntent), registry);
+        assertThat(decoded).isInstanceOf(RecognizedIntent.class);
+        RecognizedIntent decodedIntent = (RecognizedIntent) decoded;
+        assertThat(decodedIntent.getDefinition()).isEqualTo(intentDefinition);
+        assertThat(decodedIntent.getMatchedInput()).isEqualTo("I like pizza");
+        assertThat(decodedIntent.getRecognitionConfidence()).isEqualTo(.8f);
+        assertThat(getValue(decodedIntent, "value")).isEqualTo(new JsonPrimitive("pizza"));
+    }
+
+    @Test
+    public void decodeUnknownDefinition() {
+        JsonObject eventObject = new JsonObject();
+        eventObject.addProperty("definition", "Unknown");
+        assertThatThrownBy(() -> EventInstanceCodec.decode(eventObject, registry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void encodeDecodeSession() {
+        Map<Object, Object> session = new HashMap<>();
+        session.put("name", "Xatkit");
+        session.put("count", 3);
+        session.put("flag", true);
+        session.put("ignored", new Object());
+        Map<Object, Object> decoded = ClusterManager.decodeSession(ClusterManager.encodeSession(session));
+        assertThat(decoded).hasSize(3);
+        assertThat(decoded).containsEntry("name", "Xatkit");
+        assertThat(decoded).containsEntry("count", 3);
+        assertThat(decoded).containsEntry("flag", true);
+    }
+
+    private Object getValue(EventInstance eventInstance, String parameterName) {
+        return eventInstance.getValues().stream()
+                .filter(v -> v.getContextParameter().getName().equals(parameterName))
+                .map(ContextParameterValue::getValue)
+                .findFirst().orElse(null);
+    }
+
+    private ContextParameterValue createValue(EventDefinition definition, String parameterName, Object value) {
+        ContextParameterValue parameterValue = IntentFactory.eINSTANCE.createContextParameterValue();
+        parameterValue.setContextParameter(definition.getParameter(parameterName));
+        parameterValue.setValue(value);
+        return parameterValue;
+    }
+}
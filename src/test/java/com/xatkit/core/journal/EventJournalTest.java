@@ -0,0 +1,198 @@
+package com.xatkit.core.journal;
+
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.State;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.EventDefinition;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.IntentFactory;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.xatkit.dsl.DSL.event;
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventJournalTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Configuration configuration;
+
+    private EventJournal journal;
+
+    private EventDefinition eventDefinition;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new BaseConfiguration();
+        configuration.addProperty(JournalConfiguration.DIRECTORY_KEY,
+                temporaryFolder.newFolder("journal").getAbsolutePath());
+        configuration.addProperty(JournalConfiguration.FSYNC_POLICY_KEY, FsyncPolicy.NEVER.name());
+        eventDefinition = event("Event").getEventDefinition();
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(journal)) {
+            journal.close();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullConfiguration() {
+        journal = new EventJournal(null);
+    }
+
+    @Test
+    public void constructInvalidFsyncPolicy() {
+        configuration.setProperty(JournalConfiguration.FSYNC_POLICY_KEY, "sometimes");
+        assertThatThrownBy(() -> new JournalConfiguration(configuration))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void recoverUnknownSession() {
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        assertThat(journal.recover("unknown")).isNull();
+    }
+
+    @Test
+    public void recordAndRecover() {
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        StateContext context = createContext("context", "S1");
+        journal.record(context, createEventInstance());
+        JournalRecord recovered = journal.recover("context");
+        assertThat(recovered).isNotNull();
+        assertThat(recovered.getStateName()).isEqualTo("S1");
+    }
+
+    @Test
+    public void recoverAfterReopen() {
+        configuration.addProperty(JournalConfiguration.SNAPSHOT_INTERVAL_KEY, 2);
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        StateContext context = createContext("context", "S1");
+        context.getSession().put("name", "Xatkit");
+        context.getSession().put("count", 3);
+        context.getSession().put("ignored", new Object());
+        /*
+         * The first event of a session triggers a snapshot.
+         */
+        journal.record(context, createEventInstance());
+        context.getSession().put("name", "Updated");
+        journal.record(context, createEventInstance());
+        context.setState(createState("S2"));
+        journal.record(context, createEventInstance());
+        journal.close();
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        assertThat(journal.getSessionCount()).isEqualTo(1);
+        JournalRecord recovered = journal.recover("context");
+        assertThat(recovered).isNotNull();
+        assertThat(recovered.getStateName()).isEqualTo("S2");
+        assertThat(recovered.getSession()).containsEntry("name", "Updated");
+        assertThat(recovered.getSession()).containsEntry("count", 3);
+        assertThat(recovered.getSession()).doesNotContainKey("ignored");
+    }
+
+    @Test
+    public void recoverSessionUpdatedBetweenSnapshots() {
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        StateContext context = createContext("context", "S1");
+        context.getSession().put("name", "Xatkit");
+        context.getSession().put("removed", true);
+        journal.record(context, createEventInstance());
+        context.getSession().put("name", "Updated");
+        context.getSession().put("count", 3L);
+        context.getSession().remove("removed");
+        journal.record(context, createEventInstance());
+        journal.close();
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        JournalRecord recovered = journal.recover("context");
+        assertThat(recovered).isNotNull();
+        assertThat(recovered.getSession()).containsEntry("name", "Updated");
+        assertThat(recovered.getSession()).containsEntry("count", 3L);
+        assertThat(recovered.getSession()).doesNotContainKey("removed");
+    }
+
+    @Test
+    public void recoverExpiredSession() throws InterruptedException {
+        configuration.addProperty(JournalConfiguration.SESSION_TTL_KEY, 1);
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        journal.record(createContext("context", "S1"), createEventInstance());
+        journal.close();
+        /*
+         * Make sure the session is older than the TTL when the journal is reopened.
+         */
+        Thread.sleep(10);
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        assertThat(journal.getSessionCount()).isEqualTo(0);
+        assertThat(journal.recover("context")).isNull();
+    }
+
+    @Test
+    public void recordRollSegments() {
+        configuration.addProperty(JournalConfiguration.SEGMENT_SIZE_KEY, 512);
+        configuration.addProperty(JournalConfiguration.COMPACTION_THRESHOLD_KEY, 100);
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        StateContext context = createContext("context", "S1");
+        for (int i = 0; i < 20; i++) {
+            journal.record(context, createEventInstance());
+        }
+        assertThat(journal.getSegmentCount()).isGreaterThan(1);
+        assertThat(journal.recover("context").getStateName()).isEqualTo("S1");
+    }
+
+    @Test
+    public void recordCompactSegments() {
+        configuration.addProperty(JournalConfiguration.SEGMENT_SIZE_KEY, 512);
+        configuration.addProperty(JournalConfiguration.COMPACTION_THRESHOLD_KEY, 2);
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        StateContext context1 = createContext("context1", "S1");
+        context1.getSession().put("key", "value");
+        StateContext context2 = createContext("context2", "S2");
+        for (int i = 0; i < 50; i++) {
+            journal.record(context1, createEventInstance());
+            journal.record(context2, createEventInstance());
+        }
+        assertThat(journal.getSegmentCount()).isLessThanOrEqualTo(4);
+        journal.close();
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        assertThat(journal.recover("context1").getStateName()).isEqualTo("S1");
+        assertThat(journal.recover("context1").getSession()).containsEntry("key", "value");
+        assertThat(journal.recover("context2").getStateName()).isEqualTo("S2");
+    }
+
+    @Test
+    public void recordClosedJournal() {
+        journal = new EventJournal(new JournalConfiguration(configuration));
+        journal.close();
+        assertThatThrownBy(() -> journal.record(createContext("context", "S1"), createEventInstance()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private StateContext createContext(String contextId, String stateName) {
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId(contextId);
+        context.setState(createState(stateName));
+        return context;
+    }
+
+    private State createState(String name) {
+        State state = ExecutionFactory.eINSTANCE.createState();
+        state.setName(name);
+        return state;
+    }
+
+    private EventInstance createEventInstance() {
+        EventInstance eventInstance = IntentFactory.eINSTANCE.createEventInstance();
+        eventInstance.setDefinition(eventDefinition);
+        return eventInstance;
+    }
+}
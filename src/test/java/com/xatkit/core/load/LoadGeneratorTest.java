@@ -0,0 +1,143 @@
+package com.xatkit.core.load;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.core.XatkitBot;
+import com.xatkit.execution.ExecutionModel;
+import com.xatkit.test.bot.TestBot;
+import lombok.val;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.xatkit.dsl.DSL.fallbackState;
+import static com.xatkit.dsl.DSL.intent;
+import static com.xatkit.dsl.DSL.intentIs;
+import static com.xatkit.dsl.DSL.model;
+import static com.xatkit.dsl.DSL.state;
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadGeneratorTest extends AbstractXatkitTest {
+
+    private XatkitBot xatkitBot;
+
+    private TestBot testBot;
+
+    @Before
+    public void setUp() {
+        this.testBot = new TestBot();
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(xatkitBot) && !xatkitBot.isShutdown()) {
+            xatkitBot.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructEmptyScripts() {
+        xatkitBot = new XatkitBot(testBot.getModel(), new BaseConfiguration());
+        new LoadGenerator(xatkitBot, Collections.emptyList(), new LoadGeneratorConfiguration(new BaseConfiguration()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void runBotNotStarted() {
+        xatkitBot = new XatkitBot(testBot.getModel(), new BaseConfiguration());
+        new LoadGenerator(xatkitBot, getScripts(), new LoadGeneratorConfiguration(new BaseConfiguration())).run();
+    }
+
+    @Test
+    public void run() {
+        xatkitBot = new XatkitBot(testBot.getModel(), new BaseConfiguration());
+        xatkitBot.run();
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(LoadGeneratorConfiguration.CONVERSATIONS_KEY, 20);
+        configuration.addProperty(LoadGeneratorConfiguration.CONCURRENCY_KEY, 4);
+        LoadReport report = new LoadGenerator(xatkitBot, getScripts(),
+                new LoadGeneratorConfiguration(configuration)).run();
+        assertThat(report.getConversations()).isEqualTo(20);
+        assertThat(report.getUtterances()).isEqualTo(50);
+        assertThat(report.getErrors()).isEqualTo(0);
+        assertThat(testBot.isGreetingsStateBodyExecuted()).isTrue();
+        assertThat(testBot.isDefaultFallbackExecuted()).isTrue();
+        LatencyRecorder total = report.getStages().get(LoadGenerator.TOTAL_STAGE);
+        assertThat(total.getCount()).isEqualTo(50);
+        assertThat(total.getPercentile(50)).isLessThanOrEqualTo(total.getPercentile(99));
+        assertThat(report.getMaxHeap()).isGreaterThan(0);
+        assertThat(report.toJson().getAsJsonObject("latencies").has(LoadGenerator.RECOGNITION_STAGE)).isTrue();
+        /*
+         * The contexts of the simulated conversations are removed once they are completed.
+         */
+        assertThat(xatkitBot.getContexts()).isEmpty();
+    }
+
+    @Test
+    public void runFailingBody() {
+        val greetings = intent("Greetings").trainingSentence("Hi");
+        val init = state("Init");
+        val failingState = state("Failing");
+        init.next().when(intentIs(greetings)).moveTo(failingState);
+        failingState.body(context -> {
+            throw new RuntimeException("Failing body");
+        }).next().moveTo(init);
+        ExecutionModel model = model()
+                .useIntent(greetings)
+                .listenTo(testBot.getProvider())
+                .useState(failingState)
+                .initState(init)
+                .defaultFallbackState(fallbackState().body(context -> {
+                }))
+                .getExecutionModel();
+        xatkitBot = new XatkitBot(model, new BaseConfiguration());
+        xatkitBot.run();
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(LoadGeneratorConfiguration.CONVERSATIONS_KEY, 2);
+        configuration.addProperty(LoadGeneratorConfiguration.CONCURRENCY_KEY, 2);
+        LoadReport report = new LoadGenerator(xatkitBot,
+                Collections.singletonList(new ConversationScript("failing", Arrays.asList("Hi", "Unknown"))),
+                new LoadGeneratorConfiguration(configuration)).run();
+        assertThat(report.getUtterances()).isEqualTo(4);
+        /*
+         * Only the utterances processed by the failing body are reported as errors.
+         */
+        assertThat(report.getErrors()).isEqualTo(2);
+    }
+
+    @Test
+    public void parseScripts() throws IOException {
+        List<ConversationScript> scripts = ConversationScript.parse(new StringReader("# greetings\nHi\nHello\n\n"
+                + "\n# second comment\nUnknown\n"));
+        assertThat(scripts).hasSize(2);
+        assertThat(scripts.get(0).getName()).isEqualTo("greetings");
+        assertThat(scripts.get(0).getUtterances()).containsExactly("Hi", "Hello");
+        assertThat(scripts.get(1).getName()).isEqualTo("second comment");
+        assertThat(scripts.get(1).getUtterances()).containsExactly("Unknown");
+    }
+
+    @Test
+    public void latencyRecorderPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 100; i++) {
+            recorder.record(i);
+        }
+        assertThat(recorder.getPercentile(50)).isEqualTo(50);
+        assertThat(recorder.getPercentile(99)).isEqualTo(99);
+        assertThat(recorder.getPercentile(100)).isEqualTo(100);
+        assertThat(recorder.getMax()).isEqualTo(100);
+        assertThat(recorder.getMean()).isEqualTo(50.5);
+    }
+
+    private List<ConversationScript> getScripts() {
+        return Arrays.asList(new ConversationScript("greetings", Arrays.asList("Hi", "Hi", "Hi")),
+                new ConversationScript("unmatched", Arrays.asList("Unknown", "Hi")));
+    }
+}
@@ -108,6 +108,35 @@ public class RuntimeMessageActionTest extends AbstractActionTest<RuntimeMessageA
         assertThat(result.getResult()).as("Valid result").isEqualTo(StubRuntimeMessageAction.RESULT);
     }
 
+    @Test
+    public void callAsyncRuntimeMessageActionOk() {
+        StubRuntimeMessageAction action = new StubRuntimeMessageAction(getPlatform(), context, MESSAGE);
+        RuntimeActionResult result = action.callAsync().toCompletableFuture().join();
+        assertThat(action.getAttempts()).as("Valid attempt number (1)").isEqualTo(1);
+        assertThat(result.isError()).as("Result is not an error").isFalse();
+        assertThat(result.getResult()).as("Valid result").isEqualTo(StubRuntimeMessageAction.RESULT);
+    }
+
+    @Test
+    public void callAsyncRuntimeMessageActionIOException() {
+        StubRuntimeMessageActionIOException action = new StubRuntimeMessageActionIOException(getPlatform(),
+                context, MESSAGE);
+        RuntimeActionResult result = action.callAsync().toCompletableFuture().join();
+        assertThat(action.getAttempts()).as("Valid attempt number (1 + number of retries)").isEqualTo(4);
+        assertThat(result.isError()).as("Result is error").isTrue();
+        assertThat(result.getThrowable()).as("Result threw an IOException").isOfAnyClassIn(IOException.class);
+    }
+
+    @Test
+    public void callAsyncRuntimeMessageActionIOExceptionThenOk() {
+        StubRuntimeMessageActionIOExceptionThenOk action = new StubRuntimeMessageActionIOExceptionThenOk
+                (getPlatform(), context, MESSAGE);
+        RuntimeActionResult result = action.callAsync().toCompletableFuture().join();
+        assertThat(action.getAttempts()).as("Valid attempt number (2)").isEqualTo(2);
+        assertThat(result.isError()).as("Result is not an error").isFalse();
+        assertThat(result.getResult()).as("Valid result").isEqualTo(StubRuntimeMessageAction.RESULT);
+    }
+
     @Override
     protected RuntimePlatform getPlatform() {
         RuntimePlatform platform = mock(RuntimePlatform.class);
@@ -37,6 +37,7 @@ public class AbstractIntentRecognitionProviderTest extends AbstractXatkitTest  {
     public void setUp() {
         provider = mock(AbstractIntentRecognitionProvider.class);
         doCallRealMethod().when(provider).getBestCandidate(anyCollection(), any());
+        doCallRealMethod().when(provider).selectBestCandidate(anyCollection(), any());
         help = IntentFactory.eINSTANCE.createRecognizedIntent();
         help.setDefinition(CoreLibrary.Help);
         help.setRecognitionConfidence(1);
@@ -86,4 +87,33 @@ public class AbstractIntentRecognitionProviderTest extends AbstractXatkitTest  {
         RecognizedIntent bestCandidate = provider.getBestCandidate(candidates, stateContext);
         assertThat(bestCandidate.getDefinition()).isEqualTo(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT);
     }
+
+    @Test
+    public void selectBestCandidateMultipleSolutionResultNotFirstInCollection() {
+        Collection<IntentCandidate> candidates = Arrays.asList(new IntentCandidate(CoreLibrary.Greetings, .5f, "hi"),
+                new IntentCandidate(CoreLibrary.Help, 1, "hi"));
+        when(initState.getAllAccessedIntents()).thenReturn(Arrays.asList(CoreLibrary.Help, CoreLibrary.Greetings));
+        RecognizedIntent bestCandidate = provider.selectBestCandidate(candidates, stateContext);
+        assertThat(bestCandidate.getDefinition()).isEqualTo(CoreLibrary.Help);
+        assertThat(bestCandidate.getRecognitionConfidence()).isEqualTo(1);
+        assertThat(bestCandidate.getMatchedInput()).isEqualTo("hi");
+    }
+
+    @Test
+    public void selectBestCandidateNotAccessible() {
+        Collection<IntentCandidate> candidates = Arrays.asList(new IntentCandidate(CoreLibrary.Help, 1, "hi"),
+                new IntentCandidate(CoreLibrary.Greetings, .5f, "hi"));
+        when(initState.getAllAccessedIntents()).thenReturn(Collections.singletonList(CoreLibrary.Greetings));
+        RecognizedIntent bestCandidate = provider.selectBestCandidate(candidates, stateContext);
+        assertThat(bestCandidate.getDefinition()).isEqualTo(CoreLibrary.Greetings);
+    }
+
+    @Test
+    public void selectBestCandidateNoSolution() {
+        Collection<IntentCandidate> candidates = Collections.singletonList(new IntentCandidate(CoreLibrary.Help, 1,
+                "hi"));
+        when(initState.getAllAccessedIntents()).thenReturn(Collections.emptyList());
+        RecognizedIntent bestCandidate = provider.selectBestCandidate(candidates, stateContext);
+        assertThat(bestCandidate.getDefinition()).isEqualTo(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT);
+    }
 }
@@ -0,0 +1,189 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class AsyncRecognitionMonitorTest {
+
+    private AsyncRecognitionMonitor monitor;
+
+    @After
+    public void tearDown() {
+        if (nonNull(monitor)) {
+            monitor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructEmptySinks() {
+        monitor = new AsyncRecognitionMonitor(mock(XatkitServer.class), Collections.emptyList(), 4,
+                RecognitionRingBuffer.OverflowPolicy.DROP);
+    }
+
+    @Test
+    public void logRecognizedIntentMultipleSinks() {
+        CollectingSink sink1 = new CollectingSink("sink1");
+        CollectingSink sink2 = new CollectingSink("sink2");
+        monitor = new AsyncRecognitionMonitor(mock(XatkitServer.class), Arrays.asList(sink1, sink2), 4,
+                RecognitionRingBuffer.OverflowPolicy.BLOCK);
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        for (int i = 0; i < 10; i++) {
+            monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, "help" + i));
+        }
+        monitor.logRecognizedIntent(context,
+                createRecognizedIntent(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT, "unmatched"));
+        monitor.shutdown();
+        for (CollectingSink sink : Arrays.asList(sink1, sink2)) {
+            assertThat(sink.utterances).hasSize(11);
+            assertThat(sink.utterances.get(0)).isEqualTo("help0");
+            assertThat(sink.utterances.get(10)).isEqualTo("unmatched");
+            assertThat(sink.matched).containsOnly(true, false);
+            assertThat(sink.matched.get(10)).as("Fallback intent is not matched").isFalse();
+            assertThat(sink.flushCount).as("Sink flushed").isGreaterThan(0);
+            assertThat(sink.isShutdown).as("Sink shut down").isTrue();
+        }
+        assertThat(monitor.getPublishedCount()).isEqualTo(11);
+        assertThat(monitor.getDroppedCount()).isEqualTo(0);
+        assertThat(monitor.getLags()).containsEntry("sink1", 0L).containsEntry("sink2", 0L);
+        monitor = null;
+    }
+
+    @Test
+    public void logRecognizedIntentFailingSink() {
+        CollectingSink sink = new CollectingSink("sink") {
+            @Override
+            public void handle(RecognitionEvent event) {
+                if (event.getUtterance().equals("fail")) {
+                    throw new RuntimeException("fail");
+                }
+                super.handle(event);
+            }
+        };
+        monitor = new AsyncRecognitionMonitor(mock(XatkitServer.class), Collections.singletonList(sink), 4,
+                RecognitionRingBuffer.OverflowPolicy.BLOCK);
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, "fail"));
+        monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, "help"));
+        monitor.shutdown();
+        assertThat(sink.utterances).containsExactly("help");
+        monitor = null;
+    }
+
+    @Test
+    public void countRecognizedIntent() {
+        CollectingSink sink = new CollectingSink("sink");
+        monitor = new AsyncRecognitionMonitor(mock(XatkitServer.class), Collections.singletonList(sink), 4,
+                RecognitionRingBuffer.OverflowPolicy.BLOCK);
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, "help"));
+        monitor.countRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, "skipped"));
+        monitor.shutdown();
+        assertThat(sink.utterances).containsExactly("help");
+        assertThat(sink.countedUtterances).containsExactly("skipped");
+        monitor = null;
+    }
+
+    @Test
+    public void logRecognizedIntentFallbackName() {
+        CollectingSink sink = new CollectingSink("sink");
+        monitor = new AsyncRecognitionMonitor(mock(XatkitServer.class), Collections.singletonList(sink), 4,
+                RecognitionRingBuffer.OverflowPolicy.BLOCK);
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        IntentDefinition definition = IntentFactory.eINSTANCE.createIntentDefinition();
+        definition.setName(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName());
+        monitor.logRecognizedIntent(context, createRecognizedIntent(definition, "same name"));
+        monitor.shutdown();
+        assertThat(sink.matched).as("Only the default fallback instance is unmatched").containsExactly(true);
+        monitor = null;
+    }
+
+    @Test
+    public void logRecognizedIntentIdleConsumer() throws InterruptedException {
+        CollectingSink sink = new CollectingSink("sink");
+        monitor = new AsyncRecognitionMonitor(mock(XatkitServer.class), Collections.singletonList(sink), 4,
+                RecognitionRingBuffer.OverflowPolicy.BLOCK);
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        /*
+         * Let the consumer park on the empty buffer before publishing.
+         */
+        Thread.sleep(50);
+        monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, "help"));
+        monitor.shutdown();
+        assertThat(sink.utterances).containsExactly("help");
+        monitor = null;
+    }
+
+    private RecognizedIntent createRecognizedIntent(IntentDefinition definition, String input) {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(definition);
+        recognizedIntent.setRecognitionConfidence(1);
+        recognizedIntent.setMatchedInput(input);
+        return recognizedIntent;
+    }
+
+    private static class CollectingSink implements RecognitionEventSink {
+
+        private final String name;
+
+        private final List<String> utterances = new ArrayList<>();
+
+        private final List<Boolean> matched = new ArrayList<>();
+
+        private final List<String> countedUtterances = new ArrayList<>();
+
+        private int flushCount = 0;
+
+        private boolean isShutdown = false;
+
+        private CollectingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void handle(RecognitionEvent event) {
+            utterances.add(event.getUtterance());
+            matched.add(event.isMatched());
+        }
+
+        @Override
+        public void count(RecognitionEvent event) {
+            countedUtterances.add(event.getUtterance());
+        }
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+
+        @Override
+        public void shutdown() {
+            isShutdown = true;
+        }
+    }
+}
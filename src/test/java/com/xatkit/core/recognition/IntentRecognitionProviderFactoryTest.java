@@ -111,6 +111,40 @@ public class IntentRecognitionProviderFactoryTest extends AbstractXatkitTest {
         assertThat(provider.getPostProcessors()).as("PostProcessor list is empty").isEmpty();
     }
 
+    @Test
+    public void getIntentRecognitionProviderEmptyConfigurationAsyncRecognitionMonitor() {
+        provider = IntentRecognitionProviderFactory.getIntentRecognitionProvider(xatkitBot, new BaseConfiguration());
+        assertThat(provider.getRecognitionMonitor()).as("Recognition monitor is asynchronous")
+                .isInstanceOf(AsyncRecognitionMonitor.class);
+    }
+
+    @Test
+    public void getIntentRecognitionProviderSynchronousRecognitionMonitor() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(IntentRecognitionProviderFactoryConfiguration.RECOGNITION_MONITOR_BUFFER_SIZE_KEY, 0);
+        provider = IntentRecognitionProviderFactory.getIntentRecognitionProvider(xatkitBot, configuration);
+        assertThat(provider.getRecognitionMonitor()).as("Recognition monitor is a MapDB monitor")
+                .isInstanceOf(RecognitionMonitorMapDB.class);
+    }
+
+    @Test
+    public void getIntentRecognitionProviderSamplingRecognitionMonitor() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(IntentRecognitionProviderFactoryConfiguration.RECOGNITION_MONITOR_SAMPLING_RATE_KEY,
+                .5);
+        provider = IntentRecognitionProviderFactory.getIntentRecognitionProvider(xatkitBot, configuration);
+        assertThat(provider.getRecognitionMonitor()).as("Recognition monitor is sampled")
+                .isInstanceOf(SamplingRecognitionMonitor.class);
+    }
+
+    @Test(expected = XatkitException.class)
+    public void getIntentRecognitionProviderUnknownRecognitionMonitorSink() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(IntentRecognitionProviderFactoryConfiguration.RECOGNITION_MONITOR_SINKS_KEY,
+                "mapdb, unknown");
+        provider = IntentRecognitionProviderFactory.getIntentRecognitionProvider(xatkitBot, configuration);
+    }
+
     @Ignore
     @Test
     public void getIntentRecognitionProviderWithPreProcessor() {
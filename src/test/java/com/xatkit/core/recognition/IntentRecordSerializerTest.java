@@ -0,0 +1,100 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.RecognitionMonitorMapDB.IntentRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntentRecordSerializerTest {
+
+    private DB db;
+
+    private IntentRecordSerializer serializer;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.memoryDB().make();
+        serializer = new IntentRecordSerializer(db);
+    }
+
+    @After
+    public void tearDown() {
+        if (!db.isClosed()) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void serializeDeserialize() throws IOException {
+        serializer.register("Greetings");
+        IntentRecord record = new IntentRecord(1582543925719L, "héllo", "Greetings", .8f, true);
+        IntentRecord result = roundTrip(serializer, record);
+        assertThat(result.getTimestamp()).isEqualTo(record.getTimestamp());
+        assertThat(result.getUtterance()).isEqualTo("héllo");
+        assertThat(result.getIntentName()).isEqualTo("Greetings");
+        assertThat(result.getRecognitionConfidence()).isEqualTo(.8f);
+        assertThat(result.isMatched()).isTrue();
+    }
+
+    @Test
+    public void serializeDeserializeNullValues() throws IOException {
+        serializer.register("Default_Fallback_Intent");
+        IntentRecord record = new IntentRecord(10, null, "Default_Fallback_Intent", null, false);
+        IntentRecord result = roundTrip(serializer, record);
+        assertThat(result.getUtterance()).isNull();
+        assertThat(result.getRecognitionConfidence()).isNull();
+        assertThat(result.isMatched()).isFalse();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void serializeNotRegisteredIntent() throws IOException {
+        serializer.serialize(new DataOutput2(), new IntentRecord(10, "hi", "Greetings", 1f, true));
+    }
+
+    @Test
+    public void registerSameIntent() {
+        int id = serializer.register("Greetings");
+        assertThat(serializer.register("Help")).isNotEqualTo(id);
+        assertThat(serializer.register("Greetings")).isEqualTo(id);
+    }
+
+    @Test
+    public void deserializeWithReloadedDictionary() throws IOException {
+        serializer.register("Help");
+        serializer.register("Greetings");
+        DataOutput2 out = new DataOutput2();
+        serializer.serialize(out, new IntentRecord(10, "hi", "Greetings", 1f, true));
+        IntentRecordSerializer reloaded = new IntentRecordSerializer(db);
+        IntentRecord result = reloaded.deserialize(new DataInput2.ByteArray(out.copyBytes()), -1);
+        assertThat(result.getIntentName()).isEqualTo("Greetings");
+    }
+
+    @Test
+    public void serializeSmallerThanJavaSerialization() throws IOException {
+        serializer.register("Greetings");
+        IntentRecord record = new IntentRecord(1582543925719L, "hello there", "Greetings", .8f, true);
+        DataOutput2 out = new DataOutput2();
+        serializer.serialize(out, record);
+        ByteArrayOutputStream javaOut = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(javaOut)) {
+            objectOut.writeObject(record);
+        }
+        assertThat(out.copyBytes().length).isLessThan(javaOut.size() / 4);
+    }
+
+    private static IntentRecord roundTrip(IntentRecordSerializer serializer, IntentRecord record) throws IOException {
+        DataOutput2 out = new DataOutput2();
+        serializer.serialize(out, record);
+        return serializer.deserialize(new DataInput2.ByteArray(out.copyBytes()), -1);
+    }
+}
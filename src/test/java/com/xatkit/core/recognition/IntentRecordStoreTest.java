@@ -0,0 +1,210 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.RecognitionMonitorMapDB.IntentRecord;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.GroupSerializer;
+import org.mapdb.serializer.SerializerArrayTuple;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntentRecordStoreTest {
+
+    private DB db;
+
+    private IntentRecordStore store;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.memoryDB().make();
+        store = new IntentRecordStore(db);
+    }
+
+    @After
+    public void tearDown() {
+        if (!db.isClosed()) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void addSameTimestamp() {
+        store.add("session", createRecord(10, CoreLibrary.Help, "help"));
+        store.add("session", createRecord(10, CoreLibrary.Greetings, "hi"));
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getSession("session")).extracting(e -> e.getRecord().getUtterance())
+                .containsExactly("help", "hi");
+    }
+
+    @Test
+    public void getSessionNotExist() {
+        store.add("session", createRecord(10, CoreLibrary.Help, "help"));
+        assertThat(store.getSession("other")).isEmpty();
+    }
+
+    @Test
+    public void queryTimeRange() {
+        store.add("session1", createRecord(10, CoreLibrary.Help, "a"));
+        store.add("session2", createRecord(20, CoreLibrary.Help, "b"));
+        store.add("session1", createRecord(30, CoreLibrary.Help, "c"));
+        IntentRecordStore.Page page = store.query(new IntentRecordStore.Query(null, null, 15, 30, 10, null));
+        assertThat(page.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("b");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void queryMatched() {
+        store.add("session", createRecord(10, CoreLibrary.Help, "a"));
+        store.add("session", createRecord(20, IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT, "b"));
+        store.add("session", createRecord(30, CoreLibrary.Greetings, "c"));
+        IntentRecordStore.Page unmatched = store.query(new IntentRecordStore.Query(null, false, Long.MIN_VALUE,
+                Long.MAX_VALUE, 10, null));
+        assertThat(unmatched.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("b");
+        IntentRecordStore.Page matched = store.query(new IntentRecordStore.Query(null, true, Long.MIN_VALUE,
+                Long.MAX_VALUE, 10, null));
+        assertThat(matched.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("a", "c");
+    }
+
+    @Test
+    public void queryIntent() {
+        store.add("session", createRecord(10, CoreLibrary.Help, "a"));
+        store.add("session", createRecord(20, CoreLibrary.Greetings, "b"));
+        store.add("session", createRecord(30, CoreLibrary.Help, "c"));
+        IntentRecordStore.Page page = store.query(new IntentRecordStore.Query(CoreLibrary.Help.getName(), null,
+                Long.MIN_VALUE, Long.MAX_VALUE, 10, null));
+        assertThat(page.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("a", "c");
+    }
+
+    @Test
+    public void queryIntentMatchedPages() {
+        String intentName = CoreLibrary.Help.getName();
+        store.add("session", new IntentRecord(10, "a", intentName, 1f, false));
+        store.add("session", new IntentRecord(20, "b", intentName, 1f, true));
+        store.add("session", new IntentRecord(30, "c", intentName, 1f, false));
+        store.add("session", new IntentRecord(40, "d", intentName, 1f, true));
+        IntentRecordStore.Page page1 = store.query(new IntentRecordStore.Query(intentName, true, Long.MIN_VALUE,
+                Long.MAX_VALUE, 1, null));
+        assertThat(page1.getEntries()).as("Matched status filtered before paginating")
+                .extracting(e -> e.getRecord().getUtterance()).containsExactly("b");
+        IntentRecordStore.Page page2 = store.query(new IntentRecordStore.Query(intentName, true, Long.MIN_VALUE,
+                Long.MAX_VALUE, 1, page1.getNextCursor()));
+        assertThat(page2.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("d");
+    }
+
+    @Test
+    public void queryPages() {
+        for (int i = 0; i < 5; i++) {
+            store.add("session" + (i % 2), createRecord(10 + i, CoreLibrary.Help, "utterance" + i));
+        }
+        IntentRecordStore.Page page1 = store.query(new IntentRecordStore.Query(null, null, Long.MIN_VALUE,
+                Long.MAX_VALUE, 2, null));
+        assertThat(page1.getEntries()).extracting(e -> e.getRecord().getUtterance())
+                .containsExactly("utterance0", "utterance1");
+        assertThat(page1.getNextCursor()).isNotNull();
+        IntentRecordStore.Page page2 = store.query(new IntentRecordStore.Query(null, null, Long.MIN_VALUE,
+                Long.MAX_VALUE, 2, page1.getNextCursor()));
+        assertThat(page2.getEntries()).extracting(e -> e.getRecord().getUtterance())
+                .containsExactly("utterance2", "utterance3");
+        IntentRecordStore.Page page3 = store.query(new IntentRecordStore.Query(null, null, Long.MIN_VALUE,
+                Long.MAX_VALUE, 2, page2.getNextCursor()));
+        assertThat(page3.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("utterance4");
+        assertThat(page3.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void removeBefore() {
+        store.add("session1", createRecord(10, CoreLibrary.Help, "a"));
+        store.add("session2", createRecord(20, IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT, "b"));
+        store.add("session1", createRecord(30, CoreLibrary.Help, "c"));
+        assertThat(store.removeBefore(30, 1)).extracting(e -> e.getRecord().getUtterance()).containsExactly("a");
+        assertThat(store.removeBefore(30, 10)).extracting(e -> e.getRecord().getUtterance()).containsExactly("b");
+        assertThat(store.removeBefore(30, 10)).as("Cutoff is exclusive").isEmpty();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.getSession("session2")).isEmpty();
+        IntentRecordStore.Page unmatched = store.query(new IntentRecordStore.Query(null, false, Long.MIN_VALUE,
+                Long.MAX_VALUE, 10, null));
+        assertThat(unmatched.getEntries()).as("Matched index updated").isEmpty();
+        IntentRecordStore.Page help = store.query(new IntentRecordStore.Query(CoreLibrary.Help.getName(), null,
+                Long.MIN_VALUE, Long.MAX_VALUE, 10, null));
+        assertThat(help.getEntries()).as("Intent index updated").extracting(e -> e.getRecord().getUtterance())
+                .containsExactly("c");
+    }
+
+    @Test
+    public void setRematch() {
+        long seq = store.add("session", createRecord(10, IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT, "hi"));
+        assertThat(store.getRematch("session", seq)).isNull();
+        IntentRecordStore.Rematch rematch = new IntentRecordStore.Rematch(CoreLibrary.Greetings.getName(), .9f, 20);
+        store.setRematch("session", seq, rematch);
+        assertThat(store.getRematch("session", seq)).isEqualTo(rematch);
+        store.setRematch("session", seq, null);
+        assertThat(store.getRematch("session", seq)).isNull();
+        store.setRematch("session", seq + 1, rematch);
+        assertThat(store.getRematch("session", seq + 1)).as("Missing record is not annotated").isNull();
+        store.setRematch("session", seq, rematch);
+        store.removeBefore(20, 10);
+        assertThat(store.getRematch("session", seq)).as("Removed record annotation is removed").isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void queryInvalidCursor() {
+        store.query(new IntentRecordStore.Query(null, null, Long.MIN_VALUE, Long.MAX_VALUE, 2, "invalid"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createQueryInvalidRange() {
+        new IntentRecordStore.Query(null, null, 10, 5, 2, null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void migrateLegacyRecords() {
+        Map<String, Map<Long, IntentRecord>> legacyRecords =
+                (Map<String, Map<Long, IntentRecord>>) db.hashMap("intent_records").createOrOpen();
+        Map<Long, IntentRecord> sessionRecords = new TreeMap<>();
+        sessionRecords.put(10L, createRecord(0, CoreLibrary.Help, "a"));
+        sessionRecords.put(20L, createRecord(0, IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT, "b"));
+        legacyRecords.put("session", sessionRecords);
+        store = new IntentRecordStore(db);
+        assertThat(legacyRecords).isEmpty();
+        assertThat(store.getSession("session").stream().map(e -> e.getRecord().getTimestamp())
+                .collect(Collectors.toList())).containsExactly(10L, 20L);
+        IntentRecordStore.Page unmatched = store.query(new IntentRecordStore.Query(null, false, Long.MIN_VALUE,
+                Long.MAX_VALUE, 10, null));
+        assertThat(unmatched.getEntries()).extracting(e -> e.getRecord().getUtterance()).containsExactly("b");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void migrateJavaSerializedRecords() {
+        db.close();
+        db = DBMaker.memoryDB().make();
+        Map<Object[], IntentRecord> javaRecords = db.treeMap("intent_records_by_session",
+                new SerializerArrayTuple(Serializer.STRING, Serializer.LONG),
+                (GroupSerializer<IntentRecord>) (GroupSerializer<?>) Serializer.JAVA).createOrOpen();
+        javaRecords.put(new Object[]{"session", 1L}, createRecord(10, CoreLibrary.Help, "a"));
+        store = new IntentRecordStore(db);
+        assertThat(javaRecords).isEmpty();
+        assertThat(store.getSession("session")).extracting(e -> e.getRecord().getUtterance()).containsExactly("a");
+    }
+
+    private IntentRecord createRecord(long timestamp, IntentDefinition definition, String input) {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(definition);
+        recognizedIntent.setRecognitionConfidence(1);
+        recognizedIntent.setMatchedInput(input);
+        return new IntentRecord(timestamp, recognizedIntent);
+    }
+}
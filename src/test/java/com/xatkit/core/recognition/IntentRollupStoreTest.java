@@ -0,0 +1,77 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.IntentRollupStore.Granularity;
+import com.xatkit.core.recognition.RecognitionMonitorMapDB.IntentRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntentRollupStoreTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private DB db;
+
+    private IntentRollupStore store;
+
+    @Before
+    public void setUp() {
+        db = DBMaker.memoryDB().make();
+        store = new IntentRollupStore(db);
+    }
+
+    @After
+    public void tearDown() {
+        if (!db.isClosed()) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void addSameBucket() {
+        store.add(new IntentRecord(HOUR + 10, "hi", "Greetings", .5f, true));
+        store.add(new IntentRecord(HOUR + 20, "hello", "Greetings", 1f, true));
+        store.add(new IntentRecord(2 * HOUR, "hey", "Greetings", 1f, true));
+        List<IntentRollupStore.Rollup> rollups = store.query(Granularity.HOURLY, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(rollups).hasSize(2);
+        assertThat(rollups.get(0).getBucketStart()).isEqualTo(HOUR);
+        assertThat(rollups.get(0).getCount()).isEqualTo(2);
+        assertThat(rollups.get(0).getMatchedCount()).isEqualTo(2);
+        assertThat(rollups.get(0).getConfidenceSum()).isEqualTo(1.5);
+        assertThat(rollups.get(1).getBucketStart()).isEqualTo(2 * HOUR);
+    }
+
+    @Test
+    public void addUnmatched() {
+        store.add(new IntentRecord(10, "what?", "Default_Fallback_Intent", 1f, false));
+        IntentRollupStore.Rollup rollup = store.query(Granularity.HOURLY, Long.MIN_VALUE, Long.MAX_VALUE).get(0);
+        assertThat(rollup.getCount()).isEqualTo(1);
+        assertThat(rollup.getMatchedCount()).isEqualTo(0);
+        assertThat(rollup.getConfidenceSum()).as("Unmatched confidence ignored").isEqualTo(0);
+    }
+
+    @Test
+    public void rollUp() {
+        store.add(new IntentRecord(HOUR, "hi", "Greetings", 1f, true));
+        store.add(new IntentRecord(5 * HOUR, "hello", "Greetings", 1f, true));
+        store.add(new IntentRecord(DAY + HOUR, "hey", "Greetings", 1f, true));
+        assertThat(store.rollUp(DAY, 1)).isEqualTo(1);
+        assertThat(store.rollUp(DAY, 10)).isEqualTo(1);
+        assertThat(store.rollUp(DAY, 10)).isEqualTo(0);
+        List<IntentRollupStore.Rollup> daily = store.query(Granularity.DAILY, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertThat(daily).hasSize(1);
+        assertThat(daily.get(0).getBucketStart()).isEqualTo(0);
+        assertThat(daily.get(0).getCount()).isEqualTo(2);
+        assertThat(store.query(Granularity.HOURLY, Long.MIN_VALUE, Long.MAX_VALUE))
+                .extracting(IntentRollupStore.Rollup::getBucketStart).containsExactly(DAY + HOUR);
+    }
+}
@@ -0,0 +1,48 @@
+package com.xatkit.core.recognition;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReadinessPollerTest {
+
+    @Test
+    public void constructMaxDelayLowerThanInitialDelay() {
+        assertThatThrownBy(() -> new ReadinessPoller(100, 10, 1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void constructZeroTimeout() {
+        assertThatThrownBy(() -> new ReadinessPoller(10, 100, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void awaitReadyAfterSeveralChecks() throws InterruptedException {
+        ReadinessPoller poller = new ReadinessPoller(1, 10, 5000);
+        AtomicInteger checks = new AtomicInteger();
+        assertThat(poller.await(() -> checks.incrementAndGet() == 3)).isTrue();
+        assertThat(checks.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void awaitCheckThrowsException() throws InterruptedException {
+        ReadinessPoller poller = new ReadinessPoller(1, 10, 5000);
+        AtomicInteger checks = new AtomicInteger();
+        assertThat(poller.await(() -> {
+            if (checks.incrementAndGet() == 1) {
+                throw new IllegalStateException("Not ready");
+            }
+            return true;
+        })).isTrue();
+        assertThat(checks.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void awaitTimeout() throws InterruptedException {
+        ReadinessPoller poller = new ReadinessPoller(1, 10, 50);
+        assertThat(poller.await(() -> false)).isFalse();
+    }
+}
@@ -0,0 +1,187 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.xatkit.core.recognition.regex.RegExIntentRecognitionProvider;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandler;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.stubs.TestingStateContext;
+import com.xatkit.test.bot.IntentProviderTestBot;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+
+import static com.xatkit.stubs.TestingStateContextFactory.wrap;
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RecognitionBackfillTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private IntentProviderTestBot intentProviderTestBot;
+
+    private XatkitServer xatkitServer;
+
+    private RecognitionMonitorMapDB monitor;
+
+    private AsyncRecognitionMonitor asyncMonitor;
+
+    private RegExIntentRecognitionProvider provider;
+
+    private RecognitionBackfill backfill;
+
+    @Before
+    public void setUp() throws IntentRecognitionProviderException {
+        intentProviderTestBot = new IntentProviderTestBot();
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(RecognitionMonitorMapDB.DATA_DIRECTORY_KEY,
+                temporaryFolder.getRoot().getAbsolutePath());
+        xatkitServer = mock(XatkitServer.class);
+        monitor = new RecognitionMonitorMapDB(xatkitServer, configuration);
+        /*
+         * Wire the provider to the monitor like the IntentRecognitionProviderFactory does.
+         */
+        asyncMonitor = new AsyncRecognitionMonitor(xatkitServer, Collections.singletonList(monitor), 16,
+                RecognitionRingBuffer.OverflowPolicy.BLOCK);
+        provider = new RegExIntentRecognitionProvider(new BaseConfiguration(), asyncMonitor);
+        provider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+    }
+
+    @After
+    public void tearDown() throws IntentRecognitionProviderException {
+        if (nonNull(backfill)) {
+            backfill.stop();
+        }
+        /*
+         * Shuts down the monitors.
+         */
+        provider.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidRate() {
+        backfill = new RecognitionBackfill(monitor, provider, this::createContext, 1, 0,
+                RecognitionBackfill.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    public void backfill() throws Exception {
+        logUnmatched("Greetings");
+        logUnmatched("What?");
+        logUnmatched("Greetings");
+        provider.getIntent("Greetings", createContext("session"));
+        assertThat(asyncMonitor.getPublishedCount()).as("Live recognitions are published").isEqualTo(1);
+        backfill = new RecognitionBackfill(monitor, provider, this::createContext, 2, 100, 2);
+        assertThat(backfill.start().get()).isEqualTo(2);
+        assertThat(asyncMonitor.getPublishedCount()).as("Backfill recognitions are not published").isEqualTo(1);
+        assertThat(backfill.isRunning()).isFalse();
+        assertThat(backfill.getProcessedCount()).isEqualTo(3);
+        assertThat(backfill.getRematchedCount()).isEqualTo(2);
+        ArgumentCaptor<RestHandler> handlerCaptor = ArgumentCaptor.forClass(RestHandler.class);
+        verify(xatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq("/analytics/monitoring/unmatched"),
+                handlerCaptor.capture());
+        JsonArray unmatched = (JsonArray) handlerCaptor.getValue().handleContent(Collections.emptyList(),
+                Collections.emptyList(), null);
+        assertThat(unmatched).hasSize(3);
+        JsonObject rematch = unmatched.get(0).getAsJsonObject().getAsJsonObject("rematch");
+        assertThat(rematch.get("intent").getAsString()).isEqualTo(intentProviderTestBot.getSimpleIntent().getName());
+        assertThat(unmatched.get(1).getAsJsonObject().has("rematch")).as("Unmatched input is not annotated")
+                .isFalse();
+        assertThat(unmatched.get(2).getAsJsonObject().has("rematch")).isTrue();
+    }
+
+    @Test
+    public void backfillFailureKeepsRematch() throws Exception {
+        logUnmatched("Greetings");
+        backfill = new RecognitionBackfill(monitor, provider, this::createContext, 1, 100, 2);
+        assertThat(backfill.start().get()).isEqualTo(1);
+        backfill.stop();
+        IntentRecognitionProvider failingProvider = mock(IntentRecognitionProvider.class);
+        when(failingProvider.getIntent(anyString(), any())).thenThrow(new IntentRecognitionProviderException("error"));
+        backfill = new RecognitionBackfill(monitor, failingProvider, this::createContext, 1, 100, 2);
+        assertThat(backfill.start().get()).isEqualTo(0);
+        assertThat(backfill.getProcessedCount()).isEqualTo(1);
+        ArgumentCaptor<RestHandler> handlerCaptor = ArgumentCaptor.forClass(RestHandler.class);
+        verify(xatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq("/analytics/monitoring/unmatched"),
+                handlerCaptor.capture());
+        JsonArray unmatched = (JsonArray) handlerCaptor.getValue().handleContent(Collections.emptyList(),
+                Collections.emptyList(), null);
+        assertThat(unmatched.get(0).getAsJsonObject().has("rematch")).as("Failed recognition keeps the rematch")
+                .isTrue();
+    }
+
+    @Test
+    public void adaptRate() {
+        backfill = new RecognitionBackfill(monitor, provider, this::createContext, 1, 10,
+                RecognitionBackfill.DEFAULT_PAGE_SIZE);
+        backfill.adaptRate(30, 10);
+        assertThat(backfill.getCurrentRate()).as("Rate halved on latency increase").isEqualTo(5);
+        backfill.adaptRate(10, 10);
+        assertThat(backfill.getCurrentRate()).isEqualTo(6);
+        for (int i = 0; i < 10; i++) {
+            backfill.adaptRate(10, 10);
+        }
+        assertThat(backfill.getCurrentRate()).as("Rate bounded by the maximum rate").isEqualTo(10);
+        for (int i = 0; i < 10; i++) {
+            backfill.adaptRate(30, 10);
+        }
+        assertThat(backfill.getCurrentRate()).as("Rate bounded by the minimum rate")
+                .isEqualTo(RecognitionBackfill.MIN_RATE);
+    }
+
+    @Test
+    public void adaptRateSubMillisecondLatency() {
+        backfill = new RecognitionBackfill(monitor, provider, this::createContext, 1, 10,
+                RecognitionBackfill.DEFAULT_PAGE_SIZE);
+        backfill.adaptRate(1, 0);
+        assertThat(backfill.getCurrentRate()).as("Rate kept when a fast provider takes a millisecond")
+                .isEqualTo(10);
+        backfill.adaptRate(3, 0);
+        assertThat(backfill.getCurrentRate()).isEqualTo(5);
+    }
+
+    @Test
+    public void findMonitor() {
+        assertThat(RecognitionBackfill.findMonitor(asyncMonitor)).isSameAs(monitor);
+        assertThat(RecognitionBackfill.findMonitor(new SamplingRecognitionMonitor(xatkitServer, asyncMonitor, 1,
+                0, 0))).isSameAs(monitor);
+        assertThat(RecognitionBackfill.findMonitor(monitor)).isSameAs(monitor);
+        assertThat(RecognitionBackfill.findMonitor(null)).isNull();
+    }
+
+    private void logUnmatched(String utterance) {
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT);
+        recognizedIntent.setRecognitionConfidence(1);
+        recognizedIntent.setMatchedInput(utterance);
+        monitor.logRecognizedIntent(context, recognizedIntent);
+    }
+
+    private StateContext createContext(String contextId) throws IntentRecognitionProviderException {
+        TestingStateContext context = wrap(provider.createContext(contextId));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent());
+        return context;
+    }
+}
@@ -0,0 +1,137 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.AbstractXatkitTest;
+import com.xatkit.execution.State;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class RecognitionCacheTest extends AbstractXatkitTest {
+
+    private AtomicLong clock;
+
+    private RecognitionCache cache;
+
+    private State state1;
+
+    private State state2;
+
+    private RecognizedIntent help;
+
+    @Before
+    public void setUp() {
+        clock = new AtomicLong();
+        cache = new RecognitionCache(2, 1000, clock::get);
+        state1 = mock(State.class);
+        state2 = mock(State.class);
+        help = IntentFactory.eINSTANCE.createRecognizedIntent();
+        help.setDefinition(CoreLibrary.Help);
+        help.setRecognitionConfidence(1);
+        help.setMatchedInput("help");
+    }
+
+    @Test
+    public void constructNegativeSize() {
+        assertThatThrownBy(() -> new RecognitionCache(-1, 1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void constructZeroTtl() {
+        assertThatThrownBy(() -> new RecognitionCache(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getEmptyCache() {
+        assertThat(cache.get(state1, "help")).isNull();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0);
+    }
+
+    @Test
+    public void getCachedInput() {
+        cache.put(state1, "help", help);
+        RecognizedIntent result = cache.get(state1, "help");
+        assertThat(result).isNotNull();
+        assertThat(result).isNotSameAs(help);
+        assertThat(result.getDefinition()).isEqualTo(CoreLibrary.Help);
+        assertThat(result.getRecognitionConfidence()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(1);
+    }
+
+    @Test
+    public void getCachedInputNormalized() {
+        cache.put(state1, "help  me ", help);
+        assertThat(cache.get(state1, " help me")).isNotNull();
+    }
+
+    @Test
+    public void getCachedInputDifferentCase() {
+        cache.put(state1, "help", help);
+        assertThat(cache.get(state1, "Help")).isNull();
+    }
+
+    @Test
+    public void getCachedInputDifferentState() {
+        cache.put(state1, "help", help);
+        assertThat(cache.get(state2, "help")).isNull();
+    }
+
+    @Test
+    public void getCachedInputExpired() {
+        cache.put(state1, "help", help);
+        clock.set(1000);
+        assertThat(cache.get(state1, "help")).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void putExceedsMaxSize() {
+        cache.put(state1, "help", help);
+        cache.put(state1, "help me", help);
+        /*
+         * Access the first entry to make sure the least recently used one is evicted.
+         */
+        cache.get(state1, "help");
+        cache.put(state1, "please help", help);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.get(state1, "help")).isNotNull();
+        assertThat(cache.get(state1, "help me")).isNull();
+    }
+
+    @Test
+    public void updateReturnedIntentDoesNotUpdateCache() {
+        cache.put(state1, "help", help);
+        RecognizedIntent result = cache.get(state1, "help");
+        result.setRecognitionConfidence(.5f);
+        assertThat(cache.get(state1, "help").getRecognitionConfidence()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidate() {
+        cache.put(state1, "help", help);
+        cache.invalidate();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get(state1, "help")).isNull();
+    }
+
+    @Test
+    public void putAfterInvalidate() {
+        long generation = cache.getGeneration();
+        cache.invalidate();
+        assertThat(cache.put(state1, "help", help, generation)).as("Stale result is not cached").isFalse();
+        assertThat(cache.get(state1, "help")).isNull();
+        assertThat(cache.put(state1, "help", help, cache.getGeneration())).isTrue();
+        assertThat(cache.get(state1, "help")).isNotNull();
+    }
+}
@@ -0,0 +1,105 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecognitionFileSinkTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Configuration configuration;
+
+    private RecognitionFileSink sink;
+
+    @Before
+    public void setUp() {
+        configuration = new BaseConfiguration();
+        configuration.addProperty(RecognitionFileSink.DIRECTORY_KEY, temporaryFolder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(sink)) {
+            sink.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidMaxFileSize() {
+        configuration.addProperty(RecognitionFileSink.MAX_FILE_SIZE_KEY, 0);
+        sink = new RecognitionFileSink(configuration);
+    }
+
+    @Test
+    public void handleAndFlush() throws IOException {
+        sink = new RecognitionFileSink(configuration);
+        sink.handle(createEvent("session", "hi", true));
+        sink.handle(createEvent("session", "what?", false));
+        sink.flush();
+        List<String> lines = readLines(RecognitionFileSink.FILE_NAME);
+        assertThat(lines).hasSize(2);
+        JsonObject first = new JsonParser().parse(lines.get(0)).getAsJsonObject();
+        assertThat(first.get("sessionId").getAsString()).isEqualTo("session");
+        assertThat(first.get("utterance").getAsString()).isEqualTo("hi");
+        assertThat(first.get("confidence").getAsFloat()).isEqualTo(.5f);
+        assertThat(first.get("matched").getAsBoolean()).isTrue();
+        JsonObject second = new JsonParser().parse(lines.get(1)).getAsJsonObject();
+        assertThat(second.get("matched").getAsBoolean()).isFalse();
+    }
+
+    @Test
+    public void flushRollover() throws IOException {
+        configuration.addProperty(RecognitionFileSink.MAX_FILE_SIZE_KEY, 10);
+        configuration.addProperty(RecognitionFileSink.MAX_HISTORY_KEY, 2);
+        sink = new RecognitionFileSink(configuration);
+        for (int i = 0; i < 4; i++) {
+            sink.handle(createEvent("session", "utterance" + i, true));
+            sink.flush();
+        }
+        assertThat(readLines(RecognitionFileSink.FILE_NAME)).as("Current file is empty").isEmpty();
+        assertThat(readLines(RecognitionFileSink.FILE_NAME + ".1")).hasSize(1).allMatch(line -> line.contains(
+                "utterance3"));
+        assertThat(readLines(RecognitionFileSink.FILE_NAME + ".2")).hasSize(1).allMatch(line -> line.contains(
+                "utterance2"));
+        assertThat(new File(temporaryFolder.getRoot(), RecognitionFileSink.FILE_NAME + ".3"))
+                .as("History is bounded").doesNotExist();
+    }
+
+    @Test
+    public void reopenAppends() throws IOException {
+        sink = new RecognitionFileSink(configuration);
+        sink.handle(createEvent("session", "hi", true));
+        sink.shutdown();
+        sink = new RecognitionFileSink(configuration);
+        sink.handle(createEvent("session", "hello", true));
+        sink.flush();
+        assertThat(readLines(RecognitionFileSink.FILE_NAME)).hasSize(2);
+    }
+
+    private RecognitionEvent createEvent(String sessionId, String utterance, boolean matched) {
+        RecognitionEvent event = new RecognitionEvent();
+        event.set(System.currentTimeMillis(), sessionId, "intent", utterance, .5f, matched);
+        return event;
+    }
+
+    private List<String> readLines(String fileName) throws IOException {
+        return Files.readAllLines(new File(temporaryFolder.getRoot(), fileName).toPath(), StandardCharsets.UTF_8);
+    }
+}
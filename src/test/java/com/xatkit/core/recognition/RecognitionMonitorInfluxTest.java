@@ -0,0 +1,272 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.influxdb.Cancellable;
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.QueryApi;
+import com.influxdb.client.WriteApi;
+import com.influxdb.client.write.Point;
+import com.influxdb.query.FluxRecord;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandler;
+import com.xatkit.core.server.RestHandlerException;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RecognitionMonitorInfluxTest {
+
+    private static final String SESSIONS_STATS_URI = "/analytics/monitoring/sessions/stats";
+
+    private static final String ORIGIN_URI = "/analytics/origin";
+
+    private Configuration configuration;
+
+    private QueryApi queryApi;
+
+    private InfluxDBClient db;
+
+    private WriteApi writeApi;
+
+    private XatkitServer xatkitServer;
+
+    private RecognitionMonitorInflux monitor;
+
+    @Before
+    public void setUp() {
+        configuration = new BaseConfiguration();
+        configuration.addProperty(RecognitionMonitorInflux.INFLUX_TOKEN_KEY, "token");
+        queryApi = mock(QueryApi.class);
+        db = mock(InfluxDBClient.class);
+        when(db.getQueryApi()).thenReturn(queryApi);
+        writeApi = mock(WriteApi.class);
+        when(db.getWriteApi()).thenReturn(writeApi);
+        xatkitServer = mock(XatkitServer.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(monitor)) {
+            monitor.shutdown();
+        }
+        /*
+         * Clear the interrupted flag in case a test failed before clearing it.
+         */
+        Thread.interrupted();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructMissingToken() {
+        monitor = new RecognitionMonitorInflux(xatkitServer, new BaseConfiguration(), db);
+    }
+
+    @Test
+    public void getSessionsStats() throws Exception {
+        mockStreamedRecords(createRecord("sessions", 2L, "matched", 3L, "unmatched", 1L, "time", 4_000_000_000L));
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        JsonObject result = (JsonObject) getHandler(SESSIONS_STATS_URI).handleContent(Collections.emptyList(),
+                Collections.emptyList(), null);
+        assertThat(result.keySet()).containsExactlyInAnyOrder("averageMatchedUtteranceCount",
+                "averageUnmatchedUtteranceCount", "averageSessionTime");
+        assertThat(result.get("averageMatchedUtteranceCount").getAsDouble()).isEqualTo(1.5);
+        assertThat(result.get("averageUnmatchedUtteranceCount").getAsDouble()).isEqualTo(.5);
+        assertThat(result.get("averageSessionTime").getAsDouble()).isCloseTo(2, within(1e-9));
+    }
+
+    @Test
+    public void getSessionsStatsNoSession() throws Exception {
+        mockStreamedRecords();
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        JsonObject result = (JsonObject) getHandler(SESSIONS_STATS_URI).handleContent(Collections.emptyList(),
+                Collections.emptyList(), null);
+        assertThat(result.get("averageMatchedUtteranceCount").getAsDouble()).isEqualTo(0);
+        assertThat(result.get("averageUnmatchedUtteranceCount").getAsDouble()).isEqualTo(0);
+        assertThat(result.get("averageSessionTime").getAsDouble()).isEqualTo(0);
+    }
+
+    @Test
+    public void getOriginStats() throws Exception {
+        mockStreamedRecords(createRecord("origin", "xatkit.com", "_value", 2L),
+                createRecord("origin", "", "_value", 1L));
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        JsonObject result = (JsonObject) getHandler(ORIGIN_URI).handleContent(Collections.emptyList(),
+                Collections.emptyList(), null);
+        assertThat(result.keySet()).containsExactlyInAnyOrder("Origins", "avgSessionsPerOrigin", "nrOrigins");
+        JsonArray origins = result.getAsJsonArray("Origins");
+        assertThat(origins).hasSize(2);
+        assertThat(origins.get(0).getAsJsonObject().get("origin").getAsString()).isEqualTo("xatkit.com");
+        assertThat(origins.get(0).getAsJsonObject().get("nrSessions").getAsLong()).isEqualTo(2);
+        assertThat(origins.get(1).getAsJsonObject().get("origin").getAsString()).isEmpty();
+        assertThat(origins.get(1).getAsJsonObject().get("nrSessions").getAsLong()).isEqualTo(1);
+        assertThat(result.get("avgSessionsPerOrigin").getAsDouble()).isEqualTo(1.5);
+        assertThat(result.get("nrOrigins").getAsInt()).isEqualTo(2);
+    }
+
+    @Test
+    public void getSessionsStatsCached() throws Exception {
+        mockStreamedRecords(createRecord("sessions", 1L, "matched", 1L, "unmatched", 0L, "time", 0L));
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        RestHandler handler = getHandler(SESSIONS_STATS_URI);
+        JsonObject result = (JsonObject) handler.handleContent(Collections.emptyList(), Collections.emptyList(),
+                null);
+        result.addProperty("modified", true);
+        JsonObject cachedResult = (JsonObject) handler.handleContent(Collections.emptyList(),
+                Collections.emptyList(), null);
+        verify(queryApi, times(1)).query(anyString(), any(BiConsumer.class), any(Consumer.class),
+                any(Runnable.class));
+        assertThat(cachedResult.has("modified")).as("The cached result is not modified by the caller").isFalse();
+        cachedResult.addProperty("modified", true);
+        assertThat(((JsonObject) handler.handleContent(Collections.emptyList(), Collections.emptyList(), null))
+                .has("modified")).as("The returned cached result is a copy").isFalse();
+    }
+
+    @Test
+    public void getSessionsStatsCacheExpired() throws Exception {
+        configuration.addProperty(RecognitionMonitorInflux.CACHE_TTL_KEY, 1);
+        mockStreamedRecords(createRecord("sessions", 1L, "matched", 1L, "unmatched", 0L, "time", 0L));
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        RestHandler handler = getHandler(SESSIONS_STATS_URI);
+        handler.handleContent(Collections.emptyList(), Collections.emptyList(), null);
+        Thread.sleep(10);
+        handler.handleContent(Collections.emptyList(), Collections.emptyList(), null);
+        verify(queryApi, times(2)).query(anyString(), any(BiConsumer.class), any(Consumer.class),
+                any(Runnable.class));
+    }
+
+    @Test
+    public void getSessionsStatsCacheDisabled() throws Exception {
+        configuration.addProperty(RecognitionMonitorInflux.CACHE_TTL_KEY, 0);
+        mockStreamedRecords(createRecord("sessions", 1L, "matched", 1L, "unmatched", 0L, "time", 0L));
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        RestHandler handler = getHandler(SESSIONS_STATS_URI);
+        handler.handleContent(Collections.emptyList(), Collections.emptyList(), null);
+        handler.handleContent(Collections.emptyList(), Collections.emptyList(), null);
+        verify(queryApi, times(2)).query(anyString(), any(BiConsumer.class), any(Consumer.class),
+                any(Runnable.class));
+    }
+
+    @Test
+    public void getSessionsStatsQueryError() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Throwable> onError = invocation.getArgument(2);
+            onError.accept(new RuntimeException("Query failed"));
+            return null;
+        }).when(queryApi).query(anyString(), any(BiConsumer.class), any(Consumer.class), any(Runnable.class));
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        RestHandler handler = getHandler(SESSIONS_STATS_URI);
+        Throwable thrown = catchThrowable(() -> handler.handleContent(Collections.emptyList(),
+                Collections.emptyList(), null));
+        assertThat(thrown).isInstanceOf(RestHandlerException.class).hasMessageContaining("Query failed");
+        assertThat(((RestHandlerException) thrown).getErrorCode()).isEqualTo(500);
+        /*
+         * Failed queries are not cached.
+         */
+        mockStreamedRecords();
+        handler.handleContent(Collections.emptyList(), Collections.emptyList(), null);
+    }
+
+    @Test
+    public void getSessionsStatsInterrupted() throws Exception {
+        /*
+         * The query never completes, the request thread is interrupted while waiting for it.
+         */
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        RestHandler handler = getHandler(SESSIONS_STATS_URI);
+        Thread.currentThread().interrupt();
+        Throwable thrown = catchThrowable(() -> handler.handleContent(Collections.emptyList(),
+                Collections.emptyList(), null));
+        assertThat(thrown).isInstanceOf(RestHandlerException.class);
+        assertThat(((RestHandlerException) thrown).getErrorCode()).isEqualTo(500);
+        assertThat(Thread.interrupted()).as("The interrupted flag is restored").isTrue();
+    }
+
+    @Test
+    public void countRecognizedIntent() {
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        RecognizedIntent intent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        intent.setDefinition(CoreLibrary.Help);
+        intent.setRecognitionConfidence(1);
+        intent.setMatchedInput("help");
+        monitor.countRecognizedIntent(context, intent);
+        ArgumentCaptor<Point> pointCaptor = ArgumentCaptor.forClass(Point.class);
+        verify(writeApi).writePoint(pointCaptor.capture());
+        String lineProtocol = pointCaptor.getValue().toLineProtocol();
+        assertThat(lineProtocol).startsWith("intent_count,").contains("session_id=session")
+                .contains("is_Matched=true").contains("matched_intent=\"" + CoreLibrary.Help.getName() + "\"")
+                .doesNotContain("utterance");
+    }
+
+    @Test
+    public void getSessionsStatsIncludesCounts() throws Exception {
+        mockStreamedRecords();
+        monitor = new RecognitionMonitorInflux(xatkitServer, configuration, db);
+        getHandler(SESSIONS_STATS_URI).handleContent(Collections.emptyList(), Collections.emptyList(), null);
+        ArgumentCaptor<String> queryCaptor = ArgumentCaptor.forClass(String.class);
+        verify(queryApi).query(queryCaptor.capture(), any(BiConsumer.class), any(Consumer.class),
+                any(Runnable.class));
+        assertThat(queryCaptor.getValue()).contains("r._measurement == \"intent_count\"");
+    }
+
+    private RestHandler getHandler(String uri) {
+        ArgumentCaptor<RestHandler> handlerCaptor = ArgumentCaptor.forClass(RestHandler.class);
+        verify(xatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq(uri), handlerCaptor.capture());
+        return handlerCaptor.getValue();
+    }
+
+    private void mockStreamedRecords(FluxRecord... records) {
+        List<FluxRecord> recordList = Arrays.asList(records);
+        Answer<Void> answer = invocation -> {
+            BiConsumer<Cancellable, FluxRecord> onNext = invocation.getArgument(1);
+            Runnable onComplete = invocation.getArgument(3);
+            for (FluxRecord record : recordList) {
+                onNext.accept(mock(Cancellable.class), record);
+            }
+            onComplete.run();
+            return null;
+        };
+        doAnswer(answer).when(queryApi).query(anyString(), any(BiConsumer.class), any(Consumer.class),
+                any(Runnable.class));
+    }
+
+    private FluxRecord createRecord(Object... keyValues) {
+        FluxRecord record = new FluxRecord(0);
+        Map<String, Object> values = record.getValues();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            values.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return record;
+    }
+}
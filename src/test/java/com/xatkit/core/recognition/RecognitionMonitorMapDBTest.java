@@ -0,0 +1,233 @@
+package com.xatkit.core.recognition;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.xatkit.core.server.HttpMethod;
+import com.xatkit.core.server.RestHandler;
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.http.HttpEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class RecognitionMonitorMapDBTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Configuration configuration;
+
+    private RecognitionMonitorMapDB monitor;
+
+    @Before
+    public void setUp() {
+        configuration = new BaseConfiguration();
+        configuration.addProperty(RecognitionMonitorMapDB.DATA_DIRECTORY_KEY,
+                temporaryFolder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        if (nonNull(monitor)) {
+            monitor.shutdown();
+        }
+    }
+
+    @Test
+    public void getSessionsStatsEmptyDatabase() {
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        JsonObject stats = monitor.getSessionsStats();
+        assertThat(stats.get("sessionCount").getAsInt()).isEqualTo(0);
+        assertThat(stats.get("averageMatchedUtteranceCount").getAsDouble()).isEqualTo(0);
+        assertThat(stats.has("averageRecognitionConfidence")).isFalse();
+    }
+
+    @Test
+    public void getSessionsStatsAfterLogRecognizedIntent() {
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        logRecords();
+        assertStats(monitor.getSessionsStats());
+    }
+
+    @Test
+    public void getSessionsStatsAfterRestart() {
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        logRecords();
+        monitor.shutdown();
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        assertStats(monitor.getSessionsStats());
+    }
+
+    @Test
+    public void getMonitoringDataStreamed() throws Exception {
+        XatkitServer xatkitServer = mock(XatkitServer.class);
+        monitor = new RecognitionMonitorMapDB(xatkitServer, configuration);
+        logRecords();
+        ArgumentCaptor<RestHandler> handlerCaptor = ArgumentCaptor.forClass(RestHandler.class);
+        verify(xatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq("/analytics/monitoring"),
+                handlerCaptor.capture());
+        Object result = handlerCaptor.getValue().handleContent(Collections.emptyList(), Collections.emptyList(),
+                null);
+        assertThat(result).isInstanceOf(HttpEntity.class);
+        HttpEntity entity = (HttpEntity) result;
+        assertThat(entity.isChunked()).isTrue();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+        JsonArray monitoringData = new JsonParser().parse(new String(outputStream.toByteArray(),
+                StandardCharsets.UTF_8)).getAsJsonArray();
+        JsonArray sessions = monitoringData.get(0).getAsJsonArray();
+        assertThat(sessions).hasSize(2);
+        assertThat(sessions.get(0).getAsJsonObject().get("sessionId").getAsString()).isEqualTo("session1");
+        assertThat(sessions.get(0).getAsJsonObject().getAsJsonArray("entries")).hasSize(2);
+        JsonObject globalInfo = monitoringData.get(1).getAsJsonObject();
+        assertThat(globalInfo.get("nSessions").getAsInt()).isEqualTo(2);
+        assertThat(globalInfo.get("totalMatchedUtterances").getAsInt()).isEqualTo(2);
+        assertThat(globalInfo.get("totalUnmatchedUtterances").getAsInt()).isEqualTo(1);
+    }
+
+    @Test
+    public void countRecognizedIntent() {
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        StateContext session1 = createContext("session1");
+        StateContext session2 = createContext("session2");
+        monitor.logRecognizedIntent(session1, createRecognizedIntent(CoreLibrary.Help, 1));
+        monitor.logRecognizedIntent(session1, createRecognizedIntent(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT,
+                1));
+        monitor.countRecognizedIntent(session2, createRecognizedIntent(CoreLibrary.Help, .5f));
+        monitor.shutdown();
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        assertStats(monitor.getSessionsStats());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeRawRetention() {
+        configuration.addProperty(RecognitionMonitorMapDB.RAW_RETENTION_KEY, -1);
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+    }
+
+    @Test
+    public void applyRetention() throws Exception {
+        configuration.addProperty(RecognitionMonitorMapDB.RAW_RETENTION_KEY, 1);
+        configuration.addProperty(RecognitionMonitorMapDB.HOURLY_RETENTION_KEY, 2);
+        configuration.addProperty(RecognitionMonitorMapDB.COMPACTION_THRESHOLD_KEY, 1);
+        XatkitServer xatkitServer = mock(XatkitServer.class);
+        monitor = new RecognitionMonitorMapDB(xatkitServer, configuration);
+        logRecords();
+        long now = System.currentTimeMillis();
+        monitor.applyRetention(now);
+        ArgumentCaptor<RestHandler> handlerCaptor = ArgumentCaptor.forClass(RestHandler.class);
+        verify(xatkitServer).registerRestEndpoint(eq(HttpMethod.GET), eq("/analytics/monitoring/rollups"),
+                handlerCaptor.capture());
+        RestHandler rollupsHandler = handlerCaptor.getValue();
+        assertThat(getRollups(rollupsHandler, "hourly")).as("Recent records are kept").isEmpty();
+        monitor.applyRetention(now + TimeUnit.DAYS.toMillis(2));
+        JsonArray hourly = getRollups(rollupsHandler, "hourly");
+        assertThat(hourly).isNotEmpty();
+        long count = 0;
+        for (int i = 0; i < hourly.size(); i++) {
+            count += hourly.get(i).getAsJsonObject().get("count").getAsLong();
+        }
+        assertThat(count).as("Removed records are summarized").isEqualTo(3);
+        assertThat(getRollups(rollupsHandler, "daily")).isEmpty();
+        assertStats(monitor.getSessionsStats());
+        monitor.applyRetention(now + TimeUnit.DAYS.toMillis(4));
+        assertThat(getRollups(rollupsHandler, "hourly")).isEmpty();
+        assertThat(getRollups(rollupsHandler, "daily")).isNotEmpty();
+        assertStats(monitor.getSessionsStats());
+    }
+
+    @Test
+    public void applyRetentionSessionReused() {
+        configuration.addProperty(RecognitionMonitorMapDB.RAW_RETENTION_KEY, 1);
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        logRecords();
+        monitor.applyRetention(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(2));
+        /*
+         * The records of session1 have been removed, the session is still counted once.
+         */
+        monitor.logRecognizedIntent(createContext("session1"), createRecognizedIntent(CoreLibrary.Help, 1));
+        JsonObject stats = monitor.getSessionsStats();
+        assertThat(stats.get("sessionCount").getAsInt()).isEqualTo(2);
+        assertThat(stats.get("averageMatchedUtteranceCount").getAsDouble()).isEqualTo(1.5);
+    }
+
+    @Test
+    public void applyRetentionExpiresTombstones() {
+        configuration.addProperty(RecognitionMonitorMapDB.RAW_RETENTION_KEY, 1);
+        monitor = new RecognitionMonitorMapDB(mock(XatkitServer.class), configuration);
+        logRecords();
+        long now = System.currentTimeMillis();
+        monitor.applyRetention(now + TimeUnit.DAYS.toMillis(2));
+        monitor.applyRetention(now + TimeUnit.DAYS.toMillis(4));
+        /*
+         * The tombstone of session1 has expired, the resumed session is counted as a new session.
+         */
+        monitor.logRecognizedIntent(createContext("session1"), createRecognizedIntent(CoreLibrary.Help, 1));
+        assertThat(monitor.getSessionsStats().get("sessionCount").getAsInt()).isEqualTo(3);
+    }
+
+    private JsonArray getRollups(RestHandler handler, String granularity) throws Exception {
+        Object result = handler.handleContent(Collections.emptyList(),
+                Collections.singletonList(new BasicNameValuePair("granularity", granularity)), null);
+        return (JsonArray) result;
+    }
+
+    private void logRecords() {
+        StateContext session1 = createContext("session1");
+        StateContext session2 = createContext("session2");
+        monitor.logRecognizedIntent(session1, createRecognizedIntent(CoreLibrary.Help, 1));
+        monitor.logRecognizedIntent(session1, createRecognizedIntent(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT,
+                1));
+        monitor.logRecognizedIntent(session2, createRecognizedIntent(CoreLibrary.Help, .5f));
+    }
+
+    private void assertStats(JsonObject stats) {
+        assertThat(stats.get("sessionCount").getAsInt()).isEqualTo(2);
+        assertThat(stats.get("averageMatchedUtteranceCount").getAsDouble()).isEqualTo(1);
+        assertThat(stats.get("averageUnmatchedUtteranceCount").getAsDouble()).isEqualTo(.5);
+        assertThat(stats.get("averageSessionTime").getAsDouble()).isGreaterThanOrEqualTo(0);
+        assertThat(stats.get("averageRecognitionConfidence").getAsDouble()).isEqualTo(.75);
+        JsonObject intentCounts = stats.getAsJsonObject("intentCounts");
+        assertThat(intentCounts.get(CoreLibrary.Help.getName()).getAsLong()).isEqualTo(2);
+        assertThat(intentCounts.get(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName()).getAsLong())
+                .isEqualTo(1);
+    }
+
+    private StateContext createContext(String contextId) {
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId(contextId);
+        return context;
+    }
+
+    private RecognizedIntent createRecognizedIntent(IntentDefinition definition, float confidence) {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(definition);
+        recognizedIntent.setRecognitionConfidence(confidence);
+        recognizedIntent.setMatchedInput("input");
+        return recognizedIntent;
+    }
+}
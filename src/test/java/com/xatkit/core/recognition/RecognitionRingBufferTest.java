@@ -0,0 +1,180 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.recognition.RecognitionRingBuffer.OverflowPolicy;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecognitionRingBufferTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructCapacityNotPowerOfTwo() {
+        new RecognitionRingBuffer(3, OverflowPolicy.DROP);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullOverflowPolicy() {
+        new RecognitionRingBuffer(4, null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void newCursorAfterPublish() {
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(4, OverflowPolicy.DROP);
+        buffer.newCursor();
+        publish(buffer, "a");
+        buffer.newCursor();
+    }
+
+    @Test
+    public void pollMultipleCursors() {
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(4, OverflowPolicy.DROP);
+        RecognitionRingBuffer.Cursor cursor1 = buffer.newCursor();
+        RecognitionRingBuffer.Cursor cursor2 = buffer.newCursor();
+        publish(buffer, "a");
+        publish(buffer, "b");
+        assertThat(cursor1.getLag()).isEqualTo(2);
+        List<String> utterances1 = new ArrayList<>();
+        assertThat(cursor1.poll(event -> utterances1.add(event.getUtterance()))).isEqualTo(2);
+        assertThat(utterances1).containsExactly("a", "b");
+        assertThat(cursor1.getLag()).isEqualTo(0);
+        assertThat(cursor1.isDrained()).isTrue();
+        List<String> utterances2 = new ArrayList<>();
+        cursor2.poll(event -> utterances2.add(event.getUtterance()));
+        assertThat(utterances2).containsExactly("a", "b");
+    }
+
+    @Test
+    public void publishFullBufferDropPolicy() {
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(2, OverflowPolicy.DROP);
+        RecognitionRingBuffer.Cursor cursor = buffer.newCursor();
+        assertThat(publish(buffer, "a")).isTrue();
+        assertThat(publish(buffer, "b")).isTrue();
+        assertThat(publish(buffer, "c")).as("Event dropped").isFalse();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+        List<String> utterances = new ArrayList<>();
+        cursor.poll(event -> utterances.add(event.getUtterance()));
+        assertThat(publish(buffer, "d")).as("Slot released").isTrue();
+        cursor.poll(event -> utterances.add(event.getUtterance()));
+        assertThat(utterances).containsExactly("a", "b", "d");
+    }
+
+    @Test
+    public void publishFullBufferDropPolicyCountEvent() {
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(4, OverflowPolicy.DROP);
+        RecognitionRingBuffer.Cursor cursor = buffer.newCursor();
+        StateContext context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+        assertThat(publish(buffer, "a")).isTrue();
+        assertThat(publish(buffer, "b")).isTrue();
+        assertThat(buffer.publish(System.currentTimeMillis(), context, createRecognizedIntent("c"), false))
+                .as("Count event published").isTrue();
+        assertThat(buffer.publish(System.currentTimeMillis(), context, createRecognizedIntent("d"), false))
+                .as("Count event dropped without waiting").isFalse();
+        assertThat(buffer.publish(System.currentTimeMillis(), context, createRecognizedIntent("e"), true))
+                .as("Sampled event published in the reserved slot").isTrue();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+        assertThat(buffer.getDroppedSampledCount()).isEqualTo(0);
+        List<String> utterances = new ArrayList<>();
+        List<Boolean> sampled = new ArrayList<>();
+        cursor.poll(event -> {
+            utterances.add(event.getUtterance());
+            sampled.add(event.isSampled());
+        });
+        assertThat(utterances).containsExactly("a", "b", "c", "e");
+        assertThat(sampled).containsExactly(true, true, false, true);
+    }
+
+    @Test
+    public void publishClosedBuffer() {
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(2, OverflowPolicy.BLOCK);
+        RecognitionRingBuffer.Cursor cursor = buffer.newCursor();
+        publish(buffer, "a");
+        buffer.close();
+        assertThat(publish(buffer, "b")).as("Event dropped").isFalse();
+        List<String> utterances = new ArrayList<>();
+        cursor.poll(event -> utterances.add(event.getUtterance()));
+        assertThat(utterances).containsExactly("a");
+    }
+
+    @Test
+    public void pollHandlerException() {
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(4, OverflowPolicy.DROP);
+        RecognitionRingBuffer.Cursor cursor = buffer.newCursor();
+        publish(buffer, "a");
+        publish(buffer, "fail");
+        publish(buffer, "c");
+        List<String> utterances = new ArrayList<>();
+        try {
+            cursor.poll(event -> {
+                if (event.getUtterance().equals("fail")) {
+                    throw new RuntimeException("fail");
+                }
+                utterances.add(event.getUtterance());
+            });
+        } catch (RuntimeException e) {
+            /*
+             * Expected, the failing event is skipped.
+             */
+        }
+        cursor.poll(event -> utterances.add(event.getUtterance()));
+        assertThat(utterances).containsExactly("a", "c");
+    }
+
+    @Test
+    public void publishConcurrentProducersBlockPolicy() throws InterruptedException {
+        int producerCount = 4;
+        int eventsPerProducer = 10000;
+        RecognitionRingBuffer buffer = new RecognitionRingBuffer(64, OverflowPolicy.BLOCK);
+        RecognitionRingBuffer.Cursor cursor = buffer.newCursor();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            String sessionId = "session" + p;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    buffer.publish(i, sessionId, "intent", Integer.toString(i), 1, true);
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        long[] lastTimestamps = new long[producerCount];
+        Arrays.fill(lastTimestamps, -1);
+        int[] received = new int[1];
+        boolean[] ordered = {true};
+        while (received[0] < producerCount * eventsPerProducer) {
+            cursor.poll(event -> {
+                int producer = Integer.parseInt(event.getSessionId().substring("session".length()));
+                ordered[0] &= event.getTimestamp() == lastTimestamps[producer] + 1;
+                lastTimestamps[producer] = event.getTimestamp();
+                received[0]++;
+            });
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertThat(received[0]).isEqualTo(producerCount * eventsPerProducer);
+        assertThat(ordered[0]).as("Events of each producer are received in order").isTrue();
+        assertThat(buffer.getDroppedCount()).isEqualTo(0);
+        assertThat(cursor.isDrained()).isTrue();
+    }
+
+    private RecognizedIntent createRecognizedIntent(String utterance) {
+        RecognizedIntent intent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        intent.setDefinition(CoreLibrary.Help);
+        intent.setMatchedInput(utterance);
+        return intent;
+    }
+
+    private boolean publish(RecognitionRingBuffer buffer, String utterance) {
+        return buffer.publish(System.currentTimeMillis(), "session", "intent", utterance, 1, true);
+    }
+}
@@ -0,0 +1,115 @@
+package com.xatkit.core.recognition;
+
+import com.xatkit.core.server.XatkitServer;
+import com.xatkit.execution.ExecutionFactory;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.intent.IntentFactory;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SamplingRecognitionMonitorTest {
+
+    private RecordingMonitor delegate;
+
+    private StateContext context;
+
+    @Before
+    public void setUp() {
+        delegate = new RecordingMonitor();
+        context = ExecutionFactory.eINSTANCE.createStateContext();
+        context.setContextId("session");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructZeroRate() {
+        new SamplingRecognitionMonitor(mock(XatkitServer.class), delegate, 0, .8f, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeTargetRate() {
+        new SamplingRecognitionMonitor(mock(XatkitServer.class), delegate, 1, .8f, -1);
+    }
+
+    @Test
+    public void logRecognizedIntentAlwaysSampled() {
+        SamplingRecognitionMonitor monitor = new SamplingRecognitionMonitor(mock(XatkitServer.class), delegate,
+                SamplingRecognitionMonitor.MIN_ADAPTIVE_RATE, .8f, 0);
+        for (int i = 0; i < 100; i++) {
+            monitor.logRecognizedIntent(context,
+                    createRecognizedIntent(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT, 1));
+            monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, .5f));
+        }
+        assertThat(delegate.logged).hasSize(200);
+        assertThat(delegate.counted).isEmpty();
+        assertThat(monitor.getSeenCount(CoreLibrary.Help.getName())).isEqualTo(100);
+        assertThat(monitor.getSampledCount(CoreLibrary.Help.getName())).isEqualTo(100);
+    }
+
+    @Test
+    public void logRecognizedIntentConfidentMatches() {
+        SamplingRecognitionMonitor monitor = new SamplingRecognitionMonitor(mock(XatkitServer.class), delegate,
+                .5, .8f, 0);
+        for (int i = 0; i < 1000; i++) {
+            monitor.logRecognizedIntent(context, createRecognizedIntent(CoreLibrary.Help, 1));
+        }
+        assertThat(delegate.logged.size() + delegate.counted.size()).as("Skipped recognitions are counted")
+                .isEqualTo(1000);
+        assertThat(delegate.logged.size()).isBetween(350, 650);
+        assertThat(monitor.getSeenCount(CoreLibrary.Help.getName())).isEqualTo(1000);
+        assertThat(monitor.getSampledCount(CoreLibrary.Help.getName())).isEqualTo(delegate.logged.size());
+    }
+
+    @Test
+    public void updateLoadAdaptsRate() {
+        long start = System.currentTimeMillis();
+        SamplingRecognitionMonitor monitor = new SamplingRecognitionMonitor(mock(XatkitServer.class), delegate,
+                1, .8f, 10);
+        for (int i = 0; i < 1000; i++) {
+            monitor.updateLoad(start);
+        }
+        monitor.updateLoad(start + 10000);
+        assertThat(monitor.getCurrentRate()).as("Rate reduced under load").isLessThanOrEqualTo(.1)
+                .isGreaterThanOrEqualTo(SamplingRecognitionMonitor.MIN_ADAPTIVE_RATE);
+        monitor.updateLoad(start + 30000);
+        assertThat(monitor.getCurrentRate()).as("Rate restored without load").isEqualTo(1);
+    }
+
+    private RecognizedIntent createRecognizedIntent(IntentDefinition definition, float confidence) {
+        RecognizedIntent recognizedIntent = IntentFactory.eINSTANCE.createRecognizedIntent();
+        recognizedIntent.setDefinition(definition);
+        recognizedIntent.setRecognitionConfidence(confidence);
+        recognizedIntent.setMatchedInput("input");
+        return recognizedIntent;
+    }
+
+    private static class RecordingMonitor implements RecognitionMonitor {
+
+        private final List<RecognizedIntent> logged = new ArrayList<>();
+
+        private final List<RecognizedIntent> counted = new ArrayList<>();
+
+        @Override
+        public void logRecognizedIntent(StateContext context, RecognizedIntent intent) {
+            logged.add(intent);
+        }
+
+        @Override
+        public void countRecognizedIntent(StateContext context, RecognizedIntent intent) {
+            counted.add(intent);
+        }
+
+        @Override
+        public void shutdown() {
+
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.xatkit.core.recognition;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrainingFingerprintTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() {
+        configuration = new BaseConfiguration();
+        configuration.addProperty(RecognitionMonitorMapDB.DATA_DIRECTORY_KEY,
+                temporaryFolder.getRoot().getAbsolutePath());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullConfiguration() {
+        new TrainingFingerprint(null, "agent");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullAgentName() {
+        new TrainingFingerprint(configuration, null);
+    }
+
+    @Test
+    public void computeSameData() {
+        assertThat(TrainingFingerprint.compute("training data")).isEqualTo(TrainingFingerprint.compute("training "
+                + "data"));
+    }
+
+    @Test
+    public void computeDifferentData() {
+        assertThat(TrainingFingerprint.compute("training data")).isNotEqualTo(TrainingFingerprint.compute("other "
+                + "data"));
+    }
+
+    @Test
+    public void loadNoStoredFingerprint() {
+        TrainingFingerprint fingerprint = new TrainingFingerprint(configuration, "agent");
+        assertThat(fingerprint.load()).isNull();
+    }
+
+    @Test
+    public void storeAndLoad() {
+        String hash = TrainingFingerprint.compute("training data");
+        new TrainingFingerprint(configuration, "dialogflow-my/project").store(hash);
+        /*
+         * Use a new instance to make sure the fingerprint is persisted.
+         */
+        assertThat(new TrainingFingerprint(configuration, "dialogflow-my/project").load()).isEqualTo(hash);
+        assertThat(new TrainingFingerprint(configuration, "nlpjs-agent").load()).isNull();
+    }
+
+    @Test
+    public void clear() {
+        TrainingFingerprint fingerprint = new TrainingFingerprint(configuration, "agent");
+        fingerprint.store(TrainingFingerprint.compute("training data"));
+        fingerprint.clear();
+        assertThat(fingerprint.load()).isNull();
+    }
+
+    @Test
+    public void storeDisabled() {
+        configuration.addProperty(TrainingFingerprint.ENABLE_TRAINING_FINGERPRINT_KEY, false);
+        TrainingFingerprint fingerprint = new TrainingFingerprint(configuration, "agent");
+        assertThat(fingerprint.isEnabled()).isFalse();
+        fingerprint.store(TrainingFingerprint.compute("training data"));
+        assertThat(fingerprint.load()).isNull();
+    }
+}
@@ -0,0 +1,144 @@
+package com.xatkit.core.recognition.dialogflow;
+
+import com.google.cloud.dialogflow.v2.Context;
+import com.google.cloud.dialogflow.v2.EntityType;
+import com.google.cloud.dialogflow.v2.Intent;
+import com.google.cloud.dialogflow.v2.ProjectAgentName;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.xatkit.core.recognition.IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DialogFlowAgentSynchronizerTest {
+
+    private Map<String, Intent> registeredIntents;
+
+    private Map<String, EntityType> registeredEntityTypes;
+
+    @Before
+    public void setUp() {
+        registeredIntents = new HashMap<>();
+        registeredEntityTypes = new HashMap<>();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullClients() {
+        new DialogFlowAgentSynchronizer(null, ProjectAgentName.of("test"));
+    }
+
+    @Test
+    public void computeIntentsToUpdateNewIntent() {
+        Intent intent = createIntent("Greetings", "hi");
+        List<Intent> result = DialogFlowAgentSynchronizer.computeIntentsToUpdate(Collections.singletonList(intent),
+                registeredIntents);
+        assertThat(result).containsExactly(intent);
+    }
+
+    @Test
+    public void computeIntentsToUpdateUnchangedIntent() {
+        Intent intent = createIntent("Greetings", "hi");
+        /*
+         * DialogFlow sets the resource names and replaces the session of the contexts.
+         */
+        registeredIntents.put("Greetings", intent.toBuilder()
+                .setName("projects/test/agent/intents/1")
+                .clearOutputContexts()
+                .addOutputContexts(Context.newBuilder().setName("projects/test/agent/sessions/-/contexts/Xatkit")
+                        .setLifespanCount(2))
+                .build());
+        List<Intent> result = DialogFlowAgentSynchronizer.computeIntentsToUpdate(Collections.singletonList(intent),
+                registeredIntents);
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void computeIntentsToUpdateChangedIntent() {
+        Intent intent = createIntent("Greetings", "hi");
+        registeredIntents.put("Greetings", createIntent("Greetings", "hello").toBuilder()
+                .setName("projects/test/agent/intents/1").build());
+        List<Intent> result = DialogFlowAgentSynchronizer.computeIntentsToUpdate(Collections.singletonList(intent),
+                registeredIntents);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getName()).isEqualTo("projects/test/agent/intents/1");
+        assertThat(result.get(0).getTrainingPhrases(0).getParts(0).getText()).isEqualTo("hi");
+    }
+
+    @Test
+    public void computeIntentsToDelete() {
+        Intent greetings = createIntent("Greetings", "hi");
+        Intent help = createIntent("Help", "help");
+        Intent fallback = createIntent(DEFAULT_FALLBACK_INTENT.getName(), "");
+        registeredIntents.put("Greetings", greetings);
+        registeredIntents.put("Help", help);
+        registeredIntents.put(fallback.getDisplayName(), fallback);
+        List<Intent> result =
+                DialogFlowAgentSynchronizer.computeIntentsToDelete(Collections.singletonList(greetings),
+                        registeredIntents);
+        assertThat(result).containsExactly(help);
+    }
+
+    @Test
+    public void computeEntityTypesToUpdateNewEntityType() {
+        EntityType entityType = createEntityType("City", "Barcelona");
+        List<EntityType> result =
+                DialogFlowAgentSynchronizer.computeEntityTypesToUpdate(Collections.singletonList(entityType),
+                        registeredEntityTypes);
+        assertThat(result).containsExactly(entityType);
+    }
+
+    @Test
+    public void computeEntityTypesToUpdateUnchangedEntityType() {
+        EntityType entityType = createEntityType("City", "Barcelona");
+        registeredEntityTypes.put("City", entityType.toBuilder().setName("projects/test/agent/entityTypes/1")
+                .build());
+        List<EntityType> result =
+                DialogFlowAgentSynchronizer.computeEntityTypesToUpdate(Collections.singletonList(entityType),
+                        registeredEntityTypes);
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void computeEntityTypesToUpdateChangedEntityType() {
+        EntityType entityType = createEntityType("City", "Barcelona");
+        registeredEntityTypes.put("City", createEntityType("City", "Paris").toBuilder()
+                .setName("projects/test/agent/entityTypes/1").build());
+        List<EntityType> result =
+                DialogFlowAgentSynchronizer.computeEntityTypesToUpdate(Collections.singletonList(entityType),
+                        registeredEntityTypes);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getName()).isEqualTo("projects/test/agent/entityTypes/1");
+    }
+
+    @Test
+    public void computeEntityTypesToDelete() {
+        EntityType city = createEntityType("City", "Barcelona");
+        EntityType country = createEntityType("Country", "Spain");
+        registeredEntityTypes.put("City", city);
+        registeredEntityTypes.put("Country", country);
+        List<EntityType> result =
+                DialogFlowAgentSynchronizer.computeEntityTypesToDelete(Arrays.asList(city), registeredEntityTypes);
+        assertThat(result).containsExactly(country);
+    }
+
+    private Intent createIntent(String name, String trainingSentence) {
+        return Intent.newBuilder().setDisplayName(name)
+                .addTrainingPhrases(Intent.TrainingPhrase.newBuilder()
+                        .addParts(Intent.TrainingPhrase.Part.newBuilder().setText(trainingSentence)))
+                .addOutputContexts(Context.newBuilder().setName("projects/test/agent/sessions/setup/contexts/Xatkit")
+                        .setLifespanCount(2))
+                .build();
+    }
+
+    private EntityType createEntityType(String name, String value) {
+        return EntityType.newBuilder().setDisplayName(name).setKind(EntityType.Kind.KIND_MAP)
+                .addEntities(EntityType.Entity.newBuilder().setValue(value).addSynonyms(value))
+                .build();
+    }
+}
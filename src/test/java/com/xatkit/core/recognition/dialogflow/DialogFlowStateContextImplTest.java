@@ -3,6 +3,7 @@ package com.xatkit.core.recognition.dialogflow;
 import com.google.cloud.dialogflow.v2.SessionName;
 import com.xatkit.AbstractXatkitTest;
 import com.xatkit.test.util.VariableLoaderHelper;
+import com.xatkit.util.SessionConfigurationMap;
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.assertj.core.api.JUnitSoftAssertions;
@@ -10,6 +11,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.AbstractMap;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -58,6 +60,20 @@ public class DialogFlowStateContextImplTest extends AbstractXatkitTest {
                 "test"));
     }
 
+    @Test
+    public void withSharedConfigurationLocalUpdate() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(DialogFlowConfiguration.PROJECT_ID_KEY, "test");
+        Map<Object, Object> sharedConfiguration = SessionConfigurationMap.freeze(configuration);
+        DialogFlowStateContext context1 = DialogFlowStateContextImpl.withSharedConfiguration(getValidSessionName(),
+                sharedConfiguration);
+        DialogFlowStateContext context2 = DialogFlowStateContextImpl.withSharedConfiguration(
+                SessionName.of(VALID_PROJECT_ID, "demo2"), sharedConfiguration);
+        context1.getConfiguration().put(DialogFlowConfiguration.PROJECT_ID_KEY, "updated");
+        assertThat(context1.getConfiguration()).containsEntry(DialogFlowConfiguration.PROJECT_ID_KEY, "updated");
+        assertThat(context2.getConfiguration()).containsEntry(DialogFlowConfiguration.PROJECT_ID_KEY, "test");
+    }
+
     private SessionName getValidSessionName() {
         return SessionName.of(VALID_PROJECT_ID, "demo");
     }
@@ -0,0 +1,129 @@
+package com.xatkit.core.recognition.embedded;
+
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.core.recognition.IntentRecognitionProviderTest;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.stubs.TestingStateContext;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static com.xatkit.stubs.TestingStateContextFactory.wrap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EmbeddedIntentRecognitionProviderTest extends IntentRecognitionProviderTest<EmbeddedIntentRecognitionProvider> {
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullConfiguration() {
+        intentRecognitionProvider = new EmbeddedIntentRecognitionProvider(null, null);
+    }
+
+    @Test
+    public void constructInvalidNgramRange() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(EmbeddedConfiguration.MIN_NGRAM_KEY, 4);
+        configuration.addProperty(EmbeddedConfiguration.MAX_NGRAM_KEY, 2);
+        assertThatThrownBy(() -> new EmbeddedIntentRecognitionProvider(configuration, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void getIntentInputWithTypo() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSystemEntityIntent());
+        intentRecognitionProvider.trainMLEngine();
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("TEST"));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent(), intentProviderTestBot.getSystemEntityIntent());
+        RecognizedIntent recognizedIntent = intentRecognitionProvider.getIntent("greting", context);
+        assertThatRecognizedIntentHasDefinition(recognizedIntent, intentProviderTestBot.getSimpleIntent().getName());
+        assertThat(recognizedIntent.getRecognitionConfidence()).isGreaterThan(0.5f).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void getIntentSingleEnabledIntentConfidence() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        intentRecognitionProvider.trainMLEngine();
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("TEST"));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent());
+        RecognizedIntent exactIntent = intentRecognitionProvider.getIntent("Greetings", context);
+        RecognizedIntent typoIntent = intentRecognitionProvider.getIntent("greting", context);
+        assertThatRecognizedIntentHasDefinition(exactIntent, intentProviderTestBot.getSimpleIntent().getName());
+        assertThatRecognizedIntentHasDefinition(typoIntent, intentProviderTestBot.getSimpleIntent().getName());
+        assertThat(exactIntent.getRecognitionConfidence()).isGreaterThan(0.5f).isLessThan(1);
+        assertThat(typoIntent.getRecognitionConfidence()).isLessThan(exactIntent.getRecognitionConfidence());
+    }
+
+    @Test
+    public void getIntentParameterWithAdditionalWords() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.registerEntityDefinition(intentProviderTestBot.getMappingEntity());
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getMappingEntityIntent());
+        intentRecognitionProvider.trainMLEngine();
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("TEST"));
+        context.enableIntents(intentProviderTestBot.getMappingEntityIntent());
+        RecognizedIntent recognizedIntent = intentRecognitionProvider.getIntent("Please give me some information "
+                + "about Jordi", context);
+        assertThatRecognizedIntentHasDefinition(recognizedIntent,
+                intentProviderTestBot.getMappingEntityIntent().getName());
+        assertThatIntentContainsParameterWithValue(recognizedIntent, "name", "Jordi");
+    }
+
+    @Test
+    public void getIntentUnrelatedInput() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        intentRecognitionProvider.trainMLEngine();
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("TEST"));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent());
+        RecognizedIntent recognizedIntent = intentRecognitionProvider.getIntent("What about the weather?", context);
+        assertThatRecognizedIntentHasDefinition(recognizedIntent,
+                IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName());
+    }
+
+    @Test
+    public void getIntentNotEnabledIntent() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSystemEntityIntent());
+        intentRecognitionProvider.trainMLEngine();
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("TEST"));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent());
+        RecognizedIntent recognizedIntent = intentRecognitionProvider.getIntent("Hello World", context);
+        assertThatRecognizedIntentHasDefinition(recognizedIntent,
+                IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName());
+    }
+
+    @Test
+    public void getIntentRegisteredAfterTraining() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        intentRecognitionProvider.trainMLEngine();
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSystemEntityIntent());
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("TEST"));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent(), intentProviderTestBot.getSystemEntityIntent());
+        RecognizedIntent recognizedIntent = intentRecognitionProvider.getIntent("Hello World", context);
+        assertThatRecognizedIntentHasDefinition(recognizedIntent,
+                intentProviderTestBot.getSystemEntityIntent().getName());
+    }
+
+    @Ignore
+    @Test
+    @Override
+    public void getCompositeEntityIntent() throws IntentRecognitionProviderException {
+        /*
+         * Composite entities are extracted with the RegExEntityMapper, which does not support them (see https://github
+         * .com/xatkit-bot-platform/xatkit-runtime/issues/272)
+         */
+        super.getCompositeEntityIntent();
+    }
+
+    @Override
+    protected EmbeddedIntentRecognitionProvider getIntentRecognitionProvider() {
+        return new EmbeddedIntentRecognitionProvider(new BaseConfiguration(), null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.xatkit.core.recognition.embedded;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class TfIdfVectorizerTest {
+
+    @Test
+    public void constructInvalidNgramRange() {
+        assertThatThrownBy(() -> new TfIdfVectorizer(3, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void normalizeSentence() {
+        assertThat(TfIdfVectorizer.normalize("  Hello,   WORLD!! ")).isEqualTo("hello world");
+    }
+
+    @Test
+    public void transformTrainingSentence() {
+        TfIdfVectorizer vectorizer = new TfIdfVectorizer(2, 4);
+        vectorizer.fit(Arrays.asList("Hello World", "Greetings"));
+        SparseVector vector = vectorizer.transform("Hello World");
+        assertThat(vector.size()).isGreaterThan(0);
+        assertThat(vector.dot(vector)).isCloseTo(1, within(1e-9));
+    }
+
+    @Test
+    public void transformUnknownNgrams() {
+        TfIdfVectorizer vectorizer = new TfIdfVectorizer(2, 4);
+        vectorizer.fit(Arrays.asList("Hello World"));
+        SparseVector vector = vectorizer.transform("xyz");
+        assertThat(vector.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void transformSimilarSentences() {
+        TfIdfVectorizer vectorizer = new TfIdfVectorizer(2, 4);
+        vectorizer.fit(Arrays.asList("Greetings", "Hello World"));
+        SparseVector greetings = vectorizer.transform("Greetings");
+        assertThat(vectorizer.transform("Greting").dot(greetings))
+                .isGreaterThan(vectorizer.transform("Hello").dot(greetings));
+    }
+}
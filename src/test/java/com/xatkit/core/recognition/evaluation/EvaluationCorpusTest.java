@@ -0,0 +1,66 @@
+package com.xatkit.core.recognition.evaluation;
+
+import com.xatkit.core.XatkitException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EvaluationCorpusTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test(expected = NullPointerException.class)
+    public void readNullFile() {
+        EvaluationCorpus.read((File) null);
+    }
+
+    @Test
+    public void readJsonLinesFile() throws IOException {
+        File file = temporaryFolder.newFile("corpus.json");
+        Files.write(file.toPath(), Arrays.asList(
+                "{\"utterance\": \"hi\", \"expectedIntent\": \"Welcome\"}",
+                "{\"utterance\": \"whats up\"}"), StandardCharsets.UTF_8);
+        List<EvaluationSample> samples = EvaluationCorpus.read(file);
+        assertThat(samples).containsExactly(new EvaluationSample("hi", "Welcome"),
+                new EvaluationSample("whats up", null));
+        assertThat(samples.get(1).isLabeled()).as("Sample without expected intent is not labeled").isFalse();
+    }
+
+    @Test
+    public void readArray() {
+        List<EvaluationSample> samples = EvaluationCorpus.read(new StringReader(
+                "[{\"utterance\": \"hi\", \"intent\": \"Welcome\"}, {\"utterance\": \"bye\", \"intent\": \"Bye\"}]"));
+        assertThat(samples).containsExactly(new EvaluationSample("hi", "Welcome"),
+                new EvaluationSample("bye", "Bye"));
+    }
+
+    @Test
+    public void readEntries() {
+        List<EvaluationSample> samples = EvaluationCorpus.read(new StringReader(
+                "{\"entries\": [{\"utterance\": \"what?\", \"count\": 3}], \"count\": 1}"));
+        assertThat(samples).containsExactly(new EvaluationSample("what?", null));
+    }
+
+    @Test
+    public void readMissingUtterance() {
+        List<EvaluationSample> samples = EvaluationCorpus.read(new StringReader(
+                "{\"expectedIntent\": \"Welcome\"}\n{\"utterance\": \"hi\"}"));
+        assertThat(samples).containsExactly(new EvaluationSample("hi", null));
+    }
+
+    @Test(expected = XatkitException.class)
+    public void readInvalidSample() {
+        EvaluationCorpus.read(new StringReader("[\"hi\"]"));
+    }
+}
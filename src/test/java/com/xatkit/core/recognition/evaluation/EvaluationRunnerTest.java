@@ -0,0 +1,132 @@
+package com.xatkit.core.recognition.evaluation;
+
+import com.xatkit.core.XatkitException;
+import com.xatkit.core.recognition.IntentRecognitionProvider;
+import com.xatkit.core.recognition.IntentRecognitionProviderException;
+import com.xatkit.core.recognition.regex.RegExIntentRecognitionProvider;
+import com.xatkit.execution.StateContext;
+import com.xatkit.intent.IntentDefinition;
+import com.xatkit.stubs.TestingStateContext;
+import com.xatkit.test.bot.IntentProviderTestBot;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.xatkit.stubs.TestingStateContextFactory.wrap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class EvaluationRunnerTest {
+
+    private IntentProviderTestBot intentProviderTestBot;
+
+    private RegExIntentRecognitionProvider provider;
+
+    @Before
+    public void setUp() throws IntentRecognitionProviderException {
+        intentProviderTestBot = new IntentProviderTestBot();
+        provider = new RegExIntentRecognitionProvider(new BaseConfiguration(), null);
+        provider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+    }
+
+    @After
+    public void tearDown() throws IntentRecognitionProviderException {
+        if (!provider.isShutdown()) {
+            provider.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructInvalidConcurrency() {
+        new EvaluationRunner(provider, this::createContext, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeRate() {
+        new EvaluationRunner(provider, this::createContext, 1, -1);
+    }
+
+    @Test
+    public void run() throws InterruptedException {
+        Set<String> contextIds = ConcurrentHashMap.newKeySet();
+        EvaluationRunner runner = new EvaluationRunner(provider, contextId -> {
+            contextIds.add(contextId);
+            return createContext(contextId);
+        }, 2, 0);
+        String simpleIntent = intentProviderTestBot.getSimpleIntent().getName();
+        String fallbackIntent = IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName();
+        List<EvaluationSample> samples = Arrays.asList(
+                new EvaluationSample("Greetings", simpleIntent),
+                new EvaluationSample("Greetings", simpleIntent),
+                new EvaluationSample("Hello", simpleIntent),
+                new EvaluationSample("Greetings", fallbackIntent),
+                new EvaluationSample("What?", null));
+        EvaluationReport report = runner.run(samples);
+        assertThat(contextIds).as("One context per worker").hasSize(2);
+        assertThat(report.getSampleCount()).isEqualTo(5);
+        assertThat(report.getLabeledCount()).isEqualTo(4);
+        assertThat(report.getFailedCount()).isEqualTo(0);
+        assertThat(report.getResults().get(2).getSample()).as("Results are in sample order").isEqualTo(samples.get(2));
+        assertThat(report.getResults().get(2).getRecognizedIntent()).isEqualTo(fallbackIntent);
+        assertThat(report.getAccuracy()).isEqualTo(.5);
+        assertThat(report.getConfusionMatrix().get(simpleIntent)).containsEntry(simpleIntent, 2L)
+                .containsEntry(fallbackIntent, 1L);
+        assertThat(report.getConfusionMatrix().get(fallbackIntent)).containsEntry(simpleIntent, 1L);
+        EvaluationReport.IntentMetrics metrics = report.getIntentMetrics().get(simpleIntent);
+        assertThat(metrics.getPrecision()).isCloseTo(2 / 3.0, offset(1e-9));
+        assertThat(metrics.getRecall()).isCloseTo(2 / 3.0, offset(1e-9));
+        assertThat(metrics.getSupport()).isEqualTo(3);
+        assertThat(report.getRecognitionCounts()).containsEntry(simpleIntent, 3L).containsEntry(fallbackIntent, 2L);
+        assertThat(report.getLatencyPercentiles()).containsOnlyKeys(50.0, 90.0, 95.0, 99.0);
+        assertThat(report.toJson().getAsJsonObject("latency").has("p99")).as("JSON report contains p99").isTrue();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullIntents() {
+        new EvaluationRunner(provider, (List<IntentDefinition>) null, 1, 0);
+    }
+
+    @Test
+    public void runWithIntents() throws InterruptedException {
+        EvaluationRunner runner = new EvaluationRunner(provider,
+                Collections.singletonList(intentProviderTestBot.getSimpleIntent()), 1, 0);
+        String simpleIntent = intentProviderTestBot.getSimpleIntent().getName();
+        EvaluationReport report = runner.run(Arrays.asList(
+                new EvaluationSample("Greetings", simpleIntent),
+                new EvaluationSample("What?", null)));
+        assertThat(report.getFailedCount()).as("The contexts accept the provided intents").isEqualTo(0);
+        assertThat(report.getResults().get(0).getRecognizedIntent()).isEqualTo(simpleIntent);
+        assertThat(report.getResults().get(1).getRecognizedIntent())
+                .isEqualTo(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT.getName());
+    }
+
+    @Test
+    public void runRateLimited() throws InterruptedException {
+        EvaluationRunner runner = new EvaluationRunner(provider, this::createContext, 2, 20);
+        long start = System.currentTimeMillis();
+        EvaluationReport report = runner.run(Collections.nCopies(5, new EvaluationSample("Greetings", null)));
+        assertThat(System.currentTimeMillis() - start).as("Recognitions are rate limited").isGreaterThanOrEqualTo(150);
+        assertThat(report.getSampleCount()).isEqualTo(5);
+    }
+
+    @Test(expected = XatkitException.class)
+    public void runContextFactoryError() throws InterruptedException {
+        EvaluationRunner runner = new EvaluationRunner(provider, contextId -> {
+            throw new IntentRecognitionProviderException("error");
+        }, 1, 0);
+        runner.run(Collections.singletonList(new EvaluationSample("Greetings", null)));
+    }
+
+    private StateContext createContext(String contextId) throws IntentRecognitionProviderException {
+        TestingStateContext context = wrap(provider.createContext(contextId));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent());
+        return context;
+    }
+}
@@ -1,7 +1,12 @@
 package com.xatkit.core.recognition.regex;
 
+import com.xatkit.core.recognition.IntentRecognitionProvider;
 import com.xatkit.core.recognition.IntentRecognitionProviderException;
 import com.xatkit.core.recognition.IntentRecognitionProviderTest;
+import com.xatkit.core.recognition.RecognitionCache;
+import com.xatkit.core.recognition.RecognitionMonitor;
+import com.xatkit.core.recognition.evaluation.EvaluationRunner;
+import com.xatkit.core.recognition.evaluation.EvaluationSample;
 import com.xatkit.execution.ExecutionFactory;
 import com.xatkit.execution.StateContext;
 import com.xatkit.intent.IntentDefinition;
@@ -12,8 +17,15 @@ import org.apache.commons.configuration2.BaseConfiguration;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static com.xatkit.stubs.TestingStateContextFactory.wrap;
 import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class RegExIntentRecognitionProviderTest extends IntentRecognitionProviderTest<RegExIntentRecognitionProvider> {
 
@@ -58,6 +70,43 @@ public class RegExIntentRecognitionProviderTest extends IntentRecognitionProvide
         assertThatRecognizedIntentHasDefinition(recognizedIntent, intentProviderTestBot.getSimpleIntent().getName());
     }
 
+    @Test
+    public void getIntentCachedPerState() throws IntentRecognitionProviderException {
+        intentRecognitionProvider = getIntentRecognitionProvider();
+        intentRecognitionProvider.setRecognitionCache(new RecognitionCache(10, 60000));
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        TestingStateContext enabledContext = wrap(intentRecognitionProvider.createContext("contextId"));
+        enabledContext.enableIntents(intentProviderTestBot.getSimpleIntent());
+        TestingStateContext disabledContext = wrap(intentRecognitionProvider.createContext("contextId2"));
+        assertThatRecognizedIntentHasDefinition(intentRecognitionProvider.getIntent("Greetings", enabledContext),
+                intentProviderTestBot.getSimpleIntent().getName());
+        RecognizedIntent recognizedIntent = intentRecognitionProvider.getIntent("Greetings", disabledContext);
+        assertThat(recognizedIntent.getDefinition()).as("Intent cached in another state is not returned")
+                .isEqualTo(IntentRecognitionProvider.DEFAULT_FALLBACK_INTENT);
+        assertThatRecognizedIntentHasDefinition(intentRecognitionProvider.getIntent("Greetings", enabledContext),
+                intentProviderTestBot.getSimpleIntent().getName());
+        assertThat(intentRecognitionProvider.getRecognitionCache().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getIntentEvaluationContextNotLogged() throws IntentRecognitionProviderException,
+            InterruptedException {
+        RecognitionMonitor recognitionMonitor = mock(RecognitionMonitor.class);
+        intentRecognitionProvider = new RegExIntentRecognitionProvider(new BaseConfiguration(), recognitionMonitor);
+        intentRecognitionProvider.registerIntentDefinition(intentProviderTestBot.getSimpleIntent());
+        TestingStateContext context = wrap(intentRecognitionProvider.createContext("contextId"));
+        context.enableIntents(intentProviderTestBot.getSimpleIntent());
+        TestingStateContext evaluationContext = wrap(intentRecognitionProvider.createContext("evaluationContextId"));
+        evaluationContext.enableIntents(intentProviderTestBot.getSimpleIntent());
+        intentRecognitionProvider.getIntent("Greetings", context);
+        new EvaluationRunner(intentRecognitionProvider, contextId -> evaluationContext, 1, 0)
+                .run(Collections.singletonList(new EvaluationSample("Greetings", null)));
+        verify(recognitionMonitor).logRecognizedIntent(eq(context), any());
+        verify(recognitionMonitor, never()).logRecognizedIntent(eq(evaluationContext), any());
+        assertThat(EvaluationRunner.isEvaluationContext(evaluationContext)).as("Context unmarked after the run")
+                .isFalse();
+    }
+
     @Test
     public void getIntentValidIntentDefinitionWithReservedRegExpCharacters() throws IntentRecognitionProviderException {
         intentRecognitionProvider = getIntentRecognitionProvider();
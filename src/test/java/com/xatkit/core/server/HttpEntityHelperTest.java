@@ -0,0 +1,56 @@
+package com.xatkit.core.server;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.xatkit.AbstractXatkitTest;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpEntityHelperTest extends AbstractXatkitTest {
+
+    @Test(expected = NullPointerException.class)
+    public void createStreamingJsonEntityNullProducer() {
+        HttpEntityHelper.createStreamingJsonEntity(null);
+    }
+
+    @Test
+    public void createStreamingJsonEntity() throws IOException {
+        HttpEntity entity = HttpEntityHelper.createStreamingJsonEntity(writer -> {
+            writer.beginArray();
+            for (int i = 0; i < 3; i++) {
+                writer.beginObject();
+                writer.name("value").value("été " + i);
+                writer.endObject();
+            }
+            writer.endArray();
+        });
+        assertThat(entity.isChunked()).as("Entity is chunked").isTrue();
+        assertThat(entity.getContentLength()).as("Entity length is unknown").isLessThan(0);
+        assertThat(entity.getContentType().getValue()).as("Entity is a JSON entity")
+                .isEqualTo(ContentType.APPLICATION_JSON.getMimeType());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+        JsonElement element = new JsonParser().parse(new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        JsonArray array = element.getAsJsonArray();
+        assertThat(array).hasSize(3);
+        assertThat(array.get(2).getAsJsonObject().get("value").getAsString()).isEqualTo("été 2");
+    }
+
+    @Test
+    public void createStreamingJsonEntityIsRepeatable() throws IOException {
+        HttpEntity entity = HttpEntityHelper.createStreamingJsonEntity(writer -> writer.beginArray().endArray());
+        ByteArrayOutputStream outputStream1 = new ByteArrayOutputStream();
+        entity.writeTo(outputStream1);
+        ByteArrayOutputStream outputStream2 = new ByteArrayOutputStream();
+        entity.writeTo(outputStream2);
+        assertThat(outputStream2.toByteArray()).isEqualTo(outputStream1.toByteArray());
+    }
+}
@@ -0,0 +1,142 @@
+package com.xatkit.core.watchdog;
+
+import com.xatkit.core.watchdog.ExecutionWatchdog.MonitoredTask;
+import com.xatkit.core.watchdog.ExecutionWatchdog.TaskKind;
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecutionWatchdogTest {
+
+    private ExecutionWatchdog watchdog;
+
+    @After
+    public void tearDown() {
+        if (nonNull(watchdog)) {
+            watchdog.close();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullConfiguration() {
+        watchdog = new ExecutionWatchdog(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructNegativeBudget() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(WatchdogConfiguration.BUDGET_KEY, -1);
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(configuration));
+    }
+
+    @Test
+    public void constructDefaultConfigurationDisabled() {
+        WatchdogConfiguration configuration = new WatchdogConfiguration(new BaseConfiguration());
+        assertThat(configuration.isEnabled()).isFalse();
+    }
+
+    @Test
+    public void startAndCloseRecordsDuration() {
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(createEnabledConfiguration()));
+        try (MonitoredTask task = watchdog.start(TaskKind.BODY, "State", "context")) {
+            assertThat(watchdog.getRunningTaskCount()).isEqualTo(1);
+        }
+        assertThat(watchdog.getRunningTaskCount()).isEqualTo(0);
+        assertThat(watchdog.getHistogram(TaskKind.BODY).getTotalCount()).isEqualTo(1);
+        assertThat(watchdog.getHistogram(TaskKind.GUARD).getTotalCount()).isEqualTo(0);
+        assertThat(watchdog.getExceededCount(TaskKind.BODY)).isEqualTo(0);
+    }
+
+    @Test
+    public void startDisabledWatchdog() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(WatchdogConfiguration.ENABLED_KEY, false);
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(configuration));
+        try (MonitoredTask task = watchdog.start(TaskKind.BODY, "State", "context")) {
+            assertThat(watchdog.getRunningTaskCount()).isEqualTo(0);
+        }
+        assertThat(watchdog.getHistogram(TaskKind.BODY).getTotalCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void checkExceededBudgetReportsTask() throws InterruptedException {
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(createConfiguration(false)));
+        try (MonitoredTask task = watchdog.start(TaskKind.GUARD, "State", "context")) {
+            Thread.sleep(100);
+            watchdog.check();
+            assertThat(watchdog.getExceededCount(TaskKind.GUARD)).isEqualTo(1);
+            /*
+             * The task is reported only once.
+             */
+            watchdog.check();
+            assertThat(watchdog.getExceededCount(TaskKind.GUARD)).isEqualTo(1);
+            assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        }
+        assertThat(watchdog.getHistogram(TaskKind.GUARD).getCountAbove(50)).isEqualTo(1);
+    }
+
+    @Test
+    public void checkExceededBudgetInterruptsTask() throws InterruptedException {
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(createConfiguration(true)));
+        try (MonitoredTask task = watchdog.start(TaskKind.BODY, "State", "context")) {
+            Thread.sleep(100);
+            watchdog.check();
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        }
+        /*
+         * Closing the task clears the interrupted flag set by the watchdog.
+         */
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        assertThat(watchdog.getExceededCount(TaskKind.BODY)).isEqualTo(1);
+    }
+
+    @Test
+    public void checkExceededBudgetCancelsAsyncTask() throws InterruptedException {
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(createConfiguration(true)));
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        watchdog.watch(TaskKind.BODY, "State", "context", stage);
+        assertThat(watchdog.getRunningTaskCount()).isEqualTo(1);
+        Thread.sleep(100);
+        watchdog.check();
+        assertThat(stage.isCancelled()).isTrue();
+        assertThat(watchdog.getRunningTaskCount()).isEqualTo(0);
+        assertThat(watchdog.getHistogram(TaskKind.BODY).getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void toJson() {
+        watchdog = new ExecutionWatchdog(new WatchdogConfiguration(createEnabledConfiguration()));
+        try (MonitoredTask task = watchdog.start(TaskKind.FALLBACK, "State", "context")) {
+            /*
+             * Nothing to do, we just want to record a duration.
+             */
+        }
+        assertThat(watchdog.toJson().get("budget").getAsLong()).isEqualTo(WatchdogConfiguration.DEFAULT_BUDGET);
+        assertThat(watchdog.toJson().getAsJsonObject("fallback").get("count").getAsLong()).isEqualTo(1);
+        assertThat(watchdog.toJson().getAsJsonObject("fallback").getAsJsonObject("histogram").get("<=10ms")
+                .getAsLong()).isEqualTo(1);
+    }
+
+    private Configuration createEnabledConfiguration() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.addProperty(WatchdogConfiguration.ENABLED_KEY, true);
+        return configuration;
+    }
+
+    private Configuration createConfiguration(boolean interrupt) {
+        Configuration configuration = createEnabledConfiguration();
+        configuration.addProperty(WatchdogConfiguration.BUDGET_KEY, 50);
+        /*
+         * Use a long check interval: the tests call check() directly.
+         */
+        configuration.addProperty(WatchdogConfiguration.CHECK_INTERVAL_KEY, 60000);
+        configuration.addProperty(WatchdogConfiguration.INTERRUPT_KEY, interrupt);
+        return configuration;
+    }
+}
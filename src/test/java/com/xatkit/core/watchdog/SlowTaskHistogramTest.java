@@ -0,0 +1,34 @@
+package com.xatkit.core.watchdog;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowTaskHistogramTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordNegativeDuration() {
+        new SlowTaskHistogram().record(-1);
+    }
+
+    @Test
+    public void recordDurations() {
+        SlowTaskHistogram histogram = new SlowTaskHistogram();
+        histogram.record(0);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(1200);
+        histogram.record(60000);
+        assertThat(histogram.getTotalCount()).isEqualTo(5);
+        assertThat(histogram.getBuckets().get("<=10ms")).isEqualTo(2);
+        assertThat(histogram.getBuckets().get("<=50ms")).isEqualTo(1);
+        assertThat(histogram.getBuckets().get("<=5000ms")).isEqualTo(1);
+        assertThat(histogram.getBuckets().get(">30000ms")).isEqualTo(1);
+        assertThat(histogram.getCountAbove(1000)).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getCountAboveInvalidThreshold() {
+        new SlowTaskHistogram().getCountAbove(42);
+    }
+}
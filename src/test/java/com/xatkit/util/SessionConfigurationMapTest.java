@@ -0,0 +1,117 @@
+package com.xatkit.util;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SessionConfigurationMapTest {
+
+    private Configuration configuration;
+
+    private Map<Object, Object> sharedConfiguration;
+
+    @Before
+    public void setUp() {
+        configuration = new BaseConfiguration();
+        configuration.addProperty("key1", "value1");
+        configuration.addProperty("key2", "value2");
+        sharedConfiguration = SessionConfigurationMap.freeze(configuration);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void freezeNullConfiguration() {
+        SessionConfigurationMap.freeze(null);
+    }
+
+    @Test
+    public void freezeConfiguration() {
+        assertThat(sharedConfiguration).hasSize(2).containsEntry("key1", "value1").containsEntry("key2", "value2");
+        assertThatThrownBy(() -> sharedConfiguration.put("key3", "value3"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void freezeConfigurationUpdateConfiguration() {
+        configuration.setProperty("key1", "updated");
+        assertThat(sharedConfiguration).containsEntry("key1", "value1");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructNullSharedConfiguration() {
+        new SessionConfigurationMap(null);
+    }
+
+    @Test
+    public void constructValidSharedConfiguration() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        assertThat(map).isEqualTo(sharedConfiguration);
+        assertThat(map.hasOverrides()).isFalse();
+    }
+
+    @Test
+    public void putExistingKey() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        Object previous = map.put("key1", "updated");
+        assertThat(previous).isEqualTo("value1");
+        assertThat(map).hasSize(2).containsEntry("key1", "updated");
+        assertThat(map.hasOverrides()).isTrue();
+        assertThat(sharedConfiguration).containsEntry("key1", "value1");
+    }
+
+    @Test
+    public void putNewKey() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        map.put("key3", "value3");
+        assertThat(map).hasSize(3).containsEntry("key3", "value3");
+        assertThat(sharedConfiguration).doesNotContainKey("key3");
+    }
+
+    @Test
+    public void putDoesNotAffectOtherSessions() {
+        SessionConfigurationMap map1 = new SessionConfigurationMap(sharedConfiguration);
+        SessionConfigurationMap map2 = new SessionConfigurationMap(sharedConfiguration);
+        map1.put("key1", "updated");
+        assertThat(map2).containsEntry("key1", "value1");
+        assertThat(map2.hasOverrides()).isFalse();
+    }
+
+    @Test
+    public void removeSharedKey() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        Object previous = map.remove("key1");
+        assertThat(previous).isEqualTo("value1");
+        assertThat(map).hasSize(1).doesNotContainKey("key1");
+        assertThat(map.get("key1")).isNull();
+        assertThat(sharedConfiguration).containsKey("key1");
+    }
+
+    @Test
+    public void removeSessionKey() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        map.put("key3", "value3");
+        map.remove("key3");
+        assertThat(map).isEqualTo(sharedConfiguration);
+    }
+
+    @Test
+    public void removeThenPutSharedKey() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        map.remove("key1");
+        map.put("key1", "updated");
+        assertThat(map).hasSize(2).containsEntry("key1", "updated");
+    }
+
+    @Test
+    public void clear() {
+        SessionConfigurationMap map = new SessionConfigurationMap(sharedConfiguration);
+        map.clear();
+        assertThat(map).isEmpty();
+        assertThat(sharedConfiguration).hasSize(2);
+    }
+}
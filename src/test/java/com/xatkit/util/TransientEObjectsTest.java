@@ -0,0 +1,55 @@
+package com.xatkit.util;
+
+import com.xatkit.intent.ContextParameterValue;
+import com.xatkit.intent.EventInstance;
+import com.xatkit.intent.RecognizedIntent;
+import com.xatkit.library.core.CoreLibrary;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransientEObjectsTest {
+
+    @After
+    public void tearDown() {
+        TransientEObjects.setNotificationsEnabled(true);
+    }
+
+    @Test
+    public void createWithNotifications() {
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+        EventInstance eventInstance = TransientEObjects.createEventInstance();
+        ContextParameterValue value = TransientEObjects.createContextParameterValue();
+        assertThat(recognizedIntent.eDeliver()).isTrue();
+        assertThat(eventInstance.eDeliver()).isTrue();
+        assertThat(value.eDeliver()).isTrue();
+    }
+
+    @Test
+    public void createWithoutNotifications() {
+        TransientEObjects.setNotificationsEnabled(false);
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+        EventInstance eventInstance = TransientEObjects.createEventInstance();
+        ContextParameterValue value = TransientEObjects.createContextParameterValue();
+        assertThat(recognizedIntent.eDeliver()).isFalse();
+        assertThat(eventInstance.eDeliver()).isFalse();
+        assertThat(value.eDeliver()).isFalse();
+    }
+
+    @Test
+    public void createContextParameterValueWithoutNotifications() {
+        TransientEObjects.setNotificationsEnabled(false);
+        RecognizedIntent recognizedIntent = TransientEObjects.createRecognizedIntent();
+        recognizedIntent.setDefinition(CoreLibrary.Help);
+        recognizedIntent.setMatchedInput("help");
+        ContextParameterValue value =
+                TransientEObjects.createContextParameterValue(CoreLibrary.AnyValue.getParameters().get(0), "value");
+        recognizedIntent.getValues().add(value);
+        assertThat(recognizedIntent.getDefinition()).isEqualTo(CoreLibrary.Help);
+        assertThat(recognizedIntent.getMatchedInput()).isEqualTo("help");
+        assertThat(recognizedIntent.getValues()).containsExactly(value);
+        assertThat(value.getContextParameter()).isEqualTo(CoreLibrary.AnyValue.getParameters().get(0));
+        assertThat(value.getValue()).isEqualTo("value");
+    }
+}